@@ -10,6 +10,8 @@ import com.robot.mvc.dispatch.DispatchFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.CompletableFuture;
+
 public class SendRequest {
 
     private static final Logger LOG = LoggerFactory.getLogger(SendRequest.class);
@@ -43,6 +45,20 @@ public class SendRequest {
         }
     }
 
+    // TCP、UDP、串口接收到报文信息，异步处理，不阻塞调用线程
+    public CompletableFuture<Response> sendAsync(Protocol protocol, TelegramSender telegramSender)  {
+        // 如果是Order请求(车辆主动上报的)或响应(车辆回复应答)，则直接进行到车辆或设备的Service
+        if (ProtocolUtils.isOrderRequest(protocol) || (ProtocolUtils.isOrderResponse(protocol))) {
+            return dispatchFactory.executeAsync(new OrderRequest(protocol), telegramSender);
+        }
+        else if (ProtocolUtils.isStateProtocol(protocol.getCommandKey())) {
+            return dispatchFactory.executeAsync(new StateRequest(protocol), telegramSender);
+        } else {
+            LOG.error("该报文不符合规则：{}", ProtocolUtils.converterString(protocol));
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
     /**
      * 处理车辆移动请求
      * @param request
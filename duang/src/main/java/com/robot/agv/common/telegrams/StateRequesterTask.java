@@ -3,28 +3,26 @@
  */
 package com.robot.agv.common.telegrams;
 
-import cn.hutool.http.HttpStatus;
+import cn.hutool.core.thread.ThreadUtil;
 import com.google.inject.assistedinject.Assisted;
+import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import static java.util.Objects.requireNonNull;
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
-import javax.swing.Timer;
 
-import com.robot.agv.common.send.SendRequest;
-import com.robot.agv.vehicle.RobotCommAdapter;
-import com.robot.agv.vehicle.telegrams.StateRequest;
-import com.robot.agv.vehicle.telegrams.StateResponse;
-import com.robot.core.AppContext;
+import com.robot.core.handshake.RetransmissionScheduler;
 import com.robot.utils.SettingUtils;
-import org.opentcs.drivers.vehicle.MovementCommand;
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * 任务定时器，定期将请求报文加入队列
+ * 使用握手报文重发共用的时间轮，不依赖AWT事件线程，上一次执行完成后才开始下一次计时
  *
  * @author Laotang
  */
@@ -39,9 +37,9 @@ public class StateRequesterTask {
      */
     private final ActionListener stateRequestAction;
     /**
-     * A timer for enqueuing requests.
+     * The pending timeout, null if not enabled.
      */
-    private Timer stateRequestTimer;
+    private Timeout stateRequestTimeout;
     /**
      * The interval requests should be enqueued.
      */
@@ -58,33 +56,33 @@ public class StateRequesterTask {
         setRequestInterval(SettingUtils.getInt("handshake.interval", "adapter", requestInterval));
     }
 
-    public void enable() {
-        if (stateRequestTimer != null) {
+    public synchronized void enable() {
+        if (stateRequestTimeout != null) {
             return;
         }
         LOG.info("Starting state requester task.");
-        stateRequestTimer = new Timer(requestInterval, stateRequestAction);
-        stateRequestTimer.start();
+        schedule();
     }
 
-    public void disable() {
-        if (stateRequestTimer == null) {
+    public synchronized void disable() {
+        if (stateRequestTimeout == null) {
             return;
         }
         LOG.info("Stopping state requester task.");
-        stateRequestTimer.stop();
-        stateRequestTimer = null;
+        stateRequestTimeout.cancel();
+        stateRequestTimeout = null;
     }
 
     /**
      * Restarts the timer for enqueuing new requests.
      */
-    public void restart() {
-        if (stateRequestTimer == null) {
+    public synchronized void restart() {
+        if (stateRequestTimeout == null) {
             LOG.debug("Not enabled, doing nothing.");
             return;
         }
-        stateRequestTimer.restart();
+        stateRequestTimeout.cancel();
+        schedule();
     }
 
     /**
@@ -96,4 +94,30 @@ public class StateRequesterTask {
         this.requestInterval = requestInterval;
     }
 
+    private void schedule() {
+        // 时间轮在调度器停止后会重新创建，所以每次都重新获取
+        Timer timer = RetransmissionScheduler.duang().getTimer();
+        stateRequestTimeout = timer.newTimeout(this::onTimeout, requestInterval, TimeUnit.MILLISECONDS);
+    }
+
+    private void onTimeout(Timeout timeout) {
+        if (timeout.isCancelled()) {
+            return;
+        }
+        // 任务可能会阻塞，不能在时间轮的线程里执行
+        ThreadUtil.execute(() -> {
+            try {
+                stateRequestAction.actionPerformed(new ActionEvent(this, ActionEvent.ACTION_PERFORMED, null));
+            } catch (Exception e) {
+                LOG.error("执行定时任务时出错: {}", e.getMessage(), e);
+            } finally {
+                synchronized (this) {
+                    // 执行期间没有被停止或重新计时，则开始下一次计时
+                    if (stateRequestTimeout == timeout) {
+                        schedule();
+                    }
+                }
+            }
+        });
+    }
 }
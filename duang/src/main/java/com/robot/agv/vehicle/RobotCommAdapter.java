@@ -240,9 +240,7 @@ public class RobotCommAdapter
             channelManager = null;
         }
         // 清空握手队列
-        if (null != HandshakeTelegram.getHandshakeTelegramQueue(getName())) {
-            HandshakeTelegram.getHandshakeTelegramQueue(getName()).clear();
-        }
+        HandshakeTelegram.duang().clear(getName());
         orderIds.clear();
         super.disable();
         LOG.info("车辆[{}]停用通讯成功", getName());
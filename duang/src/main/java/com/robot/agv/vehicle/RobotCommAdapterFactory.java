@@ -7,6 +7,8 @@ import com.robot.agv.vehicle.exchange.RobotCommAdapterDescription;
 import com.robot.agv.vehicle.net.NetChannelType;
 import com.robot.agv.vehicle.net.netty.upd.UdpServerManager;
 import com.robot.core.AppContext;
+import com.robot.core.handshake.RetransmissionScheduler;
+import com.robot.mvc.dispatch.TelegramPipeline;
 import com.robot.utils.RobotUtil;
 import com.robot.utils.SettingUtils;
 import org.opentcs.data.model.Vehicle;
@@ -76,6 +78,9 @@ public class RobotCommAdapterFactory
             return;
         }
         initialized = false;
+        // 关闭接收报文的处理管道的线程池及计时器，停止握手报文重发的时间轮
+        TelegramPipeline.shutdown();
+        RetransmissionScheduler.shutdown();
         LOG.info("Robot适配器工厂终止");
     }
 
@@ -6,10 +6,12 @@ import com.robot.agv.common.send.SendRequest;
 import com.robot.agv.common.telegrams.Request;
 import com.robot.agv.common.telegrams.Response;
 import com.robot.agv.common.telegrams.TelegramSender;
+import com.robot.agv.vehicle.net.netty.comm.TelegramFrame;
 import com.robot.agv.vehicle.net.netty.upd.UdpServerManager;
 import com.robot.core.AppContext;
 import com.robot.entity.Logs;
 import com.robot.mvc.exceptions.RobotException;
+import com.robot.mvc.dispatch.TelegramPipeline;
 import com.robot.mvc.helper.ActionHelper;
 import com.robot.utils.*;
 import com.robot.agv.vehicle.RobotCommAdapter;
@@ -29,6 +31,7 @@ import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.FutureTask;
+import java.util.function.Consumer;
 
 /**
  * 网络通讯管理工厂
@@ -39,7 +42,6 @@ public class ChannelManagerFactory {
 
     private static final Logger LOG = LoggerFactory.getLogger(ChannelManagerFactory.class);
     private static Object dispatchFactory = null;
-    private static UdpServerManager udpServerManager = null;
     /**
      * 取通讯渠道管理器
      * @param adapter   适配器
@@ -51,27 +53,8 @@ public class ChannelManagerFactory {
             return new TcpChannelManager(adapter);
         }
         else if (NetChannelType.UDP.equals(type)) {
+            // 每个适配器一个UdpServerManager，但共用同一个UDP Socket及EventLoopGroup
             return new UdpServerManager(adapter);
-
-//            if (null == udpServerManager) {
-//                udpServerManager = new UdpServerManager(adapter);
-//                String host = SettingUtils.getStringByGroup("host", NetChannelType.UDP.name().toLowerCase(), "0.0.0.0");
-//                Integer port = SettingUtils.getInt("port", NetChannelType.UDP.name().toLowerCase(), 9090);
-//                if (!udpServerManager.isInitialized()) {
-//                    udpServerManager.initialize();
-//                    if (!udpServerManager.isConnected()) {
-//                        udpServerManager.connect(host, port);
-//                        if (udpServerManager.isConnected()) {
-//                            LOG.info("Robot UDP服务器链接[{}:{}]成功", host, port);
-//                        } else {
-//                            LOG.info("Robot UDP服务器链接[{}:{}]失败", host, port);
-//                        }
-//                    }
-//                }
-//            }
-//            LOG.info("连接车辆[{}], [{}]成功", adapter.getProcessModel().getName(),
-//                    adapter.getProcessModel().getVehicleHost()+":"+adapter.getProcessModel().getVehiclePort());
-//            return new UdpClientManager(adapter);
         }
         else if (NetChannelType.SERIALPORT.equals(type)) {
             return new SerialPortChannelManager(adapter);
@@ -85,6 +68,15 @@ public class ChannelManagerFactory {
      * @param telegramData
      */
     public static void onIncomingTelegram(ConnectionEventListener<Response> eventListener, TelegramSender telegramSender, String telegramData) {
+        onIncomingTelegram(telegramData, null);
+    }
+
+    /**
+     * 接收报文消息，报文根据deviceId分发到对应的适配器
+     * @param telegramData 报文内容
+     * @param deviceListener 解析出deviceId后回调，可为null，UDP用于记录设备的地址
+     */
+    public static void onIncomingTelegram(String telegramData, Consumer<String> deviceListener) {
         java.util.Objects.requireNonNull(telegramData, "报文协议内容不能为空");
 
         List<String> telegramDataList = ProtocolUtils.getTelegram2List(telegramData);
@@ -92,12 +84,44 @@ public class ChannelManagerFactory {
             return;
         }
         for (String data :  telegramDataList) {
-            doTelegram(data);
+            doTelegram(data, deviceListener);
         }
 
     }
 
-    private static void doTelegram(String telegramData) {
+    /**
+     * 接收报文消息，报文已在ByteBuf上解析为TelegramFrame，根据deviceId分发到对应的适配器
+     * 不允许访问的车辆/设备的报文，不会生成字段的字符串
+     * @param frame 报文
+     * @param deviceListener 解析出deviceId后回调，可为null，UDP用于记录设备的地址，
+     *                       只有允许访问且验证码正确的报文才会回调
+     */
+    public static void onIncomingTelegram(TelegramFrame frame, Consumer<String> deviceListener) {
+        java.util.Objects.requireNonNull(frame, "报文协议内容不能为空");
+        Protocol protocol;
+        String telegramData;
+        try {
+            //如果不允许访问，则直接退出
+            if (!ProtocolUtils.isAllowAccess(frame.getDeviceId())) {
+                return;
+            }
+            telegramData = frame.toString();
+            protocol = frame.toProtocol();
+            if (!frame.isCrcValid()) {
+                LOG.warn("报文内容{}的验证码与计算出来的验证码[{}]不一致", telegramData,
+                        String.format("%04x", frame.getComputedCrc()));
+                // 验证码不一致的报文不能确定来源，不回调，避免UDP发送地址被篡改
+                deviceListener = null;
+            }
+            LOG.info("接收到的报文内容: " + telegramData);
+        } catch (Exception e) {
+            LOG.warn("将报文内容{}转换为Protocol对象时出错, 退出该请求的处理: {}, {}", frame, e.getMessage(), e);
+            return;
+        }
+        doTelegram(protocol, telegramData, deviceListener);
+    }
+
+    private static void doTelegram(String telegramData, Consumer<String> deviceListener) {
         //将接收到的报文内容转换为Protocol对象
         Protocol protocol = null;
         try {
@@ -110,13 +134,20 @@ public class ChannelManagerFactory {
             LOG.info("接收到的报文内容: " + telegramData);
         } catch (Exception e) {
             LOG.warn("将报文内容{}转换为Protocol对象时出错, 退出该请求的处理: {}, {}", telegramData,e.getMessage(), e);
+            return;
         }
+        doTelegram(protocol, telegramData, deviceListener);
+    }
 
+    private static void doTelegram(Protocol protocol, String telegramData, Consumer<String> deviceListener) {
         String deviceId = protocol.getDeviceId();
+        if (null != deviceListener) {
+            deviceListener.accept(deviceId);
+        }
         RobotCommAdapter adapter = AppContext.getCommAdapter(deviceId);
         if (ToolsKit.isEmpty(adapter)) {
             deviceId = RobotUtil.getAdapterByDeviceId(deviceId);
-            adapter = AppContext.getCommAdapter(deviceId);
+            adapter = ToolsKit.isEmpty(deviceId) ? null : AppContext.getCommAdapter(deviceId);
             if (ToolsKit.isEmpty(adapter)) {
                 LOG.error("车辆[{}]对应的适配器不存在", deviceId);
                 return;
@@ -126,20 +157,24 @@ public class ChannelManagerFactory {
         TelegramSender telegramSender = AppContext.getTelegramSender();
 
         final Protocol finalProtocol = protocol;
-        // 将请求转到业务逻辑处理
-        FutureTask<Response> futureTask = (FutureTask<Response>) ThreadUtil.execAsync(new Callable<Response>() {
-            @Override
-            public Response call() throws Exception {
-                return SendRequest.duang().send(finalProtocol, telegramSender);
-            }
-        });
+        // 将请求转到业务逻辑处理，同一车辆/设备的报文按接收顺序串行处理，不阻塞当前(I/O)线程
+        TelegramPipeline.duang()
+                .submit(finalProtocol.getDeviceId(), () -> SendRequest.duang().sendAsync(finalProtocol, telegramSender))
+                .whenComplete((response, error) -> {
+                    if (null != error) {
+                        LOG.error("协议内容：{}，业务逻辑处理时发生异常，退出处理！{}", telegramData, error.getMessage(), error);
+                        return;
+                    }
+                    onResponse(eventListener, response);
+                });
+    }
 
-        Response response = null;
-        try {
-            response = futureTask.get();
-        } catch (Exception e) {
-            LOG.error(e.getMessage(), e);
-        }
+    /**
+     * 业务逻辑处理完成后的回调，State请求需要进入到RobotCommAdapter进行处理
+     * @param eventListener 适配器
+     * @param response 业务逻辑处理后的响应
+     */
+    private static void onResponse(ConnectionEventListener<Response> eventListener, Response response) {
         if (ToolsKit.isNotEmpty(response)) {
             if (response.getStatus() != HttpStatus.HTTP_OK) {
                 LOG.error("协议内容：{}，业务逻辑处理时发生异常，退出处理！", response.getRawContent());
@@ -149,9 +184,10 @@ public class ChannelManagerFactory {
             return;
         }
 
-        protocol = response.getProtocol();
+        Protocol protocol = response.getProtocol();
         if (ToolsKit.isEmpty(protocol)) {
-            throw new RobotException("业务逻辑处理后的协议对象不能为空");
+            LOG.error("业务逻辑处理后的协议对象不能为空");
+            return;
         }
 
         // 如果请求报文里包含rptac,rptrtp关键字，则认为是State请求
@@ -0,0 +1,121 @@
+package com.robot.agv.vehicle.net.netty.comm;
+
+import com.robot.agv.vehicle.telegrams.Protocol;
+import com.robot.utils.CrcUtil;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.DefaultByteBufHolder;
+import io.netty.util.CharsetUtil;
+
+/**
+ * 从ByteBuf解析出来的一帧报文: ##,,deviceId,,direction,,commandKey,,params,,crc,,ZZ
+ *
+ * 只记录各字段在ByteBuf里的位置，不复制报文内容，字段的字符串在第一次取值时才生成。
+ * 持有ByteBuf的引用，使用完后需要调用release()释放。
+ */
+public class TelegramFrame extends DefaultByteBufHolder {
+
+    /**参与CRC计算的内容长度，即##,,deviceId,,direction,,commandKey,,params,,的长度*/
+    private final int crcContentLength;
+    /**解析时计算出来的CRC值，报文含有非ASCII字符时为-1*/
+    private final int computedCrc;
+    /**各字段在content里的开始位置及长度，按deviceId、direction、commandKey、params、crc的顺序*/
+    private final int[] fieldOffsets;
+    private final int[] fieldLengths;
+    private final String[] fieldValues = new String[5];
+    private String telegramData;
+
+    TelegramFrame(ByteBuf content, int[] fieldOffsets, int[] fieldLengths, int crcContentLength, int computedCrc) {
+        super(content);
+        this.fieldOffsets = fieldOffsets;
+        this.fieldLengths = fieldLengths;
+        this.crcContentLength = crcContentLength;
+        this.computedCrc = computedCrc;
+    }
+
+    public String getDeviceId() {
+        return getField(0);
+    }
+
+    public String getDirection() {
+        return getField(1);
+    }
+
+    public String getCommandKey() {
+        return getField(2);
+    }
+
+    public String getParams() {
+        return getField(3);
+    }
+
+    /**
+     * 报文里的CRC验证码
+     */
+    public String getCrc() {
+        return getField(4);
+    }
+
+    private String getField(int index) {
+        String value = fieldValues[index];
+        if (null == value) {
+            value = content().toString(fieldOffsets[index], fieldLengths[index], CharsetUtil.UTF_8);
+            fieldValues[index] = value;
+        }
+        return value;
+    }
+
+    /**
+     * 根据报文内容计算出来的CRC值，与CrcUtil.CrcVerify(ProtocolUtils.builderCrcString(protocol))一致
+     */
+    public int getComputedCrc() {
+        if (computedCrc >= 0) {
+            return computedCrc;
+        }
+        // 含有非ASCII字符时，CrcVerify是按char计算的，需要转换成字符串后再计算
+        return CrcUtil.CrcVerify(content().toString(0, crcContentLength, CharsetUtil.UTF_8));
+    }
+
+    /**
+     * 报文里的CRC验证码与根据报文内容计算出来的是否一致，不区分大小写
+     */
+    public boolean isCrcValid() {
+        int offset = fieldOffsets[4];
+        int length = fieldLengths[4];
+        if (length > 4) {
+            return false;
+        }
+        int crc = 0;
+        for (int i = offset; i < offset + length; i++) {
+            int digit = Character.digit(content().getByte(i), 16);
+            if (digit < 0) {
+                return false;
+            }
+            crc = (crc << 4) | digit;
+        }
+        return crc == getComputedCrc();
+    }
+
+    /**
+     * 转换为Protocol对象
+     */
+    public Protocol toProtocol() {
+        return new Protocol.Builder()
+                .deviceId(getDeviceId())
+                .direction(getDirection())
+                .commandKey(getCommandKey())
+                .params(getParams())
+                .crc(getCrc())
+                .build();
+    }
+
+    /**
+     * 报文内容
+     */
+    @Override
+    public String toString() {
+        if (null == telegramData) {
+            telegramData = content().toString(CharsetUtil.UTF_8);
+        }
+        return telegramData;
+    }
+}
@@ -4,9 +4,10 @@ import com.robot.agv.common.telegrams.Response;
 import com.robot.agv.common.telegrams.TelegramSender;
 import com.robot.agv.vehicle.RobotCommAdapter;
 import com.robot.agv.vehicle.net.ChannelManagerFactory;
+import com.robot.utils.CrcUtil;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
-import io.netty.handler.codec.string.StringDecoder;
+import io.netty.handler.codec.ByteToMessageDecoder;
 import io.netty.util.CharsetUtil;
 import org.opentcs.contrib.tcp.netty.ConnectionEventListener;
 import org.slf4j.Logger;
@@ -15,16 +16,27 @@ import org.slf4j.LoggerFactory;
 import java.util.List;
 
 /**
- * 车辆电报(字符串)解码
+ * 车辆电报解码
+ *
+ * 直接在ByteBuf上按字段位置解析##,,deviceId,,direction,,commandKey,,params,,crc,,ZZ格式的报文，
+ * 边解析边计算CRC，不先转换为字符串再分割。
+ * 根据帧头##及帧尾,,ZZ分帧，TCP字节流里不完整的报文从上次扫描到的位置继续扫描。
  *
  * @author Laotang
  */
-public class VehicleTelegramDecoder extends StringDecoder {
+public class VehicleTelegramDecoder extends ByteToMessageDecoder {
 
     private static final Logger LOG = LoggerFactory.getLogger(VehicleTelegramDecoder.class);
 
+    /**默认的报文最大长度*/
+    public static final int DEFAULT_MAX_FRAME_LENGTH = 64 * 1024;
+    /**参与CRC计算的分隔符个数，即##,,deviceId,,direction,,commandKey,,params,,里的分隔符个数*/
+    private static final int CRC_SEPARATOR_COUNT = 5;
+
     private final ConnectionEventListener<Response> eventListener;
     private final TelegramSender telegramSender;
+    /**TCP字节流里不完整报文的扫描状态*/
+    private final FrameScanner scanner = new FrameScanner();
 
     public VehicleTelegramDecoder(ConnectionEventListener<Response> eventListener, TelegramSender telegramSender) {
         this.eventListener = eventListener;
@@ -37,9 +49,187 @@ public class VehicleTelegramDecoder extends StringDecoder {
     }
 
     @Override
-    protected void decode(ChannelHandlerContext ctx, ByteBuf msg, List<Object> out) throws Exception {
-        String telegramData = msg.toString(CharsetUtil.UTF_8);
-        // 接收到的协议
-        ChannelManagerFactory.onIncomingTelegram(eventListener, telegramSender, telegramData);
+    protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception {
+        TelegramFrame frame;
+        while (null != (frame = nextFrame(in))) {
+            try {
+                // 接收到的协议
+                ChannelManagerFactory.onIncomingTelegram(frame, null);
+            } finally {
+                frame.release();
+            }
+        }
+    }
+
+    /**
+     * 从累积的字节流里解析出下一帧报文，报文不完整时记录扫描到的位置，接收到更多内容后从该位置继续扫描
+     *
+     * @param in 累积的字节流
+     * @return 报文，内容不完整时返回null
+     */
+    TelegramFrame nextFrame(ByteBuf in) {
+        return decodeFrame(in, DEFAULT_MAX_FRAME_LENGTH, scanner);
+    }
+
+    /**
+     * 从ByteBuf里解析出一帧报文，帧头前的内容及格式不正确的报文会被丢弃
+     * 不保留扫描状态，用于每次都是完整内容的UDP报文
+     *
+     * @param in 接收到的内容
+     * @param maxFrameLength 报文最大长度，超出则丢弃
+     * @return 报文，内容不完整时返回null
+     */
+    public static TelegramFrame decodeFrame(ByteBuf in, int maxFrameLength) {
+        return decodeFrame(in, maxFrameLength, new FrameScanner());
+    }
+
+    private static TelegramFrame decodeFrame(ByteBuf in, int maxFrameLength, FrameScanner scanner) {
+        while (true) {
+            int writerIndex = in.writerIndex();
+            int start;
+            if (scanner.scanning) {
+                // 上次的报文不完整，readerIndex停在帧头
+                start = in.readerIndex();
+            } else {
+                start = indexOfHead(in, in.readerIndex(), writerIndex);
+                if (start < 0) {
+                    // 最后一个字节可能是帧头的第一个#，保留
+                    in.readerIndex(Math.max(in.readerIndex(), writerIndex - 1));
+                    return null;
+                }
+                // 丢弃帧头前的内容
+                in.readerIndex(start);
+                scanner.begin();
+            }
+
+            // 分隔符相对帧头的位置，前5个之后是CRC验证码，第6个为CRC验证码之后的分隔符
+            int[] separators = scanner.separators;
+            int separatorCount = scanner.separatorCount;
+            int crc = scanner.crc;
+            boolean ascii = scanner.ascii;
+            int end = -1;
+            int limit = Math.min(writerIndex, start + maxFrameLength + 1);
+            int i = start + scanner.scanned;
+            // 每个位置都要能看到之后3个字节才能判断是否为分隔符或帧尾，否则等待更多内容后再扫描
+            for (; i + 3 < limit; i++) {
+                byte b = in.getByte(i);
+                if (b == '#' && i == start + 2) {
+                    // 帧头前多余的#，帧头从下一个#开始
+                    start++;
+                    in.readerIndex(start);
+                    limit = Math.min(writerIndex, start + maxFrameLength + 1);
+                    continue;
+                }
+                boolean separator = b == ',' && in.getByte(i + 1) == ',';
+                if (separator && in.getByte(i + 2) == 'Z' && in.getByte(i + 3) == 'Z') {
+                    if (separatorCount <= CRC_SEPARATOR_COUNT) {
+                        separators[separatorCount] = i - start;
+                    }
+                    end = i + 4;
+                    break;
+                }
+                if (separatorCount < CRC_SEPARATOR_COUNT) {
+                    ascii &= b >= 0;
+                    crc = CrcUtil.update(crc, b);
+                }
+                if (separator) {
+                    if (separatorCount < CRC_SEPARATOR_COUNT) {
+                        crc = CrcUtil.update(crc, ',');
+                    }
+                    if (separatorCount <= CRC_SEPARATOR_COUNT) {
+                        separators[separatorCount] = i - start;
+                    }
+                    separatorCount++;
+                    i++;
+                }
+            }
+
+            if (end < 0 || end - start > maxFrameLength) {
+                if (limit - start > maxFrameLength) {
+                    LOG.warn("报文长度超出{}，丢弃", maxFrameLength);
+                    scanner.scanning = false;
+                    in.readerIndex(start + 2);
+                    continue;
+                }
+                scanner.save(i - start, separatorCount, crc, ascii);
+                return null;
+            }
+            scanner.scanning = false;
+
+            if (separatorCount < CRC_SEPARATOR_COUNT) {
+                LOG.warn("报文[{}]格式不正确", in.toString(start, end - start, CharsetUtil.UTF_8));
+                in.readerIndex(end);
+                continue;
+            }
+
+            // 各字段在帧里的相对位置
+            int[] fieldOffsets = new int[CRC_SEPARATOR_COUNT];
+            int[] fieldLengths = new int[CRC_SEPARATOR_COUNT];
+            boolean emptyField = false;
+            for (int field = 0; field < CRC_SEPARATOR_COUNT; field++) {
+                fieldOffsets[field] = separators[field] + 2;
+                fieldLengths[field] = separators[field + 1] - separators[field] - 2;
+                emptyField |= fieldLengths[field] <= 0;
+            }
+            if (emptyField) {
+                LOG.warn("报文[{}]的每个单元内容值不能为空", in.toString(start, end - start, CharsetUtil.UTF_8));
+                in.readerIndex(end);
+                continue;
+            }
+
+            int crcContentLength = separators[CRC_SEPARATOR_COUNT - 1] + 2;
+            TelegramFrame frame = new TelegramFrame(in.retainedSlice(start, end - start),
+                    fieldOffsets, fieldLengths, crcContentLength, ascii ? crc : -1);
+            in.readerIndex(end);
+            return frame;
+        }
+    }
+
+    /**
+     * 帧头##的位置，没有则返回-1
+     */
+    private static int indexOfHead(ByteBuf in, int from, int to) {
+        int index = from;
+        while (index < to - 1) {
+            index = in.indexOf(index, to, (byte) '#');
+            if (index < 0 || index >= to - 1) {
+                return -1;
+            }
+            if (in.getByte(index + 1) == '#') {
+                return index;
+            }
+            index++;
+        }
+        return -1;
+    }
+
+    /**
+     * 分帧时的扫描状态，报文不完整时保存，接收到更多内容后从上次扫描到的位置继续，避免重新扫描整个报文
+     * 位置都相对于帧头，帧头即readerIndex，ByteToMessageDecoder丢弃已读内容后仍然有效
+     */
+    private static final class FrameScanner {
+        /**是否有不完整的报文*/
+        private boolean scanning;
+        /**下一个要扫描的位置*/
+        private int scanned;
+        private final int[] separators = new int[CRC_SEPARATOR_COUNT + 1];
+        private int separatorCount;
+        private int crc;
+        private boolean ascii;
+
+        private void begin() {
+            scanning = true;
+            scanned = 2;
+            separatorCount = 0;
+            crc = CrcUtil.update(CrcUtil.update(CrcUtil.CRC16_INIT, '#'), '#');
+            ascii = true;
+        }
+
+        private void save(int scanned, int separatorCount, int crc, boolean ascii) {
+            this.scanned = scanned;
+            this.separatorCount = separatorCount;
+            this.crc = crc;
+            this.ascii = ascii;
+        }
     }
 }
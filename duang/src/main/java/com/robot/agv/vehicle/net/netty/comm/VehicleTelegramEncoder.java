@@ -1,12 +1,94 @@
 package com.robot.agv.vehicle.net.netty.comm;
 
-import io.netty.handler.codec.string.StringEncoder;
+import com.robot.agv.common.telegrams.Telegram;
+import com.robot.agv.vehicle.telegrams.Protocol;
+import com.robot.utils.CrcUtil;
+import com.robot.utils.ProtocolUtils;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.MessageToByteEncoder;
 
 /**
- * 车辆电报(字符串)编码
+ * 车辆电报编码
+ *
+ * Protocol对象直接按##,,deviceId,,direction,,commandKey,,params,,crc,,ZZ格式写入ByteBuf，边写边计算CRC；
+ * 电报及字符串则直接写入其内容。
  *
  * @author Laotang
  */
-public class VehicleTelegramEncoder extends StringEncoder {
+public class VehicleTelegramEncoder extends MessageToByteEncoder<Object> {
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    @Override
+    public boolean acceptOutboundMessage(Object msg) throws Exception {
+        return msg instanceof Protocol || msg instanceof Telegram || msg instanceof CharSequence;
+    }
+
+    @Override
+    protected void encode(ChannelHandlerContext ctx, Object msg, ByteBuf out) throws Exception {
+        if (msg instanceof Protocol) {
+            encode((Protocol) msg, out);
+        } else if (msg instanceof Telegram) {
+            ByteBufUtil.writeUtf8(out, ((Telegram) msg).getRawContent());
+        } else {
+            ByteBufUtil.writeUtf8(out, (CharSequence) msg);
+        }
+    }
+
+    /**
+     * 将Protocol对象写入ByteBuf，与ProtocolUtils.converterString(protocol)的结果一致
+     *
+     * @param protocol 协议对象
+     * @param out ByteBuf
+     */
+    public static void encode(Protocol protocol, ByteBuf out) {
+        checkField(protocol.getDeviceId());
+        checkField(protocol.getDirection());
+        checkField(protocol.getCommandKey());
+        checkField(protocol.getParams());
+
+        int start = out.writerIndex();
+        out.writeByte('#').writeByte('#');
+        int length = 2;
+        length += writeField(protocol.getDeviceId(), out);
+        length += writeField(protocol.getDirection(), out);
+        length += writeField(protocol.getCommandKey(), out);
+        length += writeField(protocol.getParams(), out);
+        writeSeparator(out);
+
+        int crc;
+        if (out.writerIndex() - start == length + 2) {
+            crc = CrcUtil.update(CrcUtil.CRC16_INIT, out, start, out.writerIndex() - start);
+        } else {
+            // 含有非ASCII字符时，CrcVerify是按char计算的，需要按字符串计算
+            crc = CrcUtil.CrcVerify(ProtocolUtils.builderCrcString(protocol));
+        }
+        out.writeByte(HEX_DIGITS[(crc >> 12) & 0xF])
+                .writeByte(HEX_DIGITS[(crc >> 8) & 0xF])
+                .writeByte(HEX_DIGITS[(crc >> 4) & 0xF])
+                .writeByte(HEX_DIGITS[crc & 0xF]);
+        writeSeparator(out);
+        out.writeByte('Z').writeByte('Z');
+    }
+
+    /**
+     * 写入分隔符及字段值，返回写入的字符数
+     */
+    private static int writeField(String value, ByteBuf out) {
+        writeSeparator(out);
+        ByteBufUtil.writeUtf8(out, value);
+        return value.length() + 2;
+    }
+
+    private static void writeSeparator(ByteBuf out) {
+        out.writeByte(',').writeByte(',');
+    }
 
+    private static void checkField(String value) {
+        if (null == value || value.trim().isEmpty() || "null".equalsIgnoreCase(value)) {
+            throw new IllegalArgumentException("构建协议对象时，报文内容主体不能为空");
+        }
+    }
 }
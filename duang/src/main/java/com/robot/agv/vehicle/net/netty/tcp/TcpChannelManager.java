@@ -1,16 +1,12 @@
 package com.robot.agv.vehicle.net.netty.tcp;
 
-import com.google.common.primitives.Ints;
 import com.robot.agv.common.telegrams.Request;
 import com.robot.agv.common.telegrams.Response;
 import com.robot.agv.vehicle.RobotCommAdapter;
 import com.robot.agv.vehicle.net.netty.comm.VehicleTelegramDecoder;
 import com.robot.agv.vehicle.net.netty.comm.VehicleTelegramEncoder;
 import com.robot.agv.vehicle.net.IChannelManager;
-import com.robot.agv.vehicle.telegrams.OrderResponse;
-import com.robot.agv.vehicle.telegrams.StateResponse;
 import io.netty.channel.ChannelHandler;
-import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
 import org.opentcs.contrib.tcp.netty.TcpClientChannelManager;
 
 import javax.annotation.Nonnull;
@@ -40,16 +36,14 @@ public class TcpChannelManager implements IChannelManager<Request, Response> {
      * @return 负责从字节流中写入和读取的通道处理程序
      */
     private List<ChannelHandler> getChannelHandlers() {
-        return Arrays.asList(new LengthFieldBasedFrameDecoder(getMaxTelegramLength(), 1, 1, 2, 0),
-                new VehicleTelegramDecoder(robotCommAdapter),
+        // VehicleTelegramDecoder根据帧头##及帧尾,,ZZ自行分帧，并限制报文最大长度。
+        // 原来的LengthFieldBasedFrameDecoder(maxFrameLength=17, lengthFieldOffset=1, lengthFieldLength=1)
+        // 是openTCS示例里二进制报文的分帧方式，对##,,开头的文本报文读到的长度是'#'(35)，
+        // 帧长度39超出17，每个报文都会抛出TooLongFrameException，所以不再使用
+        return Arrays.asList(new VehicleTelegramDecoder(robotCommAdapter),
                 new VehicleTelegramEncoder());
     }
 
-    private int getMaxTelegramLength() {
-        return Ints.max(OrderResponse.TELEGRAM_LENGTH,
-                StateResponse.TELEGRAM_LENGTH);
-    }
-
     @Override
     public void initialize() {
         tcpClientChannelManager.initialize();
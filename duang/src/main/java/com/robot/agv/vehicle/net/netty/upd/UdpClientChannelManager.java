@@ -5,7 +5,6 @@ import com.robot.agv.vehicle.RobotCommAdapter;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.*;
-import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.DatagramPacket;
 import io.netty.channel.socket.nio.NioDatagramChannel;
 import io.netty.handler.logging.LoggingHandler;
@@ -63,7 +62,8 @@ public class UdpClientChannelManager<O, I> {
             return;
         }
         this.bootstrap = new Bootstrap();
-        workerGroup = new NioEventLoopGroup();
+        // 共用UDP服务端的EventLoopGroup，不再每个适配器创建一个
+        workerGroup = UdpServerChannelManager.duang().acquireWorkerGroup();
         this.bootstrap.group(workerGroup);
         this.bootstrap.channel(NioDatagramChannel.class);
         // 支持广播
@@ -124,12 +124,14 @@ public class UdpClientChannelManager<O, I> {
             return;
         }
         if (channelFuture != null) {
-            this.channelFuture.channel().close();
-            this.bootstrap.config().group().shutdownGracefully();
-            this.initialized = false;
+            this.channelFuture.channel().close().syncUninterruptibly();
             this.channelFuture = null;
             LOG.warn("UdpClientChannelManager is disconnect!");
         }
+        // 共用的EventLoopGroup不能直接关闭，由UdpServerChannelManager在最后一个使用者释放时关闭
+        UdpServerChannelManager.duang().releaseWorkerGroup();
+        workerGroup = null;
+        this.initialized = false;
     }
 
     public boolean isConnected() {
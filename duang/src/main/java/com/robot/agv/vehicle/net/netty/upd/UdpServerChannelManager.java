@@ -1,191 +1,251 @@
 package com.robot.agv.vehicle.net.netty.upd;
 
+import cn.hutool.core.thread.ThreadUtil;
 import cn.hutool.core.util.ObjectUtil;
 import com.robot.agv.vehicle.RobotCommAdapter;
+import com.robot.agv.vehicle.net.NetChannelType;
+import com.robot.utils.SettingUtils;
 import io.netty.bootstrap.Bootstrap;
-import io.netty.buffer.Unpooled;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 import io.netty.channel.*;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.DatagramPacket;
 import io.netty.channel.socket.nio.NioDatagramChannel;
 import io.netty.handler.logging.LoggingHandler;
-import io.netty.util.CharsetUtil;
-import io.netty.util.concurrent.ScheduledFuture;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.util.concurrent.GlobalEventExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
 import java.net.InetSocketAddress;
-import java.util.Iterator;
-import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
-import java.util.function.Supplier;
 
 import static java.util.Objects.requireNonNull;
-import static org.opentcs.util.Assertions.checkState;
 
 /**
- * Created by laotang on 2019/12/21.
+ * 全厂共用的UDP服务端
+ *
+ * 所有车辆/设备适配器共用一个UDP Socket及一个EventLoopGroup，
+ * 接收到的报文根据报文里的deviceId分发到对应的适配器，
+ * 发送报文时则发送到该设备最后一次上报报文时的地址。
+ * EventLoopGroup在第一个使用者(UDP服务端Socket或UdpClientChannelManager)使用时创建，
+ * 最后一个使用者释放时关闭，避免车辆全部断开后仍然残留线程。
  *
- *  @param <O> The type of outgoing messages on this UdpServerChannelManager.
- * @param <I> The type of incoming messages on this UdpServerChannelManager.
+ * Created by laotang on 2019/12/21.
  */
-public class UdpServerChannelManager<O, I> {
+public class UdpServerChannelManager {
 
     private static final Logger LOG = LoggerFactory.getLogger(UdpServerChannelManager.class);
 
-    private Bootstrap bootstrap;
-    private EventLoopGroup workerGroup;
-    private ChannelFuture channelFuture;
-    private ScheduledFuture<?> connectFuture;
-    private RobotCommAdapter adapter;
-    private Supplier<List<ChannelHandler>> channelSupplier;
-    private int readTimeout;
-    private boolean enableLogging;
-
-    private boolean initialized;
     private static int BUFFER_SIZE = 64 * 1024;
     private static final String LOGGING_HANDLER_NAME = "ChannelLoggingHandler";
+    private static UdpServerChannelManager channelManager;
 
-    public UdpServerChannelManager(@Nonnull RobotCommAdapter adapter,
-                                   Supplier<List<ChannelHandler>> channelSupplier,
-                                   int readTimeout,
-                                   boolean enableLogging) {
-        this.adapter = adapter;
-        this.channelSupplier = channelSupplier;
-        this.readTimeout = readTimeout;
-        this.enableLogging = enableLogging;
+    /**共用的EventLoopGroup，一个UDP Socket只会由一个线程处理，所以默认为1个线程，没有使用者时为null*/
+    private EventLoopGroup workerGroup;
+    /**EventLoopGroup的使用者数量*/
+    private int workerGroupUsers;
+    /**所有适配器共用同一个Handler*/
+    private final UdpServerHandler handler = new UdpServerHandler(this);
+    /**已连接的适配器，key为适配器名称*/
+    private final Map<String, RobotCommAdapter> connectedAdapters = new ConcurrentHashMap<>();
+    /**设备最后一次上报报文时的地址，key为deviceId*/
+    private final Map<String, InetSocketAddress> deviceAddresses = new ConcurrentHashMap<>();
+    private volatile Channel channel;
+
+    private UdpServerChannelManager() {
     }
 
-    public void initialized() {
-        if (this.initialized) {
-            LOG.warn("已经初始化，请勿重复初始化");
-            return;
+    public static synchronized UdpServerChannelManager duang() {
+        if (null == channelManager) {
+            channelManager = new UdpServerChannelManager();
         }
-        this.bootstrap = new Bootstrap();
-        workerGroup = new NioEventLoopGroup();
-        this.bootstrap.group(workerGroup);
-        this.bootstrap.channel(NioDatagramChannel.class);
-        // 支持广播
-        this.bootstrap.option(ChannelOption.SO_BROADCAST, true);
-        // 设置UDP读缓冲区为64k
-        this.bootstrap.option(ChannelOption.SO_RCVBUF, BUFFER_SIZE);
-        // 设置UDP写缓冲区为64k
-        this.bootstrap.option(ChannelOption.SO_SNDBUF, BUFFER_SIZE);
-        UdpServerHandler udpServerHandler = new UdpServerHandler(this, adapter);
-        this.bootstrap.handler(new ChannelInitializer<NioDatagramChannel>() {
-            @Override
-            protected void initChannel(NioDatagramChannel ch) throws Exception {
-                Iterator channelIterator = ((List) UdpServerChannelManager.this.channelSupplier.get()).iterator();
-                while (channelIterator.hasNext()) {
-                    ChannelHandler handler = (ChannelHandler) channelIterator.next();
-                    ch.pipeline().addLast(new ChannelHandler[]{handler});
-                }
-                ch.pipeline().addLast(udpServerHandler);
-            }
-        });
-        initialized = true;
+        return channelManager;
     }
 
-    public boolean isInitialized() {
-        return initialized;
+    /**
+     * 取共用的EventLoopGroup，如果还没有创建则创建
+     * 使用完后必须调用releaseWorkerGroup释放
+     */
+    public synchronized EventLoopGroup acquireWorkerGroup() {
+        if (null == workerGroup) {
+            int threads = SettingUtils.getInt("threads", NetChannelType.UDP.name().toLowerCase(), 1);
+            workerGroup = new NioEventLoopGroup(threads, new DefaultThreadFactory("robot-udp", true));
+        }
+        workerGroupUsers++;
+        return workerGroup;
     }
 
-    public void terminate() {
-        disconnect();
+    /**
+     * 释放共用的EventLoopGroup，最后一个使用者释放时关闭
+     */
+    public synchronized void releaseWorkerGroup() {
+        if (workerGroupUsers <= 0) {
+            return;
+        }
+        workerGroupUsers--;
+        if (workerGroupUsers == 0) {
+            workerGroup.shutdownGracefully(0, 2, TimeUnit.SECONDS);
+            workerGroup = null;
+            LOG.warn("UdpServerChannelManager workerGroup is shutdown!");
+        }
     }
 
-    public void connect(String host, int port) throws InterruptedException {
+    /**
+     * 连接适配器，如果UDP Socket还没有绑定，则先绑定
+     * @param adapter 适配器
+     * @param host 绑定的IP
+     * @param port 绑定的端口
+     */
+    public void connect(@Nonnull RobotCommAdapter adapter, String host, int port) {
+        requireNonNull(adapter, "adapter");
         requireNonNull(host, "host");
-        checkState(isInitialized(), "Not initialized");
-        if (isConnected()) {
-            LOG.debug("Already connected, doing nothing.");
-            return;
-        }
-        LOG.warn("Initiating connection attempt to {}:{}...", host, port);
-        channelFuture = bootstrap.bind(host, port).sync();
-        channelFuture.addListener((ChannelFuture future) -> {
-            if (future.isSuccess()) {
-                this.initialized = true;
-                adapter.onConnect();
-                LOG.warn("UdpServerChannelManager connect is success:  {}:{}", host, port);
+        boolean bound;
+        synchronized (this) {
+            bound = bind(host, port);
+            if (bound) {
+                connectedAdapters.put(adapter.getName(), adapter);
             }
-            else {
-                adapter.onFailedConnectionAttempt();
-                LOG.error("UdpServerChannelManager connect fail");
-            }
-        });
-        connectFuture = null;
+        }
+        // 回调放在锁外，避免与适配器的锁发生死锁
+        if (bound) {
+            adapter.onConnect();
+        } else {
+            adapter.onFailedConnectionAttempt();
+        }
     }
 
-    public void disconnect() {
-        if (!this.initialized) {
-            LOG.warn("UdpServerChannelManager is not initalized!");
+    private boolean bind(String host, int port) {
+        if (isActive()) {
+            return true;
+        }
+        LOG.warn("Initiating udp server bind to {}:{}...", host, port);
+        Bootstrap bootstrap = new Bootstrap();
+        bootstrap.group(acquireWorkerGroup());
+        bootstrap.channel(NioDatagramChannel.class);
+        // 支持广播
+        bootstrap.option(ChannelOption.SO_BROADCAST, true);
+        // 设置UDP读缓冲区为64k
+        bootstrap.option(ChannelOption.SO_RCVBUF, BUFFER_SIZE);
+        // 设置UDP写缓冲区为64k
+        bootstrap.option(ChannelOption.SO_SNDBUF, BUFFER_SIZE);
+        bootstrap.handler(handler);
+        try {
+            channel = bootstrap.bind(host, port).sync().channel();
+            LOG.warn("UdpServerChannelManager bind is success:  {}:{}", host, port);
+            return true;
+        } catch (Exception e) {
+            channel = null;
+            releaseWorkerGroup();
+            LOG.error("UdpServerChannelManager bind fail: {}:{}, {}", host, port, e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /**
+     * 断开适配器，最后一个适配器断开时关闭UDP Socket
+     * @param adapter 适配器
+     */
+    public synchronized void disconnect(@Nonnull RobotCommAdapter adapter) {
+        requireNonNull(adapter, "adapter");
+        if (null == connectedAdapters.remove(adapter.getName())) {
             return;
         }
-        if (channelFuture != null) {
-            this.channelFuture.channel().close();
-            this.bootstrap.config().group().shutdownGracefully();
-            this.initialized = false;
-            this.channelFuture = null;
+        if (connectedAdapters.isEmpty() && null != channel) {
+            channel.close().syncUninterruptibly();
+            channel = null;
+            deviceAddresses.clear();
+            releaseWorkerGroup();
             LOG.warn("UdpServerChannelManager is disconnect!");
         }
     }
 
-    public boolean isConnected() {
-        return channelFuture != null && channelFuture.channel().isActive();
+    /**
+     * 适配器是否已连接
+     */
+    public boolean isConnected(@Nonnull RobotCommAdapter adapter) {
+        return connectedAdapters.containsKey(adapter.getName()) && isActive();
     }
 
-    public void setLoggingEnabled(boolean enabled) {
-        checkState(initialized, "Not initialized.");
+    private boolean isActive() {
+        Channel currentChannel = channel;
+        return currentChannel != null && currentChannel.isActive();
+    }
 
-        if (null == channelFuture) {
-            LOG.warn("No channel future available, doing nothing.");
+    public synchronized void setLoggingEnabled(boolean enabled) {
+        if (null == channel) {
+            LOG.warn("No channel available, doing nothing.");
             return;
         }
 
-        ChannelPipeline pipeline = channelFuture.channel().pipeline();
+        ChannelPipeline pipeline = channel.pipeline();
         if (enabled && pipeline.get(LOGGING_HANDLER_NAME) == null) {
-            pipeline.addFirst(LOGGING_HANDLER_NAME,
-                    new LoggingHandler(UdpServerChannelManager.this.getClass()));
+            pipeline.addFirst(LOGGING_HANDLER_NAME, new LoggingHandler(UdpServerChannelManager.class));
         }
         else if (!enabled && pipeline.get(LOGGING_HANDLER_NAME) != null) {
             pipeline.remove(LOGGING_HANDLER_NAME);
         }
     }
 
-    public void scheduleConnect(@Nonnull String host, int port, long delay) {
+    /**
+     * 延时重连适配器
+     */
+    public void scheduleConnect(@Nonnull RobotCommAdapter adapter, @Nonnull String host, int port, long delay) {
+        requireNonNull(adapter, "adapter");
         requireNonNull(host, "host");
-        checkState(isInitialized(), "Not initialized");
-        checkState(channelFuture == null, "Connection attempt already scheduled");
-
-        connectFuture = workerGroup.schedule(() -> {
-            try {
-                connect(host, port);
-            } catch (InterruptedException e) {
-                LOG.info("重连时发生异常： " + e.getMessage(), e);
-            }
-        }, delay, TimeUnit.MILLISECONDS);
+        // 共用的EventLoopGroup可能还没有创建或已关闭，所以用Netty的全局线程计时，
+        // 绑定时需要同步等待，不能在计时线程里执行
+        GlobalEventExecutor.INSTANCE.schedule(() -> ThreadUtil.execute(() -> connect(adapter, host, port)),
+                delay, TimeUnit.MILLISECONDS);
     }
 
-    public void send(O telegram) {
-        if (!this.isConnected()) {
-            throw new IllegalArgumentException("Not initialized.");
+    /**
+     * 记录设备上报报文时的地址，只应对允许访问且验证码正确的报文调用
+     * @param deviceId 车辆/设备ID
+     * @param address 地址
+     */
+    public void setDeviceAddress(String deviceId, InetSocketAddress address) {
+        if (ObjectUtil.isNotEmpty(deviceId) && null != address) {
+            deviceAddresses.put(deviceId, address);
+        }
+    }
+
+    /**
+     * 发送报文到设备最后一次上报报文时的地址，如果设备还没有上报过报文，
+     * 则发送到控制中心里设置的车辆IP及端口
+     * @param adapter 适配器
+     * @param deviceId 车辆/设备ID
+     * @param telegram 报文内容
+     */
+    public void send(@Nonnull RobotCommAdapter adapter, String deviceId, String telegram) {
+        Channel currentChannel = channel;
+        if (null == currentChannel || !currentChannel.isActive()) {
+            throw new IllegalStateException("Not initialized.");
         }
         if (ObjectUtil.isEmpty(telegram)) {
             throw new IllegalArgumentException("广播的报文内容不能为空");
         }
 
-        String host= adapter.getProcessModel().getVehicleHost();
-        int port = adapter.getProcessModel().getVehiclePort();
-        InetSocketAddress address = new InetSocketAddress(host, port);
-        String telegramStr = telegram.toString();
+        InetSocketAddress address = null;
+        if (ObjectUtil.isNotEmpty(deviceId)) {
+            address = deviceAddresses.get(deviceId);
+        }
+        if (null == address) {
+            address = deviceAddresses.get(adapter.getName());
+        }
+        if (null == address) {
+            address = new InetSocketAddress(adapter.getProcessModel().getVehicleHost(),
+                    adapter.getProcessModel().getVehiclePort());
+        }
         LOG.info("upd server send client[{}][{}], telegram [{}] ",
-                adapter.getProcessModel().getName(),
-                (address.getAddress().toString()+":"+address.getPort()),
-                telegramStr);
-        channelFuture.channel().writeAndFlush(new DatagramPacket(Unpooled.copiedBuffer(telegramStr, CharsetUtil.UTF_8),  address));
+                adapter.getProcessModel().getName(), address, telegram);
+        // 直接写入池化的ByteBuf，不经过中间的byte数组
+        ByteBuf content = currentChannel.alloc().ioBuffer(ByteBufUtil.utf8MaxBytes(telegram));
+        ByteBufUtil.writeUtf8(content, telegram);
+        currentChannel.writeAndFlush(new DatagramPacket(content, address));
     }
-
-
 }
@@ -1,47 +1,53 @@
 package com.robot.agv.vehicle.net.netty.upd;
 
-import cn.hutool.core.util.ObjectUtil;
-import cn.hutool.core.util.StrUtil;
 import cn.hutool.log.Log;
 import cn.hutool.log.LogFactory;
-import com.robot.agv.common.telegrams.TelegramSender;
-import com.robot.agv.vehicle.RobotCommAdapter;
 import com.robot.agv.vehicle.net.ChannelManagerFactory;
+import com.robot.agv.vehicle.net.netty.comm.TelegramFrame;
+import com.robot.agv.vehicle.net.netty.comm.VehicleTelegramDecoder;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.channel.socket.DatagramPacket;
-import io.netty.util.CharsetUtil;
-import org.opentcs.contrib.tcp.netty.ConnectionEventListener;
 
+import java.net.InetSocketAddress;
 
+/**
+ * 共用UDP服务端的Handler，所有适配器共用一个实例
+ * 接收到的报文由ChannelManagerFactory根据deviceId分发到对应的适配器
+ */
+@ChannelHandler.Sharable
 public class UdpServerHandler extends SimpleChannelInboundHandler<DatagramPacket> {
 
     private final static Log logger = LogFactory.get();
-    private ConnectionEventListener eventListener;
     private UdpServerChannelManager manager;
-    private TelegramSender telegramSender;
 
 
-    public UdpServerHandler(UdpServerChannelManager manager, RobotCommAdapter adapter){
+    public UdpServerHandler(UdpServerChannelManager manager){
         this.manager = manager;
-        this.eventListener = (ConnectionEventListener)adapter;
-        this.telegramSender = (TelegramSender)adapter;
     }
 
     @Override
     protected void channelRead0(ChannelHandlerContext ctx, DatagramPacket datagramPacket) throws Exception {
         try {
             // 因为Netty对UDP进行了封装，所以接收到的是DatagramPacket对象。
-            String telegramData = datagramPacket.content().toString(CharsetUtil.UTF_8);
-            if(StrUtil.isEmpty(telegramData)) {
+            ByteBuf content = datagramPacket.content();
+            if(!content.isReadable()) {
                 logger.error("upd接收到的报文内容不能为空");
                 return;
             }
-            if(ObjectUtil.isNotEmpty(eventListener)) {
-                // 接收到的报文，以字符串形式传递
-                ChannelManagerFactory.onIncomingTelegram(eventListener, telegramSender, telegramData);
+            // 直接在ByteBuf上解析报文，同时记录发送方地址，用于回复
+            InetSocketAddress sender = datagramPacket.sender();
+            TelegramFrame frame;
+            while (null != (frame = VehicleTelegramDecoder.decodeFrame(content, content.readableBytes()))) {
+                try {
+                    ChannelManagerFactory.onIncomingTelegram(frame,
+                            (deviceId) -> manager.setDeviceAddress(deviceId, sender));
+                } finally {
+                    frame.release();
+                }
             }
-//            ctx.channel().writeAndFlush(new DatagramPacket(Unpooled.copiedBuffer(response.toString(), CharsetUtil.UTF_8), datagramPacket.sender()));
         } catch (Exception e) {
             logger.error(e.getMessage(), e);
         }
@@ -49,7 +55,7 @@ public class UdpServerHandler extends SimpleChannelInboundHandler<DatagramPacket
 
     @Override
     public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause)throws Exception {
-        ctx.close();
+        // 共用的Socket不能因为单个报文的异常而关闭
         logger.error("UdpServerHandler exception: " + cause.getMessage(), cause);
     }
 }
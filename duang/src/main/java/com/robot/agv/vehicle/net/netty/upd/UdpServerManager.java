@@ -2,64 +2,47 @@ package com.robot.agv.vehicle.net.netty.upd;
 
 import com.robot.agv.common.telegrams.Request;
 import com.robot.agv.common.telegrams.Response;
-import com.robot.agv.common.telegrams.TelegramSender;
 import com.robot.agv.vehicle.RobotCommAdapter;
 import com.robot.agv.vehicle.net.IChannelManager;
-import com.robot.agv.vehicle.net.netty.comm.VehicleTelegramDecoder;
-import com.robot.agv.vehicle.net.netty.comm.VehicleTelegramEncoder;
-import io.netty.channel.ChannelHandler;
-import org.opentcs.contrib.tcp.netty.ConnectionEventListener;
 
 import javax.annotation.Nonnull;
-import java.util.Arrays;
-import java.util.List;
 
 /**
  * UPD Server Manager
+ * 每个适配器一个实例，所有实例共用UdpServerChannelManager的UDP Socket及EventLoopGroup
  */
 public class UdpServerManager implements IChannelManager<Request, Response> {
 
     private RobotCommAdapter robotCommAdapter;
     private UdpServerChannelManager channelManager;
+    private boolean initialized;
 
 
     public UdpServerManager(RobotCommAdapter commAdapter) {
         robotCommAdapter = commAdapter;
-
-        channelManager = new UdpServerChannelManager(commAdapter,
-                this::getChannelHandlers,
-                commAdapter.getProcessModel().getVehicleIdleTimeout(),
-                commAdapter.getProcessModel().isLoggingEnabled());
-    }
-
-    private List<ChannelHandler> getChannelHandlers() {
-        ConnectionEventListener<Response> eventListener = (ConnectionEventListener<Response>)robotCommAdapter;
-        TelegramSender telegramSender = (TelegramSender)robotCommAdapter;
-
-        return Arrays.asList(
-                new VehicleTelegramDecoder(eventListener, telegramSender),
-                new VehicleTelegramEncoder());
+        channelManager = UdpServerChannelManager.duang();
     }
 
     @Override
     public void initialize() {
-        channelManager.initialized();
+        initialized = true;
     }
 
     @Override
     public boolean isInitialized() {
-        return channelManager.isInitialized();
+        return initialized;
     }
 
     @Override
     public void terminate() {
-        channelManager.terminate();
+        channelManager.disconnect(robotCommAdapter);
+        initialized = false;
     }
 
     @Override
     public void connect(String host, int port) {
         try {
-            channelManager.connect(host, port);
+            channelManager.connect(robotCommAdapter, host, port);
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -67,12 +50,12 @@ public class UdpServerManager implements IChannelManager<Request, Response> {
 
     @Override
     public void disconnect() {
-        channelManager.disconnect();
+        channelManager.disconnect(robotCommAdapter);
     }
 
     @Override
     public boolean isConnected() {
-        return channelManager.isConnected();
+        return channelManager.isConnected(robotCommAdapter);
     }
 
     @Override
@@ -82,11 +65,15 @@ public class UdpServerManager implements IChannelManager<Request, Response> {
 
     @Override
     public void scheduleConnect(@Nonnull String host, int port, long delay) {
-        channelManager.scheduleConnect(host, port, delay);
+        channelManager.scheduleConnect(robotCommAdapter, host, port, delay);
     }
 
     @Override
     public void send(Request telegram) {
-        channelManager.send(telegram.getRawContent());
+        String deviceId = null;
+        if (null != telegram.getProtocol()) {
+            deviceId = telegram.getProtocol().getDeviceId();
+        }
+        channelManager.send(robotCommAdapter, deviceId, telegram.getRawContent());
     }
 }
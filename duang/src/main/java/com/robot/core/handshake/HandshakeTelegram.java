@@ -104,6 +104,8 @@ public class HandshakeTelegram {
             queue.add(telegramDto);
         }
         HANDSHAKE_TELEGRAM_QUEUE.put(deviceId, queue);
+        // 只有队列顶部的报文需要重发
+        RetransmissionScheduler.duang().schedule(deviceId, queue.peek());
     }
 
     /**
@@ -135,12 +137,46 @@ public class HandshakeTelegram {
         callBackAndRemove(deviceId, queue, toBeDeleteDto);
     }
 
+    /**
+     * 清空车辆/设备的握手队列，并取消重发
+     *
+     * @param deviceId 设备ID
+     */
+    public void clear(String deviceId) {
+        requireNonNull(deviceId, "设备ID不能为空");
+        LinkedBlockingQueue<HandshakeTelegramDto> queue = HANDSHAKE_TELEGRAM_QUEUE.get(deviceId);
+        if (null != queue) {
+            queue.clear();
+        }
+        RetransmissionScheduler.duang().cancel(deviceId);
+    }
+
+    /**
+     * 重发次数用完后，移除仍在队列顶部的报文，不回调
+     *
+     * @param deviceId 设备ID
+     * @param telegramDto 重发次数用完的报文
+     * @return 移除后队列顶部的报文，没有则返回null
+     */
+    HandshakeTelegramDto drop(String deviceId, HandshakeTelegramDto telegramDto) {
+        LinkedBlockingQueue<HandshakeTelegramDto> queue = HANDSHAKE_TELEGRAM_QUEUE.get(deviceId);
+        if (null == queue) {
+            return null;
+        }
+        if (queue.peek() == telegramDto) {
+            queue.remove();
+            LOG.warn("移除车辆/设备[{}]重发次数已用完的握手报文，队列里还有{}个报文", deviceId, queue.size());
+        }
+        return queue.peek();
+    }
 
     private void callBackAndRemove(String deviceId, LinkedBlockingQueue<HandshakeTelegramDto> queue, HandshakeTelegramDto toBeDeleteDto) {
         //先复制 ??
         HandshakeTelegramDto telegramDto = new HandshakeTelegramDto(toBeDeleteDto);
-        // 再移除第一位元素对象
+        // 再移除第一位元素对象，取消其重发并安排下一个报文的重发
         queue.remove();
+        RetransmissionScheduler.duang().cancel(deviceId);
+        RetransmissionScheduler.duang().schedule(deviceId, queue.peek());
         Request request = telegramDto.getRequest();
         LOG.info("移除车辆[" + deviceId + "]的握手报文[" +request.getRawContent() + "] 成功！");
         if( request.isRobotSend() && request.isActionResponse() &&
@@ -0,0 +1,318 @@
+package com.robot.core.handshake;
+
+import cn.hutool.core.thread.ThreadUtil;
+import com.robot.agv.common.telegrams.Request;
+import com.robot.agv.common.telegrams.Response;
+import com.robot.agv.vehicle.RobotCommAdapter;
+import com.robot.agv.vehicle.telegrams.Protocol;
+import com.robot.core.AppContext;
+import com.robot.mvc.helper.ActionHelper;
+import com.robot.service.common.requests.get.GetMtRequest;
+import com.robot.service.common.requests.set.SetVmotRequest;
+import com.robot.utils.SettingUtils;
+import com.robot.utils.ToolsKit;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
+import io.netty.util.TimerTask;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import org.opentcs.drivers.vehicle.VehicleCommAdapterEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 握手报文重发调度器
+ *
+ * 基于时间轮，每个车辆/设备握手队列顶部的报文有各自的重发时间，
+ * 重发间隔按指数递增并加上随机抖动，超过最大重发次数后从握手队列里移除该报文，
+ * 向车辆适配器发布事件(事件的附加内容为报文内容)，并安排队列里下一个报文的重发。
+ * 握手成功移除报文时，直接取消该报文的重发，不需要遍历所有队列。
+ * 不依赖AWT事件线程，可在无界面环境下运行。
+ */
+public class RetransmissionScheduler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RetransmissionScheduler.class);
+
+    private static final String SETTING_GROUP = "adapter";
+    /**时间轮每格的时长，毫秒作单位，重发间隔更短时使用重发间隔*/
+    private static final long TICK_DURATION = 100L;
+    /**时间轮的格数*/
+    private static final int TICKS_PER_WHEEL = 512;
+    /**等待设备上报的报文，等待该倍数的重发间隔后仍未上报，才主动查询*/
+    private static final int REPORT_WAIT_MULTIPLE = 3;
+    /**间隔按指数递增时，最大的指数，防止溢出*/
+    private static final int MAX_BACKOFF_EXPONENT = 16;
+
+    private static RetransmissionScheduler retransmissionScheduler;
+
+    private final Timer timer;
+    /**第一次重发的间隔时间，毫秒作单位*/
+    private final long interval;
+    /**重发间隔的最大值，毫秒作单位*/
+    private final long maxInterval;
+    /**随机抖动占重发间隔的百分比*/
+    private final int jitterPercent;
+    /**最大重发次数，小于等于0时不限制*/
+    private final int maxRetries;
+    /**每个车辆/设备正在等待握手的报文，即握手队列顶部的报文，key为deviceId*/
+    private final Map<String, Retransmission> pendings = new ConcurrentHashMap<>();
+
+    private RetransmissionScheduler() {
+        this(SettingUtils.getInt("handshake.interval", SETTING_GROUP, 1000),
+                SettingUtils.getInt("handshake.interval.max", SETTING_GROUP, 16000),
+                SettingUtils.getInt("handshake.jitter.percent", SETTING_GROUP, 20),
+                SettingUtils.getInt("handshake.retries.max", SETTING_GROUP, 10));
+    }
+
+    RetransmissionScheduler(long interval, long maxInterval, int jitterPercent, int maxRetries) {
+        this.interval = interval;
+        this.maxInterval = Math.max(interval, maxInterval);
+        this.jitterPercent = Math.min(100, Math.max(0, jitterPercent));
+        this.maxRetries = maxRetries;
+        timer = new HashedWheelTimer(new DefaultThreadFactory("robot-handshake", true),
+                Math.max(1L, Math.min(TICK_DURATION, interval)), TimeUnit.MILLISECONDS, TICKS_PER_WHEEL);
+    }
+
+    public static synchronized RetransmissionScheduler duang() {
+        if (null == retransmissionScheduler) {
+            retransmissionScheduler = new RetransmissionScheduler();
+        }
+        return retransmissionScheduler;
+    }
+
+    /**
+     * 停止时间轮并取消所有重发，之后再调用duang()会重新创建
+     */
+    public static synchronized void shutdown() {
+        if (null == retransmissionScheduler) {
+            return;
+        }
+        retransmissionScheduler.stop();
+        retransmissionScheduler = null;
+    }
+
+    void stop() {
+        pendings.values().forEach(Retransmission::cancel);
+        pendings.clear();
+        timer.stop();
+        LOG.info("握手报文重发调度器已停止");
+    }
+
+    /**
+     * 共用的时间轮，定时任务需要尽快执行完成，耗时的操作应交给其它线程执行
+     * 调度器停止后时间轮不能再使用，所以不要保存该引用，每次使用时重新获取
+     */
+    public Timer getTimer() {
+        return timer;
+    }
+
+    /**
+     * 安排车辆/设备握手报文的重发，同一车辆/设备只会重发握手队列顶部的报文，
+     * 如果之前安排的不是该报文，则取消之前的重发
+     *
+     * @param deviceId 车辆/设备ID
+     * @param telegramDto 握手队列顶部的报文
+     */
+    public void schedule(String deviceId, HandshakeTelegramDto telegramDto) {
+        if (ToolsKit.isEmpty(deviceId) || ToolsKit.isEmpty(telegramDto)) {
+            return;
+        }
+        pendings.compute(deviceId, (key, current) -> {
+            if (null != current) {
+                if (current.telegramDto == telegramDto) {
+                    return current;
+                }
+                current.cancel();
+            }
+            return newRetransmission(deviceId, telegramDto);
+        });
+    }
+
+    private Retransmission newRetransmission(String deviceId, HandshakeTelegramDto telegramDto) {
+        Retransmission retransmission = new Retransmission(deviceId, telegramDto);
+        retransmission.arm(getFirstDelay(telegramDto));
+        return retransmission;
+    }
+
+    /**
+     * 取消车辆/设备握手报文的重发
+     *
+     * @param deviceId 车辆/设备ID
+     */
+    public void cancel(String deviceId) {
+        if (ToolsKit.isEmpty(deviceId)) {
+            return;
+        }
+        Retransmission retransmission = pendings.remove(deviceId);
+        if (null != retransmission) {
+            retransmission.cancel();
+        }
+    }
+
+    private long getFirstDelay(HandshakeTelegramDto telegramDto) {
+        Request request = telegramDto.getRequest();
+        if (ToolsKit.isNotEmpty(request) && request.isActionResponse()) {
+            return withJitter(interval * REPORT_WAIT_MULTIPLE);
+        }
+        return withJitter(interval);
+    }
+
+    /**
+     * 第retries次重发后，距离下一次重发的间隔
+     */
+    private long getNextDelay(int retries) {
+        long delay = interval << Math.min(retries, MAX_BACKOFF_EXPONENT);
+        return withJitter(Math.min(delay, maxInterval));
+    }
+
+    private long withJitter(long delay) {
+        long jitter = delay * jitterPercent / 100;
+        return delay + ThreadLocalRandom.current().nextLong(-jitter, jitter + 1);
+    }
+
+    /**
+     * 重发报文，如果是等待设备上报的报文，则发送查询指令
+     */
+    private void resend(HandshakeTelegramDto telegramDto) {
+        Request request = telegramDto.getRequest();
+        Response response = telegramDto.getResponse();
+        if (ToolsKit.isEmpty(request) || ToolsKit.isEmpty(response)) {
+            return;
+        }
+        // 如果不是等待上报请求，则重发指令
+        if (!request.isActionResponse()) {
+            AppContext.getTelegramSender().sendTelegram(request);
+            return;
+        }
+        Protocol protocol = response.getProtocol();
+        LOG.info("正在等待设备提交指令为[" + protocol.getCommandKey() + "],握手验证码为[" + protocol.getCode() + "]的报文消息: " + response.getRawContent());
+        if (request.isRobotSend()) {
+            if ("rptmt".equalsIgnoreCase(protocol.getCommandKey())) {
+                LOG.info("等待的是物料状态提交指令，发送getmt命令查询物料状态");
+                AppContext.getTelegramSender().sendTelegram(new GetMtRequest(protocol.getDeviceId(), "0"));
+            } else if ("rptvmot".equalsIgnoreCase(protocol.getCommandKey())) {
+                LOG.info("等待的是动作到位状态提交指令，重发setvmot命令设置AGV动作");
+                AppContext.getTelegramSender().sendTelegram(new SetVmotRequest(protocol.getDeviceId(), protocol.getParams()));
+            }
+        }
+    }
+
+    /**
+     * 超过最大重发次数，向车辆适配器发布事件，事件的附加内容为报文内容
+     * 报文已从握手队列里移除，相当于死信
+     */
+    private void onRetriesExhausted(String deviceId, HandshakeTelegramDto telegramDto) {
+        Request request = telegramDto.getRequest();
+        String rawContent = ToolsKit.isEmpty(request) ? telegramDto.getResponse().getRawContent() : request.getRawContent();
+        LOG.error("车辆/设备[{}]的握手报文[{}]重发{}次后仍未握手成功，不再重发", deviceId, rawContent, maxRetries);
+        RobotCommAdapter adapter = getCommAdapter(deviceId);
+        if (null == adapter) {
+            LOG.warn("车辆/设备[{}]对应的车辆适配器不存在，不发布事件", deviceId);
+            return;
+        }
+        adapter.getProcessModel().publishEvent(new VehicleCommAdapterEvent(adapter.getName(), rawContent));
+    }
+
+    /**
+     * 设备ID不是车辆时，根据车辆与设备的映射关系找到对应的车辆适配器
+     */
+    private RobotCommAdapter getCommAdapter(String deviceId) {
+        RobotCommAdapter adapter = AppContext.getCommAdapter(deviceId);
+        if (null != adapter) {
+            return adapter;
+        }
+        for (Map.Entry<String, Set<String>> entry : ActionHelper.duang().getVehicelDeviceMap().entrySet()) {
+            if (ToolsKit.isNotEmpty(entry.getValue()) && entry.getValue().contains(deviceId)) {
+                return AppContext.getCommAdapter(entry.getKey());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 一个握手报文的重发
+     */
+    private class Retransmission implements TimerTask {
+
+        private final String deviceId;
+        private final HandshakeTelegramDto telegramDto;
+        /**已重发的次数*/
+        private int retries;
+        private volatile Timeout timeout;
+        private volatile boolean cancelled;
+
+        private Retransmission(String deviceId, HandshakeTelegramDto telegramDto) {
+            this.deviceId = deviceId;
+            this.telegramDto = telegramDto;
+        }
+
+        private void arm(long delay) {
+            try {
+                timeout = timer.newTimeout(this, delay, TimeUnit.MILLISECONDS);
+            } catch (IllegalStateException e) {
+                // 调度器已停止
+                LOG.debug("握手报文重发调度器已停止，不再重发车辆/设备[{}]的报文", deviceId);
+                return;
+            }
+            // 安排期间被取消
+            if (cancelled) {
+                timeout.cancel();
+            }
+        }
+
+        private void cancel() {
+            cancelled = true;
+            Timeout current = timeout;
+            if (null != current) {
+                current.cancel();
+            }
+        }
+
+        @Override
+        public void run(Timeout timeout) {
+            if (cancelled) {
+                return;
+            }
+            // 发送可能会阻塞，不能在时间轮的线程里执行
+            ThreadUtil.execute(this::retransmit);
+        }
+
+        private void retransmit() {
+            if (cancelled) {
+                return;
+            }
+            if (maxRetries > 0 && retries >= maxRetries) {
+                boolean[] exhausted = new boolean[1];
+                // 在compute里移除报文并安排下一个报文，避免同时添加报文时重新安排已用完重发次数的报文
+                pendings.computeIfPresent(deviceId, (key, current) -> {
+                    if (current != this) {
+                        return current;
+                    }
+                    exhausted[0] = true;
+                    // 移除队列顶部的报文，否则该车辆/设备之后的报文会一直被阻塞
+                    HandshakeTelegramDto next = HandshakeTelegram.duang().drop(deviceId, telegramDto);
+                    return null == next ? null : newRetransmission(deviceId, next);
+                });
+                if (exhausted[0]) {
+                    onRetriesExhausted(deviceId, telegramDto);
+                }
+                return;
+            }
+            retries++;
+            try {
+                resend(telegramDto);
+            } catch (Exception e) {
+                LOG.error("重发车辆/设备[{}]的握手报文时出错: {}", deviceId, e.getMessage(), e);
+            }
+            if (!cancelled) {
+                arm(getNextDelay(retries));
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.robot.mvc.dispatch;
 
+import cn.hutool.core.thread.GlobalThreadPool;
 import cn.hutool.core.thread.ThreadUtil;
 
 import cn.hutool.http.HttpStatus;
@@ -40,6 +41,8 @@ public class DispatchFactory {
     private static final Logger LOG = LoggerFactory.getLogger(DispatchFactory.class);
 
     private static final Map<String, Route> SERVICE_METHOD_MAP = new ConcurrentHashMap<>();
+    /**业务处理的超时时间，毫秒作单位*/
+    private static final long BUSINESS_TIMEOUT = 3000L;
 
 
 //    public Object execute(StateRequest stateRequest) {
@@ -51,16 +54,44 @@ public class DispatchFactory {
 
     /**
      * 根据IProtocol里的参数，反射调用对应Service里的方法
+     * 同步等待处理结果，最多等待BUSINESS_TIMEOUT毫秒，超时或发生异常时返回设置了对应状态的response
      * @param request
      * @param sender
      */
     public Object execute(Request request, TelegramSender sender) {
+        Response response = newResponse(request);
+        try {
+            return dispatch(request, sender, response).get(BUSINESS_TIMEOUT, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            LOG.error("执行时发生InterruptedException: {}, {}", ie.getMessage(), ie);
+            setStatus(response, HttpStatus.HTTP_NOT_FOUND);
+        } catch (ExecutionException ee) {
+            LOG.error("执行时发生ExecutionException :{}, {}", ee.getMessage(), ee);
+            setStatus(response, HttpStatus.HTTP_INTERNAL_ERROR);
+        } catch (TimeoutException te) {
+            // 业务处理已超时被中断，但要等其真正结束后返回的CompletableFuture才会完成，这里不再等待
+            LOG.error("执行时发生TimeoutException:{}, {}", te.getMessage(), te);
+            setStatus(response, HttpStatus.HTTP_CLIENT_TIMEOUT);
+        }
+        return response;
+    }
+
+    /**
+     * 根据IProtocol里的参数，反射调用对应Service里的方法
+     * 业务处理在业务线程池里执行，不阻塞调用线程，处理完成(或超时)后结束返回的CompletableFuture
+     * @param request
+     * @param sender
+     */
+    public CompletableFuture<Response> executeAsync(Request request, TelegramSender sender) {
+        return dispatch(request, sender, newResponse(request));
+    }
+
+    private CompletableFuture<Response> dispatch(Request request, TelegramSender sender, Response response) {
         if (SERVICE_METHOD_MAP.isEmpty()) {
             SERVICE_METHOD_MAP.putAll(RouteHelper.duang().getRoutes());
         }
 
-        // 返回对象
-        Response response = null;
         final Protocol protocol = request.getProtocol();
         // 保存到数据库
         ThreadUtil.execAsync(new Runnable() {
@@ -75,27 +106,6 @@ public class DispatchFactory {
             }
         });
 
-        // 如果是订单请求，车辆主动上报的请求
-        if (request instanceof OrderRequest) {
-            if (ToolsKit.isEmpty(protocol)) {
-                throw new RobotException("非移动车辆请求的协议对象不能为空，返回null退出处理！");
-            }
-            response = new OrderResponse(request);
-        }
-        //如果是移动请求,发送移动命令
-        else if (request instanceof StateRequest) {
-            response= new StateResponse(request);
-        }
-        // 如果是动作请求，发送设备动作
-        else if (request instanceof  ActionRequest) {
-            response= new ActionResponse(request) {
-                @Override
-                public String cmd() {
-                    return request.getProtocol().getCommandKey();
-                }
-            };
-        }
-
         // 如果协议对象不为空且不是调度系统主动发送的，则要进行应答回复
         if (ToolsKit.isNotEmpty(protocol) && !request.isRobotSend()) {
             String direction = protocol.getDirection();
@@ -144,7 +154,7 @@ public class DispatchFactory {
                     }
                      */
                 }
-                return response;
+                return CompletableFuture.completedFuture(response);
             }
         }
 
@@ -152,13 +162,68 @@ public class DispatchFactory {
         if (request.isRobotSend() && (request instanceof ActionRequest)) {
             sender.sendTelegram(request);
             // 计算设备/车辆响应的协议内容及验证码，存放在response里返回，让日志显示
-            return RobotUtil.simulation(response);
+            return CompletableFuture.completedFuture(RobotUtil.simulation(response));
         }
 
-        // 线程进行业务处理
-        FutureTask<Response> futureTask = (FutureTask<Response>) ThreadUtil.execAsync(new BusinessHandler(request, response));
+        // 业务线程池进行业务处理，不阻塞当前线程
+        final Response defaultResponse = response;
+        final BusinessHandler businessHandler = new BusinessHandler(request, response);
+        // 超时后中断业务处理，业务处理真正结束后才结束返回的CompletableFuture
+        CompletableFuture<Response> businessFuture = TelegramPipeline.duang().supplyAsync(
+                () -> (Response) businessHandler.call(), GlobalThreadPool.getExecutor(), BUSINESS_TIMEOUT);
+        return businessFuture
+                .handle((businessResponse, error) -> {
+                    if (null != error) {
+                        return onBusinessError(defaultResponse, error);
+                    }
+                    onBusinessResponse(request, businessResponse, sender);
+                    return businessResponse;
+                });
+    }
+
+    /**
+     * 根据请求类型创建返回对象
+     */
+    private Response newResponse(Request request) {
+        Response response = null;
+        // 如果是订单请求，车辆主动上报的请求
+        if (request instanceof OrderRequest) {
+            if (ToolsKit.isEmpty(request.getProtocol())) {
+                throw new RobotException("非移动车辆请求的协议对象不能为空，返回null退出处理！");
+            }
+            response = new OrderResponse(request);
+        }
+        //如果是移动请求,发送移动命令
+        else if (request instanceof StateRequest) {
+            response= new StateResponse(request);
+        }
+        // 如果是动作请求，发送设备动作
+        else if (request instanceof  ActionRequest) {
+            response= new ActionResponse(request) {
+                @Override
+                public String cmd() {
+                    return request.getProtocol().getCommandKey();
+                }
+            };
+        }
+        return response;
+    }
+
+    private void setStatus(Response response, int status) {
+        if (null != response) {
+            response.setStatus(status);
+        }
+    }
+
+    /**
+     * 业务处理完成后，将返回内容更新到request，并发送报文到客户端
+     */
+    private void onBusinessResponse(Request request, Response response, TelegramSender sender) {
+        if (null == response) {
+            return;
+        }
+        final Protocol protocol = request.getProtocol();
         try {
-            response =  futureTask.get(3000L, TimeUnit.MILLISECONDS);
             if ((response.getStatus() == HttpStatus.HTTP_OK) && response.isResponseTo(request)) {
                 // 将返回内容更新到request
                 request.updateRequestContent(response);
@@ -177,20 +242,23 @@ public class DispatchFactory {
                     sender.sendTelegram(request);
                 }
             }
-        } catch (InterruptedException ie) {
-            LOG.error("执行时发生InterruptedException: {}, {}", ie.getMessage(), ie);
-            response.setStatus(HttpStatus.HTTP_NOT_FOUND);
-        } catch (ExecutionException ee) {
-            LOG.error("执行时发生ExecutionException :{}, {}", ee.getMessage(), ee);
+        } catch (Exception e) {
+            LOG.error("发送业务处理结果时发生异常: {}, {}", e.getMessage(), e);
             response.setStatus(HttpStatus.HTTP_INTERNAL_ERROR);
-        } catch (TimeoutException te) {
-            LOG.error("执行时发生TimeoutException:{}, {}", te.getMessage(), te);
-            response.setStatus(HttpStatus.HTTP_CLIENT_TIMEOUT);
-        } finally {
-            if (futureTask.isDone()) {
-                // 中止线程，参数为true时，会中止正在运行的线程，为false时，如果线程未开始，则停止运行
-                futureTask.cancel(true);
-            }
+        }
+    }
+
+    /**
+     * 业务处理发生异常或超时，设置响应状态
+     */
+    private Response onBusinessError(Response response, Throwable error) {
+        Throwable cause = (error instanceof CompletionException && null != error.getCause()) ? error.getCause() : error;
+        if (cause instanceof TimeoutException) {
+            LOG.error("执行时发生TimeoutException:{}, {}", cause.getMessage(), cause);
+            setStatus(response, HttpStatus.HTTP_CLIENT_TIMEOUT);
+        } else {
+            LOG.error("执行时发生ExecutionException :{}, {}", cause.getMessage(), cause);
+            setStatus(response, HttpStatus.HTTP_INTERNAL_ERROR);
         }
         return response;
     }
@@ -0,0 +1,352 @@
+package com.robot.mvc.dispatch;
+
+import cn.hutool.core.thread.ThreadUtil;
+import com.robot.utils.SettingUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 接收报文的异步处理管道
+ *
+ * 每个车辆/设备一个有界队列，同一车辆/设备的报文按接收顺序串行处理，
+ * 上一个报文的处理结果(CompletableFuture)完成后才处理下一个，处理过程中不占用线程等待；
+ * 不同车辆/设备之间并行处理，互不影响。
+ * 队列满时拒绝新报文，并记录每个车辆/设备的背压统计。
+ * 业务处理超时后会中断其线程，但要等业务处理真正结束后才处理下一个报文，保证顺序。
+ */
+public class TelegramPipeline {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TelegramPipeline.class);
+
+    private static final String SETTING_GROUP = "pipeline";
+    private static TelegramPipeline telegramPipeline;
+
+    /**所有车辆/设备共用的线程池，只负责调度及回调，业务处理不在这里执行*/
+    private final ExecutorService executor;
+    /**超时计时器*/
+    private final ScheduledExecutorService timer;
+    /**每个车辆/设备的队列容量*/
+    private final int queueSize;
+    /**车辆/设备队列，key为deviceId*/
+    private final Map<String, DeviceQueue> deviceQueues = new ConcurrentHashMap<>();
+
+    private TelegramPipeline() {
+        int threads = SettingUtils.getInt("threads", SETTING_GROUP, Runtime.getRuntime().availableProcessors());
+        queueSize = SettingUtils.getInt("queue.size", SETTING_GROUP, 256);
+        executor = Executors.newFixedThreadPool(threads, ThreadUtil.newNamedThreadFactory("robot-pipeline-", true));
+        timer = Executors.newSingleThreadScheduledExecutor(ThreadUtil.newNamedThreadFactory("robot-pipeline-timer-", true));
+    }
+
+    public static synchronized TelegramPipeline duang() {
+        if (null == telegramPipeline) {
+            telegramPipeline = new TelegramPipeline();
+        }
+        return telegramPipeline;
+    }
+
+    /**
+     * 将报文的处理提交到车辆/设备的队列
+     * @param deviceId 车辆/设备ID
+     * @param stage 报文的处理，返回处理结果
+     * @return 处理结果，队列已满时以RejectedExecutionException结束
+     */
+    public <T> CompletableFuture<T> submit(String deviceId, Supplier<CompletableFuture<T>> stage) {
+        DeviceQueue deviceQueue = deviceQueues.computeIfAbsent(deviceId, DeviceQueue::new);
+        return deviceQueue.submit(stage);
+    }
+
+    /**
+     * 在线程池里执行业务处理，超时后中断执行业务处理的线程
+     * 返回的结果在业务处理真正结束(返回、抛出异常或响应中断退出)后才完成，超时的以TimeoutException结束，
+     * 所以同一车辆/设备的下一个报文不会在超时的报文仍在执行时开始处理
+     * @param callable 业务处理
+     * @param businessExecutor 执行业务处理的线程池
+     * @param timeout 超时时间，毫秒作单位
+     * @return 异步结果
+     */
+    public <T> CompletableFuture<T> supplyAsync(Callable<T> callable, Executor businessExecutor, long timeout) {
+        BusinessTask<T> task = new BusinessTask<>(callable, timeout);
+        try {
+            businessExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            task.result.completeExceptionally(e);
+            return task.result;
+        }
+        ScheduledFuture<?> timeoutFuture = timer.schedule(task::timeout, timeout, TimeUnit.MILLISECONDS);
+        task.result.whenComplete((result, error) -> timeoutFuture.cancel(false));
+        return task.result;
+    }
+
+    /**
+     * 关闭管道的线程池及超时计时器，正在执行的业务处理会被中断，之后再调用duang()会重新创建
+     */
+    public static synchronized void shutdown() {
+        if (null == telegramPipeline) {
+            return;
+        }
+        telegramPipeline.executor.shutdownNow();
+        telegramPipeline.timer.shutdownNow();
+        telegramPipeline = null;
+        LOG.info("报文处理管道已关闭");
+    }
+
+    /**
+     * 所有车辆/设备的背压统计
+     * @return key为deviceId
+     */
+    public Map<String, Metrics> getMetrics() {
+        Map<String, Metrics> metrics = new HashMap<>();
+        for (DeviceQueue deviceQueue : deviceQueues.values()) {
+            metrics.put(deviceQueue.deviceId, deviceQueue.getMetrics());
+        }
+        return Collections.unmodifiableMap(metrics);
+    }
+
+    /**
+     * 车辆/设备的队列，串行处理队列里的报文
+     */
+    private class DeviceQueue {
+
+        private final String deviceId;
+        private final BlockingQueue<Task<?>> queue;
+        /**是否正在处理报文，同一时间只处理一个*/
+        private final AtomicBoolean running = new AtomicBoolean();
+        private final AtomicLong submitted = new AtomicLong();
+        private final AtomicLong completed = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final AtomicLong maxDepth = new AtomicLong();
+        private final AtomicLong totalWaitNanos = new AtomicLong();
+
+        private DeviceQueue(String deviceId) {
+            this.deviceId = deviceId;
+            this.queue = new ArrayBlockingQueue<>(queueSize);
+        }
+
+        private <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> stage) {
+            Task<T> task = new Task<>(stage);
+            if (!queue.offer(task)) {
+                long count = rejected.incrementAndGet();
+                // 避免日志刷屏，只记录第一次及之后每100次
+                if (count == 1 || count % 100 == 0) {
+                    LOG.warn("车辆/设备[{}]的报文队列已满[{}]，已拒绝{}个报文", deviceId, queueSize, count);
+                }
+                task.result.completeExceptionally(
+                        new RejectedExecutionException("车辆/设备[" + deviceId + "]的报文队列已满"));
+                return task.result;
+            }
+            submitted.incrementAndGet();
+            maxDepth.accumulateAndGet(queue.size(), Math::max);
+            schedule();
+            return task.result;
+        }
+
+        private void schedule() {
+            if (running.compareAndSet(false, true)) {
+                executor.execute(this::runNext);
+            }
+        }
+
+        private void runNext() {
+            Task<?> task = queue.poll();
+            if (null == task) {
+                running.set(false);
+                // 释放后可能有新提交的报文
+                if (!queue.isEmpty()) {
+                    schedule();
+                }
+                return;
+            }
+            totalWaitNanos.addAndGet(System.nanoTime() - task.enqueueNanos);
+            run(task);
+        }
+
+        private <T> void run(Task<T> task) {
+            CompletableFuture<T> stageFuture;
+            try {
+                stageFuture = task.stage.get();
+            } catch (Throwable e) {
+                stageFuture = new CompletableFuture<>();
+                stageFuture.completeExceptionally(e);
+            }
+            stageFuture.whenComplete((result, error) -> {
+                if (null == error) {
+                    completed.incrementAndGet();
+                    task.result.complete(result);
+                } else {
+                    failed.incrementAndGet();
+                    task.result.completeExceptionally(error);
+                }
+                // 上一个报文处理完成后，再处理下一个
+                executor.execute(this::runNext);
+            });
+        }
+
+        private Metrics getMetrics() {
+            long done = completed.get() + failed.get();
+            return new Metrics(queue.size(), maxDepth.get(), submitted.get(), completed.get(), failed.get(),
+                    rejected.get(), done == 0 ? 0L : TimeUnit.NANOSECONDS.toMicros(totalWaitNanos.get() / done));
+        }
+    }
+
+    /**
+     * 可超时中断的业务处理，记录执行的线程，只在业务处理执行期间中断该线程
+     */
+    private static class BusinessTask<T> implements Runnable {
+        private final Callable<T> callable;
+        private final long timeout;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        /**正在执行业务处理的线程，没有执行时为null*/
+        private Thread runner;
+        private boolean timedOut;
+
+        private BusinessTask(Callable<T> callable, long timeout) {
+            this.callable = callable;
+            this.timeout = timeout;
+        }
+
+        @Override
+        public void run() {
+            synchronized (this) {
+                if (timedOut) {
+                    // 等待执行时已超时，不再执行
+                    result.completeExceptionally(timeoutException());
+                    return;
+                }
+                runner = Thread.currentThread();
+            }
+            T value = null;
+            Throwable error = null;
+            try {
+                value = callable.call();
+            } catch (Throwable e) {
+                error = e;
+            }
+            synchronized (this) {
+                runner = null;
+                // 清除超时时设置的中断状态，避免影响线程池里的下一个任务
+                Thread.interrupted();
+                if (timedOut) {
+                    error = timeoutException();
+                }
+            }
+            if (null == error) {
+                result.complete(value);
+            } else {
+                result.completeExceptionally(error);
+            }
+        }
+
+        private synchronized void timeout() {
+            timedOut = true;
+            if (null != runner) {
+                LOG.warn("业务处理超时[{}ms]，中断执行线程[{}]，等待其结束后再处理该车辆/设备的下一个报文",
+                        timeout, runner.getName());
+                runner.interrupt();
+            }
+        }
+
+        private TimeoutException timeoutException() {
+            return new TimeoutException("处理超时: " + timeout + "ms");
+        }
+    }
+
+    private static class Task<T> {
+        private final Supplier<CompletableFuture<T>> stage;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final long enqueueNanos = System.nanoTime();
+
+        private Task(Supplier<CompletableFuture<T>> stage) {
+            this.stage = stage;
+        }
+    }
+
+    /**
+     * 车辆/设备的背压统计
+     */
+    public static class Metrics {
+        /**当前队列里等待处理的报文数*/
+        private final int queueDepth;
+        /**队列里等待处理的报文数的最大值*/
+        private final long maxQueueDepth;
+        private final long submitted;
+        private final long completed;
+        private final long failed;
+        /**因队列已满而拒绝的报文数*/
+        private final long rejected;
+        /**报文在队列里的平均等待时间，微秒作单位*/
+        private final long averageWaitMicros;
+
+        public Metrics(int queueDepth, long maxQueueDepth, long submitted, long completed, long failed,
+                       long rejected, long averageWaitMicros) {
+            this.queueDepth = queueDepth;
+            this.maxQueueDepth = maxQueueDepth;
+            this.submitted = submitted;
+            this.completed = completed;
+            this.failed = failed;
+            this.rejected = rejected;
+            this.averageWaitMicros = averageWaitMicros;
+        }
+
+        public int getQueueDepth() {
+            return queueDepth;
+        }
+
+        public long getMaxQueueDepth() {
+            return maxQueueDepth;
+        }
+
+        public long getSubmitted() {
+            return submitted;
+        }
+
+        public long getCompleted() {
+            return completed;
+        }
+
+        public long getFailed() {
+            return failed;
+        }
+
+        public long getRejected() {
+            return rejected;
+        }
+
+        public long getAverageWaitMicros() {
+            return averageWaitMicros;
+        }
+
+        @Override
+        public String toString() {
+            return "Metrics{" +
+                    "queueDepth=" + queueDepth +
+                    ", maxQueueDepth=" + maxQueueDepth +
+                    ", submitted=" + submitted +
+                    ", completed=" + completed +
+                    ", failed=" + failed +
+                    ", rejected=" + rejected +
+                    ", averageWaitMicros=" + averageWaitMicros +
+                    '}';
+        }
+    }
+}
@@ -1,7 +1,114 @@
 package com.robot.utils;
 
+import io.netty.buffer.ByteBuf;
+
 public class CrcUtil {
 
+    /**CRC寄存器的初始值*/
+    public static final int CRC16_INIT = 0xFFFF;
+    /**Modbus CRC16的多项式*/
+    private static final int CRC16_POLYNOM = 0xA001;
+    /**
+     * 查表法使用的表，下标为CRC寄存器低8位与数据异或后的值，
+     * 值为该值右移8次(每次移出位为1时与多项式异或)后的结果
+     */
+    private static final int[] CRC16_TABLE = new int[256];
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    static {
+        for (int i = 0; i < CRC16_TABLE.length; i++) {
+            int crc = i;
+            for (int j = 0; j < 8; j++) {
+                if ((crc & 0x0001) > 0) {
+                    crc = (crc >> 1) ^ CRC16_POLYNOM;
+                } else {
+                    crc = crc >> 1;
+                }
+            }
+            CRC16_TABLE[i] = crc;
+        }
+    }
+
+    /**
+     * 在当前CRC值的基础上继续计算一个字节，可连续调用，用于边读/写报文边计算验证码
+     *
+     * @param crc 当前CRC值，第一次调用时为CRC16_INIT
+     * @param b 字节
+     * @return 计算后的CRC值
+     */
+    public static int update(int crc, int b) {
+        return step(crc ^ (b & 0xFF));
+    }
+
+    /**
+     * 在当前CRC值的基础上继续计算一个字符，与CrcVerify一致，字符按char值计算，不截取为8位
+     *
+     * @param crc 当前CRC值，第一次调用时为CRC16_INIT
+     * @param c 字符
+     * @return 计算后的CRC值
+     */
+    public static int update(int crc, char c) {
+        return step(crc ^ c);
+    }
+
+    /**
+     * 右移8次，每次移出位为1时与多项式异或，高于8位的部分直接右移，所以对16位的char同样适用
+     */
+    private static int step(int crc) {
+        return (crc >>> 8) ^ CRC16_TABLE[crc & 0xFF];
+    }
+
+    /**
+     * 在当前CRC值的基础上继续计算byte数组里指定范围的字节
+     *
+     * @param crc 当前CRC值，第一次调用时为CRC16_INIT
+     * @param data byte数组
+     * @param off 开始位置
+     * @param len 长度
+     * @return 计算后的CRC值
+     */
+    public static int update(int crc, byte[] data, int off, int len) {
+        for (int i = off, end = off + len; i < end; i++) {
+            crc = (crc >>> 8) ^ CRC16_TABLE[(crc ^ data[i]) & 0xFF];
+        }
+        return crc;
+    }
+
+    /**
+     * 在当前CRC值的基础上继续计算字符串里指定范围的字符，与CrcVerify一致
+     *
+     * @param crc 当前CRC值，第一次调用时为CRC16_INIT
+     * @param str 字符串
+     * @param off 开始位置
+     * @param len 长度
+     * @return 计算后的CRC值
+     */
+    public static int update(int crc, CharSequence str, int off, int len) {
+        for (int i = off, end = off + len; i < end; i++) {
+            crc = step(crc ^ str.charAt(i));
+        }
+        return crc;
+    }
+
+    /**
+     * 在当前CRC值的基础上继续计算ByteBuf里指定范围的字节，不改变ByteBuf的读写位置
+     *
+     * @param crc 当前CRC值，第一次调用时为CRC16_INIT
+     * @param buf ByteBuf
+     * @param off 开始位置(绝对位置)
+     * @param len 长度
+     * @return 计算后的CRC值
+     */
+    public static int update(int crc, ByteBuf buf, int off, int len) {
+        if (buf.hasArray()) {
+            return update(crc, buf.array(), buf.arrayOffset() + off, len);
+        }
+        for (int i = off, end = off + len; i < end; i++) {
+            crc = (crc >>> 8) ^ CRC16_TABLE[(crc ^ buf.getByte(i)) & 0xFF];
+        }
+        return crc;
+    }
+
     /**
      * 获取源数据和验证码的组合byte数组
      *
@@ -9,17 +116,14 @@ public class CrcUtil {
      * @return
      */
     public static byte[] appendCrc16(String... strings) {
-        byte[] data = new byte[]{};
+        byte[] data = new byte[strings.length + 2];
         for (int i = 0; i < strings.length; i++) {
-            int x = Integer.parseInt(strings[i], 16);
-            byte n = (byte) x;
-            byte[] buffer = new byte[data.length + 1];
-            byte[] aa = {n};
-            System.arraycopy(data, 0, buffer, 0, data.length);
-            System.arraycopy(aa, 0, buffer, data.length, aa.length);
-            data = buffer;
+            data[i] = (byte) Integer.parseInt(strings[i], 16);
         }
-        return appendCrc16(data);
+        int crc = update(CRC16_INIT, data, 0, strings.length);
+        data[strings.length] = (byte) (crc & 0xFF);
+        data[strings.length + 1] = (byte) ((crc >> 8) & 0xFF);
+        return data;
     }
 
     /**
@@ -37,53 +141,24 @@ public class CrcUtil {
     }
 
     public static int CrcVerify(String sourceStr) {
-        int i,j;
-        int wCrc = 0xffff;
-        int wPolynom = 0xA001;
-        char[] cBuffer = sourceStr.toCharArray();
-        int iBufLen = cBuffer.length;
-
-        for(i=0; i<iBufLen; i++) {
-            wCrc ^= cBuffer[i];
-            for(j=0; j<8; j++) {
-                if((wCrc & 0x0001)>0) {
-                    wCrc = (wCrc >> 1) ^ wPolynom;
-                } else {
-                    wCrc = wCrc >> 1;
-                }
-            }
-        }
-        return wCrc;
+        return update(CRC16_INIT, sourceStr, 0, sourceStr.length());
     }
 
     public static String CrcVerify_Str(String sourceStr) {
-        return toString("%04x", CrcVerify(sourceStr));
+        int crc = CrcVerify(sourceStr);
+        // 与String.format("%04x", crc)一致，CRC值不会超出16位
+        return new String(new char[]{
+                HEX_DIGITS[(crc >> 12) & 0xF],
+                HEX_DIGITS[(crc >> 8) & 0xF],
+                HEX_DIGITS[(crc >> 4) & 0xF],
+                HEX_DIGITS[crc & 0xF]});
     }
 
     /**
      * 获取验证码byte数组，基于Modbus CRC16的校验算法
      */
     public static byte[] getCrc16(byte[] arr_buff) {
-        int len = arr_buff.length;
-
-        // 预置 1 个 16 位的寄存器为十六进制FFFF, 称此寄存器为 CRC寄存器。
-        int crc = 0xFFFF;
-        int i, j;
-        for (i = 0; i < len; i++) {
-            // 把第一个 8 位二进制数据 与 16 位的 CRC寄存器的低 8 位相异或, 把结果放于 CRC寄存器
-            crc = ((crc & 0xFF00) | (crc & 0x00FF) ^ (arr_buff[i] & 0xFF));
-            for (j = 0; j < 8; j++) {
-                // 把 CRC 寄存器的内容右移一位( 朝低位)用 0 填补最高位, 并检查右移后的移出位
-                if ((crc & 0x0001) > 0) {
-                    // 如果移出位为 1, CRC寄存器与多项式A001进行异或
-                    crc = crc >> 1;
-                    crc = crc ^ 0xA001;
-                } else
-                    // 如果移出位为 0,再次右移一位
-                    crc = crc >> 1;
-            }
-        }
-        return intToBytes(crc);
+        return intToBytes(update(CRC16_INIT, arr_buff, 0, arr_buff.length));
     }
 
     /**
@@ -125,15 +200,6 @@ public class CrcUtil {
         return targets;
     }
 
-    private static String toString(String format,int crcInt) {
-//        String format = "%04x"
-        try {
-            return String.format(format, crcInt);
-        } catch (Exception e) {
-            return "";
-        }
-    }
-
     public static void main(String[] args) {
         String aa = "##,,A002,,r,,setrout,,rf310::rf31,,";
         System.out.println(CrcVerify_Str(aa));
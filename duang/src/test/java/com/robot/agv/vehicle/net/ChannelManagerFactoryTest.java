@@ -0,0 +1,62 @@
+package com.robot.agv.vehicle.net;
+
+import com.robot.agv.vehicle.net.netty.comm.TelegramFrame;
+import com.robot.agv.vehicle.net.netty.comm.VehicleTelegramDecoder;
+import com.robot.agv.vehicle.telegrams.Protocol;
+import com.robot.utils.ProtocolUtils;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.util.CharsetUtil;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * ChannelManagerFactory接收报文的测试
+ * 只有允许访问且验证码正确的报文才会回调deviceListener(UDP用于记录设备的地址)
+ */
+public class ChannelManagerFactoryTest {
+
+    @Test
+    public void ignoreTelegramOfDeviceNotAllowed() {
+        List<String> devices = new ArrayList<>();
+
+        ChannelManagerFactory.onIncomingTelegram(frame(telegram("X999")), devices::add);
+
+        assertThat(devices.isEmpty(), is(true));
+    }
+
+    @Test
+    public void ignoreTelegramWithInvalidCrc() {
+        String telegram = telegram("A001");
+        String crc = telegram.split(",,")[5];
+        String invalidCrc = String.format("%04x", Integer.parseInt(crc, 16) ^ 0x1);
+        List<String> devices = new ArrayList<>();
+
+        ChannelManagerFactory.onIncomingTelegram(frame(telegram.replace(crc, invalidCrc)), devices::add);
+
+        assertThat(devices.isEmpty(), is(true));
+    }
+
+    private static String telegram(String deviceId) {
+        return ProtocolUtils.converterString(new Protocol.Builder()
+                .deviceId(deviceId)
+                .direction("s")
+                .commandKey("rptmag")
+                .params("0::0::1::1")
+                .build());
+    }
+
+    private static TelegramFrame frame(String telegram) {
+        ByteBuf content = Unpooled.copiedBuffer(telegram, CharsetUtil.UTF_8);
+        try {
+            return VehicleTelegramDecoder.decodeFrame(content, content.readableBytes());
+        } finally {
+            content.release();
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.robot.agv.vehicle.net.netty.comm;
+
+import com.robot.agv.vehicle.telegrams.Protocol;
+import com.robot.utils.CrcUtil;
+import com.robot.utils.ProtocolUtils;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.util.CharsetUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 车辆电报解码的耗时
+ *
+ * datagram: 解码一个UDP报文里的一帧rptac报文并验证CRC，
+ * 与原来先转换为字符串、分割后构建Protocol再按字符串计算CRC的做法比较。
+ * stream: TCP字节流里一个16KB的报文按64字节分片到达，
+ * 保留扫描位置继续扫描与每次从帧头重新扫描的做法比较。
+ *
+ * 运行: java -cp <test classpath> com.robot.agv.vehicle.net.netty.comm.VehicleTelegramDecoderBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VehicleTelegramDecoderBenchmark {
+
+    private static final int CHUNK_SIZE = 64;
+
+    @Benchmark
+    public boolean datagramDecodeFrame(DatagramState state) {
+        ByteBuf content = state.content;
+        content.readerIndex(0);
+        TelegramFrame frame = VehicleTelegramDecoder.decodeFrame(content, content.readableBytes());
+        try {
+            return frame.getDeviceId().isEmpty() || frame.isCrcValid();
+        } finally {
+            frame.release();
+        }
+    }
+
+    @Benchmark
+    public boolean datagramDecodeString(DatagramState state) {
+        String telegramData = state.content.toString(0, state.content.writerIndex(), CharsetUtil.UTF_8);
+        boolean valid = true;
+        List<String> telegrams = ProtocolUtils.getTelegram2List(telegramData);
+        for (String telegram : telegrams) {
+            Protocol protocol = ProtocolUtils.buildProtocol(telegram);
+            valid &= CrcUtil.CrcVerify_Str(ProtocolUtils.builderCrcString(protocol)).equals(protocol.getCode());
+        }
+        return valid;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int streamResumeScan(StreamState state) {
+        return state.decode(new VehicleTelegramDecoder(null, null)::nextFrame);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int streamRescan(StreamState state) {
+        return state.decode(in -> VehicleTelegramDecoder.decodeFrame(in, VehicleTelegramDecoder.DEFAULT_MAX_FRAME_LENGTH));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(VehicleTelegramDecoderBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+    private static String telegram(String params) {
+        return ProtocolUtils.converterString(new Protocol.Builder()
+                .deviceId("A001")
+                .direction("s")
+                .commandKey("rptac")
+                .params(params)
+                .build());
+    }
+
+    @State(Scope.Thread)
+    public static class DatagramState {
+
+        private ByteBuf content;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            content = Unpooled.copiedBuffer(telegram("225::0::1::2::3"), CharsetUtil.UTF_8);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            content.release();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class StreamState {
+
+        private byte[] stream;
+        private ByteBuf cumulation;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            StringBuilder params = new StringBuilder();
+            while (params.length() < 16 * 1024) {
+                params.append("mf400::");
+            }
+            stream = telegram(params.toString()).getBytes(CharsetUtil.UTF_8);
+            cumulation = Unpooled.buffer(stream.length);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            cumulation.release();
+        }
+
+        /**
+         * 按CHUNK_SIZE分片累积字节流，每接收到一片解码一次
+         */
+        int decode(FrameDecoder decoder) {
+            cumulation.clear();
+            int frames = 0;
+            for (int offset = 0; offset < stream.length; offset += CHUNK_SIZE) {
+                cumulation.writeBytes(stream, offset, Math.min(CHUNK_SIZE, stream.length - offset));
+                TelegramFrame frame;
+                while (null != (frame = decoder.decode(cumulation))) {
+                    frame.release();
+                    frames++;
+                }
+            }
+            return frames;
+        }
+    }
+
+    private interface FrameDecoder {
+        TelegramFrame decode(ByteBuf in);
+    }
+}
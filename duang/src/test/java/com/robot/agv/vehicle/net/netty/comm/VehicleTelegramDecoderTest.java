@@ -0,0 +1,146 @@
+package com.robot.agv.vehicle.net.netty.comm;
+
+import com.robot.agv.vehicle.telegrams.Protocol;
+import com.robot.utils.ProtocolUtils;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.util.CharsetUtil;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * 车辆电报解码的测试，解码结果与ProtocolUtils.converterString编码的内容一致
+ */
+public class VehicleTelegramDecoderTest {
+
+    private final ByteBuf cumulation = Unpooled.buffer();
+
+    @After
+    public void tearDown() {
+        cumulation.release();
+    }
+
+    @Test
+    public void decodeTelegramsSplitIntoChunks() {
+        List<String> telegrams = new ArrayList<>();
+        StringBuilder stream = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            String telegram = telegram("A0" + (10 + i % 90), "rptac", "param" + i + "::" + i * 7);
+            telegrams.add(telegram);
+            stream.append(telegram);
+        }
+        VehicleTelegramDecoder decoder = new VehicleTelegramDecoder(null, null);
+        Random random = new Random(42);
+
+        for (int chunkSize : new int[]{1, 2, 3, 7, 64}) {
+            decodeInChunks(decoder, bytes(stream.toString()), chunkSize, random, telegrams);
+        }
+    }
+
+    @Test
+    public void skipLeadingGarbage() {
+        String telegram = telegram("A001", "rptmag", "0::0::1::1");
+        VehicleTelegramDecoder decoder = new VehicleTelegramDecoder(null, null);
+
+        decodeInChunks(decoder, bytes("#garbage,,ZZ#" + telegram), 5, new Random(1), Arrays.asList(telegram));
+    }
+
+    @Test
+    public void discardFrameExceedingMaxLength() {
+        StringBuilder oversize = new StringBuilder("##,,A001,,s,,rptmag,,");
+        while (oversize.length() <= VehicleTelegramDecoder.DEFAULT_MAX_FRAME_LENGTH) {
+            oversize.append("0::0::1::1");
+        }
+        String telegram = telegram("A001", "rptmag", "0::0::1::1");
+        VehicleTelegramDecoder decoder = new VehicleTelegramDecoder(null, null);
+
+        decodeInChunks(decoder, bytes(oversize + telegram), 1000, new Random(2), Arrays.asList(telegram));
+    }
+
+    @Test
+    public void decodeNonAsciiParams() {
+        List<String> telegrams = Arrays.asList(
+                telegram("A001", "setrout", "中文参数::mf400"),
+                telegram("A002", "rptrtp", "ü€::1"));
+        VehicleTelegramDecoder decoder = new VehicleTelegramDecoder(null, null);
+
+        decodeInChunks(decoder, bytes(telegrams.get(0) + telegrams.get(1)), 3, new Random(3), telegrams);
+    }
+
+    @Test
+    public void decodeCompleteDatagramWithoutScanState() {
+        String telegram = telegram("A001", "rptmag", "0::0::1::1");
+        ByteBuf content = Unpooled.copiedBuffer("xx" + telegram + telegram + "##,,A0", CharsetUtil.UTF_8);
+        int count = 0;
+        TelegramFrame frame;
+        while (null != (frame = VehicleTelegramDecoder.decodeFrame(content, content.readableBytes()))) {
+            assertFrame(frame, telegram);
+            count++;
+        }
+        content.release();
+
+        assertThat(count, is(2));
+    }
+
+    /**
+     * 模拟ByteToMessageDecoder，按随机长度(不超过chunkSize)的片段累积内容并解码，
+     * 解码出的报文处理完后才丢弃已读内容
+     */
+    private void decodeInChunks(VehicleTelegramDecoder decoder, byte[] stream, int chunkSize, Random random,
+                                List<String> telegrams) {
+        int count = 0;
+        int offset = 0;
+        while (offset < stream.length) {
+            int length = Math.min(stream.length - offset, 1 + random.nextInt(chunkSize));
+            cumulation.writeBytes(stream, offset, length);
+            offset += length;
+            TelegramFrame frame;
+            while (null != (frame = decoder.nextFrame(cumulation))) {
+                assertThat(count < telegrams.size(), is(true));
+                assertFrame(frame, telegrams.get(count++));
+            }
+            cumulation.discardReadBytes();
+        }
+        assertThat(count, is(telegrams.size()));
+    }
+
+    /**
+     * 报文的各字段及CRC与ProtocolUtils.converterString编码的内容一致
+     */
+    private static void assertFrame(TelegramFrame frame, String telegram) {
+        try {
+            String[] fields = telegram.split(",,");
+            assertThat(frame.toString(), is(telegram));
+            assertThat(frame.getDeviceId(), is(fields[1]));
+            assertThat(frame.getDirection(), is(fields[2]));
+            assertThat(frame.getCommandKey(), is(fields[3]));
+            assertThat(frame.getParams(), is(fields[4]));
+            assertThat(frame.getCrc(), is(fields[5]));
+            assertThat(frame.getComputedCrc(), is(Integer.parseInt(fields[5], 16)));
+            assertThat(frame.isCrcValid(), is(true));
+        } finally {
+            frame.release();
+        }
+    }
+
+    private static String telegram(String deviceId, String commandKey, String params) {
+        return ProtocolUtils.converterString(new Protocol.Builder()
+                .deviceId(deviceId)
+                .direction("s")
+                .commandKey(commandKey)
+                .params(params)
+                .build());
+    }
+
+    private static byte[] bytes(String content) {
+        return content.getBytes(CharsetUtil.UTF_8);
+    }
+}
@@ -0,0 +1,223 @@
+package com.robot.agv.vehicle.net.netty.upd;
+
+import com.robot.agv.vehicle.net.netty.comm.TelegramFrame;
+import com.robot.agv.vehicle.net.netty.comm.VehicleTelegramDecoder;
+import com.robot.agv.vehicle.telegrams.Protocol;
+import com.robot.utils.ProtocolUtils;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.DatagramPacket;
+import io.netty.channel.socket.nio.NioDatagramChannel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * UDP服务端接收报文的吞吐量(每秒报文数)及线程数，200台模拟设备轮流上报报文
+ *
+ * shared为全厂共用一个UDP Socket及一个EventLoopGroup(UdpServerChannelManager)，
+ * perDevice为原来每个适配器一个NioEventLoopGroup(默认线程数)的做法，
+ * 原来所有适配器绑定同一个端口，只有第一个能绑定成功，这里每台设备使用一个端口。
+ * 接收端与UdpServerHandler一样在ByteBuf上解析报文并记录设备的地址，
+ * 分发到适配器及业务逻辑处理需要完整的调度系统，不在测试范围内。
+ * 最多允许{@value #WINDOW}个报文未被接收，超过{@value #TIMEOUT_MILLIS}ms未被接收的报文视为丢失。
+ *
+ * 运行: java -cp <test classpath> com.robot.agv.vehicle.net.netty.upd.UdpServerBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UdpServerBenchmark {
+
+    private static final int WINDOW = 64;
+    private static final long TIMEOUT_MILLIS = 100;
+
+    @Param({"200"})
+    public int devices;
+
+    @Param({"shared", "perDevice"})
+    public String layout;
+
+    private final AtomicLong received = new AtomicLong();
+    private final List<DatagramChannel> senders = new ArrayList<>();
+    private final List<ByteBuffer> telegrams = new ArrayList<>();
+    private final List<InetSocketAddress> targets = new ArrayList<>();
+    private final List<Channel> channels = new ArrayList<>();
+    private final List<EventLoopGroup> groups = new ArrayList<>();
+    private long sent;
+    private long lost;
+    private int next;
+
+    @Benchmark
+    public void receiveTelegram() throws IOException {
+        int device = next;
+        next = (next + 1) % devices;
+        ByteBuffer telegram = telegrams.get(device);
+        telegram.rewind();
+        senders.get(device).send(telegram, targets.get(device));
+        sent++;
+        awaitReceived(sent - WINDOW);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(UdpServerBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        int threadsBefore = ManagementFactory.getThreadMXBean().getThreadCount();
+        UdpServerChannelManager manager = UdpServerChannelManager.duang();
+        ReceiveHandler handler = new ReceiveHandler(manager, received);
+        if ("shared".equals(layout)) {
+            EventLoopGroup group = manager.acquireWorkerGroup();
+            groups.add(group);
+            Channel channel = bind(group, handler);
+            for (int i = 0; i < devices; i++) {
+                targets.add((InetSocketAddress) channel.localAddress());
+            }
+        } else {
+            for (int i = 0; i < devices; i++) {
+                EventLoopGroup group = new NioEventLoopGroup();
+                groups.add(group);
+                targets.add((InetSocketAddress) bind(group, handler).localAddress());
+            }
+        }
+        for (int i = 0; i < devices; i++) {
+            DatagramChannel sender = DatagramChannel.open();
+            sender.bind(new InetSocketAddress("127.0.0.1", 0));
+            senders.add(sender);
+            telegrams.add(ByteBuffer.wrap(telegram(String.format("S%03d", i)).getBytes(StandardCharsets.UTF_8)));
+        }
+        // 每台设备先上报一次，确保所有EventLoop的线程都已启动
+        for (int i = 0; i < devices; i++) {
+            receiveTelegram();
+        }
+        awaitReceived(sent);
+        System.out.printf("%nThreads: %d, for UDP: %d%n",
+                ManagementFactory.getThreadMXBean().getThreadCount(),
+                ManagementFactory.getThreadMXBean().getThreadCount() - threadsBefore);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        System.out.printf("%nSent: %d, lost: %d%n", sent, lost);
+        for (DatagramChannel sender : senders) {
+            sender.close();
+        }
+        for (Channel channel : channels) {
+            channel.close().syncUninterruptibly();
+        }
+        if ("shared".equals(layout)) {
+            UdpServerChannelManager.duang().releaseWorkerGroup();
+        } else {
+            for (EventLoopGroup group : groups) {
+                group.shutdownGracefully(0, 2, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    private Channel bind(EventLoopGroup group, ChannelHandler handler) throws InterruptedException {
+        Channel channel = new Bootstrap()
+                .group(group)
+                .channel(NioDatagramChannel.class)
+                .option(ChannelOption.SO_RCVBUF, 64 * 1024)
+                .handler(handler)
+                .bind("127.0.0.1", 0).sync().channel();
+        channels.add(channel);
+        return channel;
+    }
+
+    /**
+     * 等待接收到的报文数(包括丢失的)达到指定数量，超时未接收的报文视为丢失
+     */
+    private void awaitReceived(long count) {
+        long deadline = 0;
+        while (received.get() + lost < count) {
+            long now = System.nanoTime();
+            if (deadline == 0) {
+                deadline = now + TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MILLIS);
+            } else if (now - deadline > 0) {
+                lost = sent - received.get();
+                return;
+            }
+            Thread.yield();
+        }
+    }
+
+    private static String telegram(String deviceId) {
+        return ProtocolUtils.converterString(new Protocol.Builder()
+                .deviceId(deviceId)
+                .direction("s")
+                .commandKey("rptmag")
+                .params("0::0::1::1")
+                .build());
+    }
+
+    /**
+     * 与UdpServerHandler一样解析报文及记录设备地址，并统计接收到的报文数
+     */
+    @ChannelHandler.Sharable
+    private static class ReceiveHandler extends SimpleChannelInboundHandler<DatagramPacket> {
+
+        private final UdpServerChannelManager manager;
+        private final AtomicLong received;
+
+        ReceiveHandler(UdpServerChannelManager manager, AtomicLong received) {
+            this.manager = manager;
+            this.received = received;
+        }
+
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, DatagramPacket datagramPacket) {
+            ByteBuf content = datagramPacket.content();
+            TelegramFrame frame;
+            while (null != (frame = VehicleTelegramDecoder.decodeFrame(content, content.readableBytes()))) {
+                try {
+                    if (frame.isCrcValid()) {
+                        manager.setDeviceAddress(frame.getDeviceId(), datagramPacket.sender());
+                    }
+                } finally {
+                    frame.release();
+                }
+            }
+            received.incrementAndGet();
+        }
+    }
+}
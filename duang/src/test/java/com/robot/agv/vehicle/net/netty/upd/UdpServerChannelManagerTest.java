@@ -0,0 +1,39 @@
+package com.robot.agv.vehicle.net.netty.upd;
+
+import io.netty.channel.EventLoopGroup;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * 共用UDP服务端的测试
+ */
+public class UdpServerChannelManagerTest {
+
+    @Test(expected = IllegalStateException.class)
+    public void sendWhenNotInitializedThrowsIllegalStateException() {
+        // 没有绑定UDP Socket时不会用到适配器
+        UdpServerChannelManager.duang().send(null, "A001", "##,,A001,,s,,rptmag,,0,,0000,,ZZ");
+    }
+
+    @Test
+    public void shutdownWorkerGroupWhenLastUserReleasesIt() throws InterruptedException {
+        UdpServerChannelManager manager = UdpServerChannelManager.duang();
+        EventLoopGroup workerGroup = manager.acquireWorkerGroup();
+        assertThat(manager.acquireWorkerGroup(), is(sameInstance(workerGroup)));
+
+        manager.releaseWorkerGroup();
+        assertThat(workerGroup.isShuttingDown(), is(false));
+        manager.releaseWorkerGroup();
+        assertThat(workerGroup.awaitTermination(5, TimeUnit.SECONDS), is(true));
+
+        EventLoopGroup nextWorkerGroup = manager.acquireWorkerGroup();
+        manager.releaseWorkerGroup();
+        assertThat(nextWorkerGroup, is(not(sameInstance(workerGroup))));
+    }
+}
@@ -0,0 +1,102 @@
+package com.robot.core.handshake;
+
+import com.robot.agv.vehicle.telegrams.OrderRequest;
+import com.robot.agv.vehicle.telegrams.OrderResponse;
+import com.robot.agv.vehicle.telegrams.Protocol;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.LinkedBlockingQueue;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * 握手报文重发调度器的测试
+ * 没有车辆适配器，重发时发送报文会出错并记录日志，不影响重发的调度
+ */
+public class RetransmissionSchedulerTest {
+
+    private static final String DEVICE_ID = "T001";
+    private static final long INTERVAL = 10L;
+    private static final int MAX_RETRIES = 2;
+
+    private RetransmissionScheduler scheduler;
+    private LinkedBlockingQueue<HandshakeTelegramDto> queue;
+
+    @Before
+    public void setUp() {
+        scheduler = new RetransmissionScheduler(INTERVAL, INTERVAL, 0, MAX_RETRIES);
+        queue = new LinkedBlockingQueue<>();
+        HandshakeTelegram.getHandshakeTelegram().put(DEVICE_ID, queue);
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.stop();
+        HandshakeTelegram.getHandshakeTelegram().remove(DEVICE_ID);
+    }
+
+    @Test
+    public void dropHeadAndScheduleNextWhenRetriesAreExhausted() throws InterruptedException {
+        HandshakeTelegramDto first = telegram("0001");
+        HandshakeTelegramDto second = telegram("0002");
+        queue.add(first);
+        queue.add(second);
+
+        scheduler.schedule(DEVICE_ID, first);
+
+        awaitQueueSize(1);
+        assertThat(queue.peek(), is(sameInstance(second)));
+        // 下一个报文同样在重发次数用完后被移除，说明已安排了它的重发
+        awaitQueueSize(0);
+    }
+
+    @Test
+    public void doNotRescheduleHeadWithResetRetriesWhenAddingTelegram() throws InterruptedException {
+        HandshakeTelegramDto first = telegram("0001");
+        queue.add(first);
+        scheduler.schedule(DEVICE_ID, first);
+        awaitQueueSize(0);
+
+        HandshakeTelegramDto second = telegram("0002");
+        queue.add(second);
+        scheduler.schedule(DEVICE_ID, queue.peek());
+
+        assertThat(queue.peek(), is(sameInstance(second)));
+        awaitQueueSize(0);
+    }
+
+    @Test
+    public void stopRetransmittingWhenStopped() throws InterruptedException {
+        HandshakeTelegramDto first = telegram("0001");
+        queue.add(first);
+        scheduler.schedule(DEVICE_ID, first);
+
+        scheduler.stop();
+        Thread.sleep(INTERVAL * (MAX_RETRIES + 2) * 10);
+
+        assertThat(queue.peek(), is(sameInstance(first)));
+    }
+
+    private void awaitQueueSize(int size) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (queue.size() != size && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(queue.size(), is(size));
+    }
+
+    private static HandshakeTelegramDto telegram(String code) {
+        Protocol protocol = new Protocol.Builder()
+                .deviceId(DEVICE_ID)
+                .direction("s")
+                .commandKey("setrout")
+                .params("mf400")
+                .crc(code)
+                .build();
+        return new HandshakeTelegramDto(new OrderRequest(protocol), new OrderResponse(protocol));
+    }
+}
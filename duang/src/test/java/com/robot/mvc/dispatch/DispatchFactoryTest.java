@@ -0,0 +1,96 @@
+package com.robot.mvc.dispatch;
+
+import cn.hutool.http.HttpStatus;
+import com.robot.agv.common.telegrams.Request;
+import com.robot.agv.common.telegrams.Response;
+import com.robot.agv.vehicle.telegrams.OrderRequest;
+import com.robot.agv.vehicle.telegrams.Protocol;
+import com.robot.mvc.annotations.Service;
+import com.robot.utils.ProtocolUtils;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+
+/**
+ * 调度分发工厂同步执行的测试，业务处理超时或发生异常时返回设置了对应状态的response
+ */
+public class DispatchFactoryTest {
+
+    private static final String DEVICE_ID = "T901";
+
+    @After
+    public void tearDown() {
+        SlowService.release.countDown();
+        TelegramPipeline.shutdown();
+    }
+
+    @Test
+    public void returnTimeoutResponseWhenBusinessRunsPastTimeout() {
+        long start = System.nanoTime();
+
+        Object result = new DispatchFactory().execute(request("slow"), request -> { });
+
+        assertThat(result, is(instanceOf(Response.class)));
+        assertThat(((Response) result).getStatus(), is(HttpStatus.HTTP_CLIENT_TIMEOUT));
+        // 不等待不响应中断的业务处理结束
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), is(lessThan(5000L)));
+    }
+
+    @Test
+    public void returnErrorResponseWhenBusinessFails() {
+        Object result = new DispatchFactory().execute(request("fail"), request -> { });
+
+        assertThat(result, is(instanceOf(Response.class)));
+        assertThat(((Response) result).getStatus(), is(HttpStatus.HTTP_INTERNAL_ERROR));
+    }
+
+    private static Request request(String commandKey) {
+        Protocol protocol = new Protocol.Builder()
+                .deviceId(DEVICE_ID)
+                .direction("s")
+                .commandKey(commandKey)
+                .params("0")
+                .build();
+        protocol.setCode(ProtocolUtils.builderCrcString(protocol));
+        return new OrderRequest(protocol);
+    }
+
+    /**
+     * 测试用的业务处理，启动时扫描注册
+     */
+    @Service(DEVICE_ID)
+    public static class SlowService {
+
+        private static final CountDownLatch release = new CountDownLatch(1);
+
+        /**
+         * 不响应中断，直到测试结束
+         */
+        public String slow(Request request, Response response) {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    release.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            return "slow";
+        }
+
+        public String fail(Request request, Response response) {
+            throw new IllegalStateException("业务处理失败");
+        }
+    }
+}
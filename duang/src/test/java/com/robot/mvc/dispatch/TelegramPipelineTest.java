@@ -0,0 +1,128 @@
+package com.robot.mvc.dispatch;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * 接收报文的异步处理管道的测试
+ */
+public class TelegramPipelineTest {
+
+    private static final long TIMEOUT = 50L;
+
+    private final ExecutorService businessExecutor = Executors.newCachedThreadPool();
+
+    @After
+    public void tearDown() {
+        businessExecutor.shutdownNow();
+        TelegramPipeline.shutdown();
+    }
+
+    @Test
+    public void interruptBusinessTaskOnTimeout() throws Exception {
+        CompletableFuture<String> result = TelegramPipeline.duang().supplyAsync(() -> {
+            Thread.sleep(10000);
+            return "done";
+        }, businessExecutor, TIMEOUT);
+
+        assertThat(causeOf(result), is(instanceOf(TimeoutException.class)));
+    }
+
+    @Test
+    public void startNextTelegramOnlyWhenTimedOutTaskHasFinished() throws Exception {
+        TelegramPipeline pipeline = TelegramPipeline.duang();
+        List<String> events = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> first = pipeline.submit("A001", () -> pipeline.supplyAsync(() -> {
+            // 不响应中断的业务处理
+            awaitUninterruptibly(release);
+            events.add("first finished");
+            return "first";
+        }, businessExecutor, TIMEOUT));
+        CompletableFuture<String> second = pipeline.submit("A001", () -> pipeline.supplyAsync(() -> {
+            events.add("second started");
+            return "second";
+        }, businessExecutor, TIMEOUT));
+
+        Thread.sleep(TIMEOUT * 4);
+        assertThat(first.isDone(), is(false));
+        assertThat(events.isEmpty(), is(true));
+
+        release.countDown();
+        assertThat(causeOf(first), is(instanceOf(TimeoutException.class)));
+        assertThat(second.get(5, TimeUnit.SECONDS), is("second"));
+        assertThat(events, contains("first finished", "second started"));
+    }
+
+    @Test
+    public void doNotInterruptThreadAfterTaskHasFinished() throws Exception {
+        TelegramPipeline pipeline = TelegramPipeline.duang();
+        ExecutorService singleThread = Executors.newSingleThreadExecutor();
+        try {
+            assertThat(pipeline.supplyAsync(() -> "fast", singleThread, TIMEOUT).get(), is("fast"));
+            Thread.sleep(TIMEOUT * 2);
+
+            CompletableFuture<Boolean> interrupted = pipeline.supplyAsync(
+                    () -> Thread.currentThread().isInterrupted(), singleThread, TIMEOUT);
+
+            assertThat(interrupted.get(), is(false));
+        } finally {
+            singleThread.shutdownNow();
+        }
+    }
+
+    @Test
+    public void createNewPipelineAfterShutdown() throws Exception {
+        TelegramPipeline pipeline = TelegramPipeline.duang();
+        TelegramPipeline.shutdown();
+
+        TelegramPipeline nextPipeline = TelegramPipeline.duang();
+
+        assertThat(nextPipeline == pipeline, is(false));
+        assertThat(nextPipeline.submit("A001", () -> CompletableFuture.completedFuture("ok"))
+                .get(5, TimeUnit.SECONDS), is("ok"));
+    }
+
+    private static Throwable causeOf(CompletableFuture<?> future) throws InterruptedException, TimeoutException {
+        try {
+            future.get(5, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            return e.getCause();
+        }
+        fail("处理没有以异常结束");
+        return null;
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.robot.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 查表法CRC16与原来逐位计算的耗时比较
+ *
+ * 报文为一个setrout报文里参与CRC计算的部分(CrcVerify_Str)，字节数组为256字节(getCrc16)。
+ *
+ * 运行: java -cp <test classpath> com.robot.utils.CrcUtilBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CrcUtilBenchmark {
+
+    private final String telegram = "##,,A002,,r,,setrout,,rf310::rf31::mf400::mf708::rf220::rb233,,";
+    private final byte[] data = new byte[256];
+
+    public CrcUtilBenchmark() {
+        new Random(42).nextBytes(data);
+    }
+
+    @Benchmark
+    public String crcVerifyStrTable() {
+        return CrcUtil.CrcVerify_Str(telegram);
+    }
+
+    @Benchmark
+    public String crcVerifyStrBitLoop() {
+        return String.format("%04x", bitLoopCrcVerify(telegram));
+    }
+
+    @Benchmark
+    public byte[] getCrc16Table() {
+        return CrcUtil.getCrc16(data);
+    }
+
+    @Benchmark
+    public int getCrc16BitLoop() {
+        return bitLoopCrc16(data);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CrcUtilBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+    /**
+     * 原来的CrcVerify
+     */
+    private static int bitLoopCrcVerify(String sourceStr) {
+        int wCrc = 0xffff;
+        char[] cBuffer = sourceStr.toCharArray();
+        for (int i = 0; i < cBuffer.length; i++) {
+            wCrc ^= cBuffer[i];
+            for (int j = 0; j < 8; j++) {
+                if ((wCrc & 0x0001) > 0) {
+                    wCrc = (wCrc >> 1) ^ 0xA001;
+                } else {
+                    wCrc = wCrc >> 1;
+                }
+            }
+        }
+        return wCrc;
+    }
+
+    /**
+     * 原来的getCrc16，不含转换为byte数组
+     */
+    private static int bitLoopCrc16(byte[] arr_buff) {
+        int crc = 0xFFFF;
+        for (int i = 0; i < arr_buff.length; i++) {
+            crc = ((crc & 0xFF00) | (crc & 0x00FF) ^ (arr_buff[i] & 0xFF));
+            for (int j = 0; j < 8; j++) {
+                if ((crc & 0x0001) > 0) {
+                    crc = crc >> 1;
+                    crc = crc ^ 0xA001;
+                } else {
+                    crc = crc >> 1;
+                }
+            }
+        }
+        return crc;
+    }
+}
@@ -0,0 +1,122 @@
+package com.robot.utils;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 查表法CRC16与原来逐位计算的结果一致
+ */
+public class CrcUtilTest {
+
+    @Test
+    public void updateByteMatchesBitLoopForEveryStateAndByte() {
+        for (int crc = 0; crc <= 0xFFFF; crc++) {
+            for (int b = 0; b <= 0xFF; b++) {
+                if (CrcUtil.update(crc, b) != bitLoop(crc, b)) {
+                    throw new AssertionError(String.format("crc=%04x, byte=%02x", crc, b));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void crcVerifyMatchesBitLoopForEveryChar() {
+        for (int c = 0; c <= 0xFFFF; c++) {
+            String str = String.valueOf((char) c);
+            int expected = bitLoop(CrcUtil.CRC16_INIT, c);
+            if (CrcUtil.CrcVerify(str) != expected) {
+                throw new AssertionError(String.format("char=%04x", c));
+            }
+            if (!CrcUtil.CrcVerify_Str(str).equals(String.format("%04x", expected))) {
+                throw new AssertionError(String.format("char=%04x", c));
+            }
+        }
+    }
+
+    @Test
+    public void updateCharMatchesBitLoopForEveryStateAndChar() {
+        // 每个CRC值与每个字符的组合太多，字符取每个高8位各一个随机的低8位
+        Random random = new Random(42);
+        for (int crc = 0; crc <= 0xFFFF; crc++) {
+            for (int high = 0; high <= 0xFF; high++) {
+                char c = (char) ((high << 8) | random.nextInt(0x100));
+                if (CrcUtil.update(crc, c) != bitLoop(crc, c)) {
+                    throw new AssertionError(String.format("crc=%04x, char=%04x", crc, (int) c));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void crcVerifyMatchesBitLoopForTelegram() {
+        String telegram = "##,,A002,,r,,setrout,,rf310::rf31,,";
+        int expected = CrcUtil.CRC16_INIT;
+        for (char c : telegram.toCharArray()) {
+            expected = bitLoop(expected, c);
+        }
+
+        assertThat(CrcUtil.CrcVerify(telegram), is(expected));
+        assertThat(CrcUtil.CrcVerify_Str(telegram), is(String.format("%04x", expected)));
+    }
+
+    @Test
+    public void byteArraysMatchBitLoopWhenUpdatedInPieces() {
+        Random random = new Random(7);
+        for (int n = 0; n < 1000; n++) {
+            byte[] data = new byte[random.nextInt(200)];
+            random.nextBytes(data);
+            int expected = CrcUtil.CRC16_INIT;
+            for (byte b : data) {
+                expected = bitLoop(expected, b & 0xFF);
+            }
+            int split = data.length == 0 ? 0 : random.nextInt(data.length);
+            ByteBuf direct = Unpooled.directBuffer(data.length).writeBytes(data);
+            try {
+                assertThat(CrcUtil.update(CrcUtil.update(CrcUtil.CRC16_INIT, data, 0, split),
+                        data, split, data.length - split), is(expected));
+                assertThat(CrcUtil.update(CrcUtil.CRC16_INIT, Unpooled.wrappedBuffer(data), 0, data.length),
+                        is(expected));
+                assertThat(CrcUtil.update(CrcUtil.CRC16_INIT, direct, 0, data.length), is(expected));
+                byte[] withCrc = CrcUtil.appendCrc16(data);
+                assertTrue(Arrays.equals(Arrays.copyOf(withCrc, data.length), data));
+                assertThat(withCrc[data.length], is((byte) expected));
+                assertThat(withCrc[data.length + 1], is((byte) (expected >> 8)));
+            } finally {
+                direct.release();
+            }
+        }
+    }
+
+    @Test
+    public void appendCrc16OfHexStrings() {
+        byte[] expected = CrcUtil.appendCrc16(new byte[]{0x01, 0x03, 0x00, 0x00, 0x00, 0x0a});
+
+        assertTrue(Arrays.equals(CrcUtil.appendCrc16("01", "03", "00", "00", "00", "0a"), expected));
+        // Modbus读保持寄存器请求的CRC为C5CD，低位在前
+        assertThat(expected[6], is((byte) 0xC5));
+        assertThat(expected[7], is((byte) 0xCD));
+    }
+
+    /**
+     * 原来的逐位计算：与数据异或后右移8次，每次移出位为1时与多项式0xA001异或
+     */
+    private static int bitLoop(int crc, int value) {
+        crc ^= value;
+        for (int j = 0; j < 8; j++) {
+            if ((crc & 0x0001) > 0) {
+                crc = (crc >> 1) ^ 0xA001;
+            } else {
+                crc = crc >> 1;
+            }
+        }
+        return crc;
+    }
+}
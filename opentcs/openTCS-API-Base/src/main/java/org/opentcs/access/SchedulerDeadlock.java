@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.access;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import org.opentcs.data.model.TCSResource;
+import static org.opentcs.util.Assertions.checkArgument;
+
+/**
+ * Describes a cycle of scheduler clients waiting for resources allocated by each other.
+ * <p>
+ * Each client in the cycle waits for resources allocated by the next one, and the last one waits
+ * for resources allocated by the first one, so none of their pending allocations can ever be
+ * granted unless one of them releases resources.
+ * Instances of this class are emitted via the application event bus when the scheduler detects a
+ * deadlock.
+ * </p>
+ */
+public class SchedulerDeadlock
+    implements Serializable {
+
+  /**
+   * The IDs of the clients in the cycle, each waiting for the next one.
+   */
+  private final List<String> clientIds;
+  /**
+   * The resources each client in the cycle waits for, mapped by client ID.
+   */
+  private final Map<String, Set<TCSResource<?>>> awaitedResources;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param awaitedResources The resources each client in the cycle waits for, mapped by client ID.
+   * The iteration order of the map's keys defines the order of the clients in the cycle, i.e. each
+   * client waits for the next one.
+   */
+  public SchedulerDeadlock(@Nonnull Map<String, Set<TCSResource<?>>> awaitedResources) {
+    requireNonNull(awaitedResources, "awaitedResources");
+    checkArgument(!awaitedResources.isEmpty(), "awaitedResources is empty");
+
+    this.clientIds = Collections.unmodifiableList(new ArrayList<>(awaitedResources.keySet()));
+    this.awaitedResources = Collections.unmodifiableMap(new LinkedHashMap<>(awaitedResources));
+  }
+
+  /**
+   * Returns the IDs of the clients in the cycle, each waiting for resources allocated by the next
+   * one.
+   *
+   * @return The IDs of the clients in the cycle.
+   */
+  @Nonnull
+  public List<String> getClientIds() {
+    return clientIds;
+  }
+
+  /**
+   * Returns the resources each client in the cycle waits for, mapped by client ID.
+   *
+   * @return The resources each client in the cycle waits for.
+   */
+  @Nonnull
+  public Map<String, Set<TCSResource<?>>> getAwaitedResources() {
+    return awaitedResources;
+  }
+
+  /**
+   * Checks whether the client with the given ID is part of this cycle.
+   *
+   * @param clientId The client ID.
+   * @return {@code true} if, and only if, the client with the given ID is part of this cycle.
+   */
+  public boolean involves(String clientId) {
+    return awaitedResources.containsKey(clientId);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof SchedulerDeadlock)) {
+      return false;
+    }
+    // The same cycle may be detected starting at any of its clients.
+    SchedulerDeadlock other = (SchedulerDeadlock) obj;
+    return new HashSet<>(clientIds).equals(new HashSet<>(other.clientIds));
+  }
+
+  @Override
+  public int hashCode() {
+    return new HashSet<>(clientIds).hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return "SchedulerDeadlock{"
+        + "awaitedResources=" + awaitedResources
+        + '}';
+  }
+}
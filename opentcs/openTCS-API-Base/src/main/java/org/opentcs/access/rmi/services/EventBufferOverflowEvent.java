@@ -0,0 +1,56 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.access.rmi.services;
+
+import java.io.Serializable;
+import static org.opentcs.util.Assertions.checkArgument;
+
+/**
+ * Indicates that a client did not fetch its events quickly enough and that events have been
+ * discarded from its event buffer on the kernel side.
+ * <p>
+ * The events following this one are complete again, but a client receiving it should not rely on
+ * the object states it has collected so far and fetch the current states of all objects it is
+ * interested in.
+ * </p>
+ */
+public class EventBufferOverflowEvent
+    implements Serializable {
+
+  /**
+   * The number of events discarded.
+   */
+  private final int droppedEvents;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param droppedEvents The number of events discarded.
+   */
+  public EventBufferOverflowEvent(int droppedEvents) {
+    checkArgument(droppedEvents > 0, "droppedEvents must be positive: %s", droppedEvents);
+    this.droppedEvents = droppedEvents;
+  }
+
+  /**
+   * Returns the number of events discarded.
+   *
+   * @return The number of events discarded.
+   */
+  public int getDroppedEvents() {
+    return droppedEvents;
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName()
+        + '{'
+        + "droppedEvents=" + droppedEvents
+        + '}';
+  }
+}
@@ -0,0 +1,22 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.access.rmi.services;
+
+/**
+ * Marks an event filter passed to
+ * {@link RemoteKernelServicePortal#login(String, String, java.util.function.Predicate)}
+ * as requiring every single event.
+ * <p>
+ * By default, the kernel merges successive modifications of the same object that are waiting to
+ * be fetched by a client into a single event carrying the latest object state. Clients that need
+ * every intermediate object state, e.g. for recording them, can disable this by passing an event
+ * filter implementing this interface.
+ * </p>
+ */
+public interface FullEventHistory {
+}
@@ -9,7 +9,9 @@ package org.opentcs.access.rmi.services;
 
 import java.rmi.Remote;
 import java.rmi.RemoteException;
+import java.util.Set;
 import org.opentcs.access.SchedulerAllocationState;
+import org.opentcs.access.SchedulerDeadlock;
 import org.opentcs.access.rmi.ClientID;
 import org.opentcs.components.kernel.services.SchedulerService;
 
@@ -34,4 +36,7 @@ public interface RemoteSchedulerService
 
   public SchedulerAllocationState fetchSchedulerAllocations(ClientID clientId)
       throws RemoteException;
+
+  public Set<SchedulerDeadlock> fetchSchedulerDeadlocks(ClientID clientId)
+      throws RemoteException;
 }
@@ -9,8 +9,10 @@ package org.opentcs.access.rmi.services;
 
 import java.rmi.Remote;
 import java.rmi.RemoteException;
+import java.util.List;
 import org.opentcs.access.rmi.ClientID;
 import org.opentcs.access.to.order.OrderSequenceCreationTO;
+import org.opentcs.access.to.order.TransportOrderArchiveQuery;
 import org.opentcs.access.to.order.TransportOrderCreationTO;
 import org.opentcs.components.kernel.services.TransportOrderService;
 import org.opentcs.data.TCSObjectReference;
@@ -45,4 +47,8 @@ public interface RemoteTransportOrderService
 
   void markOrderSequenceComplete(ClientID clientId, TCSObjectReference<OrderSequence> ref)
       throws RemoteException;
+
+  List<TransportOrder> fetchArchivedTransportOrders(ClientID clientId,
+                                                    TransportOrderArchiveQuery query)
+      throws RemoteException;
 }
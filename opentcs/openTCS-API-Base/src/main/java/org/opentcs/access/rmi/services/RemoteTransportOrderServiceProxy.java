@@ -8,8 +8,10 @@
 package org.opentcs.access.rmi.services;
 
 import java.rmi.RemoteException;
+import java.util.List;
 import org.opentcs.access.KernelRuntimeException;
 import org.opentcs.access.to.order.OrderSequenceCreationTO;
+import org.opentcs.access.to.order.TransportOrderArchiveQuery;
 import org.opentcs.access.to.order.TransportOrderCreationTO;
 import org.opentcs.components.kernel.services.TransportOrderService;
 import org.opentcs.data.ObjectExistsException;
@@ -66,4 +68,17 @@ class RemoteTransportOrderServiceProxy
       throw findSuitableExceptionFor(ex);
     }
   }
+
+  @Override
+  public List<TransportOrder> fetchArchivedTransportOrders(TransportOrderArchiveQuery query)
+      throws KernelRuntimeException {
+    checkServiceAvailability();
+
+    try {
+      return getRemoteService().fetchArchivedTransportOrders(getClientId(), query);
+    }
+    catch (RemoteException ex) {
+      throw findSuitableExceptionFor(ex);
+    }
+  }
 }
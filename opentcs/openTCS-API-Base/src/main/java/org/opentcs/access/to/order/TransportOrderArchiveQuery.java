@@ -0,0 +1,287 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.access.to.order;
+
+import java.io.Serializable;
+import java.time.Instant;
+import javax.annotation.Nullable;
+import org.opentcs.data.order.TransportOrder;
+import static org.opentcs.util.Assertions.checkArgument;
+
+/**
+ * A transfer object describing a query for archived transport orders, i.e. transport orders that
+ * reached a final state.
+ * <p>
+ * Criteria that are not set do not restrict the result. Matching transport orders are returned
+ * most recently archived first, skipping the first {@code offset} ones and returning at most
+ * {@code limit} ones, so results can be fetched page by page.
+ * </p>
+ */
+public class TransportOrderArchiveQuery
+    implements Serializable {
+
+  /**
+   * The default maximum number of transport orders to be returned.
+   */
+  public static final int DEFAULT_LIMIT = 100;
+  /**
+   * The (inclusive) earliest time the transport orders were archived at.
+   */
+  @Nullable
+  private final Instant archivedAfter;
+  /**
+   * The (exclusive) latest time the transport orders were archived at.
+   */
+  @Nullable
+  private final Instant archivedBefore;
+  /**
+   * The name of the vehicle that processed (or was intended to process) the transport orders.
+   */
+  @Nullable
+  private final String vehicleName;
+  /**
+   * The final state of the transport orders.
+   */
+  @Nullable
+  private final TransportOrder.State state;
+  /**
+   * The category of the transport orders.
+   */
+  @Nullable
+  private final String category;
+  /**
+   * The number of matching transport orders to be skipped.
+   */
+  private final int offset;
+  /**
+   * The maximum number of transport orders to be returned.
+   */
+  private final int limit;
+
+  /**
+   * Creates a new instance matching all archived transport orders.
+   */
+  public TransportOrderArchiveQuery() {
+    this(null, null, null, null, null, 0, DEFAULT_LIMIT);
+  }
+
+  private TransportOrderArchiveQuery(@Nullable Instant archivedAfter,
+                                     @Nullable Instant archivedBefore,
+                                     @Nullable String vehicleName,
+                                     @Nullable TransportOrder.State state,
+                                     @Nullable String category,
+                                     int offset,
+                                     int limit) {
+    checkArgument(state == null || state.isFinalState(), "%s is not a final state", state);
+    checkArgument(offset >= 0, "offset is negative: %s", offset);
+    checkArgument(limit > 0, "limit is not positive: %s", limit);
+    this.archivedAfter = archivedAfter;
+    this.archivedBefore = archivedBefore;
+    this.vehicleName = vehicleName;
+    this.state = state;
+    this.category = category;
+    this.offset = offset;
+    this.limit = limit;
+  }
+
+  /**
+   * Returns the (inclusive) earliest time the transport orders were archived at.
+   *
+   * @return The earliest time, or {@code null}, if not restricted.
+   */
+  @Nullable
+  public Instant getArchivedAfter() {
+    return archivedAfter;
+  }
+
+  /**
+   * Creates a copy of this object with the given (inclusive) earliest time the transport orders
+   * were archived at.
+   *
+   * @param archivedAfter The value to be set in the copy.
+   * @return A copy of this object, differing in the given value.
+   */
+  public TransportOrderArchiveQuery withArchivedAfter(@Nullable Instant archivedAfter) {
+    return new TransportOrderArchiveQuery(archivedAfter,
+                                          archivedBefore,
+                                          vehicleName,
+                                          state,
+                                          category,
+                                          offset,
+                                          limit);
+  }
+
+  /**
+   * Returns the (exclusive) latest time the transport orders were archived at.
+   *
+   * @return The latest time, or {@code null}, if not restricted.
+   */
+  @Nullable
+  public Instant getArchivedBefore() {
+    return archivedBefore;
+  }
+
+  /**
+   * Creates a copy of this object with the given (exclusive) latest time the transport orders
+   * were archived at.
+   *
+   * @param archivedBefore The value to be set in the copy.
+   * @return A copy of this object, differing in the given value.
+   */
+  public TransportOrderArchiveQuery withArchivedBefore(@Nullable Instant archivedBefore) {
+    return new TransportOrderArchiveQuery(archivedAfter,
+                                          archivedBefore,
+                                          vehicleName,
+                                          state,
+                                          category,
+                                          offset,
+                                          limit);
+  }
+
+  /**
+   * Returns the name of the vehicle that processed the transport orders, or was intended to
+   * process them if they were never processed.
+   *
+   * @return The vehicle's name, or {@code null}, if not restricted.
+   */
+  @Nullable
+  public String getVehicleName() {
+    return vehicleName;
+  }
+
+  /**
+   * Creates a copy of this object with the given vehicle name.
+   *
+   * @param vehicleName The value to be set in the copy.
+   * @return A copy of this object, differing in the given value.
+   */
+  public TransportOrderArchiveQuery withVehicleName(@Nullable String vehicleName) {
+    return new TransportOrderArchiveQuery(archivedAfter,
+                                          archivedBefore,
+                                          vehicleName,
+                                          state,
+                                          category,
+                                          offset,
+                                          limit);
+  }
+
+  /**
+   * Returns the final state of the transport orders.
+   *
+   * @return The state, or {@code null}, if not restricted.
+   */
+  @Nullable
+  public TransportOrder.State getState() {
+    return state;
+  }
+
+  /**
+   * Creates a copy of this object with the given state.
+   *
+   * @param state The value to be set in the copy. Must be a final state.
+   * @return A copy of this object, differing in the given value.
+   */
+  public TransportOrderArchiveQuery withState(@Nullable TransportOrder.State state) {
+    return new TransportOrderArchiveQuery(archivedAfter,
+                                          archivedBefore,
+                                          vehicleName,
+                                          state,
+                                          category,
+                                          offset,
+                                          limit);
+  }
+
+  /**
+   * Returns the category of the transport orders.
+   *
+   * @return The category, or {@code null}, if not restricted.
+   */
+  @Nullable
+  public String getCategory() {
+    return category;
+  }
+
+  /**
+   * Creates a copy of this object with the given category.
+   *
+   * @param category The value to be set in the copy.
+   * @return A copy of this object, differing in the given value.
+   */
+  public TransportOrderArchiveQuery withCategory(@Nullable String category) {
+    return new TransportOrderArchiveQuery(archivedAfter,
+                                          archivedBefore,
+                                          vehicleName,
+                                          state,
+                                          category,
+                                          offset,
+                                          limit);
+  }
+
+  /**
+   * Returns the number of matching transport orders to be skipped.
+   *
+   * @return The number of matching transport orders to be skipped.
+   */
+  public int getOffset() {
+    return offset;
+  }
+
+  /**
+   * Creates a copy of this object with the given offset.
+   *
+   * @param offset The value to be set in the copy.
+   * @return A copy of this object, differing in the given value.
+   */
+  public TransportOrderArchiveQuery withOffset(int offset) {
+    return new TransportOrderArchiveQuery(archivedAfter,
+                                          archivedBefore,
+                                          vehicleName,
+                                          state,
+                                          category,
+                                          offset,
+                                          limit);
+  }
+
+  /**
+   * Returns the maximum number of transport orders to be returned.
+   *
+   * @return The maximum number of transport orders to be returned.
+   */
+  public int getLimit() {
+    return limit;
+  }
+
+  /**
+   * Creates a copy of this object with the given limit.
+   *
+   * @param limit The value to be set in the copy.
+   * @return A copy of this object, differing in the given value.
+   */
+  public TransportOrderArchiveQuery withLimit(int limit) {
+    return new TransportOrderArchiveQuery(archivedAfter,
+                                          archivedBefore,
+                                          vehicleName,
+                                          state,
+                                          category,
+                                          offset,
+                                          limit);
+  }
+
+  @Override
+  public String toString() {
+    return "TransportOrderArchiveQuery{"
+        + "archivedAfter=" + archivedAfter
+        + ", archivedBefore=" + archivedBefore
+        + ", vehicleName=" + vehicleName
+        + ", state=" + state
+        + ", category=" + category
+        + ", offset=" + offset
+        + ", limit=" + limit
+        + '}';
+  }
+}
@@ -7,10 +7,12 @@
  */
 package org.opentcs.components.kernel;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import javax.annotation.Nonnull;
+import org.opentcs.access.SchedulerDeadlock;
 import org.opentcs.components.Lifecycle;
 import org.opentcs.data.model.TCSResource;
 import org.opentcs.util.annotations.ScheduledApiChange;
@@ -119,6 +121,17 @@ public interface Scheduler
   @Nonnull
   Map<String, Set<TCSResource<?>>> getAllocations();
 
+  /**
+   * Returns the currently known deadlocks, i.e. cycles of clients waiting for resources allocated
+   * by each other.
+   *
+   * @return The currently known deadlocks.
+   */
+  @Nonnull
+  default Set<SchedulerDeadlock> getDeadlocks() {
+    return new HashSet<>();
+  }
+
   /**
    * Informs the scheduler that a set of resources was successfully prepared in order of allocating
    * them to a client.
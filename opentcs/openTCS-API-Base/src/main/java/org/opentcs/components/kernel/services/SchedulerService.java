@@ -7,8 +7,11 @@
  */
 package org.opentcs.components.kernel.services;
 
+import java.util.HashSet;
+import java.util.Set;
 import org.opentcs.access.KernelRuntimeException;
 import org.opentcs.access.SchedulerAllocationState;
+import org.opentcs.access.SchedulerDeadlock;
 import org.opentcs.components.kernel.Scheduler;
 
 /**
@@ -26,4 +29,16 @@ public interface SchedulerService {
    */
   SchedulerAllocationState fetchSchedulerAllocations()
       throws KernelRuntimeException;
+
+  /**
+   * Returns the deadlocks currently known to the scheduler, i.e. cycles of clients waiting for
+   * resources allocated by each other.
+   *
+   * @return The deadlocks currently known to the scheduler.
+   * @throws KernelRuntimeException In case there is an exception executing this method.
+   */
+  default Set<SchedulerDeadlock> fetchSchedulerDeadlocks()
+      throws KernelRuntimeException {
+    return new HashSet<>();
+  }
 }
@@ -7,8 +7,11 @@
  */
 package org.opentcs.components.kernel.services;
 
+import java.util.ArrayList;
+import java.util.List;
 import org.opentcs.access.KernelRuntimeException;
 import org.opentcs.access.to.order.OrderSequenceCreationTO;
+import org.opentcs.access.to.order.TransportOrderArchiveQuery;
 import org.opentcs.access.to.order.TransportOrderCreationTO;
 import org.opentcs.data.ObjectExistsException;
 import org.opentcs.data.ObjectUnknownException;
@@ -64,4 +67,19 @@ public interface TransportOrderService
    */
   void markOrderSequenceComplete(TCSObjectReference<OrderSequence> ref)
       throws ObjectUnknownException, KernelRuntimeException;
+
+  /**
+   * Returns archived transport orders, i.e. transport orders that reached a final state, matching
+   * the given query.
+   * Archived transport orders remain available after they have been removed from the kernel's
+   * working set.
+   *
+   * @param query The query.
+   * @return The matching transport orders, most recently archived first.
+   * @throws KernelRuntimeException In case there is an exception executing this method.
+   */
+  default List<TransportOrder> fetchArchivedTransportOrders(TransportOrderArchiveQuery query)
+      throws KernelRuntimeException {
+    return new ArrayList<>();
+  }
 }
@@ -14,7 +14,9 @@ import java.lang.annotation.Target;
 import javax.inject.Qualifier;
 
 /**
- * Annotation type to mark a central injectable {@code ScheduledExecutorService}.
+ * Annotation type to mark a central injectable {@code ScheduledExecutorService} and the
+ * {@link org.opentcs.util.KeyedExecutor} complementing it with serial lanes, e.g. for single
+ * vehicles.
  *
  * @author Stefan Walter (Fraunhofer IML)
  */
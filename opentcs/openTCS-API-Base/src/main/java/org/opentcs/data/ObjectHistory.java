@@ -7,17 +7,27 @@
  */
 package org.opentcs.data;
 
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import static java.util.Objects.requireNonNull;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import static org.opentcs.util.Assertions.checkArgument;
+import static org.opentcs.util.Assertions.checkInRange;
 
 /**
  * A history of events related to an object.
+ * <p>
+ * Histories are persistent data structures: A copy with an entry appended shares all existing
+ * entries with the original instead of copying them, so appending an entry takes constant time
+ * and space, regardless of the history's length.
+ * </p>
  *
  * @author Stefan Walter (Fraunhofer IML)
  */
@@ -25,33 +35,56 @@ public class ObjectHistory
     implements Serializable {
 
   /**
-   * The actual history entries.
+   * The most recent entry, linked to all older ones, or {@code null}, if this history is empty.
    */
-  private final List<Entry> entries;
+  @Nullable
+  private final transient Node newest;
+  /**
+   * The entries in chronological order, once they have been requested.
+   */
+  private transient volatile List<Entry> entries;
 
   /**
    * Creates a new instance.
    */
   public ObjectHistory() {
-    this(new ArrayList<>());
+    this((Node) null);
   }
 
   /**
-   * Creates a new instance with the given list of entries.
+   * Creates a new instance with the given most recent entry.
    *
-   * @param entries
+   * @param newest The most recent entry, linked to all older ones.
    */
-  private ObjectHistory(List<Entry> entries) {
-    this.entries = Collections.unmodifiableList(requireNonNull(entries, "entries"));
+  private ObjectHistory(@Nullable Node newest) {
+    this.newest = newest;
   }
 
   /**
    * Returns this history's entries.
    *
-   * @return This history's entries.
+   * @return This history's entries, in chronological order.
    */
   public List<Entry> getEntries() {
-    return entries;
+    List<Entry> result = entries;
+    if (result == null) {
+      Entry[] array = new Entry[size()];
+      for (Node node = newest; node != null; node = node.previous) {
+        array[node.size - 1] = node.entry;
+      }
+      result = Collections.unmodifiableList(Arrays.asList(array));
+      entries = result;
+    }
+    return result;
+  }
+
+  /**
+   * Returns the number of entries in this history.
+   *
+   * @return The number of entries in this history.
+   */
+  public int size() {
+    return newest == null ? 0 : newest.size;
   }
 
   /**
@@ -61,7 +94,13 @@ public class ObjectHistory
    * @return A copy of this object, with the given entries.
    */
   public ObjectHistory withEntries(List<Entry> entries) {
-    return new ObjectHistory(entries);
+    requireNonNull(entries, "entries");
+
+    Node node = null;
+    for (Entry entry : entries) {
+      node = new Node(requireNonNull(entry, "entry"), node);
+    }
+    return new ObjectHistory(node);
   }
 
   /**
@@ -73,15 +112,85 @@ public class ObjectHistory
   public ObjectHistory withEntryAppended(Entry entry) {
     requireNonNull(entry, "entry");
 
-    List<Entry> newEntries = new ArrayList<>(entries.size() + 1);
-    newEntries.addAll(entries);
-    newEntries.add(entry);
-    return new ObjectHistory(newEntries);
+    return new ObjectHistory(new Node(entry, newest));
+  }
+
+  /**
+   * Returns a copy of this object, with the given number of oldest entries removed.
+   * Unlike appending, this copies the retained entries.
+   *
+   * @param count The number of entries to be removed.
+   * @return A copy of this object, with the given number of oldest entries removed.
+   */
+  public ObjectHistory withOldestEntriesRemoved(int count) {
+    checkInRange(count, 0, size(), "count");
+    if (count == 0) {
+      return this;
+    }
+
+    List<Entry> allEntries = getEntries();
+    return withEntries(allEntries.subList(count, allEntries.size()));
   }
 
   @Override
   public String toString() {
-    return "ObjectHistory{" + "entries=" + entries + '}';
+    return "ObjectHistory{" + "entries=" + getEntries() + '}';
+  }
+
+  private Object writeReplace() {
+    return new SerializationProxy(getEntries());
+  }
+
+  private void readObject(ObjectInputStream stream)
+      throws InvalidObjectException {
+    throw new InvalidObjectException("Serialization proxy required");
+  }
+
+  /**
+   * An entry linked to its predecessor.
+   */
+  private static class Node {
+
+    /**
+     * The entry.
+     */
+    private final Entry entry;
+    /**
+     * The node holding the previous entry, or {@code null}.
+     */
+    @Nullable
+    private final Node previous;
+    /**
+     * The number of entries up to and including this one.
+     */
+    private final int size;
+
+    Node(Entry entry, @Nullable Node previous) {
+      this.entry = entry;
+      this.previous = previous;
+      this.size = previous == null ? 1 : previous.size + 1;
+    }
+  }
+
+  /**
+   * The serialized form of a history.
+   * Serializing the linked nodes directly would recurse once per entry.
+   */
+  private static class SerializationProxy
+      implements Serializable {
+
+    /**
+     * The entries in chronological order.
+     */
+    private final ArrayList<Entry> entries;
+
+    SerializationProxy(List<Entry> entries) {
+      this.entries = new ArrayList<>(entries);
+    }
+
+    private Object readResolve() {
+      return new ObjectHistory().withEntries(entries);
+    }
   }
 
   /**
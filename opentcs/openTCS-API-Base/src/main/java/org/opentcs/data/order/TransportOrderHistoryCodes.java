@@ -74,4 +74,11 @@ public interface TransportOrderHistoryCodes {
    * </p>
    */
   String ORDER_DRIVE_ORDER_FINISHED = "tcsHistory:orderFinishedDriveOrder";
+  /**
+   * An event code indicating a transport order was recovered from the kernel's journal.
+   * <p>
+   * The history entry's supplement is empty.
+   * </p>
+   */
+  String ORDER_RECOVERED = "tcsHistory:orderRecovered";
 }
@@ -23,6 +23,7 @@ import org.opentcs.data.model.Triple;
 import org.opentcs.data.model.Vehicle;
 import org.opentcs.data.notification.UserNotification;
 import org.opentcs.data.order.TransportOrder;
+import org.opentcs.drivers.vehicle.telemetry.VehicleTelemetry;
 import org.opentcs.util.annotations.ScheduledApiChange;
 
 /**
@@ -49,6 +50,10 @@ public class VehicleProcessModel {
    * Used for implementing property change events.
    */
   private final PropertyChangeSupport pcs = new PropertyChangeSupport(this);
+  /**
+   * The vehicle's telemetry values.
+   */
+  private final VehicleTelemetry telemetry;
   /**
    * Whether the comm adapter is currently enabled.
    */
@@ -106,6 +111,7 @@ public class VehicleProcessModel {
   public VehicleProcessModel(@Nonnull Vehicle attachedVehicle) {
     this.vehicle = requireNonNull(attachedVehicle, "attachedVehicle");
     this.vehicleReference = vehicle.getReference();
+    this.telemetry = new VehicleTelemetry(vehicle.getName());
   }
 
   /**
@@ -271,6 +277,21 @@ public class VehicleProcessModel {
                                                   position);
   }
 
+  /**
+   * Returns the vehicle's telemetry values.
+   * <p>
+   * The precise position, orientation angle and energy level set via this model are reflected
+   * here, too. Comm adapters receiving such values at a high rate may update the telemetry
+   * directly instead, which does not emit any property change events.
+   * </p>
+   *
+   * @return The vehicle's telemetry values.
+   */
+  @Nonnull
+  public VehicleTelemetry getTelemetry() {
+    return telemetry;
+  }
+
   /**
    * Returns the vehicle's precise position.
    *
@@ -290,6 +311,7 @@ public class VehicleProcessModel {
     // Otherwise update the position, notify listeners and let the kernel know.
     Triple oldValue = this.precisePosition;
     this.precisePosition = position;
+    telemetry.updatePrecisePosition(position);
 
     getPropertyChangeSupport().firePropertyChange(Attribute.PRECISE_POSITION.name(),
                                                   oldValue,
@@ -315,6 +337,7 @@ public class VehicleProcessModel {
   public void setVehicleOrientationAngle(double angle) {
     double oldValue = this.orientationAngle;
     this.orientationAngle = angle;
+    telemetry.updateOrientationAngle(angle);
 
     getPropertyChangeSupport().firePropertyChange(Attribute.ORIENTATION_ANGLE.name(),
                                                   oldValue,
@@ -338,6 +361,7 @@ public class VehicleProcessModel {
   public void setVehicleEnergyLevel(int newLevel) {
     int oldValue = this.energyLevel;
     this.energyLevel = newLevel;
+    telemetry.updateEnergyLevel(newLevel);
 
     getPropertyChangeSupport().firePropertyChange(Attribute.ENERGY_LEVEL.name(),
                                                   oldValue,
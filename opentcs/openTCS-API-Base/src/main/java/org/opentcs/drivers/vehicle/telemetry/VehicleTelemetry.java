@@ -0,0 +1,221 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.drivers.vehicle.telemetry;
+
+import static java.util.Objects.requireNonNull;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.opentcs.data.model.Triple;
+
+/**
+ * Holds the most recent telemetry values of a single vehicle in primitive slots.
+ * <p>
+ * Updates and reads do not lock. Each update increments a version counter before and after
+ * writing the slots, so a reader can detect whether it read values from two different updates
+ * and retry. As a consequence, every sample returned by {@link #sample()} is consistent, i.e. it
+ * never mixes the x coordinate of one update with the y coordinate of another.
+ * </p>
+ * <p>
+ * Updating telemetry values does not emit any events. It is meant for values that change
+ * frequently, e.g. many times per second, and that are only of interest to clients in sampled
+ * form.
+ * </p>
+ */
+public class VehicleTelemetry {
+
+  /**
+   * Updates the version counter atomically.
+   */
+  private static final AtomicLongFieldUpdater<VehicleTelemetry> VERSION
+      = AtomicLongFieldUpdater.newUpdater(VehicleTelemetry.class, "version");
+  /**
+   * The name of the vehicle.
+   */
+  private final String vehicleName;
+  /**
+   * The version counter. Odd while an update is in progress.
+   */
+  private volatile long version;
+  /**
+   * The time (in ms) of the last update.
+   */
+  private volatile long timestamp;
+  /**
+   * Whether the vehicle's precise position is known.
+   */
+  private volatile boolean positionKnown;
+  /**
+   * The x coordinate of the vehicle's precise position (in mm).
+   */
+  private volatile long positionX;
+  /**
+   * The y coordinate of the vehicle's precise position (in mm).
+   */
+  private volatile long positionY;
+  /**
+   * The z coordinate of the vehicle's precise position (in mm).
+   */
+  private volatile long positionZ;
+  /**
+   * The vehicle's orientation angle (in degrees).
+   */
+  private volatile double orientationAngle = Double.NaN;
+  /**
+   * The vehicle's velocity (in mm/s).
+   */
+  private volatile int velocity;
+  /**
+   * The vehicle's energy level (in percent).
+   */
+  private volatile int energyLevel = 100;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param vehicleName The name of the vehicle.
+   */
+  public VehicleTelemetry(@Nonnull String vehicleName) {
+    this.vehicleName = requireNonNull(vehicleName, "vehicleName");
+  }
+
+  /**
+   * Returns the name of the vehicle.
+   *
+   * @return The name of the vehicle.
+   */
+  @Nonnull
+  public String getVehicleName() {
+    return vehicleName;
+  }
+
+  /**
+   * Returns the current version of the telemetry values.
+   * The version changes with every update, so comparing it to a previously returned version tells
+   * whether any value has been updated since.
+   *
+   * @return The current version of the telemetry values.
+   */
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * Updates the vehicle's precise position, orientation angle and velocity at once.
+   *
+   * @param x The x coordinate of the vehicle's precise position (in mm).
+   * @param y The y coordinate of the vehicle's precise position (in mm).
+   * @param z The z coordinate of the vehicle's precise position (in mm).
+   * @param orientationAngle The vehicle's orientation angle (in degrees).
+   * @param velocity The vehicle's velocity (in mm/s).
+   */
+  public void update(long x, long y, long z, double orientationAngle, int velocity) {
+    beginUpdate();
+    this.positionKnown = true;
+    this.positionX = x;
+    this.positionY = y;
+    this.positionZ = z;
+    this.orientationAngle = orientationAngle;
+    this.velocity = velocity;
+    endUpdate();
+  }
+
+  /**
+   * Updates the vehicle's precise position.
+   *
+   * @param position The vehicle's precise position, or {@code null}, if it is unknown.
+   */
+  public void updatePrecisePosition(@Nullable Triple position) {
+    beginUpdate();
+    this.positionKnown = position != null;
+    if (position != null) {
+      this.positionX = position.getX();
+      this.positionY = position.getY();
+      this.positionZ = position.getZ();
+    }
+    endUpdate();
+  }
+
+  /**
+   * Updates the vehicle's orientation angle.
+   *
+   * @param orientationAngle The vehicle's orientation angle (in degrees), or {@link Double#NaN},
+   * if it is unknown.
+   */
+  public void updateOrientationAngle(double orientationAngle) {
+    beginUpdate();
+    this.orientationAngle = orientationAngle;
+    endUpdate();
+  }
+
+  /**
+   * Updates the vehicle's velocity.
+   *
+   * @param velocity The vehicle's velocity (in mm/s).
+   */
+  public void updateVelocity(int velocity) {
+    beginUpdate();
+    this.velocity = velocity;
+    endUpdate();
+  }
+
+  /**
+   * Updates the vehicle's energy level.
+   *
+   * @param energyLevel The vehicle's energy level (in percent).
+   */
+  public void updateEnergyLevel(int energyLevel) {
+    beginUpdate();
+    this.energyLevel = energyLevel;
+    endUpdate();
+  }
+
+  /**
+   * Returns a consistent sample of the current telemetry values.
+   *
+   * @return A consistent sample of the current telemetry values.
+   */
+  @Nonnull
+  public VehicleTelemetrySample sample() {
+    while (true) {
+      long startVersion = version;
+      if ((startVersion & 1) == 0) {
+        VehicleTelemetrySample sample = new VehicleTelemetrySample(vehicleName,
+                                                                   timestamp,
+                                                                   positionKnown,
+                                                                   positionX,
+                                                                   positionY,
+                                                                   positionZ,
+                                                                   orientationAngle,
+                                                                   velocity,
+                                                                   energyLevel);
+        if (version == startVersion) {
+          return sample;
+        }
+      }
+      Thread.yield();
+    }
+  }
+
+  private void beginUpdate() {
+    while (true) {
+      long currentVersion = version;
+      if ((currentVersion & 1) == 0
+          && VERSION.compareAndSet(this, currentVersion, currentVersion + 1)) {
+        return;
+      }
+      Thread.yield();
+    }
+  }
+
+  private void endUpdate() {
+    timestamp = System.currentTimeMillis();
+    // Only the updating thread can get here while the version is odd, so this does not race.
+    version = version + 1;
+  }
+}
@@ -0,0 +1,54 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.drivers.vehicle.telemetry;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import static java.util.Objects.requireNonNull;
+import javax.annotation.Nonnull;
+
+/**
+ * Carries the telemetry samples of all vehicles whose telemetry values changed since the previous
+ * event of this kind.
+ */
+public class VehicleTelemetryEvent
+    implements Serializable {
+
+  /**
+   * The samples.
+   */
+  private final List<VehicleTelemetrySample> samples;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param samples The samples.
+   */
+  public VehicleTelemetryEvent(@Nonnull List<VehicleTelemetrySample> samples) {
+    this.samples = Collections.unmodifiableList(
+        new ArrayList<>(requireNonNull(samples, "samples"))
+    );
+  }
+
+  /**
+   * Returns the samples.
+   *
+   * @return The samples.
+   */
+  @Nonnull
+  public List<VehicleTelemetrySample> getSamples() {
+    return samples;
+  }
+
+  @Override
+  public String toString() {
+    return "VehicleTelemetryEvent{" + "samples=" + samples + '}';
+  }
+}
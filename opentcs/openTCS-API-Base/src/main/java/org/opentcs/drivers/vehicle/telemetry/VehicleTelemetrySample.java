@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.drivers.vehicle.telemetry;
+
+import java.io.Serializable;
+import static java.util.Objects.requireNonNull;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.opentcs.data.model.Triple;
+
+/**
+ * An immutable sample of a vehicle's telemetry values.
+ */
+public class VehicleTelemetrySample
+    implements Serializable {
+
+  /**
+   * The name of the vehicle.
+   */
+  private final String vehicleName;
+  /**
+   * The time (in ms) the values were last updated.
+   */
+  private final long timestamp;
+  /**
+   * Whether the vehicle's precise position is known.
+   */
+  private final boolean positionKnown;
+  /**
+   * The x coordinate of the vehicle's precise position (in mm).
+   */
+  private final long positionX;
+  /**
+   * The y coordinate of the vehicle's precise position (in mm).
+   */
+  private final long positionY;
+  /**
+   * The z coordinate of the vehicle's precise position (in mm).
+   */
+  private final long positionZ;
+  /**
+   * The vehicle's orientation angle (in degrees).
+   */
+  private final double orientationAngle;
+  /**
+   * The vehicle's velocity (in mm/s).
+   */
+  private final int velocity;
+  /**
+   * The vehicle's energy level (in percent).
+   */
+  private final int energyLevel;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param vehicleName The name of the vehicle.
+   * @param timestamp The time (in ms) the values were last updated.
+   * @param positionKnown Whether the vehicle's precise position is known.
+   * @param positionX The x coordinate of the vehicle's precise position (in mm).
+   * @param positionY The y coordinate of the vehicle's precise position (in mm).
+   * @param positionZ The z coordinate of the vehicle's precise position (in mm).
+   * @param orientationAngle The vehicle's orientation angle (in degrees).
+   * @param velocity The vehicle's velocity (in mm/s).
+   * @param energyLevel The vehicle's energy level (in percent).
+   */
+  public VehicleTelemetrySample(@Nonnull String vehicleName,
+                                long timestamp,
+                                boolean positionKnown,
+                                long positionX,
+                                long positionY,
+                                long positionZ,
+                                double orientationAngle,
+                                int velocity,
+                                int energyLevel) {
+    this.vehicleName = requireNonNull(vehicleName, "vehicleName");
+    this.timestamp = timestamp;
+    this.positionKnown = positionKnown;
+    this.positionX = positionX;
+    this.positionY = positionY;
+    this.positionZ = positionZ;
+    this.orientationAngle = orientationAngle;
+    this.velocity = velocity;
+    this.energyLevel = energyLevel;
+  }
+
+  /**
+   * Returns the name of the vehicle.
+   *
+   * @return The name of the vehicle.
+   */
+  @Nonnull
+  public String getVehicleName() {
+    return vehicleName;
+  }
+
+  /**
+   * Returns the time (in ms) the values were last updated.
+   *
+   * @return The time (in ms) the values were last updated.
+   */
+  public long getTimestamp() {
+    return timestamp;
+  }
+
+  /**
+   * Returns the vehicle's precise position.
+   *
+   * @return The vehicle's precise position, or {@code null}, if it is unknown.
+   */
+  @Nullable
+  public Triple getPrecisePosition() {
+    return positionKnown ? new Triple(positionX, positionY, positionZ) : null;
+  }
+
+  /**
+   * Returns the vehicle's orientation angle (in degrees).
+   *
+   * @return The vehicle's orientation angle, or {@link Double#NaN}, if it is unknown.
+   */
+  public double getOrientationAngle() {
+    return orientationAngle;
+  }
+
+  /**
+   * Returns the vehicle's velocity (in mm/s).
+   *
+   * @return The vehicle's velocity.
+   */
+  public int getVelocity() {
+    return velocity;
+  }
+
+  /**
+   * Returns the vehicle's energy level (in percent).
+   *
+   * @return The vehicle's energy level.
+   */
+  public int getEnergyLevel() {
+    return energyLevel;
+  }
+
+  @Override
+  public String toString() {
+    return "VehicleTelemetrySample{"
+        + "vehicleName=" + vehicleName
+        + ", timestamp=" + timestamp
+        + ", precisePosition=" + getPrecisePosition()
+        + ", orientationAngle=" + orientationAngle
+        + ", velocity=" + velocity
+        + ", energyLevel=" + energyLevel
+        + '}';
+  }
+}
@@ -0,0 +1,5 @@
+/**
+ * Classes for passing frequently changing vehicle data (telemetry) from comm adapters to clients
+ * without going through the kernel's object pool.
+ */
+package org.opentcs.drivers.vehicle.telemetry;
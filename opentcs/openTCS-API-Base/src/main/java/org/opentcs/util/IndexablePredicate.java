@@ -0,0 +1,45 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.util;
+
+import java.util.Set;
+import java.util.function.Predicate;
+import javax.annotation.Nonnull;
+
+/**
+ * A predicate that can only be true for objects having one of a known set of attribute values.
+ * <p>
+ * Implementations that keep objects indexed by such an attribute may use this information to
+ * narrow down the set of candidate objects before testing them, instead of testing every object of
+ * a given type.
+ * </p>
+ *
+ * @param <T> The type of the input to the predicate.
+ * @param <K> The type of the attribute values.
+ */
+public interface IndexablePredicate<T, K>
+    extends Predicate<T> {
+
+  /**
+   * Returns the type of the attribute values.
+   *
+   * @return The type of the attribute values.
+   */
+  @Nonnull
+  Class<K> getIndexKeyType();
+
+  /**
+   * Returns the attribute values an object must have one of for this predicate to be true.
+   * If an object's attribute value is not contained in this set, {@link #test(java.lang.Object)}
+   * must return {@code false} for it.
+   *
+   * @return The attribute values an object must have one of for this predicate to be true.
+   */
+  @Nonnull
+  Set<K> getIndexKeys();
+}
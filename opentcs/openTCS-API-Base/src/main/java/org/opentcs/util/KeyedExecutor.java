@@ -0,0 +1,79 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.util;
+
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+
+/**
+ * Executes tasks in serial lanes identified by keys, e.g. the names of vehicles.
+ * <p>
+ * Tasks submitted for the same key are executed one after another in the order they were
+ * submitted, while tasks for different keys may be executed concurrently. Tasks submitted for
+ * {@link #GLOBAL_LANE} are executed by the kernel executor itself, i.e. serially with all other
+ * tasks submitted to it directly.
+ * </p>
+ */
+public interface KeyedExecutor {
+
+  /**
+   * The key of the global lane.
+   */
+  Object GLOBAL_LANE = new Object() {
+    @Override
+    public String toString() {
+      return "global";
+    }
+  };
+
+  /**
+   * Executes the given task in the lane for the given key.
+   *
+   * @param key The key.
+   * @param task The task.
+   */
+  void execute(@Nonnull Object key, @Nonnull Runnable task);
+
+  /**
+   * Submits the given task for execution in the lane for the given key.
+   *
+   * @param key The key.
+   * @param task The task.
+   * @return A future representing the pending completion of the task.
+   */
+  @Nonnull
+  Future<?> submit(@Nonnull Object key, @Nonnull Runnable task);
+
+  /**
+   * Submits the given task for execution in the lane for the given key after the given delay.
+   * Ordering is guaranteed relative to the tasks submitted for the same key after the delay has
+   * elapsed.
+   *
+   * @param key The key.
+   * @param task The task.
+   * @param delay The delay.
+   * @param unit The delay's time unit.
+   * @return A future that can be used to cancel the task before the delay has elapsed.
+   */
+  @Nonnull
+  ScheduledFuture<?> schedule(@Nonnull Object key,
+                              @Nonnull Runnable task,
+                              long delay,
+                              @Nonnull TimeUnit unit);
+
+  /**
+   * Returns statistics for all lanes that have been used so far.
+   *
+   * @return Statistics for all lanes.
+   */
+  @Nonnull
+  List<LaneStatistics> getLaneStatistics();
+}
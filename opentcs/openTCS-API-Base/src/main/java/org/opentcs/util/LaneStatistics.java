@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.util;
+
+import static java.util.Objects.requireNonNull;
+import javax.annotation.Nonnull;
+
+/**
+ * Statistics for a single lane of a {@link KeyedExecutor}.
+ * Times are given in microseconds.
+ */
+public class LaneStatistics {
+
+  /**
+   * The lane's name.
+   */
+  private final String laneName;
+  /**
+   * The number of tasks currently waiting for execution.
+   */
+  private final int queueDepth;
+  /**
+   * The number of tasks executed.
+   */
+  private final long executedTasks;
+  /**
+   * The average time tasks waited before being executed.
+   */
+  private final long averageLatency;
+  /**
+   * The maximum time a task waited before being executed.
+   */
+  private final long maxLatency;
+  /**
+   * The average execution time of tasks.
+   */
+  private final long averageExecutionTime;
+  /**
+   * The maximum execution time of a task.
+   */
+  private final long maxExecutionTime;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param laneName The lane's name.
+   * @param queueDepth The number of tasks currently waiting for execution.
+   * @param executedTasks The number of tasks executed.
+   * @param averageLatency The average time tasks waited before being executed.
+   * @param maxLatency The maximum time a task waited before being executed.
+   * @param averageExecutionTime The average execution time of tasks.
+   * @param maxExecutionTime The maximum execution time of a task.
+   */
+  public LaneStatistics(@Nonnull String laneName,
+                        int queueDepth,
+                        long executedTasks,
+                        long averageLatency,
+                        long maxLatency,
+                        long averageExecutionTime,
+                        long maxExecutionTime) {
+    this.laneName = requireNonNull(laneName, "laneName");
+    this.queueDepth = queueDepth;
+    this.executedTasks = executedTasks;
+    this.averageLatency = averageLatency;
+    this.maxLatency = maxLatency;
+    this.averageExecutionTime = averageExecutionTime;
+    this.maxExecutionTime = maxExecutionTime;
+  }
+
+  /**
+   * Returns the lane's name.
+   *
+   * @return The lane's name.
+   */
+  @Nonnull
+  public String getLaneName() {
+    return laneName;
+  }
+
+  /**
+   * Returns the number of tasks currently waiting for execution.
+   *
+   * @return The number of tasks currently waiting for execution.
+   */
+  public int getQueueDepth() {
+    return queueDepth;
+  }
+
+  /**
+   * Returns the number of tasks executed.
+   *
+   * @return The number of tasks executed.
+   */
+  public long getExecutedTasks() {
+    return executedTasks;
+  }
+
+  /**
+   * Returns the average time (in microseconds) tasks waited before being executed.
+   *
+   * @return The average latency.
+   */
+  public long getAverageLatency() {
+    return averageLatency;
+  }
+
+  /**
+   * Returns the maximum time (in microseconds) a task waited before being executed.
+   *
+   * @return The maximum latency.
+   */
+  public long getMaxLatency() {
+    return maxLatency;
+  }
+
+  /**
+   * Returns the average execution time (in microseconds) of tasks.
+   *
+   * @return The average execution time.
+   */
+  public long getAverageExecutionTime() {
+    return averageExecutionTime;
+  }
+
+  /**
+   * Returns the maximum execution time (in microseconds) of a task.
+   *
+   * @return The maximum execution time.
+   */
+  public long getMaxExecutionTime() {
+    return maxExecutionTime;
+  }
+
+  @Override
+  public String toString() {
+    return "LaneStatistics{"
+        + "laneName=" + laneName
+        + ", queueDepth=" + queueDepth
+        + ", executedTasks=" + executedTasks
+        + ", averageLatency=" + averageLatency
+        + ", maxLatency=" + maxLatency
+        + ", averageExecutionTime=" + averageExecutionTime
+        + ", maxExecutionTime=" + maxExecutionTime
+        + '}';
+  }
+}
@@ -0,0 +1,557 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.util.event;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.opentcs.data.TCSObjectEvent;
+import static org.opentcs.util.Assertions.checkArgument;
+import static org.opentcs.util.event.TCSObjectEventCoalescing.coalescingKey;
+import static org.opentcs.util.event.TCSObjectEventCoalescing.merge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An implementation of {@link EventBus} delivering events to every handler asynchronously.
+ * <p>
+ * Every subscribed handler has its own queue of pending events, which is processed by a shared
+ * pool of delivery threads. A queue is never processed by more than one thread at a time, so every
+ * handler receives the events in the order they were published, while a slow handler neither
+ * delays the publishing thread nor the delivery to other handlers.
+ * </p>
+ * <p>
+ * The queues of handlers forwarding events to external clients (see {@link ExternalEventHandler})
+ * are bounded, and what happens when such a queue is full is defined by its
+ * {@link OverflowPolicy}. All other handlers, i.e. the kernel's own ones, get unbounded queues, so
+ * they never lose an event.
+ * </p>
+ */
+public class AsynchronousEventBus
+    implements EventBus {
+
+  /**
+   * This class's logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(AsynchronousEventBus.class);
+  /**
+   * The maximum number of events delivered to a handler before its queue is handed back to the
+   * pool.
+   */
+  private static final int MAX_EVENTS_PER_TURN = 64;
+  /**
+   * The number of dropped events after which another warning is logged.
+   */
+  private static final int DROP_WARNING_INTERVAL = 1000;
+  /**
+   * The capacity of an external handler's queue, unless specified on subscription.
+   */
+  private final int defaultCapacity;
+  /**
+   * The overflow policy for an external handler's queue, unless specified on subscription.
+   */
+  private final OverflowPolicy defaultPolicy;
+  /**
+   * A lock publishers may hold while publishing events (e.g. the kernel's global synchronization
+   * object), or {@code null}. Publishers holding it are never blocked.
+   */
+  private final Object publisherLock;
+  /**
+   * The threads delivering the events.
+   */
+  private final ExecutorService deliveryExecutor;
+  /**
+   * The subscriptions, mapped by their handlers.
+   */
+  private final Map<EventHandler, Subscription> subscriptions = new ConcurrentHashMap<>();
+
+  /**
+   * Creates a new instance.
+   *
+   * @param defaultCapacity The capacity of an external handler's queue, unless specified on
+   * subscription.
+   * @param defaultPolicy The overflow policy for an external handler's queue, unless specified on
+   * subscription.
+   * @param deliveryThreads The number of threads delivering events.
+   */
+  public AsynchronousEventBus(int defaultCapacity,
+                              @Nonnull OverflowPolicy defaultPolicy,
+                              int deliveryThreads) {
+    this(defaultCapacity, defaultPolicy, deliveryThreads, null);
+  }
+
+  /**
+   * Creates a new instance.
+   *
+   * @param defaultCapacity The capacity of an external handler's queue, unless specified on
+   * subscription.
+   * @param defaultPolicy The overflow policy for an external handler's queue, unless specified on
+   * subscription.
+   * @param deliveryThreads The number of threads delivering events.
+   * @param publisherLock A lock publishers may hold while publishing events, or {@code null}.
+   * Publishers holding it are never blocked by the {@link OverflowPolicy#BLOCK} policy, since the
+   * handlers they would wait for might wait for the lock themselves.
+   */
+  public AsynchronousEventBus(int defaultCapacity,
+                              @Nonnull OverflowPolicy defaultPolicy,
+                              int deliveryThreads,
+                              @Nullable Object publisherLock) {
+    checkArgument(defaultCapacity > 0, "defaultCapacity must be positive: %s", defaultCapacity);
+    this.defaultCapacity = defaultCapacity;
+    this.defaultPolicy = requireNonNull(defaultPolicy, "defaultPolicy");
+    this.publisherLock = publisherLock;
+    checkArgument(deliveryThreads > 0, "deliveryThreads must be positive: %s", deliveryThreads);
+
+    AtomicInteger threadCount = new AtomicInteger();
+    this.deliveryExecutor = Executors.newFixedThreadPool(deliveryThreads, runnable -> {
+      Thread thread = new Thread(runnable, "eventDelivery-" + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  @Override
+  public void onEvent(Object event) {
+    for (Subscription subscription : subscriptions.values()) {
+      subscription.enqueue(event);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * An {@link ExternalEventHandler} gets a queue with the default capacity and overflow policy,
+   * any other handler an unbounded queue.
+   * </p>
+   */
+  @Override
+  public void subscribe(EventHandler listener) {
+    if (listener instanceof ExternalEventHandler) {
+      subscribe(listener, defaultCapacity, defaultPolicy);
+    }
+    else {
+      subscribe(listener, Integer.MAX_VALUE, OverflowPolicy.BLOCK);
+    }
+  }
+
+  /**
+   * Subscribes the given handler with a queue of the given capacity and overflow policy.
+   *
+   * @param listener The handler.
+   * @param capacity The capacity of the handler's queue.
+   * @param policy The overflow policy for the handler's queue.
+   */
+  public void subscribe(@Nonnull EventHandler listener,
+                        int capacity,
+                        @Nonnull OverflowPolicy policy) {
+    requireNonNull(listener, "listener");
+    requireNonNull(policy, "policy");
+    checkArgument(capacity > 0, "capacity must be positive: %s", capacity);
+
+    subscriptions.putIfAbsent(listener, new Subscription(listener, capacity, policy));
+  }
+
+  @Override
+  public void unsubscribe(EventHandler listener) {
+    requireNonNull(listener, "listener");
+
+    Subscription subscription = subscriptions.remove(listener);
+    if (subscription != null) {
+      subscription.cancel();
+    }
+  }
+
+  /**
+   * Returns delivery statistics for all subscribed handlers.
+   *
+   * @return Delivery statistics for all subscribed handlers.
+   */
+  @Nonnull
+  public List<EventHandlerStatistics> getHandlerStatistics() {
+    List<EventHandlerStatistics> result = new ArrayList<>(subscriptions.size());
+    for (Subscription subscription : subscriptions.values()) {
+      result.add(subscription.getStatistics());
+    }
+    return result;
+  }
+
+  /**
+   * Stops the delivery threads.
+   * Events not yet delivered are discarded.
+   */
+  public void shutdown() {
+    for (Subscription subscription : subscriptions.values()) {
+      subscription.cancel();
+    }
+    deliveryExecutor.shutdownNow();
+  }
+
+  /**
+   * An event waiting for delivery.
+   */
+  private static class PendingEvent {
+
+    /**
+     * The event.
+     */
+    private final Object event;
+    /**
+     * The time (from {@link System#nanoTime()}) the event was enqueued.
+     */
+    private final long enqueueTime;
+
+    PendingEvent(Object event) {
+      this(event, System.nanoTime());
+    }
+
+    PendingEvent(Object event, long enqueueTime) {
+      this.event = event;
+      this.enqueueTime = enqueueTime;
+    }
+  }
+
+  /**
+   * A handler's subscription, including its queue of pending events.
+   */
+  private class Subscription
+      implements Runnable {
+
+    /**
+     * The handler.
+     */
+    private final EventHandler handler;
+    /**
+     * The capacity of the queue.
+     */
+    private final int capacity;
+    /**
+     * The overflow policy.
+     */
+    private final OverflowPolicy policy;
+    /**
+     * Guards the queue and the scheduling state.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+    /**
+     * Signalled when an event has been taken from the queue.
+     */
+    private final Condition notFull = lock.newCondition();
+    /**
+     * The pending events, in the order they are to be delivered.
+     * (A linked set, so that a coalesced event can be moved to the end in constant time.)
+     */
+    private final LinkedHashSet<PendingEvent> queue = new LinkedHashSet<>();
+    /**
+     * The last pending event for every object, if the policy is to coalesce events.
+     */
+    private final Map<String, PendingEvent> pendingByObject = new HashMap<>();
+    /**
+     * Whether the queue is currently handed to a delivery thread.
+     */
+    private boolean scheduled;
+    /**
+     * Whether the handler has been unsubscribed.
+     */
+    private boolean cancelled;
+    /**
+     * The thread currently delivering events to the handler, if any.
+     */
+    private volatile Thread deliveringThread;
+    /**
+     * The number of events delivered.
+     */
+    private final LongAdder deliveredEvents = new LongAdder();
+    /**
+     * The number of events discarded.
+     */
+    private final LongAdder droppedEvents = new LongAdder();
+    /**
+     * The number of events coalesced.
+     */
+    private final LongAdder coalescedEvents = new LongAdder();
+    /**
+     * The sum of the latencies of all delivered events (in ns).
+     */
+    private final LongAdder totalLatency = new LongAdder();
+    /**
+     * The maximum latency of a delivered event (in ns).
+     */
+    private final AtomicLong maxLatency = new AtomicLong();
+    /**
+     * The sum of the handling times of all delivered events (in ns).
+     */
+    private final LongAdder totalHandlingTime = new LongAdder();
+    /**
+     * The maximum handling time of a delivered event (in ns).
+     */
+    private final AtomicLong maxHandlingTime = new AtomicLong();
+
+    Subscription(EventHandler handler, int capacity, OverflowPolicy policy) {
+      this.handler = handler;
+      this.capacity = capacity;
+      this.policy = policy;
+    }
+
+    void enqueue(Object event) {
+      boolean handOver = false;
+      lock.lock();
+      try {
+        if (cancelled) {
+          return;
+        }
+        PendingEvent pendingEvent = queue.size() >= capacity
+            ? makeRoom(event)
+            : new PendingEvent(event);
+        if (pendingEvent == null) {
+          return;
+        }
+        queue.add(pendingEvent);
+        if (policy == OverflowPolicy.COALESCE_BY_OBJECT) {
+          String key = coalescingKey(pendingEvent.event);
+          if (key != null) {
+            pendingByObject.put(key, pendingEvent);
+          }
+        }
+        if (!scheduled) {
+          scheduled = true;
+          handOver = true;
+        }
+      }
+      finally {
+        lock.unlock();
+      }
+      if (handOver) {
+        deliveryExecutor.execute(this);
+      }
+    }
+
+    void cancel() {
+      lock.lock();
+      try {
+        cancelled = true;
+        queue.clear();
+        pendingByObject.clear();
+        notFull.signalAll();
+      }
+      finally {
+        lock.unlock();
+      }
+    }
+
+    /**
+     * Makes room for the given event in the full queue according to the overflow policy.
+     * Must be called while holding the lock. (Waiting for room releases it.)
+     *
+     * @param event The event.
+     * @return The pending event to be appended to the queue - the given event or, if it was merged
+     * with a pending one, the merged event - or {@code null}, if the handler has been unsubscribed.
+     */
+    private PendingEvent makeRoom(Object event) {
+      switch (policy) {
+        case BLOCK:
+          // The thread delivering to this handler must not wait for itself, and a publisher holding
+          // the publisher lock must not wait for a handler that might wait for the lock. In these
+          // cases, the queue is allowed to exceed its capacity.
+          if (deliveringThread == Thread.currentThread()
+              || (publisherLock != null && Thread.holdsLock(publisherLock))) {
+            return new PendingEvent(event);
+          }
+          try {
+            while (queue.size() >= capacity && !cancelled) {
+              notFull.await();
+            }
+          }
+          catch (InterruptedException exc) {
+            Thread.currentThread().interrupt();
+            LOG.warn("Interrupted while waiting to deliver event to {}, dropping oldest event.",
+                     handler);
+            dropOldest();
+          }
+          return cancelled ? null : new PendingEvent(event);
+        case COALESCE_BY_OBJECT:
+          PendingEvent merged = coalesce(event);
+          if (merged != null) {
+            coalescedEvents.increment();
+            return merged;
+          }
+          dropOldest();
+          return new PendingEvent(event);
+        case DROP_OLDEST:
+        default:
+          dropOldest();
+          return new PendingEvent(event);
+      }
+    }
+
+    /**
+     * Merges the given event with the pending event for the same object, if possible.
+     * Only modifications can be merged into a pending creation or modification.
+     * The pending event is removed from the queue, so that the merged event is appended where the
+     * given event would have been - otherwise the handler would receive the object's newer state
+     * before events published earlier for other objects.
+     *
+     * @param event The event.
+     * @return The merged event, or {@code null}, if the event could not be merged.
+     */
+    private PendingEvent coalesce(Object event) {
+      String key = coalescingKey(event);
+      PendingEvent pendingEvent = key == null ? null : pendingByObject.get(key);
+      if (pendingEvent == null) {
+        return null;
+      }
+      TCSObjectEvent merged = merge((TCSObjectEvent) pendingEvent.event, (TCSObjectEvent) event);
+      if (merged == null) {
+        return null;
+      }
+      queue.remove(pendingEvent);
+      pendingByObject.remove(key);
+      return new PendingEvent(merged, pendingEvent.enqueueTime);
+    }
+
+    private void dropOldest() {
+      PendingEvent dropped = pollFirst();
+      if (dropped == null) {
+        return;
+      }
+      forget(dropped);
+      droppedEvents.increment();
+      if (droppedEvents.sum() % DROP_WARNING_INTERVAL == 1) {
+        LOG.warn("Queue for event handler {} is full, {} event(s) dropped so far.",
+                 handler,
+                 droppedEvents.sum());
+      }
+    }
+
+    /**
+     * Removes and returns the first pending event.
+     * Must be called while holding the lock.
+     *
+     * @return The first pending event, or {@code null}, if there is none.
+     */
+    private PendingEvent pollFirst() {
+      Iterator<PendingEvent> iterator = queue.iterator();
+      if (!iterator.hasNext()) {
+        return null;
+      }
+      PendingEvent first = iterator.next();
+      iterator.remove();
+      return first;
+    }
+
+    /**
+     * Removes the given event from the pending events by object.
+     * Must be called while holding the lock.
+     */
+    private void forget(PendingEvent pendingEvent) {
+      String key = coalescingKey(pendingEvent.event);
+      if (key != null && pendingByObject.get(key) == pendingEvent) {
+        pendingByObject.remove(key);
+      }
+    }
+
+    @Override
+    public void run() {
+      deliveringThread = Thread.currentThread();
+      try {
+        for (int i = 0; i < MAX_EVENTS_PER_TURN; i++) {
+          PendingEvent pendingEvent;
+          Object event;
+          lock.lock();
+          try {
+            pendingEvent = pollFirst();
+            if (pendingEvent == null) {
+              scheduled = false;
+              return;
+            }
+            forget(pendingEvent);
+            event = pendingEvent.event;
+            notFull.signal();
+          }
+          finally {
+            lock.unlock();
+          }
+          deliver(pendingEvent, event);
+        }
+      }
+      finally {
+        deliveringThread = null;
+      }
+
+      // Hand the queue back to the pool so that other handlers' queues are processed, too.
+      lock.lock();
+      try {
+        if (queue.isEmpty()) {
+          scheduled = false;
+          return;
+        }
+      }
+      finally {
+        lock.unlock();
+      }
+      deliveryExecutor.execute(this);
+    }
+
+    private void deliver(PendingEvent pendingEvent, Object event) {
+      long startTime = System.nanoTime();
+      try {
+        handler.onEvent(event);
+      }
+      catch (RuntimeException exc) {
+        LOG.warn("Exception thrown by event handler {}", handler, exc);
+      }
+      finally {
+        long endTime = System.nanoTime();
+        long latency = startTime - pendingEvent.enqueueTime;
+        long handlingTime = endTime - startTime;
+        deliveredEvents.increment();
+        totalLatency.add(latency);
+        maxLatency.accumulateAndGet(latency, Math::max);
+        totalHandlingTime.add(handlingTime);
+        maxHandlingTime.accumulateAndGet(handlingTime, Math::max);
+      }
+    }
+
+    EventHandlerStatistics getStatistics() {
+      int queueDepth;
+      lock.lock();
+      try {
+        queueDepth = queue.size();
+      }
+      finally {
+        lock.unlock();
+      }
+      long delivered = deliveredEvents.sum();
+      return new EventHandlerStatistics(
+          handler.getClass().getName(),
+          queueDepth,
+          delivered,
+          droppedEvents.sum(),
+          coalescedEvents.sum(),
+          delivered == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalLatency.sum() / delivered),
+          TimeUnit.NANOSECONDS.toMicros(maxLatency.get()),
+          delivered == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalHandlingTime.sum() / delivered),
+          TimeUnit.NANOSECONDS.toMicros(maxHandlingTime.get())
+      );
+    }
+  }
+}
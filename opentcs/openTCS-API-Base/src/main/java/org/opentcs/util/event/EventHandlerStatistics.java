@@ -0,0 +1,185 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.util.event;
+
+import static java.util.Objects.requireNonNull;
+import javax.annotation.Nonnull;
+
+/**
+ * Delivery statistics for a single handler subscribed to an {@link AsynchronousEventBus}.
+ * Times are given in microseconds.
+ */
+public class EventHandlerStatistics {
+
+  /**
+   * A description of the handler.
+   */
+  private final String handlerName;
+  /**
+   * The number of events currently waiting for delivery.
+   */
+  private final int queueDepth;
+  /**
+   * The number of events delivered.
+   */
+  private final long deliveredEvents;
+  /**
+   * The number of events discarded because the queue was full.
+   */
+  private final long droppedEvents;
+  /**
+   * The number of events merged into pending events for the same object.
+   */
+  private final long coalescedEvents;
+  /**
+   * The average time events waited in the queue.
+   */
+  private final long averageLatency;
+  /**
+   * The maximum time an event waited in the queue.
+   */
+  private final long maxLatency;
+  /**
+   * The average time the handler took to process an event.
+   */
+  private final long averageHandlingTime;
+  /**
+   * The maximum time the handler took to process an event.
+   */
+  private final long maxHandlingTime;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param handlerName A description of the handler.
+   * @param queueDepth The number of events currently waiting for delivery.
+   * @param deliveredEvents The number of events delivered.
+   * @param droppedEvents The number of events discarded because the queue was full.
+   * @param coalescedEvents The number of events merged into pending events for the same object.
+   * @param averageLatency The average time events waited in the queue.
+   * @param maxLatency The maximum time an event waited in the queue.
+   * @param averageHandlingTime The average time the handler took to process an event.
+   * @param maxHandlingTime The maximum time the handler took to process an event.
+   */
+  public EventHandlerStatistics(@Nonnull String handlerName,
+                                int queueDepth,
+                                long deliveredEvents,
+                                long droppedEvents,
+                                long coalescedEvents,
+                                long averageLatency,
+                                long maxLatency,
+                                long averageHandlingTime,
+                                long maxHandlingTime) {
+    this.handlerName = requireNonNull(handlerName, "handlerName");
+    this.queueDepth = queueDepth;
+    this.deliveredEvents = deliveredEvents;
+    this.droppedEvents = droppedEvents;
+    this.coalescedEvents = coalescedEvents;
+    this.averageLatency = averageLatency;
+    this.maxLatency = maxLatency;
+    this.averageHandlingTime = averageHandlingTime;
+    this.maxHandlingTime = maxHandlingTime;
+  }
+
+  /**
+   * Returns a description of the handler.
+   *
+   * @return A description of the handler.
+   */
+  @Nonnull
+  public String getHandlerName() {
+    return handlerName;
+  }
+
+  /**
+   * Returns the number of events currently waiting for delivery.
+   *
+   * @return The number of events currently waiting for delivery.
+   */
+  public int getQueueDepth() {
+    return queueDepth;
+  }
+
+  /**
+   * Returns the number of events delivered.
+   *
+   * @return The number of events delivered.
+   */
+  public long getDeliveredEvents() {
+    return deliveredEvents;
+  }
+
+  /**
+   * Returns the number of events discarded because the queue was full.
+   *
+   * @return The number of events discarded.
+   */
+  public long getDroppedEvents() {
+    return droppedEvents;
+  }
+
+  /**
+   * Returns the number of events merged into pending events for the same object.
+   *
+   * @return The number of events merged.
+   */
+  public long getCoalescedEvents() {
+    return coalescedEvents;
+  }
+
+  /**
+   * Returns the average time (in microseconds) events waited in the queue.
+   *
+   * @return The average latency.
+   */
+  public long getAverageLatency() {
+    return averageLatency;
+  }
+
+  /**
+   * Returns the maximum time (in microseconds) an event waited in the queue.
+   *
+   * @return The maximum latency.
+   */
+  public long getMaxLatency() {
+    return maxLatency;
+  }
+
+  /**
+   * Returns the average time (in microseconds) the handler took to process an event.
+   *
+   * @return The average handling time.
+   */
+  public long getAverageHandlingTime() {
+    return averageHandlingTime;
+  }
+
+  /**
+   * Returns the maximum time (in microseconds) the handler took to process an event.
+   *
+   * @return The maximum handling time.
+   */
+  public long getMaxHandlingTime() {
+    return maxHandlingTime;
+  }
+
+  @Override
+  public String toString() {
+    return "EventHandlerStatistics{"
+        + "handlerName=" + handlerName
+        + ", queueDepth=" + queueDepth
+        + ", deliveredEvents=" + deliveredEvents
+        + ", droppedEvents=" + droppedEvents
+        + ", coalescedEvents=" + coalescedEvents
+        + ", averageLatency=" + averageLatency
+        + ", maxLatency=" + maxLatency
+        + ", averageHandlingTime=" + averageHandlingTime
+        + ", maxHandlingTime=" + maxHandlingTime
+        + '}';
+  }
+}
@@ -0,0 +1,22 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.util.event;
+
+/**
+ * An {@link EventHandler} forwarding events to clients outside the kernel, e.g. via a network
+ * connection.
+ * <p>
+ * Unlike handlers that are part of the kernel's own control flow, such a handler can cope with
+ * events being discarded or coalesced if it cannot keep up, e.g. because its clients are able to
+ * resynchronize. An {@link AsynchronousEventBus} applies its overflow policy only to handlers
+ * implementing this interface.
+ * </p>
+ */
+public interface ExternalEventHandler
+    extends EventHandler {
+}
@@ -0,0 +1,32 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.util.event;
+
+/**
+ * Defines what an {@link AsynchronousEventBus} does with an event for a handler whose queue is
+ * full.
+ */
+public enum OverflowPolicy {
+
+  /**
+   * The publishing thread waits until there is space in the queue.
+   * A publishing thread holding the bus's publisher lock (e.g. the kernel's global synchronization
+   * object) does not wait, though; the queue exceeds its capacity instead.
+   */
+  BLOCK,
+  /**
+   * The oldest event in the queue is discarded.
+   */
+  DROP_OLDEST,
+  /**
+   * A modification event for an object is merged into the pending event for the same object, i.e.
+   * the handler only receives the object's latest state. If there is no such pending event, the
+   * oldest event in the queue is discarded.
+   */
+  COALESCE_BY_OBJECT;
+}
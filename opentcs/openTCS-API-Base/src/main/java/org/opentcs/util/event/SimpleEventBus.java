@@ -32,13 +32,14 @@ public class SimpleEventBus
 
   @Override
   public void onEvent(Object event) {
-    try {
-      for (EventHandler listener : listeners) {
+    for (EventHandler listener : listeners) {
+      // An exception thrown by one handler must not keep the event from the others.
+      try {
         listener.onEvent(event);
       }
-    }
-    catch (Exception exc) {
-      LOG.warn("Exception thrown by event handler", exc);
+      catch (Exception exc) {
+        LOG.warn("Exception thrown by event handler {}", listener, exc);
+      }
     }
   }
 
@@ -0,0 +1,68 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.util.event;
+
+import static java.util.Objects.requireNonNull;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.opentcs.data.TCSObjectEvent;
+
+/**
+ * Merges successive {@link TCSObjectEvent}s for the same object, for event consumers that are only
+ * interested in an object's latest state.
+ */
+public final class TCSObjectEventCoalescing {
+
+  /**
+   * Prevents instantiation.
+   */
+  private TCSObjectEventCoalescing() {
+  }
+
+  /**
+   * Returns the key by which the given event may be merged with others.
+   *
+   * @param event The event.
+   * @return The name of the object the event is about, or {@code null}, if the event is not a
+   * {@link TCSObjectEvent}.
+   */
+  @Nullable
+  public static String coalescingKey(@Nullable Object event) {
+    if (!(event instanceof TCSObjectEvent)) {
+      return null;
+    }
+    return ((TCSObjectEvent) event).getCurrentOrPreviousObjectState().getName();
+  }
+
+  /**
+   * Merges the given events for the same object into one.
+   * Only a modification can be merged into a preceding creation or modification. The result has
+   * the preceding event's type and previous object state and the given event's current object
+   * state.
+   *
+   * @param pending The preceding event.
+   * @param next The event following it.
+   * @return The merged event, or {@code null}, if the events cannot be merged.
+   */
+  @Nullable
+  public static TCSObjectEvent merge(@Nonnull TCSObjectEvent pending,
+                                     @Nonnull TCSObjectEvent next) {
+    requireNonNull(pending, "pending");
+    requireNonNull(next, "next");
+
+    if (next.getType() != TCSObjectEvent.Type.OBJECT_MODIFIED
+        || pending.getType() == TCSObjectEvent.Type.OBJECT_REMOVED
+        || !next.getCurrentObjectState().getName()
+            .equals(pending.getCurrentOrPreviousObjectState().getName())) {
+      return null;
+    }
+    return new TCSObjectEvent(next.getCurrentObjectState(),
+                              pending.getPreviousObjectState(),
+                              pending.getType());
+  }
+}
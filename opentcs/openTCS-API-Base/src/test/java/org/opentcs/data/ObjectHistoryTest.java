@@ -0,0 +1,121 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.data;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link ObjectHistory}.
+ */
+public class ObjectHistoryTest {
+
+  @Test
+  public void returnEntriesInChronologicalOrder() {
+    ObjectHistory history = new ObjectHistory()
+        .withEntryAppended(new ObjectHistory.Entry("event-1"))
+        .withEntryAppended(new ObjectHistory.Entry("event-2"))
+        .withEntryAppended(new ObjectHistory.Entry("event-3"));
+
+    assertThat(history.size(), is(3));
+    assertThat(eventCodes(history), contains("event-1", "event-2", "event-3"));
+  }
+
+  @Test
+  public void leaveOriginalUnchangedWhenAppending() {
+    ObjectHistory original = new ObjectHistory()
+        .withEntries(entries(0, 2));
+    assertThat(eventCodes(original), contains("event-0", "event-1"));
+
+    ObjectHistory first = original.withEntryAppended(new ObjectHistory.Entry("event-a"));
+    ObjectHistory second = original.withEntryAppended(new ObjectHistory.Entry("event-b"));
+
+    assertThat(eventCodes(original), contains("event-0", "event-1"));
+    assertThat(eventCodes(first), contains("event-0", "event-1", "event-a"));
+    assertThat(eventCodes(second), contains("event-0", "event-1", "event-b"));
+  }
+
+  @Test
+  public void removeOldestEntries() {
+    ObjectHistory history = new ObjectHistory().withEntries(entries(0, 5));
+
+    ObjectHistory shortened = history.withOldestEntriesRemoved(3);
+
+    assertThat(eventCodes(shortened), contains("event-3", "event-4"));
+    assertThat(eventCodes(shortened.withEntryAppended(new ObjectHistory.Entry("event-5"))),
+               contains("event-3", "event-4", "event-5"));
+    assertThat(history.size(), is(5));
+    assertThat(history.withOldestEntriesRemoved(0), is(sameInstance(history)));
+    assertThat(history.withOldestEntriesRemoved(5).size(), is(0));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void refuseRemovingMoreEntriesThanPresent() {
+    new ObjectHistory().withEntries(entries(0, 2)).withOldestEntriesRemoved(3);
+  }
+
+  @Test
+  public void restoreEntriesFromSerializedForm()
+      throws IOException, ClassNotFoundException {
+    // Long enough to overflow the stack if the linked entries were serialized recursively.
+    ObjectHistory history = new ObjectHistory().withEntries(entries(0, 100000));
+
+    ObjectHistory restored = serializeAndDeserialize(history);
+
+    assertThat(restored.size(), is(100000));
+    assertThat(eventCodes(restored), is(eventCodes(history)));
+    assertThat(restored.withEntryAppended(new ObjectHistory.Entry("event-last")).size(),
+               is(100001));
+  }
+
+  @Test
+  public void restoreEmptyHistoryFromSerializedForm()
+      throws IOException, ClassNotFoundException {
+    ObjectHistory restored = serializeAndDeserialize(new ObjectHistory());
+
+    assertThat(restored.size(), is(0));
+    assertThat(restored.getEntries().isEmpty(), is(true));
+  }
+
+  private static List<ObjectHistory.Entry> entries(int from, int to) {
+    List<ObjectHistory.Entry> result = new ArrayList<>();
+    for (int i = from; i < to; i++) {
+      result.add(new ObjectHistory.Entry("event-" + i, i));
+    }
+    return result;
+  }
+
+  private static List<String> eventCodes(ObjectHistory history) {
+    return history.getEntries().stream()
+        .map(ObjectHistory.Entry::getEventCode)
+        .collect(Collectors.toList());
+  }
+
+  private static ObjectHistory serializeAndDeserialize(ObjectHistory history)
+      throws IOException, ClassNotFoundException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(history);
+    }
+    try (ObjectInputStream in
+        = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      return (ObjectHistory) in.readObject();
+    }
+  }
+}
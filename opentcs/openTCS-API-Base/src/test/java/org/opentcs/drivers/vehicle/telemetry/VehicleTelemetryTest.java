@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.drivers.vehicle.telemetry;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link VehicleTelemetry}.
+ */
+public class VehicleTelemetryTest {
+
+  private final VehicleTelemetry telemetry = new VehicleTelemetry("Vehicle-1");
+
+  @Test
+  public void changeVersionWithEveryUpdate() {
+    long initialVersion = telemetry.getVersion();
+
+    telemetry.updateVelocity(100);
+    long versionAfterFirstUpdate = telemetry.getVersion();
+    telemetry.updateEnergyLevel(50);
+
+    assertThat(versionAfterFirstUpdate != initialVersion, is(true));
+    assertThat(telemetry.getVersion() != versionAfterFirstUpdate, is(true));
+    assertThat(telemetry.sample().getVelocity(), is(100));
+    assertThat(telemetry.sample().getEnergyLevel(), is(50));
+  }
+
+  @Test
+  public void sampleUnknownPosition() {
+    telemetry.update(1, 2, 3, 90.0, 100);
+    telemetry.updatePrecisePosition(null);
+
+    VehicleTelemetrySample sample = telemetry.sample();
+
+    assertThat(sample.getPrecisePosition() == null, is(true));
+    assertThat(sample.getOrientationAngle(), is(90.0));
+  }
+
+  @Test(timeout = 30000)
+  public void neverSampleValuesOfDifferentUpdates()
+      throws Exception {
+    AtomicBoolean running = new AtomicBoolean(true);
+    // Every update writes the same value to all slots.
+    Thread writer = new Thread(() -> {
+      for (int i = 1; running.get(); i++) {
+        telemetry.update(i, i, i, i, i);
+      }
+    });
+    writer.start();
+
+    try {
+      long samples = 0;
+      long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(500);
+      while (System.nanoTime() < end || samples < 1000) {
+        VehicleTelemetrySample sample = telemetry.sample();
+        if (sample.getPrecisePosition() != null) {
+          long value = sample.getPrecisePosition().getX();
+          assertThat(sample.getPrecisePosition().getY(), is(value));
+          assertThat(sample.getPrecisePosition().getZ(), is(value));
+          assertThat(sample.getOrientationAngle(), is((double) value));
+          assertThat(sample.getVelocity(), is((int) value));
+        }
+        samples++;
+      }
+    }
+    finally {
+      running.set(false);
+      writer.join();
+    }
+  }
+}
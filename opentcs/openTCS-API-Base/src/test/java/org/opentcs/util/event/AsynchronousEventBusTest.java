@@ -0,0 +1,245 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.util.event;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opentcs.data.TCSObjectEvent;
+import org.opentcs.data.model.Vehicle;
+
+/**
+ * Unit tests for {@link AsynchronousEventBus}.
+ */
+public class AsynchronousEventBusTest {
+
+  private static final int EVENT_COUNT = 100;
+
+  private final Object publisherLock = new Object();
+
+  private final CountDownLatch handlerRelease = new CountDownLatch(1);
+
+  private final CountDownLatch handlerStarted = new CountDownLatch(1);
+
+  private AsynchronousEventBus eventBus;
+
+  @Before
+  public void setUp() {
+    eventBus = new AsynchronousEventBus(2, OverflowPolicy.DROP_OLDEST, 2, publisherLock);
+  }
+
+  @After
+  public void tearDown() {
+    handlerRelease.countDown();
+    eventBus.shutdown();
+  }
+
+  @Test
+  public void deliverAllEventsToInternalHandlers()
+      throws Exception {
+    RecordingHandler handler = new RecordingHandler(EVENT_COUNT);
+    eventBus.subscribe(handler);
+
+    publishEvents();
+    handlerRelease.countDown();
+
+    assertThat(handler.allReceived.await(10, TimeUnit.SECONDS), is(true));
+    assertThat(handler.events.size(), is(EVENT_COUNT));
+  }
+
+  @Test
+  public void dropEventsForExternalHandlers() {
+    eventBus.subscribe(new ExternalRecordingHandler(EVENT_COUNT));
+
+    publishEvents();
+
+    // At most one event is being delivered and two are queued, all others have been dropped.
+    assertThat(eventBus.getHandlerStatistics().get(0).getDroppedEvents() >= EVENT_COUNT - 3,
+               is(true));
+  }
+
+  @Test
+  public void neverBlockPublisherHoldingPublisherLock()
+      throws Exception {
+    RecordingHandler handler = new ExternalRecordingHandler(EVENT_COUNT);
+    eventBus.subscribe(handler, 2, OverflowPolicy.BLOCK);
+
+    // With the handler blocked, this would not return if the publisher waited for room.
+    synchronized (publisherLock) {
+      publishEvents();
+    }
+    handlerRelease.countDown();
+
+    assertThat(handler.allReceived.await(10, TimeUnit.SECONDS), is(true));
+    assertThat(handler.events.size(), is(EVENT_COUNT));
+  }
+
+  @Test
+  public void appendCoalescedEventAtTheEndOfTheQueue()
+      throws Exception {
+    RecordingHandler handler = new ExternalRecordingHandler(3);
+    eventBus.subscribe(handler, 2, OverflowPolicy.COALESCE_BY_OBJECT);
+    Vehicle vehicleA = new Vehicle("A");
+    Vehicle vehicleB = new Vehicle("B");
+
+    eventBus.onEvent(modified(vehicleA, 1));
+    assertThat(handlerStarted.await(10, TimeUnit.SECONDS), is(true));
+    eventBus.onEvent(modified(vehicleA, 2));
+    eventBus.onEvent(modified(vehicleB, 10));
+    // The queue is full - A's modification is merged with the pending one and moved behind B's.
+    eventBus.onEvent(modified(vehicleA, 3));
+    handlerRelease.countDown();
+
+    assertThat(handler.allReceived.await(10, TimeUnit.SECONDS), is(true));
+    assertThat(describe(handler.events), contains("A:1", "B:10", "A:3"));
+    TCSObjectEvent merged = (TCSObjectEvent) handler.events.get(2);
+    assertThat(merged.getType(), is(TCSObjectEvent.Type.OBJECT_MODIFIED));
+    assertThat(merged.getPreviousObjectState(), is(vehicleA));
+    EventHandlerStatistics statistics = eventBus.getHandlerStatistics().get(0);
+    assertThat(statistics.getCoalescedEvents(), is(1L));
+    assertThat(statistics.getDroppedEvents(), is(0L));
+  }
+
+  @Test
+  public void deliverCoalescedEventsInPublicationOrderToEveryHandler()
+      throws Exception {
+    List<Vehicle> vehicles = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      vehicles.add(new Vehicle("Vehicle-" + i));
+    }
+    RecordingHandler coalescingHandler = new ExternalRecordingHandler(0);
+    RecordingHandler internalHandler = new RecordingHandler(EVENT_COUNT);
+    eventBus.subscribe(coalescingHandler, 4, OverflowPolicy.COALESCE_BY_OBJECT);
+    eventBus.subscribe(internalHandler);
+
+    // Every event's energy level is its publication index.
+    Map<String, Integer> publishedEnergyLevels = new HashMap<>();
+    for (int i = 0; i < EVENT_COUNT; i++) {
+      Vehicle vehicle = vehicles.get(i % vehicles.size());
+      eventBus.onEvent(modified(vehicle, i));
+      publishedEnergyLevels.put(vehicle.getName(), i);
+    }
+    handlerRelease.countDown();
+
+    assertThat(internalHandler.allReceived.await(10, TimeUnit.SECONDS), is(true));
+    assertPublicationOrder(internalHandler.events);
+    awaitQueueDrained(coalescingHandler);
+    assertPublicationOrder(coalescingHandler.events);
+    assertThat(eventBus.getHandlerStatistics().stream()
+        .mapToLong(EventHandlerStatistics::getCoalescedEvents)
+        .sum() > 0,
+               is(true));
+    // Each vehicle's latest state has been delivered.
+    Map<String, Integer> latestEnergyLevels = new HashMap<>();
+    for (Object event : coalescingHandler.events) {
+      Vehicle vehicle = (Vehicle) ((TCSObjectEvent) event).getCurrentObjectState();
+      latestEnergyLevels.put(vehicle.getName(), vehicle.getEnergyLevel());
+    }
+    assertThat(latestEnergyLevels, is(publishedEnergyLevels));
+  }
+
+  private void awaitQueueDrained(RecordingHandler handler)
+      throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 10000;
+    while (System.currentTimeMillis() < deadline) {
+      EventHandlerStatistics statistics = eventBus.getHandlerStatistics().stream()
+          .filter(stats -> stats.getHandlerName().equals(handler.getClass().getName()))
+          .findFirst()
+          .get();
+      if (statistics.getQueueDepth() == 0
+          && statistics.getDeliveredEvents() == handler.events.size()) {
+        return;
+      }
+      Thread.sleep(10);
+    }
+  }
+
+  /**
+   * Asserts that the current object states' energy levels, i.e. the indices of the latest
+   * publications they represent, are strictly increasing.
+   */
+  private static void assertPublicationOrder(List<Object> events) {
+    int previous = -1;
+    for (Object event : events) {
+      int current = ((Vehicle) ((TCSObjectEvent) event).getCurrentObjectState()).getEnergyLevel();
+      assertThat("Event " + current + " delivered after " + previous, current > previous, is(true));
+      previous = current;
+    }
+  }
+
+  private static List<String> describe(List<Object> events) {
+    List<String> result = new ArrayList<>();
+    for (Object event : events) {
+      Vehicle vehicle = (Vehicle) ((TCSObjectEvent) event).getCurrentObjectState();
+      result.add(vehicle.getName() + ":" + vehicle.getEnergyLevel());
+    }
+    return result;
+  }
+
+  private static TCSObjectEvent modified(Vehicle vehicle, int energyLevel) {
+    return new TCSObjectEvent(vehicle.withEnergyLevel(energyLevel),
+                              vehicle,
+                              TCSObjectEvent.Type.OBJECT_MODIFIED);
+  }
+
+  private void publishEvents() {
+    for (int i = 0; i < EVENT_COUNT; i++) {
+      eventBus.onEvent(i);
+    }
+  }
+
+  /**
+   * Records the events it receives, blocking on the first one until released.
+   */
+  private class RecordingHandler
+      implements EventHandler {
+
+    private final List<Object> events = Collections.synchronizedList(new ArrayList<>());
+
+    private final CountDownLatch allReceived;
+
+    RecordingHandler(int expectedEvents) {
+      this.allReceived = new CountDownLatch(expectedEvents);
+    }
+
+    @Override
+    public void onEvent(Object event) {
+      handlerStarted.countDown();
+      try {
+        handlerRelease.await();
+      }
+      catch (InterruptedException exc) {
+        Thread.currentThread().interrupt();
+      }
+      events.add(event);
+      allReceived.countDown();
+    }
+  }
+
+  /**
+   * A recording handler for external clients.
+   */
+  private class ExternalRecordingHandler
+      extends RecordingHandler
+      implements ExternalEventHandler {
+
+    ExternalRecordingHandler(int expectedEvents) {
+      super(expectedEvents);
+    }
+  }
+}
@@ -15,7 +15,6 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 import static java.util.Objects.requireNonNull;
-import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import javax.inject.Inject;
 import org.opentcs.common.LoopbackAdapterConstants;
@@ -34,6 +33,7 @@ import org.opentcs.drivers.vehicle.management.VehicleProcessModelTO;
 import org.opentcs.drivers.vehicle.messages.SetSpeedMultiplier;
 import org.opentcs.util.CyclicTask;
 import org.opentcs.util.ExplainedBoolean;
+import org.opentcs.util.KeyedExecutor;
 import org.opentcs.virtualvehicle.VelocityController.WayEntry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -79,9 +79,9 @@ public class LoopbackCommunicationAdapter
    */
   private final LoopbackAdapterComponentsFactory componentsFactory;
   /**
-   * The kernel's executor.
+   * The kernel's executor, executing tasks for this adapter's vehicle in the vehicle's lane.
    */
-  private final ExecutorService kernelExecutor;
+  private final KeyedExecutor kernelExecutor;
   /**
    * The task simulating the virtual vehicle's behaviour.
    */
@@ -115,7 +115,7 @@ public class LoopbackCommunicationAdapter
   public LoopbackCommunicationAdapter(LoopbackAdapterComponentsFactory componentsFactory,
                                       VirtualVehicleConfiguration configuration,
                                       @Assisted Vehicle vehicle,
-                                      @KernelExecutor ExecutorService kernelExecutor) {
+                                      @KernelExecutor KeyedExecutor kernelExecutor) {
     super(new LoopbackVehicleModel(vehicle),
           configuration.commandQueueCapacity(),
           1,
@@ -239,7 +239,7 @@ public class LoopbackCommunicationAdapter
 
   @Override
   public synchronized void initVehiclePosition(String newPos) {
-    kernelExecutor.submit(() -> {
+    kernelExecutor.submit(vehicle.getName(), () -> {
       getProcessModel().setVehiclePosition(newPos);
     });
   }
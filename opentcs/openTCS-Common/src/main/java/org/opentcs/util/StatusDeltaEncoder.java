@@ -0,0 +1,298 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.util;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import static java.util.Objects.requireNonNull;
+import java.util.Set;
+import java.util.function.LongSupplier;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.opentcs.data.TCSObject;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.DriveOrder;
+import org.opentcs.data.order.TransportOrder;
+import static org.opentcs.util.Assertions.checkArgument;
+
+/**
+ * Determines which properties of vehicles and transport orders changed since the last status
+ * message sent for them to a client, so that only the changed properties need to be sent.
+ * <p>
+ * The encoder remembers the object states it was asked about, so an instance must be used for a
+ * single client only, and only for messages the client actually receives. A complete message (a
+ * keyframe) is requested for the first message for an object, if the last keyframe for the object
+ * is older than the keyframe interval, and if a property changed to no value at all (or, for a
+ * transport order's properties, to none), which a delta cannot express.
+ * </p>
+ * <p>
+ * Instances of this class are not thread-safe.
+ * </p>
+ */
+public class StatusDeltaEncoder {
+
+  /**
+   * The maximum time (in ms) between two keyframes for the same object.
+   */
+  private final long keyframeInterval;
+  /**
+   * Provides the current time (in ms).
+   */
+  private final LongSupplier clock;
+  /**
+   * The last object states messages were produced for, mapped by the objects' names.
+   */
+  private final Map<String, Base> bases = new HashMap<>();
+  /**
+   * The number of keyframes requested.
+   */
+  private long keyframeCount;
+  /**
+   * The number of deltas requested.
+   */
+  private long deltaCount;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param keyframeInterval The maximum time (in ms) between two keyframes for the same object.
+   */
+  public StatusDeltaEncoder(long keyframeInterval) {
+    this(keyframeInterval, System::currentTimeMillis);
+  }
+
+  /**
+   * Creates a new instance.
+   *
+   * @param keyframeInterval The maximum time (in ms) between two keyframes for the same object.
+   * @param clock Provides the current time (in ms).
+   */
+  StatusDeltaEncoder(long keyframeInterval, @Nonnull LongSupplier clock) {
+    checkArgument(keyframeInterval > 0, "keyframeInterval must be positive: %s", keyframeInterval);
+    this.keyframeInterval = keyframeInterval;
+    this.clock = requireNonNull(clock, "clock");
+  }
+
+  /**
+   * Determines the properties of the given vehicle that changed since the last message for it, and
+   * remembers the given state as the one the client received.
+   *
+   * @param vehicle The vehicle's current state.
+   * @return The changed properties, an empty set, if none of them changed and no message needs to
+   * be sent, or {@code null}, if a complete message is to be sent.
+   */
+  @Nullable
+  public Set<VehicleProperty> encode(@Nonnull Vehicle vehicle) {
+    requireNonNull(vehicle, "vehicle");
+
+    Vehicle previous = previousState(vehicle, Vehicle.class);
+    if (previous == null
+        || clearedProperty(previous.getTransportOrder(), vehicle.getTransportOrder())
+        || clearedProperty(previous.getCurrentPosition(), vehicle.getCurrentPosition())
+        || clearedProperty(previous.getPrecisePosition(), vehicle.getPrecisePosition())) {
+      keyframe(vehicle);
+      return null;
+    }
+
+    Set<VehicleProperty> changed = EnumSet.noneOf(VehicleProperty.class);
+    if (!Objects.equals(previous.getTransportOrder(), vehicle.getTransportOrder())) {
+      changed.add(VehicleProperty.TRANSPORT_ORDER);
+    }
+    if (!Objects.equals(previous.getCurrentPosition(), vehicle.getCurrentPosition())) {
+      changed.add(VehicleProperty.POSITION);
+    }
+    if (!Objects.equals(previous.getPrecisePosition(), vehicle.getPrecisePosition())) {
+      changed.add(VehicleProperty.PRECISE_POSITION);
+    }
+    if (previous.getState() != vehicle.getState()) {
+      changed.add(VehicleProperty.STATE);
+    }
+    if (previous.getProcState() != vehicle.getProcState()) {
+      changed.add(VehicleProperty.PROC_STATE);
+    }
+    return delta(vehicle, changed);
+  }
+
+  /**
+   * Determines the properties of the given transport order that changed since the last message
+   * for it, and remembers the given state as the one the client received.
+   *
+   * @param order The transport order's current state.
+   * @return The changed properties, an empty set, if none of them changed and no message needs to
+   * be sent, or {@code null}, if a complete message is to be sent.
+   */
+  @Nullable
+  public Set<OrderProperty> encode(@Nonnull TransportOrder order) {
+    requireNonNull(order, "order");
+
+    TransportOrder previous = previousState(order, TransportOrder.class);
+    if (previous == null
+        || clearedProperty(previous.getProcessingVehicle(), order.getProcessingVehicle())
+        || (!previous.getProperties().isEmpty() && order.getProperties().isEmpty())) {
+      keyframe(order);
+      return null;
+    }
+
+    Set<OrderProperty> changed = EnumSet.noneOf(OrderProperty.class);
+    if (!Objects.equals(previous.getProcessingVehicle(), order.getProcessingVehicle())) {
+      changed.add(OrderProperty.PROCESSING_VEHICLE);
+    }
+    if (previous.getState() != order.getState()) {
+      changed.add(OrderProperty.STATE);
+    }
+    if (!sameDriveOrderStates(previous.getAllDriveOrders(), order.getAllDriveOrders())) {
+      changed.add(OrderProperty.DRIVE_ORDER_STATES);
+    }
+    if (!previous.getProperties().equals(order.getProperties())) {
+      changed.add(OrderProperty.PROPERTIES);
+    }
+    return delta(order, changed);
+  }
+
+  /**
+   * Forgets the last state of the given object, e.g. because it has been removed.
+   *
+   * @param objectName The object's name.
+   */
+  public void forget(@Nonnull String objectName) {
+    bases.remove(requireNonNull(objectName, "objectName"));
+  }
+
+  /**
+   * Returns the number of keyframes requested.
+   *
+   * @return The number of keyframes requested.
+   */
+  public long getKeyframeCount() {
+    return keyframeCount;
+  }
+
+  /**
+   * Returns the number of deltas requested.
+   *
+   * @return The number of deltas requested.
+   */
+  public long getDeltaCount() {
+    return deltaCount;
+  }
+
+  /**
+   * Returns the object's state the previous message was produced for, if a delta may be produced
+   * relative to it.
+   */
+  private <T extends TCSObject<T>> T previousState(T object, Class<T> clazz) {
+    Base base = bases.get(object.getName());
+    if (base == null
+        || !clazz.isInstance(base.object)
+        || clock.getAsLong() - base.keyframeTime >= keyframeInterval) {
+      return null;
+    }
+    return clazz.cast(base.object);
+  }
+
+  private void keyframe(TCSObject<?> object) {
+    bases.put(object.getName(), new Base(object, clock.getAsLong()));
+    keyframeCount++;
+  }
+
+  private <P extends Enum<P>> Set<P> delta(TCSObject<?> object, Set<P> changed) {
+    if (!changed.isEmpty()) {
+      Base base = bases.get(object.getName());
+      bases.put(object.getName(), new Base(object, base.keyframeTime));
+      deltaCount++;
+    }
+    return changed;
+  }
+
+  private static boolean clearedProperty(Object previousValue, Object currentValue) {
+    return previousValue != null && currentValue == null;
+  }
+
+  private static boolean sameDriveOrderStates(List<DriveOrder> previous, List<DriveOrder> current) {
+    if (previous.size() != current.size()) {
+      return false;
+    }
+    for (int i = 0; i < previous.size(); i++) {
+      if (previous.get(i).getState() != current.get(i).getState()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * The vehicle properties covered by status messages.
+   */
+  public enum VehicleProperty {
+    /**
+     * The transport order the vehicle processes.
+     */
+    TRANSPORT_ORDER,
+    /**
+     * The point the vehicle occupies.
+     */
+    POSITION,
+    /**
+     * The vehicle's precise position.
+     */
+    PRECISE_POSITION,
+    /**
+     * The vehicle's state.
+     */
+    STATE,
+    /**
+     * The vehicle's processing state.
+     */
+    PROC_STATE
+  }
+
+  /**
+   * The transport order properties covered by status messages.
+   */
+  public enum OrderProperty {
+    /**
+     * The vehicle processing the transport order.
+     */
+    PROCESSING_VEHICLE,
+    /**
+     * The transport order's state.
+     */
+    STATE,
+    /**
+     * The states of the transport order's drive orders, i.e. its destinations.
+     */
+    DRIVE_ORDER_STATES,
+    /**
+     * The transport order's properties.
+     */
+    PROPERTIES
+  }
+
+  /**
+   * The state of an object the last message was produced for.
+   */
+  private static class Base {
+
+    /**
+     * The object's state.
+     */
+    private final TCSObject<?> object;
+    /**
+     * The time (in ms) the last keyframe for the object was produced.
+     */
+    private final long keyframeTime;
+
+    Base(TCSObject<?> object, long keyframeTime) {
+      this.object = object;
+      this.keyframeTime = keyframeTime;
+    }
+  }
+}
@@ -0,0 +1,48 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.util.persistence;
+
+import java.util.Map;
+import javax.annotation.Nonnull;
+import org.opentcs.data.TCSObjectReference;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.TransportOrder;
+
+/**
+ * Persists reservations of transport orders for vehicles, so they survive a restart of the kernel.
+ * <p>
+ * Modifications are durable once the respective method returns. A reservation is dropped along
+ * with the transport order it refers to.
+ * </p>
+ */
+public interface OrderReservationJournal {
+
+  /**
+   * Returns the journaled reservations.
+   *
+   * @return The journaled reservations, mapped by the reserved transport orders.
+   */
+  @Nonnull
+  Map<TCSObjectReference<TransportOrder>, TCSObjectReference<Vehicle>> getReservations();
+
+  /**
+   * Journals the reservation of a transport order for a vehicle.
+   *
+   * @param orderRef A reference to the transport order.
+   * @param vehicleRef A reference to the vehicle.
+   */
+  void reservationAdded(@Nonnull TCSObjectReference<TransportOrder> orderRef,
+                        @Nonnull TCSObjectReference<Vehicle> vehicleRef);
+
+  /**
+   * Journals the removal of a transport order's reservation.
+   *
+   * @param orderRef A reference to the transport order.
+   */
+  void reservationRemoved(@Nonnull TCSObjectReference<TransportOrder> orderRef);
+}
@@ -0,0 +1,154 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.util;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import org.junit.Before;
+import org.junit.Test;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Triple;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.DriveOrder;
+import org.opentcs.data.order.TransportOrder;
+import org.opentcs.util.StatusDeltaEncoder.OrderProperty;
+import org.opentcs.util.StatusDeltaEncoder.VehicleProperty;
+
+/**
+ * Unit tests for {@link StatusDeltaEncoder}.
+ */
+public class StatusDeltaEncoderTest {
+
+  private static final long KEYFRAME_INTERVAL = 10000;
+
+  private final AtomicLong now = new AtomicLong();
+
+  private final Point pointA = new Point("A");
+
+  private final Point pointB = new Point("B");
+
+  private StatusDeltaEncoder encoder;
+
+  private Vehicle vehicle;
+
+  @Before
+  public void setUp() {
+    encoder = new StatusDeltaEncoder(KEYFRAME_INTERVAL, now::get);
+    vehicle = new Vehicle("Vehicle")
+        .withCurrentPosition(pointA.getReference())
+        .withPrecisePosition(new Triple(0, 0, 0));
+  }
+
+  @Test
+  public void requestKeyframeForFirstMessage() {
+    assertThat(encoder.encode(vehicle), is(nullValue()));
+    assertThat(encoder.getKeyframeCount(), is(1L));
+  }
+
+  @Test
+  public void reportOnlyChangedProperties() {
+    encoder.encode(vehicle);
+
+    assertThat(encoder.encode(vehicle.withPrecisePosition(new Triple(100, 0, 0))),
+               is(EnumSet.of(VehicleProperty.PRECISE_POSITION)));
+    assertThat(encoder.getDeltaCount(), is(1L));
+  }
+
+  @Test
+  public void reportNothingIfNothingChanged() {
+    encoder.encode(vehicle);
+
+    assertThat(encoder.encode(vehicle.withEnergyLevel(50)), is(empty()));
+    assertThat(encoder.getDeltaCount(), is(0L));
+  }
+
+  @Test
+  public void compareWithLastStateEncodedNotWithLastEvent() {
+    // A client that did not receive the intermediate state (e.g. because of a filter) still gets
+    // all properties that differ from the state it knows.
+    encoder.encode(vehicle);
+    Vehicle skipped = vehicle.withProcState(Vehicle.ProcState.PROCESSING_ORDER);
+    Vehicle current = skipped.withCurrentPosition(pointB.getReference());
+
+    assertThat(encoder.encode(current),
+               is(EnumSet.of(VehicleProperty.POSITION, VehicleProperty.PROC_STATE)));
+  }
+
+  @Test
+  public void requestKeyframeIfPropertyCleared() {
+    encoder.encode(vehicle);
+
+    assertThat(encoder.encode(vehicle.withCurrentPosition(null)), is(nullValue()));
+  }
+
+  @Test
+  public void requestKeyframeAfterInterval() {
+    encoder.encode(vehicle);
+    now.addAndGet(KEYFRAME_INTERVAL - 1);
+    encoder.encode(vehicle.withPrecisePosition(new Triple(100, 0, 0)));
+    now.incrementAndGet();
+
+    assertThat(encoder.encode(vehicle.withPrecisePosition(new Triple(200, 0, 0))),
+               is(nullValue()));
+    assertThat(encoder.getKeyframeCount(), is(2L));
+  }
+
+  @Test
+  public void requestKeyframeAfterForgettingObject() {
+    encoder.encode(vehicle);
+    encoder.forget(vehicle.getName());
+
+    assertThat(encoder.encode(vehicle), is(nullValue()));
+  }
+
+  @Test
+  public void keepSeparateBaselinesPerInstance() {
+    StatusDeltaEncoder otherEncoder = new StatusDeltaEncoder(KEYFRAME_INTERVAL, now::get);
+    encoder.encode(vehicle);
+    Vehicle moved = vehicle.withPrecisePosition(new Triple(100, 0, 0));
+    encoder.encode(moved);
+
+    assertThat(otherEncoder.encode(moved), is(nullValue()));
+    assertThat(otherEncoder.encode(moved), is(empty()));
+  }
+
+  @Test
+  public void reportChangedOrderProperties() {
+    TransportOrder order = new TransportOrder(
+        "Order",
+        Collections.singletonList(new DriveOrder(new DriveOrder.Destination(
+            pointA.getReference()))))
+        .withProperty("key", "value");
+    encoder.encode(order);
+
+    assertThat(encoder.encode(order.withState(TransportOrder.State.ACTIVE)
+        .withProperty("key", "other")),
+               is(EnumSet.of(OrderProperty.STATE, OrderProperty.PROPERTIES)));
+    assertThat(encoder.encode(order.withProcessingVehicle(vehicle.getReference())),
+               is(EnumSet.of(OrderProperty.STATE,
+                             OrderProperty.PROCESSING_VEHICLE,
+                             OrderProperty.PROPERTIES)));
+  }
+
+  @Test
+  public void requestKeyframeIfOrderPropertiesCleared() {
+    TransportOrder order = new TransportOrder(
+        "Order",
+        Collections.singletonList(new DriveOrder(new DriveOrder.Destination(
+            pointA.getReference()))))
+        .withProperty("key", "value");
+    encoder.encode(order);
+
+    assertThat(encoder.encode(order.withProperties(Collections.emptyMap())), is(nullValue()));
+  }
+}
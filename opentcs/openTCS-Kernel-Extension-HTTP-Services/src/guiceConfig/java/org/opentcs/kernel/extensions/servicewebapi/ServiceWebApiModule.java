@@ -9,6 +9,7 @@ package org.opentcs.kernel.extensions.servicewebapi;
 
 import javax.inject.Singleton;
 import org.opentcs.customizations.kernel.KernelInjectionModule;
+import org.opentcs.kernel.extensions.servicewebapi.v1.status.StatusEventDispatcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -39,6 +40,10 @@ public class ServiceWebApiModule
     bind(ServiceWebApiConfiguration.class)
         .toInstance(configuration);
 
+    // The event stream and the request handler must share the events collected.
+    bind(StatusEventDispatcher.class)
+        .in(Singleton.class);
+
     extensionsBinderOperating().addBinding()
         .to(ServiceWebApi.class)
         .in(Singleton.class);
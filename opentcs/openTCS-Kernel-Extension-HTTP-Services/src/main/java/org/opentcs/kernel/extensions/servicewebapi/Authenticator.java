@@ -10,6 +10,7 @@ package org.opentcs.kernel.extensions.servicewebapi;
 import com.google.common.base.Strings;
 import java.util.Objects;
 import static java.util.Objects.requireNonNull;
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -51,7 +52,17 @@ public class Authenticator {
   public boolean isAuthenticated(Request request) {
     requireNonNull(request, "request");
 
-    String requestAccessKey = request.headers(HttpConstants.HEADER_NAME_ACCESS_KEY);
+    return isAuthenticated(request.headers(HttpConstants.HEADER_NAME_ACCESS_KEY));
+  }
+
+  /**
+   * Checks whether authentication is required and the given access key is valid.
+   *
+   * @param requestAccessKey The access key provided by the client, if any.
+   * @return <code>true</code> if, and only if, authentication is required and the given access key
+   * is valid.
+   */
+  public boolean isAuthenticated(@Nullable String requestAccessKey) {
     LOG.debug("Provided access key in header is '{}', required value is '{}'",
               requestAccessKey,
               configuration.accessKey());
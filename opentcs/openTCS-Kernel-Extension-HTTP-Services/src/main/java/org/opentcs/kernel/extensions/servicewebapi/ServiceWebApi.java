@@ -117,6 +117,9 @@ public class ServiceWebApi
       LOG.warn("Encryption disabled, connections will not be secured!");
     }
 
+    // WebSocket routes must be registered before any other route.
+    v1RequestHandler.addWebSocketRoutes(service, "/v1");
+
     service.before((request, response) -> {
       if (!authenticator.isAuthenticated(request)) {
         // Delay the response a bit to slow down brute force attacks.
@@ -55,4 +55,21 @@ public interface ServiceWebApiConfiguration {
       description = "Whether to use SSL to encrypt connections.",
       orderKey = "5")
   boolean useSsl();
+
+  @ConfigurationEntry(
+      type = "Boolean",
+      description = {
+        "Whether clients of the status event stream may request status messages that only",
+        "contain the properties that changed since the previous message they received for the",
+        "same object."},
+      orderKey = "6")
+  boolean statusMessageDeltaEncoding();
+
+  @ConfigurationEntry(
+      type = "Long",
+      description = {
+        "With delta encoding, the maximum time (in ms) after which a complete status message is",
+        "sent for an object again, so that clients that missed messages can resynchronize."},
+      orderKey = "7")
+  long statusMessageKeyframeInterval();
 }
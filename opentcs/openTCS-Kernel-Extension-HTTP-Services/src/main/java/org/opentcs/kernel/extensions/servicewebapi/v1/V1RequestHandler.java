@@ -12,6 +12,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import java.io.IOException;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import static java.util.Objects.requireNonNull;
 import javax.inject.Inject;
 import org.opentcs.data.ObjectExistsException;
@@ -22,6 +24,7 @@ import org.opentcs.kernel.extensions.servicewebapi.v1.order.OrderHandler;
 import org.opentcs.kernel.extensions.servicewebapi.v1.order.binding.Transport;
 import org.opentcs.kernel.extensions.servicewebapi.v1.status.RequestStatusHandler;
 import org.opentcs.kernel.extensions.servicewebapi.v1.status.StatusEventDispatcher;
+import org.opentcs.kernel.extensions.servicewebapi.v1.status.StatusEventStream;
 import spark.QueryParamsMap;
 import spark.Request;
 import spark.Response;
@@ -46,6 +49,10 @@ public class V1RequestHandler
    * Collects interesting events and provides them for client requests.
    */
   private final StatusEventDispatcher statusEventDispatcher;
+  /**
+   * Pushes status events to clients connected via WebSocket.
+   */
+  private final StatusEventStream statusEventStream;
   /**
    * Creates transport orders.
    */
@@ -59,9 +66,11 @@ public class V1RequestHandler
 
   @Inject
   public V1RequestHandler(StatusEventDispatcher statusEventDispatcher,
+                          StatusEventStream statusEventStream,
                           OrderHandler orderHandler,
                           RequestStatusHandler requestHandler) {
     this.statusEventDispatcher = requireNonNull(statusEventDispatcher, "statusEventDispatcher");
+    this.statusEventStream = requireNonNull(statusEventStream, "statusEventStream");
     this.orderHandler = requireNonNull(orderHandler, "orderHandler");
     this.statusInformationProvider = requireNonNull(requestHandler, "requestHandler");
   }
@@ -73,6 +82,7 @@ public class V1RequestHandler
     }
 
     statusEventDispatcher.initialize();
+    statusEventStream.initialize();
 
     initialized = true;
   }
@@ -88,11 +98,27 @@ public class V1RequestHandler
       return;
     }
 
+    statusEventStream.terminate();
     statusEventDispatcher.terminate();
 
     initialized = false;
   }
 
+  /**
+   * Registers the handler's WebSocket routes with the given service.
+   * WebSocket routes must be registered before any other route and are not affected by
+   * {@link Service#path(java.lang.String, spark.RouteGroup)}, so they need the full path.
+   *
+   * @param service The service to register the routes with.
+   * @param basePath The path prefix of this API version.
+   */
+  public void addWebSocketRoutes(Service service, String basePath) {
+    requireNonNull(service, "service");
+    requireNonNull(basePath, "basePath");
+
+    service.webSocket(basePath + "/events/stream", statusEventStream);
+  }
+
   @Override
   public void addRoutes(Service service) {
     requireNonNull(service, "service");
@@ -115,6 +141,8 @@ public class V1RequestHandler
                 this::handleGetTransportOrderByName);
     service.get("/transportOrders",
                 this::handleGetTransportOrders);
+    service.get("/archivedTransportOrders",
+                this::handleGetArchivedTransportOrders);
   }
 
   private Object handleGetEvents(Request request, Response response)
@@ -162,6 +190,22 @@ public class V1RequestHandler
     );
   }
 
+  private Object handleGetArchivedTransportOrders(Request request, Response response)
+      throws IllegalArgumentException {
+    response.type(HttpConstants.CONTENT_TYPE_APPLICATION_JSON_UTF8);
+    return toJson(
+        statusInformationProvider.getArchivedTransportOrdersState(
+            instant(request, "archivedAfter"),
+            instant(request, "archivedBefore"),
+            valueIfKeyPresent(request.queryMap(), "vehicle"),
+            valueIfKeyPresent(request.queryMap(), "state"),
+            valueIfKeyPresent(request.queryMap(), "category"),
+            offset(request),
+            limit(request)
+        )
+    );
+  }
+
   private Object handleGetTransportOrderByName(Request request, Response response) {
     response.type(HttpConstants.CONTENT_TYPE_APPLICATION_JSON_UTF8);
     return toJson(statusInformationProvider.getTransportOrderByName(request.params(":NAME")));
@@ -257,6 +301,43 @@ public class V1RequestHandler
     }
   }
 
+  private Instant instant(Request request, String key)
+      throws IllegalArgumentException {
+    String param = valueIfKeyPresent(request.queryMap(), key);
+    if (param == null) {
+      return null;
+    }
+    try {
+      return Instant.parse(param);
+    }
+    catch (DateTimeParseException exc) {
+      throw new IllegalArgumentException("Malformed " + key + ": " + param);
+    }
+  }
+
+  private int offset(Request request)
+      throws IllegalArgumentException {
+    String param = request.queryParamOrDefault("offset", "0");
+    try {
+      return Integer.parseInt(param);
+    }
+    catch (NumberFormatException exc) {
+      throw new IllegalArgumentException("Malformed offset: " + param);
+    }
+  }
+
+  private int limit(Request request)
+      throws IllegalArgumentException {
+    String param = request.queryParamOrDefault("limit", "100");
+    try {
+      // Limit the page size so a single request cannot read the whole archive.
+      return Math.min(1000, Integer.parseInt(param));
+    }
+    catch (NumberFormatException exc) {
+      throw new IllegalArgumentException("Malformed limit: " + param);
+    }
+  }
+
   private boolean immediate(Request request) {
     return Boolean.parseBoolean(request.queryParamOrDefault("immediate", "false"));
   }
@@ -7,12 +7,14 @@
  */
 package org.opentcs.kernel.extensions.servicewebapi.v1.status;
 
+import java.time.Instant;
 import java.util.List;
 import static java.util.Objects.requireNonNull;
 import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
+import org.opentcs.access.to.order.TransportOrderArchiveQuery;
 import org.opentcs.components.kernel.services.TransportOrderService;
 import org.opentcs.components.kernel.services.VehicleService;
 import org.opentcs.customizations.kernel.KernelExecutor;
@@ -83,6 +85,45 @@ public class RequestStatusHandler {
         .collect(Collectors.toList());
   }
 
+  /**
+   * Finds archived transport orders, i.e. transport orders that reached a final state, depending on
+   * the given parameters.
+   *
+   * @param archivedAfter The (inclusive) earliest time the transport orders were archived at, or
+   * {@code null}.
+   * @param archivedBefore The (exclusive) latest time the transport orders were archived at, or
+   * {@code null}.
+   * @param vehicle The name of the vehicle that processed the transport orders, or {@code null}.
+   * @param state The final state of the transport orders, or {@code null}.
+   * @param category The category of the transport orders, or {@code null}.
+   * @param offset The number of matching transport orders to be skipped.
+   * @param limit The maximum number of transport orders to be returned.
+   * @return A list of transport orders that match the filter, most recently archived first.
+   * @throws IllegalArgumentException If any of the parameters is invalid.
+   */
+  public List<TransportOrderState> getArchivedTransportOrdersState(@Nullable Instant archivedAfter,
+                                                                   @Nullable Instant archivedBefore,
+                                                                   @Nullable String vehicle,
+                                                                   @Nullable String state,
+                                                                   @Nullable String category,
+                                                                   int offset,
+                                                                   int limit)
+      throws IllegalArgumentException {
+    TransportOrderArchiveQuery query = new TransportOrderArchiveQuery()
+        .withArchivedAfter(archivedAfter)
+        .withArchivedBefore(archivedBefore)
+        .withVehicleName(vehicle)
+        .withState(state == null ? null : TransportOrder.State.valueOf(state))
+        .withCategory(category)
+        .withOffset(offset)
+        .withLimit(limit);
+
+    return orderService.fetchArchivedTransportOrders(query)
+        .stream()
+        .map(order -> TransportOrderState.fromTransportOrder(order))
+        .collect(Collectors.toList());
+  }
+
   /**
    * Finds the transport order with the given name.
    *
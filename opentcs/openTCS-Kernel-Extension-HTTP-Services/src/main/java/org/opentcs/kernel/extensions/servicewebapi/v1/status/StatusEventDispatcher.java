@@ -7,10 +7,11 @@
  */
 package org.opentcs.kernel.extensions.servicewebapi.v1.status;
 
-import java.util.Collection;
+import java.util.List;
 import static java.util.Objects.requireNonNull;
-import java.util.SortedMap;
-import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nonnull;
 import javax.inject.Inject;
 import org.opentcs.components.Lifecycle;
 import org.opentcs.customizations.ApplicationEventBus;
@@ -20,32 +21,36 @@ import org.opentcs.data.model.Vehicle;
 import org.opentcs.data.order.TransportOrder;
 import org.opentcs.kernel.extensions.servicewebapi.ServiceWebApiConfiguration;
 import org.opentcs.kernel.extensions.servicewebapi.v1.status.binding.OrderStatusMessage;
-import org.opentcs.kernel.extensions.servicewebapi.v1.status.binding.StatusMessage;
 import org.opentcs.kernel.extensions.servicewebapi.v1.status.binding.StatusMessageList;
 import org.opentcs.kernel.extensions.servicewebapi.v1.status.binding.VehicleStatusMessage;
 import static org.opentcs.util.Assertions.checkInRange;
-import org.opentcs.util.event.EventHandler;
 import org.opentcs.util.event.EventSource;
+import org.opentcs.util.event.ExternalEventHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Provides descriptions of recent events.
+ * <p>
+ * The events are kept in a {@link StatusEventRingBuffer}, so publishing an event and reading
+ * events do not block each other. Clients polling for events only wait if there are no events in
+ * the requested range, and only waiting clients are woken up when a new event arrives.
+ * </p>
+ * <p>
+ * The events always contain complete status messages. Delta encoding is done per client by the
+ * {@link StatusEventStream}, as only the stream knows which messages a client actually received.
+ * </p>
  *
  * @author Stefan Walter (Fraunhofer IML)
  */
 public class StatusEventDispatcher
     implements Lifecycle,
-               EventHandler {
+               ExternalEventHandler {
 
   /**
    * This class's logger.
    */
   private static final Logger LOG = LoggerFactory.getLogger(StatusEventDispatcher.class);
-  /**
-   * The interface configuration.
-   */
-  private final ServiceWebApiConfiguration configuration;
   /**
    * Where we register for application events.
    */
@@ -53,11 +58,19 @@ public class StatusEventDispatcher
   /**
    * The events collected.
    */
-  private final SortedMap<Long, StatusMessage> events = new TreeMap<>();
+  private final StatusEventRingBuffer events;
+  /**
+   * The monitor clients polling for events wait on.
+   */
+  private final Object pollMonitor = new Object();
   /**
-   * The number of events collected so far.
+   * The number of clients currently waiting for events.
    */
-  private long eventCount;
+  private final AtomicInteger waitingClients = new AtomicInteger();
+  /**
+   * Notified whenever an event has been published.
+   */
+  private final List<Runnable> publicationListeners = new CopyOnWriteArrayList<>();
   /**
    * Whether this instance is initialized.
    */
@@ -66,8 +79,9 @@ public class StatusEventDispatcher
   @Inject
   public StatusEventDispatcher(ServiceWebApiConfiguration configuration,
                                @ApplicationEventBus EventSource eventSource) {
-    this.configuration = requireNonNull(configuration, "configuration");
+    requireNonNull(configuration, "configuration");
     this.eventSource = requireNonNull(eventSource, "eventSource");
+    this.events = new StatusEventRingBuffer(configuration.statusEventsCapacity());
   }
 
   @Override
@@ -76,11 +90,6 @@ public class StatusEventDispatcher
       return;
     }
 
-    synchronized (events) {
-      eventCount = 0;
-      events.clear();
-    }
-
     eventSource.subscribe(this);
 
     initialized = true;
@@ -107,22 +116,26 @@ public class StatusEventDispatcher
     if (!(event instanceof TCSObjectEvent)) {
       return;
     }
-    TCSObject<?> object = ((TCSObjectEvent) event).getCurrentOrPreviousObjectState();
+    TCSObjectEvent objectEvent = (TCSObjectEvent) event;
+    TCSObject<?> object = objectEvent.getCurrentOrPreviousObjectState();
+    boolean removed = objectEvent.getType() == TCSObjectEvent.Type.OBJECT_REMOVED;
     if (object instanceof TransportOrder) {
-      synchronized (events) {
-        addOrderStatusMessage((TransportOrder) object, eventCount);
-        eventCount++;
-        cleanUpEvents();
-        events.notifyAll();
-      }
+      TransportOrder order = (TransportOrder) object;
+      events.publish(sequenceNo -> new StatusEventRingBuffer.Entry(
+          sequenceNo,
+          order,
+          OrderStatusMessage.fromTransportOrder(order, sequenceNo),
+          removed));
+      eventPublished();
     }
     else if (object instanceof Vehicle) {
-      synchronized (events) {
-        addVehicleStatusMessage((Vehicle) object, eventCount);
-        eventCount++;
-        cleanUpEvents();
-        events.notifyAll();
-      }
+      Vehicle vehicle = (Vehicle) object;
+      events.publish(sequenceNo -> new StatusEventRingBuffer.Entry(
+          sequenceNo,
+          vehicle,
+          VehicleStatusMessage.fromVehicle(vehicle, sequenceNo),
+          removed));
+      eventPublished();
     }
   }
 
@@ -142,35 +155,80 @@ public class StatusEventDispatcher
     checkInRange(timeout, 0, Long.MAX_VALUE, "timeout");
 
     StatusMessageList result = new StatusMessageList();
-    synchronized (events) {
-      Collection<StatusMessage> messages = events.subMap(minSequenceNo, maxSequenceNo).values();
-      if (messages.isEmpty()) {
+    collectEvents(minSequenceNo, maxSequenceNo, result);
+    if (result.getStatusMessages().isEmpty() && timeout > 0) {
+      synchronized (pollMonitor) {
+        waitingClients.incrementAndGet();
         try {
-          events.wait(timeout);
+          // Check again - an event might have been published before we registered as waiting.
+          if (!hasEvents(minSequenceNo, maxSequenceNo)) {
+            pollMonitor.wait(timeout);
+          }
         }
         catch (InterruptedException exc) {
           LOG.warn("Unexpectedly interrupted", exc);
         }
+        finally {
+          waitingClients.decrementAndGet();
+        }
       }
-      messages = events.subMap(minSequenceNo, maxSequenceNo).values();
-      result.getStatusMessages().addAll(messages);
+      collectEvents(minSequenceNo, maxSequenceNo, result);
     }
     return result;
   }
 
-  private void addOrderStatusMessage(TransportOrder order, long sequenceNumber) {
-    events.put(sequenceNumber, OrderStatusMessage.fromTransportOrder(order, sequenceNumber));
+  /**
+   * Registers a listener to be notified whenever an event has been published.
+   * The listener is called by the thread publishing the event and should return quickly.
+   *
+   * @param listener The listener.
+   */
+  public void addPublicationListener(@Nonnull Runnable listener) {
+    publicationListeners.add(requireNonNull(listener, "listener"));
+  }
+
+  /**
+   * Unregisters a listener.
+   *
+   * @param listener The listener.
+   */
+  public void removePublicationListener(@Nonnull Runnable listener) {
+    publicationListeners.remove(requireNonNull(listener, "listener"));
   }
 
-  private void addVehicleStatusMessage(Vehicle vehicle, long sequenceNumber) {
-    events.put(sequenceNumber, VehicleStatusMessage.fromVehicle(vehicle, sequenceNumber));
+  /**
+   * Returns the events collected.
+   *
+   * @return The events collected.
+   */
+  StatusEventRingBuffer getEvents() {
+    return events;
   }
 
-  private void cleanUpEvents() {
-    // XXX Sanitize maxEventCount
-    int maxEventCount = configuration.statusEventsCapacity();
-    while (events.size() > maxEventCount) {
-      events.remove(events.firstKey());
+  private void eventPublished() {
+    if (waitingClients.get() > 0) {
+      synchronized (pollMonitor) {
+        pollMonitor.notifyAll();
+      }
+    }
+    for (Runnable listener : publicationListeners) {
+      listener.run();
+    }
+  }
+
+  private boolean hasEvents(long minSequenceNo, long maxSequenceNo) {
+    return Math.max(minSequenceNo, events.getOldestSequenceNo())
+        < Math.min(maxSequenceNo, events.getNextSequenceNo());
+  }
+
+  private void collectEvents(long minSequenceNo, long maxSequenceNo, StatusMessageList result) {
+    long first = Math.max(minSequenceNo, events.getOldestSequenceNo());
+    long end = Math.min(maxSequenceNo, events.getNextSequenceNo());
+    for (long sequenceNo = first; sequenceNo < end; sequenceNo++) {
+      StatusEventRingBuffer.Entry entry = events.get(sequenceNo);
+      if (entry != null) {
+        result.getStatusMessages().add(entry.getMessage());
+      }
     }
   }
 }
@@ -0,0 +1,190 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.kernel.extensions.servicewebapi.v1.status;
+
+import static java.util.Objects.requireNonNull;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongFunction;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.opentcs.data.TCSObject;
+import org.opentcs.kernel.extensions.servicewebapi.v1.status.binding.StatusMessage;
+import static org.opentcs.util.Assertions.checkArgument;
+
+/**
+ * A fixed-size ring of the most recent status events, addressed by their sequence numbers.
+ * <p>
+ * Publishing claims the next sequence number with a single atomic increment and then writes the
+ * event to its slot; reading never locks. An entry carries its own sequence number, so a reader
+ * can tell whether a slot still holds the event it is looking for, has not been written yet or has
+ * already been overwritten by a newer event.
+ * </p>
+ */
+class StatusEventRingBuffer {
+
+  /**
+   * The slots.
+   */
+  private final AtomicReferenceArray<Entry> slots;
+  /**
+   * Maps a sequence number to its slot.
+   */
+  private final int mask;
+  /**
+   * The sequence number of the next event to be published.
+   */
+  private final AtomicLong nextSequenceNo = new AtomicLong();
+
+  /**
+   * Creates a new instance.
+   *
+   * @param minCapacity The minimum number of events to be kept. The actual capacity is the next
+   * power of two.
+   */
+  StatusEventRingBuffer(int minCapacity) {
+    checkArgument(minCapacity > 0 && minCapacity <= 1 << 30,
+                  "minCapacity not in [1..2^30]: %s",
+                  minCapacity);
+    int capacity = Integer.highestOneBit(minCapacity);
+    if (capacity < minCapacity) {
+      capacity <<= 1;
+    }
+    this.slots = new AtomicReferenceArray<>(capacity);
+    this.mask = capacity - 1;
+  }
+
+  /**
+   * Publishes an event.
+   *
+   * @param entryFactory Creates the entry for the event, given the sequence number claimed for it.
+   * @return The event's sequence number.
+   */
+  long publish(@Nonnull LongFunction<Entry> entryFactory) {
+    requireNonNull(entryFactory, "entryFactory");
+
+    long sequenceNo = nextSequenceNo.getAndIncrement();
+    Entry entry = entryFactory.apply(sequenceNo);
+    checkArgument(entry.sequenceNo == sequenceNo, "Entry has wrong sequence number");
+    slots.set((int) (sequenceNo & mask), entry);
+    return sequenceNo;
+  }
+
+  /**
+   * Returns the entry with the given sequence number.
+   *
+   * @param sequenceNo The sequence number.
+   * @return The entry, or {@code null}, if it has not been written yet or already been
+   * overwritten.
+   */
+  @Nullable
+  Entry get(long sequenceNo) {
+    Entry entry = slots.get((int) (sequenceNo & mask));
+    return entry != null && entry.sequenceNo == sequenceNo ? entry : null;
+  }
+
+  /**
+   * Returns the sequence number the next event will be published with.
+   *
+   * @return The sequence number the next event will be published with.
+   */
+  long getNextSequenceNo() {
+    return nextSequenceNo.get();
+  }
+
+  /**
+   * Returns the sequence number of the oldest event that may still be available.
+   *
+   * @return The sequence number of the oldest event that may still be available.
+   */
+  long getOldestSequenceNo() {
+    return Math.max(0, nextSequenceNo.get() - slots.length());
+  }
+
+  /**
+   * A published status event.
+   */
+  static class Entry {
+
+    /**
+     * The event's sequence number.
+     */
+    private final long sequenceNo;
+    /**
+     * The state of the object the event is about.
+     */
+    private final TCSObject<?> object;
+    /**
+     * The status message describing the event.
+     */
+    private final StatusMessage message;
+    /**
+     * Whether the object has been removed with this event.
+     */
+    private final boolean objectRemoved;
+    /**
+     * The message's JSON representation, once it has been created.
+     */
+    private volatile String json;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param sequenceNo The event's sequence number.
+     * @param object The state of the object the event is about.
+     * @param message The status message describing the event.
+     * @param objectRemoved Whether the object has been removed with this event.
+     */
+    Entry(long sequenceNo,
+          @Nonnull TCSObject<?> object,
+          @Nonnull StatusMessage message,
+          boolean objectRemoved) {
+      this.sequenceNo = sequenceNo;
+      this.object = requireNonNull(object, "object");
+      this.message = requireNonNull(message, "message");
+      this.objectRemoved = objectRemoved;
+    }
+
+    long getSequenceNo() {
+      return sequenceNo;
+    }
+
+    @Nonnull
+    TCSObject<?> getObject() {
+      return object;
+    }
+
+    @Nonnull
+    StatusMessage getMessage() {
+      return message;
+    }
+
+    boolean isObjectRemoved() {
+      return objectRemoved;
+    }
+
+    /**
+     * Returns the message's JSON representation, if it has been created already.
+     *
+     * @return The message's JSON representation, or {@code null}.
+     */
+    @Nullable
+    String getJson() {
+      return json;
+    }
+
+    /**
+     * Remembers the message's JSON representation, so it is created only once for all clients.
+     *
+     * @param json The message's JSON representation.
+     */
+    void setJson(@Nonnull String json) {
+      this.json = requireNonNull(json, "json");
+    }
+  }
+}
@@ -0,0 +1,512 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.kernel.extensions.servicewebapi.v1.status;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.StatusCode;
+import org.eclipse.jetty.websocket.api.UpgradeRequest;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+import org.eclipse.jetty.websocket.api.annotations.OnWebSocketClose;
+import org.eclipse.jetty.websocket.api.annotations.OnWebSocketConnect;
+import org.eclipse.jetty.websocket.api.annotations.OnWebSocketError;
+import org.eclipse.jetty.websocket.api.annotations.WebSocket;
+import org.opentcs.components.Lifecycle;
+import org.opentcs.data.TCSObject;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.TransportOrder;
+import org.opentcs.kernel.extensions.servicewebapi.Authenticator;
+import org.opentcs.kernel.extensions.servicewebapi.HttpConstants;
+import org.opentcs.kernel.extensions.servicewebapi.ServiceWebApiConfiguration;
+import org.opentcs.kernel.extensions.servicewebapi.v1.status.binding.OrderStatusDelta;
+import org.opentcs.kernel.extensions.servicewebapi.v1.status.binding.VehicleStatusDelta;
+import org.opentcs.kernel.extensions.servicewebapi.v1.status.filter.TransportOrderFilter;
+import org.opentcs.kernel.extensions.servicewebapi.v1.status.filter.VehicleFilter;
+import org.opentcs.util.StatusDeltaEncoder;
+import org.opentcs.util.StatusDeltaEncoder.OrderProperty;
+import org.opentcs.util.StatusDeltaEncoder.VehicleProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pushes status events to clients connected via WebSocket.
+ * <p>
+ * Clients may restrict the events they receive with the query parameters {@code procState}
+ * (for vehicle events) and {@code intendedVehicle} (for transport order events), which have the
+ * same meaning as for the corresponding GET requests, and may resume a stream with the query
+ * parameter {@code minSequenceNo}. Events are sent as JSON status message lists, like the ones
+ * returned for GET requests to {@code /events}. A client that falls too far behind misses events,
+ * which it can recognize by gaps in the sequence numbers.
+ * </p>
+ * <p>
+ * If delta encoding is enabled in the configuration, clients may request it with the query
+ * parameter {@code delta=true}. Such a client receives a complete status message for the first
+ * event for an object, for the object's removal and periodically as a keyframe. Otherwise, it
+ * receives status messages of type {@code VehicleDelta} or {@code TransportOrderDelta} containing
+ * only the properties that changed since the last message for the object it received, and no
+ * message at all if none of them changed. The deltas are relative to the messages sent to the
+ * client, so they are correct regardless of the client's filters and of missed events.
+ * </p>
+ * <p>
+ * All clients are served by a single thread reading the events from the
+ * {@link StatusEventDispatcher}'s ring buffer and sending them asynchronously. A client that has
+ * not yet received the last frame sent to it is skipped until it has, so slow clients neither
+ * block the thread nor delay other clients.
+ * </p>
+ */
+@WebSocket
+public class StatusEventStream
+    implements Lifecycle {
+
+  /**
+   * This class's logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(StatusEventStream.class);
+  /**
+   * The maximum number of status messages sent to a client in a single frame.
+   */
+  private static final int MAX_MESSAGES_PER_FRAME = 200;
+  /**
+   * The interval (in ms) after which an empty frame is sent to idle clients.
+   */
+  private static final long HEARTBEAT_INTERVAL = 30000;
+  /**
+   * Maps between objects and their JSON representations.
+   */
+  private final ObjectMapper objectMapper
+      = new ObjectMapper()
+          .registerModule(new JavaTimeModule())
+          .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+  /**
+   * Provides the events.
+   */
+  private final StatusEventDispatcher statusEventDispatcher;
+  /**
+   * Authenticates connecting clients.
+   */
+  private final Authenticator authenticator;
+  /**
+   * Whether clients may request delta encoding.
+   */
+  private final boolean deltaEncodingEnabled;
+  /**
+   * The maximum time (in ms) between two keyframes for the same object.
+   */
+  private final long keyframeInterval;
+  /**
+   * The connected clients, mapped by their sessions.
+   */
+  private final Map<Session, Subscriber> subscribers = new ConcurrentHashMap<>();
+  /**
+   * Whether the streamer thread has been asked to send pending events.
+   */
+  private final AtomicBoolean drainRequested = new AtomicBoolean();
+  /**
+   * Requests sending pending events when an event has been published.
+   */
+  private final Runnable publicationListener = this::requestDrain;
+  /**
+   * The thread sending events to the clients.
+   */
+  private ScheduledExecutorService streamer;
+  /**
+   * Whether this instance is initialized.
+   */
+  private volatile boolean initialized;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param statusEventDispatcher Provides the events.
+   * @param authenticator Authenticates connecting clients.
+   * @param configuration The configuration.
+   */
+  @Inject
+  public StatusEventStream(StatusEventDispatcher statusEventDispatcher,
+                           Authenticator authenticator,
+                           ServiceWebApiConfiguration configuration) {
+    this.statusEventDispatcher = requireNonNull(statusEventDispatcher, "statusEventDispatcher");
+    this.authenticator = requireNonNull(authenticator, "authenticator");
+    requireNonNull(configuration, "configuration");
+    this.deltaEncodingEnabled = configuration.statusMessageDeltaEncoding();
+    this.keyframeInterval = configuration.statusMessageKeyframeInterval();
+  }
+
+  @Override
+  public void initialize() {
+    if (isInitialized()) {
+      return;
+    }
+
+    streamer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "statusEventStreamer");
+      thread.setDaemon(true);
+      return thread;
+    });
+    streamer.scheduleWithFixedDelay(this::sendHeartbeats,
+                                    HEARTBEAT_INTERVAL,
+                                    HEARTBEAT_INTERVAL,
+                                    TimeUnit.MILLISECONDS);
+    statusEventDispatcher.addPublicationListener(publicationListener);
+
+    initialized = true;
+  }
+
+  @Override
+  public boolean isInitialized() {
+    return initialized;
+  }
+
+  @Override
+  public void terminate() {
+    if (!isInitialized()) {
+      return;
+    }
+
+    initialized = false;
+
+    statusEventDispatcher.removePublicationListener(publicationListener);
+    streamer.shutdownNow();
+    for (Session session : subscribers.keySet()) {
+      session.close(StatusCode.SHUTDOWN, "Service shutting down.");
+    }
+    subscribers.clear();
+  }
+
+  @OnWebSocketConnect
+  public void onConnect(Session session) {
+    UpgradeRequest request = session.getUpgradeRequest();
+    if (!authenticator.isAuthenticated(request.getHeader(HttpConstants.HEADER_NAME_ACCESS_KEY))) {
+      session.close(StatusCode.POLICY_VIOLATION, "Not authenticated.");
+      return;
+    }
+    if (!isInitialized()) {
+      session.close(StatusCode.TRY_AGAIN_LATER, "Service not available.");
+      return;
+    }
+
+    long nextSequenceNo;
+    String minSequenceNo = parameter(request, "minSequenceNo");
+    try {
+      nextSequenceNo = minSequenceNo == null
+          ? statusEventDispatcher.getEvents().getNextSequenceNo()
+          : Math.max(0, Long.parseLong(minSequenceNo));
+    }
+    catch (NumberFormatException exc) {
+      session.close(StatusCode.POLICY_VIOLATION, "Malformed minSequenceNo: " + minSequenceNo);
+      return;
+    }
+
+    StatusDeltaEncoder deltaEncoder = null;
+    if (Boolean.parseBoolean(parameter(request, "delta"))) {
+      if (!deltaEncodingEnabled) {
+        session.close(StatusCode.POLICY_VIOLATION, "Delta encoding not enabled.");
+        return;
+      }
+      deltaEncoder = new StatusDeltaEncoder(keyframeInterval);
+    }
+
+    LOG.debug("Client {} connected to status event stream.", session.getRemoteAddress());
+    subscribers.put(session,
+                    new Subscriber(session,
+                                   new VehicleFilter(parameter(request, "procState")),
+                                   new TransportOrderFilter(parameter(request, "intendedVehicle")),
+                                   deltaEncoder,
+                                   nextSequenceNo));
+    requestDrain();
+  }
+
+  @OnWebSocketClose
+  public void onClose(Session session, int statusCode, String reason) {
+    LOG.debug("Client {} disconnected from status event stream: {} {}",
+              session.getRemoteAddress(),
+              statusCode,
+              reason);
+    Subscriber subscriber = subscribers.remove(session);
+    if (subscriber != null && subscriber.deltaEncoder != null) {
+      LOG.debug("Status messages sent to client {}: {} complete, {} delta",
+                session.getRemoteAddress(),
+                subscriber.deltaEncoder.getKeyframeCount(),
+                subscriber.deltaEncoder.getDeltaCount());
+    }
+  }
+
+  @OnWebSocketError
+  public void onError(Session session, Throwable cause) {
+    LOG.debug("Error in status event stream for client {}", session.getRemoteAddress(), cause);
+    subscribers.remove(session);
+  }
+
+  /**
+   * Returns the number of connected clients.
+   *
+   * @return The number of connected clients.
+   */
+  public int getSubscriberCount() {
+    return subscribers.size();
+  }
+
+  /**
+   * Asks the streamer thread to send pending events, unless it has been asked already.
+   */
+  private void requestDrain() {
+    if (initialized && drainRequested.compareAndSet(false, true)) {
+      try {
+        streamer.execute(this::drain);
+      }
+      catch (RejectedExecutionException exc) {
+        LOG.debug("Streamer already terminated, not sending events.");
+      }
+    }
+  }
+
+  private void drain() {
+    drainRequested.set(false);
+    for (Subscriber subscriber : subscribers.values()) {
+      try {
+        subscriber.sendPendingEvents();
+      }
+      catch (RuntimeException exc) {
+        LOG.warn("Exception sending status events to {}",
+                 subscriber.session.getRemoteAddress(),
+                 exc);
+      }
+    }
+  }
+
+  private void sendHeartbeats() {
+    long now = System.currentTimeMillis();
+    for (Subscriber subscriber : subscribers.values()) {
+      if (now - subscriber.lastSendTime >= HEARTBEAT_INTERVAL) {
+        subscriber.send(frame(""));
+      }
+    }
+  }
+
+  /**
+   * Returns a status message list with the given status messages, in JSON.
+   *
+   * @param statusMessages The comma-separated JSON representations of the status messages.
+   * @return The status message list.
+   */
+  private String frame(CharSequence statusMessages) {
+    return "{\"timeStamp\":" + toJson(Instant.now())
+        + ",\"statusMessages\":[" + statusMessages + "]}";
+  }
+
+  private String toJson(StatusEventRingBuffer.Entry entry) {
+    String json = entry.getJson();
+    if (json == null) {
+      json = toJson(entry.getMessage());
+      entry.setJson(json);
+    }
+    return json;
+  }
+
+  private String toJson(Object object)
+      throws IllegalStateException {
+    try {
+      return objectMapper.writeValueAsString(object);
+    }
+    catch (JsonProcessingException exc) {
+      throw new IllegalStateException("Could not produce JSON output", exc);
+    }
+  }
+
+  @Nullable
+  private static String parameter(UpgradeRequest request, String key) {
+    List<String> values = request.getParameterMap().get(key);
+    return values == null || values.isEmpty() ? null : values.get(0);
+  }
+
+  /**
+   * A connected client.
+   */
+  private class Subscriber
+      implements WriteCallback {
+
+    /**
+     * The client's session.
+     */
+    private final Session session;
+    /**
+     * Selects the vehicle events sent to the client.
+     */
+    private final VehicleFilter vehicleFilter;
+    /**
+     * Selects the transport order events sent to the client.
+     */
+    private final TransportOrderFilter transportOrderFilter;
+    /**
+     * Determines the properties to be sent to the client, if it requested delta encoding.
+     * Only accessed by the streamer thread.
+     */
+    @Nullable
+    private final StatusDeltaEncoder deltaEncoder;
+    /**
+     * The sequence number of the next event to be considered for the client.
+     * Only accessed by the streamer thread.
+     */
+    private long nextSequenceNo;
+    /**
+     * Whether a frame sent to the client has not been written completely, yet.
+     */
+    private volatile boolean sending;
+    /**
+     * The time (in ms) a frame was last sent to the client.
+     */
+    private volatile long lastSendTime = System.currentTimeMillis();
+
+    Subscriber(Session session,
+               VehicleFilter vehicleFilter,
+               TransportOrderFilter transportOrderFilter,
+               @Nullable StatusDeltaEncoder deltaEncoder,
+               long nextSequenceNo) {
+      this.session = session;
+      this.vehicleFilter = vehicleFilter;
+      this.transportOrderFilter = transportOrderFilter;
+      this.deltaEncoder = deltaEncoder;
+      this.nextSequenceNo = nextSequenceNo;
+    }
+
+    /**
+     * Sends the events published since the last call that the client is interested in.
+     */
+    void sendPendingEvents() {
+      if (sending) {
+        return;
+      }
+
+      StatusEventRingBuffer events = statusEventDispatcher.getEvents();
+      long end = events.getNextSequenceNo();
+      StringBuilder statusMessages = new StringBuilder();
+      int messageCount = 0;
+      while (nextSequenceNo < end && messageCount < MAX_MESSAGES_PER_FRAME) {
+        StatusEventRingBuffer.Entry entry = events.get(nextSequenceNo);
+        if (entry == null) {
+          long oldest = events.getOldestSequenceNo();
+          if (nextSequenceNo >= oldest) {
+            // The event has not been written completely, yet.
+            break;
+          }
+          LOG.debug("Client {} missed {} status event(s).",
+                    session.getRemoteAddress(),
+                    oldest - nextSequenceNo);
+          nextSequenceNo = oldest;
+          continue;
+        }
+        nextSequenceNo++;
+        String message = accepts(entry.getObject()) ? encode(entry) : null;
+        if (message != null) {
+          if (messageCount > 0) {
+            statusMessages.append(',');
+          }
+          statusMessages.append(message);
+          messageCount++;
+        }
+      }
+
+      if (messageCount > 0) {
+        send(frame(statusMessages));
+      }
+    }
+
+    void send(String frame) {
+      if (sending || !session.isOpen()) {
+        return;
+      }
+      sending = true;
+      lastSendTime = System.currentTimeMillis();
+      session.getRemote().sendString(frame, this);
+    }
+
+    @Override
+    public void writeSuccess() {
+      sending = false;
+      // There may be events that could not be sent while this frame was being written.
+      requestDrain();
+    }
+
+    @Override
+    public void writeFailed(Throwable x) {
+      LOG.debug("Could not send status events to {}, disconnecting.",
+                session.getRemoteAddress(),
+                x);
+      subscribers.remove(session);
+      session.close(StatusCode.SERVER_ERROR, "Write failed.");
+    }
+
+    /**
+     * Returns the JSON representation of the status message to be sent to the client for the
+     * given event.
+     *
+     * @param entry The event.
+     * @return The JSON representation, or {@code null}, if no message needs to be sent.
+     */
+    @Nullable
+    private String encode(StatusEventRingBuffer.Entry entry) {
+      if (deltaEncoder == null) {
+        return toJson(entry);
+      }
+      TCSObject<?> object = entry.getObject();
+      if (entry.isObjectRemoved()) {
+        deltaEncoder.forget(object.getName());
+        return toJson(entry);
+      }
+
+      if (object instanceof Vehicle) {
+        Set<VehicleProperty> changed = deltaEncoder.encode((Vehicle) object);
+        if (changed == null) {
+          return toJson(entry);
+        }
+        return changed.isEmpty()
+            ? null
+            : toJson(VehicleStatusDelta.fromVehicle((Vehicle) object,
+                                                    changed,
+                                                    entry.getSequenceNo(),
+                                                    entry.getMessage().getCreationTimeStamp()));
+      }
+      Set<OrderProperty> changed = deltaEncoder.encode((TransportOrder) object);
+      if (changed == null) {
+        return toJson(entry);
+      }
+      return changed.isEmpty()
+          ? null
+          : toJson(OrderStatusDelta.fromTransportOrder((TransportOrder) object,
+                                                       changed,
+                                                       entry.getSequenceNo(),
+                                                       entry.getMessage().getCreationTimeStamp()));
+    }
+
+    private boolean accepts(TCSObject<?> object) {
+      if (object instanceof Vehicle) {
+        return vehicleFilter.test((Vehicle) object);
+      }
+      if (object instanceof TransportOrder) {
+        return transportOrderFilter.test((TransportOrder) object);
+      }
+      return false;
+    }
+  }
+}
@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.kernel.extensions.servicewebapi.v1.status.binding;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyDescription;
+import java.time.Instant;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.opentcs.data.order.DriveOrder;
+import org.opentcs.data.order.TransportOrder;
+import org.opentcs.util.StatusDeltaEncoder.OrderProperty;
+
+/**
+ * A status message containing only the properties of a transport order that changed since the
+ * previous message for it sent to the same client.
+ * Properties that did not change are omitted.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OrderStatusDelta
+    extends StatusMessage {
+
+  @JsonProperty(required = true)
+  @JsonPropertyDescription("The transport order name")
+  private String orderName = "";
+
+  @JsonPropertyDescription("The processing vehicle's name, if it changed")
+  private String processingVehicleName;
+
+  @JsonPropertyDescription("The transport order's current state, if it changed")
+  private OrderStatusMessage.OrderState orderState;
+
+  @JsonPropertyDescription("All of the transport order's destinations, if any of their states "
+      + "changed")
+  private List<Destination> destinations;
+
+  @JsonPropertyDescription("All of the transport order's properties, if any of them changed")
+  private List<Property> properties;
+
+  /**
+   * Creates a new instance.
+   */
+  public OrderStatusDelta() {
+  }
+
+  public String getOrderName() {
+    return orderName;
+  }
+
+  public void setOrderName(String orderName) {
+    this.orderName = orderName;
+  }
+
+  public String getProcessingVehicleName() {
+    return processingVehicleName;
+  }
+
+  public void setProcessingVehicleName(String processingVehicleName) {
+    this.processingVehicleName = processingVehicleName;
+  }
+
+  public OrderStatusMessage.OrderState getOrderState() {
+    return orderState;
+  }
+
+  public void setOrderState(OrderStatusMessage.OrderState orderState) {
+    this.orderState = orderState;
+  }
+
+  public List<Destination> getDestinations() {
+    return destinations;
+  }
+
+  public void setDestinations(List<Destination> destinations) {
+    this.destinations = destinations;
+  }
+
+  public List<Property> getProperties() {
+    return properties;
+  }
+
+  public void setProperties(List<Property> properties) {
+    this.properties = properties;
+  }
+
+  public static OrderStatusDelta fromTransportOrder(TransportOrder order,
+                                                    Set<OrderProperty> changedProperties,
+                                                    long sequenceNumber,
+                                                    Instant creationTimeStamp) {
+    OrderStatusDelta delta = new OrderStatusDelta();
+    delta.setSequenceNumber(sequenceNumber);
+    delta.setCreationTimeStamp(creationTimeStamp);
+    delta.setOrderName(order.getName());
+    // A delta never has to express a property changing to no value - a complete message is sent
+    // in that case.
+    if (changedProperties.contains(OrderProperty.PROCESSING_VEHICLE)) {
+      delta.setProcessingVehicleName(order.getProcessingVehicle().getName());
+    }
+    if (changedProperties.contains(OrderProperty.STATE)) {
+      delta.setOrderState(OrderStatusMessage.OrderState.fromTransportOrderState(order.getState()));
+    }
+    if (changedProperties.contains(OrderProperty.DRIVE_ORDER_STATES)) {
+      delta.setDestinations(new LinkedList<>());
+      for (DriveOrder curDriveOrder : order.getAllDriveOrders()) {
+        delta.getDestinations().add(Destination.fromDriveOrder(curDriveOrder));
+      }
+    }
+    if (changedProperties.contains(OrderProperty.PROPERTIES)) {
+      delta.setProperties(new LinkedList<>());
+      for (Map.Entry<String, String> mapEntry : order.getProperties().entrySet()) {
+        Property prop = new Property();
+        prop.setKey(mapEntry.getKey());
+        prop.setValue(mapEntry.getValue());
+        delta.getProperties().add(prop);
+      }
+    }
+    return delta;
+  }
+}
@@ -26,6 +26,10 @@ import java.time.Instant;
   @JsonSubTypes.Type(value = OrderStatusMessage.class, name = "TransportOrder")
   ,
   @JsonSubTypes.Type(value = VehicleStatusMessage.class, name = "Vehicle")
+  ,
+  @JsonSubTypes.Type(value = OrderStatusDelta.class, name = "TransportOrderDelta")
+  ,
+  @JsonSubTypes.Type(value = VehicleStatusDelta.class, name = "VehicleDelta")
 })
 public abstract class StatusMessage {
 
@@ -0,0 +1,132 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.kernel.extensions.servicewebapi.v1.status.binding;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyDescription;
+import java.time.Instant;
+import java.util.Set;
+import org.opentcs.data.model.Triple;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.util.StatusDeltaEncoder.VehicleProperty;
+
+/**
+ * A status message containing only the properties of a vehicle that changed since the previous
+ * message for it sent to the same client.
+ * Properties that did not change are omitted.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class VehicleStatusDelta
+    extends StatusMessage {
+
+  @JsonProperty(required = true)
+  @JsonPropertyDescription("The vehicle's name")
+  private String vehicleName = "";
+
+  @JsonPropertyDescription("The name of the transport order the vehicle currently processes, "
+      + "if it changed")
+  private String transportOrderName;
+
+  @JsonPropertyDescription("The name of the point the vehicle currently occupies, if it changed")
+  private String position;
+
+  @JsonPropertyDescription("The precise position of the vehicle, if it changed")
+  private VehicleStatusMessage.PrecisePosition precisePosition;
+
+  @JsonPropertyDescription("The vehicle's current state, if it changed")
+  private Vehicle.State state;
+
+  @JsonPropertyDescription("The vehicle's current processing state, if it changed")
+  private Vehicle.ProcState procState;
+
+  /**
+   * Creates a new instance.
+   */
+  public VehicleStatusDelta() {
+  }
+
+  public String getVehicleName() {
+    return vehicleName;
+  }
+
+  public void setVehicleName(String vehicleName) {
+    this.vehicleName = vehicleName;
+  }
+
+  public String getTransportOrderName() {
+    return transportOrderName;
+  }
+
+  public void setTransportOrderName(String transportOrderName) {
+    this.transportOrderName = transportOrderName;
+  }
+
+  public String getPosition() {
+    return position;
+  }
+
+  public void setPosition(String position) {
+    this.position = position;
+  }
+
+  public VehicleStatusMessage.PrecisePosition getPrecisePosition() {
+    return precisePosition;
+  }
+
+  public void setPrecisePosition(VehicleStatusMessage.PrecisePosition precisePosition) {
+    this.precisePosition = precisePosition;
+  }
+
+  public Vehicle.State getState() {
+    return state;
+  }
+
+  public void setState(Vehicle.State state) {
+    this.state = state;
+  }
+
+  public Vehicle.ProcState getProcState() {
+    return procState;
+  }
+
+  public void setProcState(Vehicle.ProcState procState) {
+    this.procState = procState;
+  }
+
+  public static VehicleStatusDelta fromVehicle(Vehicle vehicle,
+                                               Set<VehicleProperty> changedProperties,
+                                               long sequenceNumber,
+                                               Instant creationTimeStamp) {
+    VehicleStatusDelta delta = new VehicleStatusDelta();
+    delta.setSequenceNumber(sequenceNumber);
+    delta.setCreationTimeStamp(creationTimeStamp);
+    delta.setVehicleName(vehicle.getName());
+    // A delta never has to express a property changing to no value - a complete message is sent
+    // in that case.
+    if (changedProperties.contains(VehicleProperty.TRANSPORT_ORDER)) {
+      delta.setTransportOrderName(vehicle.getTransportOrder().getName());
+    }
+    if (changedProperties.contains(VehicleProperty.POSITION)) {
+      delta.setPosition(vehicle.getCurrentPosition().getName());
+    }
+    if (changedProperties.contains(VehicleProperty.PRECISE_POSITION)) {
+      Triple precisePos = vehicle.getPrecisePosition();
+      delta.setPrecisePosition(new VehicleStatusMessage.PrecisePosition(precisePos.getX(),
+                                                                        precisePos.getY(),
+                                                                        precisePos.getZ()));
+    }
+    if (changedProperties.contains(VehicleProperty.STATE)) {
+      delta.setState(vehicle.getState());
+    }
+    if (changedProperties.contains(VehicleProperty.PROC_STATE)) {
+      delta.setProcState(vehicle.getProcState());
+    }
+    return delta;
+  }
+}
@@ -0,0 +1,117 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.kernel.extensions.servicewebapi.v1.status;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import org.junit.Test;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.kernel.extensions.servicewebapi.v1.status.binding.VehicleStatusMessage;
+
+/**
+ * Unit tests for {@link StatusEventRingBuffer}.
+ */
+public class StatusEventRingBufferTest {
+
+  @Test
+  public void roundCapacityUpToPowerOfTwo() {
+    StatusEventRingBuffer events = new StatusEventRingBuffer(5);
+
+    for (int i = 0; i < 8; i++) {
+      publish(events, "Vehicle-" + i);
+    }
+
+    assertThat(events.getOldestSequenceNo(), is(0L));
+    assertThat(events.get(0).getObject().getName(), is("Vehicle-0"));
+  }
+
+  @Test
+  public void overwriteOldestEventsWhenWrappingAround() {
+    StatusEventRingBuffer events = new StatusEventRingBuffer(4);
+
+    for (int i = 0; i < 10; i++) {
+      assertThat(publish(events, "Vehicle-" + i), is((long) i));
+    }
+
+    assertThat(events.getNextSequenceNo(), is(10L));
+    assertThat(events.getOldestSequenceNo(), is(6L));
+    for (long sequenceNo = 0; sequenceNo < 6; sequenceNo++) {
+      assertThat(events.get(sequenceNo), is(nullValue()));
+    }
+    for (long sequenceNo = 6; sequenceNo < 10; sequenceNo++) {
+      StatusEventRingBuffer.Entry entry = events.get(sequenceNo);
+      assertThat(entry.getSequenceNo(), is(sequenceNo));
+      assertThat(entry.getObject().getName(), is("Vehicle-" + sequenceNo));
+    }
+    assertThat(events.get(10), is(nullValue()));
+  }
+
+  @Test
+  public void reportOldestSequenceNoBeforeWrappingAround() {
+    StatusEventRingBuffer events = new StatusEventRingBuffer(4);
+    assertThat(events.getOldestSequenceNo(), is(0L));
+
+    publish(events, "Vehicle-0");
+    publish(events, "Vehicle-1");
+
+    assertThat(events.getOldestSequenceNo(), is(0L));
+    assertThat(events.getNextSequenceNo(), is(2L));
+  }
+
+  @Test(timeout = 10000)
+  public void returnNoEntryForEventBeingPublished()
+      throws Exception {
+    StatusEventRingBuffer events = new StatusEventRingBuffer(4);
+    publish(events, "Vehicle-0");
+    CountDownLatch claimed = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    Thread publisher = new Thread(() -> events.publish(sequenceNo -> {
+      claimed.countDown();
+      awaitUninterruptibly(release);
+      return entry(sequenceNo, "Vehicle-1");
+    }));
+    publisher.start();
+    assertThat(claimed.await(5, TimeUnit.SECONDS), is(true));
+
+    // The sequence number has been claimed, but the slot has not been written yet.
+    assertThat(events.getNextSequenceNo(), is(2L));
+    assertThat(events.get(1), is(nullValue()));
+    assertThat(1 >= events.getOldestSequenceNo(), is(true));
+
+    release.countDown();
+    publisher.join();
+    assertThat(events.get(1).getObject().getName(), is("Vehicle-1"));
+  }
+
+  private static long publish(StatusEventRingBuffer events, String vehicleName) {
+    return events.publish(sequenceNo -> entry(sequenceNo, vehicleName));
+  }
+
+  private static StatusEventRingBuffer.Entry entry(long sequenceNo, String vehicleName) {
+    Vehicle vehicle = new Vehicle(vehicleName);
+    return new StatusEventRingBuffer.Entry(sequenceNo,
+                                           vehicle,
+                                           VehicleStatusMessage.fromVehicle(vehicle, sequenceNo),
+                                           false);
+  }
+
+  private static void awaitUninterruptibly(CountDownLatch latch) {
+    while (true) {
+      try {
+        latch.await();
+        return;
+      }
+      catch (InterruptedException exc) {
+        // Keep waiting.
+      }
+    }
+  }
+}
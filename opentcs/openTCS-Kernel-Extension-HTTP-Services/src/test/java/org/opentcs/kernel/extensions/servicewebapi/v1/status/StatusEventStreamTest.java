@@ -0,0 +1,175 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.kernel.extensions.servicewebapi.v1.status;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.jetty.websocket.api.RemoteEndpoint;
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.UpgradeRequest;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertThat;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.opentcs.data.TCSObjectEvent;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.kernel.extensions.servicewebapi.Authenticator;
+import org.opentcs.kernel.extensions.servicewebapi.ServiceWebApiConfiguration;
+import org.opentcs.util.event.EventSource;
+
+/**
+ * Unit tests for {@link StatusEventStream}.
+ */
+public class StatusEventStreamTest {
+
+  private static final long TIMEOUT = 5000;
+
+  private StatusEventDispatcher dispatcher;
+
+  private StatusEventStream stream;
+
+  @Before
+  public void setUp() {
+    ServiceWebApiConfiguration configuration = mock(ServiceWebApiConfiguration.class);
+    when(configuration.accessKey()).thenReturn("");
+    when(configuration.statusEventsCapacity()).thenReturn(16);
+    dispatcher = new StatusEventDispatcher(configuration, mock(EventSource.class));
+    stream = new StatusEventStream(dispatcher, new Authenticator(configuration), configuration);
+    stream.initialize();
+  }
+
+  @After
+  public void tearDown() {
+    stream.terminate();
+  }
+
+  @Test
+  public void sendOnlyEventsAcceptedByClientsFilter()
+      throws InterruptedException {
+    Client client = connect(Collections.singletonMap("procState", "IDLE"));
+
+    publish(new Vehicle("Vehicle-1").withProcState(Vehicle.ProcState.PROCESSING_ORDER));
+    publish(new Vehicle("Vehicle-2").withProcState(Vehicle.ProcState.IDLE));
+
+    String frame = client.nextFrame();
+    assertThat(frame, containsString("Vehicle-2"));
+    assertThat(frame, not(containsString("Vehicle-1")));
+  }
+
+  @Test
+  public void resumeFromRequestedSequenceNo()
+      throws InterruptedException {
+    for (int i = 0; i < 3; i++) {
+      publish(new Vehicle("Vehicle-" + i));
+    }
+
+    Client client = connect(Collections.singletonMap("minSequenceNo", "1"));
+
+    String frame = client.nextFrame();
+    assertThat(frame, not(containsString("Vehicle-0")));
+    assertThat(frame, containsString("Vehicle-1"));
+    assertThat(frame, containsString("Vehicle-2"));
+  }
+
+  @Test
+  public void sendOnlyNewEventsWithoutSequenceNo()
+      throws InterruptedException {
+    publish(new Vehicle("Vehicle-0"));
+
+    Client client = connect(Collections.emptyMap());
+    publish(new Vehicle("Vehicle-1"));
+
+    String frame = client.nextFrame();
+    assertThat(frame, not(containsString("Vehicle-0")));
+    assertThat(frame, containsString("Vehicle-1"));
+  }
+
+  @Test
+  public void skipClientWhileItsLastFrameIsBeingWritten()
+      throws InterruptedException {
+    Client slowClient = connect(Collections.emptyMap());
+    Client fastClient = connect(Collections.emptyMap());
+
+    publish(new Vehicle("Vehicle-1"));
+    assertThat(slowClient.nextFrame(), containsString("Vehicle-1"));
+    assertThat(fastClient.nextFrame(), containsString("Vehicle-1"));
+    fastClient.completeWrite();
+
+    // The slow client has not completed writing its frame, so only the fast one gets the event.
+    publish(new Vehicle("Vehicle-2"));
+    assertThat(fastClient.nextFrame(), containsString("Vehicle-2"));
+    assertThat(slowClient.frames.isEmpty(), is(true));
+
+    // Once it has, it gets the events it missed.
+    slowClient.completeWrite();
+    String frame = slowClient.nextFrame();
+    assertThat(frame, containsString("Vehicle-2"));
+    assertThat(frame, not(containsString("Vehicle-1")));
+  }
+
+  private void publish(Vehicle vehicle) {
+    dispatcher.onEvent(new TCSObjectEvent(vehicle, null, TCSObjectEvent.Type.OBJECT_CREATED));
+  }
+
+  private Client connect(Map<String, String> parameters) {
+    Map<String, List<String>> parameterMap = new HashMap<>();
+    for (Map.Entry<String, String> entry : parameters.entrySet()) {
+      parameterMap.put(entry.getKey(), Collections.singletonList(entry.getValue()));
+    }
+    UpgradeRequest request = mock(UpgradeRequest.class);
+    when(request.getParameterMap()).thenReturn(parameterMap);
+    Client client = new Client();
+    RemoteEndpoint remote = mock(RemoteEndpoint.class);
+    doAnswer(invocation -> {
+      client.callbacks.add(invocation.getArgument(1));
+      client.frames.add(invocation.getArgument(0));
+      return null;
+    }).when(remote).sendString(any(String.class), any(WriteCallback.class));
+    Session session = mock(Session.class);
+    when(session.getUpgradeRequest()).thenReturn(request);
+    when(session.getRemote()).thenReturn(remote);
+    when(session.isOpen()).thenReturn(true);
+    stream.onConnect(session);
+    return client;
+  }
+
+  /**
+   * Records the frames sent to a client.
+   */
+  private static class Client {
+
+    private final BlockingQueue<String> frames = new LinkedBlockingQueue<>();
+
+    private final BlockingQueue<WriteCallback> callbacks = new LinkedBlockingQueue<>();
+
+    String nextFrame()
+        throws InterruptedException {
+      String frame = frames.poll(TIMEOUT, TimeUnit.MILLISECONDS);
+      assertNotNull("No frame sent to client", frame);
+      return frame;
+    }
+
+    void completeWrite() {
+      callbacks.remove().writeSuccess();
+    }
+  }
+}
@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.kernel.extensions.servicewebapi.v1.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Triple;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.kernel.extensions.servicewebapi.v1.status.binding.StatusMessage;
+import org.opentcs.kernel.extensions.servicewebapi.v1.status.binding.VehicleStatusDelta;
+import org.opentcs.kernel.extensions.servicewebapi.v1.status.binding.VehicleStatusMessage;
+import org.opentcs.util.StatusDeltaEncoder;
+import org.opentcs.util.StatusDeltaEncoder.VehicleProperty;
+
+/**
+ * Measures producing the JSON status messages for a stream of vehicle events with complete
+ * messages and with delta encoding.
+ * <p>
+ * The events resemble the ones of {@code vehicles} vehicles driven by loopback adapters: Of every
+ * ten events for a vehicle, eight change only its precise position, one changes its position and
+ * precise position and one changes only properties not covered by status messages (e.g. the energy
+ * level). The number of bytes per event produced is printed on set-up.
+ * </p>
+ * <p>
+ * Run with {@code java -cp <test classpath> }
+ * {@code org.opentcs.kernel.extensions.servicewebapi.v1.status.StatusMessageEncodingBenchmark}.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatusMessageEncodingBenchmark {
+
+  /**
+   * The number of events generated per vehicle.
+   */
+  private static final int EVENTS_PER_VEHICLE = 100;
+
+  @Param({"100"})
+  public int vehicles;
+
+  @Param({"FULL", "DELTA"})
+  public String mode;
+
+  private final ObjectMapper objectMapper
+      = new ObjectMapper()
+          .registerModule(new JavaTimeModule())
+          .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+  private final List<Vehicle> events = new ArrayList<>();
+
+  private StatusDeltaEncoder encoder;
+
+  private int next;
+
+  @Setup(Level.Trial)
+  public void setUp()
+      throws Exception {
+    List<Vehicle> states = new ArrayList<>();
+    for (int i = 0; i < vehicles; i++) {
+      states.add(new Vehicle("Vehicle-" + i)
+          .withCurrentPosition(new Point("Point-0").getReference())
+          .withPrecisePosition(new Triple(0, i * 1000, 0))
+          .withState(Vehicle.State.EXECUTING)
+          .withProcState(Vehicle.ProcState.PROCESSING_ORDER));
+    }
+    for (int event = 1; event <= EVENTS_PER_VEHICLE; event++) {
+      for (int i = 0; i < vehicles; i++) {
+        Vehicle vehicle = states.get(i);
+        if (event % 10 == 0) {
+          vehicle = vehicle.withEnergyLevel(100 - event / 10);
+        }
+        else {
+          vehicle = vehicle.withPrecisePosition(new Triple(event * 100, i * 1000, 0));
+          if (event % 10 == 9) {
+            vehicle = vehicle.withCurrentPosition(new Point("Point-" + event).getReference());
+          }
+        }
+        states.set(i, vehicle);
+        events.add(vehicle);
+      }
+    }
+
+    // Use a long keyframe interval so that the measured bytes do not depend on the run time.
+    encoder = new StatusDeltaEncoder(Long.MAX_VALUE);
+    long bytes = 0;
+    for (int i = 0; i < events.size(); i++) {
+      bytes += encodeNext();
+    }
+    System.out.printf("%n%s: %d bytes per event%n", mode, bytes / events.size());
+  }
+
+  @Benchmark
+  public int encodeEvent()
+      throws Exception {
+    return encodeNext();
+  }
+
+  private int encodeNext()
+      throws Exception {
+    Vehicle vehicle = events.get(next);
+    next = (next + 1) % events.size();
+    StatusMessage message;
+    if ("FULL".equals(mode)) {
+      message = VehicleStatusMessage.fromVehicle(vehicle, next, Instant.EPOCH);
+    }
+    else {
+      Set<VehicleProperty> changed = encoder.encode(vehicle);
+      if (changed == null) {
+        message = VehicleStatusMessage.fromVehicle(vehicle, next, Instant.EPOCH);
+      }
+      else if (changed.isEmpty()) {
+        return 0;
+      }
+      else {
+        message = VehicleStatusDelta.fromVehicle(vehicle, changed, next, Instant.EPOCH);
+      }
+    }
+    return objectMapper.writeValueAsBytes(message).length;
+  }
+
+  public static void main(String[] args)
+      throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(StatusMessageEncodingBenchmark.class.getSimpleName())
+        .build())
+        .run();
+  }
+}
@@ -7,17 +7,37 @@
  */
 package org.opentcs.kernel.extensions.rmi;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import static java.util.Objects.requireNonNull;
 import java.util.function.Predicate;
 import javax.annotation.Nonnull;
+import org.opentcs.access.KernelStateTransitionEvent;
+import org.opentcs.access.NotificationPublicationEvent;
+import org.opentcs.access.rmi.services.EventBufferOverflowEvent;
+import org.opentcs.access.rmi.services.FullEventHistory;
+import org.opentcs.data.TCSObjectEvent;
 import static org.opentcs.util.Assertions.checkArgument;
 import org.opentcs.util.annotations.ScheduledApiChange;
 import org.opentcs.util.event.EventHandler;
+import static org.opentcs.util.event.TCSObjectEventCoalescing.coalescingKey;
+import static org.opentcs.util.event.TCSObjectEventCoalescing.merge;
 
 /**
  * Stores events and keeps them until a client fetches them.
+ * <p>
+ * Unless the buffer's event filter implements {@link FullEventHistory}, a modification of an
+ * object for which an event is still buffered is merged into that event, which is then moved to
+ * the end of the buffer, so the client only fetches the latest state of the object and never
+ * receives it before events that happened earlier. If the buffer is bounded and a client does not
+ * fetch its events quickly enough, the buffered events are discarded and the client receives an
+ * {@link EventBufferOverflowEvent} with the next events it fetches. Kernel state transitions and
+ * notifications are never discarded, though.
+ * </p>
  *
  * @author Stefan Walter (Fraunhofer IML)
  */
@@ -25,9 +45,26 @@ public class EventBuffer
     implements EventHandler {
 
   /**
-   * The buffered events.
+   * The buffered events, in the order they are to be fetched, mapped by tokens identifying them.
    */
-  private final List<Object> events = new LinkedList<>();
+  private final Map<Object, Object> events = new LinkedHashMap<>();
+  /**
+   * The tokens of the last buffered events in {@link #events}, mapped by the names of the objects
+   * they are about.
+   */
+  private final Map<String, Object> tokensByObject = new HashMap<>();
+  /**
+   * The maximum number of buffered events, or 0, if the number is not limited.
+   */
+  private final int capacity;
+  /**
+   * Whether successive modifications of the same object are merged.
+   */
+  private boolean coalescing;
+  /**
+   * The number of events discarded since the client last fetched events.
+   */
+  private int droppedEvents;
   /**
    * This buffer's event filter.
    */
@@ -43,7 +80,20 @@ public class EventBuffer
    * @param eventFilter This buffer's initial event filter.
    */
   public EventBuffer(@Nonnull Predicate<Object> eventFilter) {
+    this(eventFilter, 0);
+  }
+
+  /**
+   * Creates a new instance
+   *
+   * @param eventFilter This buffer's initial event filter.
+   * @param capacity The maximum number of buffered events, or 0, if the number is not limited.
+   */
+  public EventBuffer(@Nonnull Predicate<Object> eventFilter, int capacity) {
+    checkArgument(capacity >= 0, "capacity < 0: %s", capacity);
     this.eventFilter = requireNonNull(eventFilter, "eventFilter");
+    this.coalescing = !(eventFilter instanceof FullEventHistory);
+    this.capacity = capacity;
   }
 
   // Methods declared in interface EventListener start here
@@ -52,7 +102,9 @@ public class EventBuffer
     requireNonNull(event, "event");
     synchronized (events) {
       if (eventFilter.test(event)) {
-        events.add(event);
+        if (!coalescing || !coalesce(event)) {
+          append(event);
+        }
         // If the client is waiting for an event, wake it up, since there is one
         // now.
         if (waitingClient) {
@@ -91,12 +143,40 @@ public class EventBuffer
           waitingClient = false;
         }
       }
-      List<Object> result = new LinkedList<>(events);
+      List<Object> result = new ArrayList<>(events.size() + 1);
+      if (droppedEvents > 0) {
+        result.add(new EventBufferOverflowEvent(droppedEvents));
+        droppedEvents = 0;
+      }
+      result.addAll(events.values());
       events.clear();
+      tokensByObject.clear();
       return result;
     }
   }
 
+  /**
+   * Returns the number of events currently stored in this buffer.
+   *
+   * @return The number of events currently stored in this buffer.
+   */
+  public int getBacklog() {
+    synchronized (events) {
+      return events.size();
+    }
+  }
+
+  /**
+   * Returns the number of events discarded since the client last fetched events.
+   *
+   * @return The number of events discarded since the client last fetched events.
+   */
+  public int getDroppedEvents() {
+    synchronized (events) {
+      return droppedEvents;
+    }
+  }
+
   /**
    * Checks whether a client is currently waiting for events arriving in this
    * buffer.
@@ -136,6 +216,71 @@ public class EventBuffer
   public void setEventFilter(@Nonnull Predicate<Object> eventFilter) {
     synchronized (events) {
       this.eventFilter = requireNonNull(eventFilter);
+      this.coalescing = !(eventFilter instanceof FullEventHistory);
+    }
+  }
+
+  /**
+   * Merges the given event into the buffered event for the same object, if possible.
+   * Must be called while holding the lock on {@link #events}.
+   *
+   * @param event The event.
+   * @return {@code true} if, and only if, the event was merged.
+   */
+  private boolean coalesce(Object event) {
+    String key = coalescingKey(event);
+    Object token = key == null ? null : tokensByObject.get(key);
+    if (token == null) {
+      return false;
+    }
+    TCSObjectEvent merged = merge((TCSObjectEvent) events.get(token), (TCSObjectEvent) event);
+    if (merged == null) {
+      return false;
     }
+    // Move the merged event to the end, where the event it replaces would have been appended.
+    events.remove(token);
+    events.put(token, merged);
+    return true;
+  }
+
+  /**
+   * Appends the given event to the buffered ones, discarding the discardable ones first if the
+   * buffer is full.
+   * Must be called while holding the lock on {@link #events}.
+   *
+   * @param event The event.
+   */
+  private void append(Object event) {
+    if (capacity > 0 && events.size() >= capacity) {
+      discardEvents();
+    }
+    Object token = new Object();
+    events.put(token, event);
+    if (coalescing) {
+      String key = coalescingKey(event);
+      if (key != null) {
+        tokensByObject.put(key, token);
+      }
+    }
+  }
+
+  /**
+   * Discards all buffered events except for kernel state transitions and notifications.
+   * Must be called while holding the lock on {@link #events}.
+   */
+  private void discardEvents() {
+    for (Iterator<Object> iter = events.values().iterator(); iter.hasNext();) {
+      if (!isIndispensable(iter.next())) {
+        iter.remove();
+        droppedEvents++;
+      }
+    }
+    // Only events without a coalescing key are left.
+    tokensByObject.clear();
+  }
+
+  private static boolean isIndispensable(Object event) {
+    return event instanceof KernelStateTransitionEvent
+        || event instanceof NotificationPublicationEvent;
   }
 }
@@ -95,6 +95,16 @@ public interface RmiKernelInterfaceConfiguration {
       orderKey = "2_sweeping")
   long clientSweepInterval();
 
+  @ConfigurationEntry(
+      type = "Integer",
+      description = {
+        "The maximum number of events buffered for a client between two fetches.",
+        "If exceeded, the buffered events are discarded (except for kernel state transitions and "
+        + "notifications) and the client is told to resynchronize.",
+        "0 (the default) means the number is not limited."},
+      orderKey = "3_events_0")
+  int eventBufferCapacity();
+
   @ConfigurationEntry(
       type = "Boolean",
       description = "Whether to use SSL to encrypt connections.",
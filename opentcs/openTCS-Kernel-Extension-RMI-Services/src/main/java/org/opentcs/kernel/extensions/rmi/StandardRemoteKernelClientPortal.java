@@ -193,7 +193,9 @@ public class StandardRemoteKernelClientPortal
       // Generate a new ID for the client.
       ClientID clientId = new ClientID(userName);
       // Add an entry for the newly connected client.
-      ClientEntry clientEntry = new ClientEntry(userName, account.getPermissions());
+      ClientEntry clientEntry = new ClientEntry(userName,
+                                                account.getPermissions(),
+                                                configuration.eventBufferCapacity());
       clientEntry.getEventBuffer().setEventFilter(eventFilter);
       userManager.getKnownClients().put(clientId, clientEntry);
       LOG.debug("New client named {} logged in", clientId.getClientName());
@@ -12,8 +12,10 @@ import java.rmi.RemoteException;
 import java.rmi.registry.Registry;
 import java.rmi.server.UnicastRemoteObject;
 import static java.util.Objects.requireNonNull;
+import java.util.Set;
 import javax.inject.Inject;
 import org.opentcs.access.SchedulerAllocationState;
+import org.opentcs.access.SchedulerDeadlock;
 import org.opentcs.access.rmi.ClientID;
 import org.opentcs.access.rmi.factories.SocketFactoryProvider;
 import org.opentcs.access.rmi.services.RegistrationName;
@@ -146,4 +148,11 @@ public class StandardRemoteSchedulerService
 
     return schedulerService.fetchSchedulerAllocations();
   }
+
+  @Override
+  public Set<SchedulerDeadlock> fetchSchedulerDeadlocks(ClientID clientId) {
+    userManager.verifyCredentials(clientId, UserPermission.READ_DATA);
+
+    return schedulerService.fetchSchedulerDeadlocks();
+  }
 }
@@ -11,6 +11,7 @@ import java.rmi.NotBoundException;
 import java.rmi.RemoteException;
 import java.rmi.registry.Registry;
 import java.rmi.server.UnicastRemoteObject;
+import java.util.List;
 import static java.util.Objects.requireNonNull;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -20,6 +21,7 @@ import org.opentcs.access.rmi.factories.SocketFactoryProvider;
 import org.opentcs.access.rmi.services.RegistrationName;
 import org.opentcs.access.rmi.services.RemoteTransportOrderService;
 import org.opentcs.access.to.order.OrderSequenceCreationTO;
+import org.opentcs.access.to.order.TransportOrderArchiveQuery;
 import org.opentcs.access.to.order.TransportOrderCreationTO;
 import org.opentcs.components.kernel.services.TransportOrderService;
 import org.opentcs.customizations.kernel.KernelExecutor;
@@ -190,4 +192,12 @@ public class StandardRemoteTransportOrderService
       throw findSuitableExceptionFor(exc);
     }
   }
+
+  @Override
+  public List<TransportOrder> fetchArchivedTransportOrders(ClientID clientId,
+                                                           TransportOrderArchiveQuery query) {
+    userManager.verifyCredentials(clientId, UserPermission.READ_DATA);
+
+    return transportOrderService.fetchArchivedTransportOrders(query);
+  }
 }
@@ -30,8 +30,8 @@ import org.opentcs.customizations.ApplicationHome;
 import org.opentcs.customizations.kernel.KernelExecutor;
 import static org.opentcs.util.Assertions.checkArgument;
 import static org.opentcs.util.Assertions.checkInRange;
-import org.opentcs.util.event.EventHandler;
 import org.opentcs.util.event.EventSource;
+import org.opentcs.util.event.ExternalEventHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -41,7 +41,7 @@ import org.slf4j.LoggerFactory;
  * @author Martin Grzenia (Fraunhofer IML)
  */
 public class UserManager
-    implements EventHandler,
+    implements ExternalEventHandler,
                Lifecycle {
 
   /**
@@ -218,6 +218,21 @@ public class UserManager
     return knownClients.get(clientID);
   }
 
+  /**
+   * Returns the number of events currently buffered for each authenticated client.
+   *
+   * @return The number of events currently buffered, mapped by the clients' IDs.
+   */
+  public Map<ClientID, Integer> getEventBacklogs() {
+    Map<ClientID, Integer> result = new HashMap<>();
+    synchronized (getKnownClients()) {
+      for (Map.Entry<ClientID, ClientEntry> curEntry : getKnownClients().entrySet()) {
+        result.put(curEntry.getKey(), curEntry.getValue().getEventBuffer().getBacklog());
+      }
+    }
+    return result;
+  }
+
   public List<Object> pollEvents(ClientID clientID, long timeout) {
     requireNonNull(clientID, "clientID");
     checkInRange(timeout, 0, Long.MAX_VALUE, "timeout");
@@ -305,7 +320,7 @@ public class UserManager
     /**
      * The client's event buffer.
      */
-    private final EventBuffer eventBuffer = new EventBuffer(event -> false);
+    private final EventBuffer eventBuffer;
     /**
      * The client's alive flag.
      */
@@ -318,8 +333,21 @@ public class UserManager
      * @param perms The client's permissions.
      */
     public ClientEntry(String name, Set<UserPermission> perms) {
+      this(name, perms, 0);
+    }
+
+    /**
+     * Creates a new ClientEntry.
+     *
+     * @param name The client's name.
+     * @param perms The client's permissions.
+     * @param eventBufferCapacity The maximum number of events buffered for the client, or 0, if
+     * the number is not limited.
+     */
+    public ClientEntry(String name, Set<UserPermission> perms, int eventBufferCapacity) {
       userName = requireNonNull(name, "name");
       permissions = requireNonNull(perms, "perms");
+      eventBuffer = new EventBuffer(event -> false, eventBufferCapacity);
     }
 
     /**
@@ -373,6 +401,14 @@ public class UserManager
         while (clientIter.hasNext()) {
           Map.Entry<ClientID, ClientEntry> curEntry = clientIter.next();
           ClientEntry clientEntry = curEntry.getValue();
+          int droppedEvents = clientEntry.getEventBuffer().getDroppedEvents();
+          if (droppedEvents > 0) {
+            LOG.warn("Client {} (user: {}) is not fetching events quickly enough, {} event(s) "
+                + "discarded since its last fetch.",
+                     curEntry.getKey().getClientName(),
+                     clientEntry.getUserName(),
+                     droppedEvents);
+          }
           // Only touch the entry if the buffer not currently in use by a
           // client.
           if (!clientEntry.getEventBuffer().hasWaitingClient()) {
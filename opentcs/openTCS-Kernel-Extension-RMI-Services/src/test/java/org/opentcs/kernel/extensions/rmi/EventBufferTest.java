@@ -0,0 +1,94 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.kernel.extensions.rmi;
+
+import java.util.List;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import org.junit.Test;
+import org.opentcs.access.Kernel;
+import org.opentcs.access.KernelStateTransitionEvent;
+import org.opentcs.access.NotificationPublicationEvent;
+import org.opentcs.access.rmi.services.EventBufferOverflowEvent;
+import org.opentcs.data.TCSObjectEvent;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.notification.UserNotification;
+
+/**
+ * Unit tests for {@link EventBuffer}.
+ */
+public class EventBufferTest {
+
+  private final Vehicle vehicleA = new Vehicle("A");
+
+  private final Vehicle vehicleB = new Vehicle("B");
+
+  @Test
+  public void moveCoalescedEventToEnd() {
+    EventBuffer buffer = new EventBuffer(event -> true);
+    TCSObjectEvent firstA = modified(vehicleA, 1);
+    TCSObjectEvent firstB = modified(vehicleB, 1);
+    TCSObjectEvent secondA = modified(vehicleA, 2);
+
+    buffer.onEvent(firstA);
+    buffer.onEvent(firstB);
+    buffer.onEvent(secondA);
+
+    List<Object> events = buffer.getEvents(0);
+    assertThat(events.size(), is(2));
+    assertThat(events.get(0), is(firstB));
+    // The merged event is fetched after B's, since that is when A's latest state was published.
+    TCSObjectEvent merged = (TCSObjectEvent) events.get(1);
+    assertThat(merged.getCurrentObjectState(), is(secondA.getCurrentObjectState()));
+    assertThat(merged.getPreviousObjectState(), is(firstA.getPreviousObjectState()));
+  }
+
+  @Test
+  public void keepStateTransitionsAndNotificationsOnOverflow() {
+    EventBuffer buffer = new EventBuffer(event -> true, 3);
+    KernelStateTransitionEvent transition
+        = new KernelStateTransitionEvent(Kernel.State.MODELLING, Kernel.State.OPERATING, true);
+    NotificationPublicationEvent notification = new NotificationPublicationEvent(
+        new UserNotification("text", UserNotification.Level.INFORMATIONAL));
+    TCSObjectEvent eventA = modified(vehicleA, 1);
+    TCSObjectEvent eventB = modified(vehicleB, 1);
+
+    buffer.onEvent(transition);
+    buffer.onEvent(eventA);
+    buffer.onEvent(notification);
+    buffer.onEvent(eventB);
+
+    List<Object> events = buffer.getEvents(0);
+    assertThat(events.size(), is(4));
+    assertThat(events.get(0), is(instanceOf(EventBufferOverflowEvent.class)));
+    assertThat(((EventBufferOverflowEvent) events.get(0)).getDroppedEvents(), is(1));
+    assertThat(events.subList(1, 4), contains(transition, notification, eventB));
+  }
+
+  @Test
+  public void neverDiscardEventsOfUnboundedBuffer() {
+    EventBuffer buffer = new EventBuffer(event -> true);
+
+    for (int i = 0; i < 1000; i++) {
+      buffer.onEvent(new TCSObjectEvent(new Vehicle("Vehicle-" + i),
+                                        null,
+                                        TCSObjectEvent.Type.OBJECT_CREATED));
+    }
+
+    assertThat(buffer.getEvents(0).size(), is(1000));
+    assertThat(buffer.getDroppedEvents(), is(0));
+  }
+
+  private static TCSObjectEvent modified(Vehicle vehicle, int energyLevel) {
+    return new TCSObjectEvent(vehicle.withEnergyLevel(energyLevel),
+                              vehicle,
+                              TCSObjectEvent.Type.OBJECT_MODIFIED);
+  }
+}
@@ -58,4 +58,20 @@ public interface XMLHostInterfaceConfiguration {
       description = "A string to be used for separating subsequent status messages in the stream.",
       orderKey = "2_status_1")
   String statusMessageSeparator();
+
+  @ConfigurationEntry(
+      type = "Boolean",
+      description = {
+        "Whether status messages for objects of which only some properties changed are sent as",
+        "vehicleStatusDelta/orderStatusDelta messages containing only the changed properties."},
+      orderKey = "2_status_2")
+  boolean statusMessageDeltaEncoding();
+
+  @ConfigurationEntry(
+      type = "Long",
+      description = {
+        "With delta encoding, the maximum time (in ms) after which a complete status message is",
+        "sent for an object again."},
+      orderKey = "2_status_3")
+  long statusMessageKeyframeInterval();
 }
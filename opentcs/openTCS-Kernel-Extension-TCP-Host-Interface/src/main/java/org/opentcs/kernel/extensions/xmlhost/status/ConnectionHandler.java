@@ -14,19 +14,26 @@ import java.io.Writer;
 import java.net.Socket;
 import java.nio.charset.Charset;
 import static java.util.Objects.requireNonNull;
+import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.PriorityBlockingQueue;
+import javax.annotation.Nullable;
 import org.opentcs.data.TCSObject;
 import org.opentcs.data.TCSObjectEvent;
 import org.opentcs.data.model.Vehicle;
 import org.opentcs.data.order.TransportOrder;
+import org.opentcs.kernel.extensions.xmlhost.status.binding.OrderStatusDelta;
 import org.opentcs.kernel.extensions.xmlhost.status.binding.OrderStatusMessage;
 import org.opentcs.kernel.extensions.xmlhost.status.binding.StatusMessage;
 import org.opentcs.kernel.extensions.xmlhost.status.binding.TCSStatusMessageSet;
+import org.opentcs.kernel.extensions.xmlhost.status.binding.VehicleStatusDelta;
 import org.opentcs.kernel.extensions.xmlhost.status.binding.VehicleStatusMessage;
 import static org.opentcs.util.Assertions.checkArgument;
-import org.opentcs.util.event.EventHandler;
+import org.opentcs.util.StatusDeltaEncoder;
+import org.opentcs.util.StatusDeltaEncoder.OrderProperty;
+import org.opentcs.util.StatusDeltaEncoder.VehicleProperty;
 import org.opentcs.util.event.EventSource;
+import org.opentcs.util.event.ExternalEventHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -35,7 +42,7 @@ import org.slf4j.LoggerFactory;
  */
 class ConnectionHandler
     implements Runnable,
-               EventHandler {
+               ExternalEventHandler {
 
   /**
    * This class's Logger.
@@ -54,6 +61,11 @@ class ConnectionHandler
    * in the stream.
    */
   private final String messageSeparator;
+  /**
+   * Reduces status messages to the changed properties, if delta encoding is enabled.
+   */
+  @Nullable
+  private final StatusDeltaEncoder deltaEncoder;
   /**
    * Commands to be processed.
    */
@@ -69,13 +81,18 @@ class ConnectionHandler
    * @param clientSocket The socket for communication with the client.
    * @param evtSource The source of the status events with which the handler
    * is supposed to register.
+   * @param messageSeparator A string separating status messages in the stream.
+   * @param deltaEncoder Reduces status messages to the changed properties, or {@code null}, if
+   * complete status messages are to be sent.
    */
   ConnectionHandler(Socket clientSocket,
                     EventSource evtSource,
-                    String messageSeparator) {
+                    String messageSeparator,
+                    @Nullable StatusDeltaEncoder deltaEncoder) {
     this.socket = requireNonNull(clientSocket, "clientSocket");
     this.eventSource = requireNonNull(evtSource, "evtSource");
     this.messageSeparator = requireNonNull(messageSeparator, "messageSeparator");
+    this.deltaEncoder = deltaEncoder;
     checkArgument(clientSocket.isConnected(), "clientSocket is not connected");
   }
 
@@ -108,6 +125,11 @@ class ConnectionHandler
     finally {
       LOG.debug("Unregistering from event source");
       eventSource.unsubscribe(this);
+      if (deltaEncoder != null) {
+        LOG.info("Status messages sent: {} complete, {} delta",
+                 deltaEncoder.getKeyframeCount(),
+                 deltaEncoder.getDeltaCount());
+      }
     }
   }
 
@@ -140,12 +162,44 @@ class ConnectionHandler
   private void processObjectEvent(TCSObjectEvent event, Writer writer)
       throws IOException {
     TCSObject<?> eventObject = event.getCurrentOrPreviousObjectState();
-    if (eventObject instanceof TransportOrder) {
-      sendMessage(OrderStatusMessage.fromTransportOrder((TransportOrder) eventObject), writer);
+    if (eventObject instanceof TransportOrder || eventObject instanceof Vehicle) {
+      StatusMessage message = statusMessage(eventObject,
+                                            event.getType() == TCSObjectEvent.Type.OBJECT_REMOVED);
+      if (message != null) {
+        sendMessage(message, writer);
+      }
+    }
+  }
+
+  /**
+   * Returns the status message to be sent for the given object.
+   * With delta encoding, the last state of a removed object is always sent completely.
+   *
+   * @return The status message, or {@code null}, if no message needs to be sent.
+   */
+  @Nullable
+  private StatusMessage statusMessage(TCSObject<?> object, boolean removed) {
+    if (deltaEncoder != null && removed) {
+      deltaEncoder.forget(object.getName());
+    }
+    if (object instanceof TransportOrder) {
+      TransportOrder order = (TransportOrder) object;
+      Set<OrderProperty> changed = deltaEncoder == null || removed
+          ? null
+          : deltaEncoder.encode(order);
+      if (changed == null) {
+        return OrderStatusMessage.fromTransportOrder(order);
+      }
+      return changed.isEmpty() ? null : OrderStatusDelta.fromTransportOrder(order, changed);
     }
-    else if (eventObject instanceof Vehicle) {
-      sendMessage(VehicleStatusMessage.fromVehicle((Vehicle) eventObject), writer);
+    Vehicle vehicle = (Vehicle) object;
+    Set<VehicleProperty> changed = deltaEncoder == null || removed
+        ? null
+        : deltaEncoder.encode(vehicle);
+    if (changed == null) {
+      return VehicleStatusMessage.fromVehicle(vehicle);
     }
+    return changed.isEmpty() ? null : VehicleStatusDelta.fromVehicle(vehicle, changed);
   }
 
   private void sendMessage(StatusMessage message, Writer writer)
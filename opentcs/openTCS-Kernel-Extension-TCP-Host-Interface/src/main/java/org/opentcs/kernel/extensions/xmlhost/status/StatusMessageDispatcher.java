@@ -21,6 +21,7 @@ import javax.inject.Inject;
 import org.opentcs.components.kernel.KernelExtension;
 import org.opentcs.customizations.ApplicationEventBus;
 import org.opentcs.kernel.extensions.xmlhost.XMLHostInterfaceConfiguration;
+import org.opentcs.util.StatusDeltaEncoder;
 import org.opentcs.util.event.EventSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -151,9 +152,14 @@ public class StatusMessageDispatcher
           LOG.debug("Connection from {}:{}",
                     clientSocket.getInetAddress().getHostAddress(),
                     clientSocket.getPort());
-          ConnectionHandler newHandler = new ConnectionHandler(clientSocket,
-                                                               eventSource,
-                                                               configuration.statusMessageSeparator());
+          ConnectionHandler newHandler = new ConnectionHandler(
+              clientSocket,
+              eventSource,
+              configuration.statusMessageSeparator(),
+              configuration.statusMessageDeltaEncoding()
+              ? new StatusDeltaEncoder(configuration.statusMessageKeyframeInterval())
+              : null
+          );
           eventSource.subscribe(newHandler);
           clientExecutor.execute(newHandler);
           runningHandlers.add(newHandler);
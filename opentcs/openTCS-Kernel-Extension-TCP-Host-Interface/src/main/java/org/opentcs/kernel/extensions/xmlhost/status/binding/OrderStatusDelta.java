@@ -0,0 +1,170 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.kernel.extensions.xmlhost.status.binding;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import org.opentcs.data.order.TransportOrder;
+import org.opentcs.util.StatusDeltaEncoder.OrderProperty;
+
+/**
+ * A status message containing only the properties of a transport order that changed since the
+ * previous message for it sent to the same client.
+ * Properties that did not change are omitted.
+ */
+public class OrderStatusDelta
+    extends StatusMessage {
+
+  /**
+   * The transport order's name.
+   */
+  private String orderName = "";
+  /**
+   * The name of the vehicle processing the transport order, if it changed.
+   */
+  private String processingVehicleName;
+  /**
+   * The transport order's state, if it changed.
+   */
+  private OrderStatusMessage.OrderState orderState;
+  /**
+   * All of the transport order's destinations, if any of their states changed.
+   */
+  private List<Destination> destinations = new LinkedList<>();
+  /**
+   * All of the transport order's properties, if any of them changed.
+   */
+  private List<Property> properties = new LinkedList<>();
+
+  /**
+   * Creates a new instance.
+   */
+  public OrderStatusDelta() {
+  }
+
+  /**
+   * Returns the transport order's name.
+   *
+   * @return The transport order's name.
+   */
+  @XmlAttribute(name = "orderName", required = true)
+  public String getOrderName() {
+    return orderName;
+  }
+
+  /**
+   * Sets the transport order's name.
+   *
+   * @param orderName The transport order's name.
+   */
+  public void setOrderName(String orderName) {
+    this.orderName = orderName;
+  }
+
+  /**
+   * Returns the name of the vehicle processing the transport order.
+   *
+   * @return The processing vehicle's name, or null, if it did not change.
+   */
+  @XmlAttribute(name = "processingVehicleName", required = false)
+  public String getProcessingVehicleName() {
+    return processingVehicleName;
+  }
+
+  /**
+   * Sets the name of the vehicle processing the transport order.
+   *
+   * @param processingVehicleName The processing vehicle's name.
+   */
+  public void setProcessingVehicleName(String processingVehicleName) {
+    this.processingVehicleName = processingVehicleName;
+  }
+
+  /**
+   * Returns the transport order's state.
+   *
+   * @return The transport order's state, or null, if it did not change.
+   */
+  @XmlAttribute(name = "orderState", required = false)
+  public OrderStatusMessage.OrderState getOrderState() {
+    return orderState;
+  }
+
+  /**
+   * Sets the transport order's state.
+   *
+   * @param orderState The transport order's state.
+   */
+  public void setOrderState(OrderStatusMessage.OrderState orderState) {
+    this.orderState = orderState;
+  }
+
+  /**
+   * Returns the transport order's destinations.
+   *
+   * @return All of the transport order's destinations, or an empty list, if none of their states
+   * changed.
+   */
+  @XmlElement(name = "destination", required = false)
+  public List<Destination> getDestinations() {
+    return destinations;
+  }
+
+  /**
+   * Sets the transport order's destinations.
+   *
+   * @param destinations The transport order's destinations.
+   */
+  public void setDestinations(List<Destination> destinations) {
+    this.destinations = destinations;
+  }
+
+  /**
+   * Returns the transport order's properties.
+   *
+   * @return All of the transport order's properties, or an empty list, if none of them changed.
+   */
+  @XmlElement(name = "property", required = false)
+  public List<Property> getProperties() {
+    return properties;
+  }
+
+  /**
+   * Sets the transport order's properties.
+   *
+   * @param properties The transport order's properties.
+   */
+  public void setProperties(List<Property> properties) {
+    this.properties = properties;
+  }
+
+  public static OrderStatusDelta fromTransportOrder(TransportOrder order,
+                                                    Set<OrderProperty> changedProperties) {
+    OrderStatusMessage complete = OrderStatusMessage.fromTransportOrder(order);
+    OrderStatusDelta delta = new OrderStatusDelta();
+    delta.setOrderName(complete.getOrderName());
+    // A delta never has to express a property changing to no value - a complete message is sent
+    // in that case.
+    if (changedProperties.contains(OrderProperty.PROCESSING_VEHICLE)) {
+      delta.setProcessingVehicleName(complete.getProcessingVehicleName());
+    }
+    if (changedProperties.contains(OrderProperty.STATE)) {
+      delta.setOrderState(complete.getOrderState());
+    }
+    if (changedProperties.contains(OrderProperty.DRIVE_ORDER_STATES)) {
+      delta.setDestinations(complete.getDestinations());
+    }
+    if (changedProperties.contains(OrderProperty.PROPERTIES)) {
+      delta.setProperties(complete.getProperties());
+    }
+    return delta;
+  }
+}
@@ -32,6 +32,10 @@ import org.xml.sax.SAXException;
 @XmlRootElement
 public class TCSStatusMessageSet {
 
+  /**
+   * The JAXB context, created on first use.
+   */
+  private static JAXBContext context;
   /**
    * The point of time at which this status message set was created.
    */
@@ -134,11 +138,17 @@ public class TCSStatusMessageSet {
     return unmarshaller;
   }
 
-  private static JAXBContext createContext()
+  private static synchronized JAXBContext createContext()
       throws JAXBException {
-    return JAXBContext.newInstance(TCSStatusMessageSet.class,
-                                   StatusMessage.class,
-                                   OrderStatusMessage.class,
-                                   VehicleStatusMessage.class);
+    // Creating a context is expensive, while a context is thread-safe and can be reused.
+    if (context == null) {
+      context = JAXBContext.newInstance(TCSStatusMessageSet.class,
+                                        StatusMessage.class,
+                                        OrderStatusMessage.class,
+                                        VehicleStatusMessage.class,
+                                        OrderStatusDelta.class,
+                                        VehicleStatusDelta.class);
+    }
+    return context;
   }
 }
@@ -0,0 +1,196 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.kernel.extensions.xmlhost.status.binding;
+
+import java.util.Set;
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import org.opentcs.data.model.Triple;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.util.StatusDeltaEncoder.VehicleProperty;
+
+/**
+ * A status message containing only the properties of a vehicle that changed since the previous
+ * message for it sent to the same client.
+ * Properties that did not change are omitted.
+ */
+public class VehicleStatusDelta
+    extends StatusMessage {
+
+  /**
+   * The vehicle's name.
+   */
+  private String vehicleName = "";
+  /**
+   * The vehicle's current transport order's name, if it changed.
+   */
+  private String transportOrderName;
+  /**
+   * Precise position of the vehicle, if it changed.
+   */
+  private VehicleStatusMessage.PrecisePosition precisePosition;
+  /**
+   * Position of the vehicle, if it changed.
+   */
+  private String position;
+  /**
+   * State of the vehicle, if it changed.
+   */
+  private Vehicle.State state;
+  /**
+   * Processing state of the vehicle, if it changed.
+   */
+  private Vehicle.ProcState procState;
+
+  /**
+   * Creates a new instance.
+   */
+  public VehicleStatusDelta() {
+  }
+
+  /**
+   * Returns the vehicle's name.
+   *
+   * @return The vehicle's name.
+   */
+  @XmlAttribute(name = "vehicleName", required = true)
+  public String getVehicleName() {
+    return vehicleName;
+  }
+
+  /**
+   * Sets the vehicle's name.
+   *
+   * @param vehicleName The vehicle's name.
+   */
+  public void setVehicleName(String vehicleName) {
+    this.vehicleName = vehicleName;
+  }
+
+  /**
+   * Returns the vehicle's current transport order's name.
+   *
+   * @return The vehicle's current transport order's name, or null, if it did not change.
+   */
+  @XmlAttribute(name = "transportOrderName", required = false)
+  public String getTransportOrderName() {
+    return transportOrderName;
+  }
+
+  /**
+   * Sets the vehicle's current transport order's name.
+   *
+   * @param transportOrderName The transport order's name.
+   */
+  public void setTransportOrderName(String transportOrderName) {
+    this.transportOrderName = transportOrderName;
+  }
+
+  /**
+   * Returns the position of the vehicle.
+   *
+   * @return The vehicle's position, or null, if it did not change.
+   */
+  @XmlAttribute(name = "position", required = false)
+  public String getPosition() {
+    return position;
+  }
+
+  /**
+   * Sets the position of the vehicle.
+   *
+   * @param position The vehicle's position.
+   */
+  public void setPosition(String position) {
+    this.position = position;
+  }
+
+  /**
+   * Returns the precise position of the vehicle.
+   *
+   * @return The precise position, or null, if it did not change.
+   */
+  @XmlElement(name = "precisePosition", required = false)
+  public VehicleStatusMessage.PrecisePosition getPrecisePosition() {
+    return precisePosition;
+  }
+
+  /**
+   * Sets the precise position.
+   *
+   * @param precisePosition The precise position.
+   */
+  public void setPrecisePosition(VehicleStatusMessage.PrecisePosition precisePosition) {
+    this.precisePosition = precisePosition;
+  }
+
+  /**
+   * Returns the vehicle's state.
+   *
+   * @return The current vehicle state, or null, if it did not change.
+   */
+  @XmlAttribute(name = "state", required = false)
+  public Vehicle.State getState() {
+    return state;
+  }
+
+  /**
+   * Sets the vehicle's state.
+   *
+   * @param state The vehicle state.
+   */
+  public void setState(Vehicle.State state) {
+    this.state = state;
+  }
+
+  /**
+   * Returns the vehicle's processing state.
+   *
+   * @return The current vehicle processing state, or null, if it did not change.
+   */
+  @XmlAttribute(name = "processingState", required = false)
+  public Vehicle.ProcState getProcState() {
+    return procState;
+  }
+
+  /**
+   * Sets the vehicle's processing state.
+   *
+   * @param procState The vehicle processing state.
+   */
+  public void setProcState(Vehicle.ProcState procState) {
+    this.procState = procState;
+  }
+
+  public static VehicleStatusDelta fromVehicle(Vehicle vehicle,
+                                               Set<VehicleProperty> changedProperties) {
+    VehicleStatusDelta delta = new VehicleStatusDelta();
+    delta.setVehicleName(vehicle.getName());
+    // A delta never has to express a property changing to no value - a complete message is sent
+    // in that case.
+    if (changedProperties.contains(VehicleProperty.TRANSPORT_ORDER)) {
+      delta.setTransportOrderName(vehicle.getTransportOrder().getName());
+    }
+    if (changedProperties.contains(VehicleProperty.POSITION)) {
+      delta.setPosition(vehicle.getCurrentPosition().getName());
+    }
+    if (changedProperties.contains(VehicleProperty.PRECISE_POSITION)) {
+      Triple precisePos = vehicle.getPrecisePosition();
+      delta.setPrecisePosition(new VehicleStatusMessage.PrecisePosition(precisePos.getX(),
+                                                                        precisePos.getY(),
+                                                                        precisePos.getZ()));
+    }
+    if (changedProperties.contains(VehicleProperty.STATE)) {
+      delta.setState(vehicle.getState());
+    }
+    if (changedProperties.contains(VehicleProperty.PROC_STATE)) {
+      delta.setProcState(vehicle.getProcState());
+    }
+    return delta;
+  }
+}
@@ -56,15 +56,27 @@ import org.opentcs.kernel.vehicles.DefaultVehicleControllerPool;
 import org.opentcs.kernel.vehicles.LocalVehicleControllerPool;
 import org.opentcs.kernel.vehicles.VehicleCommAdapterRegistry;
 import org.opentcs.kernel.vehicles.VehicleControllerFactory;
+import org.opentcs.kernel.vehicles.VehicleTelemetryConfiguration;
+import org.opentcs.kernel.vehicles.VehicleTelemetrySampler;
+import org.opentcs.kernel.workingset.LoggingObjectHistoryArchive;
 import org.opentcs.kernel.workingset.Model;
 import org.opentcs.kernel.workingset.NotificationBuffer;
+import org.opentcs.kernel.workingset.ObjectHistoryArchive;
+import org.opentcs.kernel.workingset.ObjectHistoryConfiguration;
 import org.opentcs.kernel.workingset.PrefixedUlidObjectNameProvider;
 import org.opentcs.kernel.workingset.TCSObjectPool;
+import org.opentcs.kernel.workingset.TransportOrderArchive;
+import org.opentcs.kernel.workingset.TransportOrderArchiveConfiguration;
+import org.opentcs.kernel.workingset.TransportOrderJournal;
+import org.opentcs.kernel.workingset.TransportOrderJournalConfiguration;
 import org.opentcs.kernel.workingset.TransportOrderPool;
+import org.opentcs.util.KeyedExecutor;
+import org.opentcs.util.event.AsynchronousEventBus;
 import org.opentcs.util.event.EventBus;
 import org.opentcs.util.event.EventHandler;
 import org.opentcs.util.event.SimpleEventBus;
 import org.opentcs.util.logging.UncaughtExceptionLogger;
+import org.opentcs.util.persistence.OrderReservationJournal;
 
 /**
  * A Guice module for the openTCS kernel application.
@@ -76,7 +88,13 @@ public class DefaultKernelInjectionModule
 
   @Override
   protected void configure() {
-    configureEventHub();
+    // A single global synchronization object for the kernel.
+    Object globalSyncObject = new Object();
+    bind(Object.class)
+        .annotatedWith(GlobalSyncObject.class)
+        .toInstance(globalSyncObject);
+
+    configureEventHub(globalSyncObject);
     configureKernelExecutor();
 
     // Ensure that the application's home directory can be used everywhere.
@@ -85,15 +103,22 @@ public class DefaultKernelInjectionModule
         .annotatedWith(ApplicationHome.class)
         .toInstance(applicationHome);
 
-    // A single global synchronization object for the kernel.
-    bind(Object.class)
-        .annotatedWith(GlobalSyncObject.class)
-        .to(Object.class)
-        .in(Singleton.class);
-
     // The kernel's data pool structures.
+    bind(ObjectHistoryConfiguration.class)
+        .toInstance(getConfigBindingProvider().get(ObjectHistoryConfiguration.PREFIX,
+                                                   ObjectHistoryConfiguration.class));
+    bind(ObjectHistoryArchive.class).to(LoggingObjectHistoryArchive.class).in(Singleton.class);
     bind(TCSObjectPool.class).in(Singleton.class);
     bind(Model.class).in(Singleton.class);
+    bind(TransportOrderJournalConfiguration.class)
+        .toInstance(getConfigBindingProvider().get(TransportOrderJournalConfiguration.PREFIX,
+                                                   TransportOrderJournalConfiguration.class));
+    bind(TransportOrderJournal.class).in(Singleton.class);
+    bind(OrderReservationJournal.class).to(TransportOrderJournal.class);
+    bind(TransportOrderArchiveConfiguration.class)
+        .toInstance(getConfigBindingProvider().get(TransportOrderArchiveConfiguration.PREFIX,
+                                                   TransportOrderArchiveConfiguration.class));
+    bind(TransportOrderArchive.class).in(Singleton.class);
     bind(TransportOrderPool.class).in(Singleton.class);
     bind(NotificationBuffer.class).in(Singleton.class);
 
@@ -168,6 +193,12 @@ public class DefaultKernelInjectionModule
         .to(DefaultVehicleControllerPool.class);
     bind(LocalVehicleControllerPool.class)
         .to(DefaultVehicleControllerPool.class);
+
+    bind(VehicleTelemetryConfiguration.class)
+        .toInstance(getConfigBindingProvider().get(VehicleTelemetryConfiguration.PREFIX,
+                                                   VehicleTelemetryConfiguration.class));
+    bind(VehicleTelemetrySampler.class)
+        .in(Singleton.class);
   }
 
   private void configurePersistence() {
@@ -177,8 +208,22 @@ public class DefaultKernelInjectionModule
   }
 
   @SuppressWarnings("deprecation")
-  private void configureEventHub() {
-    EventBus newEventBus = new SimpleEventBus();
+  private void configureEventHub(Object globalSyncObject) {
+    KernelApplicationConfiguration configuration
+        = getConfigBindingProvider().get(KernelApplicationConfiguration.PREFIX,
+                                         KernelApplicationConfiguration.class);
+    EventBus newEventBus;
+    switch (configuration.eventDeliveryMode()) {
+      case ASYNCHRONOUS:
+        newEventBus = new AsynchronousEventBus(configuration.eventQueueCapacity(),
+                                               configuration.eventQueueOverflowPolicy(),
+                                               configuration.eventDeliveryThreads(),
+                                               globalSyncObject);
+        break;
+      case SYNCHRONOUS:
+      default:
+        newEventBus = new SimpleEventBus();
+    }
     bind(EventHandler.class)
         .annotatedWith(ApplicationEventBus.class)
         .toInstance(newEventBus);
@@ -260,5 +305,21 @@ public class DefaultKernelInjectionModule
     bind(Executor.class)
         .annotatedWith(KernelExecutor.class)
         .toInstance(executor);
+
+    KernelApplicationConfiguration configuration
+        = getConfigBindingProvider().get(KernelApplicationConfiguration.PREFIX,
+                                         KernelApplicationConfiguration.class);
+    PartitionedKernelExecutor keyedExecutor = new PartitionedKernelExecutor(
+        executor,
+        configuration.kernelExecutorLaneThreads() > 0
+            ? configuration.kernelExecutorLaneThreads()
+            : Runtime.getRuntime().availableProcessors(),
+        configuration.kernelExecutorStatisticsInterval()
+    );
+    bind(PartitionedKernelExecutor.class)
+        .toInstance(keyedExecutor);
+    bind(KeyedExecutor.class)
+        .annotatedWith(KernelExecutor.class)
+        .toInstance(keyedExecutor);
   }
 }
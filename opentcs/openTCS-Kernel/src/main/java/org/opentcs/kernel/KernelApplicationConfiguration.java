@@ -9,6 +9,7 @@ package org.opentcs.kernel;
 
 import org.opentcs.configuration.ConfigurationEntry;
 import org.opentcs.configuration.ConfigurationPrefix;
+import org.opentcs.util.event.OverflowPolicy;
 
 /**
  * Provides common kernel configuration entries.
@@ -46,4 +47,66 @@ public interface KernelApplicationConfiguration {
       description = "Whether to implicitly update the router's topology when a path is (un)locked.",
       orderKey = "3_topologyUpdate")
   boolean updateRoutingTopologyOnPathLockChange();
+
+  @ConfigurationEntry(
+      type = "Integer",
+      description = {
+        "The number of threads executing tasks for single vehicles, e.g. resource allocation "
+        + "callbacks, in parallel to the kernel executor.",
+        "If 0, the number of available processors is used."},
+      orderKey = "4_executor_0")
+  int kernelExecutorLaneThreads();
+
+  @ConfigurationEntry(
+      type = "Long",
+      description = {
+        "The interval (in ms) in which queue depth and latency statistics of the kernel executor's "
+        + "lanes are logged.",
+        "If 0, statistics are not logged."},
+      orderKey = "4_executor_1")
+  long kernelExecutorStatisticsInterval();
+
+  @ConfigurationEntry(
+      type = "String",
+      description = {
+        "How events are delivered to the handlers subscribed to the kernel's event bus.",
+        "Possible values:",
+        "SYNCHRONOUS: In the publishing thread, one handler after the other.",
+        "ASYNCHRONOUS: By a pool of delivery threads, with a queue for every handler. The queues of "
+        + "handlers forwarding events to external clients are bounded, all others are not."
+      },
+      orderKey = "5_events_0")
+  EventDeliveryMode eventDeliveryMode();
+
+  @ConfigurationEntry(
+      type = "Integer",
+      description = "The number of threads delivering events in ASYNCHRONOUS mode.",
+      orderKey = "5_events_1")
+  int eventDeliveryThreads();
+
+  @ConfigurationEntry(
+      type = "Integer",
+      description = "The capacity of each external client handler's event queue in ASYNCHRONOUS mode.",
+      orderKey = "5_events_2")
+  int eventQueueCapacity();
+
+  @ConfigurationEntry(
+      type = "String",
+      description = {
+        "What happens with a new event for an external client handler whose queue is full in "
+        + "ASYNCHRONOUS mode.",
+        "Possible values:",
+        "BLOCK: The publishing thread waits until there is space in the queue, unless it holds the "
+        + "kernel's global lock.",
+        "DROP_OLDEST: The oldest event in the queue is discarded.",
+        "COALESCE_BY_OBJECT: A modification event is merged into the pending event for the same "
+        + "object, if any. Otherwise, the oldest event in the queue is discarded."
+      },
+      orderKey = "5_events_3")
+  OverflowPolicy eventQueueOverflowPolicy();
+
+  enum EventDeliveryMode {
+    SYNCHRONOUS,
+    ASYNCHRONOUS;
+  }
 }
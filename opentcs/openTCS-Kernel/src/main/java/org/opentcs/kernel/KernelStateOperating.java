@@ -50,9 +50,11 @@ import org.opentcs.kernel.extensions.controlcenter.vehicles.AttachmentManager;
 import org.opentcs.kernel.extensions.xmlhost.orders.ScriptFileManager;
 import org.opentcs.kernel.persistence.ModelPersister;
 import org.opentcs.kernel.vehicles.LocalVehicleControllerPool;
+import org.opentcs.kernel.vehicles.VehicleTelemetrySampler;
 import org.opentcs.kernel.workingset.Model;
 import org.opentcs.kernel.workingset.NotificationBuffer;
 import org.opentcs.kernel.workingset.TCSObjectPool;
+import org.opentcs.kernel.workingset.TransportOrderArchive;
 import org.opentcs.kernel.workingset.TransportOrderPool;
 import org.opentcs.util.Comparators;
 import org.slf4j.Logger;
@@ -123,6 +125,14 @@ class KernelStateOperating
    * The vehicle service.
    */
   private final VehicleService vehicleService;
+  /**
+   * Samples the vehicles' telemetry.
+   */
+  private final VehicleTelemetrySampler telemetrySampler;
+  /**
+   * Archives transport orders reaching a final state.
+   */
+  private final TransportOrderArchive orderArchive;
   /**
    * A handle for the cleaner task.
    */
@@ -140,6 +150,8 @@ class KernelStateOperating
    * @param modelPersister The model persister to be used.
    * @param configuration This class's configuration.
    * @param recoveryEvaluator The recovery evaluator to be used.
+   * @param telemetrySampler Samples the vehicles' telemetry.
+   * @param orderArchive Archives transport orders reaching a final state.
    */
   @Inject
   @SuppressWarnings("deprecation")
@@ -160,7 +172,9 @@ class KernelStateOperating
                        OrderCleanerTask orderCleanerTask,
                        @ActiveInOperatingMode Set<KernelExtension> extensions,
                        AttachmentManager attachmentManager,
-                       VehicleService vehicleService) {
+                       VehicleService vehicleService,
+                       VehicleTelemetrySampler telemetrySampler,
+                       TransportOrderArchive orderArchive) {
     super(globalSyncObject,
           objectPool,
           model,
@@ -180,6 +194,8 @@ class KernelStateOperating
     this.extensions = requireNonNull(extensions, "extensions");
     this.attachmentManager = requireNonNull(attachmentManager, "attachmentManager");
     this.vehicleService = requireNonNull(vehicleService, "vehicleService");
+    this.telemetrySampler = requireNonNull(telemetrySampler, "telemetrySampler");
+    this.orderArchive = requireNonNull(orderArchive, "orderArchive");
   }
 
   // Implementation of interface Kernel starts here.
@@ -202,6 +218,11 @@ class KernelStateOperating
       setVehicleOrderSequence(curVehicle.getReference(), null);
     }
 
+    LOG.debug("Initializing transport order archive '{}'...", orderArchive);
+    orderArchive.initialize();
+    // Recover orders from the journal before anything starts dispatching them.
+    orderPool.openJournal();
+
     LOG.debug("Initializing scheduler '{}'...", scheduler);
     scheduler.initialize();
     LOG.debug("Initializing router '{}'...", router);
@@ -212,6 +233,8 @@ class KernelStateOperating
     recoveryEvaluator.initialize();
     LOG.debug("Initializing vehicle controller pool '{}'...", vehicleControllerPool);
     vehicleControllerPool.initialize();
+    LOG.debug("Initializing vehicle telemetry sampler '{}'...", telemetrySampler);
+    telemetrySampler.initialize();
     LOG.debug("Initializing attachment manager '{}'...", attachmentManager);
     attachmentManager.initialize();
     LOG.debug("Initializing script file manager '{}'...", scriptFileManager);
@@ -271,6 +294,8 @@ class KernelStateOperating
     scheduler.terminate();
     LOG.debug("Terminating vehicle controller pool '{}'...", vehicleControllerPool);
     vehicleControllerPool.terminate();
+    LOG.debug("Terminating vehicle telemetry sampler '{}'...", telemetrySampler);
+    telemetrySampler.terminate();
     LOG.debug("Terminating attachment manager '{}'...", attachmentManager);
     attachmentManager.terminate();
     LOG.debug("Terminating script file manager '{}'...", scriptFileManager);
@@ -290,6 +315,9 @@ class KernelStateOperating
 
     // Remove all orders and order sequences from the pool.
     orderPool.clear();
+    orderPool.closeJournal();
+    LOG.debug("Terminating transport order archive '{}'...", orderArchive);
+    orderArchive.terminate();
 
     initialized = false;
 
@@ -7,8 +7,6 @@
  */
 package org.opentcs.kernel;
 
-import com.google.common.collect.Iterables;
-import java.util.List;
 import static java.util.Objects.requireNonNull;
 import java.util.Set;
 import java.util.function.Predicate;
@@ -16,7 +14,7 @@ import javax.inject.Inject;
 import org.opentcs.components.kernel.OrderSequenceCleanupApproval;
 import org.opentcs.components.kernel.TransportOrderCleanupApproval;
 import org.opentcs.customizations.kernel.GlobalSyncObject;
-import org.opentcs.data.TCSObjectReference;
+import org.opentcs.data.TCSObject;
 import org.opentcs.data.order.OrderSequence;
 import org.opentcs.data.order.TransportOrder;
 import org.opentcs.kernel.workingset.TransportOrderPool;
@@ -24,7 +22,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * A task that periodically removes orders in a final state.
+ * A task that periodically removes orders that have been in a final state for a while.
+ * <p>
+ * If enabled, transport orders are archived when they reach a final state (see
+ * {@link org.opentcs.kernel.workingset.TransportOrderArchive}), so they can still be queried after
+ * being removed here.
+ * </p>
  *
  * @author Stefan Walter (Fraunhofer IML)
  */
@@ -55,6 +58,14 @@ class OrderCleanerTask
    * This class's configuration.
    */
   private final OrderPoolConfiguration configuration;
+  /**
+   * Checks whether transport orders may be removed.
+   */
+  private final OrderApproval orderApproval = new OrderApproval();
+  /**
+   * Checks whether order sequences may be removed.
+   */
+  private final SequenceApproval sequenceApproval = new SequenceApproval();
 
   /**
    * Creates a new instance.
@@ -83,24 +94,25 @@ class OrderCleanerTask
   @Override
   public void run() {
     synchronized (globalSyncObject) {
-      LOG.debug("Sweeping order pool...");
-      // Candidates that are created before this point of time should be removed.
-      long creationTimeThreshold = System.currentTimeMillis() - configuration.sweepAge();
-
-      // Remove all transport orders in a final state that do NOT belong to a sequence and that are
-      // older than the threshold.
-      for (TransportOrder transportOrder
-               : orderPool.getObjectPool().getObjects(TransportOrder.class,
-                                                      new OrderApproval(creationTimeThreshold))) {
-        orderPool.removeTransportOrder(transportOrder.getReference());
-      }
-
-      // Remove all order sequences that have been finished, including their transport orders.
-      for (OrderSequence orderSequence
-               : orderPool.getObjectPool().getObjects(
-              OrderSequence.class,
-              new SequenceApproval(creationTimeThreshold))) {
-        orderPool.removeFinishedOrderSequenceAndOrders(orderSequence.getReference());
+      LOG.debug("Removing finished orders...");
+      // Candidates that reached their final state before this point of time should be removed.
+      long finishedTimeThreshold = System.currentTimeMillis() - configuration.sweepAge();
+
+      // Only look at the orders and sequences that are already finished, in the order they were
+      // finished, instead of sweeping through all of them.
+      for (TCSObject<?> object : orderPool.getFinishedObjects(finishedTimeThreshold)) {
+        if (object instanceof TransportOrder) {
+          TransportOrder transportOrder = (TransportOrder) object;
+          if (orderApproval.test(transportOrder)) {
+            orderPool.removeTransportOrder(transportOrder.getReference());
+          }
+        }
+        else if (object instanceof OrderSequence) {
+          OrderSequence orderSequence = (OrderSequence) object;
+          if (sequenceApproval.test(orderSequence)) {
+            orderPool.removeFinishedOrderSequenceAndOrders(orderSequence.getReference());
+          }
+        }
       }
     }
   }
@@ -111,12 +123,6 @@ class OrderCleanerTask
   private class OrderApproval
       implements Predicate<TransportOrder> {
 
-    private final long creationTimeThreshold;
-
-    public OrderApproval(long creationTimeThreshold) {
-      this.creationTimeThreshold = creationTimeThreshold;
-    }
-
     @Override
     public boolean test(TransportOrder order) {
       if (!order.getState().isFinalState()) {
@@ -125,9 +131,6 @@ class OrderCleanerTask
       if (order.getWrappingSequence() != null) {
         return false;
       }
-      if (order.getCreationTime() >= creationTimeThreshold) {
-        return false;
-      }
       for (TransportOrderCleanupApproval approval : orderCleanupApprovals) {
         if (!approval.test(order)) {
           return false;
@@ -143,26 +146,11 @@ class OrderCleanerTask
   private class SequenceApproval
       implements Predicate<OrderSequence> {
 
-    private final long creationTimeThreshold;
-
-    public SequenceApproval(long creationTimeThreshold) {
-      this.creationTimeThreshold = creationTimeThreshold;
-    }
-
     @Override
     public boolean test(OrderSequence seq) {
       if (!seq.isFinished()) {
         return false;
       }
-      List<TCSObjectReference<TransportOrder>> orderRefs = seq.getOrders();
-      if (!orderRefs.isEmpty()) {
-        TransportOrder lastOrder
-            = orderPool.getObjectPool().getObject(TransportOrder.class,
-                                                  Iterables.getLast(orderRefs));
-        if (lastOrder.getCreationTime() >= creationTimeThreshold) {
-          return false;
-        }
-      }
       for (OrderSequenceCleanupApproval approval : sequenceCleanupApprovals) {
         if (!approval.test(seq)) {
           return false;
@@ -30,6 +30,8 @@ public interface OrderPoolConfiguration {
 
   @ConfigurationEntry(
       type = "Integer",
-      description = "The minimum age of orders to remove in a sweep (in ms).")
+      description = {
+        "The minimum time (in ms) orders and order sequences must have been in a final state",
+        "before they are removed in a sweep."})
   int sweepAge();
 }
@@ -0,0 +1,375 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.kernel;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import static java.util.Objects.requireNonNull;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nonnull;
+import static org.opentcs.util.Assertions.checkArgument;
+import org.opentcs.util.KeyedExecutor;
+import org.opentcs.util.LaneStatistics;
+import org.opentcs.util.logging.UncaughtExceptionLogger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link KeyedExecutor} executing the global lane's tasks with the kernel executor and the other
+ * lanes' tasks with a pool of worker threads.
+ * <p>
+ * A lane is never processed by more than one worker thread at a time, so the tasks of a lane are
+ * executed serially. A worker processes a limited number of tasks of a lane before handing the
+ * lane back to the pool, so busy lanes do not starve others.
+ * </p>
+ * <p>
+ * The worker threads are daemon threads, so they do not keep the application alive once the kernel
+ * executor has been shut down.
+ * </p>
+ */
+public class PartitionedKernelExecutor
+    implements KeyedExecutor {
+
+  /**
+   * This class's Logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(PartitionedKernelExecutor.class);
+  /**
+   * The maximum number of tasks of a lane a worker processes in one go.
+   */
+  private static final int MAX_TASKS_PER_TURN = 32;
+  /**
+   * The kernel executor, executing the global lane's tasks.
+   */
+  private final ScheduledExecutorService kernelExecutor;
+  /**
+   * The worker threads processing the lanes other than the global one.
+   */
+  private final ExecutorService laneWorkers;
+  /**
+   * Submits delayed tasks to their lanes and logs statistics.
+   */
+  private final ScheduledExecutorService timer;
+  /**
+   * The global lane.
+   */
+  private final Lane globalLane = new GlobalLane();
+  /**
+   * All other lanes, mapped by their keys.
+   */
+  private final ConcurrentHashMap<Object, Lane> lanes = new ConcurrentHashMap<>();
+
+  /**
+   * Creates a new instance.
+   *
+   * @param kernelExecutor The kernel executor, executing the global lane's tasks.
+   * @param laneThreads The number of threads processing the other lanes.
+   * @param statisticsInterval The interval (in ms) in which lane statistics are logged. If 0,
+   * statistics are not logged.
+   */
+  public PartitionedKernelExecutor(@Nonnull ScheduledExecutorService kernelExecutor,
+                                   int laneThreads,
+                                   long statisticsInterval) {
+    this.kernelExecutor = requireNonNull(kernelExecutor, "kernelExecutor");
+    checkArgument(laneThreads > 0, "laneThreads must be positive: %s", laneThreads);
+    checkArgument(statisticsInterval >= 0,
+                  "statisticsInterval must not be negative: %s",
+                  statisticsInterval);
+
+    AtomicInteger threadCount = new AtomicInteger();
+    this.laneWorkers = Executors.newFixedThreadPool(laneThreads, runnable -> {
+      Thread thread = new Thread(runnable,
+                                 "kernelLaneExecutor-" + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      thread.setUncaughtExceptionHandler(new UncaughtExceptionLogger(false));
+      return thread;
+    });
+    this.timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+      Thread thread = new Thread(runnable, "kernelLaneTimer");
+      thread.setDaemon(true);
+      thread.setUncaughtExceptionHandler(new UncaughtExceptionLogger(false));
+      return thread;
+    });
+    if (statisticsInterval > 0) {
+      timer.scheduleWithFixedDelay(this::logStatistics,
+                                   statisticsInterval,
+                                   statisticsInterval,
+                                   TimeUnit.MILLISECONDS);
+    }
+  }
+
+  @Override
+  public void execute(@Nonnull Object key, @Nonnull Runnable task) {
+    requireNonNull(key, "key");
+    requireNonNull(task, "task");
+
+    laneFor(key).enqueue(task);
+  }
+
+  @Override
+  @Nonnull
+  public Future<?> submit(@Nonnull Object key, @Nonnull Runnable task) {
+    requireNonNull(key, "key");
+    requireNonNull(task, "task");
+
+    LoggingFutureTask future = new LoggingFutureTask(task);
+    laneFor(key).enqueue(future);
+    return future;
+  }
+
+  @Override
+  @Nonnull
+  public ScheduledFuture<?> schedule(@Nonnull Object key,
+                                     @Nonnull Runnable task,
+                                     long delay,
+                                     @Nonnull TimeUnit unit) {
+    requireNonNull(key, "key");
+    requireNonNull(task, "task");
+    requireNonNull(unit, "unit");
+
+    return timer.schedule(() -> execute(key, task), delay, unit);
+  }
+
+  @Override
+  @Nonnull
+  public List<LaneStatistics> getLaneStatistics() {
+    List<LaneStatistics> result = new ArrayList<>(lanes.size() + 1);
+    result.add(globalLane.getStatistics());
+    for (Lane lane : lanes.values()) {
+      result.add(lane.getStatistics());
+    }
+    return result;
+  }
+
+  /**
+   * Stops the worker threads processing the lanes other than the global one.
+   * Tasks not yet executed are discarded.
+   */
+  public void shutdown() {
+    timer.shutdownNow();
+    laneWorkers.shutdownNow();
+  }
+
+  private Lane laneFor(Object key) {
+    if (key == GLOBAL_LANE) {
+      return globalLane;
+    }
+    return lanes.computeIfAbsent(key, k -> new Lane(k.toString()));
+  }
+
+  private void logStatistics() {
+    List<LaneStatistics> statistics = getLaneStatistics();
+    statistics.sort(Comparator.comparingLong(LaneStatistics::getMaxLatency).reversed());
+    for (LaneStatistics laneStatistics : statistics) {
+      LOG.info("Kernel executor lane '{}': queued={}, executed={}, latency avg/max={}/{} us, "
+          + "execution time avg/max={}/{} us",
+               laneStatistics.getLaneName(),
+               laneStatistics.getQueueDepth(),
+               laneStatistics.getExecutedTasks(),
+               laneStatistics.getAverageLatency(),
+               laneStatistics.getMaxLatency(),
+               laneStatistics.getAverageExecutionTime(),
+               laneStatistics.getMaxExecutionTime());
+    }
+  }
+
+  /**
+   * A task waiting in a lane.
+   */
+  private static class QueuedTask {
+
+    /**
+     * The actual task.
+     */
+    private final Runnable task;
+    /**
+     * The time (from {@link System#nanoTime()}) the task was enqueued.
+     */
+    private final long enqueueTime = System.nanoTime();
+
+    QueuedTask(Runnable task) {
+      this.task = task;
+    }
+  }
+
+  /**
+   * A serial lane processed by the worker threads.
+   */
+  private class Lane
+      implements Runnable {
+
+    /**
+     * The lane's name.
+     */
+    private final String name;
+    /**
+     * The tasks waiting for execution.
+     */
+    private final Queue<QueuedTask> queue = new ConcurrentLinkedQueue<>();
+    /**
+     * The number of tasks waiting for execution.
+     */
+    final AtomicInteger queueDepth = new AtomicInteger();
+    /**
+     * Whether the lane is currently handed to a worker thread.
+     */
+    private final AtomicBoolean processing = new AtomicBoolean();
+    /**
+     * The number of tasks executed.
+     */
+    private final LongAdder executedTasks = new LongAdder();
+    /**
+     * The sum of the latencies of all executed tasks (in ns).
+     */
+    private final LongAdder totalLatency = new LongAdder();
+    /**
+     * The maximum latency of an executed task (in ns).
+     */
+    private final AtomicLong maxLatency = new AtomicLong();
+    /**
+     * The sum of the execution times of all executed tasks (in ns).
+     */
+    private final LongAdder totalExecutionTime = new LongAdder();
+    /**
+     * The maximum execution time of a task (in ns).
+     */
+    private final AtomicLong maxExecutionTime = new AtomicLong();
+
+    Lane(String name) {
+      this.name = name;
+    }
+
+    void enqueue(Runnable task) {
+      queue.add(new QueuedTask(task));
+      queueDepth.incrementAndGet();
+      handOver();
+    }
+
+    @Override
+    public void run() {
+      QueuedTask queuedTask;
+      for (int i = 0; i < MAX_TASKS_PER_TURN && (queuedTask = queue.poll()) != null; i++) {
+        queueDepth.decrementAndGet();
+        runTask(queuedTask);
+      }
+      processing.set(false);
+      if (!queue.isEmpty()) {
+        handOver();
+      }
+    }
+
+    /**
+     * Hands this lane to a worker thread, unless it is already being processed.
+     */
+    private void handOver() {
+      if (processing.compareAndSet(false, true)) {
+        laneWorkers.execute(this);
+      }
+    }
+
+    void runTask(QueuedTask queuedTask) {
+      long startTime = System.nanoTime();
+      try {
+        queuedTask.task.run();
+      }
+      catch (RuntimeException exc) {
+        LOG.warn("Unhandled exception in task of lane '{}'", name, exc);
+      }
+      finally {
+        long endTime = System.nanoTime();
+        record(startTime - queuedTask.enqueueTime, endTime - startTime);
+      }
+    }
+
+    private void record(long latency, long executionTime) {
+      executedTasks.increment();
+      totalLatency.add(latency);
+      maxLatency.accumulateAndGet(latency, Math::max);
+      totalExecutionTime.add(executionTime);
+      maxExecutionTime.accumulateAndGet(executionTime, Math::max);
+    }
+
+    LaneStatistics getStatistics() {
+      long executed = executedTasks.sum();
+      return new LaneStatistics(
+          name,
+          queueDepth.get(),
+          executed,
+          executed == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalLatency.sum() / executed),
+          TimeUnit.NANOSECONDS.toMicros(maxLatency.get()),
+          executed == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalExecutionTime.sum() / executed),
+          TimeUnit.NANOSECONDS.toMicros(maxExecutionTime.get())
+      );
+    }
+  }
+
+  /**
+   * The global lane, processed by the kernel executor.
+   */
+  private class GlobalLane
+      extends Lane {
+
+    GlobalLane() {
+      super("global");
+    }
+
+    @Override
+    void enqueue(Runnable task) {
+      QueuedTask queuedTask = new QueuedTask(task);
+      queueDepth.incrementAndGet();
+      kernelExecutor.execute(() -> {
+        queueDepth.decrementAndGet();
+        runTask(queuedTask);
+      });
+    }
+  }
+
+  /**
+   * A future task logging exceptions thrown by the actual task, like the kernel executor does.
+   */
+  private static class LoggingFutureTask
+      extends FutureTask<Void> {
+
+    LoggingFutureTask(Runnable task) {
+      super(task, null);
+    }
+
+    @Override
+    protected void done() {
+      try {
+        get();
+      }
+      catch (ExecutionException exc) {
+        LOG.warn("Unhandled exception in executed task", exc.getCause());
+      }
+      catch (CancellationException exc) {
+        LOG.debug("Task was cancelled", exc);
+      }
+      catch (InterruptedException exc) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+}
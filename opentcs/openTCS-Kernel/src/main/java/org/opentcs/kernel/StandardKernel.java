@@ -59,6 +59,7 @@ import org.opentcs.data.order.OrderSequence;
 import org.opentcs.data.order.TransportOrder;
 import org.opentcs.drivers.vehicle.LoadHandlingDevice;
 import org.opentcs.drivers.vehicle.VehicleCommAdapter;
+import org.opentcs.util.event.AsynchronousEventBus;
 import org.opentcs.util.event.EventBus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -106,6 +107,10 @@ final class StandardKernel
    * Our executor.
    */
   private final ScheduledExecutorService kernelExecutor;
+  /**
+   * Executes tasks in per-vehicle lanes alongside our executor.
+   */
+  private final PartitionedKernelExecutor keyedExecutor;
   /**
    * This kernel's order receivers.
    */
@@ -128,6 +133,7 @@ final class StandardKernel
    *
    * @param eventHub The central event hub to be used.
    * @param kernelExecutor An executor for this kernel's tasks.
+   * @param keyedExecutor Executes tasks in per-vehicle lanes alongside the kernel executor.
    * @param stateProviders The state map to be used.
    */
   @Inject
@@ -136,10 +142,12 @@ final class StandardKernel
       @org.opentcs.customizations.kernel.CentralEventHub org.opentcs.util.eventsystem.EventHub<org.opentcs.util.eventsystem.TCSEvent> eventHub,
       @ApplicationEventBus EventBus eventBus,
       @KernelExecutor ScheduledExecutorService kernelExecutor,
+      PartitionedKernelExecutor keyedExecutor,
       Map<Kernel.State, Provider<KernelState>> stateProviders) {
     this.eventHub = requireNonNull(eventHub, "eventHub");
     this.eventBus = requireNonNull(eventBus, "eventBus");
     this.kernelExecutor = requireNonNull(kernelExecutor, "kernelExecutor");
+    this.keyedExecutor = requireNonNull(keyedExecutor, "keyedExecutor");
     this.stateProviders = requireNonNull(stateProviders, "stateProviders");
   }
 
@@ -193,7 +201,11 @@ final class StandardKernel
     for (KernelExtension extension : kernelExtensions) {
       extension.terminate();
     }
+    keyedExecutor.shutdown();
     kernelExecutor.shutdown();
+    if (eventBus instanceof AsynchronousEventBus) {
+      ((AsynchronousEventBus) eventBus).shutdown();
+    }
     LOG.info("Kernel thread finished.");
   }
 
@@ -7,9 +7,12 @@
  */
 package org.opentcs.kernel.services;
 
+import java.util.HashSet;
 import static java.util.Objects.requireNonNull;
+import java.util.Set;
 import javax.inject.Inject;
 import org.opentcs.access.SchedulerAllocationState;
+import org.opentcs.access.SchedulerDeadlock;
 import org.opentcs.components.kernel.Scheduler;
 import org.opentcs.components.kernel.services.SchedulerService;
 import org.opentcs.customizations.kernel.GlobalSyncObject;
@@ -50,4 +53,11 @@ public class StandardSchedulerService
       return new SchedulerAllocationState(scheduler.getAllocations());
     }
   }
+
+  @Override
+  public Set<SchedulerDeadlock> fetchSchedulerDeadlocks() {
+    synchronized (globalSyncObject) {
+      return new HashSet<>(scheduler.getDeadlocks());
+    }
+  }
 }
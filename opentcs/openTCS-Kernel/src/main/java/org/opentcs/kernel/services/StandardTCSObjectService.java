@@ -53,46 +53,40 @@ public class StandardTCSObjectService
     this.globalObjectPool = requireNonNull(globalObjectPool, "globalObjectPool");
   }
 
+  // The object pool serves reads from immutable snapshots, so fetching objects does not require
+  // synchronization on the global sync object.
   @Override
   @SuppressWarnings("deprecation")
   public <T extends TCSObject<T>> T fetchObject(Class<T> clazz, TCSObjectReference<T> ref) {
-    synchronized (getGlobalSyncObject()) {
-      T result = getGlobalObjectPool().getObjectOrNull(clazz, ref);
-      return result == null ? null : clazz.cast(result.clone());
-    }
+    T result = getGlobalObjectPool().getObjectOrNull(clazz, ref);
+    return result == null ? null : clazz.cast(result.clone());
   }
 
   @Override
   @SuppressWarnings("deprecation")
   public <T extends TCSObject<T>> T fetchObject(Class<T> clazz, String name) {
-    synchronized (getGlobalSyncObject()) {
-      T result = getGlobalObjectPool().getObjectOrNull(clazz, name);
-      return result == null ? null : clazz.cast(result.clone());
-    }
+    T result = getGlobalObjectPool().getObjectOrNull(clazz, name);
+    return result == null ? null : clazz.cast(result.clone());
   }
 
   @Override
   @SuppressWarnings("deprecation")
   public <T extends TCSObject<T>> Set<T> fetchObjects(Class<T> clazz) {
-    synchronized (getGlobalSyncObject()) {
-      Set<T> objects = getGlobalObjectPool().getObjects(clazz);
-      Set<T> copies = new HashSet<>();
-      for (T object : objects) {
-        copies.add(clazz.cast(object.clone()));
-      }
-      return copies;
+    Set<T> objects = getGlobalObjectPool().getObjects(clazz);
+    Set<T> copies = new HashSet<>();
+    for (T object : objects) {
+      copies.add(clazz.cast(object.clone()));
     }
+    return copies;
   }
 
   @Override
   @SuppressWarnings("deprecation")
   public <T extends TCSObject<T>> Set<T> fetchObjects(@Nonnull Class<T> clazz,
                                                       @Nonnull Predicate<? super T> predicate) {
-    synchronized (getGlobalSyncObject()) {
-      return getGlobalObjectPool().getObjects(clazz, predicate).stream()
-          .map(obj -> clazz.cast(obj.clone()))
-          .collect(Collectors.toSet());
-    }
+    return getGlobalObjectPool().getObjects(clazz, predicate).stream()
+        .map(obj -> clazz.cast(obj.clone()))
+        .collect(Collectors.toSet());
   }
 
   @Override
@@ -11,6 +11,7 @@ import java.util.List;
 import static java.util.Objects.requireNonNull;
 import javax.inject.Inject;
 import org.opentcs.access.to.order.OrderSequenceCreationTO;
+import org.opentcs.access.to.order.TransportOrderArchiveQuery;
 import org.opentcs.access.to.order.TransportOrderCreationTO;
 import org.opentcs.components.kernel.services.InternalTransportOrderService;
 import org.opentcs.components.kernel.services.TCSObjectService;
@@ -25,6 +26,7 @@ import org.opentcs.data.order.OrderSequence;
 import org.opentcs.data.order.TransportOrder;
 import org.opentcs.kernel.workingset.Model;
 import org.opentcs.kernel.workingset.TCSObjectPool;
+import org.opentcs.kernel.workingset.TransportOrderArchive;
 import org.opentcs.kernel.workingset.TransportOrderPool;
 
 /**
@@ -52,6 +54,10 @@ public class StandardTransportOrderService
    * The model facade to the object pool.
    */
   private final Model model;
+  /**
+   * The archive of transport orders in a final state.
+   */
+  private final TransportOrderArchive orderArchive;
 
   /**
    * Creates a new instance.
@@ -61,18 +67,21 @@ public class StandardTransportOrderService
    * @param globalObjectPool The object pool to be used.
    * @param orderPool The oder pool to be used.
    * @param model The model to be used.
+   * @param orderArchive The archive of transport orders in a final state.
    */
   @Inject
   public StandardTransportOrderService(TCSObjectService objectService,
                                        @GlobalSyncObject Object globalSyncObject,
                                        TCSObjectPool globalObjectPool,
                                        TransportOrderPool orderPool,
-                                       Model model) {
+                                       Model model,
+                                       TransportOrderArchive orderArchive) {
     super(objectService);
     this.globalSyncObject = requireNonNull(globalSyncObject, "globalSyncObject");
     this.globalObjectPool = requireNonNull(globalObjectPool, "globalObjectPool");
     this.orderPool = requireNonNull(orderPool, "orderPool");
     this.model = requireNonNull(model, "model");
+    this.orderArchive = requireNonNull(orderArchive, "orderArchive");
   }
 
   @Override
@@ -203,4 +212,11 @@ public class StandardTransportOrderService
     }
   }
 
+  @Override
+  public List<TransportOrder> fetchArchivedTransportOrders(TransportOrderArchiveQuery query) {
+    requireNonNull(query, "query");
+
+    // The archive is synchronized internally, so there is no need to block the kernel here.
+    return orderArchive.query(query);
+  }
 }
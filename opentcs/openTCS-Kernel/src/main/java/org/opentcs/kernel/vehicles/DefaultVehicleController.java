@@ -52,6 +52,7 @@ import org.opentcs.drivers.vehicle.VehicleCommAdapterEvent;
 import org.opentcs.drivers.vehicle.VehicleController;
 import org.opentcs.drivers.vehicle.VehicleProcessModel;
 import org.opentcs.drivers.vehicle.management.ProcessModelEvent;
+import org.opentcs.drivers.vehicle.telemetry.VehicleTelemetrySample;
 import static org.opentcs.util.Assertions.checkArgument;
 import static org.opentcs.util.Assertions.checkState;
 import org.opentcs.util.ExplainedBoolean;
@@ -100,6 +101,10 @@ public class DefaultVehicleController
    * The event bus we should register with and send events to.
    */
   private final EventBus eventBus;
+  /**
+   * Samples the vehicle's telemetry.
+   */
+  private final VehicleTelemetrySampler telemetrySampler;
   /**
    * The vehicle controlled by this controller/the communication adapter.
    */
@@ -164,6 +169,7 @@ public class DefaultVehicleController
    * @param dispatcherService The kernel's dispatcher service.
    * @param scheduler The scheduler managing resource allocations.
    * @param eventBus The event bus this instance should register with and send events to.
+   * @param telemetrySampler Samples the vehicle's telemetry.
    */
   @Inject
   public DefaultVehicleController(@Assisted @Nonnull Vehicle vehicle,
@@ -173,7 +179,8 @@ public class DefaultVehicleController
                                   @Nonnull NotificationService notificationService,
                                   @Nonnull DispatcherService dispatcherService,
                                   @Nonnull Scheduler scheduler,
-                                  @Nonnull @ApplicationEventBus EventBus eventBus) {
+                                  @Nonnull @ApplicationEventBus EventBus eventBus,
+                                  @Nonnull VehicleTelemetrySampler telemetrySampler) {
     this.vehicle = requireNonNull(vehicle, "vehicle");
     this.commAdapter = requireNonNull(adapter, "adapter");
     this.localKernel = requireNonNull(kernel, "kernel");
@@ -182,6 +189,7 @@ public class DefaultVehicleController
     this.dispatcherService = requireNonNull(dispatcherService, "dispatcherService");
     this.scheduler = requireNonNull(scheduler, "scheduler");
     this.eventBus = requireNonNull(eventBus, "eventBus");
+    this.telemetrySampler = requireNonNull(telemetrySampler, "telemetrySampler");
   }
 
   @Override
@@ -221,6 +229,11 @@ public class DefaultVehicleController
     updateVehicleState(commAdapter.getProcessModel().getVehicleState());
     updateCommAdapterState(commAdapter.getProcessModel().getVehicleAdapterState());
 
+    if (telemetrySampler.isEnabled()) {
+      telemetrySampler.register(commAdapter.getProcessModel().getTelemetry(),
+                                this::updateVehicleTelemetry);
+    }
+
     // Add a first entry into allocatedResources to shift freeing of resources
     // in commandExecuted() by one - we need to free the resources allocated for
     // the command before the one executed there.
@@ -237,6 +250,7 @@ public class DefaultVehicleController
     }
 
     commAdapter.getProcessModel().removePropertyChangeListener(this);
+    telemetrySampler.unregister(commAdapter.getProcessModel().getTelemetry());
     // Reset the vehicle's position.
     updatePosition(null, null);
     vehicleService.updateVehiclePrecisePosition(vehicle.getReference(), null);
@@ -592,12 +606,17 @@ public class DefaultVehicleController
     }
     else if (Objects.equals(evt.getPropertyName(),
                             VehicleProcessModel.Attribute.PRECISE_POSITION.name())) {
-      updateVehiclePrecisePosition((Triple) evt.getNewValue());
+      // With telemetry enabled, the vehicle object is updated with sampled values, only.
+      if (!telemetrySampler.isEnabled()) {
+        updateVehiclePrecisePosition((Triple) evt.getNewValue());
+      }
     }
     else if (Objects.equals(evt.getPropertyName(),
                             VehicleProcessModel.Attribute.ORIENTATION_ANGLE.name())) {
-      vehicleService.updateVehicleOrientationAngle(vehicle.getReference(),
-                                                   (Double) evt.getNewValue());
+      if (!telemetrySampler.isEnabled()) {
+        vehicleService.updateVehicleOrientationAngle(vehicle.getReference(),
+                                                     (Double) evt.getNewValue());
+      }
     }
     else if (Objects.equals(evt.getPropertyName(),
                             VehicleProcessModel.Attribute.ENERGY_LEVEL.name())) {
@@ -661,6 +680,21 @@ public class DefaultVehicleController
     }
   }
 
+  private void updateVehicleTelemetry(VehicleTelemetrySample sample) {
+    // Get an up-to-date copy of the vehicle
+    Vehicle currVehicle = vehicleService.fetchObject(Vehicle.class, vehicle.getReference());
+
+    if (currVehicle.getIntegrationLevel() != Vehicle.IntegrationLevel.TO_BE_IGNORED
+        && !Objects.equals(currVehicle.getPrecisePosition(), sample.getPrecisePosition())) {
+      vehicleService.updateVehiclePrecisePosition(vehicle.getReference(),
+                                                  sample.getPrecisePosition());
+    }
+    if (Double.compare(currVehicle.getOrientationAngle(), sample.getOrientationAngle()) != 0) {
+      vehicleService.updateVehicleOrientationAngle(vehicle.getReference(),
+                                                   sample.getOrientationAngle());
+    }
+  }
+
   private void updateVehiclePosition(String position) {
     // Get an up-to-date copy of the vehicle
     Vehicle currVehicle = vehicleService.fetchObject(Vehicle.class, vehicle.getReference());
@@ -0,0 +1,45 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.kernel.vehicles;
+
+import org.opentcs.configuration.ConfigurationEntry;
+import org.opentcs.configuration.ConfigurationPrefix;
+
+/**
+ * Provides methods to configure the {@link VehicleTelemetrySampler}.
+ */
+@ConfigurationPrefix(VehicleTelemetryConfiguration.PREFIX)
+public interface VehicleTelemetryConfiguration {
+
+  /**
+   * This configuration's prefix.
+   */
+  String PREFIX = "vehicletelemetry";
+
+  @ConfigurationEntry(
+      type = "Boolean",
+      description = {
+        "Whether vehicles' precise positions and orientation angles are passed to clients as",
+        "sampled telemetry instead of updating the vehicle objects on every change."},
+      orderKey = "0")
+  boolean enable();
+
+  @ConfigurationEntry(
+      type = "Long",
+      description = "The interval (in ms) in which telemetry values are sampled and published.",
+      orderKey = "1")
+  long sampleInterval();
+
+  @ConfigurationEntry(
+      type = "Long",
+      description = {
+        "The interval (in ms) in which the vehicle objects' precise positions and orientation",
+        "angles are updated with the latest telemetry values."},
+      orderKey = "2")
+  long modelUpdateInterval();
+}
@@ -0,0 +1,243 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.kernel.vehicles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import org.opentcs.components.Lifecycle;
+import org.opentcs.customizations.ApplicationEventBus;
+import org.opentcs.drivers.vehicle.telemetry.VehicleTelemetry;
+import org.opentcs.drivers.vehicle.telemetry.VehicleTelemetryEvent;
+import org.opentcs.drivers.vehicle.telemetry.VehicleTelemetrySample;
+import static org.opentcs.util.Assertions.checkArgument;
+import org.opentcs.util.event.EventHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Periodically samples the telemetry of all registered vehicles.
+ * <p>
+ * Samples of vehicles whose telemetry changed since the previous sampling are published as a
+ * single {@link VehicleTelemetryEvent}. In a (usually longer) interval, the vehicle objects in the
+ * kernel's model are updated with the latest values, too, so that objects fetched from the kernel
+ * do not become stale.
+ * </p>
+ */
+public class VehicleTelemetrySampler
+    implements Lifecycle {
+
+  /**
+   * This class's logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(VehicleTelemetrySampler.class);
+  /**
+   * This class's configuration.
+   */
+  private final VehicleTelemetryConfiguration configuration;
+  /**
+   * Where telemetry events are published.
+   */
+  private final EventHandler eventHandler;
+  /**
+   * The registered vehicles' telemetry, mapped by the vehicles' names.
+   */
+  private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+  /**
+   * Executes the sampling.
+   */
+  private ScheduledExecutorService samplingExecutor;
+  /**
+   * The time (in ms) at which the vehicle objects are to be updated next.
+   */
+  private long nextModelUpdate;
+  /**
+   * Whether this instance is initialized.
+   */
+  private boolean initialized;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param configuration This class's configuration.
+   * @param eventHandler Where telemetry events are published.
+   */
+  @Inject
+  public VehicleTelemetrySampler(VehicleTelemetryConfiguration configuration,
+                                 @ApplicationEventBus EventHandler eventHandler) {
+    this.configuration = requireNonNull(configuration, "configuration");
+    this.eventHandler = requireNonNull(eventHandler, "eventHandler");
+    checkArgument(configuration.sampleInterval() > 0,
+                  "sampleInterval must be positive: %s",
+                  configuration.sampleInterval());
+    checkArgument(configuration.modelUpdateInterval() > 0,
+                  "modelUpdateInterval must be positive: %s",
+                  configuration.modelUpdateInterval());
+  }
+
+  @Override
+  public void initialize() {
+    if (isInitialized()) {
+      return;
+    }
+
+    if (isEnabled()) {
+      samplingExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "vehicleTelemetrySampler");
+        thread.setDaemon(true);
+        return thread;
+      });
+      samplingExecutor.scheduleWithFixedDelay(this::sample,
+                                              configuration.sampleInterval(),
+                                              configuration.sampleInterval(),
+                                              TimeUnit.MILLISECONDS);
+    }
+
+    initialized = true;
+  }
+
+  @Override
+  public boolean isInitialized() {
+    return initialized;
+  }
+
+  @Override
+  public void terminate() {
+    if (!isInitialized()) {
+      return;
+    }
+
+    if (samplingExecutor != null) {
+      samplingExecutor.shutdown();
+      samplingExecutor = null;
+    }
+
+    initialized = false;
+  }
+
+  /**
+   * Indicates whether precise positions and orientation angles are passed on as sampled telemetry.
+   * If not, vehicle controllers are expected to update the vehicle objects on every change, as
+   * usual.
+   *
+   * @return {@code true} if, and only if, telemetry is enabled.
+   */
+  public boolean isEnabled() {
+    return configuration.enable();
+  }
+
+  /**
+   * Registers a vehicle's telemetry for sampling.
+   *
+   * @param telemetry The vehicle's telemetry.
+   * @param modelUpdater Updates the vehicle object in the kernel's model with the given sample.
+   * Called in the model update interval, if the telemetry changed since the previous call.
+   */
+  public void register(@Nonnull VehicleTelemetry telemetry,
+                       @Nonnull Consumer<VehicleTelemetrySample> modelUpdater) {
+    requireNonNull(telemetry, "telemetry");
+    requireNonNull(modelUpdater, "modelUpdater");
+
+    entries.put(telemetry.getVehicleName(), new Entry(telemetry, modelUpdater));
+  }
+
+  /**
+   * Unregisters a vehicle's telemetry.
+   *
+   * @param telemetry The vehicle's telemetry.
+   */
+  public void unregister(@Nonnull VehicleTelemetry telemetry) {
+    requireNonNull(telemetry, "telemetry");
+
+    entries.remove(telemetry.getVehicleName());
+  }
+
+  /**
+   * Publishes the samples of all vehicles whose telemetry changed and, if the model update interval
+   * has passed, updates the vehicle objects.
+   * Exceptions are logged, as an exception escaping the scheduled task would silently stop the
+   * sampling.
+   */
+  void sample() {
+    try {
+      long now = System.currentTimeMillis();
+      boolean updateModel = now >= nextModelUpdate;
+      if (updateModel) {
+        nextModelUpdate = now + configuration.modelUpdateInterval();
+      }
+
+      List<VehicleTelemetrySample> changedSamples = new ArrayList<>();
+      for (Entry entry : entries.values()) {
+        long version = entry.telemetry.getVersion();
+        boolean publish = version != entry.publishedVersion;
+        boolean update = updateModel && version != entry.modelVersion;
+        if (!publish && !update) {
+          continue;
+        }
+
+        VehicleTelemetrySample sample = entry.telemetry.sample();
+        if (publish) {
+          changedSamples.add(sample);
+          entry.publishedVersion = version;
+        }
+        if (update) {
+          try {
+            entry.modelUpdater.accept(sample);
+          }
+          catch (RuntimeException exc) {
+            LOG.warn("Could not update vehicle {} with telemetry", sample.getVehicleName(), exc);
+          }
+          entry.modelVersion = version;
+        }
+      }
+
+      if (!changedSamples.isEmpty()) {
+        eventHandler.onEvent(new VehicleTelemetryEvent(changedSamples));
+      }
+    }
+    catch (RuntimeException exc) {
+      LOG.warn("Exception sampling vehicle telemetry", exc);
+    }
+  }
+
+  /**
+   * A registered vehicle's telemetry.
+   */
+  private static class Entry {
+
+    /**
+     * The vehicle's telemetry.
+     */
+    private final VehicleTelemetry telemetry;
+    /**
+     * Updates the vehicle object in the kernel's model.
+     */
+    private final Consumer<VehicleTelemetrySample> modelUpdater;
+    /**
+     * The telemetry's version when it was last published.
+     */
+    private long publishedVersion = -1;
+    /**
+     * The telemetry's version when the vehicle object was last updated.
+     */
+    private long modelVersion = -1;
+
+    Entry(VehicleTelemetry telemetry, Consumer<VehicleTelemetrySample> modelUpdater) {
+      this.telemetry = telemetry;
+      this.modelUpdater = modelUpdater;
+    }
+  }
+}
@@ -0,0 +1,53 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.kernel.workingset;
+
+import java.util.List;
+import static java.util.Objects.requireNonNull;
+import javax.annotation.Nonnull;
+import org.opentcs.data.ObjectHistory;
+import org.opentcs.data.TCSObjectReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An {@link ObjectHistoryArchive} that writes the entries to a dedicated logger.
+ * The logging configuration decides whether and where they are kept, e.g. in a rolling file.
+ */
+public class LoggingObjectHistoryArchive
+    implements ObjectHistoryArchive {
+
+  /**
+   * The logger the entries are written to.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(LoggingObjectHistoryArchive.class);
+
+  /**
+   * Creates a new instance.
+   */
+  public LoggingObjectHistoryArchive() {
+  }
+
+  @Override
+  public void archive(@Nonnull TCSObjectReference<?> ref,
+                      @Nonnull List<ObjectHistory.Entry> entries) {
+    requireNonNull(ref, "ref");
+    requireNonNull(entries, "entries");
+
+    if (!LOG.isInfoEnabled()) {
+      return;
+    }
+    for (ObjectHistory.Entry entry : entries) {
+      LOG.info("{}: {} {} {}",
+               ref.getName(),
+               entry.getTimestamp(),
+               entry.getEventCode(),
+               entry.getSupplement());
+    }
+  }
+}
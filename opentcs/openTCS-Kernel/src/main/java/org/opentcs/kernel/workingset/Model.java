@@ -88,6 +88,18 @@ public class Model {
    * This model's properties.
    */
   private Map<String, String> properties = new HashMap<>();
+  /**
+   * An index of vehicles by their processing states.
+   */
+  private final TCSObjectIndex<Vehicle, Vehicle.ProcState> vehiclesByProcState
+      = new TCSObjectIndex<>(Vehicle.class, Vehicle.ProcState.class, Vehicle::getProcState);
+  /**
+   * An index of vehicles by their integration levels.
+   */
+  private final TCSObjectIndex<Vehicle, Vehicle.IntegrationLevel> vehiclesByIntegrationLevel
+      = new TCSObjectIndex<>(Vehicle.class,
+                             Vehicle.IntegrationLevel.class,
+                             Vehicle::getIntegrationLevel);
 
   /**
    * Creates a new model.
@@ -98,6 +110,8 @@ public class Model {
   @Inject
   public Model(TCSObjectPool globalPool) {
     this.objectPool = Objects.requireNonNull(globalPool);
+    objectPool.registerIndex(vehiclesByProcState);
+    objectPool.registerIndex(vehiclesByIntegrationLevel);
   }
 
   /**
@@ -155,22 +169,29 @@ public class Model {
   @SuppressWarnings("deprecation")
   public void clear() {
     LOG.debug("method entry");
-    for (TCSObject<?> curObject : objectPool.getObjects((Pattern) null)) {
-      if (curObject instanceof Point
-          || curObject instanceof Path
-          || curObject instanceof Vehicle
-          || curObject instanceof LocationType
-          || curObject instanceof Location
-          || curObject instanceof Block
-          || curObject instanceof Group
-          || curObject instanceof org.opentcs.data.model.StaticRoute
-          || curObject instanceof VisualLayout) {
-        objectPool.removeObject(curObject.getReference());
-        objectPool.emitObjectEvent(null,
-                                   curObject,
-                                   TCSObjectEvent.Type.OBJECT_REMOVED);
+    // The events emitted during the batch are held back until the removals have been published.
+    objectPool.beginMutationBatch();
+    try {
+      for (TCSObject<?> curObject : objectPool.getObjects((Pattern) null)) {
+        if (curObject instanceof Point
+            || curObject instanceof Path
+            || curObject instanceof Vehicle
+            || curObject instanceof LocationType
+            || curObject instanceof Location
+            || curObject instanceof Block
+            || curObject instanceof Group
+            || curObject instanceof org.opentcs.data.model.StaticRoute
+            || curObject instanceof VisualLayout) {
+          objectPool.removeObject(curObject.getReference());
+          objectPool.emitObjectEvent(null,
+                                     curObject,
+                                     TCSObjectEvent.Type.OBJECT_REMOVED);
+        }
       }
     }
+    finally {
+      objectPool.endMutationBatch();
+    }
   }
 
   /**
@@ -184,32 +205,39 @@ public class Model {
   @SuppressWarnings("deprecation")
   public void createPlantModelObjects(PlantModelCreationTO to)
       throws ObjectExistsException, ObjectUnknownException {
-    for (PointCreationTO point : to.getPoints()) {
-      createPoint(point);
-    }
-    for (PathCreationTO path : to.getPaths()) {
-      createPath(path);
-    }
-    for (LocationTypeCreationTO locType : to.getLocationTypes()) {
-      createLocationType(locType);
-    }
-    for (LocationCreationTO loc : to.getLocations()) {
-      createLocation(loc);
-    }
-    for (BlockCreationTO block : to.getBlocks()) {
-      createBlock(block);
-    }
-    for (GroupCreationTO group : to.getGroups()) {
-      createGroup(group);
-    }
-    for (org.opentcs.access.to.model.StaticRouteCreationTO route : to.getStaticRoutes()) {
-      createStaticRoute(route);
-    }
-    for (VehicleCreationTO vehicle : to.getVehicles()) {
-      createVehicle(vehicle);
+    // Publish the whole model at once rather than the objects one by one.
+    objectPool.beginMutationBatch();
+    try {
+      for (PointCreationTO point : to.getPoints()) {
+        createPoint(point);
+      }
+      for (PathCreationTO path : to.getPaths()) {
+        createPath(path);
+      }
+      for (LocationTypeCreationTO locType : to.getLocationTypes()) {
+        createLocationType(locType);
+      }
+      for (LocationCreationTO loc : to.getLocations()) {
+        createLocation(loc);
+      }
+      for (BlockCreationTO block : to.getBlocks()) {
+        createBlock(block);
+      }
+      for (GroupCreationTO group : to.getGroups()) {
+        createGroup(group);
+      }
+      for (org.opentcs.access.to.model.StaticRouteCreationTO route : to.getStaticRoutes()) {
+        createStaticRoute(route);
+      }
+      for (VehicleCreationTO vehicle : to.getVehicles()) {
+        createVehicle(vehicle);
+      }
+      for (VisualLayoutCreationTO layout : to.getVisualLayouts()) {
+        createVisualLayout(layout);
+      }
     }
-    for (VisualLayoutCreationTO layout : to.getVisualLayouts()) {
-      createVisualLayout(layout);
+    finally {
+      objectPool.endMutationBatch();
     }
   }
 
@@ -0,0 +1,27 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.kernel.workingset;
+
+import java.util.List;
+import javax.annotation.Nonnull;
+import org.opentcs.data.ObjectHistory;
+import org.opentcs.data.TCSObjectReference;
+
+/**
+ * Takes history entries that are no longer kept with the objects in the {@link TCSObjectPool}.
+ */
+public interface ObjectHistoryArchive {
+
+  /**
+   * Archives the given history entries of the referenced object.
+   *
+   * @param ref A reference to the object the entries belong to.
+   * @param entries The entries, in chronological order.
+   */
+  void archive(@Nonnull TCSObjectReference<?> ref, @Nonnull List<ObjectHistory.Entry> entries);
+}
@@ -0,0 +1,31 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.kernel.workingset;
+
+import org.opentcs.configuration.ConfigurationEntry;
+import org.opentcs.configuration.ConfigurationPrefix;
+
+/**
+ * Provides methods to configure how the {@link TCSObjectPool} maintains objects' histories.
+ */
+@ConfigurationPrefix(ObjectHistoryConfiguration.PREFIX)
+public interface ObjectHistoryConfiguration {
+
+  /**
+   * This configuration's prefix.
+   */
+  String PREFIX = "objecthistory";
+
+  @ConfigurationEntry(
+      type = "Integer",
+      description = {
+        "The maximum number of history entries kept per object (0 for no limit).",
+        "When exceeded, the oldest quarter of the entries is passed to the history archive."},
+      orderKey = "0")
+  int maxEntries();
+}
@@ -0,0 +1,399 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.kernel.workingset;
+
+import java.util.Arrays;
+import static java.util.Objects.requireNonNull;
+import java.util.function.BiConsumer;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * An immutable hash map in which modifications create new instances sharing all unmodified parts
+ * with the original one (a hash array mapped trie).
+ * <p>
+ * Adding or removing a mapping copies only the O(log<sub>32</sub> n) nodes on the way to it, so
+ * a modified map can be created cheaply while any number of threads keep reading the original one
+ * without synchronization.
+ * </p>
+ *
+ * @param <K> The type of keys.
+ * @param <V> The type of values.
+ */
+final class PersistentHashMap<K, V> {
+
+  /**
+   * The empty map.
+   */
+  private static final PersistentHashMap<?, ?> EMPTY
+      = new PersistentHashMap<>(new BitmapNode(0, new Object[0]), 0);
+  /**
+   * The number of hash bits consumed per trie level.
+   */
+  private static final int BITS = 5;
+  /**
+   * Masks the hash bits for a single level.
+   */
+  private static final int MASK = (1 << BITS) - 1;
+  /**
+   * The root node.
+   */
+  private final Node root;
+  /**
+   * The number of mappings.
+   */
+  private final int size;
+
+  private PersistentHashMap(Node root, int size) {
+    this.root = root;
+    this.size = size;
+  }
+
+  /**
+   * Returns the empty map.
+   *
+   * @param <K> The type of keys.
+   * @param <V> The type of values.
+   * @return The empty map.
+   */
+  @SuppressWarnings("unchecked")
+  static <K, V> PersistentHashMap<K, V> empty() {
+    return (PersistentHashMap<K, V>) EMPTY;
+  }
+
+  /**
+   * Returns the number of mappings.
+   *
+   * @return The number of mappings.
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Checks whether this map contains no mappings.
+   *
+   * @return {@code true} if, and only if, this map contains no mappings.
+   */
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Returns the value mapped to the given key.
+   *
+   * @param key The key.
+   * @return The value, or {@code null}, if there is no mapping for the given key.
+   */
+  @Nullable
+  @SuppressWarnings("unchecked")
+  V get(@Nonnull Object key) {
+    requireNonNull(key, "key");
+    return (V) root.find(0, key.hashCode(), key);
+  }
+
+  /**
+   * Checks whether this map contains a mapping for the given key.
+   *
+   * @param key The key.
+   * @return {@code true} if, and only if, this map contains a mapping for the given key.
+   */
+  boolean containsKey(@Nonnull Object key) {
+    return get(key) != null;
+  }
+
+  /**
+   * Returns a map with the given mapping added to or replaced in this one.
+   *
+   * @param key The key.
+   * @param value The value.
+   * @return The resulting map.
+   */
+  @Nonnull
+  PersistentHashMap<K, V> plus(@Nonnull K key, @Nonnull V value) {
+    requireNonNull(key, "key");
+    requireNonNull(value, "value");
+
+    boolean[] added = new boolean[1];
+    Node newRoot = root.plus(0, key.hashCode(), key, value, added);
+    if (newRoot == root) {
+      return this;
+    }
+    return new PersistentHashMap<>(newRoot, added[0] ? size + 1 : size);
+  }
+
+  /**
+   * Returns a map with the mapping for the given key removed from this one.
+   *
+   * @param key The key.
+   * @return The resulting map.
+   */
+  @Nonnull
+  PersistentHashMap<K, V> minus(@Nonnull Object key) {
+    requireNonNull(key, "key");
+
+    Node newRoot = root.minus(0, key.hashCode(), key);
+    if (newRoot == root) {
+      return this;
+    }
+    return new PersistentHashMap<>(newRoot == null ? new BitmapNode(0, new Object[0]) : newRoot,
+                                   size - 1);
+  }
+
+  /**
+   * Passes all mappings to the given consumer.
+   *
+   * @param consumer The consumer.
+   */
+  @SuppressWarnings("unchecked")
+  void forEach(@Nonnull BiConsumer<? super K, ? super V> consumer) {
+    requireNonNull(consumer, "consumer");
+    root.forEach((BiConsumer<Object, Object>) consumer);
+  }
+
+  /**
+   * A node of the trie.
+   */
+  private interface Node {
+
+    Object find(int shift, int hash, Object key);
+
+    Node plus(int shift, int hash, Object key, Object value, boolean[] added);
+
+    /**
+     * Returns the node with the given key removed, the same node if the key is not contained, or
+     * {@code null}, if the node became empty.
+     */
+    Node minus(int shift, int hash, Object key);
+
+    void forEach(BiConsumer<Object, Object> consumer);
+  }
+
+  /**
+   * A node with up to 32 slots, each holding a mapping or a child node.
+   * The array contains a pair of entries for every set bit in the bitmap: either key and value, or
+   * {@code null} and the child node.
+   */
+  private static final class BitmapNode
+      implements Node {
+
+    private final int bitmap;
+
+    private final Object[] array;
+
+    BitmapNode(int bitmap, Object[] array) {
+      this.bitmap = bitmap;
+      this.array = array;
+    }
+
+    @Override
+    public Object find(int shift, int hash, Object key) {
+      int bit = bitFor(hash, shift);
+      if ((bitmap & bit) == 0) {
+        return null;
+      }
+      int index = indexFor(bit);
+      Object keyOrNull = array[2 * index];
+      Object valueOrNode = array[2 * index + 1];
+      if (keyOrNull == null) {
+        return ((Node) valueOrNode).find(shift + BITS, hash, key);
+      }
+      return key.equals(keyOrNull) ? valueOrNode : null;
+    }
+
+    @Override
+    public Node plus(int shift, int hash, Object key, Object value, boolean[] added) {
+      int bit = bitFor(hash, shift);
+      int index = indexFor(bit);
+
+      if ((bitmap & bit) == 0) {
+        Object[] newArray = new Object[array.length + 2];
+        System.arraycopy(array, 0, newArray, 0, 2 * index);
+        newArray[2 * index] = key;
+        newArray[2 * index + 1] = value;
+        System.arraycopy(array, 2 * index, newArray, 2 * index + 2, array.length - 2 * index);
+        added[0] = true;
+        return new BitmapNode(bitmap | bit, newArray);
+      }
+
+      Object keyOrNull = array[2 * index];
+      Object valueOrNode = array[2 * index + 1];
+      if (keyOrNull == null) {
+        Node child = (Node) valueOrNode;
+        Node newChild = child.plus(shift + BITS, hash, key, value, added);
+        return newChild == child ? this : withSlot(index, null, newChild);
+      }
+      if (key.equals(keyOrNull)) {
+        return valueOrNode == value ? this : withSlot(index, keyOrNull, value);
+      }
+
+      // Two different keys in the same slot - push both down one level.
+      added[0] = true;
+      Node child = createNode(shift + BITS,
+                              keyOrNull.hashCode(),
+                              keyOrNull,
+                              valueOrNode,
+                              hash,
+                              key,
+                              value);
+      return withSlot(index, null, child);
+    }
+
+    @Override
+    public Node minus(int shift, int hash, Object key) {
+      int bit = bitFor(hash, shift);
+      if ((bitmap & bit) == 0) {
+        return this;
+      }
+      int index = indexFor(bit);
+      Object keyOrNull = array[2 * index];
+      Object valueOrNode = array[2 * index + 1];
+      if (keyOrNull == null) {
+        Node child = (Node) valueOrNode;
+        Node newChild = child.minus(shift + BITS, hash, key);
+        if (newChild == child) {
+          return this;
+        }
+        if (newChild != null) {
+          return withSlot(index, null, newChild);
+        }
+      }
+      else if (!key.equals(keyOrNull)) {
+        return this;
+      }
+
+      if (bitmap == bit) {
+        return null;
+      }
+      Object[] newArray = new Object[array.length - 2];
+      System.arraycopy(array, 0, newArray, 0, 2 * index);
+      System.arraycopy(array, 2 * index + 2, newArray, 2 * index, newArray.length - 2 * index);
+      return new BitmapNode(bitmap & ~bit, newArray);
+    }
+
+    @Override
+    public void forEach(BiConsumer<Object, Object> consumer) {
+      for (int i = 0; i < array.length; i += 2) {
+        if (array[i] == null) {
+          ((Node) array[i + 1]).forEach(consumer);
+        }
+        else {
+          consumer.accept(array[i], array[i + 1]);
+        }
+      }
+    }
+
+    private int indexFor(int bit) {
+      return Integer.bitCount(bitmap & (bit - 1));
+    }
+
+    private BitmapNode withSlot(int index, Object keyOrNull, Object valueOrNode) {
+      Object[] newArray = array.clone();
+      newArray[2 * index] = keyOrNull;
+      newArray[2 * index + 1] = valueOrNode;
+      return new BitmapNode(bitmap, newArray);
+    }
+
+    private static int bitFor(int hash, int shift) {
+      return 1 << ((hash >>> shift) & MASK);
+    }
+
+    private static Node createNode(int shift,
+                                   int hash1,
+                                   Object key1,
+                                   Object value1,
+                                   int hash2,
+                                   Object key2,
+                                   Object value2) {
+      if (hash1 == hash2 || shift >= Integer.SIZE) {
+        return new CollisionNode(hash1, new Object[]{key1, value1, key2, value2});
+      }
+      boolean[] added = new boolean[1];
+      return new BitmapNode(0, new Object[0])
+          .plus(shift, hash1, key1, value1, added)
+          .plus(shift, hash2, key2, value2, added);
+    }
+  }
+
+  /**
+   * A node holding mappings for keys with identical hash codes.
+   */
+  private static final class CollisionNode
+      implements Node {
+
+    private final int hash;
+
+    private final Object[] array;
+
+    CollisionNode(int hash, Object[] array) {
+      this.hash = hash;
+      this.array = array;
+    }
+
+    @Override
+    public Object find(int shift, int hash, Object key) {
+      int index = indexOf(key);
+      return index < 0 ? null : array[index + 1];
+    }
+
+    @Override
+    public Node plus(int shift, int hash, Object key, Object value, boolean[] added) {
+      if (hash != this.hash) {
+        // Nest this node in a bitmap node and add the new mapping next to it.
+        BitmapNode parent = new BitmapNode(BitmapNode.bitFor(this.hash, shift),
+                                           new Object[]{null, this});
+        return parent.plus(shift, hash, key, value, added);
+      }
+      int index = indexOf(key);
+      if (index >= 0) {
+        if (array[index + 1] == value) {
+          return this;
+        }
+        Object[] newArray = array.clone();
+        newArray[index + 1] = value;
+        return new CollisionNode(hash, newArray);
+      }
+      Object[] newArray = Arrays.copyOf(array, array.length + 2);
+      newArray[array.length] = key;
+      newArray[array.length + 1] = value;
+      added[0] = true;
+      return new CollisionNode(hash, newArray);
+    }
+
+    @Override
+    public Node minus(int shift, int hash, Object key) {
+      int index = indexOf(key);
+      if (index < 0) {
+        return this;
+      }
+      if (array.length == 2) {
+        return null;
+      }
+      Object[] newArray = new Object[array.length - 2];
+      System.arraycopy(array, 0, newArray, 0, index);
+      System.arraycopy(array, index + 2, newArray, index, newArray.length - index);
+      return new CollisionNode(hash, newArray);
+    }
+
+    @Override
+    public void forEach(BiConsumer<Object, Object> consumer) {
+      for (int i = 0; i < array.length; i += 2) {
+        consumer.accept(array[i], array[i + 1]);
+      }
+    }
+
+    private int indexOf(Object key) {
+      for (int i = 0; i < array.length; i += 2) {
+        if (key.equals(array[i])) {
+          return i;
+        }
+      }
+      return -1;
+    }
+  }
+}
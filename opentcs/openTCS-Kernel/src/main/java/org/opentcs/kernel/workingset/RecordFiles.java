@@ -0,0 +1,297 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.kernel.workingset;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32;
+import javax.annotation.Nullable;
+import static org.opentcs.util.Assertions.checkArgument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads and writes files consisting of checksummed records.
+ * <p>
+ * Each record consists of the length of its payload, the payload's CRC32 checksum, a CRC32 checksum
+ * of these two values and the payload itself. Records that are incomplete or do not match their
+ * checksums, e.g. because the process died while writing them, are skipped when reading a file.
+ * The header's own checksum allows telling the start of a valid record from arbitrary data without
+ * reading the payload, which matters when looking for the next valid record after a corrupt one.
+ * </p>
+ */
+final class RecordFiles {
+
+  /**
+   * This class's logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(RecordFiles.class);
+  /**
+   * The size of a record's header: the payload's length and checksum and the header's checksum.
+   */
+  static final int HEADER_SIZE = 12;
+  /**
+   * The size of the header's part covered by the header's checksum.
+   */
+  private static final int HEADER_CHECKED_SIZE = 8;
+  /**
+   * The maximum length of a record's payload. Anything longer indicates a corrupt record.
+   */
+  private static final int MAX_PAYLOAD_LENGTH = 64 * 1024 * 1024;
+  /**
+   * The size of the chunks in which a record's checksum is checked, and in which a file is scanned
+   * for record headers while looking for valid records.
+   */
+  private static final int CHECK_CHUNK_SIZE = 8192;
+
+  /**
+   * Prevents instantiation.
+   */
+  private RecordFiles() {
+  }
+
+  /**
+   * Returns a buffer containing records with the given payloads, ready to be written.
+   *
+   * @param payloads The payloads, none of which may be empty.
+   * @return The buffer.
+   */
+  static ByteBuffer toRecords(List<byte[]> payloads) {
+    int size = 0;
+    for (byte[] payload : payloads) {
+      checkArgument(payload.length > 0, "Empty payloads are not supported");
+      size += HEADER_SIZE + payload.length;
+    }
+
+    ByteBuffer buffer = ByteBuffer.allocate(size);
+    CRC32 crc = new CRC32();
+    for (byte[] payload : payloads) {
+      crc.reset();
+      crc.update(payload, 0, payload.length);
+      int headerStart = buffer.position();
+      buffer.putInt(payload.length);
+      buffer.putInt((int) crc.getValue());
+      buffer.putInt(headerChecksum(buffer.array(), headerStart, crc));
+      buffer.put(payload);
+    }
+    buffer.flip();
+    return buffer;
+  }
+
+  /**
+   * Writes the given buffer's remaining content to the given channel.
+   *
+   * @param buffer The buffer.
+   * @param channel The channel.
+   * @throws IOException If writing failed.
+   */
+  static void write(ByteBuffer buffer, FileChannel channel)
+      throws IOException {
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+  }
+
+  /**
+   * Passes the payloads of all valid records in the given file to the given handler.
+   * <p>
+   * Corrupt records, i.e. records with an invalid length or checksum, are skipped: Reading
+   * continues with the next position at which a valid record starts. Incomplete or corrupt data
+   * after the last valid record, e.g. a record written partially when the process died, is not
+   * part of the file's valid part.
+   * </p>
+   *
+   * @param file The file.
+   * @param handler The handler.
+   * @return The length of the file's valid part, i.e. the end of the last valid record.
+   * @throws IOException If reading the file failed, or the handler threw it.
+   */
+  static long readRecords(File file, RecordHandler handler)
+      throws IOException {
+    if (!file.isFile()) {
+      return 0;
+    }
+    long validLength = 0;
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      long size = channel.size();
+      long position = 0;
+      while (position < size) {
+        byte[] payload = tryReadRecord(channel, position, size);
+        if (payload == null) {
+          long next = findRecord(channel, position + 1, size);
+          if (next < 0) {
+            break;
+          }
+          LOG.warn("Skipping {} bytes of corrupt records at offset {} in {}",
+                   next - position,
+                   position,
+                   file);
+          position = next;
+          continue;
+        }
+        handler.handle(position, payload);
+        position += HEADER_SIZE + payload.length;
+        validLength = position;
+      }
+    }
+    return validLength;
+  }
+
+  /**
+   * Reads the payload of the record at the given position.
+   *
+   * @param channel The channel to read from.
+   * @param position The record's position.
+   * @return The record's payload.
+   * @throws IOException If reading failed or there is no valid record at the given position.
+   */
+  static byte[] readRecord(FileChannel channel, long position)
+      throws IOException {
+    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+    readFully(channel, header, position);
+    header.flip();
+    int length = header.getInt();
+    int checksum = header.getInt();
+    if (header.getInt() != headerChecksum(header.array(), 0, new CRC32())) {
+      throw new IOException("Invalid record header checksum at offset " + position);
+    }
+    if (length < 0 || length > MAX_PAYLOAD_LENGTH) {
+      throw new IOException("Invalid record length " + length + " at offset " + position);
+    }
+
+    ByteBuffer payload = ByteBuffer.allocate(length);
+    readFully(channel, payload, position + HEADER_SIZE);
+    CRC32 crc = new CRC32();
+    crc.update(payload.array(), 0, length);
+    if ((int) crc.getValue() != checksum) {
+      throw new IOException("Invalid record checksum at offset " + position);
+    }
+    return payload.array();
+  }
+
+  /**
+   * Returns the position of the first valid record at or after the given position.
+   * The file is read in chunks, and a record's payload is only read where a valid header is found.
+   *
+   * @return The position, or -1, if there is no valid record.
+   */
+  private static long findRecord(FileChannel channel, long position, long size)
+      throws IOException {
+    ByteBuffer chunk = ByteBuffer.allocate(CHECK_CHUNK_SIZE + HEADER_SIZE - 1);
+    byte[] bytes = chunk.array();
+    CRC32 crc = new CRC32();
+    for (long chunkStart = position; chunkStart + HEADER_SIZE <= size;
+         chunkStart += CHECK_CHUNK_SIZE) {
+      // Chunks overlap by a header's size minus one, so that headers spanning two chunks are found.
+      chunk.clear().limit((int) Math.min(chunk.capacity(), size - chunkStart));
+      readFully(channel, chunk, chunkStart);
+      for (int offset = 0; offset + HEADER_SIZE <= chunk.limit(); offset++) {
+        long candidate = chunkStart + offset;
+        if (isValidHeader(bytes, offset, candidate, size, crc)
+            && tryReadRecord(channel, candidate, size) != null) {
+          return candidate;
+        }
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Checks whether the given bytes are the header of a record that fits into the file.
+   */
+  private static boolean isValidHeader(byte[] bytes, int offset, long position, long size,
+                                       CRC32 crc) {
+    ByteBuffer header = ByteBuffer.wrap(bytes, offset, HEADER_SIZE);
+    int length = header.getInt();
+    if (length <= 0 || length > MAX_PAYLOAD_LENGTH || position + HEADER_SIZE + length > size) {
+      return false;
+    }
+    header.getInt();
+    return header.getInt() == headerChecksum(bytes, offset, crc);
+  }
+
+  /**
+   * Returns the checksum of the header starting at the given offset.
+   */
+  private static int headerChecksum(byte[] bytes, int offset, CRC32 crc) {
+    crc.reset();
+    crc.update(bytes, offset, HEADER_CHECKED_SIZE);
+    return (int) crc.getValue();
+  }
+
+  /**
+   * Returns the payload of the record at the given position, if there is a complete record with a
+   * valid length and checksum.
+   *
+   * @return The payload, or {@code null}.
+   */
+  @Nullable
+  private static byte[] tryReadRecord(FileChannel channel, long position, long size)
+      throws IOException {
+    if (position + HEADER_SIZE > size) {
+      return null;
+    }
+    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+    readFully(channel, header, position);
+    CRC32 crc = new CRC32();
+    // An empty payload's checksum is 0, so any zero bytes would look like an empty record.
+    if (!isValidHeader(header.array(), 0, position, size, crc)) {
+      return null;
+    }
+    header.flip();
+    int length = header.getInt();
+    int checksum = header.getInt();
+
+    // Check the checksum before allocating the payload.
+    crc.reset();
+    ByteBuffer chunk = ByteBuffer.allocate(Math.min(length, CHECK_CHUNK_SIZE));
+    for (int offset = 0; offset < length; offset += chunk.capacity()) {
+      chunk.clear().limit(Math.min(chunk.capacity(), length - offset));
+      readFully(channel, chunk, position + HEADER_SIZE + offset);
+      crc.update(chunk.array(), 0, chunk.limit());
+    }
+    if ((int) crc.getValue() != checksum) {
+      return null;
+    }
+
+    ByteBuffer payload = ByteBuffer.allocate(length);
+    readFully(channel, payload, position + HEADER_SIZE);
+    return payload.array();
+  }
+
+  private static void readFully(FileChannel channel, ByteBuffer buffer, long position)
+      throws IOException {
+    while (buffer.hasRemaining()) {
+      int count = channel.read(buffer, position + buffer.position());
+      if (count < 0) {
+        throw new EOFException("Unexpected end of file at offset " + position);
+      }
+    }
+  }
+
+  /**
+   * Handles records read from a file.
+   */
+  interface RecordHandler {
+
+    /**
+     * Handles a record.
+     *
+     * @param position The record's position in the file.
+     * @param payload The record's payload.
+     * @throws IOException If the payload could not be handled.
+     */
+    void handle(long position, byte[] payload)
+        throws IOException;
+  }
+}
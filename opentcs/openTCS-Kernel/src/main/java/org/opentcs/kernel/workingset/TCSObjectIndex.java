@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.kernel.workingset;
+
+import static java.util.Objects.requireNonNull;
+import java.util.function.Function;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.opentcs.data.TCSObject;
+
+/**
+ * A secondary index for objects in a {@link TCSObjectPool}, mapping an attribute value (the key) to
+ * all objects of a given type having that value.
+ * <p>
+ * Instances are registered with a pool via {@link TCSObjectPool#registerIndex(TCSObjectIndex)}.
+ * An instance only describes the index; its entries are kept by the pool, as part of the same
+ * snapshots as the objects themselves, so lookups via
+ * {@link TCSObjectPool#getObjects(TCSObjectIndex, Object)} always match the objects read from the
+ * pool at the same time. Objects for which the key function returns {@code null} are not indexed.
+ * </p>
+ *
+ * @param <T> The type of the indexed objects.
+ * @param <K> The type of the key.
+ */
+public class TCSObjectIndex<T extends TCSObject<T>, K> {
+
+  /**
+   * The type of the indexed objects.
+   */
+  private final Class<T> objectType;
+  /**
+   * The type of the key.
+   */
+  private final Class<K> keyType;
+  /**
+   * Extracts the key from an object.
+   */
+  private final Function<? super T, ? extends K> keyFunction;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param objectType The type of the indexed objects.
+   * @param keyType The type of the key.
+   * @param keyFunction Extracts the key from an object. May return {@code null}.
+   */
+  public TCSObjectIndex(@Nonnull Class<T> objectType,
+                        @Nonnull Class<K> keyType,
+                        @Nonnull Function<? super T, ? extends K> keyFunction) {
+    this.objectType = requireNonNull(objectType, "objectType");
+    this.keyType = requireNonNull(keyType, "keyType");
+    this.keyFunction = requireNonNull(keyFunction, "keyFunction");
+  }
+
+  /**
+   * Returns the type of the indexed objects.
+   *
+   * @return The type of the indexed objects.
+   */
+  @Nonnull
+  public Class<T> getObjectType() {
+    return objectType;
+  }
+
+  /**
+   * Returns the type of the key.
+   *
+   * @return The type of the key.
+   */
+  @Nonnull
+  public Class<K> getKeyType() {
+    return keyType;
+  }
+
+  /**
+   * Checks whether the given object is covered by this index.
+   *
+   * @param object The object.
+   * @return {@code true} if, and only if, the given object is of the indexed type.
+   */
+  boolean covers(TCSObject<?> object) {
+    return objectType.isInstance(object);
+  }
+
+  /**
+   * Returns the given entries of this index updated for an object that has been added to, replaced
+   * in or removed from the pool.
+   *
+   * @param entries The index entries: the indexed objects, mapped by their keys and names.
+   * @param previousState The object's previous state, or {@code null}, if it has been added.
+   * @param currentState The object's current state, or {@code null}, if it has been removed.
+   * @return The updated entries.
+   */
+  @Nonnull
+  PersistentHashMap<Object, PersistentHashMap<String, TCSObject<?>>> update(
+      @Nonnull PersistentHashMap<Object, PersistentHashMap<String, TCSObject<?>>> entries,
+      @Nullable TCSObject<?> previousState,
+      @Nullable TCSObject<?> currentState) {
+    PersistentHashMap<Object, PersistentHashMap<String, TCSObject<?>>> result = entries;
+    K previousKey = previousState == null ? null : keyOf(previousState);
+    if (previousKey != null) {
+      PersistentHashMap<String, TCSObject<?>> objects = result.get(previousKey);
+      if (objects != null) {
+        objects = objects.minus(previousState.getName());
+        result = objects.isEmpty() ? result.minus(previousKey) : result.plus(previousKey, objects);
+      }
+    }
+    K currentKey = currentState == null ? null : keyOf(currentState);
+    if (currentKey != null) {
+      PersistentHashMap<String, TCSObject<?>> objects = result.get(currentKey);
+      result = result.plus(currentKey,
+                           (objects == null ? PersistentHashMap.<String, TCSObject<?>>empty()
+                            : objects).plus(currentState.getName(), currentState));
+    }
+    return result;
+  }
+
+  @Nullable
+  private K keyOf(TCSObject<?> object) {
+    return keyFunction.apply(objectType.cast(object));
+  }
+}
@@ -7,13 +7,16 @@
  */
 package org.opentcs.kernel.workingset;
 
+import java.util.ArrayList;
 import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Map;
+import java.util.List;
 import static java.util.Objects.requireNonNull;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Predicate;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -28,6 +31,9 @@ import org.opentcs.data.TCSObject;
 import org.opentcs.data.TCSObjectEvent;
 import org.opentcs.data.TCSObjectReference;
 import static org.opentcs.util.Assertions.checkArgument;
+import static org.opentcs.util.Assertions.checkInRange;
+import static org.opentcs.util.Assertions.checkState;
+import org.opentcs.util.IndexablePredicate;
 import org.opentcs.util.UniqueStringGenerator;
 import org.opentcs.util.annotations.ScheduledApiChange;
 import org.opentcs.util.event.EventHandler;
@@ -38,6 +44,20 @@ import org.slf4j.LoggerFactory;
  * A container for <code>TCSObject</code>s belonging together.
  * It keeps all basic data objects (model data, transport order data and system
  * messages) and ensures these objects have unique IDs and names.
+ * <p>
+ * Besides the mapping of names to objects, the pool keeps the objects partitioned by their classes
+ * as well as any number of secondary indexes registered via {@link #registerIndex(TCSObjectIndex)},
+ * so that queries for objects of a given class or with a given attribute value do not need to scan
+ * all objects in the pool.
+ * </p>
+ * <p>
+ * The objects and the entries of the secondary indexes are kept in persistent maps, and after every
+ * modification (or batch of modifications, see {@link #beginMutationBatch()}) an immutable,
+ * versioned snapshot of all of them is published. All read accesses are served from the latest
+ * published snapshot, so they do not require any locking, never observe the intermediate states of
+ * a batch and never see index entries that do not match the objects. Events for modifications are
+ * emitted only after the modifications have been published.
+ * </p>
  *
  * @author Stefan Walter (Fraunhofer IML)
  */
@@ -48,9 +68,46 @@ public class TCSObjectPool {
    */
   private static final Logger LOG = LoggerFactory.getLogger(TCSObjectPool.class);
   /**
-   * The objects contained in this pool, mapped by their names.
+   * The objects contained in this pool, mapped by their names, including unpublished modifications.
    */
-  private final Map<String, TCSObject<?>> objectsByName = new ConcurrentHashMap<>();
+  private PersistentHashMap<String, TCSObject<?>> objectsByName = PersistentHashMap.empty();
+  /**
+   * The objects contained in this pool, mapped by their classes and names, including unpublished
+   * modifications.
+   */
+  private PersistentHashMap<Class<?>, PersistentHashMap<String, TCSObject<?>>> objectsByClass
+      = PersistentHashMap.empty();
+  /**
+   * The entries of the secondary indexes, mapped by index, including unpublished modifications.
+   */
+  private PersistentHashMap<TCSObjectIndex<?, ?>,
+                            PersistentHashMap<Object, PersistentHashMap<String, TCSObject<?>>>>
+      indexEntries = PersistentHashMap.empty();
+  /**
+   * The latest published snapshot.
+   */
+  private volatile Snapshot snapshot = new Snapshot(0, objectsByName, objectsByClass, indexEntries);
+  /**
+   * The number of currently open mutation batches.
+   */
+  private int mutationBatchDepth;
+  /**
+   * The thread that opened the current mutation batch, or {@code null}, if no batch is open.
+   */
+  private volatile Thread mutationBatchOwner;
+  /**
+   * The events for modifications of the current mutation batch, to be emitted when the batch's
+   * modifications are published.
+   */
+  private final List<TCSObjectEvent> deferredEvents = new ArrayList<>();
+  /**
+   * The secondary indexes registered with this pool.
+   */
+  private final List<TCSObjectIndex<?, ?>> indexes = new CopyOnWriteArrayList<>();
+  /**
+   * The listeners notified of every stored and removed object.
+   */
+  private final List<TCSObjectPoolListener> listeners = new CopyOnWriteArrayList<>();
   /**
    * A set of bits representing the IDs used in this object pool. Each bit in
    * the set represents the ID equivalent to the bit's index.
@@ -64,15 +121,43 @@ public class TCSObjectPool {
    * A handler we should emit object events to.
    */
   private final EventHandler eventHandler;
+  /**
+   * The maximum number of history entries kept per object, or 0 for no limit.
+   */
+  private final int maxHistoryEntries;
+  /**
+   * Takes history entries exceeding the limit.
+   */
+  private final ObjectHistoryArchive historyArchive;
+
+  /**
+   * Creates a new instance that uses the given event handler and keeps objects' complete histories.
+   *
+   * @param eventHandler The event handler to publish events to.
+   */
+  public TCSObjectPool(EventHandler eventHandler) {
+    this(eventHandler, () -> 0, (ref, entries) -> {
+    });
+  }
 
   /**
-   * Creates a new instance that uses the given event handler.
+   * Creates a new instance.
    *
    * @param eventHandler The event handler to publish events to.
+   * @param historyConfiguration Configures how objects' histories are maintained.
+   * @param historyArchive Takes history entries exceeding the configured limit.
    */
   @Inject
-  public TCSObjectPool(@ApplicationEventBus EventHandler eventHandler) {
+  public TCSObjectPool(@ApplicationEventBus EventHandler eventHandler,
+                       ObjectHistoryConfiguration historyConfiguration,
+                       ObjectHistoryArchive historyArchive) {
     this.eventHandler = requireNonNull(eventHandler, "eventHandler");
+    requireNonNull(historyConfiguration, "historyConfiguration");
+    this.maxHistoryEntries = checkInRange(historyConfiguration.maxEntries(),
+                                          0,
+                                          Integer.MAX_VALUE,
+                                          "maxHistoryEntries");
+    this.historyArchive = requireNonNull(historyArchive, "historyArchive");
   }
 
   /**
@@ -86,21 +171,28 @@ public class TCSObjectPool {
       throws ObjectExistsException {
     requireNonNull(newObject, "newObject");
 
-    if (objectsByName.containsKey(newObject.getName())) {
-      throw new ObjectExistsException("Object name " + newObject.getName() + " already exists.");
+    synchronized (this) {
+      if (objectsByName.containsKey(newObject.getName())) {
+        throw new ObjectExistsException("Object name " + newObject.getName() + " already exists.");
+      }
+      storeObject(newObject, null);
+      idBits.set(extractId(newObject.getReference()));
+      objectNameGenerator.addString(newObject.getName());
+      publish();
     }
-    objectsByName.put(newObject.getName(), newObject);
-    idBits.set(extractId(newObject.getReference()));
-    objectNameGenerator.addString(newObject.getName());
   }
 
   public <E extends TCSObject<E>> E replaceObject(E object) {
     requireNonNull(object, "object");
-    checkArgument(objectsByName.containsKey(object.getName()),
-                  "Object named '%s' does not exist",
-                  object.getName());
+    synchronized (this) {
+      TCSObject<?> previousState = objectsByName.get(object.getName());
+      checkArgument(previousState != null,
+                    "Object named '%s' does not exist",
+                    object.getName());
 
-    objectsByName.put(object.getName(), object);
+      storeObject(object, previousState);
+      publish();
+    }
     return object;
   }
 
@@ -114,7 +206,7 @@ public class TCSObjectPool {
   public TCSObject<?> getObjectOrNull(TCSObjectReference<?> ref) {
     requireNonNull(ref);
 
-    return objectsByName.get(ref.getName());
+    return readableSnapshot().objectsByName.get(ref.getName());
   }
 
   /**
@@ -149,7 +241,7 @@ public class TCSObjectPool {
     requireNonNull(clazz, "clazz");
     requireNonNull(ref, "ref");
 
-    TCSObject<?> result = objectsByName.get(ref.getName());
+    TCSObject<?> result = readableSnapshot().objectsByName.get(ref.getName());
     if (clazz.isInstance(result)) {
       return clazz.cast(result);
     }
@@ -189,7 +281,7 @@ public class TCSObjectPool {
   public TCSObject<?> getObjectOrNull(String name) {
     requireNonNull(name, "name");
 
-    return objectsByName.get(name);
+    return readableSnapshot().objectsByName.get(name);
   }
 
   /**
@@ -224,7 +316,7 @@ public class TCSObjectPool {
     requireNonNull(clazz, "clazz");
     requireNonNull(name, "name");
 
-    TCSObject<?> result = objectsByName.get(name);
+    TCSObject<?> result = readableSnapshot().objectsByName.get(name);
     if (clazz.isInstance(result)) {
       return clazz.cast(result);
     }
@@ -264,16 +356,11 @@ public class TCSObjectPool {
    */
   public Set<TCSObject<?>> getObjects(Pattern regexp) {
     Set<TCSObject<?>> result = new HashSet<>();
-    if (regexp == null) {
-      result.addAll(objectsByName.values());
-    }
-    else {
-      for (TCSObject<?> curObject : objectsByName.values()) {
-        if (regexp.matcher(curObject.getName()).matches()) {
-          result.add(curObject);
-        }
+    readableSnapshot().objectsByName.forEach((name, curObject) -> {
+      if (regexp == null || regexp.matcher(name).matches()) {
+        result.add(curObject);
       }
-    }
+    });
     return result;
   }
 
@@ -305,18 +392,23 @@ public class TCSObjectPool {
     requireNonNull(clazz, "clazz");
 
     Set<T> result = new HashSet<>();
-    for (TCSObject<?> curObject : objectsByName.values()) {
-      if (clazz.isInstance(curObject)
-          && (regexp == null
-              || regexp.matcher(curObject.getName()).matches())) {
-        result.add(clazz.cast(curObject));
-      }
+    for (PersistentHashMap<String, TCSObject<?>> bucket : bucketsOf(readableSnapshot(), clazz)) {
+      bucket.forEach((name, curObject) -> {
+        if (regexp == null || regexp.matcher(name).matches()) {
+          result.add(clazz.cast(curObject));
+        }
+      });
     }
     return result;
   }
 
   /**
    * Returns a set of objects of the given class for which the given predicate is true.
+   * <p>
+   * If the given predicate is an {@link IndexablePredicate} and an index for the given class and
+   * the predicate's key type has been registered, only the objects found in the index for the
+   * predicate's keys are tested.
+   * </p>
    *
    * @param <T> The objects' type.
    * @param clazz The class of the objects to be returned.
@@ -329,11 +421,118 @@ public class TCSObjectPool {
     requireNonNull(clazz, "clazz");
     requireNonNull(predicate, "predicate");
 
-    return objectsByName.values().stream()
-        .filter(obj -> clazz.isInstance(obj))
-        .map(obj -> clazz.cast(obj))
-        .filter(predicate)
-        .collect(Collectors.toSet());
+    Snapshot currentSnapshot = readableSnapshot();
+    if (predicate instanceof IndexablePredicate) {
+      IndexablePredicate<?, ?> indexablePredicate = (IndexablePredicate<?, ?>) predicate;
+      TCSObjectIndex<?, ?> index = findIndex(clazz, indexablePredicate.getIndexKeyType());
+      PersistentHashMap<Object, PersistentHashMap<String, TCSObject<?>>> entries
+          = index == null ? null : currentSnapshot.indexEntries.get(index);
+      if (entries != null) {
+        return indexablePredicate.getIndexKeys().stream()
+            .flatMap(key -> lookup(entries, key).stream())
+            .filter(obj -> clazz.isInstance(obj))
+            .map(obj -> clazz.cast(obj))
+            .filter(predicate)
+            .collect(Collectors.toSet());
+      }
+    }
+
+    Set<T> result = new HashSet<>();
+    for (PersistentHashMap<String, TCSObject<?>> bucket : bucketsOf(currentSnapshot, clazz)) {
+      bucket.forEach((name, obj) -> {
+        T object = clazz.cast(obj);
+        if (predicate.test(object)) {
+          result.add(object);
+        }
+      });
+    }
+    return result;
+  }
+
+  /**
+   * Returns a set of objects that have the given key in the given index.
+   *
+   * @param <T> The objects' type.
+   * @param <K> The key's type.
+   * @param index The index. Must have been registered with this pool.
+   * @param key The key.
+   * @return A set of objects that have the given key in the given index. If no such objects
+   * exist, the returned set is empty.
+   */
+  public <T extends TCSObject<T>, K> Set<T> getObjects(@Nonnull TCSObjectIndex<T, K> index,
+                                                       @Nonnull K key) {
+    requireNonNull(index, "index");
+    requireNonNull(key, "key");
+    checkArgument(indexes.contains(index), "Index is not registered with this pool");
+
+    Snapshot currentSnapshot = readableSnapshot();
+    PersistentHashMap<Object, PersistentHashMap<String, TCSObject<?>>> entries
+        = currentSnapshot.indexEntries.get(index);
+    if (entries == null) {
+      // The index has been registered during a mutation batch that has not been published, yet.
+      return getObjects(index.getObjectType(), (Pattern) null).stream()
+          .filter(object -> lookup(index.update(PersistentHashMap.empty(), null, object), key)
+              .contains(object))
+          .collect(Collectors.toSet());
+    }
+    Set<T> result = new HashSet<>();
+    for (TCSObject<?> object : lookup(entries, key)) {
+      result.add(index.getObjectType().cast(object));
+    }
+    return result;
+  }
+
+  /**
+   * Registers a secondary index with this pool.
+   * The index is populated with the objects currently contained in this pool and kept up to date
+   * afterwards.
+   *
+   * @param index The index to be registered.
+   * @throws IllegalArgumentException If an index for the same object and key types has already
+   * been registered.
+   */
+  public void registerIndex(@Nonnull TCSObjectIndex<?, ?> index)
+      throws IllegalArgumentException {
+    requireNonNull(index, "index");
+    checkArgument(findIndex(index.getObjectType(), index.getKeyType()) == null,
+                  "An index for %s by %s has already been registered",
+                  index.getObjectType().getSimpleName(),
+                  index.getKeyType().getSimpleName());
+
+    synchronized (this) {
+      Snapshot current = new Snapshot(0, objectsByName, objectsByClass, indexEntries);
+      List<TCSObject<?>> objects = new ArrayList<>();
+      for (PersistentHashMap<String, TCSObject<?>> bucket
+               : bucketsOf(current, index.getObjectType())) {
+        bucket.forEach((name, object) -> objects.add(object));
+      }
+      PersistentHashMap<Object, PersistentHashMap<String, TCSObject<?>>> entries
+          = PersistentHashMap.empty();
+      for (TCSObject<?> object : objects) {
+        entries = index.update(entries, null, object);
+      }
+      indexEntries = indexEntries.plus(index, entries);
+      indexes.add(index);
+      publish();
+    }
+  }
+
+  /**
+   * Adds a listener to be notified of every object stored in or removed from this pool.
+   *
+   * @param listener The listener.
+   */
+  public void addListener(@Nonnull TCSObjectPoolListener listener) {
+    listeners.add(requireNonNull(listener, "listener"));
+  }
+
+  /**
+   * Removes a listener.
+   *
+   * @param listener The listener.
+   */
+  public void removeListener(@Nonnull TCSObjectPoolListener listener) {
+    listeners.remove(requireNonNull(listener, "listener"));
   }
 
   /**
@@ -352,7 +551,7 @@ public class TCSObjectPool {
     requireNonNull(ref, "ref");
     requireNonNull(newName, "newName");
 
-    TCSObject<?> object = objectsByName.get(ref.getName());
+    TCSObject<?> object = workingObject(ref.getName());
     if (object == null) {
       throw new ObjectUnknownException("No such object in this pool.");
     }
@@ -361,16 +560,21 @@ public class TCSObjectPool {
     // Check if there is not already an object with the given name. Make an
     // exception for objects being reassigned their current names.
     if (!object.getName().equals(newName)
-        && objectsByName.containsKey(newName)) {
+        && workingObject(newName) != null) {
       throw new ObjectExistsException("old name: '" + object.getName()
           + "', new name: '" + newName + "'");
     }
-    // Perform the renaming.
-    objectsByName.remove(object.getName());
-    objectNameGenerator.removeString(object.getName());
-    object.setName(newName);
-    objectsByName.put(newName, object);
-    objectNameGenerator.addString(newName);
+    // Perform the renaming on a copy, as the object itself may still be read from the current
+    // snapshot.
+    synchronized (this) {
+      unstoreObject(object.getName());
+      objectNameGenerator.removeString(object.getName());
+      object = object.clone();
+      object.setName(newName);
+      storeObject(object, null);
+      objectNameGenerator.addString(newName);
+      publish();
+    }
 
     // Emit an event for the modified object.
     emitObjectEvent(object.clone(),
@@ -389,7 +593,7 @@ public class TCSObjectPool {
   public boolean contains(String objectName) {
     requireNonNull(objectName, "objectName");
 
-    return objectsByName.containsKey(objectName);
+    return readableSnapshot().objectsByName.containsKey(objectName);
   }
 
   /**
@@ -403,13 +607,16 @@ public class TCSObjectPool {
       throws ObjectUnknownException {
     requireNonNull(ref, "ref");
 
-    TCSObject<?> rmObject = objectsByName.remove(ref.getName());
-    if (rmObject == null) {
-      throw new ObjectUnknownException(ref);
+    synchronized (this) {
+      TCSObject<?> rmObject = unstoreObject(ref.getName());
+      if (rmObject == null) {
+        throw new ObjectUnknownException(ref);
+      }
+      idBits.clear(extractId(ref));
+      objectNameGenerator.removeString(rmObject.getName());
+      publish();
+      return rmObject;
     }
-    idBits.clear(extractId(ref));
-    objectNameGenerator.removeString(rmObject.getName());
-    return rmObject;
   }
 
   /**
@@ -423,14 +630,22 @@ public class TCSObjectPool {
     requireNonNull(objectNames, "objectNames");
 
     Set<TCSObject<?>> result = new HashSet<>();
-    for (String curName : objectNames) {
-      TCSObject<?> removedObject = objectsByName.remove(curName);
-      if (removedObject != null) {
-        result.add(removedObject);
-        idBits.clear(extractId(removedObject.getReference()));
-        objectNameGenerator.removeString(removedObject.getName());
+    beginMutationBatch();
+    try {
+      for (String curName : objectNames) {
+        synchronized (this) {
+          TCSObject<?> removedObject = unstoreObject(curName);
+          if (removedObject != null) {
+            result.add(removedObject);
+            idBits.clear(extractId(removedObject.getReference()));
+            objectNameGenerator.removeString(removedObject.getName());
+          }
+        }
       }
     }
+    finally {
+      endMutationBatch();
+    }
     return result;
   }
 
@@ -448,7 +663,7 @@ public class TCSObjectPool {
       throws ObjectUnknownException {
     requireNonNull(ref, "ref");
 
-    TCSObject<?> object = objectsByName.get(ref.getName());
+    TCSObject<?> object = workingObject(ref.getName());
     if (object == null) {
       throw new ObjectUnknownException("No object with name " + ref.getName());
     }
@@ -458,7 +673,10 @@ public class TCSObjectPool {
               key,
               value);
     object = object.withProperty(key, value);
-    objectsByName.put(object.getName(), object);
+    synchronized (this) {
+      storeObject(object, previousState);
+      publish();
+    }
     emitObjectEvent(object.clone(),
                     previousState,
                     TCSObjectEvent.Type.OBJECT_MODIFIED);
@@ -476,14 +694,28 @@ public class TCSObjectPool {
       throws ObjectUnknownException {
     requireNonNull(ref, "ref");
 
-    TCSObject<?> object = objectsByName.get(ref.getName());
+    TCSObject<?> object = workingObject(ref.getName());
     if (object == null) {
       throw new ObjectUnknownException("No object with name " + ref.getName());
     }
     TCSObject<?> previousState = object.clone();
     LOG.debug("Appending history entry to object named '{}': {}", ref.getName(), entry);
     object = object.withHistoryEntry(entry);
-    objectsByName.put(object.getName(), object);
+    List<ObjectHistory.Entry> spilledEntries = Collections.emptyList();
+    ObjectHistory history = object.getHistory();
+    if (maxHistoryEntries > 0 && history.size() > maxHistoryEntries) {
+      // Remove a batch of entries at once, as removing copies all entries that are retained.
+      int spillCount = history.size() - maxHistoryEntries + maxHistoryEntries / 4;
+      spilledEntries = history.getEntries().subList(0, spillCount);
+      object = object.withHistory(history.withOldestEntriesRemoved(spillCount));
+    }
+    synchronized (this) {
+      storeObject(object, previousState);
+      publish();
+    }
+    if (!spilledEntries.isEmpty()) {
+      historyArchive.archive(ref, spilledEntries);
+    }
     emitObjectEvent(object.clone(), previousState, TCSObjectEvent.Type.OBJECT_MODIFIED);
   }
 
@@ -498,13 +730,16 @@ public class TCSObjectPool {
       throws ObjectUnknownException {
     requireNonNull(ref, "ref");
 
-    TCSObject<?> object = objectsByName.get(ref.getName());
+    TCSObject<?> object = workingObject(ref.getName());
     if (object == null) {
       throw new ObjectUnknownException("No object with name " + ref.getName());
     }
     TCSObject<?> previousState = object.clone();
     object = object.withProperties(new HashMap<>());
-    objectsByName.put(object.getName(), object);
+    synchronized (this) {
+      storeObject(object, previousState);
+      publish();
+    }
     emitObjectEvent(object.clone(),
                     previousState,
                     TCSObjectEvent.Type.OBJECT_MODIFIED);
@@ -516,7 +751,7 @@ public class TCSObjectPool {
    * @return The number of objects kept in this pool.
    */
   public int size() {
-    return objectsByName.size();
+    return readableSnapshot().objectsByName.size();
   }
 
   /**
@@ -526,7 +761,58 @@ public class TCSObjectPool {
    * objects.
    */
   public boolean isEmpty() {
-    return objectsByName.isEmpty();
+    return readableSnapshot().objectsByName.isEmpty();
+  }
+
+  /**
+   * Returns the version of the latest published snapshot, which is incremented with every
+   * modification (or batch of modifications) of this pool.
+   *
+   * @return The version of the latest published snapshot.
+   */
+  public long getSnapshotVersion() {
+    return snapshot.version;
+  }
+
+  /**
+   * Begins a batch of modifications.
+   * Until the batch is ended via {@link #endMutationBatch()}, modifications of this pool are not
+   * visible to readers, and events emitted via {@link #emitObjectEvent(TCSObject, TCSObject,
+   * TCSObjectEvent.Type)} by the batch's thread are held back. Batches may be nested, in which case
+   * the modifications are published and the events emitted when the outermost batch ends.
+   * <p>
+   * This method and {@link #endMutationBatch()} must be called by the same thread, and the
+   * thread should hold the kernel's global synchronization object for the whole batch. Reads by
+   * this thread see the modifications of the batch immediately.
+   * </p>
+   */
+  public synchronized void beginMutationBatch() {
+    checkState(mutationBatchOwner == null || mutationBatchOwner == Thread.currentThread(),
+               "Mutation batch opened by another thread");
+    mutationBatchDepth++;
+    mutationBatchOwner = Thread.currentThread();
+  }
+
+  /**
+   * Ends a batch of modifications started via {@link #beginMutationBatch()}, publishing the
+   * modifications if it is the outermost batch.
+   */
+  public void endMutationBatch() {
+    List<TCSObjectEvent> events;
+    synchronized (this) {
+      checkState(mutationBatchDepth > 0, "No mutation batch open");
+      mutationBatchDepth--;
+      if (mutationBatchDepth > 0) {
+        return;
+      }
+      mutationBatchOwner = null;
+      publish();
+      events = new ArrayList<>(deferredEvents);
+      deferredEvents.clear();
+    }
+    for (TCSObjectEvent event : events) {
+      eventHandler.onEvent(event);
+    }
   }
 
   /**
@@ -562,6 +848,7 @@ public class TCSObjectPool {
 
   /**
    * Emits an event for the given object with the given type.
+   * If the calling thread has opened a mutation batch, the event is emitted when the batch ends.
    *
    * @param currentObjectState The current state of the object to emit an event
    * for.
@@ -572,11 +859,205 @@ public class TCSObjectPool {
   public void emitObjectEvent(TCSObject<?> currentObjectState,
                               TCSObject<?> previousObjectState,
                               TCSObjectEvent.Type evtType) {
-    eventHandler.onEvent(new TCSObjectEvent(currentObjectState, previousObjectState, evtType));
+    TCSObjectEvent event = new TCSObjectEvent(currentObjectState, previousObjectState, evtType);
+    if (mutationBatchOwner == Thread.currentThread()) {
+      synchronized (this) {
+        deferredEvents.add(event);
+      }
+      return;
+    }
+    eventHandler.onEvent(event);
+  }
+
+  /**
+   * Stores the given object in this pool, updates the secondary indexes and notifies the listeners.
+   *
+   * @param object The object to be stored.
+   * @param previousState The object's previous state, or {@code null}, if the object is new.
+   */
+  private void storeObject(TCSObject<?> object, @Nullable TCSObject<?> previousState) {
+    objectsByName = objectsByName.plus(object.getName(), object);
+    PersistentHashMap<String, TCSObject<?>> bucket = objectsByClass.get(object.getClass());
+    objectsByClass = objectsByClass.plus(
+        object.getClass(),
+        (bucket == null ? PersistentHashMap.<String, TCSObject<?>>empty() : bucket)
+            .plus(object.getName(), object)
+    );
+    for (TCSObjectIndex<?, ?> index : indexes) {
+      if (index.covers(object)) {
+        updateIndex(index, previousState, object);
+      }
+    }
+    for (TCSObjectPoolListener listener : listeners) {
+      listener.objectStored(object);
+    }
+  }
+
+  /**
+   * Removes the object with the given name from this pool, updates the secondary indexes and
+   * notifies the listeners.
+   *
+   * @param name The name of the object to be removed.
+   * @return The removed object, or {@code null}, if there was no object with the given name.
+   */
+  @Nullable
+  private TCSObject<?> unstoreObject(String name) {
+    TCSObject<?> object = objectsByName.get(name);
+    if (object == null) {
+      return null;
+    }
+    objectsByName = objectsByName.minus(name);
+    PersistentHashMap<String, TCSObject<?>> bucket = objectsByClass.get(object.getClass());
+    if (bucket != null) {
+      objectsByClass = objectsByClass.plus(object.getClass(), bucket.minus(name));
+    }
+    for (TCSObjectIndex<?, ?> index : indexes) {
+      if (index.covers(object)) {
+        updateIndex(index, object, null);
+      }
+    }
+    for (TCSObjectPoolListener listener : listeners) {
+      listener.objectRemoved(object);
+    }
+    return object;
+  }
+
+  /**
+   * Updates the entries of the given index for an object that has been added, replaced or removed.
+   *
+   * @param index The index.
+   * @param previousState The object's previous state, or {@code null}, if it has been added.
+   * @param currentState The object's current state, or {@code null}, if it has been removed.
+   */
+  private void updateIndex(TCSObjectIndex<?, ?> index,
+                           @Nullable TCSObject<?> previousState,
+                           @Nullable TCSObject<?> currentState) {
+    PersistentHashMap<Object, PersistentHashMap<String, TCSObject<?>>> entries
+        = indexEntries.get(index);
+    indexEntries = indexEntries.plus(
+        index,
+        index.update(entries == null ? PersistentHashMap.empty() : entries,
+                     previousState,
+                     currentState)
+    );
+  }
+
+  /**
+   * Returns the snapshot to be used for reading: the latest published one or, for the thread
+   * performing a mutation batch, one including the batch's modifications so far.
+   *
+   * @return The snapshot to be used for reading.
+   */
+  private Snapshot readableSnapshot() {
+    if (mutationBatchOwner != Thread.currentThread()) {
+      return snapshot;
+    }
+    synchronized (this) {
+      return new Snapshot(snapshot.version, objectsByName, objectsByClass, indexEntries);
+    }
+  }
+
+  /**
+   * Returns the object with the given name, including unpublished modifications.
+   *
+   * @param name The object's name.
+   * @return The object, or {@code null}, if there is no such object.
+   */
+  private synchronized TCSObject<?> workingObject(String name) {
+    return objectsByName.get(name);
+  }
+
+  /**
+   * Publishes the current state of this pool as a new snapshot, unless a mutation batch is open.
+   * Must be called while holding this pool's monitor.
+   */
+  private void publish() {
+    if (mutationBatchDepth == 0) {
+      snapshot = new Snapshot(snapshot.version + 1, objectsByName, objectsByClass, indexEntries);
+    }
+  }
+
+  /**
+   * Returns the buckets of the given snapshot containing the objects that are instances of the
+   * given class.
+   *
+   * @param snapshot The snapshot.
+   * @param clazz The class.
+   * @return The buckets containing the objects that are instances of the given class.
+   */
+  private static Collection<PersistentHashMap<String, TCSObject<?>>> bucketsOf(Snapshot snapshot,
+                                                                                Class<?> clazz) {
+    List<PersistentHashMap<String, TCSObject<?>>> result = new ArrayList<>();
+    snapshot.objectsByClass.forEach((bucketClass, bucket) -> {
+      if (clazz.isAssignableFrom(bucketClass)) {
+        result.add(bucket);
+      }
+    });
+    return result;
+  }
+
+  @Nullable
+  private TCSObjectIndex<?, ?> findIndex(Class<?> objectType, Class<?> keyType) {
+    return indexes.stream()
+        .filter(index -> index.getObjectType().equals(objectType))
+        .filter(index -> index.getKeyType().equals(keyType))
+        .findAny()
+        .orElse(null);
+  }
+
+  private static Collection<TCSObject<?>> lookup(
+      PersistentHashMap<Object, PersistentHashMap<String, TCSObject<?>>> entries,
+      Object key) {
+    PersistentHashMap<String, TCSObject<?>> objects = entries.get(key);
+    if (objects == null) {
+      return Collections.emptyList();
+    }
+    List<TCSObject<?>> result = new ArrayList<>(objects.size());
+    objects.forEach((name, object) -> result.add(object));
+    return result;
   }
 
   @SuppressWarnings("deprecation")
   private int extractId(TCSObjectReference<?> ref) {
     return ref.getId();
   }
+
+  /**
+   * An immutable snapshot of the objects in this pool.
+   */
+  private static final class Snapshot {
+
+    /**
+     * The snapshot's version.
+     */
+    private final long version;
+    /**
+     * The objects, mapped by their names.
+     */
+    private final PersistentHashMap<String, TCSObject<?>> objectsByName;
+    /**
+     * The objects, mapped by their classes and names.
+     */
+    private final PersistentHashMap<Class<?>, PersistentHashMap<String, TCSObject<?>>>
+        objectsByClass;
+    /**
+     * The entries of the secondary indexes, mapped by index.
+     */
+    private final PersistentHashMap<TCSObjectIndex<?, ?>,
+                                    PersistentHashMap<Object,
+                                                      PersistentHashMap<String, TCSObject<?>>>>
+        indexEntries;
+
+    Snapshot(long version,
+             PersistentHashMap<String, TCSObject<?>> objectsByName,
+             PersistentHashMap<Class<?>, PersistentHashMap<String, TCSObject<?>>> objectsByClass,
+             PersistentHashMap<TCSObjectIndex<?, ?>,
+                               PersistentHashMap<Object, PersistentHashMap<String, TCSObject<?>>>>
+                 indexEntries) {
+      this.version = version;
+      this.objectsByName = objectsByName;
+      this.objectsByClass = objectsByClass;
+      this.indexEntries = indexEntries;
+    }
+  }
 }
@@ -0,0 +1,36 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.kernel.workingset;
+
+import javax.annotation.Nonnull;
+import org.opentcs.data.TCSObject;
+
+/**
+ * Is notified of every object stored in or removed from a {@link TCSObjectPool}.
+ * <p>
+ * Unlike object events, notifications are made while the pool is locked, in the exact order of
+ * the modifications and without any objects being cloned. Implementations must return quickly and
+ * must not access the pool.
+ * </p>
+ */
+public interface TCSObjectPoolListener {
+
+  /**
+   * Called after an object has been added to the pool or replaced with a new state.
+   *
+   * @param object The object's new state.
+   */
+  void objectStored(@Nonnull TCSObject<?> object);
+
+  /**
+   * Called after an object has been removed from the pool.
+   *
+   * @param object The object's last state.
+   */
+  void objectRemoved(@Nonnull TCSObject<?> object);
+}
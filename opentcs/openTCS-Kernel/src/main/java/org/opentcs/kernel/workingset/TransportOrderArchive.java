@@ -0,0 +1,743 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.kernel.workingset;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import org.opentcs.access.to.order.TransportOrderArchiveQuery;
+import org.opentcs.components.Lifecycle;
+import org.opentcs.customizations.ApplicationHome;
+import org.opentcs.data.TCSObjectReference;
+import org.opentcs.data.order.TransportOrder;
+import static org.opentcs.util.Assertions.checkArgument;
+import static org.opentcs.util.Assertions.checkState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An on-disk archive of transport orders that reached a final state.
+ * <p>
+ * Archived transport orders are appended to log files (segments), each record prefixed with the
+ * values it is indexed by: the time it was archived at, the vehicle that processed it (or was intended to), its
+ * state and its category. Only these values and the records' positions are kept in memory, in
+ * lists sorted by archiving time, so queries can select the smallest matching list and find the
+ * requested time range by binary search. The transport orders themselves are only read from disk
+ * for the page of results requested.
+ * </p>
+ * <p>
+ * The archive keeps a configurable maximum number of transport orders for a configurable maximum
+ * time. Older transport orders are removed from the index, and a segment is deleted once none of
+ * its transport orders are indexed any more. A new segment is started after a number of records
+ * derived from the maximum number of transport orders and at least once a day, so the files on
+ * disk exceed the limits by about one segment at most.
+ * </p>
+ * <p>
+ * Records are written by a separate thread and are not synchronized to disk individually. A
+ * transport order whose record is lost on a crash is still recovered in its final state from the
+ * {@link TransportOrderJournal}, if journaling is enabled, and archived again.
+ * </p>
+ */
+public class TransportOrderArchive
+    implements Lifecycle {
+
+  /**
+   * This class's logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(TransportOrderArchive.class);
+  /**
+   * The pattern of the segment files' names, containing the segments' sequence numbers.
+   */
+  private static final Pattern SEGMENT_FILE_NAME = Pattern.compile("orders\\.(\\d+)\\.archive");
+  /**
+   * The maximum number of records in a segment.
+   */
+  private static final int MAX_SEGMENT_RECORDS = 10000;
+  /**
+   * The minimum number of records in a segment that was not started on another day.
+   */
+  private static final int MIN_SEGMENT_RECORDS = 100;
+  /**
+   * The maximum time (in ms) between the first record of a segment and the last one.
+   */
+  private static final long MAX_SEGMENT_DURATION = TimeUnit.DAYS.toMillis(1);
+  /**
+   * The fraction of the limits that transport orders are pruned in excess of (when the maximum
+   * number is exceeded) or in arrears of (when the maximum age is exceeded), so pruning does not
+   * happen for every transport order archived.
+   */
+  private static final int PRUNING_SLACK_DIVISOR = 100;
+  /**
+   * This class's configuration.
+   */
+  private final TransportOrderArchiveConfiguration configuration;
+  /**
+   * The directory the archive is written to.
+   */
+  private final File directory;
+  /**
+   * Provides the current time (in ms).
+   */
+  private final LongSupplier clock;
+  /**
+   * The maximum number of transport orders kept, or 0, if there is no limit.
+   */
+  private final int maxOrders;
+  /**
+   * The maximum time (in ms) transport orders are kept for, or 0, if there is no limit.
+   */
+  private final long maxAge;
+  /**
+   * The number of records after which a new segment is started.
+   */
+  private final int segmentRecords;
+  /**
+   * All archived transport orders, sorted by archiving time.
+   */
+  private final List<Entry> entries = new ArrayList<>();
+  /**
+   * The archived transport orders, mapped by the names of the vehicles that processed them.
+   */
+  private final Map<String, List<Entry>> entriesByVehicle = new HashMap<>();
+  /**
+   * The archived transport orders, mapped by their states.
+   */
+  private final Map<TransportOrder.State, List<Entry>> entriesByState
+      = new EnumMap<>(TransportOrder.State.class);
+  /**
+   * The archived transport orders, mapped by their categories.
+   */
+  private final Map<String, List<Entry>> entriesByCategory = new HashMap<>();
+  /**
+   * The names of all archived transport orders.
+   */
+  private final Set<String> archivedNames = new HashSet<>();
+  /**
+   * The channels of all segment files, mapped by the segments' sequence numbers.
+   */
+  private final TreeMap<Long, FileChannel> segments = new TreeMap<>();
+  /**
+   * The sequence number of the segment written to.
+   * Accessed by the writer thread only, once initialized.
+   */
+  private long currentSegment;
+  /**
+   * The number of records in the segment written to.
+   * Accessed by the writer thread only, once initialized.
+   */
+  private int currentSegmentRecords;
+  /**
+   * The time (in ms) the first transport order in the segment written to was archived at.
+   * Accessed by the writer thread only, once initialized.
+   */
+  private long currentSegmentStart;
+  /**
+   * Writes records to the archive file.
+   */
+  private ExecutorService writer;
+  /**
+   * The time (in ms) the most recent transport order was archived at.
+   * Accessed by the writer thread only.
+   */
+  private long lastArchivingTime;
+  /**
+   * Whether this instance is initialized.
+   */
+  private boolean initialized;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param configuration This class's configuration.
+   * @param homeDirectory The application's home directory.
+   */
+  @Inject
+  public TransportOrderArchive(TransportOrderArchiveConfiguration configuration,
+                               @ApplicationHome File homeDirectory) {
+    this(configuration, homeDirectory, System::currentTimeMillis);
+  }
+
+  /**
+   * Creates a new instance.
+   *
+   * @param configuration This class's configuration.
+   * @param homeDirectory The application's home directory.
+   * @param clock Provides the current time (in ms).
+   */
+  TransportOrderArchive(TransportOrderArchiveConfiguration configuration,
+                        File homeDirectory,
+                        LongSupplier clock) {
+    this.configuration = requireNonNull(configuration, "configuration");
+    requireNonNull(homeDirectory, "homeDirectory");
+    this.clock = requireNonNull(clock, "clock");
+    checkArgument(configuration.maxOrders() >= 0,
+                  "maxOrders must not be negative: %s",
+                  configuration.maxOrders());
+    checkArgument(configuration.maxAge() >= 0,
+                  "maxAge must not be negative: %s",
+                  configuration.maxAge());
+    this.maxOrders = configuration.maxOrders();
+    this.maxAge = TimeUnit.DAYS.toMillis(configuration.maxAge());
+    this.segmentRecords = maxOrders == 0
+        ? MAX_SEGMENT_RECORDS
+        : Math.max(MIN_SEGMENT_RECORDS, Math.min(MAX_SEGMENT_RECORDS, maxOrders / 10));
+
+    File configuredDirectory = new File(configuration.directory());
+    this.directory = configuredDirectory.isAbsolute()
+        ? configuredDirectory
+        : new File(homeDirectory, configuration.directory());
+  }
+
+  @Override
+  public void initialize() {
+    if (isInitialized()) {
+      return;
+    }
+    if (!isEnabled()) {
+      initialized = true;
+      return;
+    }
+
+    checkState(directory.isDirectory() || directory.mkdirs(),
+               "%s is not an existing directory and could not be created, either.",
+               directory.getPath());
+
+    long startTime = System.currentTimeMillis();
+    try {
+      for (Map.Entry<Long, File> segment : segmentFiles().entrySet()) {
+        openSegment(segment.getKey(), segment.getValue());
+      }
+      if (segments.isEmpty()) {
+        startSegment(0);
+      }
+      prune(clock.getAsLong());
+    }
+    catch (IOException exc) {
+      throw new IllegalStateException("Could not open transport order archive", exc);
+    }
+    LOG.info("Indexed {} archived transport orders in {} segments in {} ms",
+             entries.size(),
+             segments.size(),
+             System.currentTimeMillis() - startTime);
+
+    writer = Executors.newSingleThreadExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "transportOrderArchiveWriter");
+      thread.setDaemon(true);
+      return thread;
+    });
+
+    initialized = true;
+  }
+
+  @Override
+  public boolean isInitialized() {
+    return initialized;
+  }
+
+  @Override
+  public void terminate() {
+    if (!isInitialized()) {
+      return;
+    }
+
+    if (writer != null) {
+      writer.shutdown();
+      try {
+        if (!writer.awaitTermination(10, TimeUnit.SECONDS)) {
+          LOG.warn("Archive writer did not terminate in time.");
+        }
+        segments.get(currentSegment).force(false);
+      }
+      catch (InterruptedException exc) {
+        LOG.warn("Interrupted while waiting for the archive writer to terminate.");
+        Thread.currentThread().interrupt();
+      }
+      catch (IOException exc) {
+        LOG.warn("Exception closing transport order archive", exc);
+      }
+      writer = null;
+    }
+
+    synchronized (this) {
+      for (FileChannel channel : segments.values()) {
+        closeQuietly(channel);
+      }
+      segments.clear();
+      entries.clear();
+      entriesByVehicle.clear();
+      entriesByState.clear();
+      entriesByCategory.clear();
+      archivedNames.clear();
+    }
+
+    initialized = false;
+  }
+
+  /**
+   * Indicates whether archiving is enabled.
+   *
+   * @return {@code true} if, and only if, archiving is enabled.
+   */
+  public boolean isEnabled() {
+    return configuration.enable();
+  }
+
+  /**
+   * Archives the given transport order, which must be in a final state.
+   * The transport order is written asynchronously and becomes available to queries once written.
+   *
+   * @param order The transport order.
+   */
+  public void archive(@Nonnull TransportOrder order) {
+    requireNonNull(order, "order");
+
+    if (writer != null) {
+      writer.execute(() -> write(order));
+    }
+  }
+
+  /**
+   * Indicates whether a transport order with the given name has been archived.
+   *
+   * @param orderName The transport order's name.
+   * @return {@code true} if, and only if, a transport order with the given name has been archived.
+   */
+  public synchronized boolean contains(@Nonnull String orderName) {
+    return archivedNames.contains(orderName);
+  }
+
+  /**
+   * Returns the archived transport orders matching the given query.
+   *
+   * @param query The query.
+   * @return The matching transport orders, most recently archived first.
+   */
+  @Nonnull
+  public List<TransportOrder> query(@Nonnull TransportOrderArchiveQuery query) {
+    requireNonNull(query, "query");
+
+    List<Entry> matches = new ArrayList<>();
+    List<FileChannel> channels = new ArrayList<>();
+    synchronized (this) {
+      List<Entry> candidates = candidatesFor(query);
+      int start = query.getArchivedAfter() == null
+          ? 0
+          : firstIndexNotBefore(candidates, query.getArchivedAfter().toEpochMilli());
+      int end = query.getArchivedBefore() == null
+          ? candidates.size()
+          : firstIndexNotBefore(candidates, query.getArchivedBefore().toEpochMilli());
+      int skipped = 0;
+      for (int i = end - 1; i >= start && matches.size() < query.getLimit(); i--) {
+        Entry entry = candidates.get(i);
+        if (!entry.matches(query)) {
+          continue;
+        }
+        if (skipped < query.getOffset()) {
+          skipped++;
+          continue;
+        }
+        matches.add(entry);
+        channels.add(segments.get(entry.segment));
+      }
+    }
+
+    List<TransportOrder> result = new ArrayList<>(matches.size());
+    for (int i = 0; i < matches.size(); i++) {
+      Entry entry = matches.get(i);
+      try {
+        result.add(readOrder(RecordFiles.readRecord(channels.get(i), entry.position)));
+      }
+      catch (IOException exc) {
+        // The segment may have been pruned in the meantime.
+        LOG.warn("Could not read archived transport order {}", entry.orderName, exc);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the smallest list of entries that contains all entries matching the given query.
+   */
+  private List<Entry> candidatesFor(TransportOrderArchiveQuery query) {
+    List<Entry> candidates = entries;
+    if (query.getVehicleName() != null) {
+      candidates = smaller(candidates, entriesByVehicle.get(query.getVehicleName()));
+    }
+    if (query.getState() != null) {
+      candidates = smaller(candidates, entriesByState.get(query.getState()));
+    }
+    if (query.getCategory() != null) {
+      candidates = smaller(candidates, entriesByCategory.get(query.getCategory()));
+    }
+    return candidates;
+  }
+
+  private static List<Entry> smaller(List<Entry> candidates, @Nullable List<Entry> indexed) {
+    if (indexed == null) {
+      return Collections.emptyList();
+    }
+    return indexed.size() < candidates.size() ? indexed : candidates;
+  }
+
+  /**
+   * Returns the index of the first entry archived at or after the given time.
+   */
+  private static int firstIndexNotBefore(List<Entry> candidates, long time) {
+    int low = 0;
+    int high = candidates.size();
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (candidates.get(middle).archivingTime < time) {
+        low = middle + 1;
+      }
+      else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  private void write(TransportOrder order) {
+    // Keep archiving times monotonic, as the index relies on it.
+    long archivingTime = Math.max(clock.getAsLong(), lastArchivingTime);
+    Entry entry = new Entry(0,
+                            0,
+                            archivingTime,
+                            order.getName(),
+                            vehicleNameOf(order),
+                            order.getState(),
+                            order.getCategory());
+    try {
+      if (currentSegmentRecords >= segmentRecords
+          || (currentSegmentRecords > 0
+              && archivingTime - currentSegmentStart >= MAX_SEGMENT_DURATION)) {
+        segments.get(currentSegment).force(false);
+        startSegment(currentSegment + 1);
+      }
+      if (currentSegmentRecords == 0) {
+        currentSegmentStart = archivingTime;
+      }
+
+      FileChannel channel = segments.get(currentSegment);
+      long position = channel.position();
+      RecordFiles.write(RecordFiles.toRecords(Collections.singletonList(toRecord(entry, order))),
+                        channel);
+      index(entry.at(currentSegment, position));
+      currentSegmentRecords++;
+      lastArchivingTime = archivingTime;
+      prune(archivingTime);
+    }
+    catch (IOException exc) {
+      LOG.warn("Could not archive transport order {}", order.getName(), exc);
+    }
+  }
+
+  /**
+   * Returns the existing segment files, mapped by the segments' sequence numbers.
+   */
+  private Map<Long, File> segmentFiles() {
+    Map<Long, File> result = new TreeMap<>();
+    File[] files = directory.listFiles();
+    if (files != null) {
+      for (File file : files) {
+        Matcher matcher = SEGMENT_FILE_NAME.matcher(file.getName());
+        if (matcher.matches()) {
+          result.put(Long.parseLong(matcher.group(1)), file);
+        }
+      }
+    }
+    return result;
+  }
+
+  private File segmentFile(long segment) {
+    return new File(directory, String.format("orders.%010d.archive", segment));
+  }
+
+  /**
+   * Indexes an existing segment and makes it the one written to.
+   */
+  private void openSegment(long segment, File file)
+      throws IOException {
+    currentSegment = segment;
+    currentSegmentRecords = 0;
+    long validLength = RecordFiles.readRecords(file, (position, payload) -> {
+      Entry entry = readEntry(new DataInputStream(new ByteArrayInputStream(payload)));
+      if (currentSegmentRecords == 0) {
+        currentSegmentStart = entry.archivingTime;
+      }
+      index(entry.at(segment, position));
+      lastArchivingTime = Math.max(lastArchivingTime, entry.archivingTime);
+      currentSegmentRecords++;
+    });
+
+    FileChannel channel = FileChannel.open(file.toPath(),
+                                           StandardOpenOption.READ,
+                                           StandardOpenOption.WRITE);
+    if (channel.size() > validLength) {
+      LOG.warn("Discarding {} bytes of incomplete records at the end of {}",
+               channel.size() - validLength,
+               file);
+      channel.truncate(validLength);
+    }
+    channel.position(validLength);
+    synchronized (this) {
+      segments.put(segment, channel);
+    }
+  }
+
+  /**
+   * Creates a new segment and makes it the one written to.
+   */
+  private void startSegment(long segment)
+      throws IOException {
+    FileChannel channel = FileChannel.open(segmentFile(segment).toPath(),
+                                           StandardOpenOption.CREATE,
+                                           StandardOpenOption.READ,
+                                           StandardOpenOption.WRITE);
+    synchronized (this) {
+      segments.put(segment, channel);
+    }
+    currentSegment = segment;
+    currentSegmentRecords = 0;
+  }
+
+  /**
+   * Removes transport orders exceeding the configured limits from the index, and deletes segments
+   * no longer containing any indexed transport orders.
+   */
+  private synchronized void prune(long now) {
+    int count = 0;
+    if (maxOrders > 0 && entries.size() > maxOrders) {
+      count = entries.size() - maxOrders + maxOrders / PRUNING_SLACK_DIVISOR;
+    }
+    if (maxAge > 0
+        && !entries.isEmpty()
+        && entries.get(0).archivingTime < now - maxAge - maxAge / PRUNING_SLACK_DIVISOR) {
+      count = Math.max(count, firstIndexNotBefore(entries, now - maxAge));
+    }
+    if (count == 0) {
+      return;
+    }
+
+    Entry lastPruned = entries.get(count - 1);
+    List<Entry> pruned = entries.subList(0, count);
+    for (Entry entry : pruned) {
+      archivedNames.remove(entry.orderName);
+    }
+    pruned.clear();
+    pruneIndex(entriesByVehicle, lastPruned);
+    pruneIndex(entriesByState, lastPruned);
+    pruneIndex(entriesByCategory, lastPruned);
+
+    long firstRetainedSegment = entries.isEmpty() ? currentSegment : entries.get(0).segment;
+    Iterator<Map.Entry<Long, FileChannel>> iter
+        = segments.headMap(Math.min(firstRetainedSegment, currentSegment)).entrySet().iterator();
+    while (iter.hasNext()) {
+      Map.Entry<Long, FileChannel> segment = iter.next();
+      closeQuietly(segment.getValue());
+      File file = segmentFile(segment.getKey());
+      if (!file.delete()) {
+        LOG.warn("Could not delete archive segment {}", file);
+      }
+      iter.remove();
+    }
+    LOG.debug("Pruned {} archived transport orders, {} remaining", count, entries.size());
+  }
+
+  /**
+   * Removes all entries up to and including the given one from the given index.
+   */
+  private static <K> void pruneIndex(Map<K, List<Entry>> index, Entry lastPruned) {
+    Iterator<List<Entry>> iter = index.values().iterator();
+    while (iter.hasNext()) {
+      List<Entry> indexed = iter.next();
+      int count = 0;
+      while (count < indexed.size() && !indexed.get(count).isAfter(lastPruned)) {
+        count++;
+      }
+      if (count == indexed.size()) {
+        iter.remove();
+      }
+      else {
+        indexed.subList(0, count).clear();
+      }
+    }
+  }
+
+  private static void closeQuietly(FileChannel channel) {
+    try {
+      channel.close();
+    }
+    catch (IOException exc) {
+      LOG.warn("Exception closing archive segment", exc);
+    }
+  }
+
+  private synchronized void index(Entry entry) {
+    entries.add(entry);
+    archivedNames.add(entry.orderName);
+    if (entry.vehicleName != null) {
+      entriesByVehicle.computeIfAbsent(entry.vehicleName, name -> new ArrayList<>()).add(entry);
+    }
+    entriesByState.computeIfAbsent(entry.state, state -> new ArrayList<>()).add(entry);
+    entriesByCategory.computeIfAbsent(entry.category, category -> new ArrayList<>()).add(entry);
+  }
+
+  @Nullable
+  private static String vehicleNameOf(TransportOrder order) {
+    TCSObjectReference<?> vehicleRef = order.getProcessingVehicle() != null
+        ? order.getProcessingVehicle()
+        : order.getIntendedVehicle();
+    return vehicleRef == null ? null : vehicleRef.getName();
+  }
+
+  private static byte[] toRecord(Entry entry, TransportOrder order)
+      throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(2048);
+    DataOutputStream out = new DataOutputStream(bytes);
+    out.writeLong(entry.archivingTime);
+    out.writeUTF(entry.orderName);
+    out.writeUTF(entry.vehicleName == null ? "" : entry.vehicleName);
+    out.writeUTF(entry.state.name());
+    out.writeUTF(entry.category);
+    out.flush();
+    try (ObjectOutputStream objectOut = new ObjectOutputStream(bytes)) {
+      objectOut.writeObject(order);
+    }
+    return bytes.toByteArray();
+  }
+
+  private static Entry readEntry(DataInputStream in)
+      throws IOException {
+    long archivingTime = in.readLong();
+    String orderName = in.readUTF();
+    String vehicleName = in.readUTF();
+    String state = in.readUTF();
+    String category = in.readUTF();
+    try {
+      return new Entry(0,
+                       0,
+                       archivingTime,
+                       orderName,
+                       vehicleName.isEmpty() ? null : vehicleName,
+                       TransportOrder.State.valueOf(state),
+                       category);
+    }
+    catch (IllegalArgumentException exc) {
+      throw new IOException("Unknown transport order state " + state, exc);
+    }
+  }
+
+  private static TransportOrder readOrder(byte[] payload)
+      throws IOException {
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+    readEntry(in);
+    try (ObjectInputStream objectIn = new ObjectInputStream(in)) {
+      return (TransportOrder) objectIn.readObject();
+    }
+    catch (ClassNotFoundException | ClassCastException exc) {
+      throw new IOException("Could not deserialize archived transport order", exc);
+    }
+  }
+
+  /**
+   * The indexed values of an archived transport order.
+   */
+  private static class Entry {
+
+    /**
+     * The sequence number of the segment containing the transport order's record.
+     */
+    private final long segment;
+    /**
+     * The position of the transport order's record in the segment file.
+     */
+    private final long position;
+    /**
+     * The time (in ms) the transport order was archived at.
+     */
+    private final long archivingTime;
+    /**
+     * The transport order's name.
+     */
+    private final String orderName;
+    /**
+     * The name of the vehicle that processed (or was intended to process) the transport order.
+     */
+    @Nullable
+    private final String vehicleName;
+    /**
+     * The transport order's state.
+     */
+    private final TransportOrder.State state;
+    /**
+     * The transport order's category.
+     */
+    private final String category;
+
+    Entry(long segment,
+          long position,
+          long archivingTime,
+          String orderName,
+          @Nullable String vehicleName,
+          TransportOrder.State state,
+          String category) {
+      this.segment = segment;
+      this.position = position;
+      this.archivingTime = archivingTime;
+      this.orderName = orderName;
+      this.vehicleName = vehicleName;
+      this.state = state;
+      this.category = category;
+    }
+
+    Entry at(long segment, long position) {
+      return new Entry(segment, position, archivingTime, orderName, vehicleName, state, category);
+    }
+
+    /**
+     * Indicates whether this entry's record was written after the given entry's one.
+     */
+    boolean isAfter(Entry entry) {
+      return segment > entry.segment || (segment == entry.segment && position > entry.position);
+    }
+
+    boolean matches(TransportOrderArchiveQuery query) {
+      return (query.getVehicleName() == null || query.getVehicleName().equals(vehicleName))
+          && (query.getState() == null || query.getState() == state)
+          && (query.getCategory() == null || query.getCategory().equals(category));
+    }
+  }
+}
@@ -0,0 +1,54 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.kernel.workingset;
+
+import org.opentcs.configuration.ConfigurationEntry;
+import org.opentcs.configuration.ConfigurationPrefix;
+
+/**
+ * Provides methods to configure the {@link TransportOrderArchive}.
+ */
+@ConfigurationPrefix(TransportOrderArchiveConfiguration.PREFIX)
+public interface TransportOrderArchiveConfiguration {
+
+  /**
+   * This configuration's prefix.
+   */
+  String PREFIX = "orderarchive";
+
+  @ConfigurationEntry(
+      type = "Boolean",
+      description = {
+        "Whether transport orders reaching a final state are archived to disk, so they can still",
+        "be queried after they have been removed from the kernel."},
+      orderKey = "0")
+  boolean enable();
+
+  @ConfigurationEntry(
+      type = "String",
+      description = {
+        "The directory the archive is written to.",
+        "Relative paths are resolved against the application's home directory."},
+      orderKey = "1")
+  String directory();
+
+  @ConfigurationEntry(
+      type = "Integer",
+      description = {
+        "The maximum number of archived transport orders kept. The oldest ones are removed when it",
+        "is exceeded. 0 for no limit."},
+      orderKey = "2")
+  int maxOrders();
+
+  @ConfigurationEntry(
+      type = "Integer",
+      description = {
+        "The maximum time (in days) archived transport orders are kept for. 0 for no limit."},
+      orderKey = "3")
+  int maxAge();
+}
@@ -0,0 +1,846 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.kernel.workingset;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import org.opentcs.access.KernelRuntimeException;
+import org.opentcs.customizations.ApplicationHome;
+import org.opentcs.data.TCSObject;
+import org.opentcs.data.TCSObjectReference;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.OrderSequence;
+import org.opentcs.data.order.TransportOrder;
+import static org.opentcs.util.Assertions.checkArgument;
+import static org.opentcs.util.Assertions.checkState;
+import org.opentcs.util.persistence.OrderReservationJournal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A write-ahead journal of the transport orders and order sequences in the {@link TCSObjectPool}
+ * and of the reservations of transport orders for vehicles.
+ * <p>
+ * Every time a transport order or order sequence is stored in or removed from the pool, a record
+ * with the object's new state or its removal is appended to the journal. Since records contain
+ * complete states, replaying them is idempotent and the last record for an object determines its
+ * recovered state. Records are written and synchronized to disk by a separate thread, which takes
+ * all records pending at a time, so modifications made concurrently share a single
+ * synchronization. A modification is announced only after {@link #awaitDurable()} returned, i.e.
+ * after its record has been synchronized to disk.
+ * </p>
+ * <p>
+ * Each record carries its length and a checksum. On recovery, a corrupt record is skipped and a
+ * record written incompletely when the process died is discarded. If writing fails repeatedly,
+ * journaling stops and every further attempt to make a modification durable fails.
+ * </p>
+ * <p>
+ * After a configurable number of records, the journal is compacted without delaying the records
+ * written meanwhile: The writer thread rotates the journal file to a numbered segment, continues
+ * with a new journal file and hands a copy of the journaled states and reservations to a separate
+ * thread. That thread writes them to a snapshot file, which atomically replaces the previous one,
+ * and deletes the segments it covers. On recovery, the snapshot, any remaining segments and the
+ * journal file are replayed in this order.
+ * </p>
+ */
+public class TransportOrderJournal
+    implements TCSObjectPoolListener,
+               OrderReservationJournal {
+
+  /**
+   * This class's logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(TransportOrderJournal.class);
+  /**
+   * The name of the journal file.
+   */
+  private static final String JOURNAL_FILE_NAME = "orders.journal";
+  /**
+   * The prefix of the names of rotated journal segments, which is followed by the segment's number.
+   */
+  private static final String SEGMENT_FILE_PREFIX = JOURNAL_FILE_NAME + ".";
+  /**
+   * The name of the snapshot file.
+   */
+  private static final String SNAPSHOT_FILE_NAME = "orders.snapshot";
+  /**
+   * The name of the snapshot file while it is being written.
+   */
+  private static final String SNAPSHOT_TEMP_FILE_NAME = "orders.snapshot.tmp";
+  /**
+   * The number of attempts to write a batch of records before journaling stops.
+   */
+  private static final int WRITE_ATTEMPTS = 3;
+  /**
+   * The time (in ms) to wait before the first retry. Doubled for every further retry.
+   */
+  private static final long RETRY_DELAY = 100;
+  /**
+   * Marks a record containing an object's new state.
+   */
+  private static final byte RECORD_STORED = 1;
+  /**
+   * Marks a record indicating an object's removal.
+   */
+  private static final byte RECORD_REMOVED = 2;
+  /**
+   * Marks a record containing a transport order's reservation for a vehicle.
+   */
+  private static final byte RECORD_RESERVED = 3;
+  /**
+   * Marks a record indicating the removal of a transport order's reservation.
+   */
+  private static final byte RECORD_UNRESERVED = 4;
+  /**
+   * This class's configuration.
+   */
+  private final TransportOrderJournalConfiguration configuration;
+  /**
+   * The directory the journal is written to.
+   */
+  private final File directory;
+  /**
+   * Guards the pending records and the counters and state shared with the writer thread.
+   */
+  private final Object recordsLock = new Object();
+  /**
+   * The records not yet written.
+   */
+  private List<Record> pendingRecords = new ArrayList<>();
+  /**
+   * The current reservations, including the ones not yet written.
+   */
+  private final Map<TCSObjectReference<TransportOrder>, TCSObjectReference<Vehicle>> reservations
+      = new HashMap<>();
+  /**
+   * The number of records accepted since the journal was opened.
+   */
+  private long acceptedCount;
+  /**
+   * The number of records synchronized to disk since the journal was opened.
+   */
+  private long durableCount;
+  /**
+   * Whether records are accepted.
+   */
+  private boolean accepting;
+  /**
+   * The exception that made writing the journal fail, if any.
+   */
+  @Nullable
+  private IOException failure;
+  /**
+   * The journaled objects' latest states, mapped by their names.
+   * Accessed by the writer thread only, once the journal is open.
+   */
+  private final Map<String, TCSObject<?>> journaledStates = new LinkedHashMap<>();
+  /**
+   * The journaled reservations.
+   * Accessed by the writer thread only, once the journal is open.
+   */
+  private final Map<TCSObjectReference<TransportOrder>, TCSObjectReference<Vehicle>> journaledReservations
+      = new LinkedHashMap<>();
+  /**
+   * The journal file.
+   */
+  private final File journalFile;
+  /**
+   * The journal file's channel.
+   */
+  private FileChannel journalChannel;
+  /**
+   * Writes pending records.
+   */
+  private Thread writer;
+  /**
+   * Writes snapshots.
+   */
+  private ExecutorService compactor;
+  /**
+   * Whether a snapshot is being written.
+   */
+  private volatile boolean compacting;
+  /**
+   * The number of the next rotated journal segment.
+   * Accessed by the writer thread only, once the journal is open.
+   */
+  private long nextSegmentNumber;
+  /**
+   * The number of records written since the last snapshot.
+   */
+  private int recordsSinceSnapshot;
+  /**
+   * The number of records written.
+   */
+  private long recordCount;
+  /**
+   * The number of bytes written.
+   */
+  private long byteCount;
+  /**
+   * The number of synchronizations to disk.
+   */
+  private long syncCount;
+  /**
+   * The accumulated time (in ns) spent writing and synchronizing batches.
+   */
+  private long writeTime;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param configuration This class's configuration.
+   * @param homeDirectory The application's home directory.
+   */
+  @Inject
+  public TransportOrderJournal(TransportOrderJournalConfiguration configuration,
+                               @ApplicationHome File homeDirectory) {
+    this.configuration = requireNonNull(configuration, "configuration");
+    requireNonNull(homeDirectory, "homeDirectory");
+    checkArgument(configuration.snapshotInterval() > 0,
+                  "snapshotInterval must be positive: %s",
+                  configuration.snapshotInterval());
+
+    File configuredDirectory = new File(configuration.directory());
+    this.directory = configuredDirectory.isAbsolute()
+        ? configuredDirectory
+        : new File(homeDirectory, configuration.directory());
+    this.journalFile = new File(directory, JOURNAL_FILE_NAME);
+  }
+
+  /**
+   * Indicates whether journaling is enabled.
+   *
+   * @return {@code true} if, and only if, journaling is enabled.
+   */
+  public boolean isEnabled() {
+    return configuration.enable();
+  }
+
+  /**
+   * Recovers the journaled objects and reservations and starts journaling.
+   *
+   * @return The recovered objects' latest states.
+   * @throws IllegalStateException If the journal is already open or could not be opened.
+   */
+  @Nonnull
+  public synchronized List<TCSObject<?>> open()
+      throws IllegalStateException {
+    checkState(writer == null, "Journal is already open");
+    checkState(directory.isDirectory() || directory.mkdirs(),
+               "%s is not an existing directory and could not be created, either.",
+               directory.getPath());
+
+    long startTime = System.currentTimeMillis();
+    journaledStates.clear();
+    journaledReservations.clear();
+    try {
+      readSnapshot(new File(directory, SNAPSHOT_FILE_NAME));
+      // Segments remain if the process died (or writing the snapshot failed) after their rotation.
+      Map<Long, File> segments = findSegments();
+      for (File segment : segments.values()) {
+        RecordFiles.readRecords(segment, this::replay);
+      }
+      nextSegmentNumber = segments.isEmpty() ? 1 : Collections.max(segments.keySet()) + 1;
+      long validLength = RecordFiles.readRecords(journalFile, this::replay);
+
+      journalChannel = FileChannel.open(journalFile.toPath(),
+                                        StandardOpenOption.CREATE,
+                                        StandardOpenOption.WRITE);
+      if (journalChannel.size() > validLength) {
+        LOG.warn("Discarding {} bytes of incomplete records at the end of {}",
+                 journalChannel.size() - validLength,
+                 journalFile);
+        journalChannel.truncate(validLength);
+        journalChannel.force(true);
+      }
+      journalChannel.position(validLength);
+    }
+    catch (IOException exc) {
+      throw new IllegalStateException("Could not open transport order journal", exc);
+    }
+    List<TCSObject<?>> result = new ArrayList<>(journaledStates.values());
+    LOG.info("Recovered {} transport orders and order sequences and {} reservations from {} in {} "
+        + "ms",
+             result.size(),
+             journaledReservations.size(),
+             directory,
+             System.currentTimeMillis() - startTime);
+
+    synchronized (recordsLock) {
+      reservations.clear();
+      reservations.putAll(journaledReservations);
+      pendingRecords.clear();
+      acceptedCount = 0;
+      durableCount = 0;
+      failure = null;
+      accepting = true;
+    }
+    compacting = false;
+    compactor = Executors.newSingleThreadExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "transportOrderJournalCompactor");
+      thread.setDaemon(true);
+      return thread;
+    });
+    writer = new Thread(this::writeRecords, "transportOrderJournalWriter");
+    writer.setDaemon(true);
+    writer.start();
+
+    return result;
+  }
+
+  /**
+   * Writes all pending records and stops journaling.
+   */
+  public synchronized void close() {
+    if (writer == null) {
+      return;
+    }
+
+    synchronized (recordsLock) {
+      accepting = false;
+      recordsLock.notifyAll();
+    }
+    try {
+      writer.join();
+      journalChannel.close();
+      compactor.shutdown();
+      if (!compactor.awaitTermination(1, TimeUnit.MINUTES)) {
+        LOG.warn("Snapshot of transport order journal not written within a minute");
+      }
+    }
+    catch (InterruptedException exc) {
+      LOG.warn("Interrupted while waiting for pending journal records to be written");
+      Thread.currentThread().interrupt();
+    }
+    catch (IOException exc) {
+      LOG.warn("Exception closing transport order journal", exc);
+    }
+    writer = null;
+    journalChannel = null;
+    compactor = null;
+    synchronized (recordsLock) {
+      reservations.clear();
+    }
+
+    LOG.info("Journaled {} records ({} bytes) in {} synchronizations, {} us per synchronization",
+             recordCount,
+             byteCount,
+             syncCount,
+             syncCount == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(writeTime) / syncCount);
+  }
+
+  /**
+   * Waits until all records accepted so far have been synchronized to disk.
+   * Returns immediately if the journal is not open.
+   *
+   * @throws KernelRuntimeException If writing the journal failed, i.e. if modifications can no
+   * longer be made durable.
+   */
+  public void awaitDurable()
+      throws KernelRuntimeException {
+    boolean interrupted = false;
+    synchronized (recordsLock) {
+      long target = acceptedCount;
+      while (durableCount < target && failure == null) {
+        try {
+          recordsLock.wait();
+        }
+        catch (InterruptedException exc) {
+          // Returning before the records are durable would break the write-ahead guarantee.
+          interrupted = true;
+        }
+      }
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+      if (failure != null) {
+        throw new KernelRuntimeException("Transport order journal failed", failure);
+      }
+    }
+  }
+
+  @Override
+  public void objectStored(@Nonnull TCSObject<?> object) {
+    if (isJournaled(object)) {
+      accept(new Record(RECORD_STORED, object.getName(), object, null, null));
+    }
+  }
+
+  @Override
+  public void objectRemoved(@Nonnull TCSObject<?> object) {
+    if (isJournaled(object)) {
+      accept(new Record(RECORD_REMOVED, object.getName(), null, null, null));
+    }
+  }
+
+  @Override
+  @Nonnull
+  public Map<TCSObjectReference<TransportOrder>, TCSObjectReference<Vehicle>> getReservations() {
+    synchronized (recordsLock) {
+      return new HashMap<>(reservations);
+    }
+  }
+
+  @Override
+  public void reservationAdded(@Nonnull TCSObjectReference<TransportOrder> orderRef,
+                               @Nonnull TCSObjectReference<Vehicle> vehicleRef) {
+    requireNonNull(orderRef, "orderRef");
+    requireNonNull(vehicleRef, "vehicleRef");
+
+    accept(new Record(RECORD_RESERVED, orderRef.getName(), null, orderRef, vehicleRef));
+    awaitDurable();
+  }
+
+  @Override
+  public void reservationRemoved(@Nonnull TCSObjectReference<TransportOrder> orderRef) {
+    requireNonNull(orderRef, "orderRef");
+
+    accept(new Record(RECORD_UNRESERVED, orderRef.getName(), null, orderRef, null));
+    awaitDurable();
+  }
+
+  private static boolean isJournaled(TCSObject<?> object) {
+    return object instanceof TransportOrder || object instanceof OrderSequence;
+  }
+
+  private void accept(Record record) {
+    synchronized (recordsLock) {
+      if (!accepting) {
+        return;
+      }
+      apply(record, reservations);
+      pendingRecords.add(record);
+      acceptedCount++;
+      recordsLock.notifyAll();
+    }
+  }
+
+  private void writeRecords() {
+    try {
+      while (true) {
+        List<Record> batch;
+        long batchEnd;
+        synchronized (recordsLock) {
+          while (accepting && pendingRecords.isEmpty()) {
+            recordsLock.wait();
+          }
+          if (pendingRecords.isEmpty()) {
+            return;
+          }
+          batch = pendingRecords;
+          batchEnd = acceptedCount;
+          pendingRecords = new ArrayList<>();
+        }
+
+        long batchStart = System.nanoTime();
+        writeBatch(batch);
+        writeTime += System.nanoTime() - batchStart;
+        synchronized (recordsLock) {
+          durableCount = batchEnd;
+          recordsLock.notifyAll();
+        }
+
+        if (recordsSinceSnapshot >= configuration.snapshotInterval() && !compacting) {
+          startSnapshot();
+        }
+      }
+    }
+    catch (IOException exc) {
+      fail(exc);
+    }
+    catch (InterruptedException exc) {
+      fail(new IOException("Interrupted while writing journal records", exc));
+    }
+  }
+
+  private void fail(IOException exc) {
+    LOG.error("Writing transport order journal failed, modifications can no longer be made durable",
+              exc);
+    synchronized (recordsLock) {
+      failure = exc;
+      accepting = false;
+      pendingRecords.clear();
+      recordsLock.notifyAll();
+    }
+  }
+
+  private void writeBatch(List<Record> batch)
+      throws IOException, InterruptedException {
+    List<byte[]> payloads = new ArrayList<>(batch.size());
+    for (Record record : batch) {
+      payloads.add(serialize(record));
+    }
+    ByteBuffer buffer = RecordFiles.toRecords(payloads);
+    int batchSize = buffer.remaining();
+    long batchPosition = journalChannel.position();
+
+    for (int attempt = 1;; attempt++) {
+      try {
+        if (attempt > 1) {
+          // Discard anything written by the failed attempt.
+          journalChannel.truncate(batchPosition);
+          journalChannel.position(batchPosition);
+          buffer.rewind();
+        }
+        RecordFiles.write(buffer, journalChannel);
+        journalChannel.force(false);
+        break;
+      }
+      catch (IOException exc) {
+        if (attempt >= WRITE_ATTEMPTS) {
+          throw exc;
+        }
+        LOG.warn("Writing {} journal records failed (attempt {} of {}), retrying",
+                 batch.size(),
+                 attempt,
+                 WRITE_ATTEMPTS,
+                 exc);
+        Thread.sleep(RETRY_DELAY << (attempt - 1));
+      }
+    }
+
+    for (Record record : batch) {
+      apply(record, journaledReservations);
+      if (record.type == RECORD_STORED) {
+        journaledStates.put(record.name, record.state);
+      }
+      else if (record.type == RECORD_REMOVED) {
+        journaledStates.remove(record.name);
+      }
+    }
+    recordsSinceSnapshot += batch.size();
+    recordCount += batch.size();
+    byteCount += batchSize;
+    syncCount++;
+  }
+
+  /**
+   * Rotates the journal file to a new segment and has the compactor write a snapshot of the
+   * journaled states and reservations, which are copied, as the writer thread keeps modifying them.
+   */
+  private void startSnapshot()
+      throws IOException {
+    List<TCSObject<?>> states = new ArrayList<>(journaledStates.values());
+    Map<TCSObjectReference<TransportOrder>, TCSObjectReference<Vehicle>> reservationsCopy
+        = new LinkedHashMap<>(journaledReservations);
+    long segmentNumber = nextSegmentNumber;
+    if (!rotateJournal(segmentNumber)) {
+      return;
+    }
+    nextSegmentNumber++;
+    recordsSinceSnapshot = 0;
+    compacting = true;
+    compactor.execute(() -> writeSnapshot(states, reservationsCopy, segmentNumber));
+  }
+
+  /**
+   * Moves the journal file's content to the segment with the given number and continues with a
+   * new, empty journal file.
+   *
+   * @return {@code true} if, and only if, the journal file was rotated.
+   * @throws IOException If the journal file could not be reopened.
+   */
+  private boolean rotateJournal(long segmentNumber)
+      throws IOException {
+    File segment = new File(directory, SEGMENT_FILE_PREFIX + segmentNumber);
+    try {
+      journalChannel.close();
+      Files.move(journalFile.toPath(), segment.toPath(), StandardCopyOption.ATOMIC_MOVE);
+    }
+    catch (IOException exc) {
+      // The journal file still contains all records, so continue appending to it and try again
+      // after the next batch.
+      LOG.warn("Could not rotate {} to {}", journalFile, segment, exc);
+      journalChannel = FileChannel.open(journalFile.toPath(),
+                                        StandardOpenOption.CREATE,
+                                        StandardOpenOption.WRITE);
+      journalChannel.position(journalChannel.size());
+      return false;
+    }
+    journalChannel = FileChannel.open(journalFile.toPath(),
+                                      StandardOpenOption.CREATE_NEW,
+                                      StandardOpenOption.WRITE);
+    syncDirectory();
+    return true;
+  }
+
+  private void writeSnapshot(
+      List<TCSObject<?>> states,
+      Map<TCSObjectReference<TransportOrder>, TCSObjectReference<Vehicle>> reservationsCopy,
+      long lastSegmentNumber) {
+    long startTime = System.currentTimeMillis();
+    File tempFile = new File(directory, SNAPSHOT_TEMP_FILE_NAME);
+    try {
+      try (FileOutputStream fileOut = new FileOutputStream(tempFile);
+           ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(fileOut))) {
+        out.writeInt(states.size());
+        for (TCSObject<?> object : states) {
+          out.writeObject(object);
+        }
+        out.writeInt(reservationsCopy.size());
+        for (Map.Entry<TCSObjectReference<TransportOrder>, TCSObjectReference<Vehicle>> entry
+                 : reservationsCopy.entrySet()) {
+          out.writeObject(entry.getKey());
+          out.writeObject(entry.getValue());
+        }
+        out.flush();
+        fileOut.getFD().sync();
+      }
+      Files.move(tempFile.toPath(),
+                 new File(directory, SNAPSHOT_FILE_NAME).toPath(),
+                 StandardCopyOption.ATOMIC_MOVE,
+                 StandardCopyOption.REPLACE_EXISTING);
+      syncDirectory();
+
+      // Replaying the old records on top of the new snapshot would not do any harm, so a crash
+      // before the segments are deleted is not a problem.
+      for (Map.Entry<Long, File> entry : findSegments().entrySet()) {
+        if (entry.getKey() <= lastSegmentNumber) {
+          Files.delete(entry.getValue().toPath());
+        }
+      }
+
+      LOG.debug("Wrote snapshot of {} objects and {} reservations in {} ms",
+                states.size(),
+                reservationsCopy.size(),
+                System.currentTimeMillis() - startTime);
+    }
+    catch (IOException exc) {
+      // The segments still contain all records, so nothing is lost. The next snapshot covers them.
+      LOG.warn("Could not write snapshot {}", tempFile, exc);
+    }
+    finally {
+      compacting = false;
+    }
+  }
+
+  /**
+   * Returns the rotated journal segments, mapped by and sorted by their numbers.
+   */
+  private Map<Long, File> findSegments() {
+    Map<Long, File> result = new TreeMap<>();
+    File[] files = directory.listFiles();
+    if (files == null) {
+      return result;
+    }
+    for (File file : files) {
+      String name = file.getName();
+      if (!name.startsWith(SEGMENT_FILE_PREFIX)) {
+        continue;
+      }
+      try {
+        result.put(Long.parseLong(name.substring(SEGMENT_FILE_PREFIX.length())), file);
+      }
+      catch (NumberFormatException exc) {
+        LOG.debug("Ignoring file {}", file);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Synchronizes the journal directory, so that renamed and created files are found after a crash.
+   * Not supported on every platform, in which case the file system's own ordering has to do.
+   */
+  private void syncDirectory() {
+    try (FileChannel channel = FileChannel.open(directory.toPath(), StandardOpenOption.READ)) {
+      channel.force(true);
+    }
+    catch (IOException exc) {
+      LOG.debug("Could not synchronize directory {}", directory, exc);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void readSnapshot(File snapshotFile) {
+    if (!snapshotFile.isFile()) {
+      return;
+    }
+    try (ObjectInputStream in
+        = new ObjectInputStream(new BufferedInputStream(new FileInputStream(snapshotFile)))) {
+      int count = in.readInt();
+      for (int i = 0; i < count; i++) {
+        TCSObject<?> object = (TCSObject<?>) in.readObject();
+        journaledStates.put(object.getName(), object);
+      }
+      int reservationCount = in.readInt();
+      for (int i = 0; i < reservationCount; i++) {
+        journaledReservations.put((TCSObjectReference<TransportOrder>) in.readObject(),
+                                  (TCSObjectReference<Vehicle>) in.readObject());
+      }
+    }
+    catch (IOException | ClassNotFoundException | ClassCastException exc) {
+      LOG.error("Could not read snapshot {}, recovering from journal only", snapshotFile, exc);
+    }
+  }
+
+  private void replay(long position, byte[] payload) {
+    Record record;
+    try {
+      record = deserialize(payload);
+    }
+    catch (IOException | ClassNotFoundException | ClassCastException exc) {
+      LOG.warn("Skipping journal record at offset {} that could not be deserialized",
+               position,
+               exc);
+      return;
+    }
+
+    apply(record, journaledReservations);
+    if (record.type == RECORD_STORED) {
+      journaledStates.put(record.name, record.state);
+    }
+    else if (record.type == RECORD_REMOVED) {
+      journaledStates.remove(record.name);
+    }
+  }
+
+  /**
+   * Applies the given record to the given reservations.
+   */
+  private static void apply(
+      Record record,
+      Map<TCSObjectReference<TransportOrder>, TCSObjectReference<Vehicle>> reservations) {
+    switch (record.type) {
+      case RECORD_RESERVED:
+        reservations.put(record.orderRef, record.vehicleRef);
+        break;
+      case RECORD_UNRESERVED:
+        reservations.remove(record.orderRef);
+        break;
+      case RECORD_REMOVED:
+        // A transport order's reservation is dropped along with the order.
+        if (!reservations.isEmpty()) {
+          reservations.keySet().removeIf(orderRef -> orderRef.getName().equals(record.name));
+        }
+        break;
+      default:
+    }
+  }
+
+  private static byte[] serialize(Record record)
+      throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(2048);
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeByte(record.type);
+      switch (record.type) {
+        case RECORD_STORED:
+          out.writeObject(record.state);
+          break;
+        case RECORD_REMOVED:
+          out.writeUTF(record.name);
+          break;
+        case RECORD_RESERVED:
+          out.writeObject(record.orderRef);
+          out.writeObject(record.vehicleRef);
+          break;
+        default:
+          out.writeObject(record.orderRef);
+      }
+    }
+    return bytes.toByteArray();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Record deserialize(byte[] payload)
+      throws IOException, ClassNotFoundException {
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(payload))) {
+      byte type = in.readByte();
+      switch (type) {
+        case RECORD_STORED:
+          TCSObject<?> object = (TCSObject<?>) in.readObject();
+          return new Record(type, object.getName(), object, null, null);
+        case RECORD_REMOVED:
+          return new Record(type, in.readUTF(), null, null, null);
+        case RECORD_RESERVED:
+          TCSObjectReference<TransportOrder> orderRef
+              = (TCSObjectReference<TransportOrder>) in.readObject();
+          return new Record(type,
+                            orderRef.getName(),
+                            null,
+                            orderRef,
+                            (TCSObjectReference<Vehicle>) in.readObject());
+        case RECORD_UNRESERVED:
+          orderRef = (TCSObjectReference<TransportOrder>) in.readObject();
+          return new Record(type, orderRef.getName(), null, orderRef, null);
+        default:
+          throw new IOException("Unknown record type " + type);
+      }
+    }
+  }
+
+  /**
+   * A modification to be journaled.
+   */
+  private static class Record {
+
+    /**
+     * The record's type.
+     */
+    private final byte type;
+    /**
+     * The name of the modified object or reserved transport order.
+     */
+    private final String name;
+    /**
+     * The object's new state, if it was stored.
+     */
+    @Nullable
+    private final TCSObject<?> state;
+    /**
+     * The transport order, if its reservation was modified.
+     */
+    @Nullable
+    private final TCSObjectReference<TransportOrder> orderRef;
+    /**
+     * The vehicle the transport order was reserved for, if it was reserved.
+     */
+    @Nullable
+    private final TCSObjectReference<Vehicle> vehicleRef;
+
+    Record(byte type,
+           String name,
+           @Nullable TCSObject<?> state,
+           @Nullable TCSObjectReference<TransportOrder> orderRef,
+           @Nullable TCSObjectReference<Vehicle> vehicleRef) {
+      this.type = type;
+      this.name = name;
+      this.state = state;
+      this.orderRef = orderRef;
+      this.vehicleRef = vehicleRef;
+    }
+  }
+}
@@ -0,0 +1,47 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.kernel.workingset;
+
+import org.opentcs.configuration.ConfigurationEntry;
+import org.opentcs.configuration.ConfigurationPrefix;
+
+/**
+ * Provides methods to configure the {@link TransportOrderJournal}.
+ */
+@ConfigurationPrefix(TransportOrderJournalConfiguration.PREFIX)
+public interface TransportOrderJournalConfiguration {
+
+  /**
+   * This configuration's prefix.
+   */
+  String PREFIX = "orderjournal";
+
+  @ConfigurationEntry(
+      type = "Boolean",
+      description = {
+        "Whether transport orders and order sequences are journaled to disk and recovered after",
+        "the kernel was terminated unexpectedly."},
+      orderKey = "0")
+  boolean enable();
+
+  @ConfigurationEntry(
+      type = "String",
+      description = {
+        "The directory the journal is written to.",
+        "Relative paths are resolved against the application's home directory."},
+      orderKey = "1")
+  String directory();
+
+  @ConfigurationEntry(
+      type = "Integer",
+      description = {
+        "The number of journal records after which the journal is compacted into a snapshot of",
+        "all current transport orders and order sequences."},
+      orderKey = "2")
+  int snapshotInterval();
+}
@@ -8,9 +8,12 @@
 package org.opentcs.kernel.workingset;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import static java.util.Objects.requireNonNull;
 import java.util.Set;
@@ -23,6 +26,7 @@ import org.opentcs.access.to.order.DestinationCreationTO;
 import org.opentcs.access.to.order.OrderSequenceCreationTO;
 import org.opentcs.access.to.order.TransportOrderCreationTO;
 import org.opentcs.data.ObjectExistsException;
+import org.opentcs.data.ObjectHistory;
 import org.opentcs.data.ObjectUnknownException;
 import org.opentcs.data.TCSObject;
 import org.opentcs.data.TCSObjectEvent;
@@ -33,6 +37,7 @@ import org.opentcs.data.model.Vehicle;
 import org.opentcs.data.order.DriveOrder;
 import org.opentcs.data.order.OrderSequence;
 import org.opentcs.data.order.TransportOrder;
+import org.opentcs.data.order.TransportOrderHistoryCodes;
 import static org.opentcs.util.Assertions.checkArgument;
 import static org.opentcs.util.Assertions.checkState;
 import org.opentcs.util.annotations.ScheduledApiChange;
@@ -64,18 +69,45 @@ public class TransportOrderPool {
    * Provides names for transport orders and order sequences.
    */
   private final ObjectNameProvider objectNameProvider;
+  /**
+   * An index of transport orders by their states.
+   */
+  private final TCSObjectIndex<TransportOrder, TransportOrder.State> ordersByState
+      = new TCSObjectIndex<>(TransportOrder.class,
+                             TransportOrder.State.class,
+                             TransportOrder::getState);
+  /**
+   * Journals modifications of transport orders and order sequences.
+   */
+  private final TransportOrderJournal journal;
+  /**
+   * Archives transport orders reaching a final state.
+   */
+  private final TransportOrderArchive archive;
+  /**
+   * The names of transport orders (not belonging to a sequence) and order sequences that reached a
+   * final state, mapped to the time (in ms) they reached it, in the order they reached it.
+   */
+  private final Map<String, Long> finishedObjects = new LinkedHashMap<>();
 
   /**
    * Creates a new instance.
    *
    * @param objectPool The object pool serving as the container for this order pool's data.
    * @param orderNameProvider Provides names for transport orders.
+   * @param journal Journals modifications of transport orders and order sequences.
+   * @param archive Archives transport orders reaching a final state.
    */
   @Inject
   public TransportOrderPool(TCSObjectPool objectPool,
-                            ObjectNameProvider orderNameProvider) {
+                            ObjectNameProvider orderNameProvider,
+                            TransportOrderJournal journal,
+                            TransportOrderArchive archive) {
     this.objectPool = requireNonNull(objectPool, "objectPool");
     this.objectNameProvider = requireNonNull(orderNameProvider, "orderNameProvider");
+    this.journal = requireNonNull(journal, "journal");
+    this.archive = requireNonNull(archive, "archive");
+    objectPool.registerIndex(ordersByState);
   }
 
   /**
@@ -104,6 +136,115 @@ public class TransportOrderPool {
       }
     }
     objectPool.removeObjects(removableNames);
+    finishedObjects.clear();
+  }
+
+  /**
+   * Returns the transport orders (not belonging to a sequence) and order sequences that reached a
+   * final state before the given time, in the order they reached it.
+   * Only these objects are looked at, so this does not depend on the number of other objects in
+   * the pool.
+   *
+   * @param finishedBefore The time (in ms).
+   * @return The transport orders and order sequences.
+   */
+  public List<TCSObject<?>> getFinishedObjects(long finishedBefore) {
+    List<TCSObject<?>> result = new ArrayList<>();
+    for (Map.Entry<String, Long> entry : finishedObjects.entrySet()) {
+      if (entry.getValue() >= finishedBefore) {
+        break;
+      }
+      TCSObject<?> object = objectPool.getObjectOrNull(entry.getKey());
+      if (object != null) {
+        result.add(object);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Recovers transport orders and order sequences from the journal and starts journaling their
+   * modifications, if journaling is enabled.
+   * <p>
+   * Orders that were being processed or withdrawn when the journal was last written are marked as
+   * failed, as their vehicles' actual states are unknown. Orders and sequences referring to
+   * vehicles or destinations that do not exist (any more) are discarded, as are reservations of
+   * orders that were not recovered or are finished.
+   * </p>
+   */
+  @SuppressWarnings("deprecation")
+  public void openJournal() {
+    if (!journal.isEnabled()) {
+      return;
+    }
+
+    List<TCSObject<?>> journaledObjects = journal.open();
+    objectPool.addListener(journal);
+
+    int recoveredCount = 0;
+    int failedCount = 0;
+    int discardedCount = 0;
+    for (TCSObject<?> object : journaledObjects) {
+      TCSObject<?> recoveredObject;
+      if (object instanceof TransportOrder) {
+        TransportOrder order = (TransportOrder) object;
+        recoveredObject = recoveredOrder(order);
+        if (recoveredObject != null
+            && ((TransportOrder) recoveredObject).getState() != order.getState()) {
+          failedCount++;
+        }
+      }
+      else {
+        recoveredObject = recoveredSequence((OrderSequence) object);
+      }
+
+      if (recoveredObject == null) {
+        LOG.warn("Discarding {}, which refers to unknown objects.", object.getName());
+        discardedCount++;
+        continue;
+      }
+      try {
+        objectPool.addObject(recoveredObject);
+      }
+      catch (ObjectExistsException exc) {
+        LOG.warn("Not recovering {}, which already exists.", object.getName());
+        discardedCount++;
+        continue;
+      }
+      emitObjectEvent(recoveredObject.clone(), null, TCSObjectEvent.Type.OBJECT_CREATED);
+      recoverFinished(recoveredObject);
+      recoveredCount++;
+    }
+
+    // Drop reservations that can no longer be assigned.
+    int droppedReservations = 0;
+    for (Map.Entry<TCSObjectReference<TransportOrder>, TCSObjectReference<Vehicle>> entry
+             : journal.getReservations().entrySet()) {
+      TransportOrder order = objectPool.getObjectOrNull(TransportOrder.class, entry.getKey());
+      if (order == null || order.getState().isFinalState() || !exists(entry.getValue())) {
+        journal.reservationRemoved(entry.getKey());
+        droppedReservations++;
+      }
+    }
+
+    LOG.info("Recovered {} transport orders and order sequences ({} orders marked as failed, "
+        + "{} discarded), dropped {} reservations.",
+             recoveredCount,
+             failedCount,
+             discardedCount,
+             droppedReservations);
+  }
+
+  /**
+   * Stops journaling modifications of transport orders and order sequences.
+   */
+  public void closeJournal() {
+    if (!journal.isEnabled()) {
+      return;
+    }
+
+    objectPool.removeListener(journal);
+    journal.close();
   }
 
   /**
@@ -134,9 +275,9 @@ public class TransportOrderPool {
       throw new IllegalStateException(
           "Allegedly unique object name already exists: " + orderName, exc);
     }
-    objectPool.emitObjectEvent(newOrder.clone(),
-                               null,
-                               TCSObjectEvent.Type.OBJECT_CREATED);
+    emitObjectEvent(newOrder.clone(),
+                    null,
+                    TCSObjectEvent.Type.OBJECT_CREATED);
     // Return the newly created transport order.
     return newOrder;
   }
@@ -167,14 +308,14 @@ public class TransportOrderPool {
         .withDependencies(getDependencies(to))
         .withProperties(to.getProperties());
     objectPool.addObject(newOrder);
-    objectPool.emitObjectEvent(newOrder.clone(), null, TCSObjectEvent.Type.OBJECT_CREATED);
+    emitObjectEvent(newOrder.clone(), null, TCSObjectEvent.Type.OBJECT_CREATED);
 
     if (newOrder.getWrappingSequence() != null) {
       OrderSequence sequence = objectPool.getObject(OrderSequence.class,
                                                     newOrder.getWrappingSequence());
       OrderSequence prevSeq = sequence.clone();
       sequence = objectPool.replaceObject(sequence.withOrder(newOrder.getReference()));
-      objectPool.emitObjectEvent(sequence.clone(), prevSeq, TCSObjectEvent.Type.OBJECT_MODIFIED);
+      emitObjectEvent(sequence.clone(), prevSeq, TCSObjectEvent.Type.OBJECT_MODIFIED);
     }
 
     // Return the newly created transport order.
@@ -244,13 +385,7 @@ public class TransportOrderPool {
     if (state == null) {
       throw new NullPointerException("state is null");
     }
-    Set<TransportOrder> result = new HashSet<>();
-    for (TransportOrder order : objectPool.getObjects(TransportOrder.class)) {
-      if (order.hasState(state)) {
-        result.add(order);
-      }
-    }
-    return result;
+    return objectPool.getObjects(ordersByState, state);
   }
 
   /**
@@ -289,9 +424,9 @@ public class TransportOrderPool {
     }
     TransportOrder previousState = order.clone();
     order.setDeadline(deadline);
-    objectPool.emitObjectEvent(order.clone(),
-                               previousState,
-                               TCSObjectEvent.Type.OBJECT_MODIFIED);
+    emitObjectEvent(order.clone(),
+                    previousState,
+                    TCSObjectEvent.Type.OBJECT_MODIFIED);
     return order;
   }
 
@@ -312,9 +447,13 @@ public class TransportOrderPool {
     TransportOrder order = objectPool.getObject(TransportOrder.class, ref);
     TransportOrder previousState = order.clone();
     order = objectPool.replaceObject(order.withState(newState));
-    objectPool.emitObjectEvent(order.clone(),
-                               previousState,
-                               TCSObjectEvent.Type.OBJECT_MODIFIED);
+    emitObjectEvent(order.clone(),
+                    previousState,
+                    TCSObjectEvent.Type.OBJECT_MODIFIED);
+    if (newState.isFinalState() && !previousState.getState().isFinalState()) {
+      archive.archive(order);
+      markFinished(order);
+    }
     return order;
   }
 
@@ -350,9 +489,9 @@ public class TransportOrderPool {
       }
       order.setIntendedVehicle(vehicle.getReference());
     }
-    objectPool.emitObjectEvent(order.clone(),
-                               previousState,
-                               TCSObjectEvent.Type.OBJECT_MODIFIED);
+    emitObjectEvent(order.clone(),
+                    previousState,
+                    TCSObjectEvent.Type.OBJECT_MODIFIED);
     return order;
   }
 
@@ -393,9 +532,9 @@ public class TransportOrderPool {
             order.withCurrentDriveOrderState(DriveOrder.State.TRAVELLING));
       }
     }
-    objectPool.emitObjectEvent(order.clone(),
-                               previousState,
-                               TCSObjectEvent.Type.OBJECT_MODIFIED);
+    emitObjectEvent(order.clone(),
+                    previousState,
+                    TCSObjectEvent.Type.OBJECT_MODIFIED);
     return order;
   }
 
@@ -426,9 +565,9 @@ public class TransportOrderPool {
       Vehicle vehicle = objectPool.getObject(Vehicle.class, vehicleRef);
       order = objectPool.replaceObject(order.withProcessingVehicle(vehicle.getReference()));
     }
-    objectPool.emitObjectEvent(order.clone(),
-                               previousState,
-                               TCSObjectEvent.Type.OBJECT_MODIFIED);
+    emitObjectEvent(order.clone(),
+                    previousState,
+                    TCSObjectEvent.Type.OBJECT_MODIFIED);
     return order;
   }
 
@@ -454,9 +593,9 @@ public class TransportOrderPool {
     TransportOrder order = objectPool.getObject(TransportOrder.class, orderRef);
     TransportOrder previousState = order.clone();
     order = objectPool.replaceObject(order.withDriveOrders(newOrders));
-    objectPool.emitObjectEvent(order.clone(),
-                               previousState,
-                               TCSObjectEvent.Type.OBJECT_MODIFIED);
+    emitObjectEvent(order.clone(),
+                    previousState,
+                    TCSObjectEvent.Type.OBJECT_MODIFIED);
     return order;
   }
 
@@ -490,9 +629,9 @@ public class TransportOrderPool {
       order = objectPool.replaceObject(
           order.withCurrentDriveOrderState(DriveOrder.State.TRAVELLING));
     }
-    objectPool.emitObjectEvent(order.clone(),
-                               previousState,
-                               TCSObjectEvent.Type.OBJECT_MODIFIED);
+    emitObjectEvent(order.clone(),
+                    previousState,
+                    TCSObjectEvent.Type.OBJECT_MODIFIED);
     return order;
   }
 
@@ -521,30 +660,30 @@ public class TransportOrderPool {
     if (order.getCurrentDriveOrder() != null) {
       order = objectPool.replaceObject(order.withCurrentDriveOrderState(DriveOrder.State.FINISHED));
       TransportOrder newState = order.clone();
-      objectPool.emitObjectEvent(newState,
-                                 previousState,
-                                 TCSObjectEvent.Type.OBJECT_MODIFIED);
+      emitObjectEvent(newState,
+                      previousState,
+                      TCSObjectEvent.Type.OBJECT_MODIFIED);
       previousState = newState;
       order = objectPool.replaceObject(
           order.withCurrentDriveOrderIndex(order.getCurrentDriveOrderIndex() + 1));
       newState = order.clone();
-      objectPool.emitObjectEvent(newState,
-                                 previousState,
-                                 TCSObjectEvent.Type.OBJECT_MODIFIED);
+      emitObjectEvent(newState,
+                      previousState,
+                      TCSObjectEvent.Type.OBJECT_MODIFIED);
       previousState = newState;
       if (order.getCurrentDriveOrder() != null) {
         order = objectPool.replaceObject(
             order.withCurrentDriveOrderState(DriveOrder.State.TRAVELLING));
         newState = order.clone();
-        objectPool.emitObjectEvent(newState,
-                                   previousState,
-                                   TCSObjectEvent.Type.OBJECT_MODIFIED);
+        emitObjectEvent(newState,
+                        previousState,
+                        TCSObjectEvent.Type.OBJECT_MODIFIED);
         previousState = newState;
       }
     }
-    objectPool.emitObjectEvent(order.clone(),
-                               previousState,
-                               TCSObjectEvent.Type.OBJECT_MODIFIED);
+    emitObjectEvent(order.clone(),
+                    previousState,
+                    TCSObjectEvent.Type.OBJECT_MODIFIED);
     return order;
   }
 
@@ -576,9 +715,9 @@ public class TransportOrderPool {
       throw new ObjectUnknownException(newDepRef);
     }
     order.addDependency(newDep.getReference());
-    objectPool.emitObjectEvent(order.clone(),
-                               previousState,
-                               TCSObjectEvent.Type.OBJECT_MODIFIED);
+    emitObjectEvent(order.clone(),
+                    previousState,
+                    TCSObjectEvent.Type.OBJECT_MODIFIED);
     return order;
   }
 
@@ -610,9 +749,9 @@ public class TransportOrderPool {
       throw new ObjectUnknownException(rmDepRef);
     }
     order.removeDependency(rmDep.getReference());
-    objectPool.emitObjectEvent(order.clone(),
-                               previousState,
-                               TCSObjectEvent.Type.OBJECT_MODIFIED);
+    emitObjectEvent(order.clone(),
+                    previousState,
+                    TCSObjectEvent.Type.OBJECT_MODIFIED);
     return order;
   }
 
@@ -635,9 +774,9 @@ public class TransportOrderPool {
     TransportOrder order = objectPool.getObject(TransportOrder.class, orderRef);
     TransportOrder previousState = order.clone();
     order = objectPool.replaceObject(order.withRejection(newRejection));
-    objectPool.emitObjectEvent(order.clone(),
-                               previousState,
-                               TCSObjectEvent.Type.OBJECT_MODIFIED);
+    emitObjectEvent(order.clone(),
+                    previousState,
+                    TCSObjectEvent.Type.OBJECT_MODIFIED);
     return order;
   }
 
@@ -674,9 +813,9 @@ public class TransportOrderPool {
       }
       order.setWrappingSequence(orderSequence.getReference());
     }
-    objectPool.emitObjectEvent(order.clone(),
-                               previousState,
-                               TCSObjectEvent.Type.OBJECT_MODIFIED);
+    emitObjectEvent(order.clone(),
+                    previousState,
+                    TCSObjectEvent.Type.OBJECT_MODIFIED);
     return order;
   }
 
@@ -702,9 +841,9 @@ public class TransportOrderPool {
     }
     TransportOrder previousState = order.clone();
     order.setDispensable(dispensable);
-    objectPool.emitObjectEvent(order.clone(),
-                               previousState,
-                               TCSObjectEvent.Type.OBJECT_MODIFIED);
+    emitObjectEvent(order.clone(),
+                    previousState,
+                    TCSObjectEvent.Type.OBJECT_MODIFIED);
     return order;
   }
 
@@ -726,9 +865,10 @@ public class TransportOrderPool {
                   "Transport order %s is being processed.",
                   order.getName());
     objectPool.removeObject(ref);
-    objectPool.emitObjectEvent(null,
-                               order.clone(),
-                               TCSObjectEvent.Type.OBJECT_REMOVED);
+    finishedObjects.remove(order.getName());
+    emitObjectEvent(null,
+                    order.clone(),
+                    TCSObjectEvent.Type.OBJECT_REMOVED);
     return order;
   }
 
@@ -754,9 +894,9 @@ public class TransportOrderPool {
       throw new IllegalStateException(
           "Allegedly unique object name already exists: " + orderName);
     }
-    objectPool.emitObjectEvent(newSequence.clone(),
-                               null,
-                               TCSObjectEvent.Type.OBJECT_CREATED);
+    emitObjectEvent(newSequence.clone(),
+                    null,
+                    TCSObjectEvent.Type.OBJECT_CREATED);
     // Return the newly created transport order.
     return newSequence;
   }
@@ -778,9 +918,9 @@ public class TransportOrderPool {
         .withFailureFatal(to.isFailureFatal())
         .withProperties(to.getProperties());
     objectPool.addObject(newSequence);
-    objectPool.emitObjectEvent(newSequence.clone(),
-                               null,
-                               TCSObjectEvent.Type.OBJECT_CREATED);
+    emitObjectEvent(newSequence.clone(),
+                    null,
+                    TCSObjectEvent.Type.OBJECT_CREATED);
     // Return the newly created transport order.
     return newSequence;
   }
@@ -890,14 +1030,14 @@ public class TransportOrderPool {
     TransportOrder previousOrderState = order.clone();
     // Add the order's reference to the sequence.
     sequence.addOrder(order.getReference());
-    objectPool.emitObjectEvent(sequence.clone(),
-                               previousSeqState,
-                               TCSObjectEvent.Type.OBJECT_MODIFIED);
+    emitObjectEvent(sequence.clone(),
+                    previousSeqState,
+                    TCSObjectEvent.Type.OBJECT_MODIFIED);
     // Set the back reference to the sequence in the order, too.
     order.setWrappingSequence(sequence.getReference());
-    objectPool.emitObjectEvent(order.clone(),
-                               previousOrderState,
-                               TCSObjectEvent.Type.OBJECT_MODIFIED);
+    emitObjectEvent(order.clone(),
+                    previousOrderState,
+                    TCSObjectEvent.Type.OBJECT_MODIFIED);
     return sequence;
   }
 
@@ -927,9 +1067,9 @@ public class TransportOrderPool {
     }
     OrderSequence previousState = sequence.clone();
     sequence.removeOrder(orderRef);
-    objectPool.emitObjectEvent(sequence.clone(),
-                               previousState,
-                               TCSObjectEvent.Type.OBJECT_MODIFIED);
+    emitObjectEvent(sequence.clone(),
+                    previousState,
+                    TCSObjectEvent.Type.OBJECT_MODIFIED);
     return sequence;
   }
 
@@ -950,9 +1090,9 @@ public class TransportOrderPool {
     OrderSequence sequence = objectPool.getObject(OrderSequence.class, seqRef);
     OrderSequence previousState = sequence.clone();
     sequence = objectPool.replaceObject(sequence.withFinishedIndex(index));
-    objectPool.emitObjectEvent(sequence.clone(),
-                               previousState,
-                               TCSObjectEvent.Type.OBJECT_MODIFIED);
+    emitObjectEvent(sequence.clone(),
+                    previousState,
+                    TCSObjectEvent.Type.OBJECT_MODIFIED);
     return sequence;
   }
 
@@ -972,9 +1112,9 @@ public class TransportOrderPool {
     OrderSequence sequence = objectPool.getObject(OrderSequence.class, seqRef);
     OrderSequence previousState = sequence.clone();
     sequence = objectPool.replaceObject(sequence.withComplete(true));
-    objectPool.emitObjectEvent(sequence.clone(),
-                               previousState,
-                               TCSObjectEvent.Type.OBJECT_MODIFIED);
+    emitObjectEvent(sequence.clone(),
+                    previousState,
+                    TCSObjectEvent.Type.OBJECT_MODIFIED);
     return sequence;
   }
 
@@ -993,9 +1133,12 @@ public class TransportOrderPool {
     OrderSequence sequence = objectPool.getObject(OrderSequence.class, seqRef);
     OrderSequence previousState = sequence.clone();
     sequence = objectPool.replaceObject(sequence.withFinished(true));
-    objectPool.emitObjectEvent(sequence.clone(),
-                               previousState,
-                               TCSObjectEvent.Type.OBJECT_MODIFIED);
+    emitObjectEvent(sequence.clone(),
+                    previousState,
+                    TCSObjectEvent.Type.OBJECT_MODIFIED);
+    if (!previousState.isFinished()) {
+      finishedObjects.put(sequence.getName(), System.currentTimeMillis());
+    }
     return sequence;
   }
 
@@ -1022,9 +1165,9 @@ public class TransportOrderPool {
     }
     OrderSequence previousState = sequence.clone();
     sequence.setFailureFatal(fatal);
-    objectPool.emitObjectEvent(sequence.clone(),
-                               previousState,
-                               TCSObjectEvent.Type.OBJECT_MODIFIED);
+    emitObjectEvent(sequence.clone(),
+                    previousState,
+                    TCSObjectEvent.Type.OBJECT_MODIFIED);
     return sequence;
   }
 
@@ -1061,9 +1204,9 @@ public class TransportOrderPool {
       }
       sequence.setIntendedVehicle(vehicle.getReference());
     }
-    objectPool.emitObjectEvent(sequence.clone(),
-                               previousState,
-                               TCSObjectEvent.Type.OBJECT_MODIFIED);
+    emitObjectEvent(sequence.clone(),
+                    previousState,
+                    TCSObjectEvent.Type.OBJECT_MODIFIED);
     return sequence;
   }
 
@@ -1091,9 +1234,9 @@ public class TransportOrderPool {
       Vehicle vehicle = objectPool.getObject(Vehicle.class, vehicleRef);
       sequence = objectPool.replaceObject(sequence.withProcessingVehicle(vehicle.getReference()));
     }
-    objectPool.emitObjectEvent(sequence.clone(),
-                               previousState,
-                               TCSObjectEvent.Type.OBJECT_MODIFIED);
+    emitObjectEvent(sequence.clone(),
+                    previousState,
+                    TCSObjectEvent.Type.OBJECT_MODIFIED);
     return sequence;
   }
 
@@ -1112,9 +1255,10 @@ public class TransportOrderPool {
     OrderSequence previousState = sequence.clone();
     // XXX Any sanity checks here?
     objectPool.removeObject(ref);
-    objectPool.emitObjectEvent(null,
-                               previousState,
-                               TCSObjectEvent.Type.OBJECT_REMOVED);
+    finishedObjects.remove(sequence.getName());
+    emitObjectEvent(null,
+                    previousState,
+                    TCSObjectEvent.Type.OBJECT_REMOVED);
     return sequence;
   }
 
@@ -1132,7 +1276,8 @@ public class TransportOrderPool {
     checkArgument(sequence.isFinished(), "Order sequence %s is not finished", sequence.getName());
     OrderSequence previousState = sequence.clone();
     objectPool.removeObject(ref);
-    objectPool.emitObjectEvent(null, previousState, TCSObjectEvent.Type.OBJECT_REMOVED);
+    finishedObjects.remove(sequence.getName());
+    emitObjectEvent(null, previousState, TCSObjectEvent.Type.OBJECT_REMOVED);
     // Also remove all orders in the sequence.
     for (TCSObjectReference<TransportOrder> orderRef : sequence.getOrders()) {
       removeTransportOrder(orderRef);
@@ -1201,6 +1346,72 @@ public class TransportOrderPool {
     return result;
   }
 
+  /**
+   * Emits an event for a modification once the modification is durable, so that a modification is
+   * never announced (or reported to the caller) before it would survive a crash.
+   */
+  private void emitObjectEvent(TCSObject<?> currentObjectState,
+                               TCSObject<?> previousObjectState,
+                               TCSObjectEvent.Type evtType) {
+    journal.awaitDurable();
+    objectPool.emitObjectEvent(currentObjectState, previousObjectState, evtType);
+  }
+
+  private void recoverFinished(TCSObject<?> object) {
+    if (object instanceof TransportOrder) {
+      TransportOrder order = (TransportOrder) object;
+      if (order.getState().isFinalState()) {
+        if (!archive.contains(order.getName())) {
+          archive.archive(order);
+        }
+        markFinished(order);
+      }
+    }
+    else if (((OrderSequence) object).isFinished()) {
+      finishedObjects.put(object.getName(), System.currentTimeMillis());
+    }
+  }
+
+  private void markFinished(TransportOrder order) {
+    // Orders belonging to a sequence are removed together with the sequence.
+    if (order.getWrappingSequence() == null) {
+      finishedObjects.put(order.getName(), System.currentTimeMillis());
+    }
+  }
+
+  @Nullable
+  private TransportOrder recoveredOrder(TransportOrder order) {
+    if (!exists(order.getIntendedVehicle())) {
+      return null;
+    }
+    for (DriveOrder driveOrder : order.getAllDriveOrders()) {
+      if (!exists(driveOrder.getDestination().getDestination())) {
+        return null;
+      }
+    }
+
+    order = order.withHistoryEntry(
+        new ObjectHistory.Entry(TransportOrderHistoryCodes.ORDER_RECOVERED)
+    );
+    if (order.hasState(TransportOrder.State.BEING_PROCESSED)
+        || order.hasState(TransportOrder.State.WITHDRAWN)) {
+      order = order.withState(TransportOrder.State.FAILED);
+    }
+    return order;
+  }
+
+  @Nullable
+  private OrderSequence recoveredSequence(OrderSequence sequence) {
+    if (!exists(sequence.getIntendedVehicle())) {
+      return null;
+    }
+    return sequence.withProcessingVehicle(null);
+  }
+
+  private boolean exists(@Nullable TCSObjectReference<?> ref) {
+    return ref == null || objectPool.getObjectOrNull(ref) != null;
+  }
+
   @Nullable
   private String getIntendedVehicleName(OrderSequence sequence) {
     return sequence.getIntendedVehicle() == null ? null : sequence.getIntendedVehicle().getName();
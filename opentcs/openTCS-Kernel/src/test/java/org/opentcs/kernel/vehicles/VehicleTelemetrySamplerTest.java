@@ -0,0 +1,144 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.kernel.vehicles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.opentcs.drivers.vehicle.telemetry.VehicleTelemetry;
+import org.opentcs.drivers.vehicle.telemetry.VehicleTelemetryEvent;
+import org.opentcs.drivers.vehicle.telemetry.VehicleTelemetrySample;
+
+/**
+ * Unit tests for {@link VehicleTelemetrySampler}.
+ */
+public class VehicleTelemetrySamplerTest {
+
+  private static final long MODEL_UPDATE_INTERVAL = 200;
+
+  private final List<VehicleTelemetryEvent> events = new CopyOnWriteArrayList<>();
+
+  private final List<VehicleTelemetrySample> modelUpdates = new ArrayList<>();
+
+  private final VehicleTelemetry telemetryA = new VehicleTelemetry("Vehicle-A");
+
+  private final VehicleTelemetry telemetryB = new VehicleTelemetry("Vehicle-B");
+
+  private VehicleTelemetryConfiguration configuration;
+
+  private VehicleTelemetrySampler sampler;
+
+  @Before
+  public void setUp() {
+    configuration = mock(VehicleTelemetryConfiguration.class);
+    when(configuration.enable()).thenReturn(true);
+    when(configuration.sampleInterval()).thenReturn(10L);
+    when(configuration.modelUpdateInterval()).thenReturn(MODEL_UPDATE_INTERVAL);
+    sampler = new VehicleTelemetrySampler(configuration, event -> {
+      if (event instanceof VehicleTelemetryEvent) {
+        events.add((VehicleTelemetryEvent) event);
+      }
+    });
+    sampler.register(telemetryA, modelUpdates::add);
+    sampler.register(telemetryB, modelUpdates::add);
+  }
+
+  @After
+  public void tearDown() {
+    sampler.terminate();
+  }
+
+  @Test
+  public void publishOnlyChangedTelemetry() {
+    sampler.sample();
+    events.clear();
+
+    telemetryA.updateVelocity(100);
+    sampler.sample();
+    sampler.sample();
+
+    assertThat(events.size(), is(1));
+    assertThat(vehicleNames(events.get(0)), contains("Vehicle-A"));
+    assertThat(events.get(0).getSamples().get(0).getVelocity(), is(100));
+  }
+
+  @Test
+  public void updateModelInConfiguredInterval()
+      throws Exception {
+    sampler.sample();
+    assertThat(modelUpdates.size(), is(2));
+    modelUpdates.clear();
+
+    // Within the interval, changes are published, but the model is not updated.
+    telemetryA.updateVelocity(100);
+    sampler.sample();
+    assertThat(modelUpdates, is(empty()));
+
+    Thread.sleep(MODEL_UPDATE_INTERVAL + 50);
+    telemetryA.updateVelocity(200);
+    sampler.sample();
+
+    // Only the changed vehicle is updated, with its latest values.
+    assertThat(modelUpdates.size(), is(1));
+    assertThat(modelUpdates.get(0).getVehicleName(), is("Vehicle-A"));
+    assertThat(modelUpdates.get(0).getVelocity(), is(200));
+  }
+
+  @Test
+  public void continueSamplingAfterExceptions()
+      throws Exception {
+    CountDownLatch samplesAfterFailure = new CountDownLatch(1);
+    sampler = new VehicleTelemetrySampler(configuration, event -> {
+      if (!events.isEmpty()) {
+        samplesAfterFailure.countDown();
+      }
+      events.add((VehicleTelemetryEvent) event);
+      throw new IllegalStateException("Handler failed");
+    });
+    sampler.register(telemetryA, sample -> {
+      throw new IllegalStateException("Model update failed");
+    });
+    sampler.initialize();
+
+    telemetryA.updateVelocity(100);
+    assertThat(waitForEvents(1), is(true));
+    telemetryA.updateVelocity(200);
+
+    assertThat(samplesAfterFailure.await(10, TimeUnit.SECONDS), is(true));
+  }
+
+  private boolean waitForEvents(int count)
+      throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 10000;
+    while (events.size() < count) {
+      if (System.currentTimeMillis() > deadline) {
+        return false;
+      }
+      Thread.sleep(10);
+    }
+    return true;
+  }
+
+  private static List<String> vehicleNames(VehicleTelemetryEvent event) {
+    return event.getSamples().stream()
+        .map(VehicleTelemetrySample::getVehicleName)
+        .collect(Collectors.toList());
+  }
+}
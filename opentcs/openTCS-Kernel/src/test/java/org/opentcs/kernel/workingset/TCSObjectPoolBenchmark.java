@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.kernel.workingset;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.opentcs.data.model.Vehicle;
+
+/**
+ * Measures reads from a {@link TCSObjectPool} while another thread keeps replacing objects in it:
+ * lookups by name, lookups via a secondary index and scans of all objects of a type.
+ * <p>
+ * Run with {@code java -cp <test classpath> }
+ * {@code org.opentcs.kernel.workingset.TCSObjectPoolBenchmark}.
+ * </p>
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TCSObjectPoolBenchmark {
+
+  @Param({"1000"})
+  public int vehicleCount;
+
+  private final TCSObjectIndex<Vehicle, Vehicle.ProcState> vehiclesByProcState
+      = new TCSObjectIndex<>(Vehicle.class, Vehicle.ProcState.class, Vehicle::getProcState);
+
+  private TCSObjectPool pool;
+
+  private int nextRead;
+
+  private int nextWrite;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    pool = new TCSObjectPool(event -> {
+    });
+    pool.registerIndex(vehiclesByProcState);
+    for (int i = 0; i < vehicleCount; i++) {
+      pool.addObject(new Vehicle(name(i)).withProcState(Vehicle.ProcState.IDLE));
+    }
+  }
+
+  @Benchmark
+  @Group("mixed")
+  @GroupThreads(3)
+  public Vehicle getObjectByName() {
+    nextRead = (nextRead + 1) % vehicleCount;
+    return pool.getObjectOrNull(Vehicle.class, name(nextRead));
+  }
+
+  @Benchmark
+  @Group("mixed")
+  @GroupThreads(1)
+  public Vehicle replaceObject() {
+    nextWrite = (nextWrite + 1) % vehicleCount;
+    Vehicle vehicle = pool.getObjectOrNull(Vehicle.class, name(nextWrite));
+    return pool.replaceObject(vehicle.withProcState(
+        vehicle.getProcState() == Vehicle.ProcState.IDLE
+        ? Vehicle.ProcState.PROCESSING_ORDER
+        : Vehicle.ProcState.IDLE));
+  }
+
+  @Benchmark
+  @Group("indexed")
+  @GroupThreads(3)
+  public Set<Vehicle> getObjectsByIndex() {
+    return pool.getObjects(vehiclesByProcState, Vehicle.ProcState.PROCESSING_ORDER);
+  }
+
+  @Benchmark
+  @Group("indexed")
+  @GroupThreads(1)
+  public Vehicle replaceObjectIndexed() {
+    return replaceObject();
+  }
+
+  @Benchmark
+  @Group("scan")
+  @GroupThreads(3)
+  public Set<Vehicle> getObjectsByType() {
+    return pool.getObjects(Vehicle.class);
+  }
+
+  @Benchmark
+  @Group("scan")
+  @GroupThreads(1)
+  public Vehicle replaceObjectScanned() {
+    return replaceObject();
+  }
+
+  private static String name(int index) {
+    return "Vehicle-" + index;
+  }
+
+  public static void main(String[] args)
+      throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(TCSObjectPoolBenchmark.class.getSimpleName())
+        .build())
+        .run();
+  }
+}
@@ -0,0 +1,221 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.kernel.workingset;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.Assert.assertThat;
+import org.junit.Before;
+import org.junit.Test;
+import org.opentcs.data.ObjectHistory;
+import org.opentcs.data.TCSObjectEvent;
+import org.opentcs.data.model.Vehicle;
+
+/**
+ * Unit tests for {@link TCSObjectPool}.
+ */
+public class TCSObjectPoolTest {
+
+  private final TCSObjectIndex<Vehicle, Vehicle.ProcState> vehiclesByProcState
+      = new TCSObjectIndex<>(Vehicle.class, Vehicle.ProcState.class, Vehicle::getProcState);
+
+  private final List<TCSObjectEvent> events = new ArrayList<>();
+
+  private final List<Vehicle> vehiclesSeenByEventHandler = new ArrayList<>();
+
+  private TCSObjectPool pool;
+
+  @Before
+  public void setUp() {
+    pool = new TCSObjectPool(event -> {
+      if (event instanceof TCSObjectEvent) {
+        TCSObjectEvent objectEvent = (TCSObjectEvent) event;
+        events.add(objectEvent);
+        String name = objectEvent.getCurrentOrPreviousObjectState().getName();
+        vehiclesSeenByEventHandler.add(pool.getObjectOrNull(Vehicle.class, name));
+      }
+    });
+    pool.registerIndex(vehiclesByProcState);
+  }
+
+  @Test
+  public void updateIndexWhenObjectsAreReplacedAndRemoved() {
+    Vehicle vehicle = new Vehicle("Vehicle-1");
+    pool.addObject(vehicle);
+    assertThat(names(Vehicle.ProcState.UNAVAILABLE), contains("Vehicle-1"));
+
+    Vehicle processing
+        = pool.replaceObject(vehicle.withProcState(Vehicle.ProcState.PROCESSING_ORDER));
+    assertThat(names(Vehicle.ProcState.UNAVAILABLE), is(empty()));
+    assertThat(names(Vehicle.ProcState.PROCESSING_ORDER), contains("Vehicle-1"));
+    assertThat(pool.getObjects(vehiclesByProcState, Vehicle.ProcState.PROCESSING_ORDER),
+               contains(processing));
+
+    pool.removeObject(vehicle.getReference());
+    assertThat(names(Vehicle.ProcState.PROCESSING_ORDER), is(empty()));
+  }
+
+  @Test
+  public void indexExistingObjectsOnRegistration() {
+    TCSObjectPool otherPool = new TCSObjectPool(event -> {
+    });
+    otherPool.addObject(new Vehicle("Vehicle-1"));
+
+    otherPool.registerIndex(vehiclesByProcState);
+
+    Set<Vehicle> unavailableVehicles
+        = otherPool.getObjects(vehiclesByProcState, Vehicle.ProcState.UNAVAILABLE);
+    assertThat(unavailableVehicles.size(), is(1));
+    assertThat(unavailableVehicles.iterator().next().getName(), is("Vehicle-1"));
+  }
+
+  @Test
+  public void hideIndexEntriesOfUnpublishedBatchFromOtherThreads()
+      throws Exception {
+    Vehicle vehicle = new Vehicle("Vehicle-1");
+    pool.addObject(vehicle);
+
+    pool.beginMutationBatch();
+    try {
+      pool.replaceObject(vehicle.withProcState(Vehicle.ProcState.PROCESSING_ORDER));
+      // The batch's thread sees its own modifications...
+      assertThat(names(Vehicle.ProcState.PROCESSING_ORDER), contains("Vehicle-1"));
+      // ...while other threads see neither the modified object nor the modified index entries.
+      assertThat(namesInOtherThread(Vehicle.ProcState.UNAVAILABLE), contains("Vehicle-1"));
+      assertThat(namesInOtherThread(Vehicle.ProcState.PROCESSING_ORDER), is(empty()));
+    }
+    finally {
+      pool.endMutationBatch();
+    }
+
+    assertThat(namesInOtherThread(Vehicle.ProcState.PROCESSING_ORDER), contains("Vehicle-1"));
+  }
+
+  @Test
+  public void emitEventsOfBatchAfterPublishing() {
+    pool.beginMutationBatch();
+    try {
+      Vehicle vehicle = new Vehicle("Vehicle-1");
+      pool.addObject(vehicle);
+      pool.emitObjectEvent(vehicle, null, TCSObjectEvent.Type.OBJECT_CREATED);
+      assertThat(events, is(empty()));
+    }
+    finally {
+      pool.endMutationBatch();
+    }
+
+    assertThat(events.size(), is(1));
+    assertThat(vehiclesSeenByEventHandler.get(0), is(notNullValue()));
+  }
+
+  @Test
+  public void emitEventsOfNestedBatchesWhenOutermostBatchEnds() {
+    pool.beginMutationBatch();
+    try {
+      pool.beginMutationBatch();
+      try {
+        Vehicle vehicle = new Vehicle("Vehicle-1");
+        pool.addObject(vehicle);
+        pool.emitObjectEvent(vehicle, null, TCSObjectEvent.Type.OBJECT_CREATED);
+      }
+      finally {
+        pool.endMutationBatch();
+      }
+      assertThat(events, is(empty()));
+    }
+    finally {
+      pool.endMutationBatch();
+    }
+
+    assertThat(events.size(), is(1));
+  }
+
+  @Test
+  public void emitEventsOutsideBatchesImmediately() {
+    Vehicle vehicle = new Vehicle("Vehicle-1");
+    pool.addObject(vehicle);
+    pool.emitObjectEvent(vehicle, null, TCSObjectEvent.Type.OBJECT_CREATED);
+
+    assertThat(events.size(), is(1));
+    assertThat(vehiclesSeenByEventHandler.get(0), is(notNullValue()));
+  }
+
+  @Test
+  public void keepCompleteHistoryWithoutLimit() {
+    Vehicle vehicle = new Vehicle("Vehicle-1");
+    pool.addObject(vehicle);
+
+    for (int i = 0; i < 100; i++) {
+      pool.appendObjectHistoryEntry(vehicle.getReference(), new ObjectHistory.Entry("event-" + i));
+    }
+
+    assertThat(pool.getObject(Vehicle.class, "Vehicle-1").getHistory().size(), is(100));
+  }
+
+  @Test
+  public void archiveOldestHistoryEntriesWhenLimitExceeded() {
+    List<String> archivedEventCodes = new ArrayList<>();
+    TCSObjectPool limitedPool = new TCSObjectPool(
+        event -> {
+        },
+        () -> 8,
+        (ref, entries) -> {
+          assertThat(ref.getName(), is("Vehicle-1"));
+          archivedEventCodes.addAll(eventCodes(entries));
+        });
+    Vehicle vehicle = new Vehicle("Vehicle-1");
+    limitedPool.addObject(vehicle);
+
+    for (int i = 0; i < 8; i++) {
+      limitedPool.appendObjectHistoryEntry(vehicle.getReference(),
+                                           new ObjectHistory.Entry("event-" + i));
+    }
+    assertThat(archivedEventCodes, is(empty()));
+
+    // Exceeding the limit moves the excess entries and a quarter of the limit to the archive.
+    limitedPool.appendObjectHistoryEntry(vehicle.getReference(),
+                                         new ObjectHistory.Entry("event-8"));
+    assertThat(archivedEventCodes, contains("event-0", "event-1", "event-2"));
+    assertThat(
+        eventCodes(limitedPool.getObject(Vehicle.class, "Vehicle-1").getHistory().getEntries()),
+        contains("event-3", "event-4", "event-5", "event-6", "event-7", "event-8")
+    );
+
+    for (int i = 9; i < 12; i++) {
+      limitedPool.appendObjectHistoryEntry(vehicle.getReference(),
+                                           new ObjectHistory.Entry("event-" + i));
+    }
+    assertThat(archivedEventCodes,
+               contains("event-0", "event-1", "event-2", "event-3", "event-4", "event-5"));
+    assertThat(
+        eventCodes(limitedPool.getObject(Vehicle.class, "Vehicle-1").getHistory().getEntries()),
+        contains("event-6", "event-7", "event-8", "event-9", "event-10", "event-11")
+    );
+  }
+
+  private List<String> names(Vehicle.ProcState procState) {
+    Set<Vehicle> vehicles = pool.getObjects(vehiclesByProcState, procState);
+    return vehicles.stream().map(vehicle -> vehicle.getName()).collect(Collectors.toList());
+  }
+
+  private List<String> namesInOtherThread(Vehicle.ProcState procState)
+      throws Exception {
+    return CompletableFuture.supplyAsync(() -> names(procState)).get();
+  }
+
+  private static List<String> eventCodes(List<ObjectHistory.Entry> entries) {
+    return entries.stream().map(entry -> entry.getEventCode()).collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,140 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.kernel.workingset;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.opentcs.access.to.order.TransportOrderArchiveQuery;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.order.DriveOrder;
+import org.opentcs.data.order.TransportOrder;
+
+/**
+ * Unit tests for {@link TransportOrderArchive}.
+ */
+public class TransportOrderArchiveTest {
+
+  private static final int MAX_ORDERS = 1000;
+
+  private static final int MAX_AGE_DAYS = 30;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private final AtomicLong now = new AtomicLong(TimeUnit.DAYS.toMillis(1000));
+
+  private TransportOrderArchiveConfiguration configuration;
+
+  private TransportOrderArchive archive;
+
+  private int nextOrder;
+
+  @Before
+  public void setUp() {
+    configuration = mock(TransportOrderArchiveConfiguration.class);
+    when(configuration.enable()).thenReturn(true);
+    when(configuration.directory()).thenReturn("archive");
+    when(configuration.maxOrders()).thenReturn(MAX_ORDERS);
+    when(configuration.maxAge()).thenReturn(MAX_AGE_DAYS);
+    archive = new TransportOrderArchive(configuration, folder.getRoot(), now::get);
+    archive.initialize();
+  }
+
+  @After
+  public void tearDown() {
+    archive.terminate();
+  }
+
+  @Test
+  public void pruneOldestOrdersWhenMaxOrdersIsExceeded()
+      throws InterruptedException {
+    archiveOrders(3500);
+
+    assertThat(archive.contains("Order-0"), is(false));
+    assertThat(archive.contains("Order-3499"), is(true));
+    assertThat(archivedCount(), is(lessThanOrEqualTo(MAX_ORDERS)));
+    // A segment holds a tenth of the maximum number of orders.
+    assertThat(segmentFileCount(), is(lessThanOrEqualTo(11)));
+  }
+
+  @Test
+  public void pruneOrdersOlderThanMaxAge()
+      throws InterruptedException {
+    archiveOrders(500);
+    now.addAndGet(TimeUnit.DAYS.toMillis(MAX_AGE_DAYS + 1));
+    archiveOrders(1);
+
+    assertThat(archive.contains("Order-0"), is(false));
+    assertThat(archivedCount(), is(1));
+    assertThat(segmentFileCount(), is(1));
+  }
+
+  @Test
+  public void keepOrdersWithinLimits()
+      throws InterruptedException {
+    archiveOrders(500);
+    now.addAndGet(TimeUnit.DAYS.toMillis(MAX_AGE_DAYS - 1));
+    archiveOrders(1);
+
+    assertThat(archivedCount(), is(501));
+  }
+
+  @Test
+  public void applyLimitsToExistingSegmentsOnInitialization()
+      throws InterruptedException {
+    archiveOrders(500);
+    archive.terminate();
+    now.addAndGet(TimeUnit.DAYS.toMillis(MAX_AGE_DAYS + 1));
+
+    archive.initialize();
+
+    assertThat(archivedCount(), is(0));
+    archiveOrders(1);
+    assertThat(archivedCount(), is(1));
+  }
+
+  private void archiveOrders(int count)
+      throws InterruptedException {
+    String lastName = null;
+    for (int i = 0; i < count; i++) {
+      lastName = "Order-" + nextOrder++;
+      archive.archive(new TransportOrder(lastName,
+                                         Collections.singletonList(new DriveOrder(
+                                             new DriveOrder.Destination(
+                                                 new Point("Point-1").getReference()))))
+          .withState(TransportOrder.State.FINISHED));
+    }
+    // Orders are written asynchronously.
+    long deadline = System.currentTimeMillis() + 10000;
+    while (!archive.contains(lastName) && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertTrue(archive.contains(lastName));
+  }
+
+  private int archivedCount() {
+    return archive.query(new TransportOrderArchiveQuery().withLimit(Integer.MAX_VALUE)).size();
+  }
+
+  private int segmentFileCount() {
+    return new File(folder.getRoot(), "archive").list().length;
+  }
+}
@@ -0,0 +1,208 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.kernel.workingset;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.opentcs.data.TCSObject;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.DriveOrder;
+import org.opentcs.data.order.TransportOrder;
+
+/**
+ * Measures the {@link TransportOrderJournal} for a plant processing 10,000 transport orders per
+ * hour: the time it takes to make a single modification durable (i.e. the overhead added to every
+ * modification of a transport order), and the time it takes to recover the orders of one hour.
+ * <p>
+ * Each transport order is modified {@value #RECORDS_PER_ORDER} times during its life (creation,
+ * dispatching, assignment, two drive orders finished and the order finished), so the overhead per
+ * order is about {@value #RECORDS_PER_ORDER} times the overhead per modification. For recovery,
+ * finished orders are not removed, i.e. all orders of the hour are recovered. With
+ * {@code snapshotInterval} 20000 (the default), recovery reads a snapshot and up to 20,000
+ * records; with a larger interval, it replays all records of the hour.
+ * </p>
+ * <p>
+ * Run with {@code java -cp <test classpath> }
+ * {@code org.opentcs.kernel.workingset.TransportOrderJournalBenchmark}.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransportOrderJournalBenchmark {
+
+  /**
+   * The number of transport orders processed per hour.
+   */
+  private static final int ORDERS_PER_HOUR = 10000;
+  /**
+   * The number of modifications of a transport order during its life.
+   */
+  private static final int RECORDS_PER_ORDER = 6;
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public void makeModificationDurable(WriteState state) {
+    state.journal.objectStored(state.nextState());
+    state.journal.awaitDurable();
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public int recoverOneHour(RecoveryState state) {
+    TransportOrderJournal journal = state.newJournal();
+    int recovered = journal.open().size();
+    journal.close();
+    return recovered;
+  }
+
+  public static void main(String[] args)
+      throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(TransportOrderJournalBenchmark.class.getSimpleName())
+        .build())
+        .run();
+  }
+
+  private static TransportOrderJournalConfiguration configuration(int snapshotInterval) {
+    TransportOrderJournalConfiguration configuration
+        = mock(TransportOrderJournalConfiguration.class);
+    when(configuration.enable()).thenReturn(true);
+    when(configuration.directory()).thenReturn("journal");
+    when(configuration.snapshotInterval()).thenReturn(snapshotInterval);
+    return configuration;
+  }
+
+  /**
+   * Returns the states of a transport order during its life.
+   */
+  private static List<TransportOrder> lifecycle(String name) {
+    List<DriveOrder> driveOrders = new ArrayList<>();
+    driveOrders.add(new DriveOrder(new DriveOrder.Destination(new Point("Point-1").getReference())
+        .withOperation("Load cargo")));
+    driveOrders.add(new DriveOrder(new DriveOrder.Destination(new Point("Point-2").getReference())
+        .withOperation("Unload cargo")));
+    TransportOrder order = new TransportOrder(name, driveOrders)
+        .withProperty("source", "host")
+        .withProperty("priority", "normal");
+
+    List<TransportOrder> states = new ArrayList<>();
+    states.add(order);
+    order = order.withState(TransportOrder.State.DISPATCHABLE);
+    states.add(order);
+    order = order.withState(TransportOrder.State.BEING_PROCESSED)
+        .withProcessingVehicle(new Vehicle("Vehicle-1").getReference());
+    states.add(order);
+    order = order.withCurrentDriveOrderIndex(1);
+    states.add(order);
+    order = order.withCurrentDriveOrderIndex(2);
+    states.add(order);
+    states.add(order.withState(TransportOrder.State.FINISHED));
+    return states;
+  }
+
+  private static void delete(File file) {
+    File[] children = file.listFiles();
+    if (children != null) {
+      for (File child : children) {
+        delete(child);
+      }
+    }
+    file.delete();
+  }
+
+  @State(Scope.Thread)
+  public static class WriteState {
+
+    private final List<TransportOrder> states = lifecycle("Order-1");
+
+    private File directory;
+
+    private TransportOrderJournal journal;
+
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp()
+        throws IOException {
+      directory = Files.createTempDirectory("journal-benchmark").toFile();
+      journal = new TransportOrderJournal(configuration(20000), directory);
+      journal.open();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+      journal.close();
+      delete(directory);
+    }
+
+    TCSObject<?> nextState() {
+      next = (next + 1) % states.size();
+      return states.get(next);
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class RecoveryState {
+
+    @Param({"20000", "1000000"})
+    public int snapshotInterval;
+
+    private File directory;
+
+    @Setup(Level.Trial)
+    public void setUp()
+        throws IOException {
+      directory = Files.createTempDirectory("journal-benchmark").toFile();
+      TransportOrderJournal journal = newJournal();
+      journal.open();
+      for (int i = 0; i < ORDERS_PER_HOUR; i++) {
+        for (TransportOrder state : lifecycle("Order-" + i)) {
+          journal.objectStored(state);
+        }
+      }
+      journal.close();
+      System.out.printf("%nJournal: %d bytes, snapshot: %d bytes%n",
+                        new File(directory, "journal/orders.journal").length(),
+                        new File(directory, "journal/orders.snapshot").length());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+      delete(directory);
+    }
+
+    TransportOrderJournal newJournal() {
+      return new TransportOrderJournal(configuration(snapshotInterval), directory);
+    }
+  }
+}
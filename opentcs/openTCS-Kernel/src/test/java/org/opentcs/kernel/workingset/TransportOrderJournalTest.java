@@ -0,0 +1,277 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.kernel.workingset;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.opentcs.data.TCSObject;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.DriveOrder;
+import org.opentcs.data.order.TransportOrder;
+
+/**
+ * Unit tests for {@link TransportOrderJournal}.
+ */
+public class TransportOrderJournalTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private final Vehicle vehicle = new Vehicle("Vehicle-1");
+
+  private TransportOrderJournalConfiguration configuration;
+
+  private File journalFile;
+
+  private TransportOrderJournal journal;
+
+  @Before
+  public void setUp() {
+    configuration = mock(TransportOrderJournalConfiguration.class);
+    when(configuration.enable()).thenReturn(true);
+    when(configuration.directory()).thenReturn("journal");
+    when(configuration.snapshotInterval()).thenReturn(1000);
+    journalFile = new File(folder.getRoot(), "journal/orders.journal");
+    journal = new TransportOrderJournal(configuration, folder.getRoot());
+  }
+
+  @After
+  public void tearDown() {
+    journal.close();
+  }
+
+  @Test
+  public void recoverLatestStatesOfObjects() {
+    journal.open();
+    TransportOrder order = order("Order-1");
+    journal.objectStored(order);
+    journal.objectStored(order.withState(TransportOrder.State.DISPATCHABLE));
+    journal.objectStored(order("Order-2"));
+    journal.objectRemoved(order("Order-2"));
+    journal.close();
+
+    List<TCSObject<?>> recovered = reopen();
+
+    assertThat(names(recovered), contains("Order-1"));
+    assertThat(((TransportOrder) recovered.get(0)).getState(),
+               is(TransportOrder.State.DISPATCHABLE));
+  }
+
+  @Test
+  public void makeRecordsDurableBeforeAwaitDurableReturns() {
+    journal.open();
+    journal.objectStored(order("Order-1"));
+    journal.awaitDurable();
+
+    // Read the journal while it is still open, as after a crash.
+    TransportOrderJournal otherJournal = new TransportOrderJournal(configuration,
+                                                                   folder.getRoot());
+    assertThat(names(otherJournal.open()), contains("Order-1"));
+    otherJournal.close();
+  }
+
+  @Test
+  public void skipCorruptRecordAndRecoverFollowingOnes()
+      throws IOException {
+    journal.open();
+    journal.objectStored(order("Order-1"));
+    journal.awaitDurable();
+    long secondRecordStart = journalFile.length();
+    journal.objectStored(order("Order-2"));
+    journal.awaitDurable();
+    long secondRecordEnd = journalFile.length();
+    journal.objectStored(order("Order-3"));
+    journal.close();
+
+    flipByte(journalFile, (secondRecordStart + secondRecordEnd) / 2);
+
+    assertThat(names(reopen()), containsInAnyOrder("Order-1", "Order-3"));
+  }
+
+  @Test(timeout = 10000)
+  public void skipLargeCorruptRegionWithoutCheckingEveryCandidatePayload()
+      throws IOException {
+    journal.open();
+    journal.objectStored(order("Order-1"));
+    journal.awaitDurable();
+    int firstRecordEnd = (int) journalFile.length();
+    journal.objectStored(order("Order-2"));
+    journal.close();
+
+    // Every aligned position in the corrupt region looks like the start of a record with a 1 MiB
+    // payload.
+    ByteBuffer corrupt = ByteBuffer.allocate(2 * 1024 * 1024);
+    while (corrupt.hasRemaining()) {
+      corrupt.putInt(1024 * 1024);
+    }
+    byte[] content = Files.readAllBytes(journalFile.toPath());
+    ByteBuffer corrupted = ByteBuffer.allocate(content.length + corrupt.capacity());
+    corrupted.put(content, 0, firstRecordEnd);
+    corrupted.put(corrupt.array());
+    corrupted.put(content, firstRecordEnd, content.length - firstRecordEnd);
+    Files.write(journalFile.toPath(), corrupted.array());
+
+    assertThat(names(reopen()), contains("Order-1", "Order-2"));
+  }
+
+  @Test
+  public void discardIncompleteRecordAtEnd()
+      throws IOException {
+    journal.open();
+    journal.objectStored(order("Order-1"));
+    journal.awaitDurable();
+    long validLength = journalFile.length();
+    journal.objectStored(order("Order-2"));
+    journal.close();
+
+    try (RandomAccessFile file = new RandomAccessFile(journalFile, "rw")) {
+      file.setLength(file.length() - 10);
+    }
+
+    assertThat(names(reopen()), contains("Order-1"));
+    assertThat(journalFile.length(), is(validLength));
+  }
+
+  @Test
+  public void recoverReservations() {
+    journal.open();
+    journal.objectStored(order("Order-1"));
+    journal.objectStored(order("Order-2"));
+    journal.reservationAdded(order("Order-1").getReference(), vehicle.getReference());
+    journal.reservationAdded(order("Order-2").getReference(), vehicle.getReference());
+    journal.reservationRemoved(order("Order-2").getReference());
+    journal.close();
+
+    reopen();
+
+    assertThat(journal.getReservations().size(), is(1));
+    assertThat(journal.getReservations(),
+               hasEntry(order("Order-1").getReference(), vehicle.getReference()));
+  }
+
+  @Test
+  public void dropReservationWithOrder() {
+    journal.open();
+    journal.objectStored(order("Order-1"));
+    journal.reservationAdded(order("Order-1").getReference(), vehicle.getReference());
+    journal.objectRemoved(order("Order-1"));
+    assertThat(journal.getReservations().isEmpty(), is(true));
+    journal.close();
+
+    reopen();
+
+    assertThat(journal.getReservations().isEmpty(), is(true));
+  }
+
+  @Test
+  public void recoverObjectsAndReservationsFromSnapshot() {
+    when(configuration.snapshotInterval()).thenReturn(2);
+    journal = new TransportOrderJournal(configuration, folder.getRoot());
+    journal.open();
+    for (int i = 0; i < 10; i++) {
+      journal.objectStored(order("Order-" + i));
+      journal.awaitDurable();
+    }
+    journal.reservationAdded(order("Order-1").getReference(), vehicle.getReference());
+    journal.objectStored(order("Order-10"));
+    journal.close();
+
+    assertThat(reopen().size(), is(11));
+    assertThat(journal.getReservations(),
+               hasEntry(order("Order-1").getReference(), vehicle.getReference()));
+  }
+
+  @Test
+  public void recoverFromSegmentsNotYetCoveredBySnapshot()
+      throws IOException {
+    journal.open();
+    journal.objectStored(order("Order-1"));
+    journal.close();
+    // As if the process died after rotating the journal, before the snapshot was written.
+    Files.move(journalFile.toPath(), new File(journalFile.getParentFile(), "orders.journal.7")
+               .toPath());
+    journal = new TransportOrderJournal(configuration, folder.getRoot());
+    journal.open();
+    journal.objectStored(order("Order-2"));
+    journal.close();
+
+    assertThat(names(reopen()), contains("Order-1", "Order-2"));
+  }
+
+  @Test
+  public void deleteSegmentsCoveredBySnapshot() {
+    when(configuration.snapshotInterval()).thenReturn(2);
+    journal = new TransportOrderJournal(configuration, folder.getRoot());
+    journal.open();
+    for (int i = 0; i < 10; i++) {
+      journal.objectStored(order("Order-" + i));
+      journal.awaitDurable();
+    }
+    journal.objectRemoved(order("Order-3"));
+    journal.close();
+
+    assertThat(journalFile.getParentFile().list((dir, name) -> name.startsWith("orders.journal."))
+        .length,
+               is(0));
+    assertThat(reopen().size(), is(9));
+  }
+
+  @Test
+  public void ignoreModificationsWhileClosed() {
+    journal.reservationAdded(order("Order-1").getReference(), vehicle.getReference());
+    journal.objectStored(order("Order-1"));
+    journal.awaitDurable();
+
+    assertThat(journal.getReservations().isEmpty(), is(true));
+    assertThat(journal.open().isEmpty(), is(true));
+  }
+
+  private List<TCSObject<?>> reopen() {
+    journal = new TransportOrderJournal(configuration, folder.getRoot());
+    return journal.open();
+  }
+
+  private static TransportOrder order(String name) {
+    return new TransportOrder(name,
+                              Collections.singletonList(new DriveOrder(new DriveOrder.Destination(
+                                  new Point("Point-1").getReference()))));
+  }
+
+  private static List<String> names(List<TCSObject<?>> objects) {
+    return objects.stream().map(TCSObject::getName).collect(Collectors.toList());
+  }
+
+  private static void flipByte(File file, long position)
+      throws IOException {
+    try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+      raf.seek(position);
+      int value = raf.read();
+      raf.seek(position);
+      raf.write(value ^ 0xff);
+    }
+  }
+}
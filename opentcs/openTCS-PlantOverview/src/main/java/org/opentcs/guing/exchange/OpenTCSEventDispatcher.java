@@ -16,20 +16,33 @@ import org.opentcs.access.KernelStateTransitionEvent;
 import org.opentcs.access.NotificationPublicationEvent;
 import org.opentcs.access.SharedKernelServicePortal;
 import org.opentcs.access.SharedKernelServicePortalProvider;
+import org.opentcs.access.rmi.services.EventBufferOverflowEvent;
+import org.opentcs.components.kernel.services.PlantModelService;
 import org.opentcs.common.ClientConnectionMode;
 import org.opentcs.components.Lifecycle;
 import org.opentcs.customizations.ApplicationEventBus;
 import org.opentcs.data.TCSObject;
 import org.opentcs.data.TCSObjectEvent;
 import static org.opentcs.data.TCSObjectEvent.Type.OBJECT_MODIFIED;
+import org.opentcs.data.model.Block;
+import org.opentcs.data.model.Location;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
 import org.opentcs.data.order.OrderSequence;
 import org.opentcs.data.order.TransportOrder;
+import org.opentcs.drivers.vehicle.telemetry.VehicleTelemetryEvent;
+import org.opentcs.drivers.vehicle.telemetry.VehicleTelemetrySample;
 import org.opentcs.guing.application.OperationMode;
+import org.opentcs.guing.components.properties.event.NullAttributesChangeListener;
+import org.opentcs.guing.components.properties.type.AngleProperty;
+import org.opentcs.guing.components.properties.type.PercentProperty;
 import org.opentcs.guing.event.KernelStateChangeEvent;
 import org.opentcs.guing.event.OperationModeChangeEvent;
 import org.opentcs.guing.exchange.adapter.ProcessAdapter;
 import org.opentcs.guing.exchange.adapter.ProcessAdapterUtil;
 import org.opentcs.guing.model.ModelComponent;
+import org.opentcs.guing.model.elements.VehicleModel;
 import org.opentcs.guing.persistence.ModelManager;
 import org.opentcs.guing.util.MessageDisplay;
 import org.opentcs.util.event.EventBus;
@@ -164,6 +177,9 @@ public class OpenTCSEventDispatcher
     if (event instanceof TCSObjectEvent) {
       processObjectEvent((TCSObjectEvent) event);
     }
+    else if (event instanceof VehicleTelemetryEvent) {
+      processTelemetryEvent((VehicleTelemetryEvent) event);
+    }
     else if (event instanceof KernelStateTransitionEvent) {
       KernelStateTransitionEvent kse = (KernelStateTransitionEvent) event;
 
@@ -176,6 +192,9 @@ public class OpenTCSEventDispatcher
             KernelStateChangeEvent.convertKernelState(kse.getEnteredState())));
       }
     }
+    else if (event instanceof EventBufferOverflowEvent) {
+      resynchronize((EventBufferOverflowEvent) event);
+    }
     else if (event instanceof NotificationPublicationEvent) {
       messageDisplay.display(((NotificationPublicationEvent) event).getNotification());
     }
@@ -213,6 +232,61 @@ public class OpenTCSEventDispatcher
     }
   }
 
+  private void processTelemetryEvent(VehicleTelemetryEvent telemetryEvent) {
+    if (sharedPortal == null) {
+      return;
+    }
+
+    for (VehicleTelemetrySample sample : telemetryEvent.getSamples()) {
+      ModelComponent modelComponent = modelManager.getModel()
+          .getModelComponent(sample.getVehicleName());
+      if (!(modelComponent instanceof VehicleModel)) {
+        LOG.debug("No vehicle model found for {}", sample.getVehicleName());
+        continue;
+      }
+
+      VehicleModel model = (VehicleModel) modelComponent;
+      model.getPropertyPrecisePosition().setValue(sample.getPrecisePosition());
+      model.setPrecisePosition(sample.getPrecisePosition());
+      model.getPropertyOrientationAngle().setValueAndUnit(sample.getOrientationAngle(),
+                                                          AngleProperty.Unit.DEG);
+      model.setOrientationAngle(sample.getOrientationAngle());
+      model.getPropertyEnergyLevel().setValueAndUnit(sample.getEnergyLevel(),
+                                                     PercentProperty.Unit.PERCENT);
+      model.propertiesChanged(new NullAttributesChangeListener());
+    }
+  }
+
+  /**
+   * Updates all model components with the objects' current states after the kernel discarded
+   * events for this client.
+   * (The transport order and order sequence panels fetch the current transport orders and order
+   * sequences themselves when they receive the same event.)
+   *
+   * @param event The event indicating events were discarded.
+   */
+  private void resynchronize(EventBufferOverflowEvent event) {
+    if (sharedPortal == null) {
+      return;
+    }
+
+    LOG.warn("Kernel discarded {} event(s), fetching current object states...",
+             event.getDroppedEvents());
+    PlantModelService plantModelService = sharedPortal.getPortal().getPlantModelService();
+    resynchronize(plantModelService, Point.class);
+    resynchronize(plantModelService, Path.class);
+    resynchronize(plantModelService, Location.class);
+    resynchronize(plantModelService, Block.class);
+    resynchronize(plantModelService, Vehicle.class);
+  }
+
+  private <T extends TCSObject<T>> void resynchronize(PlantModelService plantModelService,
+                                                      Class<T> clazz) {
+    for (T tcsObject : plantModelService.fetchObjects(clazz)) {
+      processObjectModifiedEvent(tcsObject);
+    }
+  }
+
   private void processObjectModifiedEvent(TCSObject<?> tcsObject) {
     if (tcsObject instanceof TransportOrder
         || tcsObject instanceof OrderSequence) {
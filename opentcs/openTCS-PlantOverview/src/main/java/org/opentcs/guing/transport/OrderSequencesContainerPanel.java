@@ -34,6 +34,7 @@ import javax.swing.table.DefaultTableModel;
 import org.opentcs.access.KernelRuntimeException;
 import org.opentcs.access.SharedKernelServicePortal;
 import org.opentcs.access.SharedKernelServicePortalProvider;
+import org.opentcs.access.rmi.services.EventBufferOverflowEvent;
 import org.opentcs.customizations.plantoverview.ApplicationFrame;
 import org.opentcs.data.TCSObjectEvent;
 import org.opentcs.data.order.OrderSequence;
@@ -125,6 +126,10 @@ public class OrderSequencesContainerPanel
     else if (event instanceof KernelStateChangeEvent) {
       initView();
     }
+    else if (event instanceof EventBufferOverflowEvent) {
+      // The kernel discarded events for us, so fetch the current state.
+      initView();
+    }
   }
 
   /**
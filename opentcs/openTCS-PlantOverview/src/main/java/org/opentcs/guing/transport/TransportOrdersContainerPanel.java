@@ -37,6 +37,7 @@ import javax.swing.table.DefaultTableModel;
 import org.opentcs.access.KernelRuntimeException;
 import org.opentcs.access.SharedKernelServicePortal;
 import org.opentcs.access.SharedKernelServicePortalProvider;
+import org.opentcs.access.rmi.services.EventBufferOverflowEvent;
 import org.opentcs.data.TCSObjectEvent;
 import org.opentcs.data.order.DriveOrder;
 import org.opentcs.data.order.TransportOrder;
@@ -136,6 +137,10 @@ public class TransportOrdersContainerPanel
     else if (event instanceof KernelStateChangeEvent) {
       initView();
     }
+    else if (event instanceof EventBufferOverflowEvent) {
+      // The kernel discarded events for us, so fetch the current state.
+      initView();
+    }
   }
 
   /**
@@ -180,6 +180,8 @@ public class DefaultDispatcherModule
 
     bind(TransportOrderUtil.class)
         .in(Singleton.class);
+    bind(ParallelCandidateEvaluator.class)
+        .in(Singleton.class);
   }
 
 }
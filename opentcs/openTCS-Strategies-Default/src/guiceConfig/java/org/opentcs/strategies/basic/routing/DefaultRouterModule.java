@@ -71,6 +71,10 @@ public class DefaultRouterModule
         bind(PointRouterFactory.class)
             .to(FloydWarshallPointRouterFactory.class);
         break;
+      case ASTAR:
+        bind(PointRouterFactory.class)
+            .to(AStarPointRouterFactory.class);
+        break;
       default:
         LOG.warn("Unhandled algorithm selected ({}), falling back to Dijkstra's algorithm.",
                  spConfiguration.algorithm());
@@ -13,6 +13,8 @@ import org.opentcs.components.kernel.Scheduler;
 import org.opentcs.customizations.kernel.KernelInjectionModule;
 import org.opentcs.strategies.basic.scheduling.modules.SameDirectionBlockModule;
 import org.opentcs.strategies.basic.scheduling.modules.SingleVehicleBlockModule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Guice configuration for the default scheduler.
@@ -22,10 +24,33 @@ import org.opentcs.strategies.basic.scheduling.modules.SingleVehicleBlockModule;
 public class DefaultSchedulerModule
     extends KernelInjectionModule {
 
+  /**
+   * This class's logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(DefaultSchedulerModule.class);
+
   @Override
   protected void configure() {
+    DefaultSchedulerConfiguration configuration
+        = getConfigBindingProvider().get(DefaultSchedulerConfiguration.PREFIX,
+                                         DefaultSchedulerConfiguration.class);
+    bind(DefaultSchedulerConfiguration.class)
+        .toInstance(configuration);
+
     configureSchedulerDependencies();
-    bindScheduler(DefaultScheduler.class);
+
+    switch (configuration.strategy()) {
+      case RESOURCE_LOCKS:
+        bindScheduler(DefaultScheduler.class);
+        break;
+      case TIME_WINDOWS:
+        bindScheduler(TimeWindowScheduler.class);
+        break;
+      default:
+        LOG.warn("Unhandled scheduling strategy selected ({}), falling back to resource locks.",
+                 configuration.strategy());
+        bindScheduler(DefaultScheduler.class);
+    }
   }
 
   private void configureSchedulerDependencies() {
@@ -70,6 +70,10 @@ public class DefaultDispatcher
   private final DefaultDispatcherConfiguration configuration;
 
   private final RerouteUtil rerouteUtil;
+  /**
+   * Evaluates assignment candidates for the dispatching phases.
+   */
+  private final ParallelCandidateEvaluator candidateEvaluator;
   /**
    *
    */
@@ -90,6 +94,11 @@ public class DefaultDispatcher
    * @param vehicleService The vehicle service.
    * @param eventSource Where this instance registers for application events.
    * @param kernelExecutor Executes dispatching tasks.
+   * @param fullDispatchTask The full dispatch task.
+   * @param periodicDispatchTaskProvider Provides the periodic vehicle redispatching task.
+   * @param configuration The dispatcher configuration.
+   * @param rerouteUtil Reroutes vehicles.
+   * @param candidateEvaluator Evaluates assignment candidates for the dispatching phases.
    */
   @Inject
   public DefaultDispatcher(OrderReservationPool orderReservationPool,
@@ -101,7 +110,8 @@ public class DefaultDispatcher
                            FullDispatchTask fullDispatchTask,
                            Provider<PeriodicVehicleRedispatchingTask> periodicDispatchTaskProvider,
                            DefaultDispatcherConfiguration configuration,
-                           RerouteUtil rerouteUtil) {
+                           RerouteUtil rerouteUtil,
+                           ParallelCandidateEvaluator candidateEvaluator) {
     this.orderReservationPool = requireNonNull(orderReservationPool, "orderReservationPool");
     this.transportOrderUtil = requireNonNull(transportOrderUtil, "transportOrderUtil");
     this.transportOrderService = requireNonNull(transportOrderService, "transportOrderService");
@@ -113,6 +123,7 @@ public class DefaultDispatcher
                                                        "periodicDispatchTaskProvider");
     this.configuration = requireNonNull(configuration, "configuration");
     this.rerouteUtil = requireNonNull(rerouteUtil, "rerouteUtil");
+    this.candidateEvaluator = requireNonNull(candidateEvaluator, "candidateEvaluator");
   }
 
   @Override
@@ -125,6 +136,7 @@ public class DefaultDispatcher
 
     transportOrderUtil.initialize();
     orderReservationPool.clear();
+    candidateEvaluator.initialize();
 
     fullDispatchTask.initialize();
 
@@ -158,6 +170,7 @@ public class DefaultDispatcher
     implicitDispatchTrigger = null;
 
     fullDispatchTask.terminate();
+    candidateEvaluator.terminate();
 
     initialized = false;
   }
@@ -76,6 +76,20 @@ public interface DefaultDispatcherConfiguration {
       orderKey = "0_assign_special_0")
   long deadlineAtRiskPeriod();
 
+  @ConfigurationEntry(
+      type = "String",
+      description = {
+        "How free transport orders are assigned to available vehicles.",
+        "Possible values:",
+        "GREEDY: Assign one vehicle/transport order after the other, according to the configured "
+        + "priorities.",
+        "GLOBAL_OPTIMUM: Assign all at once, minimizing the sum of the routing costs for reaching "
+        + "the transport orders' first destinations. Of the transport orders, only the ones with "
+        + "the highest priorities are considered, as many as there are vehicles."
+      },
+      orderKey = "0_assign_special_1")
+  AssignmentStrategy assignmentStrategy();
+
   @ConfigurationEntry(
       type = "Boolean",
       description = "Whether orders to the current position with no operation should be assigned.",
@@ -152,6 +166,22 @@ public interface DefaultDispatcherConfiguration {
       orderKey = "9_misc")
   long idleVehicleRedispatchingInterval();
 
+  @ConfigurationEntry(
+      type = "Integer",
+      description = {
+        "The maximum number of threads computing assignment candidates in parallel.",
+        "0 means one per available processor, 1 disables parallel computation.",
+        "Values other than 1 require the router and the candidate selection filters to be safe for "
+        + "concurrent use, which the default ones are."
+      },
+      orderKey = "9_misc_1")
+  int candidateEvaluationParallelism();
+
+  enum AssignmentStrategy {
+    GREEDY,
+    GLOBAL_OPTIMUM;
+  }
+
   enum RerouteTrigger {
     NONE,
     DRIVE_ORDER_FINISHED,
@@ -128,6 +128,7 @@ public class FullDispatchTask
   @Override
   public final void run() {
     LOG.debug("Starting full dispatch run...");
+    long timeBefore = System.currentTimeMillis();
 
     checkNewOrdersPhase.run();
     // Check what vehicles involved in a process should do.
@@ -139,7 +140,8 @@ public class FullDispatchTask
     rechargeVehicles();
     parkVehicles();
 
-    LOG.debug("Finished full dispatch run.");
+    LOG.debug("Finished full dispatch run in {} milliseconds.",
+              System.currentTimeMillis() - timeBefore);
   }
 
   /**
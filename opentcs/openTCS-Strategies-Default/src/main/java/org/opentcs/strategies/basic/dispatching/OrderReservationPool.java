@@ -11,15 +11,20 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import static java.util.Objects.requireNonNull;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
 import org.opentcs.data.TCSObjectReference;
 import org.opentcs.data.model.Vehicle;
 import org.opentcs.data.order.TransportOrder;
+import org.opentcs.util.persistence.OrderReservationJournal;
 
 /**
  * Stores reservations of orders for vehicles.
+ * <p>
+ * Reservations are written through to a journal, so they survive a restart of the kernel.
+ * </p>
  *
  * @author Stefan Walter (Fraunhofer IML)
  */
@@ -31,18 +36,29 @@ public class OrderReservationPool {
   private final Map<TCSObjectReference<TransportOrder>, TCSObjectReference<Vehicle>> orderReservations
       = Collections.synchronizedMap(new HashMap<TCSObjectReference<TransportOrder>, TCSObjectReference<Vehicle>>());
 
+  /**
+   * Persists the reservations.
+   */
+  private final OrderReservationJournal journal;
+
   /**
    * Creates a new instance.
+   *
+   * @param journal Persists the reservations.
    */
   @Inject
-  public OrderReservationPool() {
+  public OrderReservationPool(@Nonnull OrderReservationJournal journal) {
+    this.journal = requireNonNull(journal, "journal");
   }
 
   /**
-   * Clears all reservations.
+   * Clears all reservations and restores the journaled ones.
    */
   public void clear() {
-    orderReservations.clear();
+    synchronized (orderReservations) {
+      orderReservations.clear();
+      orderReservations.putAll(journal.getReservations());
+    }
   }
 
   /**
@@ -58,14 +74,19 @@ public class OrderReservationPool {
   public void addReservation(@Nonnull TCSObjectReference<TransportOrder> orderRef,
                              @Nonnull TCSObjectReference<Vehicle> vehicleRef) {
     orderReservations.put(orderRef, vehicleRef);
+    journal.reservationAdded(orderRef, vehicleRef);
   }
 
   public void removeReservation(@Nonnull TCSObjectReference<TransportOrder> orderRef) {
-    orderReservations.remove(orderRef);
+    if (orderReservations.remove(orderRef) != null) {
+      journal.reservationRemoved(orderRef);
+    }
   }
 
   public void removeReservations(@Nonnull TCSObjectReference<Vehicle> vehicleRef) {
-    orderReservations.values().removeIf(value -> vehicleRef.equals(value));
+    for (TCSObjectReference<TransportOrder> orderRef : findReservations(vehicleRef)) {
+      removeReservation(orderRef);
+    }
   }
 
   public List<TCSObjectReference<TransportOrder>> findReservations(
@@ -0,0 +1,145 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.dispatching;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import static java.util.Objects.requireNonNull;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import org.opentcs.components.Lifecycle;
+import org.opentcs.util.logging.UncaughtExceptionLogger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Evaluates assignment candidates (i.e. computes routes and applies selection filters), in parallel
+ * on a pool with a bounded number of threads, if configured.
+ * <p>
+ * Candidates are evaluated sequentially by default. Parallel evaluation requires the router, its
+ * point routers and the candidate selection filters to be safe for concurrent use. The bundled
+ * point routers are (see {@code PointRouterConcurrencyTest}) - custom implementations may not be.
+ * Everything that modifies kernel state - assigning or reserving transport orders - is still done
+ * by the caller, i.e. on the kernel executor, with the evaluation results.
+ * </p>
+ */
+public class ParallelCandidateEvaluator
+    implements Lifecycle {
+
+  /**
+   * This class's Logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(ParallelCandidateEvaluator.class);
+  /**
+   * The dispatcher configuration.
+   */
+  private final DefaultDispatcherConfiguration configuration;
+  /**
+   * The pool evaluating candidates, or {@code null}, if candidates are evaluated sequentially.
+   */
+  private ForkJoinPool pool;
+  /**
+   * Whether this instance is initialized.
+   */
+  private boolean initialized;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param configuration The dispatcher configuration.
+   */
+  @Inject
+  public ParallelCandidateEvaluator(@Nonnull DefaultDispatcherConfiguration configuration) {
+    this.configuration = requireNonNull(configuration, "configuration");
+  }
+
+  @Override
+  public void initialize() {
+    if (isInitialized()) {
+      return;
+    }
+
+    int parallelism = configuration.candidateEvaluationParallelism() > 0
+        ? configuration.candidateEvaluationParallelism()
+        : Runtime.getRuntime().availableProcessors();
+    LOG.debug("Evaluating assignment candidates with parallelism {}.", parallelism);
+    pool = parallelism > 1
+        ? new ForkJoinPool(parallelism,
+                           forkJoinPool -> {
+                             ForkJoinWorkerThread thread
+                                 = ForkJoinPool.defaultForkJoinWorkerThreadFactory
+                                     .newThread(forkJoinPool);
+                             thread.setName("candidateEvaluator-" + thread.getPoolIndex());
+                             return thread;
+                           },
+                           new UncaughtExceptionLogger(false),
+                           false)
+        : null;
+
+    initialized = true;
+  }
+
+  @Override
+  public boolean isInitialized() {
+    return initialized;
+  }
+
+  @Override
+  public void terminate() {
+    if (!isInitialized()) {
+      return;
+    }
+
+    if (pool != null) {
+      pool.shutdown();
+      pool = null;
+    }
+
+    initialized = false;
+  }
+
+  /**
+   * Applies the given function to all of the given inputs, in parallel if configured.
+   * The function must not modify any kernel state. If this instance is not initialized, the
+   * function is applied sequentially.
+   *
+   * @param <T> The type of the inputs.
+   * @param <R> The type of the results.
+   * @param inputs The inputs.
+   * @param function The function to be applied.
+   * @return The results, in the same order as the inputs.
+   */
+  @Nonnull
+  public <T, R> List<R> evaluate(@Nonnull Collection<T> inputs,
+                                 @Nonnull Function<? super T, ? extends R> function) {
+    requireNonNull(inputs, "inputs");
+    requireNonNull(function, "function");
+
+    if (pool == null || inputs.size() < 2) {
+      List<R> result = new ArrayList<>(inputs.size());
+      for (T input : inputs) {
+        result.add(function.apply(input));
+      }
+      return result;
+    }
+
+    // Parallel streams run in the pool of the task they are started from, so this bounds the
+    // number of threads used.
+    List<T> inputList = new ArrayList<>(inputs);
+    return pool.submit(() -> {
+      return inputList.parallelStream()
+          .map(function)
+          .collect(Collectors.<R>toList());
+    }).join();
+  }
+}
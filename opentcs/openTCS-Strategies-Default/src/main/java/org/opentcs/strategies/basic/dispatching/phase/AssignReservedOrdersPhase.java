@@ -7,6 +7,10 @@
  */
 package org.opentcs.strategies.basic.dispatching.phase;
 
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import static java.util.Objects.requireNonNull;
 import java.util.Optional;
 import javax.inject.Inject;
@@ -17,6 +21,7 @@ import org.opentcs.data.model.Vehicle;
 import org.opentcs.data.order.TransportOrder;
 import org.opentcs.strategies.basic.dispatching.AssignmentCandidate;
 import org.opentcs.strategies.basic.dispatching.OrderReservationPool;
+import org.opentcs.strategies.basic.dispatching.ParallelCandidateEvaluator;
 import org.opentcs.strategies.basic.dispatching.Phase;
 import org.opentcs.strategies.basic.dispatching.TransportOrderUtil;
 import org.opentcs.strategies.basic.dispatching.selection.candidates.CompositeAssignmentCandidateSelectionFilter;
@@ -48,6 +53,10 @@ public class AssignReservedOrdersPhase
   private final OrderReservationPool orderReservationPool;
 
   private final TransportOrderUtil transportOrderUtil;
+  /**
+   * Evaluates assignment candidates in parallel.
+   */
+  private final ParallelCandidateEvaluator candidateEvaluator;
   /**
    * Indicates whether this component is initialized.
    */
@@ -59,13 +68,15 @@ public class AssignReservedOrdersPhase
       Router router,
       CompositeAssignmentCandidateSelectionFilter assignmentCandidateSelectionFilter,
       OrderReservationPool orderReservationPool,
-      TransportOrderUtil transportOrderUtil) {
+      TransportOrderUtil transportOrderUtil,
+      ParallelCandidateEvaluator candidateEvaluator) {
     this.router = requireNonNull(router, "router");
     this.objectService = requireNonNull(objectService, "objectService");
     this.assignmentCandidateSelectionFilter = requireNonNull(assignmentCandidateSelectionFilter,
                                                              "assignmentCandidateSelectionFilter");
     this.orderReservationPool = requireNonNull(orderReservationPool, "orderReservationPool");
     this.transportOrderUtil = requireNonNull(transportOrderUtil, "transportOrderUtil");
+    this.candidateEvaluator = requireNonNull(candidateEvaluator, "candidateEvaluator");
   }
 
   @Override
@@ -91,34 +102,45 @@ public class AssignReservedOrdersPhase
 
   @Override
   public void run() {
+    List<Map.Entry<Vehicle, TransportOrder>> reservedOrders = new ArrayList<>();
     for (Vehicle vehicle : objectService.fetchObjects(Vehicle.class, this::available)) {
-      checkForReservedOrder(vehicle);
+      findReservedOrder(vehicle)
+          .ifPresent(order -> reservedOrders.add(new AbstractMap.SimpleImmutableEntry<>(vehicle,
+                                                                                      order)));
     }
+
+    // Only computing the candidates may be done in parallel - assignments must be serialized.
+    candidateEvaluator.evaluate(reservedOrders,
+                                entry -> computeAcceptedCandidate(entry.getKey(), entry.getValue()))
+        .stream()
+        .filter(optCandidate -> optCandidate.isPresent())
+        .map(optCandidate -> optCandidate.get())
+        .forEach(
+            candidate -> transportOrderUtil.assignTransportOrder(candidate.getVehicle(),
+                                                                 candidate.getTransportOrder(),
+                                                                 candidate.getDriveOrders())
+        );
   }
 
-  private void checkForReservedOrder(Vehicle vehicle) {
+  private Optional<TransportOrder> findReservedOrder(Vehicle vehicle) {
     // Check if there's an order reserved for this vehicle that is in an assignable state. If yes,
     // try to assign that.
     // Note that we expect no more than a single reserved order, and remove ALL reservations if we
     // find at least one, even if it cannot be processed by the vehicle in the end.
-    orderReservationPool.findReservations(vehicle.getReference()).stream()
+    return orderReservationPool.findReservations(vehicle.getReference()).stream()
         .map(orderRef -> objectService.fetchObject(TransportOrder.class, orderRef))
         .filter(order -> order.hasState(TransportOrder.State.DISPATCHABLE))
         .limit(1)
         .peek(order -> orderReservationPool.removeReservations(vehicle.getReference()))
-        .map(order -> computeCandidate(vehicle,
-                                       objectService.fetchObject(Point.class,
-                                                                 vehicle.getCurrentPosition()),
-                                       order))
-        .filter(optCandidate -> optCandidate.isPresent())
-        .map(optCandidate -> optCandidate.get())
-        .filter(candidate -> assignmentCandidateSelectionFilter.apply(candidate).isEmpty())
-        .findFirst()
-        .ifPresent(
-            candidate -> transportOrderUtil.assignTransportOrder(vehicle,
-                                                                 candidate.getTransportOrder(),
-                                                                 candidate.getDriveOrders())
-        );
+        .findFirst();
+  }
+
+  private Optional<AssignmentCandidate> computeAcceptedCandidate(Vehicle vehicle,
+                                                                 TransportOrder order) {
+    return computeCandidate(vehicle,
+                            objectService.fetchObject(Point.class, vehicle.getCurrentPosition()),
+                            order)
+        .filter(candidate -> assignmentCandidateSelectionFilter.apply(candidate).isEmpty());
   }
 
   private boolean available(Vehicle vehicle) {
@@ -12,11 +12,15 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import static java.util.Objects.requireNonNull;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 import javax.inject.Inject;
 import org.opentcs.components.kernel.Router;
@@ -30,7 +34,10 @@ import static org.opentcs.data.order.TransportOrderHistoryCodes.ORDER_DISPATCHIN
 import static org.opentcs.data.order.TransportOrderHistoryCodes.ORDER_DISPATCHING_RESUMED;
 import static org.opentcs.data.order.TransportOrderHistoryCodes.ORDER_RESERVED_FOR_VEHICLE;
 import org.opentcs.strategies.basic.dispatching.AssignmentCandidate;
+import org.opentcs.strategies.basic.dispatching.DefaultDispatcherConfiguration;
+import org.opentcs.strategies.basic.dispatching.DefaultDispatcherConfiguration.AssignmentStrategy;
 import org.opentcs.strategies.basic.dispatching.OrderReservationPool;
+import org.opentcs.strategies.basic.dispatching.ParallelCandidateEvaluator;
 import org.opentcs.strategies.basic.dispatching.Phase;
 import org.opentcs.strategies.basic.dispatching.TransportOrderUtil;
 import org.opentcs.strategies.basic.dispatching.phase.AssignmentState;
@@ -52,6 +59,11 @@ import org.slf4j.LoggerFactory;
 /**
  * Assigns transport orders to vehicles that are currently not processing any and are not bound to
  * any order sequences.
+ * <p>
+ * Depending on the configured {@link AssignmentStrategy}, vehicles and transport orders are either
+ * assigned one after the other, according to the configured priorities, or all at once, minimizing
+ * the sum of the costs for reaching the transport orders' first destinations.
+ * </p>
  *
  * @author Stefan Walter (Fraunhofer IML)
  */
@@ -108,6 +120,14 @@ public class AssignFreeOrdersPhase
   private final CompositeAssignmentCandidateSelectionFilter assignmentCandidateSelectionFilter;
 
   private final TransportOrderUtil transportOrderUtil;
+  /**
+   * The dispatcher configuration.
+   */
+  private final DefaultDispatcherConfiguration configuration;
+  /**
+   * Evaluates assignment candidates in parallel.
+   */
+  private final ParallelCandidateEvaluator candidateEvaluator;
 
   /**
    * Indicates whether this component is initialized.
@@ -128,7 +148,9 @@ public class AssignFreeOrdersPhase
       IsFreelyDispatchableToAnyVehicle isFreelyDispatchableToAnyVehicle,
       CompositeTransportOrderSelectionFilter transportOrderSelectionFilter,
       CompositeAssignmentCandidateSelectionFilter assignmentCandidateSelectionFilter,
-      TransportOrderUtil transportOrderUtil) {
+      TransportOrderUtil transportOrderUtil,
+      DefaultDispatcherConfiguration configuration,
+      ParallelCandidateEvaluator candidateEvaluator) {
     this.router = requireNonNull(router, "router");
     this.objectService = requireNonNull(objectService, "objectService");
     this.orderReservationPool = requireNonNull(orderReservationPool, "orderReservationPool");
@@ -147,6 +169,8 @@ public class AssignFreeOrdersPhase
     this.assignmentCandidateSelectionFilter = requireNonNull(assignmentCandidateSelectionFilter,
                                                              "assignmentCandidateSelectionFilter");
     this.transportOrderUtil = requireNonNull(transportOrderUtil, "transportOrderUtil");
+    this.configuration = requireNonNull(configuration, "configuration");
+    this.candidateEvaluator = requireNonNull(candidateEvaluator, "candidateEvaluator");
   }
 
   @Override
@@ -210,7 +234,10 @@ public class AssignFreeOrdersPhase
               availableVehicles.size());
 
     AssignmentState assignmentState = new AssignmentState();
-    if (availableVehicles.size() < availableOrders.size()) {
+    if (configuration.assignmentStrategy() == AssignmentStrategy.GLOBAL_OPTIMUM) {
+      tryAssignOptimally(availableVehicles, availableOrders, assignmentState);
+    }
+    else if (availableVehicles.size() < availableOrders.size()) {
       availableVehicles.stream()
           .sorted(vehicleComparator)
           .forEach(vehicle -> tryAssignOrder(vehicle, availableOrders, assignmentState));
@@ -296,14 +323,16 @@ public class AssignFreeOrdersPhase
 
     Point vehiclePosition = objectService.fetchObject(Point.class, vehicle.getCurrentPosition());
 
+    List<TransportOrder> orders = availableOrders.stream()
+        .filter(order -> (!assignmentState.wasAssignedToVehicle(order)
+                          && orderAssignableToVehicle(order, vehicle)))
+        .collect(Collectors.toList());
     Map<Boolean, List<CandidateFilterResult>> ordersSplitByFilter
-        = availableOrders.stream()
-            .filter(order -> (!assignmentState.wasAssignedToVehicle(order)
-                              && orderAssignableToVehicle(order, vehicle)))
-            .map(order -> computeCandidate(vehicle, vehiclePosition, order))
-            .filter(optCandidate -> optCandidate.isPresent())
-            .map(optCandidate -> optCandidate.get())
-            .map(candidate -> new CandidateFilterResult(candidate, assignmentCandidateSelectionFilter.apply(candidate)))
+        = candidateEvaluator.evaluate(orders,
+                                      order -> evaluateCandidate(vehicle, vehiclePosition, order))
+            .stream()
+            .filter(optResult -> optResult.isPresent())
+            .map(optResult -> optResult.get())
             .collect(Collectors.partitioningBy(filterResult -> !filterResult.isFiltered()));
 
     ordersSplitByFilter.get(Boolean.FALSE).stream()
@@ -322,17 +351,21 @@ public class AssignFreeOrdersPhase
                                 AssignmentState assignmentState) {
     LOG.debug("Trying to find vehicle for transport order '{}'...", order.getName());
 
+    List<Vehicle> vehicles = availableVehicles.stream()
+        .filter(vehicle -> (!assignmentState.wasAssignedToOrder(vehicle)
+                            && orderAssignableToVehicle(order, vehicle)))
+        .collect(Collectors.toList());
     Map<Boolean, List<CandidateFilterResult>> ordersSplitByFilter
-        = availableVehicles.stream()
-            .filter(vehicle -> (!assignmentState.wasAssignedToOrder(vehicle)
-                                && orderAssignableToVehicle(order, vehicle)))
-            .map(vehicle -> computeCandidate(vehicle,
-                                             objectService.fetchObject(Point.class,
-                                                                       vehicle.getCurrentPosition()),
-                                             order))
-            .filter(optCandidate -> optCandidate.isPresent())
-            .map(optCandidate -> optCandidate.get())
-            .map(candidate -> new CandidateFilterResult(candidate, assignmentCandidateSelectionFilter.apply(candidate)))
+        = candidateEvaluator.evaluate(
+            vehicles,
+            vehicle -> evaluateCandidate(vehicle,
+                                         objectService.fetchObject(Point.class,
+                                                                   vehicle.getCurrentPosition()),
+                                         order)
+        )
+            .stream()
+            .filter(optResult -> optResult.isPresent())
+            .map(optResult -> optResult.get())
             .collect(Collectors.partitioningBy(filterResult -> !filterResult.isFiltered()));
 
     ordersSplitByFilter.get(Boolean.FALSE).stream()
@@ -346,6 +379,211 @@ public class AssignFreeOrdersPhase
         .ifPresent(candidate -> assignOrder(candidate, assignmentState));
   }
 
+  /**
+   * Assigns the given transport orders to the given vehicles so that the sum of the costs for
+   * reaching the transport orders' first destinations is minimal.
+   * <p>
+   * Candidates for all pairs of vehicles and transport orders are computed and filtered as with
+   * greedy assignment. The costs of the remaining candidates form a matrix that is solved
+   * with the Hungarian algorithm. For comparison, the costs that greedy assignment would have
+   * resulted in are computed from the same candidates and logged along with the solve time.
+   * </p>
+   * <p>
+   * To respect the configured priorities (e.g. deadlines), only as many transport orders as there
+   * are free vehicles are considered at once, taken from the transport orders sorted by the
+   * order comparator. Transport orders with lower priority are thus only considered if there are
+   * more free vehicles than transport orders with higher priority, not because of lower costs. If
+   * not all vehicles could be assigned, the next transport orders are considered for the remaining
+   * vehicles.
+   * </p>
+   *
+   * @param availableVehicles The vehicles available for assignment.
+   * @param availableOrders The transport orders available for assignment.
+   * @param assignmentState Keeps track of the assignment results.
+   */
+  private void tryAssignOptimally(Collection<Vehicle> availableVehicles,
+                                  Collection<TransportOrder> availableOrders,
+                                  AssignmentState assignmentState) {
+    long timeBefore = System.currentTimeMillis();
+
+    List<Vehicle> vehicles = new ArrayList<>(availableVehicles);
+    List<TransportOrder> orders = new ArrayList<>(availableOrders);
+    Map<Vehicle, Point> vehiclePositions = new HashMap<>();
+    for (Vehicle vehicle : vehicles) {
+      vehiclePositions.put(vehicle,
+                           objectService.fetchObject(Point.class, vehicle.getCurrentPosition()));
+    }
+
+    List<VehicleOrderPair> pairs = vehicles.stream()
+        .flatMap(vehicle -> orders.stream()
+            .filter(order -> orderAssignableToVehicle(order, vehicle))
+            .map(order -> new VehicleOrderPair(vehicle, order)))
+        .collect(Collectors.toList());
+    List<CandidateFilterResult> candidates
+        = candidateEvaluator.evaluate(pairs,
+                                      pair -> evaluateCandidate(pair.vehicle,
+                                                                vehiclePositions.get(pair.vehicle),
+                                                                pair.order))
+            .stream()
+            .filter(Optional::isPresent)
+            .map(Optional::get)
+            .collect(Collectors.toList());
+
+    Map<Boolean, List<CandidateFilterResult>> candidatesSplitByFilter = candidates.stream()
+        .collect(Collectors.partitioningBy(filterResult -> !filterResult.isFiltered()));
+
+    candidatesSplitByFilter.get(Boolean.FALSE).stream()
+        .map(CandidateFilterResult::toFilterResult)
+        .forEach(filterResult -> assignmentState.addFilteredOrder(filterResult));
+
+    List<AssignmentCandidate> acceptedCandidates = candidatesSplitByFilter.get(Boolean.TRUE)
+        .stream()
+        .map(CandidateFilterResult::getCandidate)
+        .collect(Collectors.toList());
+
+    long matrixTime = System.currentTimeMillis() - timeBefore;
+
+    Map<TransportOrder, List<AssignmentCandidate>> candidatesByOrder = acceptedCandidates.stream()
+        .collect(Collectors.groupingBy(AssignmentCandidate::getTransportOrder));
+    List<TransportOrder> pendingOrders = orders.stream()
+        .filter(candidatesByOrder::containsKey)
+        .sorted(orderComparator)
+        .collect(Collectors.toList());
+    Set<Vehicle> freeVehicles = new LinkedHashSet<>(vehicles);
+
+    long solveTime = 0;
+    long totalCosts = 0;
+    int assignmentCount = 0;
+    while (!freeVehicles.isEmpty()) {
+      List<TransportOrder> batch = pendingOrders.stream()
+          .filter(order -> candidatesByOrder.get(order).stream()
+              .anyMatch(candidate -> freeVehicles.contains(candidate.getVehicle())))
+          .limit(freeVehicles.size())
+          .collect(Collectors.toList());
+      if (batch.isEmpty()) {
+        break;
+      }
+
+      long solveTimeBefore = System.currentTimeMillis();
+      // Every order in the batch can be assigned to a free vehicle, so at least one is assigned.
+      List<AssignmentCandidate> assignedCandidates
+          = solveAssignment(new ArrayList<>(freeVehicles), batch, candidatesByOrder);
+      solveTime += System.currentTimeMillis() - solveTimeBefore;
+
+      for (AssignmentCandidate candidate : assignedCandidates) {
+        totalCosts += candidate.getInitialRoutingCosts();
+        assignmentCount++;
+        assignOrder(candidate, assignmentState);
+        freeVehicles.remove(candidate.getVehicle());
+        pendingOrders.remove(candidate.getTransportOrder());
+      }
+    }
+
+    if (LOG.isDebugEnabled()) {
+      LOG.debug("Assigned {} transport orders to {} vehicles with total empty travel costs of {} "
+          + "(greedy: {}). Computing {} candidates took {} ms, solving took {} ms.",
+                assignmentCount,
+                vehicles.size(),
+                totalCosts,
+                greedyCosts(vehicles, orders, acceptedCandidates),
+                candidates.size(),
+                matrixTime,
+                solveTime);
+    }
+  }
+
+  /**
+   * Assigns the given transport orders to the given vehicles so that as many of them as possible
+   * are assigned and the sum of the costs for reaching the transport orders' first destinations is
+   * minimal.
+   *
+   * @param vehicles The vehicles.
+   * @param orders The transport orders.
+   * @param candidatesByOrder The accepted candidates, mapped by transport order.
+   * @return The candidates to be assigned.
+   */
+  private List<AssignmentCandidate> solveAssignment(
+      List<Vehicle> vehicles,
+      List<TransportOrder> orders,
+      Map<TransportOrder, List<AssignmentCandidate>> candidatesByOrder) {
+    Map<Vehicle, Integer> vehicleIndices = new HashMap<>();
+    for (int i = 0; i < vehicles.size(); i++) {
+      vehicleIndices.put(vehicles.get(i), i);
+    }
+    AssignmentCandidate[][] candidateMatrix
+        = new AssignmentCandidate[vehicles.size()][orders.size()];
+    long[][] costMatrix = new long[vehicles.size()][orders.size()];
+    for (long[] row : costMatrix) {
+      Arrays.fill(row, HungarianAlgorithm.FORBIDDEN);
+    }
+    for (int orderIndex = 0; orderIndex < orders.size(); orderIndex++) {
+      for (AssignmentCandidate candidate : candidatesByOrder.get(orders.get(orderIndex))) {
+        Integer vehicleIndex = vehicleIndices.get(candidate.getVehicle());
+        if (vehicleIndex != null) {
+          candidateMatrix[vehicleIndex][orderIndex] = candidate;
+          costMatrix[vehicleIndex][orderIndex] = candidate.getInitialRoutingCosts();
+        }
+      }
+    }
+
+    int[] assignment = HungarianAlgorithm.solve(costMatrix);
+
+    List<AssignmentCandidate> result = new ArrayList<>();
+    for (int vehicleIndex = 0; vehicleIndex < assignment.length; vehicleIndex++) {
+      if (assignment[vehicleIndex] >= 0) {
+        result.add(candidateMatrix[vehicleIndex][assignment[vehicleIndex]]);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Computes the sum of the costs for reaching the transport orders' first destinations that greedy
+   * assignment would result in for the given candidates.
+   *
+   * @param vehicles The vehicles available for assignment.
+   * @param orders The transport orders available for assignment.
+   * @param candidates The (unfiltered) candidates.
+   * @return The sum of the costs.
+   */
+  private long greedyCosts(List<Vehicle> vehicles,
+                           List<TransportOrder> orders,
+                           List<AssignmentCandidate> candidates) {
+    Set<Vehicle> assignedVehicles = new HashSet<>();
+    Set<TransportOrder> assignedOrders = new HashSet<>();
+    long result = 0;
+
+    if (vehicles.size() < orders.size()) {
+      for (Vehicle vehicle : vehicles.stream().sorted(vehicleComparator)
+          .collect(Collectors.toList())) {
+        Optional<AssignmentCandidate> best = candidates.stream()
+            .filter(candidate -> Objects.equals(candidate.getVehicle(), vehicle))
+            .filter(candidate -> !assignedOrders.contains(candidate.getTransportOrder()))
+            .sorted(orderCandidateComparator)
+            .findFirst();
+        if (best.isPresent()) {
+          assignedOrders.add(best.get().getTransportOrder());
+          result += best.get().getInitialRoutingCosts();
+        }
+      }
+    }
+    else {
+      for (TransportOrder order : orders.stream().sorted(orderComparator)
+          .collect(Collectors.toList())) {
+        Optional<AssignmentCandidate> best = candidates.stream()
+            .filter(candidate -> Objects.equals(candidate.getTransportOrder(), order))
+            .filter(candidate -> !assignedVehicles.contains(candidate.getVehicle()))
+            .sorted(vehicleCandidateComparator)
+            .findFirst();
+        if (best.isPresent()) {
+          assignedVehicles.add(best.get().getVehicle());
+          result += best.get().getInitialRoutingCosts();
+        }
+      }
+    }
+    return result;
+  }
+
   private void assignOrder(AssignmentCandidate candidate, AssignmentState assignmentState) {
     // If the vehicle currently has a (dispensable) order, we may not assign the new one here
     // directly, but must abort the old one (DefaultDispatcher.abortOrder()) and wait for the
@@ -387,6 +625,27 @@ public class AssignFreeOrdersPhase
     );
   }
 
+  /**
+   * Computes the candidate for the given vehicle and transport order and applies the candidate
+   * selection filters to it.
+   * May be called concurrently for different vehicles and transport orders.
+   *
+   * @param vehicle The vehicle.
+   * @param vehiclePosition The vehicle's current position.
+   * @param order The transport order.
+   * @return The filter result for the candidate, or an empty optional, if the vehicle cannot reach
+   * the transport order's destinations.
+   */
+  private Optional<CandidateFilterResult> evaluateCandidate(Vehicle vehicle,
+                                                            Point vehiclePosition,
+                                                            TransportOrder order) {
+    return computeCandidate(vehicle, vehiclePosition, order)
+        .map(candidate -> {
+          return new CandidateFilterResult(candidate,
+                                           assignmentCandidateSelectionFilter.apply(candidate));
+        });
+  }
+
   private Optional<AssignmentCandidate> computeCandidate(Vehicle vehicle,
                                                          Point vehiclePosition,
                                                          TransportOrder order) {
@@ -398,4 +657,19 @@ public class AssignFreeOrdersPhase
     return order.getIntendedVehicle() == null
         || Objects.equals(order.getIntendedVehicle(), vehicle.getReference());
   }
+
+  /**
+   * A vehicle and a transport order that could be assigned to it.
+   */
+  private static class VehicleOrderPair {
+
+    private final Vehicle vehicle;
+
+    private final TransportOrder order;
+
+    VehicleOrderPair(Vehicle vehicle, TransportOrder order) {
+      this.vehicle = vehicle;
+      this.order = order;
+    }
+  }
 }
@@ -0,0 +1,176 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.dispatching.phase.assignment;
+
+import java.util.Arrays;
+import static java.util.Objects.requireNonNull;
+import static org.opentcs.util.Assertions.checkArgument;
+
+/**
+ * Solves the assignment problem for a rectangular cost matrix using the Hungarian algorithm, i.e.
+ * assigns rows to columns so that as many rows/columns as possible are assigned and the sum of the
+ * costs of the assigned cells is minimal.
+ * <p>
+ * The implementation uses row and column potentials (Kuhn-Munkres with shortest augmenting paths)
+ * and runs in O(n<sup>2</sup> * m) for n &lt;= m.
+ * </p>
+ */
+final class HungarianAlgorithm {
+
+  /**
+   * Marks a cell of the cost matrix that may not be assigned.
+   */
+  static final long FORBIDDEN = -1;
+
+  /**
+   * Prevents instantiation.
+   */
+  private HungarianAlgorithm() {
+  }
+
+  /**
+   * Computes an optimal assignment for the given cost matrix.
+   *
+   * @param costs The costs, indexed by row and column. All rows must have the same length. Cells
+   * that may not be assigned are marked with {@link #FORBIDDEN}, all other costs must not be
+   * negative. Costs are expected to be far below {@link Long#MAX_VALUE}; costs so high that they
+   * could overflow while solving are treated as equal, and the assignment may then not be optimal.
+   * @return The column assigned to each row, or -1, if the row is not assigned.
+   */
+  static int[] solve(long[][] costs) {
+    requireNonNull(costs, "costs");
+
+    int rows = costs.length;
+    int columns = rows == 0 ? 0 : costs[0].length;
+    int[] result = new int[rows];
+    Arrays.fill(result, -1);
+    if (rows == 0 || columns == 0) {
+      return result;
+    }
+
+    // The algorithm requires at most as many rows as columns, so transpose the matrix if necessary.
+    boolean transposed = rows > columns;
+    long[][] matrix = transposed ? transpose(costs) : costs;
+    int[] assignment = solveNormalized(matrix);
+
+    if (transposed) {
+      for (int row = 0; row < assignment.length; row++) {
+        if (assignment[row] >= 0) {
+          result[assignment[row]] = row;
+        }
+      }
+      return result;
+    }
+    return assignment;
+  }
+
+  /**
+   * Computes an optimal assignment for a cost matrix with at most as many rows as columns.
+   *
+   * @param costs The costs.
+   * @return The column assigned to each row, or -1, if the row is not assigned.
+   */
+  private static int[] solveNormalized(long[][] costs) {
+    int n = costs.length;
+    int m = costs[0].length;
+
+    // Forbidden cells get costs higher than those of any assignment consisting of allowed cells
+    // only, so assigning one more allowed cell is always better than any reduction of costs.
+    // Potentials and slacks stay within a few multiples of the highest cell costs (times the number
+    // of rows), so all costs are limited to keep them from overflowing.
+    long costLimit = Long.MAX_VALUE / (4 * ((long) n + 1));
+    long maxCosts = 0;
+    for (long[] row : costs) {
+      checkArgument(row.length == m, "Rows of the cost matrix differ in length");
+      for (long cell : row) {
+        checkArgument(cell >= 0 || cell == FORBIDDEN, "Negative costs: %s", cell);
+        maxCosts = Math.max(maxCosts, cell);
+      }
+    }
+    long forbiddenCosts = maxCosts < costLimit / ((long) n + 1)
+        ? (maxCosts + 1) * ((long) n + 1)
+        : costLimit;
+
+    // Potentials and matching, 1-based with index 0 as a virtual column.
+    long[] rowPotentials = new long[n + 1];
+    long[] columnPotentials = new long[m + 1];
+    int[] rowOfColumn = new int[m + 1];
+    int[] previousColumn = new int[m + 1];
+    long[] minSlack = new long[m + 1];
+    boolean[] visited = new boolean[m + 1];
+
+    for (int row = 1; row <= n; row++) {
+      rowOfColumn[0] = row;
+      int column = 0;
+      Arrays.fill(minSlack, Long.MAX_VALUE);
+      Arrays.fill(visited, false);
+
+      // Find the shortest augmenting path from the current row to a free column.
+      do {
+        visited[column] = true;
+        int currentRow = rowOfColumn[column];
+        long delta = Long.MAX_VALUE;
+        int nextColumn = 0;
+        for (int j = 1; j <= m; j++) {
+          if (!visited[j]) {
+            long cell = costs[currentRow - 1][j - 1];
+            long slack = (cell == FORBIDDEN ? forbiddenCosts : Math.min(cell, forbiddenCosts))
+                - rowPotentials[currentRow] - columnPotentials[j];
+            if (slack < minSlack[j]) {
+              minSlack[j] = slack;
+              previousColumn[j] = column;
+            }
+            if (minSlack[j] < delta) {
+              delta = minSlack[j];
+              nextColumn = j;
+            }
+          }
+        }
+        for (int j = 0; j <= m; j++) {
+          if (visited[j]) {
+            rowPotentials[rowOfColumn[j]] += delta;
+            columnPotentials[j] -= delta;
+          }
+          else {
+            minSlack[j] -= delta;
+          }
+        }
+        column = nextColumn;
+      }
+      while (rowOfColumn[column] != 0);
+
+      // Flip the matching along the augmenting path.
+      do {
+        int previous = previousColumn[column];
+        rowOfColumn[column] = rowOfColumn[previous];
+        column = previous;
+      }
+      while (column != 0);
+    }
+
+    int[] result = new int[n];
+    Arrays.fill(result, -1);
+    for (int j = 1; j <= m; j++) {
+      int row = rowOfColumn[j];
+      if (row != 0 && costs[row - 1][j - 1] != FORBIDDEN) {
+        result[row - 1] = j - 1;
+      }
+    }
+    return result;
+  }
+
+  private static long[][] transpose(long[][] costs) {
+    long[][] result = new long[costs[0].length][costs.length];
+    for (int row = 0; row < costs.length; row++) {
+      for (int column = 0; column < costs[row].length; column++) {
+        result[column][row] = costs[row][column];
+      }
+    }
+    return result;
+  }
+}
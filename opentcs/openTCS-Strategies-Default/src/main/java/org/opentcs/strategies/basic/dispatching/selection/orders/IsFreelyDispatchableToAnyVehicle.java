@@ -7,8 +7,9 @@
  */
 package org.opentcs.strategies.basic.dispatching.selection.orders;
 
+import java.util.EnumSet;
 import static java.util.Objects.requireNonNull;
-import java.util.function.Predicate;
+import java.util.Set;
 import javax.inject.Inject;
 import org.opentcs.components.kernel.services.TCSObjectService;
 import org.opentcs.data.ObjectHistory;
@@ -16,6 +17,7 @@ import org.opentcs.data.order.OrderSequence;
 import org.opentcs.data.order.TransportOrder;
 import org.opentcs.strategies.basic.dispatching.OrderReservationPool;
 import org.opentcs.strategies.basic.dispatching.selection.TransportOrderSelectionFilter;
+import org.opentcs.util.IndexablePredicate;
 
 /**
  * Filters transport orders that are dispatchable and available to <em>any</em> vehicle.
@@ -28,7 +30,7 @@ import org.opentcs.strategies.basic.dispatching.selection.TransportOrderSelectio
  * @author Martin Grzenia (Fraunhofer IML)
  */
 public class IsFreelyDispatchableToAnyVehicle
-    implements Predicate<TransportOrder> {
+    implements IndexablePredicate<TransportOrder, TransportOrder.State> {
 
   /**
    * The order service.
@@ -52,6 +54,16 @@ public class IsFreelyDispatchableToAnyVehicle
     this.orderReservationPool = requireNonNull(orderReservationPool, "orderReservationPool");
   }
 
+  @Override
+  public Class<TransportOrder.State> getIndexKeyType() {
+    return TransportOrder.State.class;
+  }
+
+  @Override
+  public Set<TransportOrder.State> getIndexKeys() {
+    return EnumSet.of(TransportOrder.State.DISPATCHABLE);
+  }
+
   @Override
   public boolean test(TransportOrder order) {
     // We only want to check dispatchable transport orders.
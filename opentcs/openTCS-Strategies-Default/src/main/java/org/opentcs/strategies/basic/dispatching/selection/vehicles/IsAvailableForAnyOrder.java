@@ -7,8 +7,9 @@
  */
 package org.opentcs.strategies.basic.dispatching.selection.vehicles;
 
+import java.util.EnumSet;
 import static java.util.Objects.requireNonNull;
-import java.util.function.Predicate;
+import java.util.Set;
 import javax.inject.Inject;
 import org.opentcs.components.kernel.services.TCSObjectService;
 import org.opentcs.data.ObjectHistory;
@@ -17,6 +18,7 @@ import org.opentcs.data.order.TransportOrder;
 import org.opentcs.strategies.basic.dispatching.DefaultDispatcherConfiguration;
 import org.opentcs.strategies.basic.dispatching.OrderReservationPool;
 import org.opentcs.strategies.basic.dispatching.selection.VehicleSelectionFilter;
+import org.opentcs.util.IndexablePredicate;
 
 /**
  * Filters vehicles that are generally available for transport orders.
@@ -29,7 +31,7 @@ import org.opentcs.strategies.basic.dispatching.selection.VehicleSelectionFilter
  * @author Martin Grzenia (Fraunhofer IML)
  */
 public class IsAvailableForAnyOrder
-    implements Predicate<Vehicle> {
+    implements IndexablePredicate<Vehicle, Vehicle.IntegrationLevel> {
 
   /**
    * The object service.
@@ -60,6 +62,16 @@ public class IsAvailableForAnyOrder
     this.configuration = requireNonNull(configuration, "configuration");
   }
 
+  @Override
+  public Class<Vehicle.IntegrationLevel> getIndexKeyType() {
+    return Vehicle.IntegrationLevel.class;
+  }
+
+  @Override
+  public Set<Vehicle.IntegrationLevel> getIndexKeys() {
+    return EnumSet.of(Vehicle.IntegrationLevel.TO_BE_UTILIZED);
+  }
+
   @Override
   public boolean test(Vehicle vehicle) {
     return vehicle.getIntegrationLevel() == Vehicle.IntegrationLevel.TO_BE_UTILIZED
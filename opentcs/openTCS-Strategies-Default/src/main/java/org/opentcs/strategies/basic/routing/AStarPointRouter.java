@@ -0,0 +1,425 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import static java.util.Objects.requireNonNull;
+import javax.annotation.Nonnull;
+import org.opentcs.data.TCSObjectReference;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.Route;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Computes routes between points using the A* algorithm on a {@link RoutingTopology} with the
+ * {@link EdgeWeights} of a routing group.
+ * <p>
+ * The heuristic is the euclidean distance between a point and the destination point, scaled by the
+ * smallest ratio of edge weight to euclidean edge length found in the graph. This keeps the
+ * heuristic consistent for any edge evaluator, even if path lengths or costs do not match the
+ * points' coordinates. In the worst case (e.g. with edges of weight 0), the ratio is 0 and the
+ * search degrades to Dijkstra's algorithm.
+ * </p>
+ * <p>
+ * Changed paths are applied by updating the weights of their edges only.
+ * </p>
+ */
+public class AStarPointRouter
+    implements PointRouter {
+
+  /**
+   * This class's logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(AStarPointRouter.class);
+  /**
+   * The graph's structure.
+   */
+  private final RoutingTopology graph;
+  /**
+   * The graph's edge weights.
+   */
+  private final EdgeWeights weights;
+  /**
+   * The x coordinates of the points, indexed by vertex number.
+   */
+  private final double[] xPositions;
+  /**
+   * The y coordinates of the points, indexed by vertex number.
+   */
+  private final double[] yPositions;
+  /**
+   * The factor the euclidean distance is multiplied with for the heuristic.
+   */
+  private double heuristicScale;
+  /**
+   * The search state for each thread, reused for consecutive queries.
+   */
+  private final ThreadLocal<SearchState> searchStates;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param weights The graph's edge weights, referring to the graph's structure.
+   */
+  public AStarPointRouter(@Nonnull EdgeWeights weights) {
+    this.weights = requireNonNull(weights, "weights");
+    this.graph = weights.getTopology();
+
+    int vertexCount = graph.getVertexCount();
+    this.xPositions = new double[vertexCount];
+    this.yPositions = new double[vertexCount];
+    for (int vertex = 0; vertex < vertexCount; vertex++) {
+      xPositions[vertex] = graph.getPoint(vertex).getPosition().getX();
+      yPositions[vertex] = graph.getPoint(vertex).getPosition().getY();
+    }
+    this.heuristicScale = computeHeuristicScale();
+    this.searchStates = ThreadLocal.withInitial(() -> new SearchState(vertexCount));
+
+    LOG.debug("Heuristic scale for {} vertices and {} edges: {}",
+              vertexCount,
+              graph.getEdgeCount(),
+              heuristicScale);
+  }
+
+  @Override
+  public List<Route.Step> getRouteSteps(Point srcPoint, Point destPoint) {
+    requireNonNull(srcPoint, "srcPoint");
+    requireNonNull(destPoint, "destPoint");
+
+    long timeBefore = System.currentTimeMillis();
+    if (Objects.equals(srcPoint.getName(), destPoint.getName())) {
+      return new ArrayList<>();
+    }
+
+    int source = graph.getVertexIndex(srcPoint.getName());
+    int target = graph.getVertexIndex(destPoint.getName());
+    if (source < 0 || target < 0) {
+      return null;
+    }
+
+    SearchState state = searchStates.get();
+    if (!search(state, source, target)) {
+      return null;
+    }
+
+    List<Route.Step> result = translateToSteps(state, source, target);
+
+    LOG.debug("Looking up route from {} to {} took {} milliseconds.",
+              srcPoint.getName(),
+              destPoint.getName(),
+              System.currentTimeMillis() - timeBefore);
+
+    return result;
+  }
+
+  @Override
+  public long getCosts(TCSObjectReference<Point> srcPointRef,
+                       TCSObjectReference<Point> destPointRef) {
+    requireNonNull(srcPointRef, "srcPointRef");
+    requireNonNull(destPointRef, "destPointRef");
+
+    if (Objects.equals(srcPointRef.getName(), destPointRef.getName())) {
+      return 0;
+    }
+
+    int source = graph.getVertexIndex(srcPointRef.getName());
+    int target = graph.getVertexIndex(destPointRef.getName());
+    if (source < 0 || target < 0) {
+      return INFINITE_COSTS;
+    }
+
+    SearchState state = searchStates.get();
+    if (!search(state, source, target)) {
+      return INFINITE_COSTS;
+    }
+    return (long) state.distances[target];
+  }
+
+  @Override
+  public boolean updatePaths(Collection<Path> paths) {
+    requireNonNull(paths, "paths");
+
+    for (Path path : paths) {
+      if (graph.getPathIndex(path.getName()) < 0) {
+        // Not part of our topology, so it has to be rebuilt.
+        return false;
+      }
+    }
+    for (Path path : paths) {
+      for (int edge : weights.updatePath(path)) {
+        // Only ever lower the scale, keeping the heuristic consistent for the updated edges.
+        updateHeuristicScale(edge);
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Searches for the shortest path from the source to the target vertex.
+   *
+   * @param state The search state to use.
+   * @param source The source vertex.
+   * @param target The target vertex.
+   * @return {@code true} if, and only if, the target vertex is reachable.
+   */
+  private boolean search(SearchState state, int source, int target) {
+    state.reset();
+    state.reach(source, 0.0, -1, -1);
+    state.queue.add(source, heuristic(source, target));
+
+    while (!state.queue.isEmpty()) {
+      int vertex = state.queue.peekVertex();
+      state.queue.poll();
+      if (state.isSettled(vertex)) {
+        // A stale queue entry - the vertex has already been reached on a shorter path.
+        continue;
+      }
+      if (vertex == target) {
+        return true;
+      }
+      state.settle(vertex);
+
+      double distance = state.distances[vertex];
+      for (int edge = graph.getEdgesBegin(vertex); edge < graph.getEdgesEnd(vertex); edge++) {
+        if (!weights.isEnabled(edge)) {
+          continue;
+        }
+        int next = graph.getEdgeTarget(edge);
+        if (state.isSettled(next)) {
+          continue;
+        }
+        double nextDistance = distance + weights.getWeight(edge);
+        if (!state.isReached(next) || nextDistance < state.distances[next]) {
+          state.reach(next, nextDistance, vertex, edge);
+          state.queue.add(next, nextDistance + heuristic(next, target));
+        }
+      }
+    }
+    return false;
+  }
+
+  private double heuristic(int vertex, int target) {
+    if (heuristicScale == 0.0) {
+      return 0.0;
+    }
+    return heuristicScale * euclideanDistance(vertex, target);
+  }
+
+  private double euclideanDistance(int vertex1, int vertex2) {
+    double dx = xPositions[vertex1] - xPositions[vertex2];
+    double dy = yPositions[vertex1] - yPositions[vertex2];
+    return Math.sqrt(dx * dx + dy * dy);
+  }
+
+  /**
+   * Computes the smallest ratio of edge weight to euclidean edge length in the graph.
+   *
+   * @return The smallest ratio, or 0, if the heuristic could not be admissible.
+   */
+  private double computeHeuristicScale() {
+    heuristicScale = Double.POSITIVE_INFINITY;
+    for (int edge = 0; edge < graph.getEdgeCount(); edge++) {
+      updateHeuristicScale(edge);
+    }
+    return Double.isInfinite(heuristicScale) ? 0.0 : heuristicScale;
+  }
+
+  private void updateHeuristicScale(int edge) {
+    if (!weights.isEnabled(edge)) {
+      return;
+    }
+    int pathIndex = graph.getEdgePath(edge);
+    int[] pathEdges = graph.getPathEdges(pathIndex);
+    // The edge's source is the target of the path's other edge.
+    int source = graph.getEdgeTarget(pathEdges[0] == edge ? pathEdges[1] : pathEdges[0]);
+    double length = euclideanDistance(source, graph.getEdgeTarget(edge));
+    if (length > 0.0) {
+      heuristicScale = Math.max(0.0, Math.min(heuristicScale, weights.getWeight(edge) / length));
+    }
+  }
+
+  private List<Route.Step> translateToSteps(SearchState state, int source, int target) {
+    List<Integer> edges = new ArrayList<>();
+    for (int vertex = target; vertex != source; vertex = state.predecessors[vertex]) {
+      edges.add(state.predecessorEdges[vertex]);
+    }
+
+    List<Route.Step> result = new ArrayList<>(edges.size());
+    int routeIndex = 0;
+    int vertex = source;
+    for (int i = edges.size() - 1; i >= 0; i--) {
+      int edge = edges.get(i);
+      Point sourcePoint = graph.getPoint(vertex);
+      Point destPoint = graph.getPoint(graph.getEdgeTarget(edge));
+
+      result.add(new Route.Step(weights.getPath(edge),
+                                sourcePoint,
+                                destPoint,
+                                graph.isReverseEdge(edge)
+                                ? Vehicle.Orientation.BACKWARD
+                                : Vehicle.Orientation.FORWARD,
+                                routeIndex));
+      routeIndex++;
+      vertex = graph.getEdgeTarget(edge);
+    }
+    return result;
+  }
+
+  /**
+   * The state of a search, reused for consecutive searches by the same thread.
+   * Instead of clearing the arrays for every search, entries are marked with the number of the
+   * search they were written in.
+   */
+  private static final class SearchState {
+
+    /**
+     * The current search's number.
+     */
+    private int generation;
+    /**
+     * The number of the search in which a vertex was last reached.
+     */
+    private final int[] reachedIn;
+    /**
+     * The number of the search in which a vertex was last settled.
+     */
+    private final int[] settledIn;
+    /**
+     * The shortest known distances from the source, indexed by vertex number.
+     */
+    private final double[] distances;
+    /**
+     * The predecessor vertices on the shortest known paths, indexed by vertex number.
+     */
+    private final int[] predecessors;
+    /**
+     * The edges leading to the vertices on the shortest known paths, indexed by vertex number.
+     */
+    private final int[] predecessorEdges;
+    /**
+     * The queue of vertices to be visited.
+     */
+    private final VertexQueue queue = new VertexQueue();
+
+    SearchState(int vertexCount) {
+      reachedIn = new int[vertexCount];
+      settledIn = new int[vertexCount];
+      distances = new double[vertexCount];
+      predecessors = new int[vertexCount];
+      predecessorEdges = new int[vertexCount];
+    }
+
+    void reset() {
+      generation++;
+      if (generation == 0) {
+        // Overflow - clear the marks to avoid mistaking very old entries for current ones.
+        Arrays.fill(reachedIn, 0);
+        Arrays.fill(settledIn, 0);
+        generation = 1;
+      }
+      queue.clear();
+    }
+
+    boolean isReached(int vertex) {
+      return reachedIn[vertex] == generation;
+    }
+
+    boolean isSettled(int vertex) {
+      return settledIn[vertex] == generation;
+    }
+
+    void reach(int vertex, double distance, int predecessor, int predecessorEdge) {
+      reachedIn[vertex] = generation;
+      distances[vertex] = distance;
+      predecessors[vertex] = predecessor;
+      predecessorEdges[vertex] = predecessorEdge;
+    }
+
+    void settle(int vertex) {
+      settledIn[vertex] = generation;
+    }
+  }
+
+  /**
+   * A binary min-heap of vertices and their priorities, kept in primitive arrays.
+   * Vertices may be added multiple times; outdated entries are skipped by the search.
+   */
+  private static final class VertexQueue {
+
+    private int[] vertices = new int[64];
+
+    private double[] priorities = new double[64];
+
+    private int size;
+
+    boolean isEmpty() {
+      return size == 0;
+    }
+
+    void clear() {
+      size = 0;
+    }
+
+    int peekVertex() {
+      return vertices[0];
+    }
+
+    void add(int vertex, double priority) {
+      if (size == vertices.length) {
+        vertices = Arrays.copyOf(vertices, size * 2);
+        priorities = Arrays.copyOf(priorities, size * 2);
+      }
+      int index = size++;
+      while (index > 0) {
+        int parent = (index - 1) / 2;
+        if (priorities[parent] <= priority) {
+          break;
+        }
+        vertices[index] = vertices[parent];
+        priorities[index] = priorities[parent];
+        index = parent;
+      }
+      vertices[index] = vertex;
+      priorities[index] = priority;
+    }
+
+    void poll() {
+      size--;
+      if (size == 0) {
+        return;
+      }
+      int vertex = vertices[size];
+      double priority = priorities[size];
+      int index = 0;
+      while (true) {
+        int child = 2 * index + 1;
+        if (child >= size) {
+          break;
+        }
+        if (child + 1 < size && priorities[child + 1] < priorities[child]) {
+          child++;
+        }
+        if (priority <= priorities[child]) {
+          break;
+        }
+        vertices[index] = vertices[child];
+        priorities[index] = priorities[child];
+        index = child;
+      }
+      vertices[index] = vertex;
+      priorities[index] = priority;
+    }
+  }
+}
@@ -0,0 +1,114 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing;
+
+import java.util.Collection;
+import static java.util.Objects.requireNonNull;
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import org.opentcs.components.kernel.services.TCSObjectService;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.strategies.basic.routing.jgrapht.EdgeEvaluator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Creates {@link AStarPointRouter} instances.
+ * <p>
+ * All point routers created share a single {@link RoutingTopology}, which is only rebuilt when
+ * points or paths are added to or removed from the plant model. Each point router only keeps the
+ * {@link EdgeWeights} for its routing group.
+ * </p>
+ */
+public class AStarPointRouterFactory
+    implements PointRouterFactory {
+
+  /**
+   * This class's Logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(AStarPointRouterFactory.class);
+  /**
+   * The object service providing the model data.
+   */
+  private final TCSObjectService objectService;
+  /**
+   * Computes the edge weights.
+   */
+  private final EdgeEvaluator edgeEvaluator;
+  /**
+   * The topology shared by all point routers.
+   */
+  private RoutingTopology topology;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param objectService The object service providing model data.
+   * @param edgeEvaluator Computes the edge weights.
+   */
+  @Inject
+  public AStarPointRouterFactory(@Nonnull TCSObjectService objectService,
+                                 @Nonnull EdgeEvaluator edgeEvaluator) {
+    this.objectService = requireNonNull(objectService, "objectService");
+    this.edgeEvaluator = requireNonNull(edgeEvaluator, "edgeEvaluator");
+  }
+
+  @Override
+  public PointRouter createPointRouter(Vehicle vehicle) {
+    requireNonNull(vehicle, "vehicle");
+
+    return createPointRouter(vehicle,
+                             objectService.fetchObjects(Point.class),
+                             objectService.fetchObjects(Path.class));
+  }
+
+  @Override
+  public PointRouter createPointRouter(Vehicle vehicle,
+                                       Collection<Point> points,
+                                       Collection<Path> paths) {
+    requireNonNull(vehicle, "vehicle");
+    requireNonNull(points, "points");
+    requireNonNull(paths, "paths");
+
+    long timeStampBefore = System.currentTimeMillis();
+
+    PointRouter router = new AStarPointRouter(new EdgeWeights(currentTopology(points, paths),
+                                                              paths,
+                                                              edgeEvaluator,
+                                                              vehicle));
+
+    LOG.debug("Created point router for {} in {} milliseconds.",
+              vehicle.getName(),
+              System.currentTimeMillis() - timeStampBefore);
+
+    return router;
+  }
+
+  /**
+   * Returns a topology matching the given points and paths, reusing the existing one, if
+   * possible.
+   *
+   * @param points The points.
+   * @param paths The paths.
+   * @return A topology matching the given points and paths.
+   */
+  private synchronized RoutingTopology currentTopology(Collection<Point> points,
+                                                       Collection<Path> paths) {
+    if (topology == null || !topology.matches(points, paths)) {
+      long timeStampBefore = System.currentTimeMillis();
+      topology = new RoutingTopology(points, paths);
+      LOG.debug("Created routing topology with {} vertices and {} edges in {} milliseconds.",
+                topology.getVertexCount(),
+                topology.getEdgeCount(),
+                System.currentTimeMillis() - timeStampBefore);
+    }
+    return topology;
+  }
+}
@@ -9,6 +9,7 @@ package org.opentcs.strategies.basic.routing;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -20,6 +21,7 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
 import javax.inject.Inject;
 import org.opentcs.components.kernel.Router;
 import org.opentcs.components.kernel.services.TCSObjectService;
@@ -27,6 +29,7 @@ import org.opentcs.data.TCSObjectReference;
 import org.opentcs.data.model.Location;
 import org.opentcs.data.model.Location.Link;
 import org.opentcs.data.model.LocationType;
+import org.opentcs.data.model.Path;
 import org.opentcs.data.model.Point;
 import org.opentcs.data.model.Vehicle;
 import org.opentcs.data.order.DriveOrder;
@@ -73,6 +76,26 @@ public class DefaultRouter
    * The point routers by vehicle routing group.
    */
   private final Map<String, PointRouter> pointRoutersByVehicleGroup = new ConcurrentHashMap<>();
+  /**
+   * The paths as of the last update of the point routers, mapped by name.
+   */
+  private final Map<String, Path> pathsByName = new HashMap<>();
+  /**
+   * The points as of the last update of the point routers, mapped by name.
+   */
+  private final Map<String, Point> pointsByName = new HashMap<>();
+  /**
+   * The vehicles the point routers have been created for, mapped by routing group.
+   */
+  private final Map<String, Vehicle> routedVehiclesByGroup = new HashMap<>();
+  /**
+   * The time (in ms) it took to apply the last topology change.
+   */
+  private volatile long lastTopologyUpdateDuration;
+  /**
+   * The maximum time (in ms) it took to apply a topology change.
+   */
+  private volatile long maxTopologyUpdateDuration;
   /**
    * Prevents reading from the routing tables and planned routes while updating them.
    */
@@ -128,6 +151,9 @@ public class DefaultRouter
       rwLock.writeLock().lock();
       routesByVehicle.clear();
       pointRoutersByVehicleGroup.clear();
+      pointsByName.clear();
+      pathsByName.clear();
+      routedVehiclesByGroup.clear();
       initialized = false;
     }
     finally {
@@ -140,21 +166,136 @@ public class DefaultRouter
   public void updateRoutingTables() {
     try {
       rwLock.writeLock().lock();
+      long timeBefore = System.currentTimeMillis();
+      Set<Point> points = objectService.fetchObjects(Point.class);
+      Set<Path> paths = objectService.fetchObjects(Path.class);
+      Map<String, Vehicle> vehiclesByGroup = vehiclesByRoutingGroup();
+
       pointRoutersByVehicleGroup.clear();
-      for (Vehicle curVehicle : objectService.fetchObjects(Vehicle.class)) {
-        String currentGroup = getRoutingGroupOfVehicle(curVehicle);
-        if (!pointRoutersByVehicleGroup.containsKey(currentGroup)) {
-          pointRoutersByVehicleGroup.put(currentGroup,
-                                         pointRouterFactory.createPointRouter(curVehicle));
-        }
+      pointRoutersByVehicleGroup.putAll(createPointRouters(vehiclesByGroup.values(),
+                                                           points,
+                                                           paths));
+      rememberModelState(points, paths, vehiclesByGroup);
+      LOG.debug("Number of point routers created: {} (in {} milliseconds)",
+                pointRoutersByVehicleGroup.size(),
+                System.currentTimeMillis() - timeBefore);
+    }
+    finally {
+      rwLock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * If only attributes of existing paths have changed (e.g. paths have been locked or unlocked),
+   * the point routers are asked to update the weights of the affected paths only. Point routers
+   * that do not support this, and point routers for routing groups whose vehicles' routing
+   * relevant attributes (e.g. their maximum velocities) have changed, are rebuilt. All point
+   * routers are rebuilt in case points, paths or routing groups have been added or removed, or
+   * points have changed in a way that may affect routing (e.g. their positions).
+   * </p>
+   * <p>
+   * Routes are computed based on the changed topology as soon as this method returns. The time
+   * this takes is measured and can be retrieved via {@link #getLastTopologyUpdateDuration()} and
+   * {@link #getMaxTopologyUpdateDuration()}.
+   * </p>
+   */
+  @Override
+  public void topologyChanged() {
+    try {
+      rwLock.writeLock().lock();
+      long timeBefore = System.currentTimeMillis();
+      applyTopologyChange();
+      long duration = System.currentTimeMillis() - timeBefore;
+
+      lastTopologyUpdateDuration = duration;
+      maxTopologyUpdateDuration = Math.max(maxTopologyUpdateDuration, duration);
+      LOG.debug("Applied topology change in {} milliseconds.", duration);
+      if (duration > configuration.topologyUpdateWarningThreshold()) {
+        LOG.warn("Applying topology change took {} milliseconds (threshold: {} milliseconds).",
+                 duration,
+                 configuration.topologyUpdateWarningThreshold());
       }
-      LOG.debug("Number of point routers created: {}", pointRoutersByVehicleGroup.size());
     }
     finally {
       rwLock.writeLock().unlock();
     }
   }
 
+  /**
+   * Returns the time it took to apply the last topology change, i.e. until routes were computed
+   * based on the changed topology.
+   *
+   * @return The time (in ms) it took to apply the last topology change.
+   */
+  public long getLastTopologyUpdateDuration() {
+    return lastTopologyUpdateDuration;
+  }
+
+  /**
+   * Returns the maximum time it took to apply a topology change since this router was created.
+   *
+   * @return The maximum time (in ms) it took to apply a topology change.
+   */
+  public long getMaxTopologyUpdateDuration() {
+    return maxTopologyUpdateDuration;
+  }
+
+  /**
+   * Updates the point routers according to the current state of the plant model.
+   */
+  @SuppressWarnings("deprecation")
+  private void applyTopologyChange() {
+    Set<Point> points = objectService.fetchObjects(Point.class);
+    Set<Path> paths = objectService.fetchObjects(Path.class);
+    Map<String, Vehicle> vehiclesByGroup = vehiclesByRoutingGroup();
+
+    if (points.size() != pointsByName.size()
+        || !points.stream().allMatch(point -> pointsByName.containsKey(point.getName()))
+        || points.stream().anyMatch(point -> RoutingTopology.isRoutingRelevantChange(
+            pointsByName.get(point.getName()), point))
+        || paths.size() != pathsByName.size()
+        || !paths.stream().allMatch(path -> pathsByName.containsKey(path.getName()))
+        || !vehiclesByGroup.keySet().equals(pointRoutersByVehicleGroup.keySet())) {
+      LOG.debug("Plant model structure, points or routing groups changed, rebuilding point "
+          + "routers.");
+      updateRoutingTables();
+      return;
+    }
+
+    List<Path> changedPaths = paths.stream()
+        .filter(path -> isRoutingRelevantChange(pathsByName.get(path.getName()), path))
+        .collect(Collectors.toList());
+
+    // The point routers keep the state of the vehicles they were created for, so they need to be
+    // rebuilt if that state changed.
+    List<Vehicle> vehiclesToRebuild = vehiclesByGroup.entrySet().stream()
+        .filter(entry -> isRoutingRelevantChange(routedVehiclesByGroup.get(entry.getKey()),
+                                                 entry.getValue()))
+        .map(Map.Entry::getValue)
+        .collect(Collectors.toList());
+    if (changedPaths.isEmpty() && vehiclesToRebuild.isEmpty()) {
+      return;
+    }
+
+    if (!changedPaths.isEmpty()) {
+      for (Map.Entry<String, PointRouter> entry : pointRoutersByVehicleGroup.entrySet()) {
+        Vehicle vehicle = vehiclesByGroup.get(entry.getKey());
+        if (!vehiclesToRebuild.contains(vehicle) && !entry.getValue().updatePaths(changedPaths)) {
+          vehiclesToRebuild.add(vehicle);
+        }
+      }
+    }
+    pointRoutersByVehicleGroup.putAll(createPointRouters(vehiclesToRebuild, points, paths));
+    rememberModelState(points, paths, vehiclesByGroup);
+
+    LOG.debug("Applied {} changed paths to {} point routers ({} rebuilt).",
+              changedPaths.size(),
+              pointRoutersByVehicleGroup.size(),
+              vehiclesToRebuild.size());
+  }
+
   @Override
   public Set<Vehicle> checkRoutability(TransportOrder order) {
     requireNonNull(order, "order");
@@ -537,6 +678,101 @@ public class DefaultRouter
     return result;
   }
 
+  /**
+   * Returns one vehicle for each routing group, mapped by routing group.
+   * For each routing group, the vehicle with the lexicographically smallest name is selected, so
+   * the same vehicle is selected as long as the routing group's vehicles do not change.
+   *
+   * @return One vehicle for each routing group.
+   */
+  private Map<String, Vehicle> vehiclesByRoutingGroup() {
+    Map<String, Vehicle> result = new HashMap<>();
+    for (Vehicle curVehicle : objectService.fetchObjects(Vehicle.class)) {
+      result.merge(getRoutingGroupOfVehicle(curVehicle),
+                   curVehicle,
+                   (v1, v2) -> v1.getName().compareTo(v2.getName()) <= 0 ? v1 : v2);
+    }
+    return result;
+  }
+
+  /**
+   * Creates point routers for the given vehicles' routing groups.
+   *
+   * @param vehicles The vehicles, one for each routing group.
+   * @param points The points in the plant model.
+   * @param paths The paths in the plant model.
+   * @return The point routers, mapped by routing group.
+   */
+  private Map<String, PointRouter> createPointRouters(Collection<Vehicle> vehicles,
+                                                      Set<Point> points,
+                                                      Set<Path> paths) {
+    return vehicles.stream()
+        .collect(Collectors.toMap(
+            vehicle -> getRoutingGroupOfVehicle(vehicle),
+            vehicle -> pointRouterFactory.createPointRouter(vehicle, points, paths)
+        ));
+  }
+
+  /**
+   * Remembers the given state of the plant model, to be able to detect changes later.
+   *
+   * @param points The points in the plant model.
+   * @param paths The paths in the plant model.
+   * @param vehiclesByGroup The vehicles the point routers have been created for, mapped by routing
+   * group.
+   */
+  private void rememberModelState(Set<Point> points,
+                                  Set<Path> paths,
+                                  Map<String, Vehicle> vehiclesByGroup) {
+    pointsByName.clear();
+    for (Point point : points) {
+      pointsByName.put(point.getName(), point);
+    }
+    routedVehiclesByGroup.clear();
+    routedVehiclesByGroup.putAll(vehiclesByGroup);
+    pathsByName.clear();
+    for (Path path : paths) {
+      pathsByName.put(path.getName(), path);
+    }
+  }
+
+  /**
+   * Checks whether the given path changed in a way that may affect routing.
+   *
+   * @param oldPath The path's previous state.
+   * @param newPath The path's current state.
+   * @return {@code true} if, and only if, the path changed in a way that may affect routing.
+   */
+  @SuppressWarnings("deprecation")
+  private boolean isRoutingRelevantChange(Path oldPath, Path newPath) {
+    return oldPath.isLocked() != newPath.isLocked()
+        || oldPath.getMaxVelocity() != newPath.getMaxVelocity()
+        || oldPath.getMaxReverseVelocity() != newPath.getMaxReverseVelocity()
+        || oldPath.getLength() != newPath.getLength()
+        || oldPath.getRoutingCost() != newPath.getRoutingCost()
+        || !Objects.equals(oldPath.getSourcePoint().getName(), newPath.getSourcePoint().getName())
+        || !Objects.equals(oldPath.getDestinationPoint().getName(),
+                           newPath.getDestinationPoint().getName())
+        || !Objects.equals(oldPath.getProperties(), newPath.getProperties());
+  }
+
+  /**
+   * Checks whether the given vehicle differs from the one a point router has been created for in
+   * a way that may affect routing.
+   *
+   * @param oldVehicle The vehicle the point router has been created for.
+   * @param newVehicle The vehicle that would be selected for the point router now.
+   * @return {@code true} if, and only if, the point router would be created differently now.
+   */
+  private boolean isRoutingRelevantChange(Vehicle oldVehicle, Vehicle newVehicle) {
+    return oldVehicle == null
+        || !Objects.equals(oldVehicle.getName(), newVehicle.getName())
+        || oldVehicle.getMaxVelocity() != newVehicle.getMaxVelocity()
+        || oldVehicle.getMaxReverseVelocity() != newVehicle.getMaxReverseVelocity()
+        || oldVehicle.getLength() != newVehicle.getLength()
+        || !Objects.equals(oldVehicle.getProperties(), newVehicle.getProperties());
+  }
+
   /**
    * Returns the routing group of the vehicle or {@link #DEFAULT_ROUTING_GROUP} if the property
    * does not exist or is invalid.
@@ -28,4 +28,10 @@ public interface DefaultRouterConfiguration {
       description = "Whether to compute a route even if the vehicle is already at the destination.")
   boolean routeToCurrentPosition();
 
+  @ConfigurationEntry(
+      type = "Long",
+      description = "The time (in ms) applying a topology change may take before a warning is "
+      + "logged.")
+  long topologyUpdateWarningThreshold();
+
 }
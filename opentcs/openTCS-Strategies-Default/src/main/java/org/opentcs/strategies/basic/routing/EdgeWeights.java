@@ -0,0 +1,174 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import static java.util.Objects.requireNonNull;
+import javax.annotation.Nonnull;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.strategies.basic.routing.jgrapht.EdgeEvaluator;
+import org.opentcs.strategies.basic.routing.jgrapht.ModelEdge;
+import static org.opentcs.util.Assertions.checkArgument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The weights of the edges of a {@link RoutingTopology} for a single routing group, and a mask of
+ * the edges that may be travelled at all.
+ * <p>
+ * An edge is masked if its path is not navigable in the edge's direction (e.g. because it is
+ * locked) or if its weight is negative. When paths change, only the weights of their edges need to
+ * be computed again, via {@link #updatePath(Path)}.
+ * </p>
+ */
+public class EdgeWeights {
+
+  /**
+   * This class's Logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(EdgeWeights.class);
+  /**
+   * The topology.
+   */
+  private final RoutingTopology topology;
+  /**
+   * Computes the edge weights.
+   */
+  private final EdgeEvaluator edgeEvaluator;
+  /**
+   * The vehicle the weights are computed for.
+   */
+  private final Vehicle vehicle;
+  /**
+   * The current state of the paths, indexed by path number.
+   */
+  private final Path[] paths;
+  /**
+   * The edge weights, indexed by edge number.
+   */
+  private final double[] weights;
+  /**
+   * The edges that may be travelled.
+   */
+  private final BitSet enabledEdges;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param topology The topology.
+   * @param paths The current state of the topology's paths.
+   * @param edgeEvaluator Computes the edge weights.
+   * @param vehicle The vehicle to compute the weights for, representing its routing group.
+   */
+  public EdgeWeights(@Nonnull RoutingTopology topology,
+                     @Nonnull Collection<Path> paths,
+                     @Nonnull EdgeEvaluator edgeEvaluator,
+                     @Nonnull Vehicle vehicle) {
+    this.topology = requireNonNull(topology, "topology");
+    this.edgeEvaluator = requireNonNull(edgeEvaluator, "edgeEvaluator");
+    this.vehicle = requireNonNull(vehicle, "vehicle");
+    requireNonNull(paths, "paths");
+
+    this.paths = new Path[topology.getPathCount()];
+    weights = new double[topology.getEdgeCount()];
+    Arrays.fill(weights, Double.POSITIVE_INFINITY);
+    enabledEdges = new BitSet(topology.getEdgeCount());
+    for (Path path : paths) {
+      int pathIndex = topology.getPathIndex(path.getName());
+      if (pathIndex >= 0) {
+        this.paths[pathIndex] = path;
+        computeWeights(pathIndex);
+      }
+    }
+  }
+
+  /**
+   * Returns the topology.
+   *
+   * @return The topology.
+   */
+  @Nonnull
+  public RoutingTopology getTopology() {
+    return topology;
+  }
+
+  /**
+   * Recomputes the weights of the edges of the given path.
+   *
+   * @param path The current state of the path.
+   * @return The numbers of the path's edges.
+   * @throws IllegalArgumentException If the path is not part of the topology.
+   */
+  @Nonnull
+  public int[] updatePath(@Nonnull Path path) {
+    requireNonNull(path, "path");
+    int pathIndex = topology.getPathIndex(path.getName());
+    checkArgument(pathIndex >= 0, "Path %s is not part of the topology", path.getName());
+
+    paths[pathIndex] = path;
+    computeWeights(pathIndex);
+    return topology.getPathEdges(pathIndex);
+  }
+
+  /**
+   * Checks whether the given edge may be travelled.
+   *
+   * @param edge The edge number.
+   * @return {@code true} if, and only if, the edge may be travelled.
+   */
+  public boolean isEnabled(int edge) {
+    return enabledEdges.get(edge);
+  }
+
+  /**
+   * Returns the weight of the given edge.
+   *
+   * @param edge The edge number.
+   * @return The weight, or {@link Double#POSITIVE_INFINITY}, if the edge may not be travelled.
+   */
+  public double getWeight(int edge) {
+    return weights[edge];
+  }
+
+  /**
+   * Returns the current state of the path the given edge represents.
+   *
+   * @param edge The edge number.
+   * @return The path.
+   */
+  @Nonnull
+  public Path getPath(int edge) {
+    return paths[topology.getEdgePath(edge)];
+  }
+
+  private void computeWeights(int pathIndex) {
+    Path path = paths[pathIndex];
+    int[] edges = topology.getPathEdges(pathIndex);
+    computeWeight(edges[0], path, false, path.isNavigableForward());
+    computeWeight(edges[1], path, true, path.isNavigableReverse());
+  }
+
+  private void computeWeight(int edge, Path path, boolean reverse, boolean navigable) {
+    double weight = navigable
+        ? edgeEvaluator.computeWeight(new ModelEdge(path, reverse), vehicle)
+        : Double.POSITIVE_INFINITY;
+    if (weight < 0) {
+      LOG.warn("Edge of path {} (reverse: {}) with weight {} ignored. Negative weights are not "
+          + "supported.",
+               path.getName(),
+               reverse,
+               weight);
+      weight = Double.POSITIVE_INFINITY;
+    }
+    weights[edge] = weight;
+    enabledEdges.set(edge, weight != Double.POSITIVE_INFINITY);
+  }
+}
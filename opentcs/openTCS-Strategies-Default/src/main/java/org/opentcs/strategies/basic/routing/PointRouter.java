@@ -7,9 +7,11 @@
  */
 package org.opentcs.strategies.basic.routing;
 
+import java.util.Collection;
 import java.util.List;
 import static java.util.Objects.requireNonNull;
 import org.opentcs.data.TCSObjectReference;
+import org.opentcs.data.model.Path;
 import org.opentcs.data.model.Point;
 import org.opentcs.data.order.Route;
 
@@ -69,4 +71,16 @@ public interface PointRouter {
 
     return getCosts(srcPoint.getReference(), destPoint.getReference());
   }
+
+  /**
+   * Updates this router for paths that have changed (e.g. have been locked or unlocked) since it
+   * was created, if possible.
+   *
+   * @param paths The current state of the changed paths.
+   * @return {@code true} if, and only if, this router was updated. If {@code false} is returned,
+   * this router does not support incremental updates and needs to be replaced.
+   */
+  default boolean updatePaths(Collection<Path> paths) {
+    return false;
+  }
 }
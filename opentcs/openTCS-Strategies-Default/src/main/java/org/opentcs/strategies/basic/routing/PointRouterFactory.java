@@ -7,6 +7,9 @@
  */
 package org.opentcs.strategies.basic.routing;
 
+import java.util.Collection;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
 import org.opentcs.data.model.Vehicle;
 
 /**
@@ -23,4 +26,23 @@ public interface PointRouterFactory {
    * @return The point router.
    */
   PointRouter createPointRouter(Vehicle vehicle);
+
+  /**
+   * Creates a point router for the given vehicle, working on the given points and paths.
+   * <p>
+   * This method may be called concurrently for multiple vehicles, with the caller holding the
+   * kernel's global synchronization object. Implementations should therefore not fetch any model
+   * data themselves but only use the given points and paths.
+   * </p>
+   *
+   * @param vehicle The vehicle.
+   * @param points The points in the plant model.
+   * @param paths The paths in the plant model.
+   * @return The point router.
+   */
+  default PointRouter createPointRouter(Vehicle vehicle,
+                                        Collection<Point> points,
+                                        Collection<Path> paths) {
+    return createPointRouter(vehicle);
+  }
 }
@@ -0,0 +1,309 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import static java.util.Objects.requireNonNull;
+import javax.annotation.Nonnull;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+
+/**
+ * The immutable structure of a plant model's routing graph, shared by all routing groups.
+ * <p>
+ * Vertices (points) are numbered from 0 to {@link #getVertexCount()} - 1 and paths from 0 to
+ * {@link #getPathCount()} - 1. Every path is represented by two edges, one for each direction,
+ * regardless of whether it can actually be travelled in that direction - which edges are usable
+ * and how expensive they are is defined separately for each routing group by {@link EdgeWeights}.
+ * Only the paths' end points and the points' positions and properties are relevant here, so the
+ * topology does not need to be rebuilt when other attributes of paths change.
+ * The outgoing edges of vertex {@code v} are numbered from {@code getEdgesBegin(v)} (inclusive) to
+ * {@code getEdgesEnd(v)} (exclusive), in compressed sparse row format, and their attributes are
+ * kept in plain arrays indexed by these numbers.
+ * </p>
+ */
+public class RoutingTopology {
+
+  /**
+   * The points, indexed by vertex number.
+   */
+  private final Point[] points;
+  /**
+   * The vertex numbers, mapped by point names.
+   */
+  private final Map<String, Integer> vertexIndices;
+  /**
+   * The path numbers, mapped by path names.
+   */
+  private final Map<String, Integer> pathIndices;
+  /**
+   * The number of the first outgoing edge for each vertex, plus the total number of edges.
+   */
+  private final int[] edgeOffsets;
+  /**
+   * The target vertex numbers, indexed by edge number.
+   */
+  private final int[] edgeTargets;
+  /**
+   * The path numbers, indexed by edge number.
+   */
+  private final int[] edgePaths;
+  /**
+   * The edges that travel their path in reverse direction.
+   */
+  private final BitSet reverseEdges;
+  /**
+   * The edge numbers for each path, the forward edge first, indexed by path number.
+   */
+  private final int[][] pathEdges;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param points The points.
+   * @param paths The paths. Paths connecting points not contained in the given collection of
+   * points are ignored.
+   */
+  public RoutingTopology(@Nonnull Collection<Point> points, @Nonnull Collection<Path> paths) {
+    requireNonNull(points, "points");
+    requireNonNull(paths, "paths");
+
+    this.points = points.toArray(new Point[points.size()]);
+    vertexIndices = new HashMap<>(this.points.length * 2);
+    for (int i = 0; i < this.points.length; i++) {
+      vertexIndices.put(this.points[i].getName(), i);
+    }
+
+    List<Path> validPaths = new ArrayList<>(paths.size());
+    for (Path path : paths) {
+      if (vertexIndices.containsKey(path.getSourcePoint().getName())
+          && vertexIndices.containsKey(path.getDestinationPoint().getName())) {
+        validPaths.add(path);
+      }
+    }
+    pathIndices = new HashMap<>(validPaths.size() * 2);
+    for (int i = 0; i < validPaths.size(); i++) {
+      pathIndices.put(validPaths.get(i).getName(), i);
+    }
+
+    // Count the outgoing edges per vertex first, then place every edge in its vertex's slot.
+    int vertexCount = this.points.length;
+    edgeOffsets = new int[vertexCount + 1];
+    for (Path path : validPaths) {
+      edgeOffsets[vertexIndices.get(path.getSourcePoint().getName()) + 1]++;
+      edgeOffsets[vertexIndices.get(path.getDestinationPoint().getName()) + 1]++;
+    }
+    for (int i = 0; i < vertexCount; i++) {
+      edgeOffsets[i + 1] += edgeOffsets[i];
+    }
+
+    int edgeCount = edgeOffsets[vertexCount];
+    edgeTargets = new int[edgeCount];
+    edgePaths = new int[edgeCount];
+    reverseEdges = new BitSet(edgeCount);
+    pathEdges = new int[validPaths.size()][];
+    int[] nextSlot = new int[vertexCount];
+    System.arraycopy(edgeOffsets, 0, nextSlot, 0, vertexCount);
+    for (int i = 0; i < validPaths.size(); i++) {
+      int source = vertexIndices.get(validPaths.get(i).getSourcePoint().getName());
+      int destination = vertexIndices.get(validPaths.get(i).getDestinationPoint().getName());
+
+      int forwardEdge = nextSlot[source]++;
+      edgeTargets[forwardEdge] = destination;
+      edgePaths[forwardEdge] = i;
+
+      int reverseEdge = nextSlot[destination]++;
+      edgeTargets[reverseEdge] = source;
+      edgePaths[reverseEdge] = i;
+      reverseEdges.set(reverseEdge);
+
+      pathEdges[i] = new int[]{forwardEdge, reverseEdge};
+    }
+  }
+
+  /**
+   * Checks whether this topology consists of exactly the given points and paths, i.e. whether it
+   * may be reused for them.
+   *
+   * @param points The points.
+   * @param paths The paths.
+   * @return {@code true} if, and only if, the given points and paths have the same names as the
+   * ones of this topology, the paths connect the same points and the points have not changed in a
+   * way relevant for routing.
+   */
+  public boolean matches(@Nonnull Collection<Point> points, @Nonnull Collection<Path> paths) {
+    requireNonNull(points, "points");
+    requireNonNull(paths, "paths");
+
+    if (points.size() != this.points.length || paths.size() != pathEdges.length) {
+      return false;
+    }
+    for (Point point : points) {
+      Integer vertex = vertexIndices.get(point.getName());
+      if (vertex == null || isRoutingRelevantChange(this.points[vertex], point)) {
+        return false;
+      }
+    }
+    for (Path path : paths) {
+      Integer pathIndex = pathIndices.get(path.getName());
+      if (pathIndex == null) {
+        return false;
+      }
+      Point forwardTarget = this.points[edgeTargets[pathEdges[pathIndex][0]]];
+      Point reverseTarget = this.points[edgeTargets[pathEdges[pathIndex][1]]];
+      if (!forwardTarget.getName().equals(path.getDestinationPoint().getName())
+          || !reverseTarget.getName().equals(path.getSourcePoint().getName())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Checks whether the given point changed in a way that may affect routing, i.e. whether its
+   * position (used for heuristics), its type or its properties (which may be evaluated by custom
+   * graph mappers) changed.
+   *
+   * @param oldPoint The point's previous state.
+   * @param newPoint The point's current state.
+   * @return {@code true} if, and only if, the point changed in a way that may affect routing.
+   */
+  public static boolean isRoutingRelevantChange(@Nonnull Point oldPoint,
+                                                @Nonnull Point newPoint) {
+    return !Objects.equals(oldPoint.getPosition(), newPoint.getPosition())
+        || oldPoint.getType() != newPoint.getType()
+        || !Objects.equals(oldPoint.getProperties(), newPoint.getProperties());
+  }
+
+  /**
+   * Returns the number of vertices.
+   *
+   * @return The number of vertices.
+   */
+  public int getVertexCount() {
+    return points.length;
+  }
+
+  /**
+   * Returns the number of edges.
+   *
+   * @return The number of edges.
+   */
+  public int getEdgeCount() {
+    return edgeTargets.length;
+  }
+
+  /**
+   * Returns the number of paths.
+   *
+   * @return The number of paths.
+   */
+  public int getPathCount() {
+    return pathEdges.length;
+  }
+
+  /**
+   * Returns the number of the vertex for the point with the given name.
+   *
+   * @param pointName The point name.
+   * @return The vertex number, or -1, if there is no point with the given name.
+   */
+  public int getVertexIndex(@Nonnull String pointName) {
+    Integer index = vertexIndices.get(pointName);
+    return index == null ? -1 : index;
+  }
+
+  /**
+   * Returns the point for the given vertex.
+   *
+   * @param vertex The vertex number.
+   * @return The point.
+   */
+  @Nonnull
+  public Point getPoint(int vertex) {
+    return points[vertex];
+  }
+
+  /**
+   * Returns the number of the path with the given name.
+   *
+   * @param pathName The path name.
+   * @return The path number, or -1, if there is no path with the given name.
+   */
+  public int getPathIndex(@Nonnull String pathName) {
+    Integer index = pathIndices.get(pathName);
+    return index == null ? -1 : index;
+  }
+
+  /**
+   * Returns the numbers of the edges representing the given path, the forward edge first.
+   *
+   * @param path The path number.
+   * @return The edge numbers. The returned array must not be modified.
+   */
+  @Nonnull
+  public int[] getPathEdges(int path) {
+    return pathEdges[path];
+  }
+
+  /**
+   * Returns the number of the first outgoing edge of the given vertex.
+   *
+   * @param vertex The vertex number.
+   * @return The number of the first outgoing edge.
+   */
+  public int getEdgesBegin(int vertex) {
+    return edgeOffsets[vertex];
+  }
+
+  /**
+   * Returns the number following the last outgoing edge of the given vertex.
+   *
+   * @param vertex The vertex number.
+   * @return The number following the last outgoing edge.
+   */
+  public int getEdgesEnd(int vertex) {
+    return edgeOffsets[vertex + 1];
+  }
+
+  /**
+   * Returns the target vertex of the given edge.
+   *
+   * @param edge The edge number.
+   * @return The target vertex number.
+   */
+  public int getEdgeTarget(int edge) {
+    return edgeTargets[edge];
+  }
+
+  /**
+   * Returns the number of the path the given edge represents.
+   *
+   * @param edge The edge number.
+   * @return The path number.
+   */
+  public int getEdgePath(int edge) {
+    return edgePaths[edge];
+  }
+
+  /**
+   * Checks whether the given edge travels its path in reverse direction.
+   *
+   * @param edge The edge number.
+   * @return {@code true} if, and only if, the edge travels its path in reverse direction.
+   */
+  public boolean isReverseEdge(int edge) {
+    return reverseEdges.get(edge);
+  }
+}
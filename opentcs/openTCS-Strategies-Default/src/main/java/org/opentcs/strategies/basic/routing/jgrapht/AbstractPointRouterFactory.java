@@ -7,9 +7,9 @@
  */
 package org.opentcs.strategies.basic.routing.jgrapht;
 
+import java.util.Collection;
 import java.util.Iterator;
 import static java.util.Objects.requireNonNull;
-import java.util.Set;
 import javax.annotation.Nonnull;
 import org.jgrapht.Graph;
 import org.jgrapht.alg.interfaces.ShortestPathAlgorithm;
@@ -42,31 +42,61 @@ public abstract class AbstractPointRouterFactory
    * Maps the plant model to a graph.
    */
   private final ModelGraphMapper mapper;
+  /**
+   * The configuration of the point routers created.
+   */
+  private final ShortestPathConfiguration configuration;
+  /**
+   * The graph shared by the point routers created, or {@code null}, if none has been created, yet.
+   */
+  private SharedModelGraph sharedGraph;
 
   /**
    * Creates a new instance.
    *
    * @param objectService The object service providing model data.
    * @param mapper Maps the plant model to a graph.
+   * @param configuration The configuration of the point routers created.
    */
   public AbstractPointRouterFactory(@Nonnull TCSObjectService objectService,
-                                    @Nonnull ModelGraphMapper mapper) {
+                                    @Nonnull ModelGraphMapper mapper,
+                                    @Nonnull ShortestPathConfiguration configuration) {
     this.objectService = requireNonNull(objectService, "objectService");
     this.mapper = requireNonNull(mapper, "mapper");
+    this.configuration = requireNonNull(configuration, "configuration");
   }
 
   @Override
   public PointRouter createPointRouter(Vehicle vehicle) {
     requireNonNull(vehicle, "vehicle");
 
+    return createPointRouter(vehicle,
+                             objectService.fetchObjects(Point.class),
+                             objectService.fetchObjects(Path.class));
+  }
+
+  @Override
+  public PointRouter createPointRouter(Vehicle vehicle,
+                                       Collection<Point> points,
+                                       Collection<Path> paths) {
+    requireNonNull(vehicle, "vehicle");
+    requireNonNull(points, "points");
+    requireNonNull(paths, "paths");
+
     long timeStampBefore = System.currentTimeMillis();
 
-    Set<Point> points = objectService.fetchObjects(Point.class);
-    Graph<String, ModelEdge> graph = mapper.translateModel(points,
-                                                           objectService.fetchObjects(Path.class),
-                                                           vehicle);
+    // The graph created by the mapper only provides the routing group's weights. The point router
+    // works on the shared graph, so the graph's structure is kept only once for all groups.
+    RoutingGroupGraph graph = new RoutingGroupGraph(currentSharedGraph(points, paths),
+                                                    paths,
+                                                    mapper.translateModel(points, paths, vehicle));
 
-    PointRouter router = new ShortestPathPointRouter(createShortestPathAlgorithm(graph), points);
+    PointRouter router = new ShortestPathPointRouter(graph,
+                                                     this::createShortestPathAlgorithm,
+                                                     mapper,
+                                                     vehicle,
+                                                     configuration.routeCacheSize(),
+                                                     configuration.precomputeCosts());
     // Make a single request for a route from one point to a different one to make sure the
     // point router is primed. (Some implementations are initialized lazily.)
     if (points.size() >= 2) {
@@ -81,6 +111,27 @@ public abstract class AbstractPointRouterFactory
     return router;
   }
 
+  /**
+   * Returns a shared graph matching the given points and paths, reusing the existing one, if
+   * possible.
+   *
+   * @param points The points.
+   * @param paths The paths.
+   * @return A shared graph matching the given points and paths.
+   */
+  private synchronized SharedModelGraph currentSharedGraph(Collection<Point> points,
+                                                           Collection<Path> paths) {
+    if (sharedGraph == null || !sharedGraph.matches(points, paths)) {
+      long timeStampBefore = System.currentTimeMillis();
+      sharedGraph = new SharedModelGraph(points, paths);
+      LOG.debug("Created shared graph with {} vertices and {} edges in {} milliseconds.",
+                sharedGraph.getTopology().getVertexCount(),
+                sharedGraph.getTopology().getEdgeCount(),
+                System.currentTimeMillis() - timeStampBefore);
+    }
+    return sharedGraph;
+  }
+
   /**
    * Returns a shortest path algorithm implementation working on the given graph.
    *
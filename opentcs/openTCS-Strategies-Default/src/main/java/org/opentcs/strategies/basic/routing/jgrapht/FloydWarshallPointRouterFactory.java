@@ -28,11 +28,13 @@ public class FloydWarshallPointRouterFactory
    *
    * @param objectService The object service providing model data.
    * @param mapper Maps the plant model to a graph.
+   * @param configuration The configuration of the point routers created.
    */
   @Inject
   public FloydWarshallPointRouterFactory(@Nonnull TCSObjectService objectService,
-                                         @Nonnull ModelGraphMapper mapper) {
-    super(objectService, mapper);
+                                         @Nonnull ModelGraphMapper mapper,
+                                         @Nonnull ShortestPathConfiguration configuration) {
+    super(objectService, mapper, configuration);
   }
 
   @Override
@@ -0,0 +1,168 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing.jgrapht;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import static java.util.Objects.requireNonNull;
+import javax.annotation.Nonnull;
+import org.jgrapht.Graph;
+import org.jgrapht.graph.MaskSubgraph;
+import org.opentcs.data.model.Path;
+import org.opentcs.strategies.basic.routing.RoutingTopology;
+
+/**
+ * A routing group's view of a {@link SharedModelGraph}: The shared graph's edges with the weights
+ * for the routing group, without the edges the routing group may not travel.
+ * <p>
+ * The weights and the usable edges are taken from a graph created for the routing group by a
+ * {@link ModelGraphMapper}, so they are the same as if the mapper's graph was used directly. Only
+ * an array of weights and a bit set of usable edges are kept per routing group, though.
+ * </p>
+ * <p>
+ * Note that no synchronization is done inside this class. Applying changed paths must not happen
+ * concurrently with reading the graph.
+ * </p>
+ */
+public class RoutingGroupGraph
+    extends MaskSubgraph<String, ModelEdge> {
+
+  /**
+   * The shared graph.
+   */
+  private final SharedModelGraph sharedGraph;
+  /**
+   * The edges that may be travelled by the routing group, indexed by edge number.
+   */
+  private final BitSet enabledEdges;
+  /**
+   * The edge weights, indexed by edge number.
+   */
+  private final double[] weights;
+  /**
+   * The current state of the paths, indexed by path number.
+   */
+  private final Path[] paths;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param sharedGraph The shared graph.
+   * @param paths The current state of the paths.
+   * @param mappedGraph The graph created for the routing group by a {@link ModelGraphMapper} from
+   * the given paths.
+   */
+  public RoutingGroupGraph(@Nonnull SharedModelGraph sharedGraph,
+                           @Nonnull Collection<Path> paths,
+                           @Nonnull Graph<String, ModelEdge> mappedGraph) {
+    this(sharedGraph, new BitSet(sharedGraph.getTopology().getEdgeCount()));
+    applyPaths(paths, mappedGraph);
+  }
+
+  private RoutingGroupGraph(SharedModelGraph sharedGraph, BitSet enabledEdges) {
+    super(sharedGraph.getGraph(),
+          vertex -> false,
+          edge -> !enabledEdges.get(sharedGraph.getEdgeNumber(edge)));
+    this.sharedGraph = sharedGraph;
+    this.enabledEdges = enabledEdges;
+    this.weights = new double[sharedGraph.getTopology().getEdgeCount()];
+    Arrays.fill(weights, Double.POSITIVE_INFINITY);
+    this.paths = new Path[sharedGraph.getTopology().getPathCount()];
+  }
+
+  /**
+   * Returns the shared graph.
+   *
+   * @return The shared graph.
+   */
+  @Nonnull
+  public SharedModelGraph getSharedGraph() {
+    return sharedGraph;
+  }
+
+  /**
+   * Checks whether the given path is part of the shared graph.
+   *
+   * @param path The path.
+   * @return {@code true} if, and only if, the path is part of the shared graph.
+   */
+  public boolean containsPath(@Nonnull Path path) {
+    return sharedGraph.getTopology().getPathIndex(path.getName()) >= 0;
+  }
+
+  /**
+   * Replaces the weights and usable edges of the given paths with the ones of the given graph.
+   * Edges of the given paths that are not contained in the given graph may not be travelled any
+   * more.
+   *
+   * @param changedPaths The current state of the paths. All of them must be part of the shared
+   * graph.
+   * @param mappedGraph The graph created for the routing group by a {@link ModelGraphMapper},
+   * containing (at least) the edges for the given paths.
+   */
+  public void applyPaths(@Nonnull Collection<Path> changedPaths,
+                         @Nonnull Graph<String, ModelEdge> mappedGraph) {
+    requireNonNull(changedPaths, "changedPaths");
+    requireNonNull(mappedGraph, "mappedGraph");
+
+    RoutingTopology topology = sharedGraph.getTopology();
+    for (Path path : changedPaths) {
+      int pathIndex = topology.getPathIndex(path.getName());
+      if (pathIndex < 0) {
+        continue;
+      }
+      paths[pathIndex] = path;
+      for (int edge : topology.getPathEdges(pathIndex)) {
+        enabledEdges.clear(edge);
+        weights[edge] = Double.POSITIVE_INFINITY;
+      }
+    }
+    for (ModelEdge mappedEdge : mappedGraph.edgeSet()) {
+      int pathIndex = topology.getPathIndex(mappedEdge.getModelPath().getName());
+      if (pathIndex < 0 || paths[pathIndex] != mappedEdge.getModelPath()) {
+        // Not one of the changed paths.
+        continue;
+      }
+      int edge = topology.getPathEdges(pathIndex)[mappedEdge.isTravellingReverse() ? 1 : 0];
+      enabledEdges.set(edge);
+      weights[edge] = mappedGraph.getEdgeWeight(mappedEdge);
+    }
+  }
+
+  /**
+   * Returns the weight of the given edge of the shared graph for the routing group.
+   *
+   * @param edge The edge.
+   * @return The weight, or {@link Double#POSITIVE_INFINITY}, if the edge may not be travelled.
+   */
+  public double getRoutingWeight(@Nonnull ModelEdge edge) {
+    return weights[sharedGraph.getEdgeNumber(edge)];
+  }
+
+  /**
+   * Returns the current state of the path the given edge of the shared graph represents.
+   *
+   * @param edge The edge.
+   * @return The path.
+   */
+  @Nonnull
+  public Path getCurrentPath(@Nonnull ModelEdge edge) {
+    return paths[sharedGraph.getTopology().getEdgePath(sharedGraph.getEdgeNumber(edge))];
+  }
+
+  @Override
+  public double getEdgeWeight(ModelEdge edge) {
+    return weights[sharedGraph.getEdgeNumber(edge)];
+  }
+
+  @Override
+  public void setEdgeWeight(ModelEdge edge, double weight) {
+    throw new UnsupportedOperationException("Weights are only changed by applying paths.");
+  }
+}
@@ -0,0 +1,153 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing.jgrapht;
+
+import java.util.Collection;
+import static java.util.Objects.requireNonNull;
+import javax.annotation.Nonnull;
+import org.jgrapht.Graph;
+import org.jgrapht.graph.AsUnmodifiableGraph;
+import org.jgrapht.graph.DirectedWeightedMultigraph;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.strategies.basic.routing.RoutingTopology;
+
+/**
+ * The structure of a plant model's routing graph as a JGraphT graph, shared by the point routers
+ * of all routing groups.
+ * <p>
+ * Like the {@link RoutingTopology} it is built from, the graph contains two edges for every path,
+ * one for each direction, regardless of whether the path can actually be travelled in that
+ * direction. Which edges are usable and how expensive they are is defined separately for each
+ * routing group by a {@link RoutingGroupGraph}. The graph is never modified after its creation, so
+ * it may be read concurrently.
+ * </p>
+ */
+public class SharedModelGraph {
+
+  /**
+   * The topology this graph has been built from.
+   */
+  private final RoutingTopology topology;
+  /**
+   * The graph.
+   */
+  private final Graph<String, ModelEdge> graph;
+  /**
+   * The graph's edges, indexed by their numbers in the topology.
+   */
+  private final NumberedEdge[] edges;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param points The points.
+   * @param paths The paths. Paths connecting points not contained in the given collection of
+   * points are ignored.
+   */
+  public SharedModelGraph(@Nonnull Collection<Point> points, @Nonnull Collection<Path> paths) {
+    requireNonNull(points, "points");
+    requireNonNull(paths, "paths");
+
+    topology = new RoutingTopology(points, paths);
+    Graph<String, ModelEdge> modifiableGraph = new DirectedWeightedMultigraph<>(ModelEdge.class);
+    for (Point point : points) {
+      modifiableGraph.addVertex(point.getName());
+    }
+
+    edges = new NumberedEdge[topology.getEdgeCount()];
+    for (Path path : paths) {
+      int pathIndex = topology.getPathIndex(path.getName());
+      if (pathIndex < 0) {
+        continue;
+      }
+      int[] pathEdges = topology.getPathEdges(pathIndex);
+      edges[pathEdges[0]] = new NumberedEdge(path, false, pathEdges[0]);
+      modifiableGraph.addEdge(path.getSourcePoint().getName(),
+                              path.getDestinationPoint().getName(),
+                              edges[pathEdges[0]]);
+      edges[pathEdges[1]] = new NumberedEdge(path, true, pathEdges[1]);
+      modifiableGraph.addEdge(path.getDestinationPoint().getName(),
+                              path.getSourcePoint().getName(),
+                              edges[pathEdges[1]]);
+    }
+    graph = new AsUnmodifiableGraph<>(modifiableGraph);
+  }
+
+  /**
+   * Checks whether this graph consists of exactly the given points and paths, i.e. whether it may
+   * be reused for them.
+   *
+   * @param points The points.
+   * @param paths The paths.
+   * @return {@code true} if, and only if, this graph may be reused for the given points and paths.
+   * @see RoutingTopology#matches(Collection, Collection)
+   */
+  public boolean matches(@Nonnull Collection<Point> points, @Nonnull Collection<Path> paths) {
+    return topology.matches(points, paths);
+  }
+
+  /**
+   * Returns the topology this graph has been built from.
+   *
+   * @return The topology.
+   */
+  @Nonnull
+  public RoutingTopology getTopology() {
+    return topology;
+  }
+
+  /**
+   * Returns the (unmodifiable) graph.
+   *
+   * @return The graph.
+   */
+  @Nonnull
+  public Graph<String, ModelEdge> getGraph() {
+    return graph;
+  }
+
+  /**
+   * Returns the edge with the given number.
+   *
+   * @param edge The edge number.
+   * @return The edge.
+   */
+  @Nonnull
+  public ModelEdge getEdge(int edge) {
+    return edges[edge];
+  }
+
+  /**
+   * Returns the number of the given edge of this graph.
+   *
+   * @param edge The edge.
+   * @return The edge number.
+   */
+  public int getEdgeNumber(@Nonnull ModelEdge edge) {
+    return ((NumberedEdge) edge).number;
+  }
+
+  /**
+   * An edge that knows its number in the topology, so routing groups can look up its weight in
+   * constant time.
+   */
+  private static final class NumberedEdge
+      extends ModelEdge {
+
+    /**
+     * The edge's number.
+     */
+    private final int number;
+
+    NumberedEdge(Path modelPath, boolean travellingReverse, int number) {
+      super(modelPath, travellingReverse);
+      this.number = number;
+    }
+  }
+}
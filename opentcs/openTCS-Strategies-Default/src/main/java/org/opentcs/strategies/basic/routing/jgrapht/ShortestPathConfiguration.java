@@ -30,7 +30,9 @@ public interface ShortestPathConfiguration {
         "The routing algorithm to be used. Valid values:",
         "'DIJKSTRA': Routes are computed using Dijkstra's algorithm.",
         "'BELLMAN_FORD': Routes are computed using the Bellman-Ford algorithm.",
-        "'FLOYD_WARSHALL': Routes are computed using the Floyd-Warshall algorithm."})
+        "'FLOYD_WARSHALL': Routes are computed using the Floyd-Warshall algorithm.",
+        "'ASTAR': Routes are computed using the A* algorithm on a compact graph, with the points' "
+        + "coordinates as the heuristic."})
   Algorithm algorithm();
 
   @ConfigurationEntry(
@@ -45,10 +47,27 @@ public interface ShortestPathConfiguration {
       })
   List<EvaluatorType> edgeEvaluators();
 
+  @ConfigurationEntry(
+      type = "Integer",
+      description = {
+        "The maximum number of routing results (costs and routes between pairs of points) cached "
+        + "per routing group.",
+        "0 disables caching."})
+  int routeCacheSize();
+
+  @ConfigurationEntry(
+      type = "Boolean",
+      description = {
+        "Whether to compute the routing costs between all pairs of points when the routing tables "
+        + "are updated.",
+        "Speeds up cost lookups at the expense of memory quadratic in the number of points."})
+  boolean precomputeCosts();
+
   enum Algorithm {
     DIJKSTRA(false),
     BELLMAN_FORD(true),
-    FLOYD_WARSHALL(false);
+    FLOYD_WARSHALL(false),
+    ASTAR(false);
 
     private final boolean handlingNegativeCosts;
 
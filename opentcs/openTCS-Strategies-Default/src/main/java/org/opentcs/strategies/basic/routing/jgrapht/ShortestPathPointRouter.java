@@ -9,24 +9,50 @@ package org.opentcs.strategies.basic.routing.jgrapht;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import static java.util.Objects.requireNonNull;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import javax.annotation.Nonnull;
+import org.jgrapht.Graph;
 import org.jgrapht.GraphPath;
 import org.jgrapht.alg.interfaces.ShortestPathAlgorithm;
 import org.opentcs.data.TCSObjectReference;
+import org.opentcs.data.model.Path;
 import org.opentcs.data.model.Point;
 import org.opentcs.data.model.Vehicle;
 import org.opentcs.data.order.Route;
 import org.opentcs.strategies.basic.routing.PointRouter;
+import org.opentcs.strategies.basic.routing.RoutingTopology;
+import static org.opentcs.util.Assertions.checkArgument;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Computes routes between points using a JGraphT-based shortest path algorithm.
  * <p>
+ * Results are kept in a bounded cache (least recently used entries are evicted first), so repeated
+ * requests for the same pair of points do not run the algorithm again. Optionally, the costs for
+ * all pairs of points are computed once at creation and kept in a dense matrix.
+ * </p>
+ * <p>
+ * If created with a {@link RoutingGroupGraph}, an instance can apply changes of single paths (e.g.
+ * paths being locked or unlocked) to the graph via {@link #updatePaths(Collection)} instead of
+ * being created again. Cached results are invalidated lazily in that case: If the changes only made
+ * paths more expensive or removed them, only the cached results using one of the changed paths are
+ * discarded, as all others are still optimal. Otherwise, all cached results are marked as outdated
+ * and are computed again when they are requested the next time. The cost matrix is computed again
+ * when it is accessed the next time.
+ * </p>
+ * <p>
  * <em>Note that this implementation does not integrate static routes.</em>
  * </p>
  *
@@ -39,20 +65,163 @@ public class ShortestPathPointRouter
    * This class's logger.
    */
   private static final Logger LOG = LoggerFactory.getLogger(ShortestPathPointRouter.class);
+  /**
+   * The number of cache lookups after which the cache statistics are logged.
+   */
+  private static final long STATISTICS_LOG_INTERVAL = 10000;
+  /**
+   * The weight of an edge that may not be travelled.
+   */
+  private static final double INFINITE_WEIGHT = Double.POSITIVE_INFINITY;
 
-  private final ShortestPathAlgorithm<String, ModelEdge> algo;
-
+  /**
+   * The shortest path algorithm.
+   */
+  private volatile ShortestPathAlgorithm<String, ModelEdge> algo;
+  /**
+   * The graph the algorithm works on, or {@code null}, if changes of paths cannot be applied.
+   */
+  private final RoutingGroupGraph graph;
+  /**
+   * Creates the shortest path algorithm for the graph after it has been modified.
+   */
+  private final Function<Graph<String, ModelEdge>, ShortestPathAlgorithm<String, ModelEdge>>
+      algorithmFactory;
+  /**
+   * Maps changed paths to edges.
+   */
+  private final ModelGraphMapper mapper;
+  /**
+   * The vehicle the graph has been created for.
+   */
+  private final Vehicle vehicle;
+  /**
+   * The points in the graph, mapped by their names.
+   */
   private final Map<String, Point> points = new HashMap<>();
+  /**
+   * The maximum number of cached results.
+   */
+  private final int cacheSize;
+  /**
+   * The cached results, mapped by source and destination point names.
+   */
+  private final Map<PointPair, CachedRoute> cache;
+  /**
+   * The indices of the points in the cost matrix, mapped by point names.
+   */
+  private final Map<String, Integer> pointIndices = new HashMap<>();
+  /**
+   * Whether the costs between all pairs of points are to be kept in a matrix.
+   */
+  private final boolean precomputeCosts;
+  /**
+   * The costs between all pairs of points, or {@code null}, if not (yet) computed.
+   */
+  private volatile long[][] costMatrix;
+  /**
+   * The version of the graph, incremented with every change invalidating all cached results.
+   */
+  private final AtomicLong graphVersion = new AtomicLong();
+  /**
+   * The number of requests answered from the cache or the cost matrix.
+   */
+  private final AtomicLong cacheHits = new AtomicLong();
+  /**
+   * The number of requests that required running the algorithm.
+   */
+  private final AtomicLong cacheMisses = new AtomicLong();
 
+  /**
+   * Creates a new instance without a cache.
+   *
+   * @param algo The shortest path algorithm.
+   * @param points The points in the graph.
+   */
   public ShortestPathPointRouter(ShortestPathAlgorithm<String, ModelEdge> algo,
                                  Collection<Point> points) {
-    this.algo = requireNonNull(algo, "algo");
+    this(algo, points, 0, false);
+  }
+
+  /**
+   * Creates a new instance.
+   *
+   * @param algo The shortest path algorithm.
+   * @param points The points in the graph.
+   * @param cacheSize The maximum number of cached results. 0 disables caching.
+   * @param precomputeCosts Whether to compute the costs for all pairs of points at creation.
+   */
+  public ShortestPathPointRouter(ShortestPathAlgorithm<String, ModelEdge> algo,
+                                 Collection<Point> points,
+                                 int cacheSize,
+                                 boolean precomputeCosts) {
+    this(requireNonNull(algo, "algo"), null, null, null, null, points, cacheSize, precomputeCosts);
+  }
+
+  /**
+   * Creates a new instance that is able to apply changes of paths to the given graph.
+   *
+   * @param graph The routing group's graph.
+   * @param algorithmFactory Creates the shortest path algorithm for the graph.
+   * @param mapper Maps changed paths to edges.
+   * @param vehicle The vehicle the graph has been created for.
+   * @param cacheSize The maximum number of cached results. 0 disables caching.
+   * @param precomputeCosts Whether to compute the costs for all pairs of points at creation.
+   */
+  public ShortestPathPointRouter(
+      @Nonnull RoutingGroupGraph graph,
+      @Nonnull
+      Function<Graph<String, ModelEdge>, ShortestPathAlgorithm<String, ModelEdge>> algorithmFactory,
+      @Nonnull ModelGraphMapper mapper,
+      @Nonnull Vehicle vehicle,
+      int cacheSize,
+      boolean precomputeCosts) {
+    this(null,
+         requireNonNull(graph, "graph"),
+         requireNonNull(algorithmFactory, "algorithmFactory"),
+         requireNonNull(mapper, "mapper"),
+         requireNonNull(vehicle, "vehicle"),
+         pointsOf(graph),
+         cacheSize,
+         precomputeCosts);
+  }
+
+  private ShortestPathPointRouter(
+      ShortestPathAlgorithm<String, ModelEdge> algo,
+      RoutingGroupGraph graph,
+      Function<Graph<String, ModelEdge>, ShortestPathAlgorithm<String, ModelEdge>> algorithmFactory,
+      ModelGraphMapper mapper,
+      Vehicle vehicle,
+      Collection<Point> points,
+      int cacheSize,
+      boolean precomputeCosts) {
     requireNonNull(points, "points");
+    checkArgument(cacheSize >= 0, "cacheSize is negative: %s", cacheSize);
+
+    this.graph = graph;
+    this.algorithmFactory = algorithmFactory;
+    this.mapper = mapper;
+    this.vehicle = vehicle;
+    this.algo = algo != null ? algo : createPrimedAlgorithm();
 
     for (Point point : points) {
       this.points.put(point.getName(), point);
     }
 
+    this.cacheSize = cacheSize;
+    this.cache = Collections.synchronizedMap(new LinkedHashMap<PointPair, CachedRoute>(16,
+                                                                                       0.75f,
+                                                                                       true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<PointPair, CachedRoute> eldest) {
+        return size() > ShortestPathPointRouter.this.cacheSize;
+      }
+    });
+
+    this.precomputeCosts = precomputeCosts;
+    if (precomputeCosts) {
+      costMatrix = computeCostMatrix();
+    }
   }
 
   @Override
@@ -65,12 +234,23 @@ public class ShortestPathPointRouter
       return new ArrayList<>();
     }
 
+    PointPair key = new PointPair(srcPoint.getName(), destPoint.getName());
+    long version = graphVersion.get();
+    CachedRoute cachedRoute = lookup(key, version);
+    if (cachedRoute != null && cachedRoute.hasSteps()) {
+      countHit();
+      return cachedRoute.isRoutable() ? new ArrayList<>(cachedRoute.getSteps()) : null;
+    }
+    countMiss();
+
     GraphPath<String, ModelEdge> graphPath = algo.getPath(srcPoint.getName(), destPoint.getName());
     if (graphPath == null) {
+      store(key, new CachedRoute(INFINITE_COSTS, null, version));
       return null;
     }
 
     List<Route.Step> result = translateToSteps(graphPath);
+    store(key, new CachedRoute((long) graphPath.getWeight(), new ArrayList<>(result), version));
 
     LOG.debug("Looking up route from {} to {} took {} milliseconds.",
               srcPoint.getName(),
@@ -90,13 +270,251 @@ public class ShortestPathPointRouter
       return 0;
     }
 
+    long[][] matrix = precomputeCosts ? currentCostMatrix() : null;
+    if (matrix != null) {
+      Integer srcIndex = pointIndices.get(srcPointRef.getName());
+      Integer destIndex = pointIndices.get(destPointRef.getName());
+      if (srcIndex != null && destIndex != null) {
+        countHit();
+        return matrix[srcIndex][destIndex];
+      }
+    }
+
+    PointPair key = new PointPair(srcPointRef.getName(), destPointRef.getName());
+    long version = graphVersion.get();
+    CachedRoute cachedRoute = lookup(key, version);
+    if (cachedRoute != null) {
+      countHit();
+      return cachedRoute.getCosts();
+    }
+    countMiss();
+
     GraphPath<String, ModelEdge> graphPath = algo.getPath(srcPointRef.getName(),
                                                           destPointRef.getName());
     if (graphPath == null) {
+      store(key, new CachedRoute(INFINITE_COSTS, null, version));
       return INFINITE_COSTS;
     }
 
-    return (long) graphPath.getWeight();
+    long costs = (long) graphPath.getWeight();
+    // Only keep the costs here - the steps are translated when they are actually requested.
+    store(key, new CachedRoute(costs, null, version));
+    return costs;
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * This is only supported if this instance has been created with the graph it works on.
+   * </p>
+   */
+  @Override
+  public boolean updatePaths(Collection<Path> paths) {
+    requireNonNull(paths, "paths");
+
+    if (graph == null) {
+      return false;
+    }
+    Set<Point> endPoints = new HashSet<>();
+    for (Path path : paths) {
+      if (!graph.containsPath(path)) {
+        return false;
+      }
+      endPoints.add(points.get(path.getSourcePoint().getName()));
+      endPoints.add(points.get(path.getDestinationPoint().getName()));
+    }
+
+    long timeBefore = System.currentTimeMillis();
+    Graph<String, ModelEdge> pathsGraph = mapper.translateModel(endPoints, paths, vehicle);
+    Map<String, double[]> newWeights = new HashMap<>();
+    for (ModelEdge edge : pathsGraph.edgeSet()) {
+      newWeights.computeIfAbsent(edge.getModelPath().getName(),
+                                 name -> new double[]{INFINITE_WEIGHT, INFINITE_WEIGHT})
+          [edge.isTravellingReverse() ? 1 : 0] = pathsGraph.getEdgeWeight(edge);
+    }
+
+    boolean improved = false;
+    Set<String> degradedPaths = new HashSet<>();
+    for (Path path : paths) {
+      if (isImprovement(path, newWeights.get(path.getName()))) {
+        improved = true;
+      }
+      else {
+        degradedPaths.add(path.getName());
+      }
+    }
+    graph.applyPaths(paths, pathsGraph);
+
+    // Some algorithms keep state computed from the graph, so they need to be created again.
+    algo = createPrimedAlgorithm();
+    costMatrix = null;
+    if (improved) {
+      graphVersion.incrementAndGet();
+    }
+    else {
+      discardRoutesUsing(degradedPaths);
+    }
+
+    LOG.debug("Updating {} paths (improved: {}) for {} took {} milliseconds.",
+              paths.size(),
+              improved,
+              vehicle.getName(),
+              System.currentTimeMillis() - timeBefore);
+    return true;
+  }
+
+  /**
+   * Discards all cached results and the precomputed cost matrix, if any.
+   * If costs are to be precomputed, the cost matrix is computed again when it is accessed the next
+   * time.
+   */
+  public void invalidate() {
+    costMatrix = null;
+    graphVersion.incrementAndGet();
+    cache.clear();
+  }
+
+  /**
+   * Returns the number of requests answered from the cache or the precomputed cost matrix.
+   *
+   * @return The number of requests answered from the cache or the precomputed cost matrix.
+   */
+  public long getCacheHits() {
+    return cacheHits.get();
+  }
+
+  /**
+   * Returns the number of requests that required running the shortest path algorithm.
+   *
+   * @return The number of requests that required running the shortest path algorithm.
+   */
+  public long getCacheMisses() {
+    return cacheMisses.get();
+  }
+
+  /**
+   * Returns the ratio of requests answered from the cache or the precomputed cost matrix.
+   *
+   * @return The ratio of requests answered from the cache or the precomputed cost matrix, or 0, if
+   * there were no requests, yet.
+   */
+  public double getCacheHitRate() {
+    long hits = cacheHits.get();
+    long total = hits + cacheMisses.get();
+    return total == 0 ? 0.0 : (double) hits / total;
+  }
+
+  private long[][] computeCostMatrix() {
+    long timeBefore = System.currentTimeMillis();
+
+    List<String> pointNames = new ArrayList<>(points.keySet());
+    for (int i = 0; i < pointNames.size(); i++) {
+      pointIndices.put(pointNames.get(i), i);
+    }
+
+    long[][] result = new long[pointNames.size()][pointNames.size()];
+    for (int src = 0; src < pointNames.size(); src++) {
+      ShortestPathAlgorithm.SingleSourcePaths<String, ModelEdge> paths
+          = algo.getPaths(pointNames.get(src));
+      for (int dest = 0; dest < pointNames.size(); dest++) {
+        double weight = src == dest ? 0.0 : paths.getWeight(pointNames.get(dest));
+        result[src][dest] = Double.isInfinite(weight) ? INFINITE_COSTS : (long) weight;
+      }
+    }
+
+    LOG.debug("Computing costs for {} points took {} milliseconds.",
+              pointNames.size(),
+              System.currentTimeMillis() - timeBefore);
+    return result;
+  }
+
+  private synchronized long[][] currentCostMatrix() {
+    if (costMatrix == null) {
+      costMatrix = computeCostMatrix();
+    }
+    return costMatrix;
+  }
+
+  /**
+   * Checks whether the given new weights of a path's edges may make any route cheaper, i.e.
+   * whether the weight of one of the path's edges decreases.
+   *
+   * @param path The path, with its old weights still applied to the graph.
+   * @param newWeights The new weights of the forward and the reverse edge, or {@code null}, if the
+   * path may not be travelled at all any more.
+   * @return Whether the change may make any route cheaper.
+   */
+  private boolean isImprovement(Path path, double[] newWeights) {
+    if (newWeights == null) {
+      return false;
+    }
+    RoutingTopology topology = graph.getSharedGraph().getTopology();
+    int[] edges = topology.getPathEdges(topology.getPathIndex(path.getName()));
+    for (int i = 0; i < edges.length; i++) {
+      ModelEdge edge = graph.getSharedGraph().getEdge(edges[i]);
+      if (newWeights[i] < graph.getRoutingWeight(edge)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Discards the cached results that use any of the given paths or whose route is unknown.
+   *
+   * @param pathNames The names of the paths.
+   */
+  private void discardRoutesUsing(Set<String> pathNames) {
+    synchronized (cache) {
+      cache.values().removeIf(route -> route.isRoutable()
+          && (route.getSteps() == null
+              || route.getSteps().stream()
+                  .anyMatch(step -> step.getPath() != null
+                  && pathNames.contains(step.getPath().getName()))));
+    }
+  }
+
+  private CachedRoute lookup(PointPair key, long version) {
+    if (cacheSize == 0) {
+      return null;
+    }
+    CachedRoute result = cache.get(key);
+    if (result != null && result.getVersion() != version) {
+      // Computed for an outdated version of the graph - drop it lazily.
+      cache.remove(key, result);
+      return null;
+    }
+    return result;
+  }
+
+  private void store(PointPair key, CachedRoute route) {
+    if (cacheSize == 0) {
+      return;
+    }
+    cache.merge(key,
+                route,
+                (oldRoute, newRoute) -> {
+                  return newRoute.hasSteps() || oldRoute.getVersion() != newRoute.getVersion()
+                      ? newRoute
+                      : oldRoute;
+                });
+  }
+
+  private void countHit() {
+    logStatisticsIfDue(cacheHits.incrementAndGet() + cacheMisses.get());
+  }
+
+  private void countMiss() {
+    logStatisticsIfDue(cacheHits.get() + cacheMisses.incrementAndGet());
+  }
+
+  private void logStatisticsIfDue(long lookups) {
+    if (lookups % STATISTICS_LOG_INTERVAL == 0) {
+      LOG.debug("Route cache statistics after {} lookups: hit rate {}, {} entries cached.",
+                lookups,
+                getCacheHitRate(),
+                cache.size());
+    }
   }
 
   private List<Route.Step> translateToSteps(GraphPath<String, ModelEdge> graphPath) {
@@ -108,7 +526,7 @@ public class ShortestPathPointRouter
       Point sourcePoint = points.get(graphPath.getGraph().getEdgeSource(edge));
       Point destPoint = points.get(graphPath.getGraph().getEdgeTarget(edge));
 
-      result.add(new Route.Step(edge.getModelPath(),
+      result.add(new Route.Step(graph == null ? edge.getModelPath() : graph.getCurrentPath(edge),
                                 sourcePoint,
                                 destPoint,
                                 orientation(edge, sourcePoint),
@@ -119,9 +537,119 @@ public class ShortestPathPointRouter
     return result;
   }
 
+  /**
+   * Creates the shortest path algorithm for the graph and makes a single request for a path with
+   * it before it is published.
+   * Some implementations (e.g. Floyd-Warshall) compute their state lazily on the first request,
+   * without any synchronization, so concurrent first requests could see partially computed state.
+   *
+   * @return The primed algorithm.
+   */
+  private ShortestPathAlgorithm<String, ModelEdge> createPrimedAlgorithm() {
+    ShortestPathAlgorithm<String, ModelEdge> result = algorithmFactory.apply(graph);
+    Iterator<String> vertexIter = graph.vertexSet().iterator();
+    if (vertexIter.hasNext()) {
+      String source = vertexIter.next();
+      result.getPath(source, vertexIter.hasNext() ? vertexIter.next() : source);
+    }
+    return result;
+  }
+
+  private static Collection<Point> pointsOf(RoutingGroupGraph graph) {
+    RoutingTopology topology = graph.getSharedGraph().getTopology();
+    List<Point> result = new ArrayList<>(topology.getVertexCount());
+    for (int vertex = 0; vertex < topology.getVertexCount(); vertex++) {
+      result.add(topology.getPoint(vertex));
+    }
+    return result;
+  }
+
   private Vehicle.Orientation orientation(ModelEdge edge, Point graphSourcePoint) {
     return Objects.equals(edge.getModelPath().getSourcePoint(), graphSourcePoint.getReference())
         ? Vehicle.Orientation.FORWARD
         : Vehicle.Orientation.BACKWARD;
   }
+
+  /**
+   * A pair of source and destination point names.
+   */
+  private static final class PointPair {
+
+    private final String source;
+
+    private final String destination;
+
+    PointPair(String source, String destination) {
+      this.source = source;
+      this.destination = destination;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof PointPair)) {
+        return false;
+      }
+      PointPair other = (PointPair) obj;
+      return source.equals(other.source) && destination.equals(other.destination);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * source.hashCode() + destination.hashCode();
+    }
+  }
+
+  /**
+   * A cached result for a pair of points.
+   */
+  private static final class CachedRoute {
+
+    /**
+     * The costs of the route.
+     */
+    private final long costs;
+    /**
+     * The route's steps, or {@code null}, if only the costs are known.
+     */
+    private final List<Route.Step> steps;
+    /**
+     * The version of the graph the route has been computed for.
+     */
+    private final long version;
+
+    CachedRoute(long costs, List<Route.Step> steps, long version) {
+      this.costs = costs;
+      this.steps = steps;
+      this.version = version;
+    }
+
+    long getVersion() {
+      return version;
+    }
+
+    long getCosts() {
+      return costs;
+    }
+
+    List<Route.Step> getSteps() {
+      return steps;
+    }
+
+    boolean isRoutable() {
+      return costs != INFINITE_COSTS;
+    }
+
+    /**
+     * Indicates whether this entry is complete, i.e. whether it holds the route's steps or it is
+     * known that there is no route.
+     *
+     * @return Whether this entry is complete.
+     */
+    boolean hasSteps() {
+      return steps != null || !isRoutable();
+    }
+  }
 }
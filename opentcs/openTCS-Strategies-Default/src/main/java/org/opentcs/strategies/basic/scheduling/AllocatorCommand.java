@@ -107,18 +107,35 @@ abstract class AllocatorCommand
   }
 
   /**
-   * Indicates the receiving task should retry to grant deferred allocations.
+   * Indicates the receiving task should retry to grant deferred allocations waiting for a set of
+   * released resources.
    */
   public static class RetryAllocates
       extends AllocatorCommand {
 
+    /**
+     * The resources that have become free.
+     */
+    private final Set<TCSResource<?>> releasedResources;
+
     /**
      * Creates a new instance.
      *
      * @param client The scheduler client this command is associated with.
+     * @param releasedResources The resources that have become free.
      */
-    public RetryAllocates(Client client) {
+    public RetryAllocates(Client client, Set<TCSResource<?>> releasedResources) {
       super(3, client);
+      this.releasedResources = requireNonNull(releasedResources, "releasedResources");
+    }
+
+    /**
+     * Returns the resources that have become free.
+     *
+     * @return The resources that have become free.
+     */
+    public Set<TCSResource<?>> getReleasedResources() {
+      return releasedResources;
     }
   }
 
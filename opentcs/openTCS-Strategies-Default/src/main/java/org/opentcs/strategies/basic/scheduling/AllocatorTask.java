@@ -7,21 +7,26 @@
  */
 package org.opentcs.strategies.basic.scheduling;
 
+import java.util.List;
 import static java.util.Objects.requireNonNull;
-import java.util.Queue;
 import java.util.Set;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import org.opentcs.components.kernel.Scheduler;
 import org.opentcs.components.kernel.Scheduler.Client;
 import org.opentcs.components.kernel.services.InternalPlantModelService;
 import org.opentcs.customizations.kernel.GlobalSyncObject;
 import org.opentcs.data.model.TCSResource;
+import org.opentcs.util.KeyedExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Handles regular resource allocations.
+ * <p>
+ * Allocations are processed in the lanes of their clients, while clients are always called back
+ * in the global lane, i.e. by the kernel executor.
+ * </p>
  */
 class AllocatorTask
     implements Runnable {
@@ -45,11 +50,11 @@ class AllocatorTask
   /**
    * Allocations deferred because they couldn't be granted, yet.
    */
-  private final Queue<AllocatorCommand.Allocate> deferredAllocations;
+  private final DeferredAllocations deferredAllocations;
   /**
-   * Executes tasks.
+   * Executes tasks, serially per client.
    */
-  private final ScheduledExecutorService kernelExecutor;
+  private final KeyedExecutor kernelExecutor;
   /**
    * A global object to be used for synchronization within the kernel.
    */
@@ -64,9 +69,9 @@ class AllocatorTask
    */
   public AllocatorTask(@Nonnull InternalPlantModelService plantModelService,
                        @Nonnull ReservationPool reservationPool,
-                       @Nonnull Queue<AllocatorCommand.Allocate> deferredAllocations,
+                       @Nonnull DeferredAllocations deferredAllocations,
                        @Nonnull Scheduler.Module allocationAdvisor,
-                       @Nonnull ScheduledExecutorService kernelExecutor,
+                       @Nonnull KeyedExecutor kernelExecutor,
                        @Nonnull @GlobalSyncObject Object globalSyncObject,
                        @Nonnull AllocatorCommand command) {
     this.plantModelService = requireNonNull(plantModelService, "plantModelService");
@@ -84,7 +89,7 @@ class AllocatorTask
       processAllocate((AllocatorCommand.Allocate) command);
     }
     else if (command instanceof AllocatorCommand.RetryAllocates) {
-      scheduleRetryWaitingAllocations();
+      retryWaitingAllocations((AllocatorCommand.RetryAllocates) command);
     }
     else if (command instanceof AllocatorCommand.CheckAllocationsPrepared) {
       checkAllocationsPrepared((AllocatorCommand.CheckAllocationsPrepared) command);
@@ -99,20 +104,28 @@ class AllocatorTask
 
   private void processAllocate(AllocatorCommand.Allocate command) {
     if (!tryAllocate(command)) {
-      LOG.debug("{}: Resources unavailable, deferring allocation...", command.getClient().getId());
-      deferredAllocations.add(command);
       return;
     }
 
     checkAllocationsPrepared(command.getClient(), command.getResources());
   }
 
+  private void retryWaitingAllocations(AllocatorCommand.RetryAllocates command) {
+    scheduleRetryWaitingAllocations(command.getReleasedResources());
+  }
+
   private void checkAllocationsPrepared(AllocatorCommand.CheckAllocationsPrepared command) {
     checkAllocationsPrepared(command.getClient(), command.getResources());
   }
 
   private void checkAllocationsPrepared(Client client, Set<TCSResource<?>> resources) {
-    if (!allocationAdvisor.hasPreparedAllocation(client, resources)) {
+    // Tasks for different clients may run concurrently, so access the modules' state only while
+    // holding the global lock. The client itself is called back without holding it.
+    boolean prepared;
+    synchronized (globalSyncObject) {
+      prepared = allocationAdvisor.hasPreparedAllocation(client, resources);
+    }
+    if (!prepared) {
       LOG.debug("{}: Preparation of resources not yet done.",
                 client.getId());
       // XXX remember the resources a client is waiting for preparation done?
@@ -122,18 +135,24 @@ class AllocatorTask
     LOG.debug("Preparation of resources '{}' successful, calling back client '{}'...",
               resources,
               client.getId());
+    // This task may run in the client's lane, but clients (e.g. vehicle controllers) expect to be
+    // called back by the kernel executor, so do that in the global lane.
+    kernelExecutor.execute(KeyedExecutor.GLOBAL_LANE, () -> callBackClient(client, resources));
+  }
+
+  private void callBackClient(Client client, Set<TCSResource<?>> resources) {
     if (!client.allocationSuccessful(resources)) {
       LOG.warn("{}: Client didn't want allocated resources ({}), unallocating them...",
                client.getId(),
                resources);
       undoAllocate(client, resources);
       // See if others want the resources this one didn't, then.
-      scheduleRetryWaitingAllocations();
+      scheduleRetryWaitingAllocations(resources);
     }
   }
 
   /**
-   * Allocates the given set of resources, if possible.
+   * Allocates the given set of resources, if possible, or defers the allocation.
    *
    * @param command Describes the requested allocation.
    * @return <code>true</code> if, and only if, the given resources were allocated.
@@ -144,14 +163,27 @@ class AllocatorTask
 
     synchronized (globalSyncObject) {
       LOG.debug("{}: Checking resource if all resources are available:", client.getId());
-      if (!reservationPool.resourcesAvailableForUser(resources, client)) {
-        LOG.debug("{}: Resources unavailable: {}", client.getId(), resources);
+      Set<TCSResource<?>> unavailableResources
+          = reservationPool.unavailableResources(resources, client);
+      if (!unavailableResources.isEmpty()) {
+        LOG.debug("{}: Resources unavailable, deferring allocation: {}",
+                  client.getId(),
+                  unavailableResources);
+        deferredAllocations.deferUntilFree(
+            command,
+            unavailableResources.stream()
+                .collect(Collectors.toMap(
+                    resource -> resource,
+                    resource -> reservationPool.getReservationEntry(resource).getClient()))
+        );
         return false;
       }
 
       LOG.debug("{}: Checking if resources may be allocated...", client.getId());
       if (!allocationAdvisor.mayAllocate(client, resources)) {
-        LOG.debug("{}: Resource allocation restricted by some modules.", client);
+        LOG.debug("{}: Resource allocation restricted by some modules, deferring allocation.",
+                  client.getId());
+        deferredAllocations.deferUntilReleased(command);
         return false;
       }
 
@@ -169,7 +201,9 @@ class AllocatorTask
   }
 
   private void allocationsReleased(AllocatorCommand.AllocationsReleased command) {
-    allocationAdvisor.allocationReleased(command.getClient(), command.getResources());
+    synchronized (globalSyncObject) {
+      allocationAdvisor.allocationReleased(command.getClient(), command.getResources());
+    }
   }
 
   /**
@@ -184,11 +218,19 @@ class AllocatorTask
   }
 
   /**
-   * Moves all waiting allocations back into the incoming queue so they can be rechecked.
+   * Moves the waiting allocations that may be granted after the given resources were released back
+   * into the incoming queue so they can be rechecked.
+   *
+   * @param releasedResources The resources that have become free.
    */
-  private void scheduleRetryWaitingAllocations() {
-    for (AllocatorCommand.Allocate allocate : deferredAllocations) {
-      kernelExecutor.submit(new AllocatorTask(plantModelService,
+  private void scheduleRetryWaitingAllocations(Set<TCSResource<?>> releasedResources) {
+    List<AllocatorCommand.Allocate> wokenAllocations = deferredAllocations.wakeUp(releasedResources);
+    LOG.debug("Retrying {} deferred allocation(s), {} remaining deferred.",
+              wokenAllocations.size(),
+              deferredAllocations.size());
+    for (AllocatorCommand.Allocate allocate : wokenAllocations) {
+      kernelExecutor.submit(allocate.getClient().getId(),
+                            new AllocatorTask(plantModelService,
                                               reservationPool,
                                               deferredAllocations,
                                               allocationAdvisor,
@@ -196,6 +238,5 @@ class AllocatorTask
                                               globalSyncObject,
                                               allocate));
     }
-    deferredAllocations.clear();
   }
 }
@@ -14,16 +14,16 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import static java.util.Objects.requireNonNull;
-import java.util.Queue;
 import java.util.Set;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
+import org.opentcs.access.SchedulerDeadlock;
 import org.opentcs.components.kernel.ResourceAllocationException;
 import org.opentcs.components.kernel.Scheduler;
 import org.opentcs.components.kernel.services.InternalPlantModelService;
+import org.opentcs.customizations.ApplicationEventBus;
 import org.opentcs.customizations.kernel.GlobalSyncObject;
 import org.opentcs.customizations.kernel.KernelExecutor;
 import org.opentcs.data.model.TCSResource;
@@ -31,6 +31,8 @@ import org.opentcs.strategies.basic.scheduling.AllocatorCommand.Allocate;
 import org.opentcs.strategies.basic.scheduling.AllocatorCommand.AllocationsReleased;
 import org.opentcs.strategies.basic.scheduling.AllocatorCommand.CheckAllocationsPrepared;
 import org.opentcs.strategies.basic.scheduling.AllocatorCommand.RetryAllocates;
+import org.opentcs.util.KeyedExecutor;
+import org.opentcs.util.event.EventHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -67,11 +69,11 @@ public class DefaultScheduler
   /**
    * Allocations deferred because they couldn't be granted, yet.
    */
-  private final Queue<AllocatorCommand.Allocate> deferredAllocations = new LinkedBlockingQueue<>();
+  private final DeferredAllocations deferredAllocations;
   /**
-   * Executes scheduling tasks.
+   * Executes scheduling tasks, serially per client.
    */
-  private final ScheduledExecutorService kernelExecutor;
+  private final KeyedExecutor kernelExecutor;
   /**
    * A global object to be used for synchronization within the kernel.
    */
@@ -87,20 +89,24 @@ public class DefaultScheduler
    * @param plantModelService The plant model service.
    * @param allocationAdvisor Takes care of modules.
    * @param reservationPool The reservation pool to be used.
-   * @param kernelExecutor Executes scheduling tasks.
+   * @param kernelExecutor Executes scheduling tasks, serially per client.
    * @param globalSyncObject The kernel threads' global synchronization object.
+   * @param eventHandler The handler detected deadlocks are published to.
    */
   @Inject
   public DefaultScheduler(InternalPlantModelService plantModelService,
                           AllocationAdvisor allocationAdvisor,
                           ReservationPool reservationPool,
-                          @KernelExecutor ScheduledExecutorService kernelExecutor,
-                          @GlobalSyncObject Object globalSyncObject) {
+                          @KernelExecutor KeyedExecutor kernelExecutor,
+                          @GlobalSyncObject Object globalSyncObject,
+                          @ApplicationEventBus EventHandler eventHandler) {
     this.plantModelService = requireNonNull(plantModelService, "plantModelService");
     this.allocationAdvisor = requireNonNull(allocationAdvisor, "allocationAdvisor");
     this.reservationPool = requireNonNull(reservationPool, "reservationPool");
     this.kernelExecutor = requireNonNull(kernelExecutor, "kernelExecutor");
     this.globalSyncObject = requireNonNull(globalSyncObject, "globalSyncObject");
+    this.deferredAllocations = new DeferredAllocations(requireNonNull(eventHandler,
+                                                                      "eventHandler"));
   }
 
   @Override
@@ -110,6 +116,7 @@ public class DefaultScheduler
     }
 
     reservationPool.clear();
+    deferredAllocations.clear();
     allocationAdvisor.initialize();
 
     initialized = true;
@@ -183,7 +190,8 @@ public class DefaultScheduler
     requireNonNull(client, "client");
     requireNonNull(resources, "resources");
 
-    kernelExecutor.submit(new AllocatorTask(plantModelService,
+    kernelExecutor.submit(client.getId(),
+                          new AllocatorTask(plantModelService,
                                             reservationPool,
                                             deferredAllocations,
                                             allocationAdvisor,
@@ -227,15 +235,17 @@ public class DefaultScheduler
     requireNonNull(client, "client");
     requireNonNull(resources, "resources");
 
+    Set<TCSResource<?>> completelyFreeResources;
     synchronized (globalSyncObject) {
       LOG.debug("{}: Releasing resources: {}", client.getId(), resources);
       reservationPool.free(client, resources);
 
       // Check which resources are now completely free
-      Set<TCSResource<?>> completelyFreeResources = resources.stream()
+      completelyFreeResources = resources.stream()
           .filter(resource -> reservationPool.getReservationEntry(resource).isFree())
           .collect(Collectors.toCollection(HashSet::new));
-      kernelExecutor.submit(new AllocatorTask(plantModelService,
+      kernelExecutor.submit(client.getId(),
+                          new AllocatorTask(plantModelService,
                                               reservationPool,
                                               deferredAllocations,
                                               allocationAdvisor,
@@ -244,30 +254,34 @@ public class DefaultScheduler
                                               new AllocationsReleased(client,
                                                                       completelyFreeResources)));
     }
-    kernelExecutor.submit(new AllocatorTask(plantModelService,
+    kernelExecutor.submit(client.getId(),
+                          new AllocatorTask(plantModelService,
                                             reservationPool,
                                             deferredAllocations,
                                             allocationAdvisor,
                                             kernelExecutor,
                                             globalSyncObject,
-                                            new RetryAllocates(client)));
+                                            new RetryAllocates(client, completelyFreeResources)));
   }
 
   @Override
   public void freeAll(Client client) {
     requireNonNull(client, "client");
 
+    Set<TCSResource<?>> freedResources;
     synchronized (globalSyncObject) {
       LOG.debug("{}: Releasing all resources", client.getId());
+      freedResources = reservationPool.allocatedResources(client);
       reservationPool.freeAll(client);
     }
-    kernelExecutor.submit(new AllocatorTask(plantModelService,
+    kernelExecutor.submit(client.getId(),
+                          new AllocatorTask(plantModelService,
                                             reservationPool,
                                             deferredAllocations,
                                             allocationAdvisor,
                                             kernelExecutor,
                                             globalSyncObject,
-                                            new RetryAllocates(client)));
+                                            new RetryAllocates(client, freedResources)));
   }
 
   @Override
@@ -277,6 +291,32 @@ public class DefaultScheduler
     }
   }
 
+  @Override
+  public Set<SchedulerDeadlock> getDeadlocks() {
+    return deferredAllocations.getDeadlocks();
+  }
+
+  /**
+   * Schedules a retry of all allocations deferred because modules restricted them.
+   *
+   * @param client The client the retry is triggered for.
+   * @param delay The delay (in ms) after which to retry.
+   */
+  protected void scheduleRetry(@Nonnull Client client, long delay) {
+    requireNonNull(client, "client");
+
+    kernelExecutor.schedule(client.getId(),
+                            new AllocatorTask(plantModelService,
+                                              reservationPool,
+                                              deferredAllocations,
+                                              allocationAdvisor,
+                                              kernelExecutor,
+                                              globalSyncObject,
+                                              new RetryAllocates(client, new HashSet<>())),
+                            Math.max(delay, 0),
+                            TimeUnit.MILLISECONDS);
+  }
+
   @Override
   public void preparationSuccessful(@Nonnull Module module,
                                     @Nonnull Client client,
@@ -285,7 +325,8 @@ public class DefaultScheduler
     requireNonNull(client, "client");
     requireNonNull(resources, "resources");
 
-    kernelExecutor.submit(new AllocatorTask(plantModelService,
+    kernelExecutor.submit(client.getId(),
+                          new AllocatorTask(plantModelService,
                                             reservationPool,
                                             deferredAllocations,
                                             allocationAdvisor,
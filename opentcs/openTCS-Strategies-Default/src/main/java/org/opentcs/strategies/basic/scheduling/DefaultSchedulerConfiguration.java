@@ -0,0 +1,59 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.scheduling;
+
+import org.opentcs.configuration.ConfigurationEntry;
+import org.opentcs.configuration.ConfigurationPrefix;
+
+/**
+ * Provides methods to configure the {@link DefaultScheduler}.
+ */
+@ConfigurationPrefix(DefaultSchedulerConfiguration.PREFIX)
+public interface DefaultSchedulerConfiguration {
+
+  /**
+   * This configuration's prefix.
+   */
+  String PREFIX = "defaultscheduler";
+
+  @ConfigurationEntry(
+      type = "String",
+      description = {
+        "The scheduling strategy to be used.",
+        "'RESOURCE_LOCKS': Grant allocations as soon as all requested resources are free.",
+        "'TIME_WINDOWS': Additionally keep time windows for the claimed resources, estimated from "
+        + "travel times, and grant allocations only if they do not conflict with earlier windows "
+        + "of other vehicles."
+      })
+  SchedulingStrategy strategy();
+
+  @ConfigurationEntry(
+      type = "Long",
+      description = "The time (in ms) a vehicle is expected to occupy resources of a route step "
+      + "that does not contain a path, e.g. when operating at a location.")
+  long minimumOccupancyTime();
+
+  @ConfigurationEntry(
+      type = "Long",
+      description = "An additional time (in ms) added to every time window as a safety margin.")
+  long timeWindowMargin();
+
+  /**
+   * The available scheduling strategies.
+   */
+  enum SchedulingStrategy {
+    /**
+     * Grant allocations as soon as all requested resources are free.
+     */
+    RESOURCE_LOCKS,
+    /**
+     * Grant allocations only if they do not conflict with time windows of other vehicles.
+     */
+    TIME_WINDOWS;
+  }
+}
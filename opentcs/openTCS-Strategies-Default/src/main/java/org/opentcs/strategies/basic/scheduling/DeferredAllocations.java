@@ -0,0 +1,292 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.scheduling;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.opentcs.access.SchedulerDeadlock;
+import org.opentcs.components.kernel.Scheduler;
+import org.opentcs.data.model.TCSResource;
+import org.opentcs.util.event.EventHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps allocations deferred because they couldn't be granted, yet.
+ * <p>
+ * Allocations that failed because some of the requested resources were allocated by other clients
+ * are indexed by these resources and are only woken up when one of them becomes free.
+ * Allocations that failed because a module restricted them are woken up whenever any resource
+ * is released, as the modules' decisions may depend on resources other than the requested ones.
+ * Woken up allocations are returned in their natural order, i.e. the oldest ones first.
+ * </p>
+ * <p>
+ * Since the clients allocating the awaited resources are known, the deferred allocations also
+ * form a wait-for graph of clients. Whenever an allocation is deferred, the graph is searched for
+ * a cycle through the deferring client. Any cycle found is a deadlock, which is kept until one of
+ * the involved clients' allocations is woken up, and which is published via the given event
+ * handler.
+ * </p>
+ */
+class DeferredAllocations {
+
+  /**
+   * This class's Logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(DeferredAllocations.class);
+  /**
+   * The handler deadlocks are published to.
+   */
+  private final EventHandler eventHandler;
+  /**
+   * The deferred allocations waiting for resources, mapped to the resources they are waiting for
+   * and the clients currently allocating these.
+   */
+  private final Map<AllocatorCommand.Allocate, Map<TCSResource<?>, Scheduler.Client>>
+      resourcesByAllocation = new HashMap<>();
+  /**
+   * The deferred allocations waiting for resources, mapped by the clients that requested them.
+   */
+  private final Map<Scheduler.Client, Set<AllocatorCommand.Allocate>> allocationsByClient
+      = new HashMap<>();
+  /**
+   * The deferred allocations waiting for resources, mapped by the resources they are waiting for.
+   */
+  private final Map<TCSResource<?>, Set<AllocatorCommand.Allocate>> allocationsByResource
+      = new HashMap<>();
+  /**
+   * The deferred allocations restricted by modules.
+   */
+  private final Set<AllocatorCommand.Allocate> restrictedAllocations = new LinkedHashSet<>();
+  /**
+   * The currently known deadlocks.
+   */
+  private final Set<SchedulerDeadlock> deadlocks = new HashSet<>();
+
+  /**
+   * Creates a new instance.
+   *
+   * @param eventHandler The handler deadlocks are published to.
+   */
+  DeferredAllocations(@Nonnull EventHandler eventHandler) {
+    this.eventHandler = requireNonNull(eventHandler, "eventHandler");
+  }
+
+  /**
+   * Defers the given allocation until any of the given resources becomes free.
+   *
+   * @param allocate The allocation.
+   * @param unavailableResources The resources that are currently allocated by other clients,
+   * mapped to these clients.
+   */
+  public void deferUntilFree(@Nonnull AllocatorCommand.Allocate allocate,
+                             @Nonnull Map<TCSResource<?>, Scheduler.Client> unavailableResources) {
+    requireNonNull(allocate, "allocate");
+    requireNonNull(unavailableResources, "unavailableResources");
+
+    SchedulerDeadlock deadlock;
+    synchronized (this) {
+      if (unavailableResources.isEmpty()) {
+        restrictedAllocations.add(allocate);
+        return;
+      }
+      resourcesByAllocation.put(allocate, new LinkedHashMap<>(unavailableResources));
+      allocationsByClient.computeIfAbsent(allocate.getClient(), client -> new LinkedHashSet<>())
+          .add(allocate);
+      for (TCSResource<?> resource : unavailableResources.keySet()) {
+        allocationsByResource.computeIfAbsent(resource, res -> new LinkedHashSet<>()).add(allocate);
+      }
+
+      deadlock = findDeadlock(allocate.getClient());
+      if (deadlock == null || !deadlocks.add(deadlock)) {
+        return;
+      }
+    }
+
+    LOG.warn("Deadlock detected: {}", deadlock);
+    eventHandler.onEvent(deadlock);
+  }
+
+  /**
+   * Defers the given allocation until any resource is released.
+   *
+   * @param allocate The allocation.
+   */
+  public synchronized void deferUntilReleased(@Nonnull AllocatorCommand.Allocate allocate) {
+    requireNonNull(allocate, "allocate");
+
+    restrictedAllocations.add(allocate);
+  }
+
+  /**
+   * Removes and returns the deferred allocations that may be granted now that the given resources
+   * have been released.
+   *
+   * @param releasedResources The resources that have become free.
+   * @return The deferred allocations waiting for any of the given resources plus the ones
+   * restricted by modules, oldest first.
+   */
+  @Nonnull
+  public synchronized List<AllocatorCommand.Allocate> wakeUp(
+      @Nonnull Set<TCSResource<?>> releasedResources) {
+    requireNonNull(releasedResources, "releasedResources");
+
+    Set<AllocatorCommand.Allocate> woken = new LinkedHashSet<>(restrictedAllocations);
+    restrictedAllocations.clear();
+    for (TCSResource<?> resource : releasedResources) {
+      Set<AllocatorCommand.Allocate> waiting = allocationsByResource.remove(resource);
+      if (waiting != null) {
+        woken.addAll(waiting);
+      }
+    }
+    for (AllocatorCommand.Allocate allocate : woken) {
+      forget(allocate);
+    }
+
+    List<AllocatorCommand.Allocate> result = new ArrayList<>(woken);
+    Collections.sort(result);
+    return result;
+  }
+
+  /**
+   * Returns the number of deferred allocations.
+   *
+   * @return The number of deferred allocations.
+   */
+  public synchronized int size() {
+    return resourcesByAllocation.size() + restrictedAllocations.size();
+  }
+
+  /**
+   * Returns the currently known deadlocks.
+   *
+   * @return The currently known deadlocks.
+   */
+  @Nonnull
+  public synchronized Set<SchedulerDeadlock> getDeadlocks() {
+    return new HashSet<>(deadlocks);
+  }
+
+  /**
+   * Removes all deferred allocations.
+   */
+  public synchronized void clear() {
+    resourcesByAllocation.clear();
+    allocationsByClient.clear();
+    allocationsByResource.clear();
+    restrictedAllocations.clear();
+    deadlocks.clear();
+  }
+
+  /**
+   * Searches the wait-for graph for a cycle through the given client.
+   * Every client is visited at most once, so the search takes time linear in the size of the
+   * graph.
+   *
+   * @param start The client to start the search at.
+   * @return The deadlock found, or {@code null}, if there is no cycle through the given client.
+   */
+  @Nullable
+  private SchedulerDeadlock findDeadlock(Scheduler.Client start) {
+    Deque<Scheduler.Client> path = new ArrayDeque<>();
+    Deque<Iterator<Scheduler.Client>> pendingSuccessors = new ArrayDeque<>();
+    Set<Scheduler.Client> visited = new HashSet<>();
+
+    path.addLast(start);
+    pendingSuccessors.addLast(blockingClients(start).iterator());
+    visited.add(start);
+    while (!path.isEmpty()) {
+      Iterator<Scheduler.Client> successors = pendingSuccessors.getLast();
+      if (!successors.hasNext()) {
+        path.removeLast();
+        pendingSuccessors.removeLast();
+        continue;
+      }
+      Scheduler.Client next = successors.next();
+      if (next == start) {
+        return toDeadlock(new ArrayList<>(path));
+      }
+      if (visited.add(next)) {
+        path.addLast(next);
+        pendingSuccessors.addLast(blockingClients(next).iterator());
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns the clients allocating resources the given client is waiting for.
+   *
+   * @param client The client.
+   * @return The clients allocating resources the given client is waiting for.
+   */
+  private Set<Scheduler.Client> blockingClients(Scheduler.Client client) {
+    Set<Scheduler.Client> result = new LinkedHashSet<>();
+    for (AllocatorCommand.Allocate allocate
+             : allocationsByClient.getOrDefault(client, Collections.emptySet())) {
+      result.addAll(resourcesByAllocation.get(allocate).values());
+    }
+    return result;
+  }
+
+  private SchedulerDeadlock toDeadlock(List<Scheduler.Client> cycle) {
+    Map<String, Set<TCSResource<?>>> awaitedResources = new LinkedHashMap<>();
+    for (int i = 0; i < cycle.size(); i++) {
+      Scheduler.Client client = cycle.get(i);
+      Scheduler.Client blockingClient = cycle.get((i + 1) % cycle.size());
+      Set<TCSResource<?>> resources = new HashSet<>();
+      for (AllocatorCommand.Allocate allocate : allocationsByClient.get(client)) {
+        resourcesByAllocation.get(allocate).forEach((resource, owner) -> {
+          if (owner == blockingClient) {
+            resources.add(resource);
+          }
+        });
+      }
+      awaitedResources.put(client.getId(), resources);
+    }
+    return new SchedulerDeadlock(awaitedResources);
+  }
+
+  private void forget(AllocatorCommand.Allocate allocate) {
+    deadlocks.removeIf(deadlock -> deadlock.involves(allocate.getClient().getId()));
+
+    Map<TCSResource<?>, Scheduler.Client> resources = resourcesByAllocation.remove(allocate);
+    if (resources == null) {
+      return;
+    }
+    Set<AllocatorCommand.Allocate> clientAllocations = allocationsByClient.get(allocate.getClient());
+    if (clientAllocations != null) {
+      clientAllocations.remove(allocate);
+      if (clientAllocations.isEmpty()) {
+        allocationsByClient.remove(allocate.getClient());
+      }
+    }
+    for (TCSResource<?> resource : resources.keySet()) {
+      Set<AllocatorCommand.Allocate> waiting = allocationsByResource.get(resource);
+      if (waiting != null) {
+        waiting.remove(allocate);
+        if (waiting.isEmpty()) {
+          allocationsByResource.remove(resource);
+        }
+      }
+    }
+  }
+}
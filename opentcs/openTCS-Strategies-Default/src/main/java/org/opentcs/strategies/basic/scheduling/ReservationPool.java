@@ -96,6 +96,27 @@ public class ReservationPool {
     return true;
   }
 
+  /**
+   * Returns the resources in the given set of resources that are not available for the given
+   * client, i.e. that are allocated by other clients.
+   *
+   * @param resources The set of resources to be checked.
+   * @param client The client for which to check.
+   * @return The resources in the given set that are not available for the given client.
+   */
+  public Set<TCSResource<?>> unavailableResources(Set<TCSResource<?>> resources,
+                                                  Scheduler.Client client) {
+    requireNonNull(resources, "resources");
+    requireNonNull(client, "client");
+
+    return resources.stream()
+        .filter(resource -> {
+          ReservationEntry entry = getReservationEntry(resource);
+          return !entry.isFree() && !entry.isAllocatedBy(client);
+        })
+        .collect(Collectors.toSet());
+  }
+
   /**
    * Returns a set of resources that is a subset of the given set of resources and is reserved/could
    * be released by the given client.
@@ -0,0 +1,389 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.scheduling;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.Set;
+import java.util.TreeMap;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.opentcs.components.kernel.Scheduler;
+import org.opentcs.data.model.TCSResource;
+import static org.opentcs.util.Assertions.checkArgument;
+
+/**
+ * Keeps time windows in which clients are expected to occupy resources.
+ * <p>
+ * The time windows for a single resource never overlap. They are kept sorted by their start
+ * times, and a client's own windows are additionally kept per resource sorted by their end times,
+ * so checking for conflicts with a given time window and finding a client's current window for a
+ * resource take logarithmic time in the number of windows for the resource.
+ * </p>
+ * <p>
+ * Note that no synchronization is done inside this class. Concurrent access of instances of this
+ * class must be synchronized externally.
+ * </p>
+ */
+public class ReservationTable {
+
+  /**
+   * The time windows for each resource, mapped by their start times.
+   */
+  private final Map<TCSResource<?>, TreeMap<Long, TimeWindow>> windowsByResource
+      = new HashMap<>();
+  /**
+   * The time windows for each client, in order of their start times.
+   */
+  private final Map<Scheduler.Client, List<TimeWindow>> windowsByClient = new HashMap<>();
+  /**
+   * The time windows for each client and resource, mapped by their end times.
+   */
+  private final Map<Scheduler.Client, Map<TCSResource<?>, TreeMap<Long, TimeWindow>>>
+      windowsByClientAndResource = new HashMap<>();
+
+  /**
+   * Creates a new instance.
+   */
+  public ReservationTable() {
+  }
+
+  /**
+   * Reserves time windows for a sequence of steps a client is going to take.
+   * Each step's time window starts when the previous step's window ends, or later, if any of the
+   * step's resources is reserved by another client at that time.
+   * Any time windows previously reserved by the client are released first.
+   *
+   * @param client The client.
+   * @param steps The sets of resources the client is going to occupy, in order.
+   * @param durations The expected durations (in ms) of the client occupying the steps' resources.
+   * Must have the same size as the list of steps.
+   * @param startTime The time at which the client is expected to start with the first step.
+   */
+  public void reserve(@Nonnull Scheduler.Client client,
+                      @Nonnull List<Set<TCSResource<?>>> steps,
+                      @Nonnull List<Long> durations,
+                      long startTime) {
+    requireNonNull(client, "client");
+    requireNonNull(steps, "steps");
+    requireNonNull(durations, "durations");
+    checkArgument(steps.size() == durations.size(), "steps and durations differ in size");
+
+    release(client);
+
+    List<TimeWindow> clientWindows = new LinkedList<>();
+    Map<TCSResource<?>, TreeMap<Long, TimeWindow>> clientWindowsByResource = new HashMap<>();
+    long time = startTime;
+    for (int i = 0; i < steps.size(); i++) {
+      Set<TCSResource<?>> resources = steps.get(i);
+      long duration = Math.max(1, durations.get(i));
+      long start = earliestFreeStart(resources, time, duration);
+      for (TCSResource<?> resource : resources) {
+        TimeWindow window = new TimeWindow(client, resource, start, start + duration);
+        windowsByResource.computeIfAbsent(resource, res -> new TreeMap<>()).put(start, window);
+        clientWindowsByResource.computeIfAbsent(resource, res -> new TreeMap<>())
+            .put(window.getEnd(), window);
+        clientWindows.add(window);
+      }
+      time = start + duration;
+    }
+    windowsByClient.put(client, clientWindows);
+    windowsByClientAndResource.put(client, clientWindowsByResource);
+  }
+
+  /**
+   * Releases all time windows reserved by the given client.
+   *
+   * @param client The client.
+   */
+  public void release(@Nonnull Scheduler.Client client) {
+    requireNonNull(client, "client");
+
+    List<TimeWindow> clientWindows = windowsByClient.remove(client);
+    windowsByClientAndResource.remove(client);
+    if (clientWindows == null) {
+      return;
+    }
+    for (TimeWindow window : clientWindows) {
+      removeFromResource(window);
+    }
+  }
+
+  /**
+   * Removes all time windows that ended before the given time.
+   *
+   * @param now The current time.
+   */
+  public void expire(long now) {
+    for (Iterator<List<TimeWindow>> clientIter = windowsByClient.values().iterator();
+         clientIter.hasNext();) {
+      List<TimeWindow> clientWindows = clientIter.next();
+      for (Iterator<TimeWindow> windowIter = clientWindows.iterator(); windowIter.hasNext();) {
+        TimeWindow window = windowIter.next();
+        if (window.getEnd() <= now) {
+          removeFromResource(window);
+          removeFromClient(window);
+          windowIter.remove();
+        }
+      }
+      if (clientWindows.isEmpty()) {
+        clientIter.remove();
+      }
+    }
+  }
+
+  /**
+   * Returns a time window reserved by another client that has precedence over the given client
+   * occupying the given resource at the given time, i.e. one that has not ended, yet, and that
+   * starts before the given client's own time window for the resource.
+   *
+   * @param client The client.
+   * @param resource The resource.
+   * @param now The current time.
+   * @return A time window with precedence, or {@code null}, if there is none.
+   */
+  @Nullable
+  public TimeWindow findPrecedingWindow(@Nonnull Scheduler.Client client,
+                                        @Nonnull TCSResource<?> resource,
+                                        long now) {
+    requireNonNull(client, "client");
+    requireNonNull(resource, "resource");
+
+    TreeMap<Long, TimeWindow> windows = windowsByResource.get(resource);
+    if (windows == null) {
+      return null;
+    }
+    TimeWindow ownWindow = findCurrentWindow(client, resource, now);
+    long ownStart = ownWindow == null ? now : Math.max(ownWindow.getStart(), now);
+
+    for (TimeWindow window : windows.headMap(ownStart, false).descendingMap().values()) {
+      if (window.getEnd() <= now) {
+        // All windows further down ended even earlier.
+        break;
+      }
+      if (window.getClient() != client) {
+        return window;
+      }
+    }
+    // A window of another client that has already started but ends after our own start.
+    Map.Entry<Long, TimeWindow> current = windows.floorEntry(now);
+    if (current != null
+        && current.getValue().getClient() != client
+        && current.getValue().getEnd() > now
+        && (ownWindow == null || current.getValue().getStart() < ownWindow.getStart())) {
+      return current.getValue();
+    }
+    return null;
+  }
+
+  /**
+   * Returns the time windows reserved by the given client.
+   *
+   * @param client The client.
+   * @return The time windows reserved by the given client.
+   */
+  @Nonnull
+  public List<TimeWindow> getWindows(@Nonnull Scheduler.Client client) {
+    requireNonNull(client, "client");
+
+    return new ArrayList<>(windowsByClient.getOrDefault(client, new ArrayList<>()));
+  }
+
+  /**
+   * Removes all time windows.
+   */
+  public void clear() {
+    windowsByResource.clear();
+    windowsByClient.clear();
+    windowsByClientAndResource.clear();
+  }
+
+  /**
+   * Returns the client's first time window for the given resource that has not ended, yet.
+   *
+   * @param client The client.
+   * @param resource The resource.
+   * @param now The current time.
+   * @return The client's current or next time window for the resource, or {@code null}, if there
+   * is none.
+   */
+  @Nullable
+  private TimeWindow findCurrentWindow(Scheduler.Client client,
+                                       TCSResource<?> resource,
+                                       long now) {
+    Map<TCSResource<?>, TreeMap<Long, TimeWindow>> clientWindowsByResource
+        = windowsByClientAndResource.get(client);
+    if (clientWindowsByResource == null) {
+      return null;
+    }
+    TreeMap<Long, TimeWindow> clientWindows = clientWindowsByResource.get(resource);
+    if (clientWindows == null) {
+      return null;
+    }
+    Map.Entry<Long, TimeWindow> entry = clientWindows.higherEntry(now);
+    return entry == null ? null : entry.getValue();
+  }
+
+  private long earliestFreeStart(Set<TCSResource<?>> resources, long earliestStart, long duration) {
+    long start = earliestStart;
+    boolean moved = true;
+    while (moved) {
+      moved = false;
+      for (TCSResource<?> resource : resources) {
+        TimeWindow conflict = findOverlappingWindow(resource, start, start + duration);
+        if (conflict != null) {
+          start = conflict.getEnd();
+          moved = true;
+        }
+      }
+    }
+    return start;
+  }
+
+  @Nullable
+  private TimeWindow findOverlappingWindow(TCSResource<?> resource, long start, long end) {
+    TreeMap<Long, TimeWindow> windows = windowsByResource.get(resource);
+    if (windows == null) {
+      return null;
+    }
+    Map.Entry<Long, TimeWindow> before = windows.floorEntry(start);
+    if (before != null && before.getValue().getEnd() > start) {
+      return before.getValue();
+    }
+    Map.Entry<Long, TimeWindow> after = windows.higherEntry(start);
+    if (after != null && after.getKey() < end) {
+      return after.getValue();
+    }
+    return null;
+  }
+
+  private void removeFromClient(TimeWindow window) {
+    Map<TCSResource<?>, TreeMap<Long, TimeWindow>> clientWindowsByResource
+        = windowsByClientAndResource.get(window.getClient());
+    if (clientWindowsByResource == null) {
+      return;
+    }
+    TreeMap<Long, TimeWindow> clientWindows = clientWindowsByResource.get(window.getResource());
+    if (clientWindows == null) {
+      return;
+    }
+    clientWindows.remove(window.getEnd(), window);
+    if (clientWindows.isEmpty()) {
+      clientWindowsByResource.remove(window.getResource());
+    }
+    if (clientWindowsByResource.isEmpty()) {
+      windowsByClientAndResource.remove(window.getClient());
+    }
+  }
+
+  private void removeFromResource(TimeWindow window) {
+    TreeMap<Long, TimeWindow> windows = windowsByResource.get(window.getResource());
+    if (windows == null) {
+      return;
+    }
+    windows.remove(window.getStart(), window);
+    if (windows.isEmpty()) {
+      windowsByResource.remove(window.getResource());
+    }
+  }
+
+  /**
+   * A time window in which a client is expected to occupy a resource.
+   */
+  public static class TimeWindow {
+
+    /**
+     * The client.
+     */
+    private final Scheduler.Client client;
+    /**
+     * The resource.
+     */
+    private final TCSResource<?> resource;
+    /**
+     * The start of the time window.
+     */
+    private final long start;
+    /**
+     * The end of the time window (exclusive).
+     */
+    private final long end;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param client The client.
+     * @param resource The resource.
+     * @param start The start of the time window.
+     * @param end The end of the time window (exclusive).
+     */
+    public TimeWindow(@Nonnull Scheduler.Client client,
+                      @Nonnull TCSResource<?> resource,
+                      long start,
+                      long end) {
+      this.client = requireNonNull(client, "client");
+      this.resource = requireNonNull(resource, "resource");
+      checkArgument(start < end, "start %s not before end %s", start, end);
+      this.start = start;
+      this.end = end;
+    }
+
+    /**
+     * Returns the client.
+     *
+     * @return The client.
+     */
+    @Nonnull
+    public Scheduler.Client getClient() {
+      return client;
+    }
+
+    /**
+     * Returns the resource.
+     *
+     * @return The resource.
+     */
+    @Nonnull
+    public TCSResource<?> getResource() {
+      return resource;
+    }
+
+    /**
+     * Returns the start of the time window.
+     *
+     * @return The start of the time window.
+     */
+    public long getStart() {
+      return start;
+    }
+
+    /**
+     * Returns the end of the time window (exclusive).
+     *
+     * @return The end of the time window.
+     */
+    public long getEnd() {
+      return end;
+    }
+
+    @Override
+    public String toString() {
+      return "TimeWindow{"
+          + "client=" + client.getId()
+          + ", resource=" + resource.getName()
+          + ", start=" + start
+          + ", end=" + end
+          + '}';
+    }
+  }
+}
@@ -0,0 +1,217 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.scheduling;
+
+import java.util.ArrayList;
+import java.util.List;
+import static java.util.Objects.requireNonNull;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import javax.annotation.Nonnull;
+import org.opentcs.components.kernel.Scheduler;
+import org.opentcs.components.kernel.services.InternalPlantModelService;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.TCSResource;
+import org.opentcs.data.model.Vehicle;
+import static org.opentcs.strategies.basic.routing.PointRouter.INFINITE_COSTS;
+import org.opentcs.strategies.basic.routing.jgrapht.EdgeEvaluatorTravelTime;
+import org.opentcs.strategies.basic.routing.jgrapht.ModelEdge;
+import org.opentcs.strategies.basic.scheduling.ReservationTable.TimeWindow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps time windows for the resources claimed by clients in a {@link ReservationTable} and
+ * restricts allocations that would conflict with earlier time windows of other clients.
+ * <p>
+ * The time windows are estimated from the travel times of the claimed paths and are planned again
+ * from the current time whenever a client's allocation state changes. An allocation restricted by
+ * this module is retried when the conflicting time window ends, so a client never waits longer
+ * than another client's estimated occupancy of a resource, even if that client is delayed.
+ * </p>
+ */
+class TimeWindowModule
+    implements Scheduler.Module {
+
+  /**
+   * This class's Logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(TimeWindowModule.class);
+  /**
+   * The plant model service.
+   */
+  private final InternalPlantModelService plantModelService;
+  /**
+   * Estimates the travel times of paths.
+   */
+  private final EdgeEvaluatorTravelTime travelTimeEvaluator = new EdgeEvaluatorTravelTime();
+  /**
+   * This module's configuration.
+   */
+  private final DefaultSchedulerConfiguration configuration;
+  /**
+   * Schedules a retry of restricted allocations after a given delay (in ms).
+   */
+  private BiConsumer<Scheduler.Client, Long> retryScheduler = (client, delay) -> {
+  };
+  /**
+   * The time windows of all clients.
+   */
+  private final ReservationTable reservationTable = new ReservationTable();
+  /**
+   * Whether this module is initialized.
+   */
+  private boolean initialized;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param plantModelService The plant model service.
+   * @param configuration This module's configuration.
+   */
+  TimeWindowModule(@Nonnull InternalPlantModelService plantModelService,
+                   @Nonnull DefaultSchedulerConfiguration configuration) {
+    this.plantModelService = requireNonNull(plantModelService, "plantModelService");
+    this.configuration = requireNonNull(configuration, "configuration");
+  }
+
+  /**
+   * Sets the function scheduling a retry of restricted allocations after a given delay (in ms).
+   *
+   * @param retryScheduler The function.
+   */
+  void setRetryScheduler(@Nonnull BiConsumer<Scheduler.Client, Long> retryScheduler) {
+    this.retryScheduler = requireNonNull(retryScheduler, "retryScheduler");
+  }
+
+  @Override
+  public void initialize() {
+    if (isInitialized()) {
+      return;
+    }
+
+    synchronized (this) {
+      reservationTable.clear();
+    }
+    initialized = true;
+  }
+
+  @Override
+  public boolean isInitialized() {
+    return initialized;
+  }
+
+  @Override
+  public void terminate() {
+    if (!isInitialized()) {
+      return;
+    }
+
+    initialized = false;
+  }
+
+  @Override
+  public void claim(@Nonnull Scheduler.Client client, @Nonnull List<Set<TCSResource<?>>> claim) {
+    requireNonNull(client, "client");
+    requireNonNull(claim, "claim");
+
+    plan(client, claim);
+  }
+
+  @Override
+  public void unclaim(@Nonnull Scheduler.Client client) {
+    requireNonNull(client, "client");
+
+    synchronized (this) {
+      reservationTable.release(client);
+    }
+  }
+
+  @Override
+  public void setAllocationState(@Nonnull Scheduler.Client client,
+                                 @Nonnull Set<TCSResource<?>> alloc,
+                                 @Nonnull List<Set<TCSResource<?>>> remainingClaim) {
+    requireNonNull(client, "client");
+    requireNonNull(alloc, "alloc");
+    requireNonNull(remainingClaim, "remainingClaim");
+
+    plan(client, remainingClaim);
+  }
+
+  @Override
+  public boolean mayAllocate(@Nonnull Scheduler.Client client,
+                             @Nonnull Set<TCSResource<?>> resources) {
+    requireNonNull(client, "client");
+    requireNonNull(resources, "resources");
+
+    long now = System.currentTimeMillis();
+    TimeWindow conflict = null;
+    synchronized (this) {
+      reservationTable.expire(now);
+      for (TCSResource<?> resource : resources) {
+        conflict = reservationTable.findPrecedingWindow(client, resource, now);
+        if (conflict != null) {
+          break;
+        }
+      }
+    }
+
+    if (conflict == null) {
+      return true;
+    }
+
+    LOG.debug("{}: Allocation of {} conflicts with {}, retrying in {} ms.",
+              client.getId(),
+              resources,
+              conflict,
+              conflict.getEnd() - now);
+    retryScheduler.accept(client, conflict.getEnd() - now);
+    return false;
+  }
+
+  private void plan(Scheduler.Client client, List<Set<TCSResource<?>>> steps) {
+    Vehicle vehicle = plantModelService.fetchObject(Vehicle.class, client.getId());
+    synchronized (this) {
+      if (vehicle == null) {
+        // Without a vehicle, we cannot estimate travel times, so don't restrict anyone.
+        reservationTable.release(client);
+        return;
+      }
+
+      List<Long> durations = new ArrayList<>(steps.size());
+      for (Set<TCSResource<?>> step : steps) {
+        durations.add(estimateOccupancyTime(step, vehicle));
+      }
+      reservationTable.reserve(client, steps, durations, System.currentTimeMillis());
+    }
+  }
+
+  /**
+   * Estimates the time (in ms) the given vehicle occupies the resources of the given step.
+   *
+   * @param step The resources of the step.
+   * @param vehicle The vehicle.
+   * @return The estimated time.
+   */
+  private long estimateOccupancyTime(Set<TCSResource<?>> step, Vehicle vehicle) {
+    long result = configuration.minimumOccupancyTime();
+    for (TCSResource<?> resource : step) {
+      if (resource instanceof Path) {
+        Path path = (Path) resource;
+        // The path is travelled in reverse if its destination is not part of the step.
+        boolean reverse = step.stream()
+            .noneMatch(res -> res.getName().equals(path.getDestinationPoint().getName()));
+        double seconds = travelTimeEvaluator.computeWeight(new ModelEdge(path, reverse), vehicle);
+        if (seconds < INFINITE_COSTS) {
+          result = Math.max(result, (long) (seconds * 1000));
+        }
+      }
+    }
+    return result + configuration.timeWindowMargin();
+  }
+}
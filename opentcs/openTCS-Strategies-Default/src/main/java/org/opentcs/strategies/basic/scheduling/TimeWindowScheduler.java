@@ -0,0 +1,79 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.scheduling;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import javax.inject.Inject;
+import org.opentcs.components.kernel.services.InternalPlantModelService;
+import org.opentcs.customizations.ApplicationEventBus;
+import org.opentcs.customizations.kernel.GlobalSyncObject;
+import org.opentcs.customizations.kernel.KernelExecutor;
+import org.opentcs.util.KeyedExecutor;
+import org.opentcs.util.event.EventHandler;
+
+/**
+ * A scheduler that, in addition to the {@link DefaultScheduler}'s resource locks, keeps time
+ * windows for the resources claimed by its clients.
+ * Allocations are only granted if they do not conflict with an earlier time window of another
+ * client, which avoids vehicles blocking each other at crossings they would otherwise reach at
+ * about the same time.
+ */
+public class TimeWindowScheduler
+    extends DefaultScheduler {
+
+  /**
+   * Creates a new instance.
+   *
+   * @param plantModelService The plant model service.
+   * @param modules The scheduler modules.
+   * @param reservationPool The reservation pool to be used.
+   * @param kernelExecutor Executes scheduling tasks, serially per client.
+   * @param globalSyncObject The kernel threads' global synchronization object.
+   * @param eventHandler The handler detected deadlocks are published to.
+   * @param configuration This scheduler's configuration.
+   */
+  @Inject
+  public TimeWindowScheduler(InternalPlantModelService plantModelService,
+                             Set<Module> modules,
+                             ReservationPool reservationPool,
+                             @KernelExecutor KeyedExecutor kernelExecutor,
+                             @GlobalSyncObject Object globalSyncObject,
+                             @ApplicationEventBus EventHandler eventHandler,
+                             DefaultSchedulerConfiguration configuration) {
+    this(plantModelService,
+         modules,
+         reservationPool,
+         kernelExecutor,
+         globalSyncObject,
+         eventHandler,
+         new TimeWindowModule(plantModelService, configuration));
+  }
+
+  private TimeWindowScheduler(InternalPlantModelService plantModelService,
+                              Set<Module> modules,
+                              ReservationPool reservationPool,
+                              KeyedExecutor kernelExecutor,
+                              Object globalSyncObject,
+                              EventHandler eventHandler,
+                              TimeWindowModule timeWindowModule) {
+    super(plantModelService,
+          new AllocationAdvisor(withModule(modules, timeWindowModule)),
+          reservationPool,
+          kernelExecutor,
+          globalSyncObject,
+          eventHandler);
+    timeWindowModule.setRetryScheduler(this::scheduleRetry);
+  }
+
+  private static Set<Module> withModule(Set<Module> modules, Module module) {
+    Set<Module> result = new LinkedHashSet<>(modules);
+    result.add(module);
+    return result;
+  }
+}
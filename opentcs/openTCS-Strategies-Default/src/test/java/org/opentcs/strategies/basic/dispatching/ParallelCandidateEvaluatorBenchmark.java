@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.dispatching;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.opentcs.components.kernel.services.TCSObjectService;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.Route;
+import org.opentcs.strategies.basic.routing.GridPlant;
+import org.opentcs.strategies.basic.routing.PointRouter;
+import org.opentcs.strategies.basic.routing.jgrapht.DefaultModelGraphMapper;
+import org.opentcs.strategies.basic.routing.jgrapht.DijkstraPointRouterFactory;
+import org.opentcs.strategies.basic.routing.jgrapht.EdgeEvaluatorDistance;
+import org.opentcs.strategies.basic.routing.jgrapht.ShortestPathConfiguration;
+import org.opentcs.strategies.basic.routing.jgrapht.TestShortestPathConfiguration;
+
+/**
+ * Measures the time {@link ParallelCandidateEvaluator} takes to evaluate a batch of assignment
+ * candidates with different degrees of parallelism.
+ * <p>
+ * Evaluating a candidate is modelled by computing the route between a random pair of points on a
+ * grid plant with an uncached Dijkstra point router, which dominates the costs of evaluating real
+ * candidates. A batch of 200 candidates corresponds to e.g. 10 vehicles and 20 transport orders
+ * with the global optimum assignment strategy.
+ * </p>
+ * <p>
+ * Run with {@code java -cp <test classpath> }
+ * {@code org.opentcs.strategies.basic.dispatching.ParallelCandidateEvaluatorBenchmark}.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelCandidateEvaluatorBenchmark {
+
+  @Param({"1", "2", "4"})
+  public int parallelism;
+
+  @Param({"200"})
+  public int candidates;
+
+  private ParallelCandidateEvaluator evaluator;
+
+  private PointRouter router;
+
+  private final List<Point[]> pairs = new ArrayList<>();
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    DefaultDispatcherConfiguration configuration = mock(DefaultDispatcherConfiguration.class);
+    when(configuration.candidateEvaluationParallelism()).thenReturn(parallelism);
+    evaluator = new ParallelCandidateEvaluator(configuration);
+    evaluator.initialize();
+
+    GridPlant plant = new GridPlant(30);
+    ShortestPathConfiguration routerConfiguration
+        = new TestShortestPathConfiguration(ShortestPathConfiguration.Algorithm.DIJKSTRA, 0, false);
+    router = new DijkstraPointRouterFactory(mock(TCSObjectService.class),
+                                            new DefaultModelGraphMapper(new EdgeEvaluatorDistance(),
+                                                                        routerConfiguration),
+                                            routerConfiguration)
+        .createPointRouter(new Vehicle("Vehicle"), plant.getPoints(), plant.getPaths());
+
+    Random random = new Random(42);
+    List<Point> points = plant.getPoints();
+    for (int i = 0; i < candidates; i++) {
+      pairs.add(new Point[]{points.get(random.nextInt(points.size())),
+                            points.get(random.nextInt(points.size()))});
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    evaluator.terminate();
+  }
+
+  @Benchmark
+  public List<List<Route.Step>> evaluate() {
+    return evaluator.evaluate(pairs, pair -> router.getRouteSteps(pair[0], pair[1]));
+  }
+
+  public static void main(String[] args)
+      throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(ParallelCandidateEvaluatorBenchmark.class.getSimpleName())
+        .build())
+        .run();
+  }
+}
@@ -0,0 +1,137 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.dispatching.phase.assignment;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares greedy assignment of transport orders to vehicles with the {@link HungarianAlgorithm}:
+ * the time to compute an assignment from a cost matrix and the resulting empty travel costs.
+ * <p>
+ * Vehicles and the transport orders' first destinations are placed randomly on a square plant with
+ * an edge length of 100 m; the costs are the Manhattan distances. There are as many transport
+ * orders as vehicles, like in a batch of the highest-priority orders considered by the global
+ * optimum strategy. Greedy assignment gives each transport order, in order, the nearest free
+ * vehicle, like the greedy strategy does with costs as the only criterion. The total costs of both
+ * are printed on set-up.
+ * </p>
+ * <p>
+ * Run with {@code java -cp <test classpath> }
+ * {@code org.opentcs.strategies.basic.dispatching.phase.assignment.AssignmentBenchmark}.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AssignmentBenchmark {
+
+  /**
+   * The edge length of the plant (in mm).
+   */
+  private static final int PLANT_SIZE = 100000;
+
+  @Param({"10", "50", "200"})
+  public int vehicles;
+
+  private long[][] costs;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    Random random = new Random(42);
+    int orders = vehicles;
+    int[][] vehiclePositions = randomPositions(random, vehicles);
+    int[][] orderPositions = randomPositions(random, orders);
+    costs = new long[vehicles][orders];
+    for (int vehicle = 0; vehicle < vehicles; vehicle++) {
+      for (int order = 0; order < orders; order++) {
+        costs[vehicle][order]
+            = Math.abs(vehiclePositions[vehicle][0] - orderPositions[order][0])
+            + Math.abs(vehiclePositions[vehicle][1] - orderPositions[order][1]);
+      }
+    }
+    System.out.printf("%n%d vehicles, %d orders: empty travel costs greedy %d, optimal %d%n",
+                      vehicles,
+                      orders,
+                      totalCosts(greedy()),
+                      totalCosts(HungarianAlgorithm.solve(costs)));
+  }
+
+  @Benchmark
+  public int[] greedy() {
+    int[] result = new int[costs.length];
+    boolean[] assignedVehicles = new boolean[costs.length];
+    Arrays.fill(result, -1);
+    for (int order = 0; order < costs[0].length; order++) {
+      int bestVehicle = -1;
+      for (int vehicle = 0; vehicle < costs.length; vehicle++) {
+        if (!assignedVehicles[vehicle]
+            && (bestVehicle < 0 || costs[vehicle][order] < costs[bestVehicle][order])) {
+          bestVehicle = vehicle;
+        }
+      }
+      if (bestVehicle < 0) {
+        break;
+      }
+      assignedVehicles[bestVehicle] = true;
+      result[bestVehicle] = order;
+    }
+    return result;
+  }
+
+  @Benchmark
+  public int[] hungarian() {
+    return HungarianAlgorithm.solve(costs);
+  }
+
+  private long totalCosts(int[] assignment) {
+    long result = 0;
+    for (int vehicle = 0; vehicle < assignment.length; vehicle++) {
+      if (assignment[vehicle] >= 0) {
+        result += costs[vehicle][assignment[vehicle]];
+      }
+    }
+    return result;
+  }
+
+  private static int[][] randomPositions(Random random, int count) {
+    int[][] result = new int[count][2];
+    for (int i = 0; i < count; i++) {
+      result[i][0] = random.nextInt(PLANT_SIZE);
+      result[i][1] = random.nextInt(PLANT_SIZE);
+    }
+    return result;
+  }
+
+  public static void main(String[] args)
+      throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(AssignmentBenchmark.class.getSimpleName())
+        .build())
+        .run();
+  }
+}
@@ -0,0 +1,137 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.dispatching.phase.assignment;
+
+import java.util.Random;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link HungarianAlgorithm}.
+ */
+public class HungarianAlgorithmTest {
+
+  private static final long FORBIDDEN = HungarianAlgorithm.FORBIDDEN;
+
+  @Test
+  public void findCheaperAssignmentThanGreedy() {
+    // Greedy assignment of row 0 first would take column 0 and leave column 1 for row 1 (4 + 100).
+    long[][] costs = {{4, 5},
+                      {6, 100}};
+
+    assertThat(HungarianAlgorithm.solve(costs), is(new int[]{1, 0}));
+  }
+
+  @Test
+  public void preferMoreAssignmentsOverLowerCosts() {
+    long[][] costs = {{1, 1000},
+                      {2, FORBIDDEN}};
+
+    assertThat(HungarianAlgorithm.solve(costs), is(new int[]{1, 0}));
+  }
+
+  @Test
+  public void leaveRowsWithForbiddenCellsOnlyUnassigned() {
+    long[][] costs = {{FORBIDDEN, FORBIDDEN},
+                      {3, 2}};
+
+    assertThat(HungarianAlgorithm.solve(costs), is(new int[]{-1, 1}));
+  }
+
+  @Test
+  public void handleMoreRowsThanColumns() {
+    long[][] costs = {{5},
+                      {1},
+                      {3}};
+
+    assertThat(HungarianAlgorithm.solve(costs), is(new int[]{-1, 0, -1}));
+  }
+
+  @Test
+  public void notOverflowWithHugeCosts() {
+    long[][] costs = {{Long.MAX_VALUE - 1, 1},
+                      {Long.MAX_VALUE / 2, FORBIDDEN},
+                      {FORBIDDEN, Long.MAX_VALUE / 3}};
+
+    int[] assignment = HungarianAlgorithm.solve(costs);
+
+    assertThat(assignment[0], is(1));
+    assertThat(assignment[1], is(0));
+    assertThat(assignment[2], is(-1));
+  }
+
+  @Test
+  public void matchBruteForceForRandomMatrices() {
+    Random random = new Random(42);
+    for (int run = 0; run < 500; run++) {
+      int rows = 1 + random.nextInt(5);
+      int columns = 1 + random.nextInt(5);
+      long[][] costs = new long[rows][columns];
+      for (int row = 0; row < rows; row++) {
+        for (int column = 0; column < columns; column++) {
+          costs[row][column] = random.nextInt(4) == 0 ? FORBIDDEN : random.nextInt(1000);
+        }
+      }
+
+      int[] assignment = HungarianAlgorithm.solve(costs);
+
+      long[] best = bestAssignment(costs, 0, new boolean[columns]);
+      assertThat(assignedCount(assignment), is(best[0]));
+      assertThat(assignedCosts(costs, assignment), is(best[1]));
+    }
+  }
+
+  /**
+   * Returns the highest number of assigned rows and the lowest costs for that number, by trying
+   * all assignments of the rows starting with the given one.
+   */
+  private long[] bestAssignment(long[][] costs, int row, boolean[] usedColumns) {
+    if (row == costs.length) {
+      return new long[]{0, 0};
+    }
+    long[] best = bestAssignment(costs, row + 1, usedColumns);
+    for (int column = 0; column < usedColumns.length; column++) {
+      if (!usedColumns[column] && costs[row][column] != FORBIDDEN) {
+        usedColumns[column] = true;
+        long[] rest = bestAssignment(costs, row + 1, usedColumns);
+        usedColumns[column] = false;
+        long count = rest[0] + 1;
+        long sum = rest[1] + costs[row][column];
+        if (count > best[0] || (count == best[0] && sum < best[1])) {
+          best = new long[]{count, sum};
+        }
+      }
+    }
+    return best;
+  }
+
+  private long assignedCount(int[] assignment) {
+    long result = 0;
+    for (int column : assignment) {
+      if (column >= 0) {
+        result++;
+      }
+    }
+    return result;
+  }
+
+  private long assignedCosts(long[][] costs, int[] assignment) {
+    long result = 0;
+    boolean[] usedColumns = new boolean[costs[0].length];
+    for (int row = 0; row < assignment.length; row++) {
+      if (assignment[row] >= 0) {
+        assertThat(costs[row][assignment[row]] == FORBIDDEN, is(false));
+        assertThat(usedColumns[assignment[row]], is(false));
+        usedColumns[assignment[row]] = true;
+        result += costs[row][assignment[row]];
+      }
+    }
+    return result;
+  }
+}
@@ -0,0 +1,140 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.jgrapht.alg.shortestpath.DijkstraShortestPath;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import org.junit.Before;
+import org.junit.Test;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Triple;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.Route;
+import static org.opentcs.strategies.basic.routing.PointRouter.INFINITE_COSTS;
+import org.opentcs.strategies.basic.routing.jgrapht.DefaultModelGraphMapper;
+import org.opentcs.strategies.basic.routing.jgrapht.EdgeEvaluatorDistance;
+import org.opentcs.strategies.basic.routing.jgrapht.ShortestPathConfiguration;
+import org.opentcs.strategies.basic.routing.jgrapht.ShortestPathPointRouter;
+import org.opentcs.strategies.basic.routing.jgrapht.TestShortestPathConfiguration;
+
+/**
+ * Unit tests for {@link AStarPointRouter}.
+ */
+public class AStarPointRouterTest {
+
+  private final Vehicle vehicle = new Vehicle("Vehicle");
+
+  private GridPlant plant;
+
+  @Before
+  public void setUp() {
+    plant = new GridPlant(6);
+  }
+
+  @Test
+  public void matchDijkstraCostsForAllPairs() {
+    assertSameCostsAsDijkstra(plant.getPoints(), plant.getPaths());
+  }
+
+  @Test
+  public void matchDijkstraCostsWithCoordinatesNotMatchingLengths() {
+    // Moving points closer together makes the heuristic overestimate unless it is scaled down.
+    List<Point> points = Arrays.asList(
+        plant.getPoint(0, 0).withPosition(new Triple(0, 0, 0)),
+        plant.getPoint(0, 1).withPosition(new Triple(5000, 0, 0)),
+        plant.getPoint(1, 0).withPosition(new Triple(0, 10, 0)),
+        plant.getPoint(1, 1).withPosition(new Triple(5000, 10, 0)));
+    List<Path> paths = Arrays.asList(
+        plant.getPath(plant.getPoint(0, 0), plant.getPoint(0, 1)),
+        plant.getPath(plant.getPoint(0, 0), plant.getPoint(1, 0)).withLength(100000),
+        plant.getPath(plant.getPoint(0, 1), plant.getPoint(1, 1)),
+        plant.getPath(plant.getPoint(1, 0), plant.getPoint(1, 1)));
+
+    assertSameCostsAsDijkstra(points, paths);
+  }
+
+  @Test
+  public void returnConnectedRouteSteps() {
+    AStarPointRouter router = createRouter(plant.getPoints(), plant.getPaths());
+    Point src = plant.getPoint(5, 0);
+    Point dest = plant.getPoint(2, 4);
+
+    List<Route.Step> steps = router.getRouteSteps(src, dest);
+
+    assertThat(steps, hasSize(7));
+    assertThat(steps.get(0).getSourcePoint().getName(), is(src.getName()));
+    assertThat(steps.get(steps.size() - 1).getDestinationPoint().getName(), is(dest.getName()));
+    for (int i = 0; i < steps.size(); i++) {
+      assertThat(steps.get(i).getRouteIndex(), is(i));
+      if (i > 0) {
+        assertThat(steps.get(i).getSourcePoint().getName(),
+                   is(steps.get(i - 1).getDestinationPoint().getName()));
+      }
+    }
+  }
+
+  @Test
+  public void avoidLockedPathsAfterUpdate() {
+    List<Point> row = Arrays.asList(plant.getPoint(0, 0), plant.getPoint(0, 1));
+    Path path = plant.getPath(row.get(0), row.get(1));
+    AStarPointRouter router = createRouter(row, Collections.singletonList(path));
+    assertThat(router.getCosts(row.get(0).getReference(), row.get(1).getReference()),
+               is(GridPlant.SPACING));
+
+    assertThat(router.updatePaths(Collections.singletonList(path.withLocked(true))), is(true));
+    assertThat(router.getCosts(row.get(0).getReference(), row.get(1).getReference()),
+               is(INFINITE_COSTS));
+    assertThat(router.getRouteSteps(row.get(0), row.get(1)), is(nullValue()));
+
+    assertThat(router.updatePaths(Collections.singletonList(path)), is(true));
+    assertThat(router.getCosts(row.get(1).getReference(), row.get(0).getReference()),
+               is(GridPlant.SPACING));
+  }
+
+  @Test
+  public void rejectUpdateOfUnknownPath() {
+    AStarPointRouter router = createRouter(plant.getPoints(), plant.getPaths());
+    Path unknown = new Path("unknown",
+                            plant.getPoint(0, 0).getReference(),
+                            plant.getPoint(5, 5).getReference());
+
+    assertThat(router.updatePaths(Collections.singletonList(unknown)), is(false));
+  }
+
+  private void assertSameCostsAsDijkstra(List<Point> points, List<Path> paths) {
+    AStarPointRouter router = createRouter(points, paths);
+    DefaultModelGraphMapper mapper = new DefaultModelGraphMapper(
+        new EdgeEvaluatorDistance(),
+        new TestShortestPathConfiguration(ShortestPathConfiguration.Algorithm.DIJKSTRA, 0, false));
+    ShortestPathPointRouter dijkstra = new ShortestPathPointRouter(
+        new DijkstraShortestPath<>(mapper.translateModel(points, paths, vehicle)),
+        points);
+
+    for (Point src : points) {
+      for (Point dest : points) {
+        assertThat(src.getName() + " -> " + dest.getName(),
+                   router.getCosts(src.getReference(), dest.getReference()),
+                   is(dijkstra.getCosts(src.getReference(), dest.getReference())));
+      }
+    }
+  }
+
+  private AStarPointRouter createRouter(List<Point> points, List<Path> paths) {
+    return new AStarPointRouter(new EdgeWeights(new RoutingTopology(points, paths),
+                                                paths,
+                                                new EdgeEvaluatorDistance(),
+                                                vehicle));
+  }
+}
@@ -0,0 +1,141 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Triple;
+
+/**
+ * A generated plant model for routing tests and benchmarks: A grid of points, each connected to
+ * its neighbours to the east and south by a path that can be travelled in both directions.
+ */
+public class GridPlant {
+
+  /**
+   * The distance between neighbouring points (in mm), also the length of each path.
+   */
+  public static final long SPACING = 1000;
+  /**
+   * The number of rows and columns.
+   */
+  private final int size;
+  /**
+   * The points, row by row.
+   */
+  private final List<Point> points = new ArrayList<>();
+  /**
+   * The paths, mapped by their names.
+   */
+  private final Map<String, Path> paths = new HashMap<>();
+
+  /**
+   * Creates a new instance.
+   *
+   * @param size The number of rows and columns.
+   */
+  public GridPlant(int size) {
+    this.size = size;
+    for (int row = 0; row < size; row++) {
+      for (int col = 0; col < size; col++) {
+        points.add(new Point(pointName(row, col))
+            .withPosition(new Triple(col * SPACING, row * SPACING, 0)));
+      }
+    }
+    for (int row = 0; row < size; row++) {
+      for (int col = 0; col < size; col++) {
+        if (col + 1 < size) {
+          addPath(getPoint(row, col), getPoint(row, col + 1));
+        }
+        if (row + 1 < size) {
+          addPath(getPoint(row, col), getPoint(row + 1, col));
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the number of rows and columns.
+   *
+   * @return The number of rows and columns.
+   */
+  public int getSize() {
+    return size;
+  }
+
+  /**
+   * Returns the point at the given row and column.
+   *
+   * @param row The row.
+   * @param col The column.
+   * @return The point.
+   */
+  public Point getPoint(int row, int col) {
+    return points.get(row * size + col);
+  }
+
+  /**
+   * Returns all points, row by row.
+   *
+   * @return All points.
+   */
+  public List<Point> getPoints() {
+    return Collections.unmodifiableList(points);
+  }
+
+  /**
+   * Returns all paths.
+   *
+   * @return All paths.
+   */
+  public List<Path> getPaths() {
+    return new ArrayList<>(paths.values());
+  }
+
+  /**
+   * Returns the path between the given points, in either direction.
+   *
+   * @param point1 One of the points.
+   * @param point2 The other point.
+   * @return The path, or {@code null}, if the points are not neighbours.
+   */
+  public Path getPath(Point point1, Point point2) {
+    Path result = paths.get(pathName(point1, point2));
+    return result != null ? result : paths.get(pathName(point2, point1));
+  }
+
+  /**
+   * Replaces a path with a modified version of it, e.g. a locked one.
+   *
+   * @param path The modified path.
+   */
+  public void updatePath(Path path) {
+    paths.put(path.getName(), path);
+  }
+
+  private void addPath(Point source, Point destination) {
+    Path path = new Path(pathName(source, destination),
+                         source.getReference(),
+                         destination.getReference())
+        .withLength(SPACING);
+    paths.put(path.getName(), path);
+  }
+
+  private static String pointName(int row, int col) {
+    return "Point-" + row + "-" + col;
+  }
+
+  private static String pathName(Point source, Point destination) {
+    return source.getName() + "--" + destination.getName();
+  }
+}
@@ -0,0 +1,148 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import static org.mockito.Mockito.mock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.opentcs.components.kernel.services.TCSObjectService;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.Route;
+import org.opentcs.strategies.basic.routing.jgrapht.DefaultModelGraphMapper;
+import org.opentcs.strategies.basic.routing.jgrapht.DijkstraPointRouterFactory;
+import org.opentcs.strategies.basic.routing.jgrapht.EdgeEvaluatorDistance;
+import org.opentcs.strategies.basic.routing.jgrapht.ShortestPathConfiguration;
+import org.opentcs.strategies.basic.routing.jgrapht.TestShortestPathConfiguration;
+
+/**
+ * Compares the {@link AStarPointRouter} with the JGraphT-based Dijkstra point router on a grid
+ * plant: the time to create a point router for a routing group, the latency of uncached route
+ * queries between random points and the heap retained per point router.
+ * <p>
+ * The retained heap is measured once per trial by creating {@link #ROUTERS} point routers and
+ * comparing the used heap after garbage collections before and after, and printed on set-up.
+ * </p>
+ * <p>
+ * Run with {@code java -cp <test classpath> }
+ * {@code org.opentcs.strategies.basic.routing.PointRouterBenchmark}.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PointRouterBenchmark {
+
+  /**
+   * The number of point routers created for measuring the retained heap.
+   */
+  static final int ROUTERS = 10;
+
+  @Param({"30", "60"})
+  public int gridSize;
+
+  @Param({"ASTAR", "DIJKSTRA"})
+  public String algorithm;
+
+  private final Vehicle vehicle = new Vehicle("Vehicle");
+
+  private final Random random = new Random(42);
+
+  private GridPlant plant;
+
+  private PointRouterFactory factory;
+
+  private PointRouter router;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    plant = new GridPlant(gridSize);
+    factory = createFactory();
+    router = factory.createPointRouter(vehicle, plant.getPoints(), plant.getPaths());
+    System.out.printf("%n%s, grid %dx%d: %d KiB retained per point router%n",
+                      algorithm,
+                      gridSize,
+                      gridSize,
+                      measureRetainedHeap() / ROUTERS / 1024);
+  }
+
+  @Benchmark
+  public PointRouter createPointRouter() {
+    return factory.createPointRouter(vehicle, plant.getPoints(), plant.getPaths());
+  }
+
+  @Benchmark
+  public List<Route.Step> getRouteSteps() {
+    List<Point> points = plant.getPoints();
+    return router.getRouteSteps(points.get(random.nextInt(points.size())),
+                                points.get(random.nextInt(points.size())));
+  }
+
+  private PointRouterFactory createFactory() {
+    TCSObjectService objectService = mock(TCSObjectService.class);
+    if ("ASTAR".equals(algorithm)) {
+      return new AStarPointRouterFactory(objectService, new EdgeEvaluatorDistance());
+    }
+    // No result cache, so every query runs the algorithm.
+    ShortestPathConfiguration configuration
+        = new TestShortestPathConfiguration(ShortestPathConfiguration.Algorithm.DIJKSTRA, 0, false);
+    return new DijkstraPointRouterFactory(objectService,
+                                          new DefaultModelGraphMapper(new EdgeEvaluatorDistance(),
+                                                                      configuration),
+                                          configuration);
+  }
+
+  private long measureRetainedHeap() {
+    long before = usedHeap();
+    List<PointRouter> routers = new ArrayList<>();
+    for (int i = 0; i < ROUTERS; i++) {
+      routers.add(factory.createPointRouter(new Vehicle("Vehicle-" + i),
+                                            plant.getPoints(),
+                                            plant.getPaths()));
+    }
+    long after = usedHeap();
+    // Keep the routers reachable until the heap has been measured.
+    return routers.isEmpty() ? 0 : after - before;
+  }
+
+  private static long usedHeap() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+
+  public static void main(String[] args)
+      throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(PointRouterBenchmark.class.getSimpleName())
+        .build())
+        .run();
+  }
+}
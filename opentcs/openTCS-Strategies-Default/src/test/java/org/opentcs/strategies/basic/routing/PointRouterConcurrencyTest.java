@@ -0,0 +1,130 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.mockito.Mockito.mock;
+import org.opentcs.components.kernel.services.TCSObjectService;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.Route;
+import org.opentcs.strategies.basic.routing.jgrapht.BellmanFordPointRouterFactory;
+import org.opentcs.strategies.basic.routing.jgrapht.DefaultModelGraphMapper;
+import org.opentcs.strategies.basic.routing.jgrapht.DijkstraPointRouterFactory;
+import org.opentcs.strategies.basic.routing.jgrapht.EdgeEvaluatorDistance;
+import org.opentcs.strategies.basic.routing.jgrapht.FloydWarshallPointRouterFactory;
+import org.opentcs.strategies.basic.routing.jgrapht.ShortestPathConfiguration;
+import org.opentcs.strategies.basic.routing.jgrapht.ShortestPathConfiguration.Algorithm;
+import org.opentcs.strategies.basic.routing.jgrapht.TestShortestPathConfiguration;
+
+/**
+ * Checks that the bundled point routers answer concurrent requests the same way as sequential
+ * ones, as required for evaluating assignment candidates in parallel.
+ */
+public class PointRouterConcurrencyTest {
+
+  private static final int THREADS = 4;
+
+  private final GridPlant plant = new GridPlant(6);
+
+  private final Vehicle vehicle = new Vehicle("Vehicle");
+
+  private final TCSObjectService objectService = mock(TCSObjectService.class);
+
+  private ExecutorService executor;
+
+  @Before
+  public void setUp() {
+    executor = Executors.newFixedThreadPool(THREADS);
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void answerConcurrentRequestsWithAStar()
+      throws Exception {
+    assertSameResultsWhenConcurrent(
+        new AStarPointRouterFactory(objectService, new EdgeEvaluatorDistance()));
+  }
+
+  @Test
+  public void answerConcurrentRequestsWithDijkstra()
+      throws Exception {
+    ShortestPathConfiguration configuration = configuration(Algorithm.DIJKSTRA);
+    assertSameResultsWhenConcurrent(
+        new DijkstraPointRouterFactory(objectService, mapper(configuration), configuration));
+  }
+
+  @Test
+  public void answerConcurrentRequestsWithBellmanFord()
+      throws Exception {
+    ShortestPathConfiguration configuration = configuration(Algorithm.BELLMAN_FORD);
+    assertSameResultsWhenConcurrent(
+        new BellmanFordPointRouterFactory(objectService, mapper(configuration), configuration));
+  }
+
+  @Test
+  public void answerConcurrentRequestsWithFloydWarshall()
+      throws Exception {
+    ShortestPathConfiguration configuration = configuration(Algorithm.FLOYD_WARSHALL);
+    assertSameResultsWhenConcurrent(
+        new FloydWarshallPointRouterFactory(objectService, mapper(configuration), configuration));
+  }
+
+  private void assertSameResultsWhenConcurrent(PointRouterFactory factory)
+      throws Exception {
+    List<Point> points = plant.getPoints();
+    PointRouter reference = factory.createPointRouter(vehicle, points, plant.getPaths());
+    PointRouter router = factory.createPointRouter(vehicle, points, plant.getPaths());
+
+    List<Future<?>> futures = new ArrayList<>();
+    for (int thread = 0; thread < THREADS; thread++) {
+      List<Point> sources = new ArrayList<>(points);
+      Collections.shuffle(sources, new Random(thread));
+      futures.add(executor.submit(() -> {
+        for (Point src : sources) {
+          for (Point dest : points) {
+            List<Route.Step> steps = router.getRouteSteps(src, dest);
+            assertThat(src.getName() + " -> " + dest.getName(),
+                       steps,
+                       is(reference.getRouteSteps(src, dest)));
+            assertThat(router.getCosts(src.getReference(), dest.getReference()),
+                       is(reference.getCosts(src.getReference(), dest.getReference())));
+          }
+        }
+        return null;
+      }));
+    }
+    for (Future<?> future : futures) {
+      future.get();
+    }
+  }
+
+  private ShortestPathConfiguration configuration(Algorithm algorithm) {
+    // With a small result cache, most requests are computed and many evict each other.
+    return new TestShortestPathConfiguration(algorithm, 16, false);
+  }
+
+  private DefaultModelGraphMapper mapper(ShortestPathConfiguration configuration) {
+    return new DefaultModelGraphMapper(new EdgeEvaluatorDistance(), configuration);
+  }
+}
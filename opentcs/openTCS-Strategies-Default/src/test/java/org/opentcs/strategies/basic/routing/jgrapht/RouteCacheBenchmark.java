@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing.jgrapht;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.jgrapht.alg.shortestpath.DijkstraShortestPath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.opentcs.data.TCSObjectReference;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.strategies.basic.routing.GridPlant;
+
+/**
+ * Measures cost lookups of a {@link ShortestPathPointRouter} (Dijkstra) without a cache, with the
+ * result cache and with the precomputed cost matrix.
+ * <p>
+ * The lookups cycle through {@code pairs} random pairs of points on a grid plant, like the
+ * dispatcher repeatedly asking for the costs from the vehicles' positions to the transport orders'
+ * destinations.
+ * </p>
+ * <p>
+ * Run with {@code java -cp <test classpath> }
+ * {@code org.opentcs.strategies.basic.routing.jgrapht.RouteCacheBenchmark}.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteCacheBenchmark {
+
+  @Param({"30"})
+  public int gridSize;
+
+  @Param({"500"})
+  public int pairs;
+
+  @Param({"NONE", "CACHE", "MATRIX"})
+  public String mode;
+
+  private ShortestPathPointRouter router;
+
+  private final List<TCSObjectReference<Point>> sources = new ArrayList<>();
+
+  private final List<TCSObjectReference<Point>> destinations = new ArrayList<>();
+
+  private int next;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    GridPlant plant = new GridPlant(gridSize);
+    Vehicle vehicle = new Vehicle("Vehicle");
+    DefaultModelGraphMapper mapper = new DefaultModelGraphMapper(
+        new EdgeEvaluatorDistance(),
+        new TestShortestPathConfiguration(ShortestPathConfiguration.Algorithm.DIJKSTRA, 0, false));
+    router = new ShortestPathPointRouter(
+        new RoutingGroupGraph(new SharedModelGraph(plant.getPoints(), plant.getPaths()),
+                              plant.getPaths(),
+                              mapper.translateModel(plant.getPoints(), plant.getPaths(), vehicle)),
+        DijkstraShortestPath::new,
+        mapper,
+        vehicle,
+        "CACHE".equals(mode) ? 10000 : 0,
+        "MATRIX".equals(mode));
+
+    Random random = new Random(42);
+    for (int i = 0; i < pairs; i++) {
+      sources.add(plant.getPoints().get(random.nextInt(plant.getPoints().size())).getReference());
+      destinations.add(plant.getPoints().get(random.nextInt(plant.getPoints().size()))
+          .getReference());
+    }
+  }
+
+  @Benchmark
+  public long getCosts() {
+    long costs = router.getCosts(sources.get(next), destinations.get(next));
+    next = (next + 1) % pairs;
+    return costs;
+  }
+
+  public static void main(String[] args)
+      throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(RouteCacheBenchmark.class.getSimpleName())
+        .build())
+        .run();
+  }
+}
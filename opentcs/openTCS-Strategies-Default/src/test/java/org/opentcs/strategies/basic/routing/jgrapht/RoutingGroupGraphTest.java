@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing.jgrapht;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import org.jgrapht.Graph;
+import org.junit.Before;
+import org.junit.Test;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Triple;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.strategies.basic.routing.GridPlant;
+
+/**
+ * Unit tests for {@link RoutingGroupGraph} and {@link SharedModelGraph}.
+ */
+public class RoutingGroupGraphTest {
+
+  private final GridPlant plant = new GridPlant(3);
+
+  private SharedModelGraph sharedGraph;
+
+  private DefaultModelGraphMapper mapper;
+
+  @Before
+  public void setUp() {
+    sharedGraph = new SharedModelGraph(plant.getPoints(), plant.getPaths());
+    mapper = new DefaultModelGraphMapper(
+        new EdgeEvaluatorTravelTime(),
+        new TestShortestPathConfiguration(ShortestPathConfiguration.Algorithm.DIJKSTRA, 0, false));
+  }
+
+  @Test
+  public void shareGraphStructureBetweenRoutingGroups() {
+    RoutingGroupGraph slow = createGraph(new Vehicle("Slow").withMaxVelocity(500));
+    RoutingGroupGraph fast = createGraph(new Vehicle("Fast").withMaxVelocity(1000));
+    ModelEdge edge = slow.getEdge(plant.getPoint(0, 0).getName(), plant.getPoint(0, 1).getName());
+
+    assertThat(fast.getEdge(plant.getPoint(0, 0).getName(), plant.getPoint(0, 1).getName()),
+               is(sameInstance(edge)));
+    assertThat(slow.getEdgeWeight(edge), is(2.0));
+    assertThat(fast.getEdgeWeight(edge), is(1.0));
+  }
+
+  @Test
+  public void matchEdgesOfMappedGraph() {
+    Vehicle vehicle = new Vehicle("Vehicle").withMaxVelocity(1000);
+    RoutingGroupGraph graph = createGraph(vehicle);
+    Graph<String, ModelEdge> mappedGraph
+        = mapper.translateModel(plant.getPoints(), plant.getPaths(), vehicle);
+
+    assertThat(graph.edgeSet().size(), is(mappedGraph.edgeSet().size()));
+    for (ModelEdge mappedEdge : mappedGraph.edgeSet()) {
+      ModelEdge edge = graph.getEdge(mappedGraph.getEdgeSource(mappedEdge),
+                                     mappedGraph.getEdgeTarget(mappedEdge));
+      assertThat(edge.isTravellingReverse(), is(mappedEdge.isTravellingReverse()));
+      assertThat(graph.getEdgeWeight(edge), is(mappedGraph.getEdgeWeight(mappedEdge)));
+    }
+  }
+
+  @Test
+  public void hideEdgesOfLockedPaths() {
+    Vehicle vehicle = new Vehicle("Vehicle").withMaxVelocity(1000);
+    RoutingGroupGraph graph = createGraph(vehicle);
+    Path path = plant.getPath(plant.getPoint(0, 0), plant.getPoint(0, 1));
+    int edgeCount = graph.edgeSet().size();
+
+    Path lockedPath = path.withLocked(true);
+    graph.applyPaths(Collections.singleton(lockedPath),
+                     mapper.translateModel(plant.getPoints(),
+                                           Collections.singleton(lockedPath),
+                                           vehicle));
+    assertThat(graph.edgeSet().size(), is(edgeCount - 2));
+    assertThat(graph.containsEdge(path.getSourcePoint().getName(),
+                                  path.getDestinationPoint().getName()),
+               is(false));
+
+    graph.applyPaths(Collections.singleton(path),
+                     mapper.translateModel(plant.getPoints(),
+                                           Collections.singleton(path),
+                                           vehicle));
+    ModelEdge edge = graph.getEdge(path.getSourcePoint().getName(),
+                                   path.getDestinationPoint().getName());
+    assertThat(graph.edgeSet().size(), is(edgeCount));
+    assertThat(graph.getCurrentPath(edge), is(sameInstance(path)));
+  }
+
+  @Test
+  public void reuseSharedGraphOnlyForUnchangedModel() {
+    assertThat(sharedGraph.matches(plant.getPoints(), plant.getPaths()), is(true));
+
+    plant.updatePath(plant.getPath(plant.getPoint(0, 0), plant.getPoint(0, 1)).withLocked(true));
+    assertThat(sharedGraph.matches(plant.getPoints(), plant.getPaths()), is(true));
+
+    List<Point> points = new ArrayList<>(plant.getPoints());
+    points.set(0, plant.getPoint(0, 0).withPosition(new Triple(-1, 0, 0)));
+    assertThat(sharedGraph.matches(points, plant.getPaths()), is(false));
+  }
+
+  private RoutingGroupGraph createGraph(Vehicle vehicle) {
+    return new RoutingGroupGraph(sharedGraph,
+                                 plant.getPaths(),
+                                 mapper.translateModel(plant.getPoints(),
+                                                       plant.getPaths(),
+                                                       vehicle));
+  }
+}
@@ -0,0 +1,206 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing.jgrapht;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import org.jgrapht.Graph;
+import org.jgrapht.alg.interfaces.ShortestPathAlgorithm;
+import org.jgrapht.alg.shortestpath.DijkstraShortestPath;
+import org.jgrapht.alg.shortestpath.FloydWarshallShortestPaths;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import org.junit.Before;
+import org.junit.Test;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.Route;
+import org.opentcs.strategies.basic.routing.GridPlant;
+
+/**
+ * Unit tests for {@link ShortestPathPointRouter}'s result cache, cost matrix and path updates.
+ */
+public class ShortestPathPointRouterTest {
+
+  private final GridPlant plant = new GridPlant(5);
+
+  private final Vehicle vehicle = new Vehicle("Vehicle");
+
+  private DefaultModelGraphMapper mapper;
+
+  @Before
+  public void setUp() {
+    mapper = new DefaultModelGraphMapper(
+        new EdgeEvaluatorDistance(),
+        new TestShortestPathConfiguration(ShortestPathConfiguration.Algorithm.DIJKSTRA, 0, false));
+  }
+
+  @Test
+  public void answerRepeatedRequestsFromCache() {
+    ShortestPathPointRouter router = createRouter(100, false);
+    Point src = plant.getPoint(0, 0);
+    Point dest = plant.getPoint(4, 4);
+
+    long costs = router.getCosts(src.getReference(), dest.getReference());
+    assertThat(router.getCosts(src.getReference(), dest.getReference()), is(costs));
+    assertThat(costs, is(8 * GridPlant.SPACING));
+    assertThat(router.getCacheMisses(), is(1L));
+    assertThat(router.getCacheHits(), is(1L));
+  }
+
+  @Test
+  public void computeStepsForPairWithCachedCostsOnly() {
+    ShortestPathPointRouter router = createRouter(100, false);
+    Point src = plant.getPoint(0, 0);
+    Point dest = plant.getPoint(2, 3);
+
+    router.getCosts(src.getReference(), dest.getReference());
+    List<Route.Step> steps = router.getRouteSteps(src, dest);
+    assertThat(steps, hasSize(5));
+    assertThat(router.getCacheMisses(), is(2L));
+
+    assertThat(router.getRouteSteps(src, dest), is(steps));
+    assertThat(router.getCacheHits(), is(1L));
+  }
+
+  @Test
+  public void evictLeastRecentlyUsedResults() {
+    ShortestPathPointRouter router = createRouter(1, false);
+    Point pointA = plant.getPoint(0, 0);
+    Point pointB = plant.getPoint(1, 1);
+    Point pointC = plant.getPoint(2, 2);
+
+    router.getCosts(pointA.getReference(), pointB.getReference());
+    router.getCosts(pointA.getReference(), pointC.getReference());
+    router.getCosts(pointA.getReference(), pointB.getReference());
+    assertThat(router.getCacheMisses(), is(3L));
+    assertThat(router.getCacheHits(), is(0L));
+  }
+
+  @Test
+  public void discardCachedResultsOnInvalidation() {
+    ShortestPathPointRouter router = createRouter(100, false);
+    Point src = plant.getPoint(0, 0);
+    Point dest = plant.getPoint(4, 4);
+
+    router.getCosts(src.getReference(), dest.getReference());
+    router.invalidate();
+    router.getCosts(src.getReference(), dest.getReference());
+    assertThat(router.getCacheMisses(), is(2L));
+  }
+
+  @Test
+  public void matchAlgorithmWithPrecomputedCosts() {
+    ShortestPathPointRouter precomputing = createRouter(0, true);
+    ShortestPathPointRouter uncached = createRouter(0, false);
+
+    for (Point src : plant.getPoints()) {
+      for (Point dest : plant.getPoints()) {
+        assertThat(precomputing.getCosts(src.getReference(), dest.getReference()),
+                   is(uncached.getCosts(src.getReference(), dest.getReference())));
+      }
+    }
+    assertThat(precomputing.getCacheMisses(), is(0L));
+  }
+
+  @Test
+  public void avoidLockedPathsAfterUpdate() {
+    ShortestPathPointRouter router = createRouter(100, true);
+    Point src = plant.getPoint(0, 0);
+    Point dest = plant.getPoint(0, 1);
+    Path path = plant.getPath(src, dest);
+    assertThat(router.getCosts(src.getReference(), dest.getReference()), is(GridPlant.SPACING));
+
+    assertThat(router.updatePaths(Collections.singletonList(path.withLocked(true))), is(true));
+    assertThat(router.getCosts(src.getReference(), dest.getReference()),
+               is(3 * GridPlant.SPACING));
+
+    assertThat(router.updatePaths(Collections.singletonList(path)), is(true));
+    assertThat(router.getCosts(src.getReference(), dest.getReference()), is(GridPlant.SPACING));
+  }
+
+  @Test
+  public void returnCurrentStateOfPathsInSteps() {
+    ShortestPathPointRouter router = createRouter(0, false);
+    Point src = plant.getPoint(0, 0);
+    Point dest = plant.getPoint(0, 1);
+    Path path = plant.getPath(src, dest).withProperty("key", "value");
+
+    assertThat(router.updatePaths(Collections.singletonList(path)), is(true));
+    List<Route.Step> steps = router.getRouteSteps(src, dest);
+    assertThat(steps, hasSize(1));
+    assertThat(steps.get(0).getPath(), is(sameInstance(path)));
+  }
+
+  @Test
+  public void rejectUpdateOfUnknownPath() {
+    ShortestPathPointRouter router = createRouter(0, false);
+    Path unknown = new Path("unknown",
+                            plant.getPoint(0, 0).getReference(),
+                            plant.getPoint(4, 4).getReference());
+
+    assertThat(router.updatePaths(Collections.singletonList(unknown)), is(false));
+  }
+
+  @Test
+  public void answerConcurrentRequestsAfterUpdateWithFloydWarshall()
+      throws Exception {
+    ShortestPathPointRouter router = createRouter(FloydWarshallShortestPaths::new, 0, false);
+    Point src = plant.getPoint(0, 0);
+    Point dest = plant.getPoint(0, 1);
+    Path path = plant.getPath(src, dest);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      for (int i = 0; i < 20; i++) {
+        boolean locked = i % 2 == 0;
+        assertThat(router.updatePaths(Collections.singletonList(path.withLocked(locked))),
+                   is(true));
+        // The algorithm must have been initialized before the update returns, so concurrent first
+        // requests all see the same, complete state.
+        List<Future<Long>> results = new ArrayList<>();
+        for (int j = 0; j < 4; j++) {
+          results.add(executor.submit(() -> router.getCosts(src.getReference(),
+                                                            dest.getReference())));
+        }
+        for (Future<Long> result : results) {
+          assertThat(result.get(), is((locked ? 3 : 1) * GridPlant.SPACING));
+        }
+      }
+    }
+    finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private ShortestPathPointRouter createRouter(int cacheSize, boolean precomputeCosts) {
+    return createRouter(DijkstraShortestPath::new, cacheSize, precomputeCosts);
+  }
+
+  private ShortestPathPointRouter createRouter(
+      Function<Graph<String, ModelEdge>, ShortestPathAlgorithm<String, ModelEdge>> algorithmFactory,
+      int cacheSize,
+      boolean precomputeCosts) {
+    return new ShortestPathPointRouter(
+        new RoutingGroupGraph(new SharedModelGraph(plant.getPoints(), plant.getPaths()),
+                              plant.getPaths(),
+                              mapper.translateModel(plant.getPoints(), plant.getPaths(), vehicle)),
+        algorithmFactory,
+        mapper,
+        vehicle,
+        cacheSize,
+        precomputeCosts);
+  }
+}
@@ -0,0 +1,59 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing.jgrapht;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A fixed {@link ShortestPathConfiguration} for tests and benchmarks.
+ */
+public class TestShortestPathConfiguration
+    implements ShortestPathConfiguration {
+
+  private final Algorithm algorithm;
+
+  private final int routeCacheSize;
+
+  private final boolean precomputeCosts;
+
+  /**
+   * Creates a new instance using the distance as the only edge evaluator.
+   *
+   * @param algorithm The routing algorithm.
+   * @param routeCacheSize The maximum number of cached results.
+   * @param precomputeCosts Whether to compute the costs for all pairs of points.
+   */
+  public TestShortestPathConfiguration(Algorithm algorithm,
+                                       int routeCacheSize,
+                                       boolean precomputeCosts) {
+    this.algorithm = algorithm;
+    this.routeCacheSize = routeCacheSize;
+    this.precomputeCosts = precomputeCosts;
+  }
+
+  @Override
+  public Algorithm algorithm() {
+    return algorithm;
+  }
+
+  @Override
+  public List<EvaluatorType> edgeEvaluators() {
+    return Arrays.asList(EvaluatorType.DISTANCE);
+  }
+
+  @Override
+  public int routeCacheSize() {
+    return routeCacheSize;
+  }
+
+  @Override
+  public boolean precomputeCosts() {
+    return precomputeCosts;
+  }
+}
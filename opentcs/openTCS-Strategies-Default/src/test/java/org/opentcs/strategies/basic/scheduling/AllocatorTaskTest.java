@@ -0,0 +1,174 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.scheduling;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import org.junit.Before;
+import org.junit.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.opentcs.components.kernel.Scheduler;
+import org.opentcs.components.kernel.services.InternalPlantModelService;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.TCSResource;
+import org.opentcs.util.KeyedExecutor;
+import org.opentcs.util.LaneStatistics;
+
+/**
+ * Unit tests for {@link AllocatorTask}.
+ */
+public class AllocatorTaskTest {
+
+  private final Object globalSyncObject = new Object();
+
+  private RecordingExecutor executor;
+
+  private ReservationPool reservationPool;
+
+  private Scheduler.Module allocationAdvisor;
+
+  private RecordingClient client;
+
+  private final Point point = new Point("A");
+
+  private Set<TCSResource<?>> resources;
+
+  @Before
+  public void setUp() {
+    executor = new RecordingExecutor();
+    reservationPool = new ReservationPool();
+    allocationAdvisor = mock(Scheduler.Module.class);
+    when(allocationAdvisor.mayAllocate(any(), any())).thenReturn(true);
+    when(allocationAdvisor.hasPreparedAllocation(any(), any())).thenReturn(true);
+    client = new RecordingClient("client", true);
+    resources = new HashSet<>(Collections.singleton(point));
+  }
+
+  @Test
+  public void callBackClientInGlobalLane() {
+    createTask(client).run();
+
+    // The allocation itself has been made, but the client has not been called back, yet.
+    assertThat(reservationPool.getReservationEntry(point).isAllocatedBy(client),
+               is(true));
+    assertThat(client.callbacks, is(empty()));
+    assertThat(executor.keys, contains(KeyedExecutor.GLOBAL_LANE));
+
+    executor.runAll();
+
+    assertThat(client.callbacks, contains(resources));
+  }
+
+  @Test
+  public void freeResourcesDeclinedInGlobalLane() {
+    RecordingClient decliningClient = new RecordingClient("declining", false);
+    createTask(decliningClient).run();
+    executor.runAll();
+
+    assertThat(decliningClient.callbacks, contains(resources));
+    assertThat(reservationPool.getReservationEntry(point).isFree(), is(true));
+  }
+
+  private AllocatorTask createTask(Scheduler.Client taskClient) {
+    return new AllocatorTask(mock(InternalPlantModelService.class),
+                             reservationPool,
+                             new DeferredAllocations(event -> {
+                             }),
+                             allocationAdvisor,
+                             executor,
+                             globalSyncObject,
+                             new AllocatorCommand.Allocate(taskClient, resources));
+  }
+
+  /**
+   * Records the tasks submitted and the lanes they were submitted for.
+   */
+  private static class RecordingExecutor
+      implements KeyedExecutor {
+
+    private final List<Object> keys = new ArrayList<>();
+
+    private final List<Runnable> tasks = new ArrayList<>();
+
+    @Override
+    public void execute(@Nonnull Object key, @Nonnull Runnable task) {
+      keys.add(key);
+      tasks.add(task);
+    }
+
+    @Override
+    public Future<?> submit(@Nonnull Object key, @Nonnull Runnable task) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(@Nonnull Object key,
+                                       @Nonnull Runnable task,
+                                       long delay,
+                                       @Nonnull TimeUnit unit) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<LaneStatistics> getLaneStatistics() {
+      return new ArrayList<>();
+    }
+
+    void runAll() {
+      while (!tasks.isEmpty()) {
+        tasks.remove(0).run();
+      }
+    }
+  }
+
+  /**
+   * A client recording the resources it was called back for.
+   */
+  private static class RecordingClient
+      implements Scheduler.Client {
+
+    private final String id;
+
+    private final boolean accept;
+
+    private final List<Set<TCSResource<?>>> callbacks = new ArrayList<>();
+
+    RecordingClient(String id, boolean accept) {
+      this.id = id;
+      this.accept = accept;
+    }
+
+    @Override
+    public String getId() {
+      return id;
+    }
+
+    @Override
+    public boolean allocationSuccessful(@Nonnull Set<TCSResource<?>> resources) {
+      callbacks.add(resources);
+      return accept;
+    }
+
+    @Override
+    public void allocationFailed(@Nonnull Set<TCSResource<?>> resources) {
+    }
+  }
+}
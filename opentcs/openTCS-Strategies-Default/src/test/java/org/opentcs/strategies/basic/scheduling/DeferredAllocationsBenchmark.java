@@ -0,0 +1,153 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.scheduling;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.opentcs.components.kernel.Scheduler;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.TCSResource;
+import org.opentcs.strategies.basic.scheduling.DeferredAllocationsTest.TestClient;
+
+/**
+ * Compares the cost of a resource release with resource-indexed wake-ups against the previous
+ * strategy of retrying all deferred allocations.
+ * <p>
+ * {@code waitingClients} vehicles wait for {@code blocks} contended resources. Each operation
+ * releases one of the resources, which is taken again by its owner right away, so every
+ * re-checked allocation is deferred again and the state stays the same across operations.
+ * Each benchmark method returns the number of allocation tasks the release puts into the kernel
+ * executor's queue: {@code waitingClients / blocks} with indexed wake-ups, {@code waitingClients}
+ * with retry-all.
+ * </p>
+ * <p>
+ * Run with {@code java -cp <test classpath> }
+ * {@code org.opentcs.strategies.basic.scheduling.DeferredAllocationsBenchmark}.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeferredAllocationsBenchmark {
+
+  @Param({"150"})
+  public int waitingClients;
+
+  @Param({"10", "50"})
+  public int blocks;
+
+  private final ReservationPool reservationPool = new ReservationPool();
+
+  private final List<TCSResource<?>> resources = new ArrayList<>();
+
+  private final Scheduler.Client owner = new TestClient("owner");
+
+  private DeferredAllocations deferredAllocations;
+
+  /**
+   * The deferred allocations, as kept by the previous retry-all strategy.
+   */
+  private List<AllocatorCommand.Allocate> allDeferred;
+
+  private int nextRelease;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    deferredAllocations = new DeferredAllocations(event -> {
+    });
+    allDeferred = new ArrayList<>();
+    for (int i = 0; i < blocks; i++) {
+      Point point = new Point("block-" + i);
+      resources.add(point);
+      reservationPool.getReservationEntry(point).allocate(owner);
+    }
+    for (int i = 0; i < waitingClients; i++) {
+      AllocatorCommand.Allocate allocate
+          = new AllocatorCommand.Allocate(new TestClient("vehicle-" + i),
+                                          Collections.singleton(resources.get(i % blocks)));
+      tryAllocate(allocate);
+      allDeferred.add(allocate);
+    }
+  }
+
+  @Benchmark
+  public int releaseWithIndexedWakeUp() {
+    List<AllocatorCommand.Allocate> woken
+        = deferredAllocations.wakeUp(Collections.singleton(nextReleasedResource()));
+    for (AllocatorCommand.Allocate allocate : woken) {
+      tryAllocate(allocate);
+    }
+    return woken.size();
+  }
+
+  @Benchmark
+  public int releaseWithRetryAll() {
+    nextReleasedResource();
+    List<AllocatorCommand.Allocate> woken = new ArrayList<>(allDeferred);
+    Collections.sort(woken);
+    allDeferred.clear();
+    for (AllocatorCommand.Allocate allocate : woken) {
+      if (!reservationPool.unavailableResources(allocate.getResources(), allocate.getClient())
+          .isEmpty()) {
+        allDeferred.add(allocate);
+      }
+    }
+    return woken.size();
+  }
+
+  private TCSResource<?> nextReleasedResource() {
+    TCSResource<?> resource = resources.get(nextRelease);
+    nextRelease = (nextRelease + 1) % resources.size();
+    return resource;
+  }
+
+  /**
+   * Checks the allocation the same way {@link AllocatorTask} does and defers it, as the resource
+   * is still allocated by its owner.
+   */
+  private void tryAllocate(AllocatorCommand.Allocate allocate) {
+    Set<TCSResource<?>> unavailable
+        = reservationPool.unavailableResources(allocate.getResources(), allocate.getClient());
+    Map<TCSResource<?>, Scheduler.Client> owners = unavailable.stream()
+        .collect(Collectors.toMap(resource -> resource,
+                                  resource -> reservationPool.getReservationEntry(resource)
+                                      .getClient()));
+    deferredAllocations.deferUntilFree(allocate, owners);
+  }
+
+  public static void main(String[] args)
+      throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(DeferredAllocationsBenchmark.class.getSimpleName())
+        .build())
+        .run();
+  }
+}
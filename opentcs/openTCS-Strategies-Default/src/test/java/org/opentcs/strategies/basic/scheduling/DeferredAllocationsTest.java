@@ -0,0 +1,178 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.scheduling;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import org.junit.Before;
+import org.junit.Test;
+import org.opentcs.access.SchedulerDeadlock;
+import org.opentcs.components.kernel.Scheduler;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.TCSResource;
+
+/**
+ * Unit tests for {@link DeferredAllocations}.
+ */
+public class DeferredAllocationsTest {
+
+  private List<Object> publishedEvents;
+
+  private DeferredAllocations deferredAllocations;
+
+  @Before
+  public void setUp() {
+    publishedEvents = new ArrayList<>();
+    deferredAllocations = new DeferredAllocations(publishedEvents::add);
+  }
+
+  @Test
+  public void wakeOnlyAllocationsWaitingForReleasedResources() {
+    Point pointA = new Point("A");
+    Point pointB = new Point("B");
+    TestClient owner = new TestClient("owner");
+    AllocatorCommand.Allocate waitingForA = allocate(new TestClient("1"), pointA);
+    AllocatorCommand.Allocate waitingForB = allocate(new TestClient("2"), pointB);
+
+    deferredAllocations.deferUntilFree(waitingForA, unavailable(owner, pointA));
+    deferredAllocations.deferUntilFree(waitingForB, unavailable(owner, pointB));
+
+    assertThat(deferredAllocations.wakeUp(resources(pointA)), contains(waitingForA));
+    assertThat(deferredAllocations.size(), is(1));
+    assertThat(deferredAllocations.wakeUp(resources(pointA)), is(empty()));
+    assertThat(deferredAllocations.wakeUp(resources(pointB)), contains(waitingForB));
+    assertThat(deferredAllocations.size(), is(0));
+  }
+
+  @Test
+  public void wakeAllocationWaitingForSeveralResourcesOnlyOnce() {
+    Point pointA = new Point("A");
+    Point pointB = new Point("B");
+    TestClient owner = new TestClient("owner");
+    AllocatorCommand.Allocate allocate = allocate(new TestClient("1"), pointA, pointB);
+
+    deferredAllocations.deferUntilFree(allocate, unavailable(owner, pointA, pointB));
+
+    assertThat(deferredAllocations.wakeUp(resources(pointA, pointB)), contains(allocate));
+    // Waking up removes the allocation from the queues of all the resources it was waiting for.
+    assertThat(deferredAllocations.wakeUp(resources(pointB)), is(empty()));
+  }
+
+  @Test
+  public void wakeRestrictedAllocationsOnAnyRelease() {
+    Point pointA = new Point("A");
+    Point pointB = new Point("B");
+    AllocatorCommand.Allocate restricted = allocate(new TestClient("1"), pointA);
+    AllocatorCommand.Allocate waitingForA
+        = allocate(new TestClient("2"), pointA);
+
+    deferredAllocations.deferUntilReleased(restricted);
+    deferredAllocations.deferUntilFree(waitingForA, unavailable(new TestClient("owner"), pointA));
+
+    assertThat(deferredAllocations.wakeUp(resources(pointB)), contains(restricted));
+    assertThat(deferredAllocations.size(), is(1));
+  }
+
+  @Test
+  public void returnWokenAllocationsInNaturalOrder()
+      throws InterruptedException {
+    Point pointA = new Point("A");
+    TestClient owner = new TestClient("owner");
+    List<AllocatorCommand.Allocate> allocations = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      allocations.add(allocate(new TestClient("client-" + i), pointA));
+      // The natural order of allocations depends on their creation time in milliseconds.
+      Thread.sleep(2);
+    }
+    List<AllocatorCommand.Allocate> shuffled = new ArrayList<>(allocations);
+    Collections.reverse(shuffled);
+    for (AllocatorCommand.Allocate allocate : shuffled) {
+      deferredAllocations.deferUntilFree(allocate, unavailable(owner, pointA));
+    }
+
+    assertThat(deferredAllocations.wakeUp(resources(pointA)), is(allocations));
+  }
+
+  @Test
+  public void detectAndForgetDeadlock() {
+    Point pointA = new Point("A");
+    Point pointB = new Point("B");
+    TestClient client1 = new TestClient("1");
+    TestClient client2 = new TestClient("2");
+
+    // Client 1 holds A and waits for B, client 2 holds B and waits for A.
+    deferredAllocations.deferUntilFree(allocate(client1, pointB), unavailable(client2, pointB));
+    assertThat(publishedEvents, is(empty()));
+    deferredAllocations.deferUntilFree(allocate(client2, pointA), unavailable(client1, pointA));
+
+    assertThat(publishedEvents, hasSize(1));
+    SchedulerDeadlock deadlock = (SchedulerDeadlock) publishedEvents.get(0);
+    assertThat(new HashSet<>(deadlock.getClientIds()), is(new HashSet<>(Arrays.asList("1", "2"))));
+    assertThat(deferredAllocations.getDeadlocks(), contains(deadlock));
+
+    deferredAllocations.wakeUp(resources(pointA));
+    assertThat(deferredAllocations.getDeadlocks(), is(empty()));
+  }
+
+  private static AllocatorCommand.Allocate allocate(Scheduler.Client client,
+                                                    TCSResource<?>... resources) {
+    return new AllocatorCommand.Allocate(client, resources(resources));
+  }
+
+  private static Set<TCSResource<?>> resources(TCSResource<?>... resources) {
+    return new HashSet<>(Arrays.asList(resources));
+  }
+
+  private static Map<TCSResource<?>, Scheduler.Client> unavailable(Scheduler.Client owner,
+                                                                    TCSResource<?>... resources) {
+    Map<TCSResource<?>, Scheduler.Client> result = new HashMap<>();
+    for (TCSResource<?> resource : resources) {
+      result.put(resource, owner);
+    }
+    return result;
+  }
+
+  /**
+   * A scheduler client that accepts all allocations.
+   */
+  static class TestClient
+      implements Scheduler.Client {
+
+    private final String id;
+
+    TestClient(String id) {
+      this.id = id;
+    }
+
+    @Override
+    public String getId() {
+      return id;
+    }
+
+    @Override
+    public boolean allocationSuccessful(@Nonnull Set<TCSResource<?>> resources) {
+      return true;
+    }
+
+    @Override
+    public void allocationFailed(@Nonnull Set<TCSResource<?>> resources) {
+    }
+  }
+}
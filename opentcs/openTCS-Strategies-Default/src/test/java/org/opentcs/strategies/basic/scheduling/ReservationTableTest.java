@@ -0,0 +1,123 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.scheduling;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import org.junit.Before;
+import org.junit.Test;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.TCSResource;
+import org.opentcs.strategies.basic.scheduling.DeferredAllocationsTest.TestClient;
+import org.opentcs.strategies.basic.scheduling.ReservationTable.TimeWindow;
+
+/**
+ * Unit tests for {@link ReservationTable}.
+ */
+public class ReservationTableTest {
+
+  private final Point pointX = new Point("X");
+
+  private final Point pointY = new Point("Y");
+
+  private final TestClient clientA = new TestClient("A");
+
+  private final TestClient clientB = new TestClient("B");
+
+  private ReservationTable table;
+
+  @Before
+  public void setUp() {
+    table = new ReservationTable();
+  }
+
+  @Test
+  public void shiftConflictingWindowBehindEarlierReservation() {
+    table.reserve(clientA, steps(pointX), Arrays.asList(10L), 0);
+    table.reserve(clientB, steps(pointX), Arrays.asList(10L), 5);
+
+    TimeWindow window = table.getWindows(clientB).get(0);
+    assertThat(window.getStart(), is(10L));
+    assertThat(window.getEnd(), is(20L));
+  }
+
+  @Test
+  public void grantPrecedenceToEarlierWindow() {
+    table.reserve(clientA, steps(pointX), Arrays.asList(10L), 0);
+    table.reserve(clientB, steps(pointX), Arrays.asList(10L), 0);
+
+    assertThat(table.findPrecedingWindow(clientA, pointX, 5), is(nullValue()));
+    assertThat(table.findPrecedingWindow(clientB, pointX, 5),
+               is(sameInstance(table.getWindows(clientA).get(0))));
+  }
+
+  @Test
+  public void useCurrentOwnWindowOfClientPassingResourceTwice() {
+    // A occupies X in [0,10) and [30,40), B gets the gap in between.
+    table.reserve(clientA, steps(pointX, pointY, pointX), Arrays.asList(10L, 20L, 10L), 0);
+    table.reserve(clientB, steps(pointX), Arrays.asList(20L), 0);
+    TimeWindow windowB = table.getWindows(clientB).get(0);
+    assertThat(windowB.getStart(), is(10L));
+
+    assertThat(table.findPrecedingWindow(clientB, pointX, 5),
+               is(sameInstance(table.getWindows(clientA).get(0))));
+    assertThat(table.findPrecedingWindow(clientA, pointX, 5), is(nullValue()));
+    // A's first window has ended, so its second one has to wait for B's.
+    assertThat(table.findPrecedingWindow(clientA, pointX, 15), is(sameInstance(windowB)));
+    assertThat(table.findPrecedingWindow(clientA, pointX, 35), is(nullValue()));
+  }
+
+  @Test
+  public void ignoreExpiredWindows() {
+    table.reserve(clientA, steps(pointX, pointY), Arrays.asList(10L, 10L), 0);
+    table.reserve(clientB, steps(pointX), Arrays.asList(10L), 0);
+
+    table.expire(10);
+
+    assertThat(table.getWindows(clientA), hasSize(1));
+    assertThat(table.getWindows(clientA).get(0).getResource(), is(pointY));
+    assertThat(table.findPrecedingWindow(clientB, pointX, 10), is(nullValue()));
+  }
+
+  @Test
+  public void releaseAllWindowsOfClient() {
+    table.reserve(clientA, steps(pointX, pointY), Arrays.asList(10L, 10L), 0);
+    table.reserve(clientB, steps(pointY), Arrays.asList(10L), 0);
+
+    table.release(clientA);
+
+    assertThat(table.getWindows(clientA), is(empty()));
+    assertThat(table.findPrecedingWindow(clientB, pointY, 0), is(nullValue()));
+  }
+
+  @Test
+  public void replaceWindowsOnNewReservation() {
+    table.reserve(clientA, steps(pointX), Arrays.asList(10L), 0);
+    table.reserve(clientA, steps(pointY), Arrays.asList(10L), 20);
+
+    assertThat(table.getWindows(clientA), hasSize(1));
+    assertThat(table.findPrecedingWindow(clientB, pointX, 5), is(nullValue()));
+    assertThat(table.findPrecedingWindow(clientB, pointY, 25),
+               is(sameInstance(table.getWindows(clientA).get(0))));
+  }
+
+  private static List<Set<TCSResource<?>>> steps(TCSResource<?>... resources) {
+    return Arrays.stream(resources)
+        .map(resource -> Collections.<TCSResource<?>>singleton(resource))
+        .collect(Collectors.toList());
+  }
+}
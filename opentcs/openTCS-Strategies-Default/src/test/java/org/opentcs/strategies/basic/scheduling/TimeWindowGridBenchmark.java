@@ -0,0 +1,243 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.scheduling;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.TCSResource;
+import org.opentcs.strategies.basic.scheduling.DeferredAllocationsTest.TestClient;
+
+/**
+ * Compares the resource locks of the {@link ReservationPool} alone with the additional time
+ * windows of a {@link ReservationTable}, as used by the {@link TimeWindowScheduler}, on a generated
+ * grid plant.
+ * <p>
+ * The plant is a grid of {@code gridSize} x {@code gridSize} points. One vehicle per row drives
+ * east and one vehicle per column drives south, so every point is a crossing. Vehicles need
+ * between 8 and 12 ticks per step. A vehicle allocates the next point before leaving its current
+ * one and frees the current one on arrival, just like with the kernel's scheduler. A vehicle at
+ * the end of its row or column leaves the grid, freeing its point, and waits outside to enter the
+ * grid again at the other end, so vehicles on the grid only ever wait for points further east or
+ * south and cannot deadlock. With time
+ * windows, each vehicle reserves its next {@code lookahead} steps whenever it arrives at a point
+ * and an allocation is only granted if no other vehicle has an earlier window for the point.
+ * </p>
+ * <p>
+ * Each benchmark method simulates {@link #TICKS} ticks and returns the number of steps all
+ * vehicles completed. The measured time is the scheduling overhead for the whole simulation. The
+ * simulated throughput of both variants, which does not depend on the JVM, is printed on set-up.
+ * </p>
+ * <p>
+ * Run with {@code java -cp <test classpath> }
+ * {@code org.opentcs.strategies.basic.scheduling.TimeWindowGridBenchmark}.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimeWindowGridBenchmark {
+
+  /**
+   * The number of simulated ticks.
+   */
+  static final int TICKS = 10_000;
+
+  @Param({"10", "20"})
+  public int gridSize;
+
+  @Param({"4"})
+  public int lookahead;
+
+  private Point[][] grid;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    grid = new Point[gridSize][gridSize];
+    for (int row = 0; row < gridSize; row++) {
+      for (int col = 0; col < gridSize; col++) {
+        grid[row][col] = new Point("Point-" + row + "-" + col);
+      }
+    }
+    System.out.printf("%nGrid %dx%d, %d vehicles, %d ticks: %d steps with resource locks only,"
+        + " %d steps with time windows%n",
+                      gridSize,
+                      gridSize,
+                      2 * gridSize,
+                      TICKS,
+                      new Simulation(false).run(),
+                      new Simulation(true).run());
+  }
+
+  @Benchmark
+  public int resourceLocks() {
+    return new Simulation(false).run();
+  }
+
+  @Benchmark
+  public int timeWindows() {
+    return new Simulation(true).run();
+  }
+
+  /**
+   * A tick-based simulation of the vehicles on the grid.
+   */
+  private class Simulation {
+
+    private final ReservationPool reservationPool = new ReservationPool();
+
+    private final ReservationTable reservationTable;
+
+    private final List<SimVehicle> vehicles = new ArrayList<>();
+
+    Simulation(boolean withTimeWindows) {
+      reservationTable = withTimeWindows ? new ReservationTable() : null;
+      for (int i = 0; i < gridSize; i++) {
+        // Row vehicles start on the diagonal, column vehicles below it, so nobody collides.
+        vehicles.add(new SimVehicle("east-" + i, i, i, 0, 1, 8 + i % 5));
+        vehicles.add(new SimVehicle("south-" + i, (i + 1) % gridSize, i, 1, 0, 8 + (i + 2) % 5));
+      }
+      for (SimVehicle vehicle : vehicles) {
+        reservationPool.getReservationEntry(vehicle.current()).allocate(vehicle.client);
+        plan(vehicle, 0);
+      }
+    }
+
+    int run() {
+      int steps = 0;
+      for (long now = 0; now < TICKS; now++) {
+        if (reservationTable != null) {
+          reservationTable.expire(now);
+        }
+        for (SimVehicle vehicle : vehicles) {
+          if (vehicle.moving && vehicle.arrival <= now) {
+            if (!vehicle.outside) {
+              reservationPool.free(vehicle.client, Collections.singleton(vehicle.current()));
+            }
+            vehicle.advance();
+            plan(vehicle, now);
+            steps++;
+          }
+          if (!vehicle.moving && !vehicle.outside && vehicle.atGridEnd()) {
+            reservationPool.free(vehicle.client, Collections.singleton(vehicle.current()));
+            vehicle.outside = true;
+          }
+          if (!vehicle.moving && mayAllocate(vehicle, vehicle.next(0), now)) {
+            reservationPool.getReservationEntry(vehicle.next(0)).allocate(vehicle.client);
+            vehicle.moving = true;
+            vehicle.arrival = now + vehicle.stepTime;
+          }
+        }
+      }
+      return steps;
+    }
+
+    private boolean mayAllocate(SimVehicle vehicle, Point point, long now) {
+      if (!reservationPool.getReservationEntry(point).isFree()) {
+        return false;
+      }
+      return reservationTable == null
+          || reservationTable.findPrecedingWindow(vehicle.client, point, now) == null;
+    }
+
+    private void plan(SimVehicle vehicle, long now) {
+      if (reservationTable == null) {
+        return;
+      }
+      List<Set<TCSResource<?>>> steps = new ArrayList<>(lookahead);
+      List<Long> durations = new ArrayList<>(lookahead);
+      for (int i = 0; i < lookahead; i++) {
+        steps.add(Collections.singleton(vehicle.next(i)));
+        durations.add((long) vehicle.stepTime);
+      }
+      reservationTable.reserve(vehicle.client, steps, durations, now);
+    }
+  }
+
+  /**
+   * A vehicle driving along a row or column of the grid.
+   */
+  private class SimVehicle {
+
+    private final TestClient client;
+
+    private final int rowDelta;
+
+    private final int colDelta;
+
+    private final int stepTime;
+
+    private int row;
+
+    private int col;
+
+    private boolean moving;
+
+    private boolean outside;
+
+    private long arrival;
+
+    SimVehicle(String name, int row, int col, int rowDelta, int colDelta, int stepTime) {
+      this.client = new TestClient(name);
+      this.row = row;
+      this.col = col;
+      this.rowDelta = rowDelta;
+      this.colDelta = colDelta;
+      this.stepTime = stepTime;
+    }
+
+    Point current() {
+      return grid[row][col];
+    }
+
+    Point next(int index) {
+      return grid[(row + (index + 1) * rowDelta) % gridSize][(col + (index + 1) * colDelta)
+          % gridSize];
+    }
+
+    boolean atGridEnd() {
+      return row + rowDelta == gridSize || col + colDelta == gridSize;
+    }
+
+    void advance() {
+      row = (row + rowDelta) % gridSize;
+      col = (col + colDelta) % gridSize;
+      moving = false;
+      outside = false;
+    }
+  }
+
+  public static void main(String[] args)
+      throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(TimeWindowGridBenchmark.class.getSimpleName())
+        .build())
+        .run();
+  }
+}